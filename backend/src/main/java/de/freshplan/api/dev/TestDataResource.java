@@ -1,6 +1,9 @@
 package de.freshplan.api.dev;
 
 import de.freshplan.domain.testdata.service.TestDataService;
+import de.freshplan.domain.testdata.service.bulk.BulkSeedRequest;
+import de.freshplan.domain.testdata.service.bulk.BulkSeedResult;
+import de.freshplan.domain.testdata.service.bulk.BulkSeedService;
 import de.freshplan.infrastructure.security.SecurityAudit;
 import de.freshplan.infrastructure.security.SecurityContextProvider;
 import jakarta.annotation.security.RolesAllowed;
@@ -8,6 +11,7 @@ import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.util.Map;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
@@ -26,6 +30,8 @@ public class TestDataResource {
 
   @Inject TestDataService testDataService;
 
+  @Inject BulkSeedService bulkSeedService;
+
   @Inject SecurityContextProvider securityContext;
 
   @POST
@@ -119,6 +125,62 @@ public class TestDataResource {
     }
   }
 
+  @POST
+  @Path("/seed-bulk")
+  @Operation(
+      summary = "Seed high-volume load-test data",
+      description =
+          "Generates up to millions of customers, contacts, leads, timeline events, opportunities"
+              + " and audit entries via PostgreSQL COPY (deterministic per seed)")
+  @APIResponse(responseCode = "200", description = "Bulk data seeded successfully")
+  @APIResponse(responseCode = "400", description = "Invalid volumes")
+  @APIResponse(responseCode = "500", description = "Error seeding bulk data")
+  public Response seedBulkTestData(BulkSeedRequest request) {
+    // Only allow in development mode
+    if (!isDevelopmentMode()) {
+      return Response.status(Response.Status.FORBIDDEN)
+          .entity(new ErrorResponse("Test data operations are only allowed in development mode"))
+          .build();
+    }
+
+    try {
+      BulkSeedResult result = bulkSeedService.seed(request);
+      return Response.ok(result).build();
+    } catch (IllegalArgumentException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+          .entity(new ErrorResponse(e.getMessage()))
+          .build();
+    } catch (Exception e) {
+      return Response.serverError()
+          .entity(new ErrorResponse("Failed to seed bulk data: " + e.getMessage()))
+          .build();
+    }
+  }
+
+  @DELETE
+  @Path("/bulk")
+  @Operation(
+      summary = "Remove bulk load-test data",
+      description = "Removes all rows created by /seed-bulk")
+  @APIResponse(responseCode = "200", description = "Bulk data removed")
+  public Response purgeBulkTestData() {
+    // Only allow in development mode
+    if (!isDevelopmentMode()) {
+      return Response.status(Response.Status.FORBIDDEN)
+          .entity(new ErrorResponse("Test data operations are only allowed in development mode"))
+          .build();
+    }
+
+    try {
+      Map<String, Long> deleted = bulkSeedService.purge();
+      return Response.ok(deleted).build();
+    } catch (Exception e) {
+      return Response.serverError()
+          .entity(new ErrorResponse("Failed to remove bulk data: " + e.getMessage()))
+          .build();
+    }
+  }
+
   @DELETE
   @Path("/clean")
   @Operation(summary = "Clean test data", description = "Removes all test data from the database")
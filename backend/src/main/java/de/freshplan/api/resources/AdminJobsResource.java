@@ -1,5 +1,6 @@
 package de.freshplan.api.resources;
 
+import de.freshplan.infrastructure.jobs.PipelineSnapshotJob;
 import de.freshplan.infrastructure.jobs.SalesRepSyncJob;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
@@ -20,6 +21,7 @@ import org.slf4j.LoggerFactory;
  *
  * <ul>
  *   <li>POST /api/admin/jobs/sync-sales-reps - Trigger Sales-Rep Sync Job manually
+ *   <li>POST /api/admin/jobs/pipeline-snapshot - Write today's pipeline snapshot
  * </ul>
  *
  * <p><b>Security:</b> ADMIN role required for all endpoints
@@ -36,6 +38,8 @@ public class AdminJobsResource {
 
   @Inject SalesRepSyncJob salesRepSyncJob;
 
+  @Inject PipelineSnapshotJob pipelineSnapshotJob;
+
   /**
    * Trigger Sales-Rep Sync Job manually.
    *
@@ -83,6 +87,36 @@ public class AdminJobsResource {
     }
   }
 
+  /**
+   * Write today's pipeline snapshot manually (e.g. right after go-live, so trend charts have a
+   * first data point).
+   *
+   * <p>POST /api/admin/jobs/pipeline-snapshot
+   *
+   * @return Response with number of written rows
+   */
+  @POST
+  @Path("/pipeline-snapshot")
+  public Response triggerPipelineSnapshot() {
+    logger.info("🔧 Admin manually triggered pipeline snapshot");
+
+    try {
+      int rows = pipelineSnapshotJob.captureNow();
+      return Response.ok()
+          .entity(new JobTriggerResponse("success", "Pipeline snapshot written: " + rows + " rows"))
+          .build();
+
+    } catch (Exception e) {
+      logger.error("❌ Manual pipeline snapshot failed", e);
+
+      return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+          .entity(
+              new JobTriggerResponse(
+                  "error", "Pipeline snapshot failed: " + e.getMessage() + ". Check server logs."))
+          .build();
+    }
+  }
+
   /**
    * Job Trigger Response DTO.
    *
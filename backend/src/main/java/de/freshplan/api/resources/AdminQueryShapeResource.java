@@ -0,0 +1,80 @@
+package de.freshplan.api.resources;
+
+import de.freshplan.domain.customer.service.telemetry.QueryShapeTelemetry;
+import de.freshplan.domain.customer.service.telemetry.QueryShapeTelemetry.ShapeAdvice;
+import de.freshplan.domain.customer.service.telemetry.QueryShapeTelemetry.ShapeReport;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * Admin Query-Shape Resource
+ *
+ * <p>Visibility into the dynamic customer search: which filter/sort combinations are used, how slow
+ * they are, what their plans look like and which indexes would help.
+ *
+ * <p><b>Endpoints:</b>
+ *
+ * <ul>
+ *   <li>GET /api/admin/query-shapes - Shapes ranked by total time
+ *   <li>GET /api/admin/query-shapes/{id} - One shape incl. last EXPLAIN sample
+ *   <li>POST /api/admin/query-shapes/{id}/explain - Take an EXPLAIN sample now
+ *   <li>GET /api/admin/query-shapes/advice - Index suggestions for slow shapes
+ *   <li>DELETE /api/admin/query-shapes - Reset statistics
+ * </ul>
+ *
+ * <p><b>Security:</b> ADMIN role required for all endpoints
+ */
+@Path("/api/admin/query-shapes")
+@Produces(MediaType.APPLICATION_JSON)
+@RolesAllowed("ADMIN")
+public class AdminQueryShapeResource {
+
+  @Inject QueryShapeTelemetry telemetry;
+
+  @GET
+  public List<ShapeReport> ranking(@QueryParam("limit") @DefaultValue("20") int limit) {
+    return telemetry.ranking(Math.max(1, limit));
+  }
+
+  @GET
+  @Path("/advice")
+  public List<ShapeAdvice> advice(@QueryParam("limit") @DefaultValue("10") int limit) {
+    return telemetry.advice(Math.max(1, limit));
+  }
+
+  @GET
+  @Path("/{id}")
+  public Response shape(@PathParam("id") String id) {
+    return telemetry
+        .find(id)
+        .map(report -> Response.ok(report).build())
+        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+  }
+
+  @POST
+  @Path("/{id}/explain")
+  public Response explain(
+      @PathParam("id") String id, @QueryParam("size") @DefaultValue("20") int size) {
+    return telemetry
+        .explainNow(id, Math.max(1, size))
+        .map(report -> Response.ok(report).build())
+        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+  }
+
+  @DELETE
+  public Response reset() {
+    telemetry.reset();
+    return Response.noContent().build();
+  }
+}
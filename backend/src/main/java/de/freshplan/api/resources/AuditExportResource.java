@@ -6,14 +6,22 @@ import de.freshplan.domain.audit.entity.AuditSource;
 import de.freshplan.domain.audit.repository.AuditRepository;
 import de.freshplan.domain.audit.service.AuditService;
 import de.freshplan.domain.audit.service.dto.AuditContext;
+import de.freshplan.domain.audit.service.export.AuditExportFilter;
+import de.freshplan.domain.audit.service.export.AuditExportJob;
+import de.freshplan.domain.audit.service.export.AuditExportJobRegistry;
+import de.freshplan.domain.audit.service.export.AuditExportStreamer;
+import de.freshplan.domain.audit.service.export.AuditStreamFormat;
 import de.freshplan.infrastructure.export.*;
+import de.freshplan.infrastructure.export.job.ExportJobService;
 import io.quarkus.security.Authenticated;
+import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -44,12 +52,26 @@ public class AuditExportResource {
 
   @Inject UniversalExportService exportService;
 
+  @Inject AuditExportStreamer exportStreamer;
+
+  @Inject AuditExportJobRegistry exportJobs;
+
+  @Inject ExportJobService exportJobService;
+
+  @Inject SecurityIdentity identity;
+
+  /**
+   * Export audit data. CSV, NDJSON and XLSX ({@code excel}) are streamed from a database cursor;
+   * the {@code X-Export-Job-Id} header identifies the export for {@link #getExportJob}.
+   */
   @GET
   @Path("/{format}")
   @RolesAllowed({"admin", "auditor"})
   @Operation(summary = "Export audit data in specified format")
   @Produces({
     "text/csv",
+    "application/x-ndjson",
+    "application/gzip",
     "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
     "application/json",
     "text/html",
@@ -64,34 +86,28 @@ public class AuditExportResource {
       @QueryParam("userId") String userId,
       @QueryParam("eventType") List<AuditEventType> eventTypes,
       @QueryParam("source") List<AuditSource> sources,
-      @QueryParam("searchText") String searchText) {
+      @QueryParam("searchText") String searchText,
+      @QueryParam("gzip") @DefaultValue("false") boolean gzip) {
 
     log.infof("Exporting audit data as %s", format);
 
     try {
-      // Parse export format
-      ExportFormat exportFormat = ExportFormat.fromString(format.toUpperCase());
+      // CSV, NDJSON and XLSX are streamed, all other formats go through UniversalExportService
+      Optional<AuditStreamFormat> streamFormat = AuditStreamFormat.fromPath(format);
+      ExportFormat exportFormat =
+          streamFormat.isEmpty() ? ExportFormat.fromString(format.toUpperCase()) : null;
 
       // Build date range
       LocalDate from = fromStr != null ? LocalDate.parse(fromStr) : LocalDate.now().minusDays(30);
       LocalDate to = toStr != null ? LocalDate.parse(toStr) : LocalDate.now();
 
-      // Parse UUIDs (PMD Complexity Refactoring - Issue #146)
-      UUID parsedEntityId = parseUuidParam(entityId, "entityId");
-      UUID parsedUserId = parseUuidParam(userId, "userId");
-
       // Build search criteria
       var criteria =
-          AuditRepository.AuditSearchCriteria.builder()
-              .entityType(entityType)
-              .entityId(parsedEntityId)
-              .userId(parsedUserId)
-              .eventTypes(eventTypes)
-              .sources(sources)
-              .from(from.atStartOfDay(ZoneOffset.UTC).toInstant())
-              .to(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())
-              .searchText(searchText)
-              .build();
+          buildCriteria(from, to, entityType, entityId, userId, eventTypes, sources, searchText);
+
+      if (streamFormat.isPresent()) {
+        return streamExport(AuditExportFilter.from(criteria), streamFormat.get(), gzip, from, to);
+      }
 
       // Fetch audit entries
       List<AuditEntry> entries = auditRepository.search(criteria);
@@ -103,7 +119,7 @@ public class AuditExportResource {
       ExportConfig config = buildExportConfig(from, to, entityType, userId, eventTypes);
 
       // Log the export
-      logExportEvent(exportFormat, exportData.size(), from, to);
+      logExportEvent(exportFormat.toString(), Map.of("records", exportData.size()), from, to);
 
       // Export using Universal Export Service
       return exportService.exportAsResponse(exportData, config, exportFormat);
@@ -125,6 +141,137 @@ public class AuditExportResource {
     }
   }
 
+  /**
+   * Export audit data (CSV, NDJSON, XLSX) as asynchronous job. Returns 202 with the job status; the
+   * file is downloaded from {@code /api/v2/export/jobs/{jobId}/file}.
+   */
+  @POST
+  @Path("/{format}/jobs")
+  @RolesAllowed({"admin", "auditor"})
+  @Produces(MediaType.APPLICATION_JSON)
+  @Operation(summary = "Submit audit export as asynchronous job")
+  public Response submitExportJob(
+      @PathParam("format") String format,
+      @QueryParam("from") String fromStr,
+      @QueryParam("to") String toStr,
+      @QueryParam("entityType") String entityType,
+      @QueryParam("entityId") String entityId,
+      @QueryParam("userId") String userId,
+      @QueryParam("eventType") List<AuditEventType> eventTypes,
+      @QueryParam("source") List<AuditSource> sources,
+      @QueryParam("searchText") String searchText,
+      @QueryParam("gzip") @DefaultValue("false") boolean gzip) {
+
+    Optional<AuditStreamFormat> streamFormat = AuditStreamFormat.fromPath(format);
+    if (streamFormat.isEmpty()) {
+      return Response.status(Response.Status.BAD_REQUEST)
+          .entity(Map.of("error", "Export jobs support csv, ndjson and xlsx, not: " + format))
+          .build();
+    }
+
+    try {
+      LocalDate from = fromStr != null ? LocalDate.parse(fromStr) : LocalDate.now().minusDays(30);
+      LocalDate to = toStr != null ? LocalDate.parse(toStr) : LocalDate.now();
+      AuditExportFilter filter =
+          AuditExportFilter.from(
+              buildCriteria(
+                  from, to, entityType, entityId, userId, eventTypes, sources, searchText));
+      AuditStreamFormat jobFormat = streamFormat.get();
+
+      Response response =
+          exportJobService.submitAsResponse(
+              identity.getPrincipal().getName(),
+              "audit/" + jobFormat.name().toLowerCase(),
+              exportFilename(jobFormat, gzip),
+              gzip ? "application/gzip" : jobFormat.getContentType(),
+              output ->
+                  exportStreamer.export(
+                      filter, jobFormat, gzip, output, exportJobs.start(jobFormat, gzip)));
+      if (response.getStatus() == Response.Status.ACCEPTED.getStatusCode()) {
+        logExportEvent(jobFormat.name(), Map.of("async", true), from, to);
+      }
+      return response;
+    } catch (UuidParseException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+          .entity(Map.of("error", e.getMessage()))
+          .build();
+    }
+  }
+
+  /** Progress of a streamed export, known on the pod that streams it. */
+  @GET
+  @Path("/jobs/{jobId}")
+  @RolesAllowed({"admin", "auditor"})
+  @Produces(MediaType.APPLICATION_JSON)
+  @Operation(summary = "Get progress of a streamed audit export")
+  public Response getExportJob(@PathParam("jobId") String jobId) {
+    UUID id;
+    try {
+      id = UUID.fromString(jobId);
+    } catch (IllegalArgumentException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+          .entity(Map.of("error", "Invalid jobId format: " + jobId))
+          .build();
+    }
+    return exportJobs
+        .find(id)
+        .map(job -> Response.ok(job.status()).build())
+        .orElseGet(
+            () ->
+                Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", "Export job not found: " + jobId))
+                    .build());
+  }
+
+  private Response streamExport(
+      AuditExportFilter filter,
+      AuditStreamFormat streamFormat,
+      boolean gzip,
+      LocalDate from,
+      LocalDate to) {
+    AuditExportJob job = exportJobs.start(streamFormat, gzip);
+    logExportEvent(streamFormat.name(), Map.of("jobId", job.getId().toString()), from, to);
+
+    StreamingOutput body = output -> exportStreamer.export(filter, streamFormat, gzip, output, job);
+
+    return Response.ok(body)
+        .header(
+            "Content-Disposition",
+            "attachment; filename=\"" + exportFilename(streamFormat, gzip) + "\"")
+        .header("Content-Type", gzip ? "application/gzip" : streamFormat.getContentType())
+        .header("X-Export-Job-Id", job.getId().toString())
+        .build();
+  }
+
+  private static String exportFilename(AuditStreamFormat format, boolean gzip) {
+    return "audit_trail_"
+        + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+        + format.getExtension()
+        + (gzip ? ".gz" : "");
+  }
+
+  private AuditRepository.AuditSearchCriteria buildCriteria(
+      LocalDate from,
+      LocalDate to,
+      String entityType,
+      String entityId,
+      String userId,
+      List<AuditEventType> eventTypes,
+      List<AuditSource> sources,
+      String searchText) {
+    return AuditRepository.AuditSearchCriteria.builder()
+        .entityType(entityType)
+        // Parse UUIDs (PMD Complexity Refactoring - Issue #146)
+        .entityId(parseUuidParam(entityId, "entityId"))
+        .userId(parseUuidParam(userId, "userId"))
+        .eventTypes(eventTypes)
+        .sources(sources)
+        .from(from.atStartOfDay(ZoneOffset.UTC).toInstant())
+        .to(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+        .searchText(searchText)
+        .build();
+  }
+
   private String getCurrentUser() {
     // TODO: Get from security context
     return "System";
@@ -346,23 +493,22 @@ public class AuditExportResource {
    * Log the export event for audit trail.
    *
    * @param exportFormat the export format used
-   * @param recordCount number of records exported
+   * @param details number of records, or the job id of a streamed export
    * @param from start date
    * @param to end date
    */
   private void logExportEvent(
-      ExportFormat exportFormat, int recordCount, LocalDate from, LocalDate to) {
+      String exportFormat, Map<String, Object> details, LocalDate from, LocalDate to) {
+    Map<String, Object> value = new HashMap<>(details);
+    value.put("format", exportFormat);
+    value.put("from", from.toString());
+    value.put("to", to.toString());
     auditService.logAsync(
         AuditContext.builder()
             .eventType(AuditEventType.DATA_EXPORT_STARTED)
             .entityType("audit_trail")
             .entityId(UUID.randomUUID())
-            .newValue(
-                Map.of(
-                    "format", exportFormat.toString(),
-                    "records", recordCount,
-                    "from", from.toString(),
-                    "to", to.toString()))
+            .newValue(value)
             .build());
   }
 }
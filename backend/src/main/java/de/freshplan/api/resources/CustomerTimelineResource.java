@@ -2,6 +2,8 @@ package de.freshplan.api.resources;
 
 import de.freshplan.domain.customer.service.CustomerTimelineService;
 import de.freshplan.domain.customer.service.dto.timeline.*;
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedResponse;
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedService;
 import de.freshplan.infrastructure.security.SecurityAudit;
 import de.freshplan.infrastructure.security.SecurityContextProvider;
 import de.freshplan.shared.constants.PaginationConstants;
@@ -45,12 +47,16 @@ public class CustomerTimelineResource {
 
   private final CustomerTimelineService timelineService;
   private final SecurityContextProvider securityContext;
+  private final ActivityFeedService activityFeedService;
 
   @Inject
   public CustomerTimelineResource(
-      CustomerTimelineService timelineService, SecurityContextProvider securityContext) {
+      CustomerTimelineService timelineService,
+      SecurityContextProvider securityContext,
+      ActivityFeedService activityFeedService) {
     this.timelineService = timelineService;
     this.securityContext = securityContext;
+    this.activityFeedService = activityFeedService;
   }
 
   @GET
@@ -88,6 +94,38 @@ public class CustomerTimelineResource {
     return Response.ok(timeline).build();
   }
 
+  @GET
+  @Path("/feed")
+  @Operation(
+      summary = "Get unified activity feed",
+      description =
+          "Timeline events, lead activities and contact interactions of a customer, newest first."
+              + " Cursor based: pass nextCursor of the previous page to continue.")
+  @APIResponses({
+    @APIResponse(
+        responseCode = "200",
+        description = "Feed page retrieved successfully",
+        content = @Content(schema = @Schema(implementation = ActivityFeedResponse.class))),
+    @APIResponse(responseCode = "404", description = "Customer not found"),
+    @APIResponse(responseCode = "400", description = "Invalid cursor")
+  })
+  public Response getActivityFeed(
+      @Parameter(description = "Customer ID", required = true) @PathParam("customerId")
+          UUID customerId,
+      @Parameter(description = "Cursor from the previous page") @QueryParam("cursor") String cursor,
+      @Parameter(description = "Page size")
+          @QueryParam("size")
+          @DefaultValue(PaginationConstants.DEFAULT_PAGE_SIZE_STRING)
+          int size,
+      @Parameter(description = "Search in title and text") @QueryParam("search") String search) {
+
+    LOG.debugf("Getting activity feed for customer %s", customerId);
+
+    ActivityFeedResponse feed = activityFeedService.getFeed(customerId, cursor, size, search);
+
+    return Response.ok(feed).build();
+  }
+
   @POST
   @Operation(
       summary = "Create timeline event",
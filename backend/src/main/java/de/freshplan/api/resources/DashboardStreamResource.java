@@ -0,0 +1,108 @@
+package de.freshplan.api.resources;
+
+import de.freshplan.domain.cockpit.service.DashboardStreamFilter;
+import de.freshplan.domain.cockpit.service.DashboardStreamHub;
+import de.freshplan.domain.cockpit.service.DashboardStreamHub.StreamEvent;
+import de.freshplan.infrastructure.security.RlsRequestContext;
+import de.freshplan.infrastructure.security.RlsSessionContext;
+import de.freshplan.infrastructure.security.SecurityAudit;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import java.util.Set;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * Server-Sent Events für das Sales Cockpit: Dashboard- und Metrics-Events werden gepusht, statt
+ * dass der Client die Dashboard-Endpunkte pollt.
+ *
+ * <p>Jedes Event trägt seine ID; nach einem Verbindungsabbruch sendet der Browser automatisch
+ * {@code Last-Event-ID} und erhält die verpassten Events aus dem Journal. Ein {@code resync}-Event
+ * bedeutet: Verlauf nicht mehr vollständig verfügbar, Dashboard neu laden.
+ */
+@Path("/api/sales-cockpit/stream")
+@Tag(name = "Sales Cockpit", description = "Backend-for-Frontend Endpunkte für das Sales Cockpit")
+@ApplicationScoped
+@RolesAllowed({"admin", "manager", "sales", "viewer"})
+@SecurityAudit
+public class DashboardStreamResource {
+
+  /** Rollen, die Events aller Territorien sehen dürfen. */
+  private static final Set<String> CROSS_TERRITORY_ROLES = Set.of("ADMIN", "MANAGER");
+
+  private static final long RECONNECT_DELAY_MS = 3_000;
+
+  private final DashboardStreamHub streamHub;
+  private final RlsRequestContext rlsRequestContext;
+
+  @Inject
+  public DashboardStreamResource(
+      DashboardStreamHub streamHub, RlsRequestContext rlsRequestContext) {
+    this.streamHub = streamHub;
+    this.rlsRequestContext = rlsRequestContext;
+  }
+
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  @Blocking
+  @Operation(
+      summary = "Dashboard-Event-Stream (SSE)",
+      description =
+          "Pusht dashboard.* und metrics.* Events; Replay verpasster Events über Last-Event-ID")
+  public Multi<OutboundSseEvent> stream(
+      @Context Sse sse,
+      @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+      @Parameter(description = "Territorium (nur ADMIN/MANAGER, sonst eigenes Territorium)")
+          @QueryParam("territory")
+          String territory,
+      @Parameter(description = "Nur eigene Events") @QueryParam("mine") boolean mine,
+      @Parameter(description = "Event-Typ-Präfixe, kommagetrennt (z.B. dashboard.,metrics.)")
+          @QueryParam("types")
+          String types) {
+
+    RlsSessionContext context = rlsRequestContext.currentOrAnonymousFallback();
+    String effectiveTerritory =
+        CROSS_TERRITORY_ROLES.contains(context.role()) ? territory : context.appTerritory();
+    DashboardStreamFilter filter =
+        DashboardStreamFilter.of(effectiveTerritory, mine ? context.user() : null, types);
+
+    return streamHub
+        .open(filter, lastEventId)
+        .orElseThrow(() -> new ServiceUnavailableException(30L))
+        .map(event -> toSse(sse, event));
+  }
+
+  private static OutboundSseEvent toSse(Sse sse, StreamEvent event) {
+    return switch (event.kind()) {
+      case HEARTBEAT -> sse.newEventBuilder().comment("heartbeat").build();
+      case RESYNC ->
+          sse.newEventBuilder()
+              .name(event.type())
+              .data("{}")
+              .reconnectDelay(RECONNECT_DELAY_MS)
+              .build();
+      default ->
+          sse.newEventBuilder()
+              .id(event.id())
+              .name(event.type())
+              .data(event.envelope().encode())
+              .reconnectDelay(RECONNECT_DELAY_MS)
+              .build();
+    };
+  }
+}
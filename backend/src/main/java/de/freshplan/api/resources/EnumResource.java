@@ -17,6 +17,7 @@ import de.freshplan.domain.shared.CountryCode;
 import de.freshplan.domain.shared.DealSize;
 import de.freshplan.domain.shared.KitchenSize;
 import de.freshplan.domain.shared.LeadSource;
+import de.freshplan.infrastructure.meta.PreRendered;
 import de.freshplan.modules.leads.domain.ActivityOutcome;
 import de.freshplan.modules.leads.domain.ActivityType;
 import de.freshplan.modules.leads.domain.DecisionMakerAccess;
@@ -44,10 +45,12 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
  * Same values in DB, Backend, and Frontend - Maintainability: Add new values in ONE place (Backend
  * Enum) - Type-Safety: Compiler validates all enum usage
  *
- * <p>Cache Strategy: Frontend uses React Query with 5min stale time.
+ * <p>Cache Strategy: Responses are pre-rendered at startup ({@link PreRendered}) and served with
+ * ETag/Cache-Control; Frontend uses React Query with 5min stale time.
  *
  * <p>Reference: ENUM_MIGRATION_STRATEGY.md - 3-Phase Migration Plan
  */
+@PreRendered
 @Path("/api/enums")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "Enums", description = "Enum values Single Source of Truth")
@@ -0,0 +1,156 @@
+package de.freshplan.api.resources;
+
+import de.freshplan.infrastructure.export.job.ByteRange;
+import de.freshplan.infrastructure.export.job.ExportJob;
+import de.freshplan.infrastructure.export.job.ExportJobService;
+import io.quarkus.security.Authenticated;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.PathPart;
+
+/**
+ * REST API for asynchronous export jobs: status polling and download of the spooled result.
+ *
+ * <p>Jobs are submitted by the export resources ({@code POST .../jobs}). Files are sent with {@link
+ * PathPart}, i.e. via {@code sendfile} without copying through the heap; single {@code Range}
+ * requests are supported for resumed downloads. A file being downloaded is kept until the response
+ * ends; a result that expired or was evicted in the meantime is answered with {@code 410 Gone}.
+ *
+ * @author FreshPlan Team
+ * @since 2.0.0
+ */
+@Path(ExportJobService.JOBS_PATH)
+@ApplicationScoped
+@Authenticated
+@Tag(name = "Export Jobs", description = "Asynchronous exports with downloadable result files")
+@Produces(MediaType.APPLICATION_JSON)
+public class ExportJobResource {
+
+  @Inject ExportJobService exportJobService;
+
+  @Inject SecurityIdentity identity;
+
+  /** List the current user's export jobs */
+  @GET
+  @Operation(summary = "List own export jobs")
+  public List<ExportJob.Status> listJobs() {
+    return exportJobService.findByOwner(identity.getPrincipal().getName()).stream()
+        .map(ExportJob::status)
+        .toList();
+  }
+
+  /** Get status of an export job */
+  @GET
+  @Path("/{jobId}")
+  @Operation(summary = "Get status of an export job")
+  public Response getJob(@PathParam("jobId") String jobId) {
+    return findAccessible(jobId)
+        .map(job -> Response.ok(job.status()).build())
+        .orElseGet(() -> notFound(jobId));
+  }
+
+  /** Download the result of a completed export job */
+  @GET
+  @Path("/{jobId}/file")
+  @Produces(MediaType.WILDCARD)
+  @Operation(summary = "Download the result file of an export job")
+  public Response downloadJob(
+      @PathParam("jobId") String jobId,
+      @HeaderParam("Range") String range,
+      @Context RoutingContext routingContext) {
+    Optional<ExportJob> found = findAccessible(jobId);
+    if (found.isEmpty()) {
+      return notFound(jobId);
+    }
+    ExportJob job = found.get();
+    if (job.getState() != ExportJob.State.COMPLETED) {
+      return Response.status(Response.Status.CONFLICT)
+          .type(MediaType.APPLICATION_JSON)
+          .entity(job.status())
+          .build();
+    }
+
+    long length = job.getBytes();
+    Response.ResponseBuilder response;
+    try {
+      response =
+          ByteRange.parse(range, length)
+              .map(
+                  r ->
+                      Response.status(Response.Status.PARTIAL_CONTENT)
+                          .entity(new PathPart(job.getFile(), r.start(), r.length()))
+                          .header("Content-Range", r.contentRange(length)))
+              .orElseGet(() -> Response.ok(new PathPart(job.getFile(), 0, length)));
+    } catch (IllegalArgumentException e) {
+      return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header("Content-Range", "bytes */" + length)
+          .build();
+    }
+
+    if (!exportJobService.beginDownload(job)) {
+      return Response.status(Response.Status.GONE)
+          .type(MediaType.APPLICATION_JSON)
+          .entity(Map.of("error", "Export result expired: " + jobId))
+          .build();
+    }
+    // Fires on completion as well as on client abort
+    routingContext.addEndHandler(ignored -> exportJobService.endDownload(job));
+
+    return response
+        .header("Content-Type", job.getContentType())
+        .header("Content-Disposition", "attachment; filename=\"" + job.getFilename() + "\"")
+        .header("Accept-Ranges", "bytes")
+        .header("Cache-Control", "no-cache, no-store, must-revalidate")
+        .build();
+  }
+
+  /** Cancel a queued job or delete a finished job's result */
+  @DELETE
+  @Path("/{jobId}")
+  @Operation(summary = "Cancel or delete an export job")
+  public Response deleteJob(@PathParam("jobId") String jobId) {
+    Optional<ExportJob> found = findAccessible(jobId);
+    if (found.isEmpty()) {
+      return notFound(jobId);
+    }
+    if (!exportJobService.remove(found.get())) {
+      return Response.status(Response.Status.CONFLICT)
+          .entity(Map.of("error", "Export job is running and cannot be deleted"))
+          .build();
+    }
+    return Response.noContent().build();
+  }
+
+  /** Jobs are visible to their owner and to admins; others get 404 (no existence leak). */
+  private Optional<ExportJob> findAccessible(String jobId) {
+    UUID id;
+    try {
+      id = UUID.fromString(jobId);
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+    String user = identity.getPrincipal().getName();
+    return exportJobService
+        .find(id)
+        .filter(job -> job.getOwner().equals(user) || identity.hasRole("admin"));
+  }
+
+  private static Response notFound(String jobId) {
+    return Response.status(Response.Status.NOT_FOUND)
+        .type(MediaType.APPLICATION_JSON)
+        .entity(Map.of("error", "Export job not found: " + jobId))
+        .build();
+  }
+}
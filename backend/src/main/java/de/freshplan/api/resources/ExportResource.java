@@ -3,6 +3,9 @@ package de.freshplan.api.resources;
 import de.freshplan.domain.audit.entity.AuditEntry;
 import de.freshplan.domain.audit.repository.AuditRepository;
 import de.freshplan.domain.audit.service.AuditService;
+import de.freshplan.domain.audit.service.export.AuditExportFilter;
+import de.freshplan.domain.audit.service.export.AuditExportRow;
+import de.freshplan.domain.audit.service.export.AuditExportStreamer;
 import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.entity.CustomerContact;
 import de.freshplan.domain.customer.repository.CustomerRepository;
@@ -57,6 +60,8 @@ public class ExportResource {
 
   @Inject AuditService auditService;
 
+  @Inject AuditExportStreamer auditExportStreamer;
+
   /** Export audit data as CSV */
   @GET
   @Path("/audit/csv")
@@ -100,13 +105,13 @@ public class ExportResource {
             writer.write("ID,Timestamp,Event Type,Entity Type,Entity ID,User,User Name,");
             writer.write("IP Address,User Agent,Source,Changes,Hash\n");
 
-            // Fetch and write data
-            List<AuditEntry> entries = auditRepository.findByFilters(request);
-
-            for (AuditEntry entry : entries) {
-              writer.write(formatCsvLine(entry));
-              writer.write("\n");
-            }
+            // Stream rows from the database cursor
+            auditExportStreamer.forEachRow(
+                AuditExportFilter.from(request),
+                row -> {
+                  writer.write(formatCsvLine(row));
+                  writer.write("\n");
+                });
 
             writer.flush();
           }
@@ -452,23 +457,23 @@ public class ExportResource {
   }
 
   // Helper methods
-  private String formatCsvLine(AuditEntry entry) {
+  private String formatCsvLine(AuditExportRow row) {
     return String.format(
         "\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"",
-        entry.getId(),
-        entry.getTimestamp(),
-        entry.getEventType(),
-        entry.getEntityType(),
-        entry.getEntityId(),
-        entry.getUserId(),
-        entry.getUserName() != null ? entry.getUserName() : "",
-        entry.getIpAddress() != null ? entry.getIpAddress() : "",
-        entry.getUserAgent() != null ? entry.getUserAgent() : "",
-        entry.getSource() != null ? entry.getSource() : "",
-        (entry.getOldValue() != null || entry.getNewValue() != null)
-            ? "Old: " + entry.getOldValue() + ", New: " + entry.getNewValue()
+        row.id(),
+        row.timestamp(),
+        row.eventType(),
+        row.entityType(),
+        row.entityId(),
+        row.userId(),
+        row.userName() != null ? row.userName() : "",
+        row.ipAddress() != null ? row.ipAddress() : "",
+        row.userAgent() != null ? row.userAgent() : "",
+        row.source() != null ? row.source() : "",
+        (row.oldValue() != null || row.newValue() != null)
+            ? "Old: " + row.oldValue() + ", New: " + row.newValue()
             : "",
-        entry.getDataHash() != null ? entry.getDataHash() : "");
+        row.dataHash() != null ? row.dataHash() : "");
   }
 
   private String formatCustomerCsvLine(Customer customer) {
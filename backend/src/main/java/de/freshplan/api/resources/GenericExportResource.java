@@ -8,15 +8,19 @@ import de.freshplan.domain.audit.repository.AuditRepository;
 import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.repository.CustomerRepository;
 import de.freshplan.infrastructure.export.*;
+import de.freshplan.infrastructure.export.job.ExportJobService;
 import io.quarkus.security.Authenticated;
+import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
@@ -45,6 +49,10 @@ public class GenericExportResource {
 
   @Inject CustomerRepository customerRepository;
 
+  @Inject ExportJobService exportJobService;
+
+  @Inject SecurityIdentity identity;
+
   /** Export audit entries in any format */
   @GET
   @Path("/audit/{format}")
@@ -119,25 +127,11 @@ public class GenericExportResource {
       // Parse format
       ExportFormat format = ExportFormat.fromString(formatStr);
 
-      // Fetch data
-      List<Customer> customers = customerRepository.findByFilters(status, industry);
-
-      // Prepare data based on includeContacts flag
-      List<?> exportData;
-      ExportConfig config;
-
-      if (includeContacts && format != ExportFormat.JSON) {
-        // Flatten customers with contacts for tabular formats
-        exportData = flattenCustomersWithContacts(customers);
-        config = buildCustomerContactConfig();
-      } else {
-        // Export customers as-is for JSON or without contacts
-        exportData = customers;
-        config = buildCustomerConfig(includeContacts);
-      }
+      // Fetch and prepare data
+      CustomerExport export = buildCustomerExport(format, status, industry, includeContacts);
 
       // Export using Universal Export Service
-      return exportService.exportAsResponse(exportData, config, format);
+      return exportService.exportAsResponse(export.data(), export.config(), format);
 
     } catch (IllegalArgumentException e) {
       return Response.status(Response.Status.BAD_REQUEST)
@@ -149,6 +143,48 @@ public class GenericExportResource {
     }
   }
 
+  /**
+   * Export customers as asynchronous job. Returns 202 with the job status; the file is downloaded
+   * from {@code /api/v2/export/jobs/{jobId}/file} once the job is completed.
+   */
+  @POST
+  @Path("/customers/{format}/jobs")
+  @RolesAllowed({"admin", "manager", "sales"})
+  @Produces(MediaType.APPLICATION_JSON)
+  @Operation(summary = "Submit customer export as asynchronous job")
+  public Response submitCustomerExportJob(
+      @PathParam("format") String formatStr,
+      @QueryParam("status") List<String> status,
+      @QueryParam("industry") String industry,
+      @QueryParam("includeContacts") @DefaultValue("true") boolean includeContacts) {
+
+    ExportFormat format;
+    try {
+      format = ExportFormat.fromString(formatStr);
+    } catch (IllegalArgumentException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+          .entity(Map.of("error", "Unsupported format: " + formatStr))
+          .build();
+    }
+
+    String filename =
+        "kunden_"
+            + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+            + format.getExtension();
+
+    log.infof("Submitting customer export job as %s", formatStr);
+
+    return exportJobService.submitAsResponse(
+        identity.getPrincipal().getName(),
+        "customers/" + format.name().toLowerCase(),
+        filename,
+        format.getContentType(),
+        output -> {
+          CustomerExport export = buildCustomerExport(format, status, industry, includeContacts);
+          exportService.export(export.data(), export.config(), format).writeTo(output);
+        });
+  }
+
   /** Generic export endpoint for any entity */
   @GET
   @Path("/{entity}/{format}")
@@ -205,6 +241,23 @@ public class GenericExportResource {
 
   // Helper methods
 
+  /** Customer export data with its field configuration */
+  private record CustomerExport(List<?> data, ExportConfig config) {}
+
+  private CustomerExport buildCustomerExport(
+      ExportFormat format, List<String> status, String industry, boolean includeContacts) {
+    List<Customer> customers = customerRepository.findByFilters(status, industry);
+
+    // Prepare data based on includeContacts flag
+    if (includeContacts && format != ExportFormat.JSON) {
+      // Flatten customers with contacts for tabular formats
+      return new CustomerExport(
+          flattenCustomersWithContacts(customers), buildCustomerContactConfig());
+    }
+    // Export customers as-is for JSON or without contacts
+    return new CustomerExport(customers, buildCustomerConfig(includeContacts));
+  }
+
   private List<AuditEntry> fetchAuditData(
       String entityType, UUID entityId, String from, String to, String userId, String eventType) {
     // PMD Complexity Refactoring (Issue #146) - Extracted filter methods
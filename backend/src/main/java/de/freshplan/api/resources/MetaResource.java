@@ -0,0 +1,50 @@
+package de.freshplan.api.resources;
+
+import de.freshplan.infrastructure.meta.MetadataCache;
+import jakarta.annotation.security.PermitAll;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * REST API for all enum values and Server-Driven UI schemas in one response.
+ *
+ * <p>Replaces the ~35 separate metadata requests at frontend startup. The body is {@code
+ * {"version": "...", "documents": {"/api/enums/lead-sources": [...], "/api/customers/schema":
+ * [...], ...}}}, each document identical to the response of its own endpoint. The bundle is
+ * pre-rendered by {@link MetadataCache}; requests with {@code ?v=<version>} may be cached forever.
+ */
+@Path(MetadataCache.BUNDLE_PATH)
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Metadata", description = "Bundled enum values and UI schemas")
+public class MetaResource {
+
+  @Inject MetadataCache metadataCache;
+
+  @GET
+  @PermitAll
+  @Operation(summary = "Get all enum values and UI schemas in one response")
+  @APIResponse(responseCode = "200", description = "Metadata bundle")
+  @APIResponse(responseCode = "304", description = "Not Modified (ETag matched)")
+  @APIResponse(responseCode = "503", description = "Metadata not rendered yet")
+  public Response getMetadata(
+      @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+      @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+      @Parameter(description = "Metadata version from a previous response") @QueryParam("v")
+          String version) {
+    return metadataCache
+        .bundle()
+        .map(bundle -> metadataCache.respond(bundle, ifNoneMatch, acceptEncoding, version))
+        .orElseGet(() -> Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+  }
+}
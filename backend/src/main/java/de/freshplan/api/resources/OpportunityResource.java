@@ -11,6 +11,7 @@ import de.freshplan.domain.opportunity.service.dto.OpportunityResponse;
 import de.freshplan.domain.opportunity.service.dto.PipelineOverviewResponse;
 import de.freshplan.domain.opportunity.service.dto.UpdateOpportunityRequest;
 import de.freshplan.domain.opportunity.service.exception.OpportunityNotFoundException;
+import de.freshplan.domain.opportunity.service.query.PipelineAnalyticsService;
 import de.freshplan.infrastructure.security.SecurityAudit;
 import io.quarkus.panache.common.Page;
 import jakarta.annotation.security.PermitAll;
@@ -44,6 +45,8 @@ public class OpportunityResource {
 
   @Inject OpportunityService opportunityService;
 
+  @Inject PipelineAnalyticsService pipelineAnalyticsService;
+
   // =====================================
   // CRUD OPERATIONS
   // =====================================
@@ -340,6 +343,35 @@ public class OpportunityResource {
     return Response.ok(response).build();
   }
 
+  /**
+   * Pipeline aller Verkäufer (ein gruppierter Scan)
+   *
+   * <p>GET /api/opportunities/pipeline/team
+   */
+  @GET
+  @Path("/pipeline/team")
+  @RolesAllowed({"admin", "manager"})
+  public Response getTeamPipeline() {
+    logger.debug("Generating team pipeline");
+
+    return Response.ok(pipelineAnalyticsService.getTeamPipeline()).build();
+  }
+
+  /**
+   * Stage-Trend aus den täglichen Pipeline-Snapshots
+   *
+   * <p>GET /api/opportunities/pipeline/trend?days=30&userId=...
+   */
+  @GET
+  @Path("/pipeline/trend")
+  @RolesAllowed({"admin", "manager", "sales"})
+  public Response getPipelineTrend(
+      @QueryParam("days") @DefaultValue("30") int days, @QueryParam("userId") UUID userId) {
+    logger.debug("Fetching pipeline trend - days: {}, user: {}", days, userId);
+
+    return Response.ok(pipelineAnalyticsService.getStageTrend(days, userId)).build();
+  }
+
   /**
    * Findet Opportunities eines bestimmten Verkäufers
    *
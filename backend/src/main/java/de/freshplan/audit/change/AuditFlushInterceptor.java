@@ -0,0 +1,30 @@
+package de.freshplan.audit.change;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate-Interceptor der Persistence Unit: gibt die State-Arrays des Dirty-Checkings beim Flush
+ * an den {@link EntityChangeTracker} weiter. Verändert keinen State.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class AuditFlushInterceptor implements Interceptor {
+
+  @Inject EntityChangeTracker changeTracker;
+
+  @Override
+  public boolean onFlushDirty(
+      Object entity,
+      Object id,
+      Object[] currentState,
+      Object[] previousState,
+      String[] propertyNames,
+      Type[] types) {
+    changeTracker.recordFlush(entity, id, currentState, previousState);
+    return false;
+  }
+}
@@ -0,0 +1,100 @@
+package de.freshplan.audit.change;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+
+/**
+ * Property-Metadaten einer Entity-Klasse für das Audit-Diffing, einmal beim Boot aus dem Hibernate
+ * Persister gelesen ({@link EntityChangeTracker}).
+ *
+ * <p>Die Indizes entsprechen den State-Arrays von Hibernate (loaded state / current state), der
+ * Diff arbeitet daher direkt auf den Arrays des Dirty-Checkings - ohne Serialisierung und ohne
+ * Lazy-Loads: Collections werden übersprungen, Assoziationen nur über ihre ID verglichen.
+ */
+public final class AuditedEntityMetadata {
+
+  private final String[] propertyNames;
+  private final boolean[] audited;
+  private final boolean[] association;
+  private final Type[] types;
+
+  /**
+   * @param types Hibernate-Typen für den Gleichheitsvergleich, {@code null} = {@link
+   *     Objects#deepEquals}
+   */
+  public AuditedEntityMetadata(
+      String[] propertyNames, boolean[] audited, boolean[] association, Type[] types) {
+    this.propertyNames = propertyNames.clone();
+    this.audited = audited.clone();
+    this.association = association.clone();
+    this.types = types != null ? types.clone() : null;
+  }
+
+  public static AuditedEntityMetadata of(EntityPersister persister) {
+    String[] names = persister.getPropertyNames();
+    Type[] types = persister.getPropertyTypes();
+    boolean[] audited = new boolean[names.length];
+    boolean[] association = new boolean[names.length];
+    for (int i = 0; i < names.length; i++) {
+      audited[i] = !types[i].isCollectionType();
+      association[i] = types[i].isEntityType();
+    }
+    return new AuditedEntityMetadata(names, audited, association, types);
+  }
+
+  public int propertyCount() {
+    return propertyNames.length;
+  }
+
+  /**
+   * Diff zweier State-Arrays.
+   *
+   * @param dirty vom Dirty-Checking gelieferte Indizes, {@code null} = alle auditierten Properties
+   *     vergleichen
+   * @param idOf liefert die ID einer assoziierten Entity (darf Proxies nicht initialisieren)
+   * @return Änderungen in Mapping-Reihenfolge, leer wenn nichts Auditiertes geändert wurde
+   */
+  public Map<String, EntityChangeSet.PropertyChange> diff(
+      Object[] previous, Object[] current, int[] dirty, Function<Object, Object> idOf) {
+    Map<String, EntityChangeSet.PropertyChange> changes = new LinkedHashMap<>();
+    if (dirty != null) {
+      for (int index : dirty) {
+        addChange(changes, index, previous[index], current[index], idOf);
+      }
+    } else {
+      for (int i = 0; i < propertyNames.length; i++) {
+        if (audited[i] && !isEqual(i, previous[i], current[i])) {
+          addChange(changes, i, previous[i], current[i], idOf);
+        }
+      }
+    }
+    return changes;
+  }
+
+  private void addChange(
+      Map<String, EntityChangeSet.PropertyChange> changes,
+      int index,
+      Object oldValue,
+      Object newValue,
+      Function<Object, Object> idOf) {
+    if (!audited[index]) {
+      return;
+    }
+    if (association[index]) {
+      oldValue = oldValue != null ? idOf.apply(oldValue) : null;
+      newValue = newValue != null ? idOf.apply(newValue) : null;
+      if (Objects.equals(oldValue, newValue)) {
+        return;
+      }
+    }
+    changes.put(propertyNames[index], new EntityChangeSet.PropertyChange(oldValue, newValue));
+  }
+
+  private boolean isEqual(int index, Object a, Object b) {
+    return types != null ? types[index].isEqual(a, b) : Objects.deepEquals(a, b);
+  }
+}
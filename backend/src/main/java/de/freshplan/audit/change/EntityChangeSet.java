@@ -0,0 +1,72 @@
+package de.freshplan.audit.change;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Kompakter Diff einer Entity: nur die geänderten Properties mit altem und neuem Wert.
+ *
+ * <p>Assoziationen stehen mit ihrer ID drin, Collections werden nicht erfasst.
+ *
+ * @param entityClass Entity-Klasse (ohne Proxy)
+ * @param entityId Identifier der Entity
+ * @param changes Property-Name → Änderung, in Mapping-Reihenfolge
+ */
+public record EntityChangeSet(
+    Class<?> entityClass, Object entityId, Map<String, PropertyChange> changes) {
+
+  /** Alter und neuer Wert einer Property. */
+  public record PropertyChange(Object oldValue, Object newValue) {}
+
+  public EntityChangeSet {
+    changes = Collections.unmodifiableMap(new LinkedHashMap<>(changes));
+  }
+
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  public Set<String> changedProperties() {
+    return changes.keySet();
+  }
+
+  /** Alte Werte der geänderten Properties (für {@code old_values}). */
+  public Map<String, Object> oldValues() {
+    Map<String, Object> values = new LinkedHashMap<>();
+    changes.forEach((name, change) -> values.put(name, change.oldValue()));
+    return values;
+  }
+
+  /** Neue Werte der geänderten Properties (für {@code new_values}). */
+  public Map<String, Object> newValues() {
+    Map<String, Object> values = new LinkedHashMap<>();
+    changes.forEach((name, change) -> values.put(name, change.newValue()));
+    return values;
+  }
+
+  /**
+   * Fasst zwei aufeinanderfolgende Diffs derselben Entity zusammen (z.B. Flush mitten in der
+   * Methode + noch nicht geflushte Änderungen): ältester alter Wert, neuester neuer Wert.
+   * Properties, die am Ende wieder den Ausgangswert haben, fallen heraus.
+   */
+  public EntityChangeSet followedBy(EntityChangeSet later) {
+    if (later == null || later.isEmpty()) {
+      return this;
+    }
+    Map<String, PropertyChange> merged = new LinkedHashMap<>(changes);
+    later.changes.forEach(
+        (name, change) -> {
+          PropertyChange earlier = merged.get(name);
+          Object oldValue = earlier != null ? earlier.oldValue() : change.oldValue();
+          if (Objects.deepEquals(oldValue, change.newValue())) {
+            merged.remove(name);
+          } else {
+            merged.put(name, new PropertyChange(oldValue, change.newValue()));
+          }
+        });
+    return new EntityChangeSet(entityClass, entityId, merged);
+  }
+}
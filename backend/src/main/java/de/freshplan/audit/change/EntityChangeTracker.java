@@ -0,0 +1,165 @@
+package de.freshplan.audit.change;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.jboss.logging.Logger;
+
+/**
+ * Change-Capture für das Audit-Log auf Basis des Hibernate Dirty-Checkings.
+ *
+ * <p>Ersetzt den Jackson Deep-Clone im {@link de.freshplan.audit.interceptor.AuditInterceptor}:
+ * Statt die Entity vor dem Update zu serialisieren (inkl. Lazy-Loads aller Assoziationen), wird
+ * nach dem Update der Loaded State des Persistence Context mit dem aktuellen State verglichen:
+ *
+ * <ul>
+ *   <li>noch nicht geflushte Änderungen: {@link EntityEntry#getLoadedState()} vs. {@link
+ *       EntityPersister#getValues(Object)}, Dirty-Indizes von {@link EntityPersister#findDirty}
+ *   <li>während der Methode geflushte Änderungen: {@link AuditFlushInterceptor} meldet sie aus
+ *       {@code onFlushDirty} an die aktive {@link Capture} des Threads
+ * </ul>
+ *
+ * <p>Die Property-Metadaten aller Entities werden beim Start aus dem Metamodell gecacht. Ohne
+ * aktive Capture kostet ein Flush nur einen ThreadLocal-Zugriff.
+ */
+@ApplicationScoped
+public class EntityChangeTracker {
+
+  private static final Logger LOG = Logger.getLogger(EntityChangeTracker.class);
+
+  private static final ThreadLocal<Deque<Capture>> ACTIVE =
+      ThreadLocal.withInitial(ArrayDeque::new);
+
+  private final Map<Class<?>, AuditedEntityMetadata> metadata = new ConcurrentHashMap<>();
+
+  @Inject SessionFactory sessionFactory;
+
+  @Inject EntityManager entityManager;
+
+  void onStart(@Observes StartupEvent event) {
+    sessionFactory
+        .unwrap(SessionFactoryImplementor.class)
+        .getMappingMetamodel()
+        .forEachEntityDescriptor(
+            persister -> register(persister.getMappedClass(), AuditedEntityMetadata.of(persister)));
+    LOG.debugf("Audit change capture: metadata for %d entity types cached", metadata.size());
+  }
+
+  void register(Class<?> entityClass, AuditedEntityMetadata entityMetadata) {
+    metadata.put(entityClass, entityMetadata);
+  }
+
+  /** Startet eine Capture für den aktuellen Thread; mit {@link Capture#close()} beenden. */
+  public Capture begin() {
+    Capture capture = new Capture();
+    ACTIVE.get().push(capture);
+    return capture;
+  }
+
+  /** Von {@link AuditFlushInterceptor}: geflushte Änderungen an alle aktiven Captures melden. */
+  void recordFlush(Object entity, Object id, Object[] currentState, Object[] previousState) {
+    Deque<Capture> captures = ACTIVE.get();
+    if (captures.isEmpty() || previousState == null) {
+      return;
+    }
+    Class<?> entityClass = Hibernate.getClass(entity);
+    AuditedEntityMetadata meta = metadata.get(entityClass);
+    if (meta == null) {
+      return;
+    }
+    Map<String, EntityChangeSet.PropertyChange> changes =
+        meta.diff(previousState, currentState, null, this::identifierOf);
+    if (!changes.isEmpty()) {
+      EntityChangeSet changeSet = new EntityChangeSet(entityClass, id, changes);
+      captures.forEach(capture -> capture.flushed.add(changeSet));
+    }
+  }
+
+  /**
+   * Änderungen einer Entity seit Beginn der Capture: während der Capture geflushte plus noch
+   * ausstehende. Leer, wenn die Entity nicht managed ist oder nichts Auditiertes geändert wurde.
+   */
+  public Optional<EntityChangeSet> changesOf(Capture capture, Object entity) {
+    Class<?> entityClass = Hibernate.getClass(entity);
+    Object id = null;
+    EntityChangeSet result = null;
+
+    Optional<EntityChangeSet> pending = pendingChanges(entity);
+    if (pending.isPresent()) {
+      id = pending.get().entityId();
+    } else if (entityManager.contains(entity)) {
+      id = identifierOf(entity);
+    }
+
+    for (EntityChangeSet flushed : capture.flushed) {
+      if (flushed.entityClass().equals(entityClass) && Objects.equals(flushed.entityId(), id)) {
+        result = result == null ? flushed : result.followedBy(flushed);
+      }
+    }
+    if (pending.isPresent()) {
+      result = result == null ? pending.get() : result.followedBy(pending.get());
+    }
+    return Optional.ofNullable(result).filter(changeSet -> !changeSet.isEmpty());
+  }
+
+  /** Noch nicht geflushte Änderungen: Loaded State vs. aktueller State. */
+  Optional<EntityChangeSet> pendingChanges(Object entity) {
+    SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+    EntityEntry entry = session.getPersistenceContextInternal().getEntry(entity);
+    if (entry == null || entry.getLoadedState() == null) {
+      return Optional.empty();
+    }
+    EntityPersister persister = entry.getPersister();
+    AuditedEntityMetadata meta =
+        metadata.computeIfAbsent(
+            persister.getMappedClass(), c -> AuditedEntityMetadata.of(persister));
+
+    Object[] loaded = entry.getLoadedState();
+    Object[] current = persister.getValues(entity);
+    int[] dirty = persister.findDirty(current, loaded, entity, session);
+    if (dirty == null) {
+      return Optional.empty();
+    }
+    Map<String, EntityChangeSet.PropertyChange> changes =
+        meta.diff(loaded, current, dirty, this::identifierOf);
+    return changes.isEmpty()
+        ? Optional.empty()
+        : Optional.of(new EntityChangeSet(persister.getMappedClass(), entry.getId(), changes));
+  }
+
+  /** ID einer (ggf. nicht initialisierten) Entity, ohne sie zu laden. */
+  Object identifierOf(Object entity) {
+    if (entity instanceof HibernateProxy proxy) {
+      return proxy.getHibernateLazyInitializer().getInternalIdentifier();
+    }
+    return sessionFactory.getPersistenceUnitUtil().getIdentifier(entity);
+  }
+
+  /** Sammelt die während eines auditierten Aufrufs geflushten Änderungen. */
+  public static final class Capture implements AutoCloseable {
+
+    private final List<EntityChangeSet> flushed = new ArrayList<>();
+
+    @Override
+    public void close() {
+      ACTIVE.get().remove(this);
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package de.freshplan.audit.interceptor;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import de.freshplan.audit.change.EntityChangeSet;
+import de.freshplan.audit.change.EntityChangeTracker;
 import de.freshplan.audit.entity.AuditLog.*;
 import de.freshplan.audit.service.AuditService;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
@@ -33,7 +34,7 @@ public class AuditInterceptor {
 
   @Inject AuditService auditService;
 
-  @Inject ObjectMapper objectMapper;
+  @Inject EntityChangeTracker changeTracker;
 
   // Cache für Entity-Type Mapping
   private static final Map<Class<?>, EntityType> ENTITY_TYPE_CACHE = new HashMap<>();
@@ -80,15 +81,13 @@ public class AuditInterceptor {
 
     Object result = null;
     Object entity = null;
-    Object oldEntity = null;
+    EntityChangeSet changes = null;
 
-    try {
-      // Bei UPDATE: Hole alten Zustand
+    // Bei UPDATE: Änderungen über das Dirty-Checking erfassen statt die Entity vorab zu klonen
+    try (EntityChangeTracker.Capture capture =
+        action == AuditAction.UPDATE ? changeTracker.begin() : null) {
       if (action == AuditAction.UPDATE) {
         entity = extractEntity(context);
-        if (entity != null) {
-          oldEntity = cloneEntity(entity);
-        }
       }
 
       // Führe die eigentliche Operation aus
@@ -101,8 +100,12 @@ public class AuditInterceptor {
         entity = extractEntity(context);
       }
 
+      if (capture != null && entity != null) {
+        changes = collectChanges(capture, entity);
+      }
+
       if (entity != null) {
-        logAuditEvent(entity, oldEntity, action);
+        logAuditEvent(entity, changes, action);
       }
 
     } catch (Exception e) {
@@ -156,7 +159,16 @@ public class AuditInterceptor {
     return obj instanceof PanacheEntityBase || ENTITY_TYPE_CACHE.containsKey(obj.getClass());
   }
 
-  private void logAuditEvent(Object entity, Object oldEntity, AuditAction action) {
+  private EntityChangeSet collectChanges(EntityChangeTracker.Capture capture, Object entity) {
+    try {
+      return changeTracker.changesOf(capture, entity).orElse(null);
+    } catch (Exception e) {
+      log.warn("Could not collect entity changes for audit. Changed fields will be missing.", e);
+      return null;
+    }
+  }
+
+  private void logAuditEvent(Object entity, EntityChangeSet changes, AuditAction action) {
     try {
       EntityType entityType = determineEntityType(entity);
       UUID entityId = extractEntityId(entity);
@@ -168,7 +180,7 @@ public class AuditInterceptor {
             auditService.auditCreate(entityType, entityId, entityName, entity);
             break;
           case UPDATE:
-            auditService.auditUpdate(entityType, entityId, entityName, oldEntity, entity);
+            auditService.auditUpdate(entityType, entityId, entityName, changes);
             break;
           case DELETE:
             auditService.auditDelete(entityType, entityId, entityName, entity, "Via Interceptor");
@@ -271,19 +283,6 @@ public class AuditInterceptor {
     return entity.getClass().getSimpleName() + "#" + extractEntityId(entity);
   }
 
-  private Object cloneEntity(Object entity) {
-    // Deep copy der Entity mittels Jackson Serialization
-    // Dies erfasst den tatsächlichen Zustand VOR der Änderung
-    try {
-      // Serialisiert und deserialisiert das Objekt für eine echte Deep Copy
-      String json = objectMapper.writeValueAsString(entity);
-      return objectMapper.readValue(json, entity.getClass());
-    } catch (Exception e) {
-      log.warn("Could not clone entity for audit. Old values will be missing.", e);
-      return null;
-    }
-  }
-
   private boolean shouldAuditReads() {
     // Konfigurierbar: Sollen auch Lesezugriffe geloggt werden?
     // Für DSGVO kann dies erforderlich sein
@@ -2,6 +2,7 @@ package de.freshplan.audit.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.freshplan.audit.change.EntityChangeSet;
 import de.freshplan.audit.entity.AuditLog;
 import de.freshplan.audit.entity.AuditLog.*;
 import de.freshplan.audit.repository.AuditRepository;
@@ -15,6 +16,7 @@ import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,11 +66,30 @@ public class AuditService {
       Object newValue,
       String reason,
       String comment) {
+    return audit(
+        entityType,
+        entityId,
+        entityName,
+        action,
+        reason,
+        comment,
+        auditLog -> processChanges(auditLog, oldValue, newValue));
+  }
+
+  private AuditLog audit(
+      EntityType entityType,
+      UUID entityId,
+      String entityName,
+      AuditAction action,
+      String reason,
+      String comment,
+      Consumer<AuditLog> changeWriter) {
 
     try {
       AuditLog auditLog = createAuditLog(entityType, entityId, entityName, action);
 
-      enrichAuditLog(auditLog, oldValue, newValue, reason, comment);
+      changeWriter.accept(auditLog);
+      enrichAuditLog(auditLog, reason, comment);
 
       persistAuditLog(auditLog, action);
 
@@ -98,10 +119,7 @@ public class AuditService {
     return auditLog;
   }
 
-  private void enrichAuditLog(
-      AuditLog auditLog, Object oldValue, Object newValue, String reason, String comment) {
-    processChanges(auditLog, oldValue, newValue);
-
+  private void enrichAuditLog(AuditLog auditLog, String reason, String comment) {
     auditLog.setReason(reason);
     auditLog.setComment(comment);
     auditLog.setApplicationVersion(applicationVersion);
@@ -159,6 +177,28 @@ public class AuditService {
     audit(entityType, entityId, entityName, AuditAction.UPDATE, oldEntity, newEntity, null, null);
   }
 
+  /**
+   * Audit für UPDATE Operationen mit bereits berechnetem Diff (siehe {@link
+   * de.freshplan.audit.change.EntityChangeTracker}). Es werden nur die geänderten Properties
+   * gespeichert, {@code null} = keine auditierten Änderungen erkannt.
+   */
+  @Transactional
+  public void auditUpdate(
+      EntityType entityType, UUID entityId, String entityName, EntityChangeSet changes) {
+    audit(
+        entityType,
+        entityId,
+        entityName,
+        AuditAction.UPDATE,
+        null,
+        null,
+        auditLog -> {
+          if (changes != null) {
+            processChanges(auditLog, changes);
+          }
+        });
+  }
+
   /** Audit für DELETE Operationen. */
   public void auditDelete(
       EntityType entityType,
@@ -318,6 +358,17 @@ public class AuditService {
     }
   }
 
+  /** Diff liegt bereits vor: nur die geänderten Properties serialisieren, kein Tree-Vergleich. */
+  private void processChanges(AuditLog auditLog, EntityChangeSet changes) {
+    try {
+      auditLog.setOldValues(objectMapper.writeValueAsString(changes.oldValues()));
+      auditLog.setNewValues(objectMapper.writeValueAsString(changes.newValues()));
+      auditLog.setChangedFieldsFromSet(changes.changedProperties());
+    } catch (Exception e) {
+      log.error("Failed to process change set", e);
+    }
+  }
+
   private Set<String> detectChangedFields(Object oldValue, Object newValue) {
     Set<String> changedFields = new HashSet<>();
 
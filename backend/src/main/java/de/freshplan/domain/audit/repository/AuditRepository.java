@@ -149,7 +149,13 @@ public class AuditRepository implements PanacheRepositoryBase<AuditEntry, UUID>
     return query.getResultStream();
   }
 
-  /** Clean up old audit entries (for data retention) */
+  /**
+   * Clean up old audit entries (for data retention)
+   *
+   * <p>Deletes row by row. Regular retention is handled by {@link
+   * de.freshplan.infrastructure.pg.PartitionMaintenanceService}, which drops whole monthly
+   * partitions; use this only for cutoffs inside a partition.
+   */
   public long deleteOlderThan(Instant cutoffDate, boolean dryRun) {
     if (dryRun) {
       return count("timestamp < ?1", cutoffDate);
@@ -0,0 +1,115 @@
+package de.freshplan.domain.audit.service.export;
+
+import de.freshplan.domain.audit.entity.AuditEventType;
+import de.freshplan.domain.audit.entity.AuditSource;
+import de.freshplan.domain.audit.repository.AuditRepository.AuditSearchCriteria;
+import de.freshplan.domain.export.service.dto.ExportRequest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Filter of a streamed audit export, translated into native SQL for {@link AuditExportStreamer}.
+ *
+ * <p>Mirrors the filters of {@code AuditRepository.search()} and {@code findByFilters()}, so both
+ * export APIs select the same rows as before.
+ */
+public record AuditExportFilter(
+    String entityType,
+    UUID entityId,
+    UUID userId,
+    List<AuditEventType> eventTypes,
+    List<AuditSource> sources,
+    Instant from,
+    Instant to,
+    String searchText) {
+
+  /** SQL statement with its positional parameters. */
+  record Sql(String statement, List<Object> params) {}
+
+  /** Filter of the v2 export ({@code /api/v2/export/audit}). */
+  public static AuditExportFilter from(AuditSearchCriteria criteria) {
+    return new AuditExportFilter(
+        criteria.getEntityType(),
+        criteria.getEntityId(),
+        criteria.getUserId(),
+        criteria.getEventTypes(),
+        criteria.getSources(),
+        criteria.getFrom(),
+        criteria.getTo(),
+        criteria.getSearchText());
+  }
+
+  /** Filter of the v1 export ({@code /api/export/audit}). */
+  public static AuditExportFilter from(ExportRequest request) {
+    return new AuditExportFilter(
+        request.getEntityType(),
+        request.getEntityId(),
+        request.getUserId() != null ? UUID.fromString(request.getUserId()) : null,
+        request.getEventType() != null
+            ? List.of(AuditEventType.valueOf(request.getEventType()))
+            : null,
+        null,
+        toInstant(request.getDateFrom()),
+        toInstant(request.getDateTo()),
+        null);
+  }
+
+  Sql toSql() {
+    StringBuilder sql =
+        new StringBuilder("SELECT ")
+            .append(AuditExportRow.COLUMNS)
+            .append(" FROM audit_trail WHERE 1=1");
+    List<Object> params = new ArrayList<>();
+
+    if (entityType != null) {
+      sql.append(" AND entity_type = ?");
+      params.add(entityType);
+    }
+    if (entityId != null) {
+      sql.append(" AND entity_id = ?");
+      params.add(entityId);
+    }
+    if (userId != null) {
+      sql.append(" AND user_id = ?");
+      params.add(userId);
+    }
+    if (eventTypes != null && !eventTypes.isEmpty()) {
+      sql.append(" AND event_type IN (").append(placeholders(eventTypes.size())).append(')');
+      eventTypes.forEach(type -> params.add(type.name()));
+    }
+    if (sources != null && !sources.isEmpty()) {
+      sql.append(" AND source IN (").append(placeholders(sources.size())).append(')');
+      sources.forEach(source -> params.add(source.name()));
+    }
+    if (from != null) {
+      sql.append(" AND timestamp >= ?");
+      params.add(from.atOffset(ZoneOffset.UTC));
+    }
+    if (to != null) {
+      sql.append(" AND timestamp <= ?");
+      params.add(to.atOffset(ZoneOffset.UTC));
+    }
+    if (searchText != null && !searchText.isBlank()) {
+      sql.append(" AND (user_comment LIKE ? OR change_reason LIKE ?)");
+      params.add("%" + searchText + "%");
+      params.add("%" + searchText + "%");
+    }
+
+    sql.append(" ORDER BY timestamp DESC");
+    return new Sql(sql.toString(), params);
+  }
+
+  private static String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+
+  private static Instant toInstant(LocalDateTime dateTime) {
+    return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant() : null;
+  }
+}
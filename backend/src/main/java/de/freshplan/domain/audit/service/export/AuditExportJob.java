@@ -0,0 +1,93 @@
+package de.freshplan.domain.audit.service.export;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one running or finished audit export, see {@link AuditExportJobRegistry}.
+ *
+ * <p>Updated by the streaming thread, read by the job-status endpoint.
+ */
+public class AuditExportJob {
+
+  /** Job states. */
+  public enum State {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  /** Snapshot returned by the job-status endpoint. */
+  public record Status(
+      UUID jobId,
+      AuditStreamFormat format,
+      boolean gzip,
+      State state,
+      long rowsWritten,
+      Instant startedAt,
+      Instant finishedAt,
+      long durationMs,
+      String error) {}
+
+  private final UUID id = UUID.randomUUID();
+  private final AuditStreamFormat format;
+  private final boolean gzip;
+  private final Instant startedAt;
+  private final AtomicLong rowsWritten = new AtomicLong();
+  private volatile State state = State.RUNNING;
+  private volatile Instant finishedAt;
+  private volatile String error;
+
+  AuditExportJob(AuditStreamFormat format, boolean gzip, Instant startedAt) {
+    this.format = format;
+    this.gzip = gzip;
+    this.startedAt = startedAt;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten.get();
+  }
+
+  Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  void rowWritten() {
+    rowsWritten.incrementAndGet();
+  }
+
+  void complete() {
+    finishedAt = Instant.now();
+    state = State.COMPLETED;
+  }
+
+  void fail(Throwable cause) {
+    finishedAt = Instant.now();
+    error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    state = State.FAILED;
+  }
+
+  public Status status() {
+    Instant end = finishedAt != null ? finishedAt : Instant.now();
+    return new Status(
+        id,
+        format,
+        gzip,
+        state,
+        rowsWritten.get(),
+        startedAt,
+        finishedAt,
+        Duration.between(startedAt, end).toMillis(),
+        error);
+  }
+}
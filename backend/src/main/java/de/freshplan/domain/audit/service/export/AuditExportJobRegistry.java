@@ -0,0 +1,43 @@
+package de.freshplan.domain.audit.service.export;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * In-memory registry of audit export jobs for the job-status endpoint.
+ *
+ * <p>Jobs are local to the pod that streams the export. Finished jobs are kept for {@code
+ * freshplan.audit.export.job-retention} and pruned whenever a new export starts.
+ */
+@ApplicationScoped
+public class AuditExportJobRegistry {
+
+  @ConfigProperty(name = "freshplan.audit.export.job-retention", defaultValue = "1h")
+  Duration retention;
+
+  private final Map<UUID, AuditExportJob> jobs = new ConcurrentHashMap<>();
+
+  public AuditExportJob start(AuditStreamFormat format, boolean gzip) {
+    Instant now = Instant.now();
+    prune(now);
+    AuditExportJob job = new AuditExportJob(format, gzip, now);
+    jobs.put(job.getId(), job);
+    return job;
+  }
+
+  public Optional<AuditExportJob> find(UUID jobId) {
+    return Optional.ofNullable(jobs.get(jobId));
+  }
+
+  void prune(Instant now) {
+    Instant cutoff = now.minus(retention);
+    jobs.values()
+        .removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+  }
+}
@@ -0,0 +1,59 @@
+package de.freshplan.domain.audit.service.export;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Flat projection of one {@code audit_trail} row for exports.
+ *
+ * <p>Read straight from the JDBC cursor, so exports never load {@code AuditEntry} entities into the
+ * persistence context.
+ */
+public record AuditExportRow(
+    UUID id,
+    Instant timestamp,
+    String eventType,
+    String entityType,
+    UUID entityId,
+    UUID userId,
+    String userName,
+    String userRole,
+    String source,
+    String ipAddress,
+    String userAgent,
+    String changeReason,
+    String oldValue,
+    String newValue,
+    String userComment,
+    String dataHash) {
+
+  /** Column list matching {@link #from(ResultSet)}. */
+  static final String COLUMNS =
+      "id, timestamp, event_type, entity_type, entity_id, user_id, user_name, user_role, source,"
+          + " ip_address::text, user_agent, change_reason, old_value::text, new_value::text,"
+          + " user_comment, data_hash";
+
+  static AuditExportRow from(ResultSet rs) throws SQLException {
+    OffsetDateTime timestamp = rs.getObject(2, OffsetDateTime.class);
+    return new AuditExportRow(
+        rs.getObject(1, UUID.class),
+        timestamp != null ? timestamp.toInstant() : null,
+        rs.getString(3),
+        rs.getString(4),
+        rs.getObject(5, UUID.class),
+        rs.getObject(6, UUID.class),
+        rs.getString(7),
+        rs.getString(8),
+        rs.getString(9),
+        rs.getString(10),
+        rs.getString(11),
+        rs.getString(12),
+        rs.getString(13),
+        rs.getString(14),
+        rs.getString(15),
+        rs.getString(16));
+  }
+}
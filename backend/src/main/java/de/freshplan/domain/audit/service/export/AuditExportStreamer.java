@@ -0,0 +1,144 @@
+package de.freshplan.domain.audit.service.export;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Streams audit exports from one forward-only JDBC cursor.
+ *
+ * <p>PostgreSQL only fetches in chunks of {@code fetchSize} if the statement is forward-only and
+ * runs outside auto-commit, so the streamer opens its own read-only transaction when the connection
+ * is not already part of one. Rows are read as {@link AuditExportRow} projections and written
+ * incrementally; memory use does not grow with the number of exported rows.
+ */
+@ApplicationScoped
+public class AuditExportStreamer {
+
+  private static final Logger log = Logger.getLogger(AuditExportStreamer.class);
+
+  /** Row callback that may fail with an {@link IOException} (client disconnected). */
+  @FunctionalInterface
+  public interface RowHandler {
+    void accept(AuditExportRow row) throws IOException;
+  }
+
+  @Inject DataSource dataSource;
+
+  @ConfigProperty(name = "freshplan.audit.export.fetch-size", defaultValue = "1000")
+  int fetchSize;
+
+  @ConfigProperty(name = "freshplan.audit.export.xlsx-window", defaultValue = "100")
+  int xlsxWindow;
+
+  /**
+   * Writes all rows matching the filter to {@code output} and tracks progress in {@code job}.
+   *
+   * @param gzip Compress the document (the response is then a {@code .gz} download)
+   * @return Number of written rows
+   */
+  public long export(
+      AuditExportFilter filter,
+      AuditStreamFormat format,
+      boolean gzip,
+      OutputStream output,
+      AuditExportJob job)
+      throws IOException {
+    try {
+      long rows = writeDocument(filter, format, gzip, output, job);
+      job.complete();
+      log.infof(
+          "Audit export %s finished: %d rows as %s%s in %d ms",
+          job.getId(), rows, format, gzip ? " (gzip)" : "", job.status().durationMs());
+      return rows;
+    } catch (IOException | RuntimeException e) {
+      job.fail(e);
+      log.warnf("Audit export %s failed after %d rows: %s", job.getId(), job.getRowsWritten(), e);
+      throw e;
+    }
+  }
+
+  private long writeDocument(
+      AuditExportFilter filter,
+      AuditStreamFormat format,
+      boolean gzip,
+      OutputStream output,
+      AuditExportJob job)
+      throws IOException {
+    GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(output, 8192) : null;
+    OutputStream target = gzipStream != null ? gzipStream : output;
+
+    try (AuditRowWriter writer = AuditRowWriter.open(format, target, xlsxWindow)) {
+      long rows =
+          forEachRow(
+              filter,
+              row -> {
+                writer.write(row);
+                job.rowWritten();
+              });
+      writer.finish();
+      if (gzipStream != null) {
+        gzipStream.finish();
+      }
+      output.flush();
+      return rows;
+    }
+  }
+
+  /**
+   * Reads all rows matching the filter in {@code timestamp DESC} order.
+   *
+   * @return Number of rows passed to the handler
+   */
+  public long forEachRow(AuditExportFilter filter, RowHandler handler) throws IOException {
+    AuditExportFilter.Sql sql = filter.toSql();
+    try (Connection connection = dataSource.getConnection()) {
+      boolean autoCommit = connection.getAutoCommit();
+      if (autoCommit) {
+        connection.setAutoCommit(false);
+      }
+      try {
+        return read(connection, sql, handler);
+      } finally {
+        if (autoCommit) {
+          // Read-only: nothing to commit, just close the cursor transaction
+          connection.rollback();
+          connection.setAutoCommit(true);
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Streaming audit export failed", e);
+    }
+  }
+
+  private long read(Connection connection, AuditExportFilter.Sql sql, RowHandler handler)
+      throws SQLException, IOException {
+    try (PreparedStatement statement =
+        connection.prepareStatement(
+            sql.statement(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+      statement.setFetchSize(fetchSize);
+      List<Object> params = sql.params();
+      for (int i = 0; i < params.size(); i++) {
+        statement.setObject(i + 1, params.get(i));
+      }
+      long rows = 0;
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          handler.accept(AuditExportRow.from(rs));
+          rows++;
+        }
+      }
+      return rows;
+    }
+  }
+}
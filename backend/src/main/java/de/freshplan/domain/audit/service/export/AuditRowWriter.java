@@ -0,0 +1,36 @@
+package de.freshplan.domain.audit.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes audit export rows one by one to an output stream.
+ *
+ * <p>{@link #finish()} completes the document (e.g. writes the XLSX package) but leaves the
+ * underlying stream open; {@link #close()} releases temporary resources and is safe after a failed
+ * export.
+ */
+public interface AuditRowWriter extends Closeable {
+
+  void write(AuditExportRow row) throws IOException;
+
+  void finish() throws IOException;
+
+  @Override
+  default void close() throws IOException {}
+
+  /**
+   * Opens a writer for the given format.
+   *
+   * @param xlsxWindow Rows an XLSX sheet keeps in memory before flushing them to a temp file
+   */
+  static AuditRowWriter open(AuditStreamFormat format, OutputStream output, int xlsxWindow)
+      throws IOException {
+    return switch (format) {
+      case CSV -> new AuditRowWriters.Csv(output);
+      case NDJSON -> new AuditRowWriters.Ndjson(output);
+      case XLSX -> new AuditRowWriters.Xlsx(output, xlsxWindow);
+    };
+  }
+}
@@ -0,0 +1,259 @@
+package de.freshplan.domain.audit.service.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/** {@link AuditRowWriter} implementations for CSV, NDJSON and XLSX. */
+final class AuditRowWriters {
+
+  /** Export columns (keys for NDJSON, labels for CSV/XLSX), same as the former v2 export. */
+  static final String[] KEYS = {
+    "timestamp",
+    "eventType",
+    "entityType",
+    "entityId",
+    "userId",
+    "userName",
+    "userRole",
+    "source",
+    "ipAddress",
+    "userAgent",
+    "changeReason",
+    "oldValue",
+    "newValue",
+    "userComment"
+  };
+
+  static final String[] LABELS = {
+    "Zeitstempel",
+    "Ereignistyp",
+    "Entitätstyp",
+    "Entitäts-ID",
+    "Benutzer-ID",
+    "Benutzer",
+    "Rolle",
+    "Quelle",
+    "IP-Adresse",
+    "User Agent",
+    "Änderungsgrund",
+    "Alter Wert",
+    "Neuer Wert",
+    "Kommentar"
+  };
+
+  private AuditRowWriters() {}
+
+  /** Values of all columns except the timestamp (column 0), in {@link #KEYS} order. */
+  static String[] textValues(AuditExportRow row) {
+    return new String[] {
+      null,
+      row.eventType(),
+      row.entityType(),
+      toText(row.entityId()),
+      toText(row.userId()),
+      row.userName(),
+      row.userRole(),
+      row.source(),
+      row.ipAddress(),
+      row.userAgent(),
+      row.changeReason(),
+      row.oldValue(),
+      row.newValue(),
+      row.userComment()
+    };
+  }
+
+  private static String toText(Object value) {
+    return value != null ? value.toString() : null;
+  }
+
+  /** RFC 4180 CSV with UTF-8 BOM for Excel, timestamps as ISO-8601. */
+  static final class Csv implements AuditRowWriter {
+    private final Writer writer;
+
+    Csv(OutputStream output) throws IOException {
+      this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+      writer.write('\ufeff');
+      writeLine(LABELS);
+    }
+
+    @Override
+    public void write(AuditExportRow row) throws IOException {
+      String[] values = textValues(row);
+      values[0] = toText(row.timestamp());
+      writeLine(values);
+    }
+
+    @Override
+    public void finish() throws IOException {
+      writer.flush();
+    }
+
+    private void writeLine(String[] values) throws IOException {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(escape(values[i]));
+      }
+      writer.write('\n');
+    }
+
+    static String escape(String value) {
+      if (value == null) {
+        return "";
+      }
+      if (value.indexOf(',') < 0
+          && value.indexOf('"') < 0
+          && value.indexOf('\n') < 0
+          && value.indexOf('\r') < 0) {
+        return value;
+      }
+      return '"' + value.replace("\"", "\"\"") + '"';
+    }
+  }
+
+  /** One JSON object per line; null columns are omitted. */
+  static final class Ndjson implements AuditRowWriter {
+    private final JsonGenerator generator;
+
+    Ndjson(OutputStream output) throws IOException {
+      this.generator =
+          new JsonFactory()
+              .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+              .createGenerator(output, JsonEncoding.UTF8);
+    }
+
+    @Override
+    public void write(AuditExportRow row) throws IOException {
+      String[] values = textValues(row);
+      values[0] = toText(row.timestamp());
+      generator.writeStartObject();
+      for (int i = 0; i < KEYS.length; i++) {
+        if (values[i] != null) {
+          generator.writeStringField(KEYS[i], values[i]);
+        }
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+      generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      generator.close();
+    }
+  }
+
+  /**
+   * SXSSF workbook: only {@code window} rows stay in memory, older rows go to a temp file. Starts a
+   * new sheet when the Excel row limit is reached.
+   */
+  static final class Xlsx implements AuditRowWriter {
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int MAX_CELL_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private final OutputStream output;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private final CellStyle dateStyle;
+    private SXSSFSheet sheet;
+    private int sheetCount;
+    private int rowNum;
+
+    Xlsx(OutputStream output, int window) {
+      this.output = output;
+      this.workbook = new SXSSFWorkbook(window);
+      workbook.setCompressTempFiles(true);
+
+      headerStyle = workbook.createCellStyle();
+      Font headerFont = workbook.createFont();
+      headerFont.setBold(true);
+      headerStyle.setFont(headerFont);
+      headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
+      headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+      dateStyle = workbook.createCellStyle();
+      dateStyle.setDataFormat(
+          workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy hh:mm:ss"));
+
+      newSheet();
+    }
+
+    @Override
+    public void write(AuditExportRow row) {
+      if (rowNum >= MAX_ROWS) {
+        newSheet();
+      }
+      Row excelRow = sheet.createRow(rowNum++);
+      String[] values = textValues(row);
+      Instant timestamp = row.timestamp();
+      if (timestamp != null) {
+        Cell cell = excelRow.createCell(0);
+        cell.setCellValue(Date.from(timestamp));
+        cell.setCellStyle(dateStyle);
+      }
+      for (int i = 1; i < values.length; i++) {
+        if (values[i] != null) {
+          excelRow.createCell(i).setCellValue(truncate(values[i]));
+        }
+      }
+    }
+
+    @Override
+    public void finish() throws IOException {
+      workbook.write(output);
+      output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        workbook.dispose();
+      } finally {
+        workbook.close();
+      }
+    }
+
+    private void newSheet() {
+      sheetCount++;
+      sheet =
+          workbook.createSheet(
+              sheetCount == 1 ? "Audit Trail" : "Audit Trail (" + sheetCount + ")");
+      Row header = sheet.createRow(0);
+      for (int i = 0; i < LABELS.length; i++) {
+        Cell cell = header.createCell(i);
+        cell.setCellValue(LABELS[i]);
+        cell.setCellStyle(headerStyle);
+      }
+      sheet.createFreezePane(0, 1);
+      rowNum = 1;
+    }
+
+    private static String truncate(String value) {
+      return value.length() > MAX_CELL_LENGTH ? value.substring(0, MAX_CELL_LENGTH) : value;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package de.freshplan.domain.audit.service.export;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/** Formats written incrementally by {@link AuditExportStreamer}. */
+public enum AuditStreamFormat {
+  CSV("text/csv; charset=UTF-8", ".csv"),
+  NDJSON("application/x-ndjson", ".ndjson"),
+  XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ".xlsx");
+
+  private final String contentType;
+  private final String extension;
+
+  AuditStreamFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Resolves a path format of the export API; {@code excel} is an alias for {@link #XLSX}.
+   *
+   * @return empty if the format is not streamed (JSON, HTML, PDF)
+   */
+  public static Optional<AuditStreamFormat> fromPath(String format) {
+    if (format == null) {
+      return Optional.empty();
+    }
+    return switch (format.toLowerCase(Locale.ROOT)) {
+      case "csv" -> Optional.of(CSV);
+      case "ndjson" -> Optional.of(NDJSON);
+      case "xlsx", "excel" -> Optional.of(XLSX);
+      default -> Optional.empty();
+    };
+  }
+}
@@ -0,0 +1,164 @@
+package de.freshplan.domain.cockpit.service;
+
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Journal der Dashboard-/Metrics-Events in {@code dashboard_event_journal} (V10065) für den Replay
+ * beim SSE-Reconnect ({@code Last-Event-ID}).
+ *
+ * <p>Bewusst nicht {@code domain_events}: dessen NOTIFY-Trigger würde jedes Event ein zweites Mal
+ * auf {@code cqrs_all_events} an alle Pods senden und den CQRS-Event-Store füllen.
+ *
+ * <p>Die Events werden nach dem Commit der fachlichen Transaktion im Autocommit geschrieben
+ * (gleiche ID wie die NOTIFY-Envelope) - ein Fehler hier kann die fachliche Transaktion nicht mehr
+ * beeinflussen. Reihenfolge beim Replay: {@code created_at} ({@code clock_timestamp()}), dann
+ * {@code id}.
+ *
+ * <p>Replay ist auf {@code freshplan.dashboard.stream.replay-window} begrenzt; ältere oder
+ * unbekannte Event-IDs liefern {@link Optional#empty()} - der Client lädt dann neu. Einträge
+ * außerhalb des Fensters löscht {@link #purgeExpired()}.
+ */
+@ApplicationScoped
+public class DashboardEventJournal {
+
+  static final String DASHBOARD_CHANNEL = "dashboard_updates";
+  static final String METRICS_CHANNEL = "metrics_events";
+
+  private static final String APPEND_SQL =
+      """
+      INSERT INTO dashboard_event_journal (id, channel, event_type, user_id, envelope, created_at)
+      VALUES (?, ?, ?, ?, ?, clock_timestamp())
+      """;
+
+  private static final String FIND_POSITION_SQL =
+      """
+      SELECT created_at FROM dashboard_event_journal WHERE id = ? AND created_at >= ?
+      """;
+
+  private static final String REPLAY_SQL =
+      """
+      SELECT channel, envelope FROM dashboard_event_journal
+      WHERE created_at >= ?
+        AND (created_at, id) > (?, ?)
+      ORDER BY created_at, id
+      LIMIT ?
+      """;
+
+  private static final String PURGE_SQL =
+      "DELETE FROM dashboard_event_journal WHERE created_at < ?";
+
+  @Inject DataSource dataSource;
+
+  @ConfigProperty(name = "freshplan.dashboard.stream.replay-window", defaultValue = "1h")
+  Duration replayWindow;
+
+  /** Ein Journal-Eintrag: Channel + die unveränderte NOTIFY-Envelope. */
+  public record JournalEntry(String channel, JsonObject envelope) {
+
+    public String id() {
+      return envelope.getString("id");
+    }
+  }
+
+  /**
+   * Schreibt eine Envelope ins Journal. Fehler werden geloggt, nicht propagiert (Live-Push per
+   * NOTIFY funktioniert auch ohne Journal).
+   */
+  public void append(String channel, String envelopePayload) {
+    try {
+      JsonObject envelope = new JsonObject(envelopePayload);
+      UUID id = UUID.fromString(envelope.getString("id"));
+      JsonObject data = envelope.getJsonObject("data", new JsonObject());
+
+      try (Connection conn = dataSource.getConnection();
+          PreparedStatement ps = conn.prepareStatement(APPEND_SQL)) {
+        ps.setObject(1, id);
+        ps.setString(2, channel);
+        ps.setString(3, envelope.getString("type", "dashboard.unknown"));
+        ps.setString(4, data.getString("userId"));
+        ps.setString(5, envelopePayload);
+        ps.executeUpdate();
+      }
+    } catch (Exception e) {
+      Log.warnf("Failed to journal dashboard event on %s: %s", channel, e.getMessage());
+    }
+  }
+
+  /**
+   * Events nach {@code lastEventId} (exklusiv), ältestes zuerst.
+   *
+   * @return Events, oder leer wenn {@code lastEventId} unbekannt bzw. außerhalb des Replay-Fensters
+   */
+  public Optional<List<JournalEntry>> replayAfter(UUID lastEventId, int limit) {
+    OffsetDateTime windowStart = OffsetDateTime.now(ZoneOffset.UTC).minus(replayWindow);
+    try (Connection conn = dataSource.getConnection()) {
+      OffsetDateTime position = findPosition(conn, lastEventId, windowStart);
+      if (position == null) {
+        return Optional.empty();
+      }
+
+      List<JournalEntry> entries = new ArrayList<>();
+      try (PreparedStatement ps = conn.prepareStatement(REPLAY_SQL)) {
+        ps.setObject(1, position);
+        ps.setObject(2, position);
+        ps.setObject(3, lastEventId);
+        ps.setInt(4, limit);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            entries.add(new JournalEntry(rs.getString(1), new JsonObject(rs.getString(2))));
+          }
+        }
+      }
+      return Optional.of(entries);
+    } catch (SQLException e) {
+      Log.warnf(e, "Dashboard event replay after %s failed", lastEventId);
+      return Optional.empty();
+    }
+  }
+
+  private OffsetDateTime findPosition(Connection conn, UUID eventId, OffsetDateTime windowStart)
+      throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement(FIND_POSITION_SQL)) {
+      ps.setObject(1, eventId);
+      ps.setObject(2, windowStart);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? rs.getObject(1, OffsetDateTime.class) : null;
+      }
+    }
+  }
+
+  /** Retention: löscht Einträge außerhalb des Replay-Fensters. */
+  @Scheduled(
+      every = "{freshplan.dashboard.stream.journal-cleanup-interval:5m}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void purgeExpired() {
+    OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minus(replayWindow);
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(PURGE_SQL)) {
+      ps.setObject(1, cutoff);
+      int deleted = ps.executeUpdate();
+      if (deleted > 0) {
+        Log.debugf("Purged %d dashboard journal entries older than %s", deleted, cutoff);
+      }
+    } catch (SQLException e) {
+      Log.warnf("Dashboard journal purge failed: %s", e.getMessage());
+    }
+  }
+}
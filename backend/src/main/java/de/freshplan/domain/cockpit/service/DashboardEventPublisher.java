@@ -1,6 +1,8 @@
 package de.freshplan.domain.cockpit.service;
 
 import de.freshplan.infrastructure.pg.PgNotifySender;
+import de.freshplan.infrastructure.security.RlsRequestContext;
+import de.freshplan.infrastructure.security.RlsSessionContext;
 import de.freshplan.infrastructure.security.SecurityContextProvider;
 import de.freshplan.modules.leads.events.FollowUpProcessedEvent;
 import de.freshplan.modules.leads.events.LeadStatusChangeEvent;
@@ -8,6 +10,7 @@ import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonObject;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.ContextNotActiveException;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Status;
@@ -35,6 +38,10 @@ public class DashboardEventPublisher {
 
   @Inject PgNotifySender pgNotifySender;
 
+  @Inject DashboardEventJournal eventJournal;
+
+  @Inject RlsRequestContext rlsRequestContext;
+
   @Inject SecurityContextProvider securityContext;
 
   @Inject Metrics metrics;
@@ -210,7 +217,8 @@ public class DashboardEventPublisher {
 
   /**
    * Robuste pg_notify Implementation via Hibernate Session. Prüft Payload-Größe gegen
-   * Postgres-Limit (~8KB).
+   * Postgres-Limit (~8KB). Die Envelope wird vorher für den SSE-Replay journalisiert ({@link
+   * DashboardEventJournal}).
    */
   private void notifyPg(String channel, String payload) {
     // Event-Typ extrahieren für Metriken
@@ -243,6 +251,9 @@ public class DashboardEventPublisher {
       metrics.incPublishedWithResult(eventType, "dashboard", "truncated");
     }
 
+    // Journal vor NOTIFY: ein reconnectender SSE-Client findet das Event spätestens im Replay
+    eventJournal.append(channel, effectivePayload);
+
     // pg_notify mit Failure-Tracking
     try {
       pgNotifySender.send(channel, effectivePayload);
@@ -260,6 +271,7 @@ public class DashboardEventPublisher {
         .put("oldStatus", event.oldStatus().name())
         .put("newStatus", event.newStatus().name())
         .put("userId", event.userId())
+        .put("territory", currentTerritory())
         .put("changedAt", event.changedAt().toString())
         .put("reason", event.reason());
   }
@@ -273,6 +285,7 @@ public class DashboardEventPublisher {
         .put("t7Count", event.t7Count())
         .put("success", event.success())
         .put("userId", event.userId())
+        .put("territory", currentTerritory())
         .put(
             "processedAt",
             event.processedAt() != null
@@ -281,6 +294,16 @@ public class DashboardEventPublisher {
         .put("responseTime", event.responseTime() != null ? event.responseTime() : "unknown");
   }
 
+  /** Territory des auslösenden Users (SSE-Filter); {@code null} außerhalb eines Requests. */
+  private String currentTerritory() {
+    try {
+      RlsSessionContext context = rlsRequestContext.current();
+      return context != null ? context.appTerritory() : null;
+    } catch (ContextNotActiveException e) {
+      return null;
+    }
+  }
+
   /**
    * Generiert deterministischen Idempotency-Key für Follow-ups. Für BATCH-Events: Zeitfenster auf
    * Minute runden + User/Count-basiert.
@@ -0,0 +1,58 @@
+package de.freshplan.domain.cockpit.service;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Filter einer SSE-Verbindung auf Dashboard-/Metrics-Events.
+ *
+ * <p>Events ohne {@code data.territory} (z.B. Scheduler-Batches) sind für alle Territorien
+ * sichtbar.
+ *
+ * @param territory nur Events dieses Territoriums, {@code null} = alle
+ * @param userId nur Events dieses Users ({@code data.userId}), {@code null} = alle
+ * @param typePrefixes Event-Typ-Präfixe (z.B. {@code dashboard.}), leer = alle
+ */
+public record DashboardStreamFilter(String territory, String userId, Set<String> typePrefixes) {
+
+  public DashboardStreamFilter {
+    typePrefixes = typePrefixes == null ? Set.of() : Set.copyOf(typePrefixes);
+  }
+
+  /** Baut den Filter aus Query-Parametern; {@code types} ist eine kommagetrennte Liste. */
+  public static DashboardStreamFilter of(String territory, String userId, String types) {
+    Set<String> prefixes =
+        types == null
+            ? Set.of()
+            : Arrays.stream(types.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    return new DashboardStreamFilter(blankToNull(territory), blankToNull(userId), prefixes);
+  }
+
+  public boolean matches(JsonObject envelope) {
+    String type = envelope.getString("type", "");
+    if (!typePrefixes.isEmpty() && typePrefixes.stream().noneMatch(type::startsWith)) {
+      return false;
+    }
+
+    JsonObject data = envelope.getJsonObject("data");
+    if (data == null) {
+      return territory == null && userId == null;
+    }
+    String eventTerritory = data.getString("territory");
+    if (territory != null
+        && eventTerritory != null
+        && !territory.equalsIgnoreCase(eventTerritory)) {
+      return false;
+    }
+    return userId == null || userId.equals(data.getString("userId"));
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+}
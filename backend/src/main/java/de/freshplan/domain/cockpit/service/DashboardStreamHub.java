@@ -0,0 +1,306 @@
+package de.freshplan.domain.cockpit.service;
+
+import de.freshplan.infrastructure.cqrs.EventSubscriber.EventNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Verteilt Dashboard-/Metrics-Events (PostgreSQL NOTIFY via {@link EventNotification}) an offene
+ * SSE-Verbindungen.
+ *
+ * <p>Jede Verbindung hat einen eigenen, begrenzten Puffer ({@code
+ * freshplan.dashboard.stream.buffer-size}). Liest ein Client zu langsam, wird das älteste Event
+ * verworfen (drop-oldest) - der NOTIFY-Listener blockiert nie wegen eines einzelnen Clients.
+ * Heartbeats ({@code freshplan.dashboard.stream.heartbeat}) halten Proxies/Load-Balancer offen.
+ *
+ * <p>Reconnect mit {@code Last-Event-ID}: Die Verbindung wird vor dem Replay registriert, damit
+ * kein Event zwischen Replay-Abfrage und Live-Betrieb verloren geht; bereits per Replay gelieferte
+ * IDs werden im Live-Strom übersprungen. Ist die ID unbekannt oder zu alt, erhält der Client ein
+ * {@code resync}-Event und lädt das Dashboard neu.
+ *
+ * <p><strong>Metriken:</strong> {@code freshplan_dashboard_stream_open}, {@code
+ * freshplan_dashboard_stream_dropped}, {@code freshplan_dashboard_stream_rejected}.
+ */
+@ApplicationScoped
+public class DashboardStreamHub {
+
+  @Inject DashboardEventJournal journal;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "freshplan.dashboard.stream.buffer-size", defaultValue = "256")
+  int bufferSize;
+
+  @ConfigProperty(name = "freshplan.dashboard.stream.heartbeat", defaultValue = "20s")
+  Duration heartbeat;
+
+  @ConfigProperty(name = "freshplan.dashboard.stream.replay-limit", defaultValue = "500")
+  int replayLimit;
+
+  @ConfigProperty(name = "freshplan.dashboard.stream.max-streams", defaultValue = "500")
+  int maxStreams;
+
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private Counter droppedCounter;
+  private Counter rejectedCounter;
+
+  /** Element des SSE-Stroms. */
+  public record StreamEvent(Kind kind, String id, String type, JsonObject envelope) {
+
+    public enum Kind {
+      EVENT,
+      HEARTBEAT,
+      RESYNC,
+      CLOSED
+    }
+
+    static StreamEvent of(JsonObject envelope) {
+      return new StreamEvent(
+          Kind.EVENT, envelope.getString("id"), envelope.getString("type", "dashboard"), envelope);
+    }
+
+    static StreamEvent heartbeat() {
+      return new StreamEvent(Kind.HEARTBEAT, null, null, null);
+    }
+
+    static StreamEvent resync() {
+      return new StreamEvent(Kind.RESYNC, null, "resync", null);
+    }
+
+    static StreamEvent closed() {
+      return new StreamEvent(Kind.CLOSED, null, null, null);
+    }
+  }
+
+  @PostConstruct
+  void init() {
+    Gauge.builder("freshplan_dashboard_stream_open", subscriptions, Set::size)
+        .description("Open dashboard SSE streams")
+        .register(meterRegistry);
+    droppedCounter =
+        Counter.builder("freshplan_dashboard_stream_dropped")
+            .description("Dashboard events dropped because a stream buffer was full")
+            .register(meterRegistry);
+    rejectedCounter =
+        Counter.builder("freshplan_dashboard_stream_rejected")
+            .description("Dashboard SSE streams rejected because max-streams was reached")
+            .register(meterRegistry);
+  }
+
+  void onShutdown(@Observes ShutdownEvent ev) {
+    subscriptions.forEach(Subscription::close);
+    subscriptions.clear();
+  }
+
+  /** Live-Events aus dem NOTIFY-Listener. */
+  void onNotification(@Observes EventNotification notification) {
+    String channel = notification.getChannel();
+    if (DashboardEventJournal.DASHBOARD_CHANNEL.equals(channel)
+        || DashboardEventJournal.METRICS_CHANNEL.equals(channel)) {
+      dispatch(notification.getPayload());
+    }
+  }
+
+  void dispatch(JsonObject envelope) {
+    if (envelope == null || envelope.getString("id") == null) {
+      return;
+    }
+    for (Subscription subscription : subscriptions) {
+      if (subscription.filter.matches(envelope)) {
+        subscription.offer(StreamEvent.of(envelope));
+      }
+    }
+  }
+
+  /**
+   * Öffnet einen Event-Strom.
+   *
+   * @param lastEventId {@code Last-Event-ID} des Clients oder {@code null}
+   * @return Strom, oder leer wenn {@code max-streams} erreicht ist
+   */
+  public Optional<Multi<StreamEvent>> open(DashboardStreamFilter filter, String lastEventId) {
+    Optional<Subscription> registered = register(filter);
+    if (registered.isEmpty()) {
+      return Optional.empty();
+    }
+    Subscription subscription = registered.get();
+
+    List<StreamEvent> replay;
+    try {
+      replay = replay(subscription, lastEventId);
+    } catch (RuntimeException e) {
+      unregister(subscription);
+      throw e;
+    }
+
+    Multi<StreamEvent> live =
+        Multi.createBy()
+            .repeating()
+            .completionStage(subscription::next)
+            .until(event -> event.kind() == StreamEvent.Kind.CLOSED)
+            .emitOn(Infrastructure.getDefaultExecutor());
+    Multi<StreamEvent> heartbeats =
+        Multi.createFrom()
+            .ticks()
+            .startingAfter(heartbeat)
+            .every(heartbeat)
+            .onOverflow()
+            .drop()
+            .map(tick -> StreamEvent.heartbeat());
+
+    return Optional.of(
+        Multi.createBy()
+            .concatenating()
+            .streams(
+                Multi.createFrom().iterable(replay),
+                Multi.createBy().merging().streams(live, heartbeats))
+            .onTermination()
+            .invoke(() -> unregister(subscription)));
+  }
+
+  Optional<Subscription> register(DashboardStreamFilter filter) {
+    if (subscriptions.size() >= maxStreams) {
+      rejectedCounter.increment();
+      Log.warnf("Dashboard stream rejected: %d streams open", subscriptions.size());
+      return Optional.empty();
+    }
+    Subscription subscription = new Subscription(filter, Math.max(1, bufferSize));
+    subscriptions.add(subscription);
+    return Optional.of(subscription);
+  }
+
+  void unregister(Subscription subscription) {
+    if (subscriptions.remove(subscription)) {
+      subscription.close();
+      Log.debugf("Dashboard stream closed (%d dropped)", subscription.dropped());
+    }
+  }
+
+  /** Journal-Events nach {@code lastEventId}, gefiltert; IDs werden im Live-Strom übersprungen. */
+  List<StreamEvent> replay(Subscription subscription, String lastEventId) {
+    if (lastEventId == null || lastEventId.isBlank()) {
+      return List.of();
+    }
+    UUID lastId;
+    try {
+      lastId = UUID.fromString(lastEventId.trim());
+    } catch (IllegalArgumentException e) {
+      return List.of(StreamEvent.resync());
+    }
+
+    Optional<List<DashboardEventJournal.JournalEntry>> entries =
+        journal.replayAfter(lastId, replayLimit);
+    if (entries.isEmpty() || entries.get().size() >= replayLimit) {
+      // Unbekannt, abgelaufen oder zu viele verpasste Events: Client lädt neu
+      return List.of(StreamEvent.resync());
+    }
+
+    List<StreamEvent> replay =
+        entries.get().stream()
+            .map(DashboardEventJournal.JournalEntry::envelope)
+            .filter(subscription.filter::matches)
+            .map(StreamEvent::of)
+            .toList();
+    subscription.skip(replay.stream().map(StreamEvent::id).toList());
+    return replay;
+  }
+
+  int openStreams() {
+    return subscriptions.size();
+  }
+
+  /** Puffer einer Verbindung; {@link #next()} wird erst bei Demand des Clients aufgerufen. */
+  final class Subscription {
+
+    private final DashboardStreamFilter filter;
+    private final int capacity;
+    private final ArrayDeque<StreamEvent> buffer = new ArrayDeque<>();
+    private final Set<String> skipIds = new HashSet<>();
+    private CompletableFuture<StreamEvent> waiting;
+    private boolean closed;
+    private long dropped;
+
+    Subscription(DashboardStreamFilter filter, int capacity) {
+      this.filter = filter;
+      this.capacity = capacity;
+    }
+
+    void offer(StreamEvent event) {
+      CompletableFuture<StreamEvent> receiver;
+      synchronized (this) {
+        if (closed || skipIds.remove(event.id())) {
+          return;
+        }
+        receiver = waiting;
+        waiting = null;
+        if (receiver == null) {
+          if (buffer.size() >= capacity) {
+            buffer.pollFirst();
+            dropped++;
+            droppedCounter.increment();
+          }
+          buffer.addLast(event);
+          return;
+        }
+      }
+      receiver.complete(event);
+    }
+
+    synchronized CompletionStage<StreamEvent> next() {
+      if (!buffer.isEmpty()) {
+        return CompletableFuture.completedFuture(buffer.pollFirst());
+      }
+      if (closed) {
+        return CompletableFuture.completedFuture(StreamEvent.closed());
+      }
+      waiting = new CompletableFuture<>();
+      return waiting;
+    }
+
+    /** Bereits per Replay gelieferte Events aus Puffer und künftigem Live-Strom entfernen. */
+    synchronized void skip(List<String> ids) {
+      Set<String> pending = new HashSet<>(ids);
+      buffer.removeIf(event -> pending.remove(event.id()));
+      skipIds.addAll(pending);
+    }
+
+    void close() {
+      CompletableFuture<StreamEvent> receiver;
+      synchronized (this) {
+        closed = true;
+        buffer.clear();
+        skipIds.clear();
+        receiver = waiting;
+        waiting = null;
+      }
+      if (receiver != null) {
+        receiver.complete(StreamEvent.closed());
+      }
+    }
+
+    synchronized long dropped() {
+      return dropped;
+    }
+  }
+}
@@ -105,6 +105,16 @@ public class CostTransactionRepository implements PanacheRepositoryBase<CostTran
         .getResultList();
   }
 
+  /** Zählt Transaktionen, die über dem Budget liegen (ohne sie zu laden) */
+  public long countOverBudgetTransactions(LocalDateTime start, LocalDateTime end) {
+    return count("startTime >= ?1 AND startTime < ?2 AND actualCost > estimatedCost", start, end);
+  }
+
+  /** Zählt laufende Transaktionen (ohne sie zu laden) */
+  public long countRunningTransactions() {
+    return count("status = ?1", TransactionStatus.STARTED);
+  }
+
   /** Findet Transaktionen, die über dem Budget liegen */
   public List<CostTransaction> findOverBudgetTransactions(LocalDateTime start, LocalDateTime end) {
     return find("startTime >= ?1 AND startTime < ?2 AND actualCost > estimatedCost", start, end)
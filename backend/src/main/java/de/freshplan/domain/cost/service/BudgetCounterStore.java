@@ -0,0 +1,180 @@
+package de.freshplan.domain.cost.service;
+
+import de.freshplan.domain.cost.entity.BudgetPeriod;
+import de.freshplan.domain.cost.service.BudgetLedger.LedgerKey;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Datenbank-Seite des {@link BudgetLedger} (Tabelle {@code cost_budget_counters}).
+ *
+ * <p>Jede Methode läuft in einer eigenen, kurzen Transaktion ({@code REQUIRES_NEW}); die Deltas
+ * aller Scopes werden als ein JDBC-Batch geschrieben.
+ */
+@ApplicationScoped
+public class BudgetCounterStore {
+
+  private static final String ADD_SQL =
+      """
+      INSERT INTO cost_budget_counters
+        (scope, scope_value, period, period_start, period_end, amount_units, updated_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?)
+      ON CONFLICT (scope, scope_value, period, period_start) DO UPDATE
+      SET amount_units = cost_budget_counters.amount_units + EXCLUDED.amount_units,
+          updated_at = EXCLUDED.updated_at
+      """;
+
+  private static final String REPLACE_SQL =
+      """
+      INSERT INTO cost_budget_counters
+        (scope, scope_value, period, period_start, period_end, amount_units, updated_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?)
+      ON CONFLICT (scope, scope_value, period, period_start) DO UPDATE
+      SET amount_units = EXCLUDED.amount_units, updated_at = EXCLUDED.updated_at
+      """;
+
+  private static final String SEED_SQL =
+      """
+      INSERT INTO cost_budget_counters
+        (scope, scope_value, period, period_start, period_end, amount_units, updated_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?)
+      ON CONFLICT (scope, scope_value, period, period_start) DO NOTHING
+      """;
+
+  private static final String LOAD_ONE_SQL =
+      """
+      SELECT amount_units FROM cost_budget_counters
+      WHERE scope = ? AND scope_value = ? AND period = ? AND period_start = ?
+      """;
+
+  private static final String LOAD_CURRENT_SQL =
+      """
+      SELECT scope, scope_value, period, period_start, amount_units
+      FROM cost_budget_counters
+      WHERE period_end > ?
+      """;
+
+  @Inject DataSource dataSource;
+
+  /**
+   * Legt den Zähler einer Periode mit der exakten Summe an, falls noch kein Pod das getan hat.
+   *
+   * @return Aktuelle Cluster-Summe des Zählers
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public long seed(LedgerKey key, long exactUnits, LocalDateTime now) {
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(SEED_SQL)) {
+        bind(statement, key, exactUnits, now);
+        statement.executeUpdate();
+      }
+      try (PreparedStatement statement = connection.prepareStatement(LOAD_ONE_SQL)) {
+        statement.setString(1, key.scope());
+        statement.setString(2, key.scopeValue());
+        statement.setString(3, key.period().name());
+        statement.setTimestamp(4, Timestamp.valueOf(key.periodStart()));
+        try (ResultSet rs = statement.executeQuery()) {
+          return rs.next() ? rs.getLong(1) : exactUnits;
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Seeding budget counter failed: " + key, e);
+    }
+  }
+
+  /**
+   * Addiert die lokalen Deltas (ein Batch-Upsert) und liest die Cluster-Summen aller laufenden
+   * Perioden zurück.
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public Map<LedgerKey, Long> addAndLoad(Map<LedgerKey, Long> deltas, LocalDateTime now) {
+    try (Connection connection = dataSource.getConnection()) {
+      if (!deltas.isEmpty()) {
+        executeBatch(connection, ADD_SQL, deltas, now);
+      }
+      return loadCurrent(connection, now);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Flushing budget counters failed", e);
+    }
+  }
+
+  /** Reconciliation: setzt die Zähler auf die exakten Summen aus {@code cost_transactions}. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void replaceTotals(Map<LedgerKey, Long> exactTotals, LocalDateTime now) {
+    if (exactTotals.isEmpty()) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      executeBatch(connection, REPLACE_SQL, exactTotals, now);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Reconciling budget counters failed", e);
+    }
+  }
+
+  /** Entfernt Zähler abgelaufener Perioden. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int deleteExpired(LocalDateTime now) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement("DELETE FROM cost_budget_counters WHERE period_end <= ?")) {
+      statement.setTimestamp(1, Timestamp.valueOf(now));
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Deleting expired budget counters failed", e);
+    }
+  }
+
+  private static void executeBatch(
+      Connection connection, String sql, Map<LedgerKey, Long> amounts, LocalDateTime now)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (Map.Entry<LedgerKey, Long> entry : amounts.entrySet()) {
+        bind(statement, entry.getKey(), entry.getValue(), now);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static Map<LedgerKey, Long> loadCurrent(Connection connection, LocalDateTime now)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(LOAD_CURRENT_SQL)) {
+      statement.setTimestamp(1, Timestamp.valueOf(now));
+      Map<LedgerKey, Long> totals = new HashMap<>();
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          totals.put(
+              new LedgerKey(
+                  rs.getString(1),
+                  rs.getString(2),
+                  BudgetPeriod.valueOf(rs.getString(3)),
+                  rs.getTimestamp(4).toLocalDateTime()),
+              rs.getLong(5));
+        }
+      }
+      return totals;
+    }
+  }
+
+  private static void bind(
+      PreparedStatement statement, LedgerKey key, long units, LocalDateTime now)
+      throws SQLException {
+    statement.setString(1, key.scope());
+    statement.setString(2, key.scopeValue());
+    statement.setString(3, key.period().name());
+    statement.setTimestamp(4, Timestamp.valueOf(key.periodStart()));
+    statement.setTimestamp(5, Timestamp.valueOf(key.periodEnd()));
+    statement.setLong(6, units);
+    statement.setTimestamp(7, Timestamp.valueOf(now));
+  }
+}
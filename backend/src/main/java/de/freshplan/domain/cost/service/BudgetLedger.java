@@ -0,0 +1,466 @@
+package de.freshplan.domain.cost.service;
+
+import de.freshplan.domain.cost.entity.BudgetLimit;
+import de.freshplan.domain.cost.entity.BudgetPeriod;
+import de.freshplan.domain.cost.repository.BudgetLimitRepository;
+import de.freshplan.domain.cost.repository.CostTransactionRepository;
+import de.freshplan.domain.cost.service.dto.BudgetCheckResult;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * In-Memory Budget-Ledger für den {@link CostTrackingService}.
+ *
+ * <p>Statt bei jeder Budget-Prüfung {@code SUM(actual_cost)} über {@code cost_transactions} zu
+ * rechnen, hält der Ledger pro (Scope, Periode) einen Zähler in Einheiten von 1/10.000 EUR (Skala
+ * von {@code cost_transactions}):
+ *
+ * <ul>
+ *   <li>{@code cluster}: Cluster-Summe aus {@code cost_budget_counters} beim letzten Sync
+ *   <li>{@code pending}: lokal committete Kosten, noch nicht in die Counter-Tabelle geschrieben
+ *   <li>{@code reserved}: Schätzkosten laufender Transaktionen dieses Pods
+ * </ul>
+ *
+ * <p>{@link #reserve} prüft und reserviert atomar (CAS) gegen die Hard-Stop-Schwelle, so dass
+ * parallele Transaktionen das Budget nicht gemeinsam überziehen. {@link #commit} ersetzt die
+ * Reservierung durch die tatsächlichen Kosten, {@link #release} gibt sie frei.
+ *
+ * <p>Alle {@code flush-interval} schreibt der Ledger die Deltas per Batch-Upsert und übernimmt die
+ * Summen der anderen Pods. Alle {@code reconcile-interval} werden die Zähler auf die exakte Summe
+ * aus {@code cost_transactions} gesetzt. Abweichungen dazwischen liegen in der sicheren Richtung
+ * (Kosten eher doppelt als gar nicht gezählt); Reservierungen anderer Pods sind nicht sichtbar.
+ *
+ * <p>Geprüft werden wie bisher die aktiven Tageslimits (global, Service, Feature). Limits werden
+ * gecacht und nach {@link CostTrackingService#createOrUpdateBudgetLimit} sowie bei jeder
+ * Reconciliation neu geladen.
+ */
+@ApplicationScoped
+public class BudgetLedger {
+
+  private static final Logger LOG = Logger.getLogger(BudgetLedger.class);
+
+  /** Nachkommastellen einer Einheit (1/10.000 EUR). */
+  static final int UNIT_SCALE = 4;
+
+  static final String SCOPE_GLOBAL = "global";
+  static final String SCOPE_SERVICE = "service";
+  static final String SCOPE_FEATURE = "feature";
+
+  /** Zähler-Schlüssel; {@code scopeValue} ist {@code ""} für den globalen Scope. */
+  public record LedgerKey(
+      String scope, String scopeValue, BudgetPeriod period, LocalDateTime periodStart) {
+
+    public LocalDateTime periodEnd() {
+      return period.getPeriodEnd(periodStart);
+    }
+  }
+
+  /** Gecachtes Limit mit Schwellen in Einheiten. */
+  record LimitSpec(BudgetLimit limit, long hardStopUnits, long alertUnits) {}
+
+  /** Zähler eines (Scope, Periode). */
+  static final class Counter {
+    final AtomicLong cluster = new AtomicLong();
+    final AtomicLong pending = new AtomicLong();
+    final AtomicLong reserved = new AtomicLong();
+
+    long usedUnits() {
+      return cluster.get() + pending.get() + reserved.get();
+    }
+
+    /** Reserviert nur, wenn danach die Hard-Stop-Schwelle noch nicht erreicht ist. */
+    boolean tryReserve(long units, long hardStopUnits) {
+      while (true) {
+        long current = reserved.get();
+        if (cluster.get() + pending.get() + current + units >= hardStopUnits) {
+          return false;
+        }
+        if (reserved.compareAndSet(current, current + units)) {
+          return true;
+        }
+      }
+    }
+  }
+
+  /** Reservierung einer laufenden Transaktion. */
+  public static final class Reservation {
+    private final List<Counter> counters;
+    private final long units;
+    private final LocalDateTime reservedAt;
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    Reservation(List<Counter> counters, long units, LocalDateTime reservedAt) {
+      this.counters = counters;
+      this.units = units;
+      this.reservedAt = reservedAt;
+    }
+
+    /** Gibt die Reservierung frei (idempotent). */
+    public void release() {
+      if (settled.compareAndSet(false, true)) {
+        counters.forEach(counter -> counter.reserved.addAndGet(-units));
+      }
+    }
+
+    /** Ersetzt die Reservierung durch die tatsächlichen Kosten (idempotent). */
+    void commit(long actualUnits) {
+      if (settled.compareAndSet(false, true)) {
+        // Erst buchen, dann freigeben: der Verbrauch sinkt nie kurzzeitig zu tief
+        counters.forEach(
+            counter -> {
+              counter.pending.addAndGet(actualUnits);
+              counter.reserved.addAndGet(-units);
+            });
+      }
+    }
+  }
+
+  private record Applicable(Counter counter, LimitSpec spec, String denyReason) {}
+
+  @Inject BudgetCounterStore counterStore;
+
+  @Inject BudgetLimitRepository budgetRepository;
+
+  @Inject CostTransactionRepository transactionRepository;
+
+  @ConfigProperty(name = "freshplan.cost.ledger.reservation-timeout", defaultValue = "1h")
+  Duration reservationTimeout;
+
+  private final ConcurrentMap<LedgerKey, Counter> counters = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+
+  /**
+   * Serialisiert Flush und Reconcile: beide Scheduler-Jobs lesen {@code pending}, und zwei
+   * gleichzeitige Drains würden dasselbe Delta doppelt upserten.
+   */
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  /** Aktive Tageslimits nach "scope:scopeValue"; {@code null} = neu laden. */
+  private volatile Map<String, LimitSpec> limits;
+
+  /**
+   * Prüft ein Budget ohne zu reservieren (Semantik des bisherigen {@code checkBudget}).
+   *
+   * <p>Muss in einer Transaktion laufen (Limits und neue Zähler werden ggf. geladen).
+   */
+  public BudgetCheckResult check(
+      String service, String feature, BigDecimal estimatedCost, LocalDateTime at) {
+    BudgetCheckResult result = new BudgetCheckResult();
+    long units = toUnits(estimatedCost);
+
+    for (Applicable applicable : applicable(service, feature, at)) {
+      long projected = applicable.counter().usedUnits() + units;
+      if (projected >= applicable.spec().hardStopUnits()) {
+        result.deny(applicable.denyReason());
+        return result;
+      }
+      if (SCOPE_GLOBAL.equals(applicable.spec().limit().scope)
+          && projected >= applicable.spec().alertUnits()) {
+        result.addWarning("Globales Tagesbudget bei 80%");
+      }
+    }
+
+    result.approve();
+    return result;
+  }
+
+  /**
+   * Prüft und reserviert die Schätzkosten atomar in allen betroffenen Zählern.
+   *
+   * @throws BudgetExceededException wenn ein Limit die Hard-Stop-Schwelle erreichen würde
+   */
+  public Reservation reserve(
+      String service, String feature, BigDecimal estimatedCost, LocalDateTime at) {
+    long units = toUnits(estimatedCost);
+    List<Applicable> applicable = applicable(service, feature, at);
+    List<Counter> reserved = new ArrayList<>(applicable.size());
+
+    for (Applicable candidate : applicable) {
+      if (!candidate.counter().tryReserve(units, candidate.spec().hardStopUnits())) {
+        reserved.forEach(counter -> counter.reserved.addAndGet(-units));
+        throw new BudgetExceededException(candidate.denyReason());
+      }
+      reserved.add(candidate.counter());
+    }
+    return new Reservation(reserved, units, at);
+  }
+
+  /** Ordnet eine Reservierung der persistierten Transaktion zu. */
+  public void bind(UUID transactionId, Reservation reservation) {
+    reservations.put(transactionId, reservation);
+  }
+
+  /**
+   * Bucht die tatsächlichen Kosten einer abgeschlossenen Transaktion.
+   *
+   * <p>Ohne Reservierung (Transaktion auf anderem Pod gestartet, Neustart) werden die Kosten direkt
+   * auf die betroffenen Zähler gebucht.
+   */
+  public void commit(
+      UUID transactionId,
+      String service,
+      String feature,
+      LocalDateTime startTime,
+      BigDecimal actualCost) {
+    long actualUnits = toUnits(actualCost);
+    Reservation reservation = reservations.remove(transactionId);
+    if (reservation != null) {
+      reservation.commit(actualUnits);
+      return;
+    }
+    applicable(service, feature, startTime)
+        .forEach(applicable -> applicable.counter().pending.addAndGet(actualUnits));
+  }
+
+  /** Gibt die Reservierung einer fehlgeschlagenen Transaktion frei. */
+  public void release(UUID transactionId) {
+    Reservation reservation = reservations.remove(transactionId);
+    if (reservation != null) {
+      reservation.release();
+    }
+  }
+
+  /** Limits beim nächsten Zugriff neu laden (nach Änderungen an Budget-Limits). */
+  public void invalidateLimits() {
+    limits = null;
+  }
+
+  @Scheduled(
+      every = "{freshplan.cost.ledger.flush-interval:5s}",
+      identity = "cost-budget-ledger-flush",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledFlush() {
+    try {
+      flush(LocalDateTime.now());
+    } catch (Exception e) {
+      LOG.warnf("Budget ledger flush failed, retrying next interval: %s", e.getMessage());
+    }
+  }
+
+  @Scheduled(
+      every = "{freshplan.cost.ledger.reconcile-interval:5m}",
+      identity = "cost-budget-ledger-reconcile",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @Transactional
+  void scheduledReconcile() {
+    try {
+      reconcile(LocalDateTime.now());
+    } catch (Exception e) {
+      LOG.error("Budget ledger reconciliation failed", e);
+    }
+  }
+
+  /**
+   * Schreibt die lokalen Deltas als Batch-Upsert und übernimmt die Cluster-Summen.
+   *
+   * <p>Das Delta bleibt bis nach dem Übernehmen der neuen Summe in {@code pending}; der Verbrauch
+   * ist währenddessen kurz doppelt, aber nie zu niedrig. Schlägt der Upsert fehl, bleibt es für den
+   * nächsten Flush stehen. Läuft bereits ein Flush (oder Reconcile), wartet der Aufrufer.
+   */
+  void flush(LocalDateTime now) {
+    flushLock.lock();
+    try {
+      drain(now);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void drain(LocalDateTime now) {
+    Map<LedgerKey, Long> deltas = new HashMap<>();
+    counters.forEach(
+        (key, counter) -> {
+          long delta = counter.pending.get();
+          if (delta != 0) {
+            deltas.put(key, delta);
+          }
+        });
+
+    Map<LedgerKey, Long> totals = counterStore.addAndLoad(deltas, now);
+
+    counters.forEach(
+        (key, counter) -> {
+          Long total = totals.get(key);
+          if (total != null) {
+            counter.cluster.set(total);
+          }
+          Long delta = deltas.get(key);
+          if (delta != null) {
+            counter.pending.addAndGet(-delta);
+          }
+        });
+  }
+
+  /**
+   * Gleicht die Zähler mit {@code cost_transactions} ab, entfernt abgelaufene Perioden und
+   * verwaiste Reservierungen und lädt die Limits neu. Hält den Flush-Lock für den ganzen Abgleich,
+   * damit kein Flush zwischen Summenbildung und {@code replaceTotals} Deltas schreibt.
+   */
+  void reconcile(LocalDateTime now) {
+    flushLock.lock();
+    try {
+      reconcileLocked(now);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void reconcileLocked(LocalDateTime now) {
+    drain(now);
+    limits = loadLimits();
+
+    LocalDateTime staleBefore = now.minus(reservationTimeout);
+    reservations
+        .entrySet()
+        .removeIf(
+            entry -> {
+              if (entry.getValue().reservedAt.isBefore(staleBefore)) {
+                LOG.warnf("Releasing stale budget reservation of transaction %s", entry.getKey());
+                entry.getValue().release();
+                return true;
+              }
+              return false;
+            });
+    counters
+        .entrySet()
+        .removeIf(
+            entry ->
+                !entry.getKey().periodEnd().isAfter(now)
+                    && entry.getValue().pending.get() == 0
+                    && entry.getValue().reserved.get() == 0);
+
+    Map<LedgerKey, Long> exact = new HashMap<>();
+    for (LedgerKey key : counters.keySet()) {
+      exact.put(key, exactUnits(key));
+    }
+    counterStore.replaceTotals(exact, now);
+    exact.forEach(
+        (key, units) -> {
+          Counter counter = counters.get(key);
+          if (counter != null) {
+            counter.cluster.set(units);
+          }
+        });
+    counterStore.deleteExpired(now);
+    LOG.debugf("Budget ledger reconciled: %d counters", exact.size());
+  }
+
+  private List<Applicable> applicable(String service, String feature, LocalDateTime at) {
+    Map<String, LimitSpec> specs = limits();
+    List<Applicable> result = new ArrayList<>(3);
+    addApplicable(
+        result, specs, SCOPE_GLOBAL, "", at, "Globales Tagesbudget erreicht"); // 1. Global
+    addApplicable(
+        result,
+        specs,
+        SCOPE_SERVICE,
+        service,
+        at,
+        "Service-Budget für " + service + " erreicht"); // 2. Service
+    addApplicable(
+        result,
+        specs,
+        SCOPE_FEATURE,
+        feature,
+        at,
+        "Feature-Budget für " + feature + " erreicht"); // 3. Feature
+    return result;
+  }
+
+  private void addApplicable(
+      List<Applicable> result,
+      Map<String, LimitSpec> specs,
+      String scope,
+      String scopeValue,
+      LocalDateTime at,
+      String denyReason) {
+    LimitSpec spec = specs.get(scope + ":" + scopeValue);
+    if (spec == null) {
+      return;
+    }
+    BudgetPeriod period = spec.limit().period;
+    LedgerKey key = new LedgerKey(scope, scopeValue, period, period.getPeriodStart(at));
+    result.add(new Applicable(counterFor(key), spec, denyReason));
+  }
+
+  /** Zähler einer Periode; beim ersten Zugriff mit der exakten Summe initialisiert. */
+  Counter counterFor(LedgerKey key) {
+    Counter counter = counters.get(key);
+    if (counter != null) {
+      return counter;
+    }
+    return counters.computeIfAbsent(
+        key,
+        k -> {
+          Counter created = new Counter();
+          created.cluster.set(counterStore.seed(k, exactUnits(k), LocalDateTime.now()));
+          return created;
+        });
+  }
+
+  private Map<String, LimitSpec> limits() {
+    Map<String, LimitSpec> current = limits;
+    if (current == null) {
+      current = loadLimits();
+      limits = current;
+    }
+    return current;
+  }
+
+  private Map<String, LimitSpec> loadLimits() {
+    Map<String, LimitSpec> loaded = new HashMap<>();
+    for (BudgetLimit limit : budgetRepository.findByPeriod(BudgetPeriod.DAILY)) {
+      if (SCOPE_GLOBAL.equals(limit.scope)
+          || SCOPE_SERVICE.equals(limit.scope)
+          || SCOPE_FEATURE.equals(limit.scope)) {
+        String scopeValue = SCOPE_GLOBAL.equals(limit.scope) ? "" : limit.scopeValue;
+        loaded.putIfAbsent(
+            limit.scope + ":" + scopeValue,
+            new LimitSpec(
+                limit, toUnits(limit.getHardStopAmount()), toUnits(limit.getAlertAmount())));
+      }
+    }
+    return Map.copyOf(loaded);
+  }
+
+  private long exactUnits(LedgerKey key) {
+    LocalDateTime start = key.periodStart();
+    LocalDateTime end = key.periodEnd();
+    BigDecimal total =
+        switch (key.scope()) {
+          case SCOPE_GLOBAL -> transactionRepository.getTotalCost(start, end);
+          case SCOPE_SERVICE ->
+              transactionRepository.getTotalCostByService(key.scopeValue(), start, end);
+          case SCOPE_FEATURE ->
+              transactionRepository.getTotalCostByFeature(key.scopeValue(), start, end);
+          default -> transactionRepository.getTotalCostByUser(key.scopeValue(), start, end);
+        };
+    return toUnits(total);
+  }
+
+  static long toUnits(BigDecimal amount) {
+    if (amount == null) {
+      return 0;
+    }
+    return amount.setScale(UNIT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+}
@@ -6,18 +6,26 @@ import de.freshplan.domain.cost.repository.CostTransactionRepository;
 import de.freshplan.domain.cost.service.dto.*;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.IntConsumer;
 
 /**
  * Zentraler Cost Tracking Service für das Cost Management System
  *
  * <p>Implementiert die Kern-Funktionalitäten: - Transaction Tracking - Budget Checking - Cost
  * Analysis - Alert Management
+ *
+ * <p>Budget-Prüfungen laufen gegen den In-Memory {@link BudgetLedger} statt gegen {@code
+ * SUM}-Queries über {@code cost_transactions}; Reservierungen werden erst nach Commit gebucht bzw.
+ * bei Rollback freigegeben.
  */
 @ApplicationScoped
 @Transactional
@@ -29,20 +37,36 @@ public class CostTrackingService {
 
   @Inject CostAlertService alertService;
 
+  @Inject BudgetLedger budgetLedger;
+
+  @Inject TransactionSynchronizationRegistry txRegistry;
+
   /** Startet eine neue Cost Transaction */
   public CostTransactionContext startTransaction(
       String service, String feature, String model, BigDecimal estimatedCost, String userId) {
 
-    // Budget-Check vor Transaction-Start
-    BudgetCheckResult budgetCheck = checkBudget(service, feature, estimatedCost, userId);
-    if (!budgetCheck.canAfford()) {
-      throw new BudgetExceededException(budgetCheck.getReason());
-    }
-
     CostTransaction transaction =
         CostTransaction.startTransaction(service, feature, model, estimatedCost);
     transaction.userId = userId;
-    transaction.persist();
+
+    // Budget-Check und Reservierung vor Transaction-Start (atomar gegen parallele Transaktionen)
+    BudgetLedger.Reservation reservation =
+        budgetLedger.reserve(service, feature, estimatedCost, transaction.startTime);
+    try {
+      transaction.persist();
+    } catch (RuntimeException e) {
+      reservation.release();
+      throw e;
+    }
+
+    UUID transactionId = transaction.id;
+    budgetLedger.bind(transactionId, reservation);
+    afterCompletion(
+        status -> {
+          if (status != Status.STATUS_COMMITTED) {
+            budgetLedger.release(transactionId);
+          }
+        });
 
     return new CostTransactionContext(transaction, this);
   }
@@ -56,6 +80,16 @@ public class CostTrackingService {
 
     transaction.complete(actualCost, tokensUsed);
 
+    String service = transaction.service;
+    String feature = transaction.feature;
+    LocalDateTime startTime = transaction.startTime;
+    afterCompletion(
+        status -> {
+          if (status == Status.STATUS_COMMITTED) {
+            budgetLedger.commit(transactionId, service, feature, startTime, actualCost);
+          }
+        });
+
     // Prüfe auf Budget-Überschreitungen nach tatsächlichen Kosten
     checkAndSendAlerts(transaction);
   }
@@ -66,66 +100,13 @@ public class CostTrackingService {
     if (transaction != null) {
       transaction.fail(errorMessage);
     }
+    budgetLedger.release(transactionId);
   }
 
-  /** Prüft Budget-Verfügbarkeit für eine geplante Transaktion */
+  /** Prüft Budget-Verfügbarkeit für eine geplante Transaktion (ohne Reservierung) */
   public BudgetCheckResult checkBudget(
       String service, String feature, BigDecimal estimatedCost, String userId) {
-    LocalDateTime now = LocalDateTime.now();
-
-    // Prüfe verschiedene Budget-Ebenen (hierarchisch)
-    BudgetCheckResult result = new BudgetCheckResult();
-
-    // 1. Global Daily Limit
-    Optional<BudgetLimit> globalDaily = budgetRepository.findGlobalLimit(BudgetPeriod.DAILY);
-    if (globalDaily.isPresent()) {
-      BudgetLimit limit = globalDaily.get();
-      LocalDateTime dayStart = BudgetPeriod.DAILY.getPeriodStart(now);
-      LocalDateTime dayEnd = BudgetPeriod.DAILY.getPeriodEnd(now);
-      BigDecimal usedToday = transactionRepository.getTotalCost(dayStart, dayEnd);
-
-      if (limit.shouldHardStop(usedToday.add(estimatedCost))) {
-        result.deny("Globales Tagesbudget erreicht");
-        return result;
-      }
-
-      if (limit.shouldAlert(usedToday.add(estimatedCost))) {
-        result.addWarning("Globales Tagesbudget bei 80%");
-      }
-    }
-
-    // 2. Service-spezifisches Limit
-    Optional<BudgetLimit> serviceLimit =
-        budgetRepository.findServiceLimit(service, BudgetPeriod.DAILY);
-    if (serviceLimit.isPresent()) {
-      BudgetLimit limit = serviceLimit.get();
-      LocalDateTime dayStart = BudgetPeriod.DAILY.getPeriodStart(now);
-      LocalDateTime dayEnd = BudgetPeriod.DAILY.getPeriodEnd(now);
-      BigDecimal usedToday = transactionRepository.getTotalCostByService(service, dayStart, dayEnd);
-
-      if (limit.shouldHardStop(usedToday.add(estimatedCost))) {
-        result.deny("Service-Budget für " + service + " erreicht");
-        return result;
-      }
-    }
-
-    // 3. Feature-spezifisches Limit
-    Optional<BudgetLimit> featureLimit =
-        budgetRepository.findFeatureLimit(feature, BudgetPeriod.DAILY);
-    if (featureLimit.isPresent()) {
-      BudgetLimit limit = featureLimit.get();
-      LocalDateTime dayStart = BudgetPeriod.DAILY.getPeriodStart(now);
-      LocalDateTime dayEnd = BudgetPeriod.DAILY.getPeriodEnd(now);
-      BigDecimal usedToday = transactionRepository.getTotalCostByFeature(feature, dayStart, dayEnd);
-
-      if (limit.shouldHardStop(usedToday.add(estimatedCost))) {
-        result.deny("Feature-Budget für " + feature + " erreicht");
-        return result;
-      }
-    }
-
-    result.approve();
-    return result;
+    return budgetLedger.check(service, feature, estimatedCost, LocalDateTime.now());
   }
 
   /** Holt Cost Statistics für einen Zeitraum */
@@ -133,7 +114,15 @@ public class CostTrackingService {
     CostStatistics stats = new CostStatistics();
 
     stats.totalCost = transactionRepository.getTotalCost(start, end);
-    stats.transactionCount = transactionRepository.findInPeriod(start, end).size();
+
+    // Anzahl gesamt und fehlgeschlagen aus einer gruppierten COUNT-Query
+    for (Object[] row : transactionRepository.getTransactionCountsByStatus(start, end)) {
+      int count = ((Long) row[1]).intValue();
+      stats.transactionCount += count;
+      if (row[0] == TransactionStatus.FAILED) {
+        stats.failedTransactions = count;
+      }
+    }
 
     // Top Cost Drivers
     List<Object[]> topServices = transactionRepository.getTopCostDriversByService(start, end, 5);
@@ -152,12 +141,9 @@ public class CostTrackingService {
       stats.addFeatureCost(feature, cost, count.intValue());
     }
 
-    // Fehlgeschlagene Transaktionen
-    stats.failedTransactions = transactionRepository.findFailedTransactions(start, end).size();
-
     // Over-Budget Transaktionen
     stats.overBudgetTransactions =
-        transactionRepository.findOverBudgetTransactions(start, end).size();
+        (int) transactionRepository.countOverBudgetTransactions(start, end);
 
     return stats;
   }
@@ -199,7 +185,7 @@ public class CostTrackingService {
     }
 
     // Laufende Transaktionen
-    dashboard.runningTransactions = transactionRepository.findRunningTransactions().size();
+    dashboard.runningTransactions = (int) transactionRepository.countRunningTransactions();
 
     return dashboard;
   }
@@ -229,6 +215,12 @@ public class CostTrackingService {
     }
 
     limit.persist();
+    afterCompletion(
+        status -> {
+          if (status == Status.STATUS_COMMITTED) {
+            budgetLedger.invalidateLimits();
+          }
+        });
     return limit;
   }
 
@@ -255,6 +247,22 @@ public class CostTrackingService {
 
   // Private Helper Methods
 
+  /** Führt die Aktion nach Abschluss der laufenden Transaktion aus (Status aus {@link Status}). */
+  private void afterCompletion(IntConsumer action) {
+    txRegistry.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {
+            // Nothing to do before completion
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            action.accept(status);
+          }
+        });
+  }
+
   private void checkAndSendAlerts(CostTransaction transaction) {
     // Implementierung für Alert-Checks nach Transaction
     if (transaction.isOverBudget()) {
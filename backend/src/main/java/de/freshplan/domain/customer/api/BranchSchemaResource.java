@@ -1,6 +1,7 @@
 package de.freshplan.domain.customer.api;
 
 import de.freshplan.domain.customer.dto.*;
+import de.freshplan.infrastructure.meta.PreRendered;
 import jakarta.annotation.security.PermitAll;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -29,6 +30,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
  * @author FreshPlan Team
  * @since 2.1.7.7
  */
+@PreRendered
 @Path("/api/branches/schema")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "Branch Schema", description = "Server-Driven UI Schema for Branch Creation")
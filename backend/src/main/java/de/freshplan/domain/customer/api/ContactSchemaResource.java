@@ -1,6 +1,7 @@
 package de.freshplan.domain.customer.api;
 
 import de.freshplan.domain.customer.dto.*;
+import de.freshplan.infrastructure.meta.PreRendered;
 import jakarta.annotation.security.PermitAll;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -38,6 +39,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
  * @author FreshPlan Team
  * @since 2.0.0
  */
+@PreRendered
 @Path("/api/contacts/schema")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "Contact Schema", description = "Server-Driven UI Schema for Contact Forms")
@@ -1,6 +1,7 @@
 package de.freshplan.domain.customer.api;
 
 import de.freshplan.domain.customer.dto.*;
+import de.freshplan.infrastructure.meta.PreRendered;
 import jakarta.annotation.security.PermitAll;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -37,6 +38,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
  * @author FreshPlan Team
  * @since 2.0.0
  */
+@PreRendered
 @Path("/api/customers/schema")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "Customer Schema", description = "Server-Driven UI Schema for Customer Cards")
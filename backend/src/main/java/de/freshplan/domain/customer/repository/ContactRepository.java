@@ -4,6 +4,7 @@ import de.freshplan.domain.customer.entity.CustomerContact;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -353,4 +354,71 @@ public class ContactRepository implements PanacheRepositoryBase<CustomerContact,
       return update("assignedLocation.id = ?1 where id in ?2", locationId, contactIds);
     }
   }
+
+  // ========== DATA QUALITY ==========
+
+  /**
+   * Contact counts for the data quality dashboard in one pass over customer_contacts (plus one
+   * grouped pass over contact_interactions), using {@code count(*) FILTER (WHERE ...)} instead of
+   * one count query per metric.
+   *
+   * @param freshSince contacts updated at or after this are "fresh"
+   * @param agingSince contacts updated before freshSince but at or after this are "aging"
+   * @param staleSince contacts updated before agingSince but at or after this are "stale", older
+   *     ones are "critical"
+   */
+  public DataQualityCounts countDataQuality(
+      LocalDateTime freshSince, LocalDateTime agingSince, LocalDateTime staleSince) {
+    Object[] row =
+        (Object[])
+            getEntityManager()
+                .createNativeQuery(
+                    """
+                    WITH interaction_counts AS (
+                      SELECT contact_id, count(*) AS interactions
+                      FROM contact_interactions
+                      GROUP BY contact_id
+                    )
+                    SELECT count(*),
+                           count(ic.contact_id),
+                           COALESCE(sum(ic.interactions), 0),
+                           count(*) FILTER (WHERE c.warmth_score IS NOT NULL),
+                           count(*) FILTER (WHERE c.updated_at >= ?1),
+                           count(*) FILTER (WHERE c.updated_at < ?1 AND c.updated_at >= ?2),
+                           count(*) FILTER (WHERE c.updated_at < ?2 AND c.updated_at >= ?3),
+                           count(*) FILTER (WHERE c.updated_at < ?3),
+                           count(*) FILTER (WHERE c.email IS NOT NULL
+                                              AND (c.phone IS NOT NULL OR c.mobile IS NOT NULL)
+                                              AND c.position IS NOT NULL)
+                    FROM customer_contacts c
+                    LEFT JOIN interaction_counts ic ON ic.contact_id = c.id
+                    """)
+                .setParameter(1, freshSince)
+                .setParameter(2, agingSince)
+                .setParameter(3, staleSince)
+                .getSingleResult();
+
+    return new DataQualityCounts(
+        ((Number) row[0]).longValue(),
+        ((Number) row[1]).longValue(),
+        ((Number) row[2]).longValue(),
+        ((Number) row[3]).longValue(),
+        ((Number) row[4]).longValue(),
+        ((Number) row[5]).longValue(),
+        ((Number) row[6]).longValue(),
+        ((Number) row[7]).longValue(),
+        ((Number) row[8]).longValue());
+  }
+
+  /** Result of {@link #countDataQuality}. */
+  public record DataQualityCounts(
+      long totalContacts,
+      long contactsWithInteractions,
+      long totalInteractions,
+      long contactsWithWarmthScore,
+      long freshContacts,
+      long agingContacts,
+      long staleContacts,
+      long criticalContacts,
+      long completeContacts) {}
 }
@@ -0,0 +1,30 @@
+package de.freshplan.domain.customer.repository;
+
+import de.freshplan.domain.customer.entity.Customer;
+import java.util.List;
+
+/**
+ * Per-customer aggregates needed by list views that would otherwise require lazy collection loads
+ * ({@code childCustomers}, {@code contacts}) for every row.
+ *
+ * @param childCustomerIds IDs of direct child customers
+ * @param activeContactsCount Number of active, non-deleted contacts
+ */
+public record CustomerListAggregate(List<String> childCustomerIds, int activeContactsCount) {
+
+  public static final CustomerListAggregate EMPTY = new CustomerListAggregate(List.of(), 0);
+
+  /**
+   * Derives the aggregate from the (possibly lazy) entity collections. Used for single-entity
+   * mapping and for customers not yet flushed to the database.
+   */
+  public static CustomerListAggregate fromEntity(Customer customer) {
+    return new CustomerListAggregate(
+        customer.getChildCustomers().stream().map(child -> child.getId().toString()).toList(),
+        customer.getActiveContactsCount());
+  }
+
+  public boolean hasChildren() {
+    return !childCustomerIds.isEmpty();
+  }
+}
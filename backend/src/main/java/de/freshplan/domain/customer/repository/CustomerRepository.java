@@ -1,6 +1,5 @@
 package de.freshplan.domain.customer.repository;
 
-import de.freshplan.domain.customer.constants.CustomerConstants;
 import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.entity.CustomerLifecycleStage;
 import de.freshplan.domain.customer.entity.CustomerStatus;
@@ -12,7 +11,10 @@ import jakarta.enterprise.context.ApplicationScoped;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -71,6 +73,41 @@ public class CustomerRepository implements PanacheRepositoryBase<Customer, UUID>
         .list();
   }
 
+  /**
+   * Prefix search on company name or customer number. Both predicates are served by the {@code
+   * text_pattern_ops} indexes from V10063; used by the autocomplete if its in-memory index misses.
+   */
+  public List<Customer> findByNameOrNumberPrefix(String prefix, int limit) {
+    String escaped = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    return find(
+            "isDeleted = false AND (lower(companyName) like ?1 escape '!' "
+                + "OR customerNumber like ?2 escape '!') ORDER BY companyName",
+            escaped.toLowerCase() + "%",
+            escaped.toUpperCase() + "%")
+        .page(0, limit)
+        .list();
+  }
+
+  /**
+   * Autocomplete rows: {@code id, companyName, customerNumber, status, lastContactDate, isDeleted}.
+   *
+   * @param changedSince {@code null} for all non-deleted customers, otherwise every customer
+   *     (including soft-deleted ones) updated after this point in time
+   */
+  public List<Object[]> findAutocompleteRows(LocalDateTime changedSince) {
+    var query =
+        getEntityManager()
+            .createQuery(
+                "SELECT c.id, c.companyName, c.customerNumber, c.status, c.lastContactDate, "
+                    + "c.isDeleted FROM Customer c WHERE "
+                    + (changedSince == null ? "c.isDeleted = false" : "c.updatedAt > :since"),
+                Object[].class);
+    if (changedSince != null) {
+      query.setParameter("since", changedSince);
+    }
+    return query.getResultList();
+  }
+
   /** Find customers by contact email - searches in contacts. */
   public List<Customer> findByContactEmail(String email, int limit) {
     // Since Customer doesn't have email field, return empty for now
@@ -400,31 +437,50 @@ public class CustomerRepository implements PanacheRepositoryBase<Customer, UUID>
     return find("updatedAt >= ?1 AND isDeleted = false", cutoffDate).page(page).list();
   }
 
-  // ========== UTILITY METHODS ==========
+  // ========== LIST READ PATH ==========
 
-  /** Get next customer number for CustomerNumberGenerator. Format: KD-YYYY-XXXXX */
-  public Integer getMaxCustomerNumberForYear(int year) {
-    String yearPrefix =
-        CustomerConstants.CUSTOMER_NUMBER_PREFIX
-            + CustomerConstants.CUSTOMER_NUMBER_SEPARATOR
-            + year
-            + CustomerConstants.CUSTOMER_NUMBER_SEPARATOR;
+  /**
+   * Loads child customer IDs and active contact counts for a whole page in one statement, instead
+   * of two lazy collection loads per row.
+   *
+   * @param customerIds IDs of the customers on the page
+   * @return Aggregates per customer ID (every requested, existing ID is contained)
+   */
+  public Map<UUID, CustomerListAggregate> findListAggregates(Collection<UUID> customerIds) {
+    if (customerIds == null || customerIds.isEmpty()) {
+      return Map.of();
+    }
 
-    // Native query to extract number part and find maximum
     String sql =
         """
-                SELECT MAX(CAST(SUBSTRING(customer_number, 9) AS INTEGER))
-                FROM customers
-                WHERE customer_number LIKE ?1
-                """;
-
-    Object result =
-        getEntityManager()
-            .createNativeQuery(sql)
-            .setParameter(1, yearPrefix + "%")
-            .getSingleResult();
-
-    return result != null ? (Integer) result : null;
+        SELECT c.id,
+               (SELECT string_agg(ch.id::text, ',' ORDER BY ch.company_name, ch.id)
+                  FROM customers ch
+                 WHERE ch.parent_customer_id = c.id) AS child_ids,
+               (SELECT count(*)
+                  FROM customer_contacts cc
+                 WHERE cc.customer_id = c.id
+                   AND cc.is_active = true
+                   AND cc.is_deleted = false) AS active_contacts
+          FROM customers c
+         WHERE c.id IN (:ids)
+        """;
+
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows =
+        getEntityManager().createNativeQuery(sql).setParameter("ids", customerIds).getResultList();
+
+    Map<UUID, CustomerListAggregate> aggregates = new HashMap<>(rows.size() * 2);
+    for (Object[] row : rows) {
+      UUID id = row[0] instanceof UUID uuid ? uuid : UUID.fromString(row[0].toString());
+      String childIds = (String) row[1];
+      aggregates.put(
+          id,
+          new CustomerListAggregate(
+              childIds == null ? List.of() : List.of(childIds.split(",")),
+              ((Number) row[2]).intValue()));
+    }
+    return aggregates;
   }
 
   // ========== TEST DATA CLEANUP ==========
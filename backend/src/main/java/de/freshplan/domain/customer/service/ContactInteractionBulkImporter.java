@@ -0,0 +1,329 @@
+package de.freshplan.domain.customer.service;
+
+import de.freshplan.domain.customer.service.dto.ContactInteractionDTO;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * High-volume ingestion path for contact interactions (historical imports, mail/CRM syncs).
+ *
+ * <p>Instead of one {@code findById} and one entity persist per interaction:
+ *
+ * <ol>
+ *   <li>All referenced contact IDs are validated in one {@code id = ANY(?)} query
+ *   <li>Valid interactions are inserted with JDBC batches of {@code
+ *       freshplan.interactions.import.batch-size} rows, no entities in the persistence context
+ *   <li>Interaction count, last interaction date and warmth score are recomputed for the touched
+ *       contacts only, from one grouped aggregate over their interactions
+ * </ol>
+ *
+ * <p>Runs on the caller's JTA transaction (the datasource connection is enlisted), so a failed
+ * import rolls back completely. Warmth uses the same formula as {@link
+ * ContactInteractionService#calculateWarmthScore(UUID)}; contacts without interactions in the last
+ * {@value ContactInteractionService#DAYS_FRESH} days keep their stored warmth, like the single
+ * calculation which only returns the neutral default in that case.
+ */
+@ApplicationScoped
+public class ContactInteractionBulkImporter {
+
+  private static final Logger LOG = Logger.getLogger(ContactInteractionBulkImporter.class);
+
+  private static final String EXISTING_CONTACTS_SQL =
+      "SELECT id FROM customer_contacts WHERE id = ANY(?)";
+
+  private static final String INSERT_SQL =
+      """
+      INSERT INTO contact_interactions (
+        id, contact_id, type, timestamp, sentiment_score, engagement_score,
+        response_time_minutes, word_count, initiated_by, subject, summary, full_content,
+        channel, channel_details, outcome, next_action, next_action_date,
+        external_ref_id, external_ref_type, created_at, created_by)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private static final String CONTACT_STATS_SQL =
+      """
+      SELECT contact_id,
+             count(*),
+             max(timestamp),
+             count(*) FILTER (WHERE timestamp >= ?),
+             min(timestamp) FILTER (WHERE timestamp >= ?),
+             max(timestamp) FILTER (WHERE timestamp >= ?),
+             avg(sentiment_score) FILTER (WHERE timestamp >= ?),
+             avg(engagement_score) FILTER (WHERE timestamp >= ?),
+             count(*) FILTER (WHERE initiated_by = 'CUSTOMER'),
+             count(*) FILTER (WHERE initiated_by = 'SALES' AND response_time_minutes IS NOT NULL)
+      FROM contact_interactions
+      WHERE contact_id = ANY(?)
+      GROUP BY contact_id
+      """;
+
+  private static final String UPDATE_CONTACT_SQL =
+      """
+      UPDATE customer_contacts
+      SET interaction_count = ?,
+          last_interaction_date = ?,
+          warmth_score = COALESCE(?, warmth_score),
+          warmth_confidence = COALESCE(?, warmth_confidence),
+          updated_at = ?
+      WHERE id = ?
+      """;
+
+  @Inject DataSource dataSource;
+
+  @ConfigProperty(name = "freshplan.interactions.import.batch-size", defaultValue = "500")
+  int batchSize;
+
+  /**
+   * Result of an import.
+   *
+   * @param touchedContacts contacts whose metrics were recomputed
+   */
+  public record ImportResult(
+      int imported, int failed, List<String> errors, Set<UUID> touchedContacts) {}
+
+  /**
+   * Aggregated interactions of one contact.
+   *
+   * @param recent interactions within the warmth window
+   * @param customerInitiated all-time interactions initiated by the customer
+   * @param salesResponses all-time sales interactions with a response time
+   */
+  record ContactStats(
+      UUID contactId,
+      long total,
+      LocalDateTime lastInteraction,
+      long recent,
+      LocalDateTime recentFirst,
+      LocalDateTime recentLast,
+      Double avgSentiment,
+      Double avgEngagement,
+      long customerInitiated,
+      long salesResponses) {}
+
+  /**
+   * New metric values of one contact.
+   *
+   * @param warmthScore null = keep stored value (no recent interactions)
+   * @param warmthConfidence null = keep stored value
+   */
+  record ContactMetrics(
+      UUID contactId,
+      int interactionCount,
+      LocalDateTime lastInteraction,
+      Integer warmthScore,
+      Integer warmthConfidence) {}
+
+  /** Imports the interactions; invalid rows are reported, valid rows are all inserted. */
+  public ImportResult importInteractions(List<ContactInteractionDTO> dtos) {
+    List<String> errors = new ArrayList<>();
+    Set<UUID> referenced = new HashSet<>();
+    for (ContactInteractionDTO dto : dtos) {
+      if (dto.getContactId() != null) {
+        referenced.add(dto.getContactId());
+      }
+    }
+
+    try {
+      Set<UUID> existing = referenced.isEmpty() ? Set.of() : findExistingContacts(referenced);
+
+      List<ContactInteractionDTO> valid = new ArrayList<>(dtos.size());
+      for (ContactInteractionDTO dto : dtos) {
+        String problem = validate(dto, existing);
+        if (problem != null) {
+          errors.add(problem);
+        } else {
+          valid.add(dto);
+        }
+      }
+
+      Set<UUID> touched = new LinkedHashSet<>();
+      for (int from = 0; from < valid.size(); from += batchSize) {
+        List<ContactInteractionDTO> batch =
+            valid.subList(from, Math.min(valid.size(), from + batchSize));
+        insertBatch(batch);
+        batch.forEach(dto -> touched.add(dto.getContactId()));
+      }
+
+      if (!touched.isEmpty()) {
+        LocalDateTime recentSince =
+            LocalDateTime.now().minusDays(ContactInteractionService.DAYS_FRESH);
+        List<ContactMetrics> metrics =
+            loadContactStats(touched, recentSince).stream()
+                .map(ContactInteractionBulkImporter::toMetrics)
+                .toList();
+        writeContactMetrics(metrics);
+      }
+
+      LOG.infof(
+          "Bulk imported %d interactions for %d contacts (%d rejected)",
+          valid.size(), touched.size(), errors.size());
+      return new ImportResult(valid.size(), errors.size(), errors, touched);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Batch import failed: " + e.getMessage(), e);
+    }
+  }
+
+  private static String validate(ContactInteractionDTO dto, Set<UUID> existingContacts) {
+    if (dto.getContactId() == null || !existingContacts.contains(dto.getContactId())) {
+      return "Contact not found: " + dto.getContactId();
+    }
+    if (dto.getType() == null || dto.getTimestamp() == null) {
+      return "Failed to process interaction: type and timestamp are required (contact "
+          + dto.getContactId()
+          + ")";
+    }
+    return null;
+  }
+
+  /** Warmth from the aggregates, same weights as the single-contact calculation. */
+  static ContactMetrics toMetrics(ContactStats stats) {
+    Integer warmth = null;
+    Integer confidence = null;
+    if (stats.recent() > 0) {
+      double responseScore =
+          stats.customerInitiated() == 0
+              ? 100.0
+              : (double) stats.salesResponses() / stats.customerInitiated() * 100;
+      double score =
+          ContactInteractionService.weightedWarmth(
+              ContactInteractionService.frequencyScore(
+                  stats.recent(), stats.recentFirst(), stats.recentLast()),
+              ContactInteractionService.sentimentScore(stats.avgSentiment()),
+              ContactInteractionService.engagementScore(stats.avgEngagement()),
+              responseScore);
+      warmth = (int) Math.round(score);
+      confidence = ContactInteractionService.warmthConfidence((int) stats.recent());
+    }
+    return new ContactMetrics(
+        stats.contactId(), (int) stats.total(), stats.lastInteraction(), warmth, confidence);
+  }
+
+  Set<UUID> findExistingContacts(Set<UUID> contactIds) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(EXISTING_CONTACTS_SQL)) {
+      Array ids = connection.createArrayOf("uuid", contactIds.toArray());
+      statement.setArray(1, ids);
+      Set<UUID> existing = new HashSet<>();
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          existing.add(rs.getObject(1, UUID.class));
+        }
+      }
+      return existing;
+    }
+  }
+
+  void insertBatch(List<ContactInteractionDTO> batch) throws SQLException {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      for (ContactInteractionDTO dto : batch) {
+        Integer wordCount = dto.getWordCount();
+        if (wordCount == null && dto.getFullContent() != null) {
+          wordCount = countWords(dto.getFullContent());
+        }
+        int i = 1;
+        statement.setObject(i++, dto.getId() != null ? dto.getId() : UUID.randomUUID());
+        statement.setObject(i++, dto.getContactId());
+        statement.setString(i++, dto.getType().name());
+        statement.setTimestamp(i++, Timestamp.valueOf(dto.getTimestamp()));
+        statement.setObject(i++, dto.getSentimentScore(), Types.DOUBLE);
+        statement.setObject(i++, dto.getEngagementScore(), Types.INTEGER);
+        statement.setObject(i++, dto.getResponseTimeMinutes(), Types.INTEGER);
+        statement.setObject(i++, wordCount, Types.INTEGER);
+        statement.setString(i++, dto.getInitiatedBy());
+        statement.setString(i++, dto.getSubject());
+        statement.setString(i++, dto.getSummary());
+        statement.setString(i++, dto.getFullContent());
+        statement.setString(i++, dto.getChannel());
+        statement.setString(i++, dto.getChannelDetails());
+        statement.setString(i++, dto.getOutcome());
+        statement.setString(i++, dto.getNextAction());
+        statement.setTimestamp(
+            i++,
+            dto.getNextActionDate() != null ? Timestamp.valueOf(dto.getNextActionDate()) : null);
+        statement.setString(i++, dto.getExternalRefId());
+        statement.setString(i++, dto.getExternalRefType());
+        statement.setTimestamp(i++, now);
+        statement.setString(i, dto.getCreatedBy());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  List<ContactStats> loadContactStats(Set<UUID> contactIds, LocalDateTime recentSince)
+      throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(CONTACT_STATS_SQL)) {
+      Timestamp since = Timestamp.valueOf(recentSince);
+      for (int i = 1; i <= 5; i++) {
+        statement.setTimestamp(i, since);
+      }
+      statement.setArray(6, connection.createArrayOf("uuid", contactIds.toArray()));
+
+      List<ContactStats> stats = new ArrayList<>(contactIds.size());
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          stats.add(
+              new ContactStats(
+                  rs.getObject(1, UUID.class),
+                  rs.getLong(2),
+                  toLocalDateTime(rs.getTimestamp(3)),
+                  rs.getLong(4),
+                  toLocalDateTime(rs.getTimestamp(5)),
+                  toLocalDateTime(rs.getTimestamp(6)),
+                  rs.getObject(7) != null ? rs.getDouble(7) : null,
+                  rs.getObject(8) != null ? rs.getDouble(8) : null,
+                  rs.getLong(9),
+                  rs.getLong(10)));
+        }
+      }
+      return stats;
+    }
+  }
+
+  void writeContactMetrics(List<ContactMetrics> metrics) throws SQLException {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(UPDATE_CONTACT_SQL)) {
+      for (ContactMetrics m : metrics) {
+        statement.setInt(1, m.interactionCount());
+        statement.setTimestamp(2, Timestamp.valueOf(m.lastInteraction()));
+        statement.setObject(3, m.warmthScore(), Types.INTEGER);
+        statement.setObject(4, m.warmthConfidence(), Types.INTEGER);
+        statement.setTimestamp(5, now);
+        statement.setObject(6, m.contactId());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+    return timestamp != null ? timestamp.toLocalDateTime() : null;
+  }
+
+  private static int countWords(String text) {
+    if (text.isBlank()) return 0;
+    return text.trim().split("\\s+").length;
+  }
+}
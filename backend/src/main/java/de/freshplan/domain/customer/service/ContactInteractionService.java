@@ -17,9 +17,7 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -54,7 +52,7 @@ public class ContactInteractionService {
 
   // Time-based constants (in days)
   private static final int DAYS_RECENT = 30;
-  private static final int DAYS_FRESH = 90;
+  static final int DAYS_FRESH = 90;
   private static final int DAYS_AGING = 180;
   private static final int DAYS_STALE = 365;
 
@@ -73,6 +71,8 @@ public class ContactInteractionService {
 
   @Inject ContactInteractionMapper mapper;
 
+  @Inject ContactInteractionBulkImporter bulkImporter;
+
   /** Create a new interaction and update contact metrics */
   public ContactInteractionDTO createInteraction(ContactInteractionDTO dto) {
     if (cqrsEnabled) {
@@ -166,14 +166,11 @@ public class ContactInteractionService {
 
     // Weighted average
     double warmthScore =
-        (frequencyScore * WARMTH_WEIGHT_FREQUENCY)
-            + (sentimentScore * WARMTH_WEIGHT_SENTIMENT)
-            + (engagementScore * WARMTH_WEIGHT_ENGAGEMENT)
-            + (responseScore * WARMTH_WEIGHT_RESPONSE);
+        weightedWarmth(frequencyScore, sentimentScore, engagementScore, responseScore);
 
     // Calculate confidence based on data points
     int dataPoints = recentInteractions.size();
-    int confidence = Math.min(100, dataPoints * 10); // 10 interactions = 100% confidence
+    int confidence = warmthConfidence(dataPoints);
 
     // Update contact with calculated values
     contact.setWarmthScore((int) Math.round(warmthScore));
@@ -201,26 +198,25 @@ public class ContactInteractionService {
       return queryService.getDataQualityMetrics();
     }
 
-    // Legacy implementation
-    long totalContacts = contactRepository.count();
-    long contactsWithInteractions =
-        contactRepository.count("id in (select distinct i.contact.id from ContactInteraction i)");
-
-    double averageInteractions = 0;
-    if (contactsWithInteractions > 0) {
-      long totalInteractions = interactionRepository.count();
-      averageInteractions = (double) totalInteractions / contactsWithInteractions;
-    }
-
-    long contactsWithWarmthScore = contactRepository.count("warmthScore is not null");
-
-    // Calculate data freshness categories based on updatedAt (when contact data was last modified)
-    long freshContacts = countFreshContacts();
-    long agingContacts = countAgingContacts();
-    long staleContacts = countStaleContacts();
-    long criticalContacts = countCriticalContacts();
-
-    double dataCompletenessScore = calculateDataCompleteness();
+    // Legacy implementation: all counts in one FILTER query
+    LocalDateTime now = LocalDateTime.now();
+    ContactRepository.DataQualityCounts counts =
+        contactRepository.countDataQuality(
+            now.minusDays(DAYS_FRESH), now.minusDays(DAYS_AGING), now.minusDays(DAYS_STALE));
+
+    long totalContacts = counts.totalContacts();
+    long contactsWithInteractions = counts.contactsWithInteractions();
+    double averageInteractions =
+        contactsWithInteractions > 0
+            ? (double) counts.totalInteractions() / contactsWithInteractions
+            : 0;
+    long contactsWithWarmthScore = counts.contactsWithWarmthScore();
+    long freshContacts = counts.freshContacts();
+    long agingContacts = counts.agingContacts();
+    long staleContacts = counts.staleContacts();
+    long criticalContacts = counts.criticalContacts();
+    double dataCompletenessScore =
+        totalContacts > 0 ? (counts.completeContacts() * 100.0) / totalContacts : 0;
 
     return DataQualityMetricsDTO.builder()
         .totalContacts(totalContacts)
@@ -279,13 +275,7 @@ public class ContactInteractionService {
     // Calculate days between first and last interaction
     LocalDateTime first = interactions.get(interactions.size() - 1).getTimestamp();
     LocalDateTime last = interactions.get(0).getTimestamp();
-    long daysBetween = ChronoUnit.DAYS.between(first, last) + 1;
-
-    // Interactions per week
-    double interactionsPerWeek = (interactions.size() * (double) DAYS_PER_WEEK) / daysBetween;
-
-    // Score based on frequency (1+ per week = 100, 0 = 0)
-    return Math.min(MAX_FREQUENCY_SCORE, interactionsPerWeek * MAX_FREQUENCY_SCORE);
+    return frequencyScore(interactions.size(), first, last);
   }
 
   private double calculateSentimentScore(List<ContactInteraction> interactions) {
@@ -297,11 +287,8 @@ public class ContactInteractionService {
 
     if (sentiments.isEmpty()) return DEFAULT_SENTIMENT_SCORE; // Neutral if no sentiment data
 
-    double avgSentiment =
-        sentiments.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-
-    // Convert from -1 to 1 range to 0 to 100
-    return (avgSentiment + 1) * DEFAULT_SENTIMENT_SCORE;
+    return sentimentScore(
+        sentiments.stream().mapToDouble(Double::doubleValue).average().orElse(0.0));
   }
 
   private double calculateEngagementScore(List<ContactInteraction> interactions) {
@@ -324,46 +311,43 @@ public class ContactInteractionService {
     return responseRate != null ? responseRate : DEFAULT_RESPONSE_SCORE;
   }
 
-  private long countFreshContacts() {
-    LocalDateTime ninetyDaysAgo = LocalDateTime.now().minusDays(DAYS_FRESH);
-    return contactRepository.count("updatedAt >= ?1", ninetyDaysAgo);
-  }
+  // Warmth formula on aggregated values, shared with ContactInteractionBulkImporter
 
-  private long countAgingContacts() {
-    LocalDateTime ninetyDaysAgo = LocalDateTime.now().minusDays(DAYS_FRESH);
-    LocalDateTime oneEightyDaysAgo = LocalDateTime.now().minusDays(DAYS_AGING);
-    return contactRepository.count(
-        "updatedAt < ?1 and updatedAt >= ?2", ninetyDaysAgo, oneEightyDaysAgo);
+  /** Score from interactions per week between first and last interaction (1+ per week = 100). */
+  static double frequencyScore(long interactions, LocalDateTime first, LocalDateTime last) {
+    if (interactions == 0) return 0;
+    long daysBetween = ChronoUnit.DAYS.between(first, last) + 1;
+    double interactionsPerWeek = (interactions * (double) DAYS_PER_WEEK) / daysBetween;
+    return Math.min(MAX_FREQUENCY_SCORE, interactionsPerWeek * MAX_FREQUENCY_SCORE);
   }
 
-  private long countStaleContacts() {
-    LocalDateTime oneEightyDaysAgo = LocalDateTime.now().minusDays(DAYS_AGING);
-    LocalDateTime oneYearAgo = LocalDateTime.now().minusDays(DAYS_STALE);
-    return contactRepository.count(
-        "updatedAt < ?1 and updatedAt >= ?2", oneEightyDaysAgo, oneYearAgo);
+  /** Converts an average sentiment from the -1..1 range to 0..100 (null = neutral). */
+  static double sentimentScore(Double avgSentiment) {
+    return avgSentiment != null
+        ? (avgSentiment + 1) * DEFAULT_SENTIMENT_SCORE
+        : DEFAULT_SENTIMENT_SCORE;
   }
 
-  private long countCriticalContacts() {
-    LocalDateTime oneYearAgo = LocalDateTime.now().minusDays(DAYS_STALE);
-    return contactRepository.count("updatedAt < ?1", oneYearAgo);
+  static double engagementScore(Double avgEngagement) {
+    return avgEngagement != null ? avgEngagement : DEFAULT_ENGAGEMENT_SCORE;
   }
 
-  private double calculateDataCompleteness() {
-    // Simple completeness calculation - can be enhanced
-    long totalContacts = contactRepository.count();
-    if (totalContacts == 0) return 0;
-
-    long completeContacts =
-        contactRepository.count(
-            "email is not null and (phone is not null or mobile is not null) "
-                + "and position is not null");
+  static double weightedWarmth(
+      double frequencyScore, double sentimentScore, double engagementScore, double responseScore) {
+    return (frequencyScore * WARMTH_WEIGHT_FREQUENCY)
+        + (sentimentScore * WARMTH_WEIGHT_SENTIMENT)
+        + (engagementScore * WARMTH_WEIGHT_ENGAGEMENT)
+        + (responseScore * WARMTH_WEIGHT_RESPONSE);
+  }
 
-    return (completeContacts * 100.0) / totalContacts;
+  /** 10 interactions = 100% confidence. */
+  static int warmthConfidence(int dataPoints) {
+    return Math.min(100, dataPoints * 10);
   }
 
   /**
    * Batch import interactions for better performance. Processes all interactions in a single
-   * transaction.
+   * transaction, see {@link ContactInteractionBulkImporter}.
    *
    * @param dtos List of interaction DTOs to import
    * @return Import result with success/failure counts
@@ -378,72 +362,11 @@ public class ContactInteractionService {
       return new BatchImportResult(result.imported, result.failed, result.errors);
     }
 
-    // Legacy implementation
+    // Legacy implementation: set-based validation, JDBC batches, metrics for touched contacts
     LOG.infof("Starting batch import of %d interactions", dtos.size());
 
-    int imported = 0;
-    int failed = 0;
-    List<String> errors = new ArrayList<>();
-
-    // Validate and prepare all entities first
-    List<ContactInteraction> toImport = new ArrayList<>();
-
-    for (ContactInteractionDTO dto : dtos) {
-      try {
-        CustomerContact contact = contactRepository.findById(dto.getContactId());
-        if (contact == null) {
-          failed++;
-          errors.add("Contact not found: " + dto.getContactId());
-          continue;
-        }
-
-        ContactInteraction interaction = mapper.toEntity(dto);
-        interaction.setContact(contact);
-        toImport.add(interaction);
-
-      } catch (Exception e) {
-        failed++;
-        errors.add("Failed to process interaction: " + e.getMessage());
-        LOG.warn("Failed to process interaction during batch import", e);
-      }
-    }
-
-    // Batch persist all valid interactions
-    if (!toImport.isEmpty()) {
-      try {
-        interactionRepository.persist(toImport);
-        imported = toImport.size();
-
-        // Update contact last interaction dates in batch
-        updateContactsLastInteraction(toImport);
-
-        LOG.infof("Successfully imported %d interactions", imported);
-      } catch (Exception e) {
-        LOG.error("Failed to persist batch interactions", e);
-        throw new RuntimeException("Batch import failed: " + e.getMessage(), e);
-      }
-    }
-
-    return new BatchImportResult(imported, failed, errors);
-  }
-
-  /** Update last interaction dates for multiple contacts efficiently */
-  private void updateContactsLastInteraction(List<ContactInteraction> interactions) {
-    // Group by contact to find latest interaction per contact
-    Map<UUID, LocalDateTime> latestInteractions =
-        interactions.stream()
-            .collect(
-                Collectors.toMap(
-                    i -> i.getContact().getId(),
-                    ContactInteraction::getTimestamp,
-                    (existing, replacement) ->
-                        existing.isAfter(replacement) ? existing : replacement));
-
-    // Batch update using custom query
-    latestInteractions.forEach(
-        (contactId, timestamp) -> {
-          contactRepository.update("lastInteractionAt = ?1 where id = ?2", timestamp, contactId);
-        });
+    ContactInteractionBulkImporter.ImportResult result = bulkImporter.importInteractions(dtos);
+    return new BatchImportResult(result.imported(), result.failed(), result.errors());
   }
 
   /** Result of batch import operation */
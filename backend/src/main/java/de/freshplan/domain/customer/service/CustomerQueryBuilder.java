@@ -38,6 +38,17 @@ public class CustomerQueryBuilder {
    * @return a configured PanacheQuery
    */
   public PanacheQuery<Customer> buildQuery(CustomerSearchRequest request) {
+    return toQuery(buildSpec(request));
+  }
+
+  /**
+   * Builds the HQL condition, parameters and sort for the given search request without creating a
+   * query. Used by the query-shape telemetry to render the same statement for {@code EXPLAIN}.
+   *
+   * @param request the search request containing filters and sorting
+   * @return the query specification
+   */
+  public QuerySpec buildSpec(CustomerSearchRequest request) {
     Map<String, Object> params = new HashMap<>();
     List<String> conditions = new ArrayList<>();
 
@@ -56,24 +67,37 @@ public class CustomerQueryBuilder {
 
     LOG.debugf("Built query: %s with params: %s", queryString, params);
 
-    // Create query with sorting
-    PanacheQuery<Customer> query = Customer.find(queryString, params);
-
     // Apply sorting - Multi-Sort takes precedence over single sort
+    Sort sort = null;
     if (request.getMultiSort() != null && !request.getMultiSort().isEmpty()) {
-      Sort multiSort = buildMultiSort(request.getMultiSort());
-      query = Customer.find(queryString, multiSort, params);
+      sort = buildMultiSort(request.getMultiSort());
     } else if (request.getSort() != null) {
-      Sort sort =
+      sort =
           request.getSort().isAscending()
               ? Sort.by(request.getSort().getField()).ascending()
               : Sort.by(request.getSort().getField()).descending();
-      query = Customer.find(queryString, sort, params);
     }
 
-    return query;
+    return new QuerySpec(queryString, params, sort);
+  }
+
+  /** Creates the Panache query for a previously built specification. */
+  public PanacheQuery<Customer> toQuery(QuerySpec spec) {
+    return spec.sort() == null
+        ? Customer.find(spec.where(), spec.params())
+        : Customer.find(spec.where(), spec.sort(), spec.params());
   }
 
+  /**
+   * Generated query: HQL condition on {@link Customer} attributes, named parameters and optional
+   * sort.
+   *
+   * @param where HQL condition ({@code 1=1} without filters)
+   * @param params Named parameter values, already converted (enums, dates)
+   * @param sort Sort or {@code null}
+   */
+  public record QuerySpec(String where, Map<String, Object> params, Sort sort) {}
+
   /**
    * Builds a multi-sort Sort object from a list of sort criteria. Supports complex sorting
    * strategies for sales-oriented customer prioritization.
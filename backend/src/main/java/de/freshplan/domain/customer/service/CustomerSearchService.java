@@ -4,13 +4,13 @@ import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.service.dto.CustomerResponse;
 import de.freshplan.domain.customer.service.dto.CustomerSearchRequest;
 import de.freshplan.domain.customer.service.mapper.CustomerMapper;
+import de.freshplan.domain.customer.service.telemetry.QueryShapeTelemetry;
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.jboss.logging.Logger;
 
 /** Service for searching customers with dynamic filters. */
@@ -24,6 +24,8 @@ public class CustomerSearchService {
 
   @Inject CustomerMapper customerMapper;
 
+  @Inject QueryShapeTelemetry queryShapeTelemetry;
+
   /**
    * Searches for customers based on the given search request.
    *
@@ -38,7 +40,9 @@ public class CustomerSearchService {
         request.getGlobalSearch(), request.getFilters() != null ? request.getFilters().size() : 0);
 
     // Build and execute query
-    PanacheQuery<Customer> query = queryBuilder.buildQuery(request);
+    CustomerQueryBuilder.QuerySpec spec = queryBuilder.buildSpec(request);
+    PanacheQuery<Customer> query = queryBuilder.toQuery(spec);
+    long start = System.nanoTime();
 
     // Get total count before pagination
     long totalElements = query.count();
@@ -46,9 +50,11 @@ public class CustomerSearchService {
     // Apply pagination
     List<Customer> customers = query.page(Page.of(page, size)).list();
 
-    // Map to DTOs
-    List<CustomerResponse> responses =
-        customers.stream().map(customerMapper::toResponse).collect(Collectors.toList());
+    // Latency/rows per query shape (filter fields + sort columns), EXPLAIN for slow shapes
+    queryShapeTelemetry.record(request, spec, System.nanoTime() - start, totalElements, page, size);
+
+    // Map to DTOs (child IDs + contact counts batch-loaded for the page)
+    List<CustomerResponse> responses = customerMapper.toResponseList(customers);
 
     // Calculate page info
     int totalPages = (int) Math.ceil((double) totalElements / size);
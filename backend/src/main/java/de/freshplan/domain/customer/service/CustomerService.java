@@ -24,7 +24,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -338,8 +337,7 @@ public class CustomerService implements CustomerActivation {
     List<Customer> customers = customerRepository.findByStatus(status, pageRequest);
     long totalElements = customerRepository.countByStatus(status);
 
-    List<CustomerResponse> customerResponses =
-        customers.stream().map(this::mapToResponse).collect(Collectors.toList());
+    List<CustomerResponse> customerResponses = customerMapper.toResponseList(customers);
 
     log.debug("Found {} customers with status {}", totalElements, status);
 
@@ -410,8 +408,7 @@ public class CustomerService implements CustomerActivation {
     List<Customer> customers = customerRepository.findAtRisk(minRiskScore, pageRequest);
     long totalElements = customerRepository.countAtRisk(minRiskScore);
 
-    List<CustomerResponse> customerResponses =
-        customers.stream().map(this::mapToResponse).collect(Collectors.toList());
+    List<CustomerResponse> customerResponses = customerMapper.toResponseList(customers);
 
     return CustomerListResponse.of(customerResponses, page, size, totalElements);
   }
@@ -422,8 +419,7 @@ public class CustomerService implements CustomerActivation {
     List<Customer> customers = customerRepository.findOverdueFollowUps(pageRequest);
     long totalElements = customerRepository.countOverdueFollowUps();
 
-    List<CustomerResponse> customerResponses =
-        customers.stream().map(this::mapToResponse).collect(Collectors.toList());
+    List<CustomerResponse> customerResponses = customerMapper.toResponseList(customers);
 
     return CustomerListResponse.of(customerResponses, page, size, totalElements);
   }
@@ -467,7 +463,7 @@ public class CustomerService implements CustomerActivation {
   public List<CustomerResponse> checkDuplicates(String companyName) {
     List<Customer> duplicates = customerRepository.findPotentialDuplicates(companyName);
 
-    return duplicates.stream().map(this::mapToResponse).collect(Collectors.toList());
+    return customerMapper.toResponseList(duplicates);
   }
 
   /** Merges two customers (keeps the target, deletes the source). */
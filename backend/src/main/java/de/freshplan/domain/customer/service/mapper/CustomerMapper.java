@@ -1,11 +1,14 @@
 package de.freshplan.domain.customer.service.mapper;
 
 import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.repository.CustomerListAggregate;
 import de.freshplan.domain.customer.repository.CustomerRepository;
 import de.freshplan.domain.customer.service.dto.*;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -41,13 +44,19 @@ public class CustomerMapper {
     if (customer == null) {
       return null;
     }
+    return toResponse(customer, CustomerListAggregate.fromEntity(customer));
+  }
 
-    // Map child customer IDs
-    List<String> childIds =
-        customer.getChildCustomers().stream()
-            .map(child -> child.getId().toString())
-            .collect(Collectors.toList());
-
+  /**
+   * Maps a Customer entity using pre-loaded child IDs and contact count, so the lazy {@code
+   * childCustomers} and {@code contacts} collections are not touched.
+   *
+   * @param customer The customer entity
+   * @param aggregate Child IDs and active contact count (see {@link
+   *     CustomerRepository#findListAggregates})
+   * @return The customer response DTO
+   */
+  public CustomerResponse toResponse(Customer customer, CustomerListAggregate aggregate) {
     return new CustomerResponse(
         customer.getId().toString(),
         customer.getCustomerNumber(),
@@ -62,8 +71,8 @@ public class CustomerMapper {
             ? customer.getParentCustomer().getId().toString()
             : null,
         customer.getHierarchyType(),
-        childIds,
-        customer.hasChildren(),
+        aggregate.childCustomerIds(),
+        aggregate.hasChildren(),
         customer.getStatus(),
         customer.getLifecycleStage(),
         customer.getPartnerStatus(),
@@ -96,7 +105,7 @@ public class CustomerMapper {
         customer.getSeasonalPattern(),
 
         // Contact Information
-        customer.getActiveContactsCount(),
+        aggregate.activeContactsCount(),
         customer.getCreatedAt(),
         customer.getCreatedBy(),
         customer.getUpdatedAt(),
@@ -117,7 +126,17 @@ public class CustomerMapper {
     if (customer == null) {
       return null;
     }
+    return toMinimalResponse(customer, customer.getActiveContactsCount());
+  }
 
+  /**
+   * Maps a Customer entity to a minimal CustomerResponse with a pre-loaded active contact count.
+   *
+   * @param customer The customer entity
+   * @param activeContactsCount Number of active contacts
+   * @return The minimal customer response DTO
+   */
+  public CustomerResponse toMinimalResponse(Customer customer, int activeContactsCount) {
     // Extended minimal response to include fields needed for filtering
     return new CustomerResponse(
         customer.getId().toString(),
@@ -159,7 +178,7 @@ public class CustomerMapper {
         null, // seasonalPattern
 
         // Contact Information - NEEDED FOR FILTERS
-        customer.getActiveContactsCount(),
+        activeContactsCount,
         customer.getCreatedAt(),
         null, // createdBy
         null, // updatedAt
@@ -170,7 +189,8 @@ public class CustomerMapper {
   }
 
   /**
-   * Maps a list of Customer entities to CustomerResponse DTOs.
+   * Maps a list of Customer entities to CustomerResponse DTOs. Child IDs and contact counts are
+   * loaded for the whole list in one query instead of per customer.
    *
    * @param customers The customer entities
    * @return The customer response DTOs
@@ -180,7 +200,10 @@ public class CustomerMapper {
       return List.of();
     }
 
-    return customers.stream().map(this::toResponse).collect(Collectors.toList());
+    Map<UUID, CustomerListAggregate> aggregates = loadAggregates(customers);
+    return customers.stream()
+        .map(customer -> toResponse(customer, aggregateOf(customer, aggregates)))
+        .collect(Collectors.toList());
   }
 
   /**
@@ -195,7 +218,26 @@ public class CustomerMapper {
       return List.of();
     }
 
-    return customers.stream().map(this::toMinimalResponse).collect(Collectors.toList());
+    Map<UUID, CustomerListAggregate> aggregates = loadAggregates(customers);
+    return customers.stream()
+        .map(
+            customer ->
+                toMinimalResponse(
+                    customer, aggregateOf(customer, aggregates).activeContactsCount()))
+        .collect(Collectors.toList());
+  }
+
+  private Map<UUID, CustomerListAggregate> loadAggregates(List<Customer> customers) {
+    List<UUID> ids = customers.stream().map(Customer::getId).filter(Objects::nonNull).toList();
+    Map<UUID, CustomerListAggregate> aggregates = customerRepository.findListAggregates(ids);
+    return aggregates != null ? aggregates : Map.of();
+  }
+
+  /** Falls back to the entity collections for customers not (yet) in the database. */
+  private static CustomerListAggregate aggregateOf(
+      Customer customer, Map<UUID, CustomerListAggregate> aggregates) {
+    CustomerListAggregate aggregate = aggregates.get(customer.getId());
+    return aggregate != null ? aggregate : CustomerListAggregate.fromEntity(customer);
   }
 
   // ========== DTO TO ENTITY MAPPING ==========
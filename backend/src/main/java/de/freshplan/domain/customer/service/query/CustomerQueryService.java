@@ -15,7 +15,6 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -103,8 +102,7 @@ public class CustomerQueryService {
     List<Customer> customers = customerRepository.findByStatus(status, pageRequest);
     long totalElements = customerRepository.countByStatus(status);
 
-    List<CustomerResponse> customerResponses =
-        customers.stream().map(this::mapToResponse).collect(Collectors.toList());
+    List<CustomerResponse> customerResponses = customerMapper.toResponseList(customers);
 
     log.debug("Found {} customers with status {}", totalElements, status);
 
@@ -130,8 +128,7 @@ public class CustomerQueryService {
     List<Customer> customers = customerRepository.findAtRisk(minRiskScore, pageRequest);
     long totalElements = customerRepository.countAtRisk(minRiskScore);
 
-    List<CustomerResponse> customerResponses =
-        customers.stream().map(this::mapToResponse).collect(Collectors.toList());
+    List<CustomerResponse> customerResponses = customerMapper.toResponseList(customers);
 
     return CustomerListResponse.of(customerResponses, page, size, totalElements);
   }
@@ -145,8 +142,7 @@ public class CustomerQueryService {
     List<Customer> customers = customerRepository.findOverdueFollowUps(pageRequest);
     long totalElements = customerRepository.countOverdueFollowUps();
 
-    List<CustomerResponse> customerResponses =
-        customers.stream().map(this::mapToResponse).collect(Collectors.toList());
+    List<CustomerResponse> customerResponses = customerMapper.toResponseList(customers);
 
     return CustomerListResponse.of(customerResponses, page, size, totalElements);
   }
@@ -157,7 +153,7 @@ public class CustomerQueryService {
   public List<CustomerResponse> checkDuplicates(String companyName) {
     List<Customer> duplicates = customerRepository.findPotentialDuplicates(companyName);
 
-    return duplicates.stream().map(this::mapToResponse).collect(Collectors.toList());
+    return customerMapper.toResponseList(duplicates);
   }
 
   /** Gets dashboard statistics. EXACT COPY from CustomerService.getDashboardData() - line 580 */
@@ -0,0 +1,93 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import de.freshplan.domain.customer.entity.Customer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.AttributeMapping;
+import org.hibernate.metamodel.mapping.EntityMappingType;
+import org.hibernate.metamodel.mapping.SelectableMapping;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+/**
+ * Attribute-to-column mapping of {@link Customer} taken from the Hibernate metamodel, plus the
+ * existing indexes of its table. Lets telemetry and index advice speak SQL without hard-coding
+ * column names.
+ */
+@ApplicationScoped
+public class CustomerColumnCatalog {
+
+  @Inject EntityManager em;
+
+  private final Map<String, Optional<String>> columns = new ConcurrentHashMap<>();
+
+  private final Map<String, Boolean> lowCardinality = new ConcurrentHashMap<>();
+
+  /** Table name of {@link Customer}. */
+  public String table() {
+    EntityMappingType entity = entityMapping();
+    return entity.getEntityPersister() instanceof AbstractEntityPersister persister
+        ? persister.getTableName()
+        : "customers";
+  }
+
+  /**
+   * Column of a basic attribute.
+   *
+   * @param attribute Attribute name as used in HQL
+   * @return Column name, empty for unknown or non-basic attributes
+   */
+  public Optional<String> column(String attribute) {
+    return columns.computeIfAbsent(attribute, this::resolveColumn);
+  }
+
+  /**
+   * Whether the attribute only has a handful of values (enum, boolean) - candidates for partial
+   * index predicates instead of index keys.
+   */
+  public boolean isLowCardinality(String attribute) {
+    return lowCardinality.computeIfAbsent(
+        attribute,
+        name -> {
+          try {
+            Attribute<? super Customer, ?> attr =
+                em.getMetamodel().entity(Customer.class).getAttribute(name);
+            Class<?> type = attr.getJavaType();
+            return type.isEnum() || type == Boolean.class || type == boolean.class;
+          } catch (IllegalArgumentException e) {
+            return false;
+          }
+        });
+  }
+
+  /** {@code indexdef} of all indexes on the customer table. */
+  @Transactional
+  @SuppressWarnings("unchecked")
+  public List<String> existingIndexDefinitions() {
+    return em.createNativeQuery("SELECT indexdef FROM pg_indexes WHERE tablename = :table")
+        .setParameter("table", table())
+        .getResultList();
+  }
+
+  private Optional<String> resolveColumn(String attribute) {
+    AttributeMapping mapping = entityMapping().findAttributeMapping(attribute);
+    if (mapping instanceof SelectableMapping selectable && !selectable.isFormula()) {
+      return Optional.of(selectable.getSelectionExpression());
+    }
+    return Optional.empty();
+  }
+
+  private EntityMappingType entityMapping() {
+    return em.getEntityManagerFactory()
+        .unwrap(SessionFactoryImplementor.class)
+        .getMappingMetamodel()
+        .getEntityDescriptor(Customer.class);
+  }
+}
@@ -0,0 +1,161 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import de.freshplan.domain.customer.service.CustomerQueryBuilder.QuerySpec;
+import io.quarkus.panache.common.Sort;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Renders a {@link QuerySpec} of {@code CustomerQueryBuilder} as native SQL with JDBC placeholders,
+ * so the page query can be run through {@code EXPLAIN}.
+ *
+ * <p>The builder only emits a narrow HQL subset (attribute comparisons, {@code LOWER(..) LIKE},
+ * {@code IN}, {@code IS [NOT] NULL}, {@code BETWEEN}, {@code AND}/{@code OR}), so attributes are
+ * mapped to columns token by token and named parameters become positional ones. Only the keywords
+ * of that subset, operators and mapped columns reach the SQL: the statement runs under {@code
+ * EXPLAIN ANALYZE}, so an identifier without a column (e.g. an unknown filter field from the
+ * request) or any other character rejects the whole query instead of being copied verbatim.
+ */
+final class CustomerQuerySqlRenderer {
+
+  /**
+   * Rendered statement.
+   *
+   * @param sql SQL with {@code ?} placeholders
+   * @param bindings Placeholder values in order
+   */
+  record RenderedSql(String sql, List<Object> bindings) {}
+
+  /** Keywords and functions of the HQL subset emitted by {@code CustomerQueryBuilder}. */
+  private static final Set<String> KEYWORDS =
+      Set.of("AND", "OR", "NOT", "IN", "IS", "NULL", "LIKE", "BETWEEN", "LOWER");
+
+  /** Non-identifier characters of that subset; digits are allowed for {@code 1=1}. */
+  private static final String OPERATOR_CHARS = "()=!<>,";
+
+  private CustomerQuerySqlRenderer() {}
+
+  /**
+   * @param spec Query specification
+   * @param table Table of the entity
+   * @param columns Attribute to column mapping, empty for anything that is not an attribute
+   * @param limit Page size
+   * @param offset Row offset
+   * @throws IllegalArgumentException if the condition or sort contains anything that cannot be
+   *     rendered safely (unmapped attribute, unbound parameter, unexpected character)
+   */
+  static RenderedSql render(
+      QuerySpec spec,
+      String table,
+      Function<String, Optional<String>> columns,
+      int limit,
+      long offset) {
+    List<Object> bindings = new ArrayList<>();
+    StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table).append(" WHERE ");
+    renderCondition(spec, columns, sql, bindings);
+
+    Sort sort = spec.sort();
+    if (sort != null && !sort.getColumns().isEmpty()) {
+      sql.append(" ORDER BY ");
+      List<Sort.Column> sortColumns = sort.getColumns();
+      for (int i = 0; i < sortColumns.size(); i++) {
+        Sort.Column column = sortColumns.get(i);
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(column(columns, column.getName()))
+            .append(column.getDirection() == Sort.Direction.Descending ? " DESC" : " ASC");
+        if (column.getNullPrecedence() != null) {
+          sql.append(
+              column.getNullPrecedence() == Sort.NullPrecedence.NULLS_FIRST
+                  ? " NULLS FIRST"
+                  : " NULLS LAST");
+        }
+      }
+    }
+    sql.append(" LIMIT ").append(limit).append(" OFFSET ").append(offset);
+    return new RenderedSql(sql.toString(), List.copyOf(bindings));
+  }
+
+  private static void renderCondition(
+      QuerySpec spec,
+      Function<String, Optional<String>> columns,
+      StringBuilder sql,
+      List<Object> bindings) {
+    String where = spec.where();
+    int i = 0;
+    while (i < where.length()) {
+      char c = where.charAt(i);
+      if (c == ':' && i + 1 < where.length() && isIdentifierStart(where.charAt(i + 1))) {
+        int end = identifierEnd(where, i + 1);
+        String name = where.substring(i + 1, end);
+        if (!spec.params().containsKey(name)) {
+          throw new IllegalArgumentException("Unbound parameter: " + name);
+        }
+        renderParameter(spec.params().get(name), sql, bindings);
+        i = end;
+      } else if (isIdentifierStart(c)) {
+        int end = identifierEnd(where, i);
+        String identifier = where.substring(i, end);
+        String keyword = identifier.toUpperCase(Locale.ROOT);
+        sql.append(KEYWORDS.contains(keyword) ? keyword : column(columns, identifier));
+        i = end;
+      } else if (Character.isWhitespace(c)
+          || Character.isDigit(c)
+          || OPERATOR_CHARS.indexOf(c) >= 0) {
+        sql.append(c);
+        i++;
+      } else {
+        throw new IllegalArgumentException("Unexpected character in condition: " + c);
+      }
+    }
+  }
+
+  private static String column(Function<String, Optional<String>> columns, String attribute) {
+    return columns
+        .apply(attribute)
+        .orElseThrow(() -> new IllegalArgumentException("Unmapped attribute: " + attribute));
+  }
+
+  private static void renderParameter(Object value, StringBuilder sql, List<Object> bindings) {
+    if (value instanceof Collection<?> values) {
+      if (values.isEmpty()) {
+        // "x IN ()" is invalid SQL, HQL renders an empty list as never matching
+        sql.append("(NULL)");
+        return;
+      }
+      sql.append('(');
+      int n = 0;
+      for (Object element : values) {
+        sql.append(n++ == 0 ? "?" : ", ?");
+        bindings.add(jdbcValue(element));
+      }
+      sql.append(')');
+    } else {
+      sql.append('?');
+      bindings.add(jdbcValue(value));
+    }
+  }
+
+  /** Enums are mapped as {@code EnumType.STRING} on {@code Customer}. */
+  private static Object jdbcValue(Object value) {
+    return value instanceof Enum<?> e ? e.name() : value;
+  }
+
+  private static boolean isIdentifierStart(char c) {
+    return Character.isLetter(c) || c == '_';
+  }
+
+  private static int identifierEnd(String s, int start) {
+    int end = start;
+    while (end < s.length() && (Character.isLetterOrDigit(s.charAt(end)) || s.charAt(end) == '_')) {
+      end++;
+    }
+    return end;
+  }
+}
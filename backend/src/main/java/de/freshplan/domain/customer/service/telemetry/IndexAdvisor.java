@@ -0,0 +1,344 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import de.freshplan.domain.customer.service.dto.FilterOperator;
+import de.freshplan.domain.customer.service.telemetry.QueryShape.Predicate;
+import de.freshplan.domain.customer.service.telemetry.QueryShape.SortKey;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Derives index suggestions from a query shape.
+ *
+ * <p>Composite B-tree keys follow the equality-sort-range rule: equality columns first, then the
+ * sort columns (so the index delivers the order and {@code LIMIT} can stop early), then one range
+ * column. A low-cardinality equality filter that almost always uses the same value, and {@code IS
+ * [NOT] NULL} filters, become the predicate of a partial index instead of key columns. {@code
+ * CONTAINS}/{@code ENDS_WITH} and the global search can only be served by a trigram GIN index,
+ * {@code STARTS_WITH} by a {@code text_pattern_ops} B-tree. OR-combined filters are advised per
+ * column (bitmap OR).
+ *
+ * <p>Suggestions already covered by an existing index (same leading key columns) are dropped. The
+ * advisor only proposes DDL; creating indexes stays a reviewed migration.
+ */
+public final class IndexAdvisor {
+
+  /** Minimum share of one value before an equality filter becomes a partial-index predicate. */
+  static final double PARTIAL_INDEX_MIN_SHARE = 0.9;
+
+  /** Columns of the global search (see {@code CustomerQueryBuilder}). */
+  static final List<String> GLOBAL_SEARCH_FIELDS =
+      List.of("companyName", "customerNumber", "tradingName");
+
+  private static final Set<FilterOperator> EQUALITY =
+      EnumSet.of(FilterOperator.EQUALS, FilterOperator.IN);
+
+  private static final Set<FilterOperator> RANGE =
+      EnumSet.of(
+          FilterOperator.GREATER_THAN,
+          FilterOperator.GREATER_THAN_OR_EQUALS,
+          FilterOperator.LESS_THAN,
+          FilterOperator.LESS_THAN_OR_EQUALS,
+          FilterOperator.BETWEEN);
+
+  private static final Set<FilterOperator> TRIGRAM =
+      EnumSet.of(FilterOperator.CONTAINS, FilterOperator.ENDS_WITH);
+
+  private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+  /**
+   * Suggested index.
+   *
+   * @param kind {@code composite}, {@code partial}, {@code single}, {@code trigram} or {@code
+   *     prefix}
+   * @param ddl {@code CREATE INDEX CONCURRENTLY} statement
+   * @param reason Why this index helps the shape
+   */
+  public record IndexSuggestion(String kind, String ddl, String reason) {}
+
+  private final String table;
+  private final Function<String, Optional<String>> columns;
+  private final java.util.function.Predicate<String> lowCardinality;
+  private final List<String> existingIndexes;
+
+  /**
+   * @param table Table name
+   * @param columns Attribute to column mapping
+   * @param lowCardinality Whether an attribute is enum/boolean
+   * @param existingIndexes {@code pg_indexes.indexdef} of the table
+   */
+  public IndexAdvisor(
+      String table,
+      Function<String, Optional<String>> columns,
+      java.util.function.Predicate<String> lowCardinality,
+      List<String> existingIndexes) {
+    this.table = table;
+    this.columns = columns;
+    this.lowCardinality = lowCardinality;
+    this.existingIndexes =
+        existingIndexes.stream().map(IndexAdvisor::normalize).collect(Collectors.toList());
+  }
+
+  /** Index suggestions for one shape, not yet covered by existing indexes. */
+  public List<IndexSuggestion> suggest(QueryShapeStats stats) {
+    QueryShape shape = stats.shape();
+    List<IndexSuggestion> suggestions = new ArrayList<>();
+
+    if (shape.globalSearch()) {
+      GLOBAL_SEARCH_FIELDS.forEach(
+          field -> trigram(field, "global search LIKE '%term%'").ifPresent(suggestions::add));
+    }
+    for (Predicate predicate : shape.predicates()) {
+      if (TRIGRAM.contains(predicate.operator())) {
+        trigram(predicate.field(), predicate + " is a LIKE with leading wildcard")
+            .ifPresent(suggestions::add);
+      } else if (predicate.operator() == FilterOperator.STARTS_WITH) {
+        prefix(predicate.field()).ifPresent(suggestions::add);
+      }
+    }
+
+    if (shape.orCombined()) {
+      shape.predicates().stream()
+          .filter(p -> EQUALITY.contains(p.operator()) || RANGE.contains(p.operator()))
+          .map(Predicate::field)
+          .distinct()
+          .forEach(
+              field ->
+                  btree(
+                          "single",
+                          List.of(field),
+                          List.of(),
+                          Map.of(),
+                          "OR-combined filters can only combine per-column indexes (BitmapOr)")
+                      .ifPresent(suggestions::add));
+    } else {
+      composite(stats).ifPresent(suggestions::add);
+    }
+    return suggestions;
+  }
+
+  private Optional<IndexSuggestion> composite(QueryShapeStats stats) {
+    QueryShape shape = stats.shape();
+    Map<String, String> predicates = new LinkedHashMap<>();
+    Set<String> keys = new LinkedHashSet<>();
+    Map<String, Boolean> descending = new LinkedHashMap<>();
+    List<String> reasons = new ArrayList<>();
+
+    // E: equality columns, or partial-index predicate if one value dominates
+    for (Predicate p : shape.predicates()) {
+      if (!EQUALITY.contains(p.operator())) {
+        continue;
+      }
+      Optional<String> dominant =
+          p.operator() == FilterOperator.EQUALS && lowCardinality.test(p.field())
+              ? stats.dominantValue(p.field(), PARTIAL_INDEX_MIN_SHARE)
+              : Optional.empty();
+      if (dominant.isPresent()) {
+        predicates.put(p.field(), " = " + literal(dominant.get()));
+      } else {
+        keys.add(p.field());
+      }
+    }
+    for (Predicate p : shape.predicates()) {
+      if (p.operator() == FilterOperator.IS_NULL) {
+        predicates.put(p.field(), " IS NULL");
+      } else if (p.operator() == FilterOperator.IS_NOT_NULL) {
+        predicates.putIfAbsent(p.field(), " IS NOT NULL");
+      }
+    }
+    if (!keys.isEmpty()) {
+      reasons.add("equality on " + String.join(", ", keys));
+    }
+
+    // S: sort columns - the index then returns rows in order and LIMIT stops early
+    boolean mixedDirections =
+        shape.sortKeys().stream().map(SortKey::descending).distinct().count() > 1;
+    List<String> sortFields = new ArrayList<>();
+    for (SortKey key : shape.sortKeys()) {
+      if (keys.add(key.field())) {
+        sortFields.add(key.field());
+        if (mixedDirections && key.descending()) {
+          descending.put(key.field(), true);
+        }
+      }
+    }
+    if (!sortFields.isEmpty()) {
+      reasons.add("ORDER BY " + String.join(", ", sortFields));
+    }
+
+    // R: first range column
+    shape.predicates().stream()
+        .filter(p -> RANGE.contains(p.operator()))
+        .map(Predicate::field)
+        .filter(field -> !keys.contains(field))
+        .findFirst()
+        .ifPresent(
+            field -> {
+              keys.add(field);
+              reasons.add("range on " + field);
+            });
+
+    if (keys.isEmpty()) {
+      return Optional.empty();
+    }
+    if (!predicates.isEmpty()) {
+      reasons.add(
+          "partial on "
+              + predicates.entrySet().stream()
+                  .map(e -> e.getKey() + e.getValue())
+                  .collect(Collectors.joining(" AND ")));
+    }
+    return btree(
+        predicates.isEmpty() ? "composite" : "partial",
+        List.copyOf(keys),
+        List.copyOf(descending.keySet()),
+        predicates,
+        String.join("; ", reasons));
+  }
+
+  private Optional<IndexSuggestion> btree(
+      String kind,
+      List<String> fields,
+      List<String> descendingFields,
+      Map<String, String> predicates,
+      String reason) {
+    List<String> keyColumns = new ArrayList<>();
+    for (String field : fields) {
+      Optional<String> column = columns.apply(field);
+      if (column.isEmpty()) {
+        return Optional.empty();
+      }
+      keyColumns.add(column.get() + (descendingFields.contains(field) ? " DESC" : ""));
+    }
+    if (isCovered(keyColumns)) {
+      return Optional.empty();
+    }
+    StringBuilder where = new StringBuilder();
+    for (Map.Entry<String, String> predicate : predicates.entrySet()) {
+      Optional<String> column = columns.apply(predicate.getKey());
+      if (column.isPresent()) {
+        where.append(where.length() == 0 ? " WHERE " : " AND ");
+        where.append(column.get()).append(predicate.getValue());
+      }
+    }
+    String name =
+        indexName(
+            keyColumns.stream().map(c -> c.replace(" DESC", "")).toList(),
+            where.length() > 0 ? "partial" : null);
+    return Optional.of(
+        new IndexSuggestion(
+            kind,
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS "
+                + name
+                + " ON "
+                + table
+                + " ("
+                + String.join(", ", keyColumns)
+                + ")"
+                + where
+                + ";",
+            reason));
+  }
+
+  private Optional<IndexSuggestion> trigram(String field, String reason) {
+    return columns
+        .apply(field)
+        .filter(column -> !isTrigramCovered(column))
+        .map(
+            column ->
+                new IndexSuggestion(
+                    "trigram",
+                    "CREATE INDEX CONCURRENTLY IF NOT EXISTS "
+                        + indexName(List.of(column), "trgm")
+                        + " ON "
+                        + table
+                        + " USING gin (lower("
+                        + column
+                        + ") gin_trgm_ops);",
+                    reason + " (requires pg_trgm)"));
+  }
+
+  private Optional<IndexSuggestion> prefix(String field) {
+    return columns
+        .apply(field)
+        .filter(column -> !isPatternOpsCovered(column))
+        .map(
+            column ->
+                new IndexSuggestion(
+                    "prefix",
+                    "CREATE INDEX CONCURRENTLY IF NOT EXISTS "
+                        + indexName(List.of(column), "prefix")
+                        + " ON "
+                        + table
+                        + " (lower("
+                        + column
+                        + ") text_pattern_ops);",
+                    field + " STARTS_WITH uses LOWER(..) LIKE 'term%'"));
+  }
+
+  /** An existing B-tree whose leading keys equal the suggested keys already serves the shape. */
+  private boolean isCovered(List<String> keyColumns) {
+    String wanted = normalize(String.join(",", keyColumns));
+    return existingIndexes.stream()
+        .filter(def -> !def.contains("usinggin") && !def.contains("usinggist"))
+        .map(IndexAdvisor::keyList)
+        .anyMatch(keys -> keys.equals(wanted) || keys.startsWith(wanted + ","));
+  }
+
+  private boolean isTrigramCovered(String column) {
+    return existingIndexes.stream()
+        .anyMatch(def -> def.contains("gin_trgm_ops") && def.contains(column));
+  }
+
+  private boolean isPatternOpsCovered(String column) {
+    return existingIndexes.stream()
+        .anyMatch(def -> def.contains("text_pattern_ops") && def.contains(column));
+  }
+
+  private String indexName(List<String> keyColumns, String suffix) {
+    String name =
+        "idx_" + table + "_" + String.join("_", keyColumns) + (suffix != null ? "_" + suffix : "");
+    name = name.replaceAll("[^a-z0-9_]", "");
+    return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+  }
+
+  private static String literal(String value) {
+    if ("true".equals(value) || "false".equals(value)) {
+      return value;
+    }
+    return "'" + value.replace("'", "''") + "'";
+  }
+
+  private static String normalize(String indexDefinition) {
+    return indexDefinition
+        .toLowerCase(Locale.ROOT)
+        .replaceAll("\\s+asc\\b", "")
+        .replaceAll("\\s+", "");
+  }
+
+  /** Key list of a normalized index definition: content of the first parenthesis. */
+  private static String keyList(String normalizedDefinition) {
+    int start = normalizedDefinition.indexOf('(');
+    if (start < 0) {
+      return "";
+    }
+    int depth = 0;
+    for (int i = start; i < normalizedDefinition.length(); i++) {
+      char c = normalizedDefinition.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return normalizedDefinition.substring(start + 1, i);
+      }
+    }
+    return "";
+  }
+}
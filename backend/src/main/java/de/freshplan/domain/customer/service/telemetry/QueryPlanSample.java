@@ -0,0 +1,86 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of one {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} run for a query shape.
+ *
+ * @param sampledAt When the plan was taken
+ * @param sql Rendered statement (placeholders only, no values)
+ * @param planningMs Planning time
+ * @param executionMs Execution time
+ * @param sharedHitBlocks Buffer cache hits of the whole plan
+ * @param sharedReadBlocks Blocks read from disk/OS cache of the whole plan
+ * @param seqScans Relations read by sequential scan
+ * @param indexes Indexes used by the plan
+ * @param plan Full JSON plan
+ */
+public record QueryPlanSample(
+    Instant sampledAt,
+    String sql,
+    double planningMs,
+    double executionMs,
+    long sharedHitBlocks,
+    long sharedReadBlocks,
+    List<String> seqScans,
+    List<String> indexes,
+    JsonNode plan) {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /** Whether the plan reads {@code relation} with a sequential scan. */
+  public boolean seqScanOn(String relation) {
+    return seqScans.contains(relation);
+  }
+
+  /**
+   * Parses PostgreSQL's JSON {@code EXPLAIN} output.
+   *
+   * @param sql Statement that was explained
+   * @param json Output of {@code EXPLAIN (..., FORMAT JSON)}
+   * @param sampledAt Sample timestamp
+   */
+  public static QueryPlanSample parse(String sql, String json, Instant sampledAt) {
+    JsonNode root;
+    try {
+      root = MAPPER.readTree(json);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Invalid EXPLAIN output", e);
+    }
+    JsonNode explain = root.isArray() ? root.path(0) : root;
+    JsonNode plan = explain.path("Plan");
+
+    List<String> seqScans = new ArrayList<>();
+    List<String> indexes = new ArrayList<>();
+    collect(plan, seqScans, indexes);
+
+    return new QueryPlanSample(
+        sampledAt,
+        sql,
+        explain.path("Planning Time").asDouble(),
+        explain.path("Execution Time").asDouble(),
+        plan.path("Shared Hit Blocks").asLong(),
+        plan.path("Shared Read Blocks").asLong(),
+        List.copyOf(seqScans),
+        List.copyOf(indexes),
+        explain);
+  }
+
+  private static void collect(JsonNode node, List<String> seqScans, List<String> indexes) {
+    String nodeType = node.path("Node Type").asText("");
+    if ("Seq Scan".equals(nodeType) && node.hasNonNull("Relation Name")) {
+      seqScans.add(node.get("Relation Name").asText());
+    }
+    if (node.hasNonNull("Index Name") && !indexes.contains(node.get("Index Name").asText())) {
+      indexes.add(node.get("Index Name").asText());
+    }
+    for (JsonNode child : node.path("Plans")) {
+      collect(child, seqScans, indexes);
+    }
+  }
+}
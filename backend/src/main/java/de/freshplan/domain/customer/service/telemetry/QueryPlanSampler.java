@@ -0,0 +1,129 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import de.freshplan.domain.customer.service.CustomerQueryBuilder.QuerySpec;
+import de.freshplan.domain.customer.service.telemetry.CustomerQuerySqlRenderer.RenderedSql;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+/**
+ * Runs {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} for a customer query shape.
+ *
+ * <p>{@code ANALYZE} executes the statement a second time, so samples are taken asynchronously (the
+ * slow request is not delayed further), in their own transaction with a local statement timeout,
+ * and {@link QueryShapeTelemetry} limits them to one per shape and interval.
+ */
+@ApplicationScoped
+public class QueryPlanSampler {
+
+  private static final Logger LOG = Logger.getLogger(QueryPlanSampler.class);
+
+  static final String EXPLAIN_PREFIX = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ";
+
+  @Inject EntityManager em;
+
+  @Inject CustomerColumnCatalog catalog;
+
+  @Inject ManagedExecutor executor;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "freshplan.query-telemetry.explain.timeout", defaultValue = "10s")
+  Duration timeout;
+
+  private Counter sampled;
+  private Counter failed;
+  private Counter skipped;
+
+  @PostConstruct
+  void init() {
+    sampled = counter("success");
+    failed = counter("failure");
+    skipped = counter("skipped");
+  }
+
+  /** Samples the plan in the background and stores it on {@code stats}. */
+  public void sampleAsync(QueryShapeStats stats, QuerySpec spec, int page, int size) {
+    executor.runAsync(() -> sample(stats, spec, page, size));
+  }
+
+  /**
+   * Samples the plan synchronously and stores it on {@code stats}.
+   *
+   * @return Plan, or {@code null} if the query cannot be rendered safely or {@code EXPLAIN} failed
+   */
+  public QueryPlanSample sample(QueryShapeStats stats, QuerySpec spec, int page, int size) {
+    RenderedSql rendered;
+    try {
+      rendered =
+          CustomerQuerySqlRenderer.render(
+              spec, catalog.table(), catalog::column, size, (long) page * size);
+    } catch (IllegalArgumentException e) {
+      // Never EXPLAIN ANALYZE anything that is not fully mapped to known columns
+      skipped.increment();
+      LOG.debugf("Query shape %s not sampled: %s", stats.shape().id(), e.getMessage());
+      return null;
+    }
+    try {
+      String json =
+          QuarkusTransaction.requiringNew()
+              .call(() -> explain(rendered.sql(), rendered.bindings()));
+      QueryPlanSample plan = QueryPlanSample.parse(rendered.sql(), json, Instant.now());
+      stats.plan(plan);
+      sampled.increment();
+      LOG.infof(
+          "Query shape %s [%s]: execution %.1f ms, seq scans %s, indexes %s",
+          stats.shape().id(),
+          stats.shape().fingerprint(),
+          plan.executionMs(),
+          plan.seqScans(),
+          plan.indexes());
+      return plan;
+    } catch (Exception e) {
+      failed.increment();
+      LOG.warnf(e, "EXPLAIN for query shape %s failed", stats.shape().id());
+      return null;
+    }
+  }
+
+  private String explain(String sql, List<Object> bindings) {
+    return em.unwrap(Session.class)
+        .doReturningWork(
+            connection -> {
+              try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL statement_timeout = " + timeout.toMillis());
+              }
+              try (PreparedStatement statement =
+                  connection.prepareStatement(EXPLAIN_PREFIX + sql)) {
+                for (int i = 0; i < bindings.size(); i++) {
+                  statement.setObject(i + 1, bindings.get(i));
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                  rs.next();
+                  return rs.getString(1);
+                }
+              }
+            });
+  }
+
+  private Counter counter(String result) {
+    return Counter.builder("freshplan_customer_query_plan_samples")
+        .description("EXPLAIN samples taken for customer query shapes")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,151 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import de.freshplan.domain.customer.service.dto.CustomerSearchRequest;
+import de.freshplan.domain.customer.service.dto.FilterCriteria;
+import de.freshplan.domain.customer.service.dto.FilterOperator;
+import de.freshplan.domain.customer.service.dto.LogicalOperator;
+import io.quarkus.panache.common.Sort;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Normalized shape of a dynamic customer query: which fields are filtered with which operator and
+ * how the result is sorted - without any values. All searches with the same shape share one
+ * fingerprint and therefore one set of latency/row metrics.
+ *
+ * <p>AND-only filters are order-independent and sorted by field; as soon as an OR is involved the
+ * original order is kept because it changes the meaning of the condition.
+ *
+ * @param id Short stable hash of {@link #fingerprint()}, used as metric tag and in the admin API
+ * @param globalSearch Whether the global search ({@code LIKE} over name/number/trading name) is set
+ * @param predicates Filter predicates
+ * @param sortKeys Sort columns as applied by {@code CustomerQueryBuilder}
+ */
+public record QueryShape(
+    String id, boolean globalSearch, List<Predicate> predicates, List<SortKey> sortKeys) {
+
+  /** Filter predicate without its value. */
+  public record Predicate(String field, FilterOperator operator, LogicalOperator combineWith) {
+
+    @Override
+    public String toString() {
+      return field + " " + operator;
+    }
+  }
+
+  /** Sort column with direction. */
+  public record SortKey(String field, boolean descending) {
+
+    @Override
+    public String toString() {
+      return field + (descending ? " DESC" : " ASC");
+    }
+  }
+
+  /**
+   * Derives the shape from a search request and the sort the query builder resolved for it.
+   *
+   * @param request Search request
+   * @param sort Applied sort or {@code null}
+   */
+  public static QueryShape of(CustomerSearchRequest request, Sort sort) {
+    boolean globalSearch =
+        request.getGlobalSearch() != null && !request.getGlobalSearch().isBlank();
+
+    List<Predicate> predicates = new ArrayList<>();
+    if (request.getFilters() != null) {
+      for (FilterCriteria filter : request.getFilters()) {
+        predicates.add(
+            new Predicate(filter.getField(), filter.getOperator(), filter.getCombineWith()));
+      }
+    }
+    boolean orCombined =
+        predicates.stream().skip(globalSearch ? 0 : 1).anyMatch(p -> isOr(p.combineWith()));
+    if (!orCombined) {
+      predicates.sort(
+          Comparator.comparing(Predicate::field).thenComparing(p -> p.operator().name()));
+    }
+
+    List<SortKey> sortKeys = new ArrayList<>();
+    if (sort != null) {
+      for (Sort.Column column : sort.getColumns()) {
+        sortKeys.add(
+            new SortKey(column.getName(), column.getDirection() == Sort.Direction.Descending));
+      }
+    }
+
+    String fingerprint = fingerprint(globalSearch, predicates, sortKeys, orCombined);
+    return new QueryShape(
+        hash(fingerprint), globalSearch, List.copyOf(predicates), List.copyOf(sortKeys));
+  }
+
+  /**
+   * Human-readable, value-free description, e.g. {@code global AND status EQUALS | riskScore DESC}.
+   */
+  public String fingerprint() {
+    return fingerprint(globalSearch, predicates, sortKeys, orCombined());
+  }
+
+  /**
+   * Whether filters are OR-combined. Such conditions cannot use one composite index and are advised
+   * per column.
+   */
+  public boolean orCombined() {
+    return predicates.stream().skip(globalSearch ? 0 : 1).anyMatch(p -> isOr(p.combineWith()));
+  }
+
+  private static boolean isOr(LogicalOperator operator) {
+    return operator != null && operator != LogicalOperator.AND;
+  }
+
+  private static String fingerprint(
+      boolean globalSearch,
+      List<Predicate> predicates,
+      List<SortKey> sortKeys,
+      boolean orCombined) {
+    StringBuilder sb = new StringBuilder();
+    if (globalSearch) {
+      sb.append("global");
+    }
+    if (orCombined) {
+      // keep AND/OR per predicate, the order is significant
+      for (int i = 0; i < predicates.size(); i++) {
+        Predicate p = predicates.get(i);
+        if (sb.length() > 0) {
+          sb.append(' ').append(isOr(p.combineWith()) ? "OR" : "AND").append(' ');
+        }
+        sb.append(p);
+      }
+    } else {
+      String filters =
+          predicates.stream().map(Predicate::toString).collect(Collectors.joining(" AND "));
+      if (!filters.isEmpty()) {
+        sb.append(sb.length() > 0 ? " AND " : "").append(filters);
+      }
+    }
+    if (sb.length() == 0) {
+      sb.append("*");
+    }
+    if (!sortKeys.isEmpty()) {
+      sb.append(" | ")
+          .append(sortKeys.stream().map(SortKey::toString).collect(Collectors.joining(", ")));
+    }
+    return sb.toString();
+  }
+
+  private static String hash(String fingerprint) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, 6);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
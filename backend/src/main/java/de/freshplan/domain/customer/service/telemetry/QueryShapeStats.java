@@ -0,0 +1,131 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import de.freshplan.domain.customer.service.CustomerQueryBuilder.QuerySpec;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory aggregates of one {@link QueryShape} - the basis for ranking shapes and for index
+ * advice. Micrometer meters are kept alongside for dashboards; these counters survive registry
+ * scraping and give exact totals for the admin view.
+ */
+public class QueryShapeStats {
+
+  /** Per field only this many distinct values are counted (enum/boolean fields stay far below). */
+  static final int MAX_TRACKED_VALUES = 32;
+
+  private final QueryShape shape;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+  private final LongAdder slowCount = new LongAdder();
+  private final LongAdder totalRows = new LongAdder();
+  private final AtomicLong lastSampleAt = new AtomicLong(Long.MIN_VALUE);
+  private final Map<String, Map<String, LongAdder>> equalityValues = new ConcurrentHashMap<>();
+
+  private volatile QueryPlanSample plan;
+
+  /** Last executed specification, kept for on-demand {@code EXPLAIN}; never exposed. */
+  private volatile QuerySpec lastSpec;
+
+  public QueryShapeStats(QueryShape shape) {
+    this.shape = shape;
+  }
+
+  void record(long nanos, long rows, boolean slow, QuerySpec spec) {
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulateAndGet(nanos, Math::max);
+    totalRows.add(rows);
+    if (slow) {
+      slowCount.increment();
+    }
+    lastSpec = spec;
+  }
+
+  /** Counts the value of a low-cardinality equality filter (for partial-index advice). */
+  void recordEqualityValue(String field, String value) {
+    Map<String, LongAdder> values =
+        equalityValues.computeIfAbsent(field, f -> new ConcurrentHashMap<>());
+    LongAdder counter = values.get(value);
+    if (counter == null) {
+      if (values.size() >= MAX_TRACKED_VALUES) {
+        return;
+      }
+      counter = values.computeIfAbsent(value, v -> new LongAdder());
+    }
+    counter.increment();
+  }
+
+  /**
+   * Claims the next {@code EXPLAIN} sample. At most one sample per interval and shape, regardless
+   * of how many slow executions race for it.
+   */
+  boolean tryClaimSample(long nowMillis, long intervalMillis) {
+    long last = lastSampleAt.get();
+    if (last != Long.MIN_VALUE && nowMillis - last < intervalMillis) {
+      return false;
+    }
+    return lastSampleAt.compareAndSet(last, nowMillis);
+  }
+
+  /**
+   * Value that a low-cardinality equality filter has in at least {@code minShare} of the recorded
+   * executions.
+   */
+  public Optional<String> dominantValue(String field, double minShare) {
+    Map<String, LongAdder> values = equalityValues.get(field);
+    if (values == null) {
+      return Optional.empty();
+    }
+    long total = values.values().stream().mapToLong(LongAdder::sum).sum();
+    return values.entrySet().stream()
+        .filter(e -> total > 0 && e.getValue().sum() >= minShare * total)
+        .map(Map.Entry::getKey)
+        .findFirst();
+  }
+
+  public QueryShape shape() {
+    return shape;
+  }
+
+  public long count() {
+    return count.sum();
+  }
+
+  public long totalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long maxNanos() {
+    return maxNanos.get();
+  }
+
+  public long slowCount() {
+    return slowCount.sum();
+  }
+
+  public long totalRows() {
+    return totalRows.sum();
+  }
+
+  public double meanMillis() {
+    long n = count();
+    return n == 0 ? 0 : totalNanos() / 1_000_000.0 / n;
+  }
+
+  public QueryPlanSample plan() {
+    return plan;
+  }
+
+  void plan(QueryPlanSample plan) {
+    this.plan = plan;
+  }
+
+  QuerySpec lastSpec() {
+    return lastSpec;
+  }
+}
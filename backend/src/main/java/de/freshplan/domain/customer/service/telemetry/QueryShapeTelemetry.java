@@ -0,0 +1,281 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import de.freshplan.domain.customer.service.CustomerQueryBuilder.QuerySpec;
+import de.freshplan.domain.customer.service.dto.CustomerSearchRequest;
+import de.freshplan.domain.customer.service.dto.FilterCriteria;
+import de.freshplan.domain.customer.service.dto.FilterOperator;
+import de.freshplan.domain.customer.service.telemetry.IndexAdvisor.IndexSuggestion;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Query-shape telemetry for the dynamic customer search ({@code CustomerQueryBuilder} + {@code
+ * SmartSortService}).
+ *
+ * <p>Every search is reduced to its {@link QueryShape}; latency and matched rows are recorded per
+ * shape as Micrometer timer/summary ({@code freshplan_customer_query_duration}, {@code
+ * freshplan_customer_query_rows}, tag {@code shape}). Slow shapes get an {@code EXPLAIN (ANALYZE,
+ * BUFFERS)} sample at most once per interval. The admin view ranks shapes by total time and asks
+ * {@link IndexAdvisor} for composite/partial index suggestions.
+ *
+ * <p>The number of distinct shapes is capped; further shapes are counted under {@code other} so
+ * arbitrary filter combinations cannot blow up metric cardinality.
+ */
+@ApplicationScoped
+public class QueryShapeTelemetry {
+
+  private static final Logger LOG = Logger.getLogger(QueryShapeTelemetry.class);
+
+  static final String OTHER = "other";
+
+  /** Coarse SLO buckets instead of a full percentile histogram - keeps series per shape low. */
+  private static final Duration[] SLO_BUCKETS = {
+    Duration.ofMillis(50),
+    Duration.ofMillis(100),
+    Duration.ofMillis(250),
+    Duration.ofMillis(500),
+    Duration.ofSeconds(1),
+    Duration.ofMillis(2500),
+    Duration.ofSeconds(5)
+  };
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject QueryPlanSampler planSampler;
+
+  @Inject CustomerColumnCatalog catalog;
+
+  @ConfigProperty(name = "freshplan.query-telemetry.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "freshplan.query-telemetry.max-shapes", defaultValue = "200")
+  int maxShapes;
+
+  @ConfigProperty(name = "freshplan.query-telemetry.slow-threshold", defaultValue = "500ms")
+  Duration slowThreshold;
+
+  @ConfigProperty(name = "freshplan.query-telemetry.explain.enabled", defaultValue = "true")
+  boolean explainEnabled;
+
+  @ConfigProperty(name = "freshplan.query-telemetry.explain.interval", defaultValue = "10m")
+  Duration explainInterval;
+
+  @ConfigProperty(name = "freshplan.query-telemetry.advice.min-executions", defaultValue = "20")
+  long adviceMinExecutions;
+
+  private final Map<String, ShapeMeters> shapes = new ConcurrentHashMap<>();
+
+  /**
+   * Ranked shape.
+   *
+   * @param id Shape ID ({@code other} for the overflow bucket)
+   * @param fingerprint Value-free description
+   * @param count Executions
+   * @param totalMs Total time (count + page query)
+   * @param meanMs Mean time
+   * @param p95Ms 95th percentile (decaying window of the timer)
+   * @param maxMs Maximum
+   * @param slowCount Executions above the slow threshold
+   * @param meanRows Mean matched rows
+   * @param plan Last {@code EXPLAIN} sample, may be {@code null}
+   */
+  public record ShapeReport(
+      String id,
+      String fingerprint,
+      long count,
+      double totalMs,
+      double meanMs,
+      double p95Ms,
+      double maxMs,
+      long slowCount,
+      double meanRows,
+      QueryPlanSample plan) {}
+
+  /**
+   * Index advice for one shape.
+   *
+   * @param shape Ranked shape
+   * @param suggestions Suggested indexes, empty if the existing indexes already fit
+   */
+  public record ShapeAdvice(ShapeReport shape, List<IndexSuggestion> suggestions) {}
+
+  /**
+   * Records one search execution.
+   *
+   * @param request Search request (only field names/operators and low-cardinality values are kept)
+   * @param spec Generated query
+   * @param nanos Duration of count + page query
+   * @param rows Matched rows
+   * @param page Requested page, for {@code EXPLAIN}
+   * @param size Page size, for {@code EXPLAIN}
+   */
+  public void record(
+      CustomerSearchRequest request, QuerySpec spec, long nanos, long rows, int page, int size) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      QueryShape shape = QueryShape.of(request, spec.sort());
+      ShapeMeters meters = metersFor(shape);
+      boolean slow = nanos >= slowThreshold.toNanos();
+
+      meters.timer.record(nanos, TimeUnit.NANOSECONDS);
+      meters.rows.record(rows);
+      meters.stats.record(nanos, rows, slow, spec);
+      if (!OTHER.equals(meters.id) && request.getFilters() != null) {
+        for (FilterCriteria filter : request.getFilters()) {
+          if (filter.getOperator() == FilterOperator.EQUALS
+              && filter.getValue() != null
+              && catalog.isLowCardinality(filter.getField())) {
+            meters.stats.recordEqualityValue(filter.getField(), filter.getValue().toString());
+          }
+        }
+      }
+
+      if (slow
+          && explainEnabled
+          && !OTHER.equals(meters.id)
+          && meters.stats.tryClaimSample(System.currentTimeMillis(), explainInterval.toMillis())) {
+        planSampler.sampleAsync(meters.stats, spec, page, size);
+      }
+    } catch (RuntimeException e) {
+      // telemetry must never break the search itself
+      LOG.debugf(e, "Query-shape telemetry failed");
+    }
+  }
+
+  /** Shapes ranked by total time spent, highest first. */
+  public List<ShapeReport> ranking(int limit) {
+    return shapes.values().stream()
+        .map(this::report)
+        .sorted(Comparator.comparingDouble(ShapeReport::totalMs).reversed())
+        .limit(limit)
+        .toList();
+  }
+
+  /** Report of one shape. */
+  public Optional<ShapeReport> find(String id) {
+    return Optional.ofNullable(shapes.get(id)).map(this::report);
+  }
+
+  /**
+   * Takes a fresh {@code EXPLAIN} sample with the last executed parameters of the shape.
+   *
+   * @return Updated report, empty if the shape is unknown or has no sample-able execution
+   */
+  public Optional<ShapeReport> explainNow(String id, int size) {
+    ShapeMeters meters = shapes.get(id);
+    if (meters == null || OTHER.equals(id) || meters.stats.lastSpec() == null) {
+      return Optional.empty();
+    }
+    planSampler.sample(meters.stats, meters.stats.lastSpec(), 0, size);
+    return Optional.of(report(meters));
+  }
+
+  /**
+   * Index suggestions for the top shapes that are slow on average or whose last plan scans the
+   * customer table sequentially.
+   */
+  public List<ShapeAdvice> advice(int limit) {
+    String table = catalog.table();
+    IndexAdvisor advisor =
+        new IndexAdvisor(
+            table, catalog::column, catalog::isLowCardinality, catalog.existingIndexDefinitions());
+    double slowMs = slowThreshold.toNanos() / 1_000_000.0;
+
+    return shapes.values().stream()
+        .filter(m -> !OTHER.equals(m.id))
+        .filter(m -> m.stats.count() >= adviceMinExecutions)
+        .filter(
+            m ->
+                m.stats.meanMillis() >= slowMs
+                    || (m.stats.plan() != null && m.stats.plan().seqScanOn(table)))
+        .sorted(Comparator.comparingLong((ShapeMeters m) -> m.stats.totalNanos()).reversed())
+        .limit(limit)
+        .map(m -> new ShapeAdvice(report(m), advisor.suggest(m.stats)))
+        .toList();
+  }
+
+  /** Forgets all shapes and removes their meters. */
+  public void reset() {
+    shapes
+        .values()
+        .forEach(
+            m -> {
+              meterRegistry.remove(m.timer);
+              meterRegistry.remove(m.rows);
+            });
+    shapes.clear();
+  }
+
+  private ShapeMeters metersFor(QueryShape shape) {
+    ShapeMeters meters = shapes.get(shape.id());
+    if (meters != null) {
+      return meters;
+    }
+    if (shapes.size() >= maxShapes) {
+      return shapes.computeIfAbsent(OTHER, id -> new ShapeMeters(id, shape));
+    }
+    return shapes.computeIfAbsent(shape.id(), id -> new ShapeMeters(id, shape));
+  }
+
+  private ShapeReport report(ShapeMeters meters) {
+    QueryShapeStats stats = meters.stats;
+    double p95 = 0;
+    for (ValueAtPercentile value : meters.timer.takeSnapshot().percentileValues()) {
+      if (value.percentile() == 0.95) {
+        p95 = value.value(TimeUnit.MILLISECONDS);
+      }
+    }
+    long count = stats.count();
+    return new ShapeReport(
+        meters.id,
+        OTHER.equals(meters.id) ? "(shapes beyond the cap)" : stats.shape().fingerprint(),
+        count,
+        stats.totalNanos() / 1_000_000.0,
+        stats.meanMillis(),
+        p95,
+        stats.maxNanos() / 1_000_000.0,
+        stats.slowCount(),
+        count == 0 ? 0 : (double) stats.totalRows() / count,
+        stats.plan());
+  }
+
+  /** Meters and aggregates of one shape. */
+  private final class ShapeMeters {
+    final String id;
+    final QueryShapeStats stats;
+    final Timer timer;
+    final DistributionSummary rows;
+
+    ShapeMeters(String id, QueryShape shape) {
+      this.id = id;
+      this.stats = new QueryShapeStats(shape);
+      this.timer =
+          Timer.builder("freshplan_customer_query_duration")
+              .description("Customer search latency (count + page) per query shape")
+              .tag("shape", id)
+              .publishPercentiles(0.95)
+              .serviceLevelObjectives(SLO_BUCKETS)
+              .register(meterRegistry);
+      this.rows =
+          DistributionSummary.builder("freshplan_customer_query_rows")
+              .description("Matched rows per customer search and query shape")
+              .tag("shape", id)
+              .register(meterRegistry);
+    }
+  }
+}
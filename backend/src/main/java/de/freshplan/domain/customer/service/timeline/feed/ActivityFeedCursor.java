@@ -0,0 +1,74 @@
+package de.freshplan.domain.customer.service.timeline.feed;
+
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedItem.Source;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor of the activity feed: the position of the last entry that was returned.
+ *
+ * <p>The feed is ordered by {@code (occurredAt DESC, source ASC, id DESC)}. For the next page each
+ * source only needs the entries strictly after the cursor in that order, see {@link
+ * #relationTo(Source)}.
+ *
+ * @param occurredAt timestamp of the last returned entry
+ * @param source source of the last returned entry
+ * @param id id of the last returned entry within its source
+ */
+public record ActivityFeedCursor(LocalDateTime occurredAt, Source source, String id) {
+
+  private static final char SEPARATOR = '|';
+
+  /** How a source's next rows relate to the cursor position. */
+  public enum Relation {
+    /** Source sorts before the cursor source: rows with the cursor timestamp were already sent. */
+    BEFORE_TIMESTAMP,
+    /** Source sorts after the cursor source: rows with the cursor timestamp are still pending. */
+    AT_OR_BEFORE_TIMESTAMP,
+    /** Same source: compare {@code (timestamp, id)} as a row value. */
+    BEFORE_ROW
+  }
+
+  public static ActivityFeedCursor of(ActivityFeedItem item) {
+    return new ActivityFeedCursor(item.occurredAt(), item.source(), item.id());
+  }
+
+  public Relation relationTo(Source other) {
+    int cmp = other.compareTo(source);
+    if (cmp < 0) {
+      return Relation.BEFORE_TIMESTAMP;
+    }
+    return cmp > 0 ? Relation.AT_OR_BEFORE_TIMESTAMP : Relation.BEFORE_ROW;
+  }
+
+  public String encode() {
+    String raw = occurredAt + String.valueOf(SEPARATOR) + source.name() + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a cursor previously produced by {@link #encode()}.
+   *
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static ActivityFeedCursor decode(String encoded) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+      int first = raw.indexOf(SEPARATOR);
+      int second = raw.indexOf(SEPARATOR, first + 1);
+      if (first < 0 || second < 0 || second == raw.length() - 1) {
+        throw new IllegalArgumentException("Invalid feed cursor");
+      }
+      return new ActivityFeedCursor(
+          LocalDateTime.parse(raw.substring(0, first)),
+          Source.valueOf(raw.substring(first + 1, second)),
+          raw.substring(second + 1));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid feed cursor", e);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package de.freshplan.domain.customer.service.timeline.feed;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the unified customer activity feed.
+ *
+ * @param source table the entry comes from
+ * @param id primary key within the source table (UUID or bigint, as string)
+ * @param occurredAt event time used for ordering
+ * @param type source specific type (event type, activity type, interaction type)
+ * @param title short text (timeline title, activity summary, interaction subject)
+ * @param description long text (description or interaction summary)
+ * @param performedBy user or system that caused the entry
+ */
+public record ActivityFeedItem(
+    Source source,
+    String id,
+    LocalDateTime occurredAt,
+    String type,
+    String title,
+    String description,
+    String performedBy) {
+
+  /**
+   * Feed sources. The declaration order is the tie breaker for entries with the same timestamp, so
+   * it is part of the cursor contract and must not be reordered.
+   */
+  public enum Source {
+    TIMELINE,
+    LEAD_ACTIVITY,
+    INTERACTION
+  }
+}
@@ -0,0 +1,205 @@
+package de.freshplan.domain.customer.service.timeline.feed;
+
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedCursor.Relation;
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedItem.Source;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+/**
+ * Keyset reads of the three activity feed sources as plain JDBC projections.
+ *
+ * <p>Every statement filters by customer (or original lead), applies the cursor predicate and reads
+ * {@code ORDER BY <ts> DESC, id DESC LIMIT n}, which is served by the feed indexes from V10058 -
+ * the cost of a page does not grow with the length of the history. Text search uses {@code
+ * lower(...) LIKE '%term%'} on expressions that have pg_trgm GIN indexes.
+ */
+@ApplicationScoped
+public class ActivityFeedRepository {
+
+  /** Customer (and its original lead) whose activities are read. */
+  public record FeedScope(UUID customerId, Long originalLeadId) {}
+
+  /**
+   * SQL fragments of one source.
+   *
+   * @param columns id::text, timestamp, type, title, description, performed by
+   * @param from FROM clause incl. joins
+   * @param scope WHERE predicate with one parameter (customer id or lead id)
+   * @param search search predicate, every {@code ?} is bound to the same pattern
+   */
+  private record SourceSql(
+      String columns,
+      String from,
+      String scope,
+      String timestamp,
+      String id,
+      String idType,
+      String search) {}
+
+  private static final Map<Source, SourceSql> SOURCES = new EnumMap<>(Source.class);
+
+  static {
+    SOURCES.put(
+        Source.TIMELINE,
+        new SourceSql(
+            "e.id::text, e.event_date, e.event_type, e.title, e.description, e.performed_by",
+            "customer_timeline_events e",
+            "e.customer_id = ? AND e.is_deleted = false",
+            "e.event_date",
+            "e.id",
+            "uuid",
+            "(lower(e.title) LIKE ? OR lower(e.description) LIKE ?)"));
+    SOURCES.put(
+        Source.LEAD_ACTIVITY,
+        new SourceSql(
+            "a.id::text, a.activity_date, a.activity_type, a.summary, a.description,"
+                + " COALESCE(a.performed_by, a.user_id)",
+            "lead_activities a",
+            "a.lead_id = ?",
+            "a.activity_date",
+            "a.id",
+            "bigint",
+            "lower(COALESCE(a.summary, '') || ' ' || COALESCE(a.description, '')) LIKE ?"));
+    SOURCES.put(
+        Source.INTERACTION,
+        new SourceSql(
+            "i.id::text, i.timestamp, i.type, i.subject, i.summary, i.created_by",
+            "contact_interactions i JOIN customer_contacts c ON c.id = i.contact_id",
+            "c.customer_id = ? AND c.is_deleted = false",
+            "i.timestamp",
+            "i.id",
+            "uuid",
+            "lower(COALESCE(i.subject, '') || ' ' || COALESCE(i.summary, '')) LIKE ?"));
+  }
+
+  @Inject DataSource dataSource;
+
+  /**
+   * Reads up to {@code limit} entries of one source after the cursor, newest first.
+   *
+   * @param cursor position of the last returned entry, {@code null} for the first page
+   * @param searchPattern lower-case LIKE pattern, {@code null} for no search
+   */
+  public List<ActivityFeedItem> fetch(
+      Source source, FeedScope scope, ActivityFeedCursor cursor, String searchPattern, int limit)
+      throws SQLException {
+    SourceSql sql = SOURCES.get(source);
+    StringBuilder query =
+        new StringBuilder("SELECT ")
+            .append(sql.columns())
+            .append(" FROM ")
+            .append(sql.from())
+            .append(" WHERE ")
+            .append(sql.scope());
+    if (searchPattern != null) {
+      query.append(" AND ").append(sql.search());
+    }
+    Relation relation = cursor != null ? cursor.relationTo(source) : null;
+    if (relation != null) {
+      query.append(" AND ").append(keysetPredicate(sql, relation));
+    }
+    query
+        .append(" ORDER BY ")
+        .append(sql.timestamp())
+        .append(" DESC, ")
+        .append(sql.id())
+        .append(" DESC LIMIT ?");
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(query.toString())) {
+      int index = bindScopeAndSearch(statement, source, sql, scope, searchPattern);
+      if (relation != null) {
+        statement.setTimestamp(index++, Timestamp.valueOf(cursor.occurredAt()));
+        if (relation == Relation.BEFORE_ROW) {
+          statement.setString(index++, cursor.id());
+        }
+      }
+      statement.setInt(index, limit);
+
+      List<ActivityFeedItem> items = new ArrayList<>(limit);
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          items.add(
+              new ActivityFeedItem(
+                  source,
+                  rs.getString(1),
+                  rs.getTimestamp(2).toLocalDateTime(),
+                  rs.getString(3),
+                  rs.getString(4),
+                  rs.getString(5),
+                  rs.getString(6)));
+        }
+      }
+      return items;
+    }
+  }
+
+  /**
+   * Counts the matching entries of one source, but stops at {@code cap} so the count stays an
+   * index-bounded read for customers with a long history.
+   */
+  public long countUpTo(Source source, FeedScope scope, String searchPattern, int cap)
+      throws SQLException {
+    SourceSql sql = SOURCES.get(source);
+    String query =
+        "SELECT count(*) FROM (SELECT 1 FROM "
+            + sql.from()
+            + " WHERE "
+            + sql.scope()
+            + (searchPattern != null ? " AND " + sql.search() : "")
+            + " LIMIT ?) capped";
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(query)) {
+      int index = bindScopeAndSearch(statement, source, sql, scope, searchPattern);
+      statement.setInt(index, cap);
+      try (ResultSet rs = statement.executeQuery()) {
+        rs.next();
+        return rs.getLong(1);
+      }
+    }
+  }
+
+  private static String keysetPredicate(SourceSql sql, Relation relation) {
+    return switch (relation) {
+      case BEFORE_TIMESTAMP -> sql.timestamp() + " < ?";
+      case AT_OR_BEFORE_TIMESTAMP -> sql.timestamp() + " <= ?";
+      case BEFORE_ROW ->
+          "(" + sql.timestamp() + ", " + sql.id() + ") < (?, CAST(? AS " + sql.idType() + "))";
+    };
+  }
+
+  /** Binds scope and search parameters, returns the next parameter index. */
+  private static int bindScopeAndSearch(
+      PreparedStatement statement,
+      Source source,
+      SourceSql sql,
+      FeedScope scope,
+      String searchPattern)
+      throws SQLException {
+    int index = 1;
+    if (source == Source.LEAD_ACTIVITY) {
+      statement.setLong(index++, scope.originalLeadId());
+    } else {
+      statement.setObject(index++, scope.customerId());
+    }
+    if (searchPattern != null) {
+      int placeholders = (int) sql.search().chars().filter(c -> c == '?').count();
+      for (int i = 0; i < placeholders; i++) {
+        statement.setString(index++, searchPattern);
+      }
+    }
+    return index;
+  }
+}
@@ -0,0 +1,19 @@
+package de.freshplan.domain.customer.service.timeline.feed;
+
+import java.util.List;
+
+/**
+ * One page of the activity feed.
+ *
+ * @param items entries, newest first
+ * @param nextCursor cursor for the next page, {@code null} if {@code hasMore} is false
+ * @param hasMore whether more entries exist after this page
+ * @param estimatedTotal number of matching entries, only on the first page ({@code null} otherwise)
+ * @param estimateCapped true if {@code estimatedTotal} hit the count cap ("at least")
+ */
+public record ActivityFeedResponse(
+    List<ActivityFeedItem> items,
+    String nextCursor,
+    boolean hasMore,
+    Long estimatedTotal,
+    boolean estimateCapped) {}
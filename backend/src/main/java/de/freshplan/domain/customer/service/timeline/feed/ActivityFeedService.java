@@ -0,0 +1,168 @@
+package de.freshplan.domain.customer.service.timeline.feed;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.repository.CustomerRepository;
+import de.freshplan.domain.customer.service.exception.CustomerNotFoundException;
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedItem.Source;
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedRepository.FeedScope;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.NotNull;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Unified activity feed of a customer: timeline events, activities of the lead the customer was
+ * converted from, and contact interactions - one stream, newest first.
+ *
+ * <p>Each source is read with a keyset query of at most {@code size + 1} rows after the cursor
+ * ({@link ActivityFeedRepository}); the sorted source pages are combined with a k-way merge. The
+ * extra row per source tells whether more entries exist, so no page needs a full count. A page
+ * costs the same for a customer with 50 or 10,000 events.
+ *
+ * <p>The total is only computed for the first page and is capped per source ({@code
+ * freshplan.timeline.feed.count-cap}); UIs show it as "1000+" when {@code estimateCapped} is set.
+ *
+ * <p>No @Transactional: read-only, each source is a single autocommit statement.
+ */
+@ApplicationScoped
+public class ActivityFeedService {
+
+  private static final Logger LOG = Logger.getLogger(ActivityFeedService.class);
+
+  /** Global feed order: newest first, ties broken by source declaration order. */
+  static final Comparator<ActivityFeedItem> FEED_ORDER =
+      Comparator.comparing(ActivityFeedItem::occurredAt)
+          .reversed()
+          .thenComparing(ActivityFeedItem::source);
+
+  @Inject ActivityFeedRepository feedRepository;
+
+  @Inject CustomerRepository customerRepository;
+
+  @ConfigProperty(name = "freshplan.timeline.feed.max-page-size", defaultValue = "100")
+  int maxPageSize;
+
+  @ConfigProperty(name = "freshplan.timeline.feed.count-cap", defaultValue = "1000")
+  int countCap;
+
+  /**
+   * Reads one page of the feed.
+   *
+   * @param cursor {@code nextCursor} of the previous page, {@code null} for the first page
+   * @param search optional case-insensitive contains search over title and text
+   * @throws CustomerNotFoundException if the customer does not exist
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public ActivityFeedResponse getFeed(
+      @NotNull UUID customerId, String cursor, int size, String search) {
+    int pageSize = Math.max(1, Math.min(size, maxPageSize));
+    ActivityFeedCursor after =
+        cursor == null || cursor.isBlank() ? null : ActivityFeedCursor.decode(cursor);
+    String pattern = search == null || search.isBlank() ? null : likePattern(search);
+    FeedScope scope = resolveScope(customerId);
+
+    Map<Source, List<ActivityFeedItem>> pages = new EnumMap<>(Source.class);
+    for (Source source : sources(scope)) {
+      pages.put(source, loadSource(source, scope, after, pattern, pageSize + 1));
+    }
+
+    List<ActivityFeedItem> merged = merge(pages, pageSize + 1);
+    boolean hasMore = merged.size() > pageSize;
+    List<ActivityFeedItem> items = hasMore ? merged.subList(0, pageSize) : merged;
+    String nextCursor = hasMore ? ActivityFeedCursor.of(items.get(pageSize - 1)).encode() : null;
+
+    Long estimatedTotal = null;
+    boolean capped = false;
+    if (after == null) {
+      long total = 0;
+      for (Source source : sources(scope)) {
+        long count = countSource(source, scope, pattern, countCap);
+        capped |= count >= countCap;
+        total += count;
+      }
+      estimatedTotal = total;
+    }
+
+    LOG.debugf(
+        "Activity feed for customer %s: %d items, hasMore=%s", customerId, items.size(), hasMore);
+    return new ActivityFeedResponse(
+        List.copyOf(items), nextCursor, hasMore, estimatedTotal, capped);
+  }
+
+  /**
+   * k-way merge of per-source pages that are each sorted in feed order. Only the heads of the
+   * sources are compared, so ties within one source keep the database order ({@code id DESC}).
+   */
+  static List<ActivityFeedItem> merge(Map<Source, List<ActivityFeedItem>> pages, int limit) {
+    PriorityQueue<Head> heads =
+        new PriorityQueue<>(
+            Math.max(1, pages.size()), (a, b) -> FEED_ORDER.compare(a.item, b.item));
+    for (List<ActivityFeedItem> page : pages.values()) {
+      Iterator<ActivityFeedItem> it = page.iterator();
+      if (it.hasNext()) {
+        heads.add(new Head(it.next(), it));
+      }
+    }
+
+    List<ActivityFeedItem> result = new ArrayList<>(limit);
+    while (result.size() < limit && !heads.isEmpty()) {
+      Head head = heads.poll();
+      result.add(head.item);
+      if (head.rest.hasNext()) {
+        heads.add(new Head(head.rest.next(), head.rest));
+      }
+    }
+    return result;
+  }
+
+  private record Head(ActivityFeedItem item, Iterator<ActivityFeedItem> rest) {}
+
+  FeedScope resolveScope(UUID customerId) {
+    Customer customer =
+        customerRepository
+            .findByIdOptional(customerId)
+            .orElseThrow(() -> new CustomerNotFoundException(customerId));
+    return new FeedScope(customerId, customer.getOriginalLeadId());
+  }
+
+  List<ActivityFeedItem> loadSource(
+      Source source, FeedScope scope, ActivityFeedCursor after, String pattern, int limit) {
+    try {
+      return feedRepository.fetch(source, scope, after, pattern, limit);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to read activity feed source " + source, e);
+    }
+  }
+
+  long countSource(Source source, FeedScope scope, String pattern, int cap) {
+    try {
+      return feedRepository.countUpTo(source, scope, pattern, cap);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to count activity feed source " + source, e);
+    }
+  }
+
+  /** Lead activities only exist for customers that were converted from a lead. */
+  private static List<Source> sources(FeedScope scope) {
+    return scope.originalLeadId() != null
+        ? List.of(Source.values())
+        : List.of(Source.TIMELINE, Source.INTERACTION);
+  }
+
+  /** Escapes LIKE wildcards so user input is matched literally. */
+  static String likePattern(String search) {
+    String escaped =
+        search.trim().toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    return "%" + escaped + "%";
+  }
+}
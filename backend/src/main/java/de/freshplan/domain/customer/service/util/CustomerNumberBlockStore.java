@@ -0,0 +1,93 @@
+package de.freshplan.domain.customer.service.util;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+
+/**
+ * Database side of the {@link CustomerNumberGeneratorService} (table {@code
+ * customer_number_counters}, V10064).
+ *
+ * <p>A reservation is a single upsert on the year's counter row in its own short transaction
+ * ({@code REQUIRES_NEW}): the row lock is held only for that statement, not for the caller's
+ * transaction, and reserved numbers stay reserved even if the caller rolls back. Reservations never
+ * look at {@code customers}; numbers set manually move the counter once via {@link #advancePast}.
+ */
+@ApplicationScoped
+public class CustomerNumberBlockStore {
+
+  /**
+   * Creates the year's counter on first use (new year starts at 1), otherwise advances it.
+   * Parameters: year, count, count.
+   */
+  static final String RESERVE_SQL =
+      """
+      INSERT INTO customer_number_counters (year, next_value, updated_at)
+      VALUES (?, 1 + ?, NOW())
+      ON CONFLICT (year) DO UPDATE
+      SET next_value = customer_number_counters.next_value + ?,
+          updated_at = NOW()
+      RETURNING next_value
+      """;
+
+  /**
+   * Moves the counter behind a manually set number, never backwards. Parameters: year, sequence
+   * number.
+   */
+  static final String ADVANCE_SQL =
+      """
+      INSERT INTO customer_number_counters (year, next_value, updated_at)
+      VALUES (?, ? + 1, NOW())
+      ON CONFLICT (year) DO UPDATE
+      SET next_value = GREATEST(customer_number_counters.next_value, EXCLUDED.next_value),
+          updated_at = NOW()
+      """;
+
+  @Inject DataSource dataSource;
+
+  /**
+   * Reserves {@code count} consecutive sequence numbers of a year.
+   *
+   * @return The first reserved sequence number; {@code first .. first + count - 1} belong to the
+   *     caller
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int reserve(int year, int count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("count must be positive: " + count);
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(RESERVE_SQL)) {
+      statement.setInt(1, year);
+      statement.setInt(2, count);
+      statement.setInt(3, count);
+      try (ResultSet rs = statement.executeQuery()) {
+        rs.next();
+        return rs.getInt(1) - count;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Reserving customer numbers failed for year " + year, e);
+    }
+  }
+
+  /**
+   * Ensures that no later reservation hands out {@code sequenceNumber} of {@code year} (numbers set
+   * manually, e.g. on lead conversion with a given customer number).
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void advancePast(int year, int sequenceNumber) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(ADVANCE_SQL)) {
+      statement.setInt(1, year);
+      statement.setInt(2, sequenceNumber);
+      statement.executeUpdate();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Advancing customer number counter failed for " + year, e);
+    }
+  }
+}
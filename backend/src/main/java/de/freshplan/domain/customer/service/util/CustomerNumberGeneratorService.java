@@ -1,64 +1,112 @@
 package de.freshplan.domain.customer.service.util;
 
 import de.freshplan.domain.customer.constants.CustomerConstants;
-import de.freshplan.domain.customer.repository.CustomerRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import java.time.Clock;
 import java.time.Year;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
- * Service for generating unique customer numbers in the format KD-YYYY-XXXXX. Thread-safe
- * implementation to ensure no duplicate numbers are generated.
+ * Service for generating unique customer numbers in the format KD-YYYY-XXXXX. Cluster-safe: all
+ * nodes draw from one counter per year ({@code customer_number_counters}).
  *
  * <p>Examples: - KD-2025-00001 - KD-2025-00234 - KD-2026-00001 (resets each year)
  *
+ * <p>Each node reserves a block of {@code freshplan.customer.number.block-size} numbers with one
+ * atomic upsert ({@link CustomerNumberBlockStore}) and hands them out from memory with a single
+ * {@code getAndIncrement}; only the thread that exhausts a block refills it. Numbers are therefore
+ * unique across the cluster but not gap-free: unused block remainders (restart, rollback of the
+ * creating transaction) are skipped, and numbers of different nodes interleave.
+ *
  * @author FreshPlan Team
  * @since 2.0.0
  */
 @ApplicationScoped
 public class CustomerNumberGeneratorService {
 
-  private final CustomerRepository customerRepository;
-  private final ReentrantLock lock = new ReentrantLock();
+  /** Highest sequence number that fits the five digits of the format. */
+  static final int MAX_SEQUENCE_NUMBER = 99_999;
+
+  /** Reserved numbers {@code [next, end)}. */
+  private static final class Block {
+    final AtomicInteger next;
+    final int end;
+
+    Block(int first, int count) {
+      this.next = new AtomicInteger(first);
+      this.end = first + count;
+    }
+  }
+
+  /** Current block of one year; its monitor guards refills. */
+  private static final class YearSlot {
+    final int year;
+    final AtomicReference<Block> block = new AtomicReference<>();
+
+    YearSlot(int year) {
+      this.year = year;
+    }
+  }
+
+  private final CustomerNumberBlockStore blockStore;
+  private final int blockSize;
+  private final Clock clock;
+  private final Map<Integer, YearSlot> slots = new ConcurrentHashMap<>();
 
   @Inject
-  public CustomerNumberGeneratorService(CustomerRepository customerRepository) {
-    this.customerRepository = customerRepository;
+  public CustomerNumberGeneratorService(
+      CustomerNumberBlockStore blockStore,
+      @ConfigProperty(name = "freshplan.customer.number.block-size", defaultValue = "20")
+          int blockSize) {
+    this(blockStore, blockSize, Clock.systemDefaultZone());
+  }
+
+  CustomerNumberGeneratorService(CustomerNumberBlockStore blockStore, int blockSize, Clock clock) {
+    this.blockStore = blockStore;
+    this.blockSize = blockSize;
+    this.clock = clock;
   }
 
   /**
    * Generates the next available customer number for the current year. Format: KD-YYYY-XXXXX
    *
-   * <p>This method is thread-safe using ReentrantLock to prevent duplicate numbers in concurrent
-   * scenarios.
+   * <p>Lock-free within the node's current block; a database round trip only every {@code
+   * block-size} numbers. The first number of a new year starts a new counter.
    *
    * @return Next available customer number
    */
-  @Transactional
   public String generateNext() {
-    lock.lock();
-    try {
-      int currentYear = Year.now().getValue();
-      String yearPrefix =
-          CustomerConstants.CUSTOMER_NUMBER_PREFIX
-              + CustomerConstants.CUSTOMER_NUMBER_SEPARATOR
-              + currentYear
-              + CustomerConstants.CUSTOMER_NUMBER_SEPARATOR;
-
-      // Get the highest number for current year
-      Integer maxNumber = customerRepository.getMaxCustomerNumberForYear(currentYear);
-
-      // Next number (starting from 1 if no customers exist for this year)
-      int nextNumber = (maxNumber != null) ? maxNumber + 1 : 1;
+    return generateForYear(Year.now(clock).getValue());
+  }
 
-      // Format with leading zeros (5 digits)
-      return yearPrefix + String.format("%05d", nextNumber);
+  /**
+   * Reserves {@code count} consecutive customer numbers for the current year with a single counter
+   * update, independent of the node's block. Used by bulk conversions and imports so that a chunk
+   * of customers needs one round trip instead of one per customer.
+   *
+   * @param count Number of customer numbers to generate
+   * @return Consecutive customer numbers, in ascending order
+   */
+  public List<String> generateNextBlock(int count) {
+    if (count <= 0) {
+      return List.of();
+    }
+    int year = Year.now(clock).getValue();
+    int first = blockStore.reserve(year, count);
+    checkCapacity(year, first + count - 1);
 
-    } finally {
-      lock.unlock();
+    List<String> numbers = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      numbers.add(format(year, first + i));
     }
+    return numbers;
   }
 
   /**
@@ -68,30 +116,63 @@ public class CustomerNumberGeneratorService {
    * @param year The year for which to generate the customer number
    * @return Next available customer number for the specified year
    */
-  @Transactional
   public String generateForYear(int year) {
-    lock.lock();
-    try {
-      String yearPrefix =
-          CustomerConstants.CUSTOMER_NUMBER_PREFIX
-              + CustomerConstants.CUSTOMER_NUMBER_SEPARATOR
-              + year
-              + CustomerConstants.CUSTOMER_NUMBER_SEPARATOR;
-
-      // Get the highest number for specified year
-      Integer maxNumber = customerRepository.getMaxCustomerNumberForYear(year);
+    YearSlot slot = slots.computeIfAbsent(year, YearSlot::new);
+    while (true) {
+      Block block = slot.block.get();
+      if (block != null) {
+        int number = block.next.getAndIncrement();
+        if (number < block.end) {
+          return format(year, number);
+        }
+      }
+      refill(slot, block);
+    }
+  }
 
-      // Next number
-      int nextNumber = (maxNumber != null) ? maxNumber + 1 : 1;
+  /** Replaces the exhausted (or missing) block, unless another thread already did. */
+  private void refill(YearSlot slot, Block exhausted) {
+    synchronized (slot) {
+      if (slot.block.get() != exhausted) {
+        return;
+      }
+      int first = blockStore.reserve(slot.year, blockSize);
+      checkCapacity(slot.year, first);
+      slot.block.set(new Block(first, Math.min(blockSize, MAX_SEQUENCE_NUMBER - first + 1)));
+      // Year rollover: remainders of past years' blocks are dropped (gaps)
+      int currentYear = Year.now(clock).getValue();
+      slots.keySet().removeIf(year -> year < currentYear && year != slot.year);
+    }
+  }
 
-      // Format with leading zeros (5 digits)
-      return yearPrefix + String.format("%05d", nextNumber);
+  /**
+   * Registers a customer number that was set manually instead of generated, so that the counter of
+   * its year moves behind it. Numbers in other formats are ignored.
+   *
+   * <p>Only future reservations skip the number; a block another node reserved earlier may still
+   * contain it, and the unique constraint on {@code customer_number} rejects that insert.
+   *
+   * @param customerNumber Manually set customer number
+   */
+  public void registerManual(String customerNumber) {
+    Integer year = extractYear(customerNumber);
+    Integer sequence = extractSequenceNumber(customerNumber);
+    if (year != null && sequence != null) {
+      blockStore.advancePast(year, sequence);
+    }
+  }
 
-    } finally {
-      lock.unlock();
+  private static void checkCapacity(int year, int number) {
+    if (number > MAX_SEQUENCE_NUMBER) {
+      throw new IllegalStateException(
+          "Customer numbers for " + year + " exhausted (max " + MAX_SEQUENCE_NUMBER + ")");
     }
   }
 
+  private static String format(int year, int number) {
+    return String.format(CustomerConstants.CUSTOMER_NUMBER_FORMAT, year, number);
+  }
+
   /**
    * Validates if a customer number follows the correct format.
    *
@@ -1,7 +1,9 @@
 package de.freshplan.domain.export.service;
 
-import de.freshplan.domain.audit.entity.AuditEntry;
 import de.freshplan.domain.audit.repository.AuditRepository;
+import de.freshplan.domain.audit.service.export.AuditExportFilter;
+import de.freshplan.domain.audit.service.export.AuditExportRow;
+import de.freshplan.domain.audit.service.export.AuditExportStreamer;
 import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.repository.CustomerRepository;
 import de.freshplan.domain.export.service.dto.ExportOptions;
@@ -10,10 +12,14 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.jboss.logging.Logger;
 
@@ -31,12 +37,17 @@ public class ExportServiceV2 {
 
   private static final Logger log = Logger.getLogger(ExportServiceV2.class);
 
+  /** Rows of the audit sheet kept in memory while streaming into the workbook. */
+  private static final int EXCEL_ROW_WINDOW = 100;
+
   @Inject AuditRepository auditRepository;
 
   @Inject CustomerRepository customerRepository;
 
   @Inject HtmlExportService htmlExportService;
 
+  @Inject AuditExportStreamer auditExportStreamer;
+
   /**
    * Generate HTML report for audit trail (to be printed as PDF) UPDATED: Returns HTML instead of
    * PDF bytes
@@ -80,38 +91,14 @@ public class ExportServiceV2 {
     html.append("</thead>");
     html.append("<tbody>");
 
-    List<AuditEntry> entries = auditRepository.findByFilters(request);
-    for (AuditEntry entry : entries) {
-      html.append("<tr>");
-      html.append("<td>").append(entry.getTimestamp().toString()).append("</td>");
-      html.append("<td>").append(escapeHtml(entry.getEventType().toString())).append("</td>");
-      html.append("<td>")
-          .append(escapeHtml(entry.getUserName() != null ? entry.getUserName() : "System"))
-          .append("</td>");
-      html.append("<td>")
-          .append(escapeHtml(entry.getEntityType()))
-          .append("/")
-          .append(entry.getEntityId())
-          .append("</td>");
-
-      String changes = "";
-      if (entry.getOldValue() != null || entry.getNewValue() != null) {
-        changes =
-            "Old: "
-                + (entry.getOldValue() != null ? entry.getOldValue() : "null")
-                + ", New: "
-                + (entry.getNewValue() != null ? entry.getNewValue() : "null");
-      }
-      html.append("<td>").append(escapeHtml(changes)).append("</td>");
-      html.append("</tr>");
-    }
+    long entryCount = streamAuditRows(request, row -> appendAuditHtmlRow(html, row));
 
     html.append("</tbody>");
     html.append("</table>");
 
     // Footer
     html.append("<div class='footer'>");
-    html.append("<p>Total Entries: ").append(entries.size()).append("</p>");
+    html.append("<p>Total Entries: ").append(entryCount).append("</p>");
     html.append("<p>© 2025 FreshPlan - Confidential</p>");
     html.append("</div>");
 
@@ -125,14 +112,51 @@ public class ExportServiceV2 {
     return html.toString();
   }
 
+  private void appendAuditHtmlRow(StringBuilder html, AuditExportRow row) {
+    html.append("<tr>");
+    html.append("<td>").append(row.timestamp()).append("</td>");
+    html.append("<td>").append(escapeHtml(row.eventType())).append("</td>");
+    html.append("<td>")
+        .append(escapeHtml(row.userName() != null ? row.userName() : "System"))
+        .append("</td>");
+    html.append("<td>")
+        .append(escapeHtml(row.entityType()))
+        .append("/")
+        .append(row.entityId())
+        .append("</td>");
+    html.append("<td>").append(escapeHtml(formatChanges(row))).append("</td>");
+    html.append("</tr>");
+  }
+
+  private static String formatChanges(AuditExportRow row) {
+    if (row.oldValue() == null && row.newValue() == null) {
+      return "";
+    }
+    return "Old: "
+        + (row.oldValue() != null ? row.oldValue() : "null")
+        + ", New: "
+        + (row.newValue() != null ? row.newValue() : "null");
+  }
+
+  /** Reads the audit rows of an export request from one database cursor. */
+  private long streamAuditRows(ExportRequest request, AuditExportStreamer.RowHandler handler) {
+    try {
+      return auditExportStreamer.forEachRow(AuditExportFilter.from(request), handler);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   /**
    * Generate Excel workbook for audit analysis UNCHANGED: Excel generation still uses Apache POI
    */
   public byte[] generateAuditExcel(ExportRequest request) {
-    try (Workbook workbook = new XSSFWorkbook();
+    SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+    try (workbook;
         ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
 
-      Sheet sheet = workbook.createSheet("Audit Trail");
+      SXSSFSheet sheet = workbook.createSheet("Audit Trail");
+      sheet.trackAllColumnsForAutoSizing();
 
       // Create header style
       CellStyle headerStyle = workbook.createCellStyle();
@@ -154,30 +178,23 @@ public class ExportServiceV2 {
         cell.setCellStyle(headerStyle);
       }
 
-      // Add data rows
-      List<AuditEntry> entries = auditRepository.findByFilters(request);
-      int rowNum = 1;
-
-      for (AuditEntry entry : entries) {
-        Row row = sheet.createRow(rowNum++);
-        row.createCell(0).setCellValue(entry.getId().toString());
-        row.createCell(1).setCellValue(entry.getTimestamp().toString());
-        row.createCell(2).setCellValue(entry.getEventType().toString());
-        row.createCell(3).setCellValue(entry.getEntityType());
-        row.createCell(4).setCellValue(entry.getEntityId().toString());
-        row.createCell(5)
-            .setCellValue(entry.getUserName() != null ? entry.getUserName() : "System");
-        row.createCell(6).setCellValue(entry.getIpAddress() != null ? entry.getIpAddress() : "");
-        String changes = "";
-        if (entry.getOldValue() != null || entry.getNewValue() != null) {
-          changes =
-              "Old: "
-                  + (entry.getOldValue() != null ? entry.getOldValue() : "null")
-                  + ", New: "
-                  + (entry.getNewValue() != null ? entry.getNewValue() : "null");
-        }
-        row.createCell(7).setCellValue(changes);
-      }
+      // Add data rows (SXSSF keeps only EXCEL_ROW_WINDOW rows in memory)
+      int[] rowNum = {1};
+      long entryCount =
+          streamAuditRows(
+              request,
+              entry -> {
+                Row row = sheet.createRow(rowNum[0]++);
+                row.createCell(0).setCellValue(entry.id().toString());
+                row.createCell(1).setCellValue(entry.timestamp().toString());
+                row.createCell(2).setCellValue(entry.eventType());
+                row.createCell(3).setCellValue(entry.entityType());
+                row.createCell(4).setCellValue(entry.entityId().toString());
+                row.createCell(5)
+                    .setCellValue(entry.userName() != null ? entry.userName() : "System");
+                row.createCell(6).setCellValue(entry.ipAddress() != null ? entry.ipAddress() : "");
+                row.createCell(7).setCellValue(formatChanges(entry));
+              });
 
       // Auto-size columns
       for (int i = 0; i < headers.length; i++) {
@@ -192,7 +209,7 @@ public class ExportServiceV2 {
 
       Row totalRow = summarySheet.createRow(1);
       totalRow.createCell(0).setCellValue("Total Entries");
-      totalRow.createCell(1).setCellValue(entries.size());
+      totalRow.createCell(1).setCellValue(entryCount);
 
       // Write to output stream
       workbook.write(baos);
@@ -201,6 +218,8 @@ public class ExportServiceV2 {
     } catch (Exception e) {
       log.error("Error generating Excel", e);
       throw new RuntimeException("Failed to generate Excel report", e);
+    } finally {
+      workbook.dispose();
     }
   }
 
@@ -357,16 +376,21 @@ public class ExportServiceV2 {
               .dateFrom(options.getDateFrom())
               .dateTo(options.getDateTo())
               .build();
-      List<AuditEntry> entries = auditRepository.findByFilters(auditRequest);
+      long[] modifications = {0};
+      long totalEntries =
+          streamAuditRows(
+              auditRequest,
+              row -> {
+                if ("UPDATE".equals(row.eventType())) {
+                  modifications[0]++;
+                }
+              });
 
       html.append("<ul class='compliance-list'>");
-      html.append("<li>Total Audit Entries: ").append(entries.size()).append("</li>");
+      html.append("<li>Total Audit Entries: ").append(totalEntries).append("</li>");
       html.append("<li class='compliant'>✅ Critical Events: 0</li>");
       html.append("<li class='compliant'>✅ Unauthorized Access Attempts: 0</li>");
-      html.append("<li>Data Modifications: ")
-          .append(
-              entries.stream().filter(e -> "UPDATE".equals(e.getEventType().toString())).count())
-          .append("</li>");
+      html.append("<li>Data Modifications: ").append(modifications[0]).append("</li>");
       html.append("</ul>");
       html.append("</div>");
     }
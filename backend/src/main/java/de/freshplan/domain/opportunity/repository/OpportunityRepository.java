@@ -58,37 +58,6 @@ public class OpportunityRepository implements PanacheRepositoryBase<Opportunity,
   // PIPELINE-SPECIFIC QUERIES
   // =====================================
 
-  /** Pipeline-Übersicht: Gruppiert Opportunities nach Stage */
-  public List<Object[]> getPipelineOverview() {
-    return getEntityManager()
-        .createQuery(
-            """
-                    SELECT o.stage, COUNT(o), COALESCE(SUM(o.expectedValue), 0)
-                    FROM Opportunity o
-                    WHERE o.stage IN (:activeStages)
-                    GROUP BY o.stage
-                    ORDER BY
-                        CASE o.stage
-                            WHEN 'NEW_LEAD' THEN 1
-                            WHEN 'QUALIFICATION' THEN 2
-                            WHEN 'NEEDS_ANALYSIS' THEN 3
-                            WHEN 'PROPOSAL' THEN 4
-                            WHEN 'NEGOTIATION' THEN 5
-                            ELSE 6
-                        END
-                    """,
-            Object[].class)
-        .setParameter(
-            "activeStages",
-            List.of(
-                OpportunityStage.NEW_LEAD,
-                OpportunityStage.QUALIFICATION,
-                OpportunityStage.NEEDS_ANALYSIS,
-                OpportunityStage.PROPOSAL,
-                OpportunityStage.NEGOTIATION))
-        .getResultList();
-  }
-
   /** Findet Opportunities mit hoher Priorität (hoher Wert, baldiges Close-Datum) */
   public List<Opportunity> findHighPriorityOpportunities(int limit) {
     return getEntityManager()
@@ -109,8 +78,11 @@ public class OpportunityRepository implements PanacheRepositoryBase<Opportunity,
         .getResultList();
   }
 
-  /** Findet überfällige Opportunities (Close-Datum überschritten) */
-  public List<Opportunity> findOverdueOpportunities() {
+  /**
+   * Findet überfällige Opportunities (Close-Datum überschritten), älteste zuerst. Begrenzt auf
+   * {@code limit} - die Gesamtzahl liefert {@link #getPipelineStageAggregates(User)}.
+   */
+  public List<Opportunity> findOverdueOpportunities(int limit) {
     return find(
             """
                 stage IN (?1, ?2, ?3, ?4, ?5)
@@ -124,9 +96,109 @@ public class OpportunityRepository implements PanacheRepositoryBase<Opportunity,
             OpportunityStage.PROPOSAL,
             OpportunityStage.NEGOTIATION,
             LocalDate.now())
+        .page(Page.ofSize(limit))
         .list();
   }
 
+  // =====================================
+  // ONE-PASS PIPELINE AGGREGATES
+  // =====================================
+
+  private static final List<OpportunityStage> CLOSED_STAGES =
+      List.of(OpportunityStage.CLOSED_WON, OpportunityStage.CLOSED_LOST);
+
+  private static final String STAGE_AGGREGATES =
+      """
+          COUNT(o),
+          COALESCE(SUM(o.expectedValue), 0),
+          COALESCE(SUM(o.expectedValue * o.probability / 100.0), 0),
+          COUNT(o) FILTER (WHERE o.stage NOT IN (:closed) AND o.expectedCloseDate < :today),
+          COALESCE(SUM(o.expectedValue)
+              FILTER (WHERE o.stage NOT IN (:closed) AND o.expectedCloseDate < :today), 0)
+          """;
+
+  /**
+   * Stage-Statistiken, Forecast-Beiträge und Überfällige in <b>einem</b> gruppierten Scan (statt je
+   * einer Query für Stages, Forecast, Conversion Rate und Überfällige).
+   *
+   * @param assignedTo Nur Opportunities dieses Verkäufers, {@code null} für die ganze Pipeline
+   * @return Eine Zeile pro Stage mit Opportunities (inkl. CLOSED_WON/CLOSED_LOST)
+   */
+  public List<PipelineStageAggregate> getPipelineStageAggregates(User assignedTo) {
+    var query =
+        getEntityManager()
+            .createQuery(
+                "SELECT o.stage, "
+                    + STAGE_AGGREGATES
+                    + " FROM Opportunity o"
+                    + (assignedTo != null ? " WHERE o.assignedTo = :user" : "")
+                    + " GROUP BY o.stage",
+                Object[].class)
+            .setParameter("closed", CLOSED_STAGES)
+            .setParameter("today", LocalDate.now());
+    if (assignedTo != null) {
+      query.setParameter("user", assignedTo);
+    }
+    return query.getResultList().stream()
+        .map(row -> toAggregate(null, null, (OpportunityStage) row[0], row, 1))
+        .toList();
+  }
+
+  /**
+   * Stage-Aggregate aller Verkäufer in einem Scan, gruppiert nach Verkäufer und Stage - Basis der
+   * Team-Ansicht. Nicht zugewiesene Opportunities erscheinen mit {@code assignedToId = null}.
+   */
+  public List<PipelineStageAggregate> getTeamPipelineStageAggregates() {
+    return getEntityManager()
+        .createQuery(
+            "SELECT u.id, u.firstName, u.lastName, u.username, o.stage, "
+                + STAGE_AGGREGATES
+                + " FROM Opportunity o LEFT JOIN o.assignedTo u"
+                + " GROUP BY u.id, u.firstName, u.lastName, u.username, o.stage",
+            Object[].class)
+        .setParameter("closed", CLOSED_STAGES)
+        .setParameter("today", LocalDate.now())
+        .getResultList()
+        .stream()
+        .map(
+            row ->
+                toAggregate(
+                    (UUID) row[0],
+                    displayName((String) row[1], (String) row[2], (String) row[3]),
+                    (OpportunityStage) row[4],
+                    row,
+                    5))
+        .toList();
+  }
+
+  private static PipelineStageAggregate toAggregate(
+      UUID userId, String userName, OpportunityStage stage, Object[] row, int offset) {
+    return new PipelineStageAggregate(
+        userId,
+        userName,
+        stage,
+        ((Number) row[offset]).longValue(),
+        toBigDecimal(row[offset + 1]),
+        toBigDecimal(row[offset + 2]),
+        ((Number) row[offset + 3]).longValue(),
+        toBigDecimal(row[offset + 4]));
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    if (value == null) {
+      return BigDecimal.ZERO;
+    }
+    return value instanceof BigDecimal decimal
+        ? decimal
+        : BigDecimal.valueOf(((Number) value).doubleValue());
+  }
+
+  private static String displayName(String firstName, String lastName, String username) {
+    String name =
+        ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    return name.isEmpty() ? username : name;
+  }
+
   // =====================================
   // BUSINESS INTELLIGENCE QUERIES
   // =====================================
@@ -155,30 +227,6 @@ public class OpportunityRepository implements PanacheRepositoryBase<Opportunity,
     return BigDecimal.valueOf(result);
   }
 
-  /** Conversion Rate: Prozentsatz gewonnener Opportunities */
-  public Double getConversionRate() {
-    Object[] result =
-        getEntityManager()
-            .createQuery(
-                """
-                    SELECT
-                        COUNT(CASE WHEN o.stage = :won THEN 1 END) as won,
-                        COUNT(CASE WHEN o.stage IN (:closed) THEN 1 END) as total
-                    FROM Opportunity o
-                    WHERE o.stage IN (:closed)
-                    """,
-                Object[].class)
-            .setParameter("won", OpportunityStage.CLOSED_WON)
-            .setParameter(
-                "closed", List.of(OpportunityStage.CLOSED_WON, OpportunityStage.CLOSED_LOST))
-            .getSingleResult();
-
-    Long won = (Long) result[0];
-    Long total = (Long) result[1];
-
-    return total > 0 ? (won.doubleValue() / total.doubleValue() * 100) : 0.0;
-  }
-
   /** Findet Opportunities die lange in einer Stage stehen (Bottleneck Analysis) */
   public List<Opportunity> findStagnantOpportunities(int daysInStage) {
     return getEntityManager()
@@ -294,58 +342,54 @@ public class OpportunityRepository implements PanacheRepositoryBase<Opportunity,
     return typedQuery;
   }
 
-  /** Get performance metrics for a specific user */
+  /** Get performance metrics for a specific user (one aggregate query) */
   public Map<String, Object> getUserPerformanceMetrics(User user) {
-    Map<String, Object> metrics = new HashMap<>();
-
-    // Total opportunities
-    Long totalOpportunities = count("assignedTo", user);
-    metrics.put("totalOpportunities", totalOpportunities);
-
-    // Won opportunities
-    Long wonOpportunities =
-        count("assignedTo = ?1 and stage = ?2", user, OpportunityStage.CLOSED_WON);
-    metrics.put("wonOpportunities", wonOpportunities);
-
-    // Total value
-    BigDecimal totalValue =
-        getEntityManager()
-            .createQuery(
-                "SELECT COALESCE(SUM(o.expectedValue), 0) FROM Opportunity o WHERE o.assignedTo = :user",
-                BigDecimal.class)
-            .setParameter("user", user)
-            .getSingleResult();
-    metrics.put("totalValue", totalValue);
-
-    // Won value
-    BigDecimal wonValue =
+    Object[] row =
         getEntityManager()
             .createQuery(
-                "SELECT COALESCE(SUM(o.expectedValue), 0) FROM Opportunity o WHERE o.assignedTo = :user AND o.stage = :stage",
-                BigDecimal.class)
+                """
+                    SELECT
+                        COUNT(o),
+                        COUNT(o) FILTER (WHERE o.stage = :won),
+                        COALESCE(SUM(o.expectedValue), 0),
+                        COALESCE(SUM(o.expectedValue) FILTER (WHERE o.stage = :won), 0)
+                    FROM Opportunity o
+                    WHERE o.assignedTo = :user
+                    """,
+                Object[].class)
             .setParameter("user", user)
-            .setParameter("stage", OpportunityStage.CLOSED_WON)
+            .setParameter("won", OpportunityStage.CLOSED_WON)
             .getSingleResult();
-    metrics.put("wonValue", wonValue);
 
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("totalOpportunities", ((Number) row[0]).longValue());
+    metrics.put("wonOpportunities", ((Number) row[1]).longValue());
+    metrics.put("totalValue", toBigDecimal(row[2]));
+    metrics.put("wonValue", toBigDecimal(row[3]));
     return metrics;
   }
 
   /** Calculate win rate for a user */
   public Double getWinRateForUser(User user) {
-    Long totalClosed =
-        count(
-            "assignedTo = ?1 and (stage = ?2 or stage = ?3)",
-            user,
-            OpportunityStage.CLOSED_WON,
-            OpportunityStage.CLOSED_LOST);
-
-    if (totalClosed == 0) {
-      return 0.0;
-    }
+    Object[] row =
+        getEntityManager()
+            .createQuery(
+                """
+                    SELECT
+                        COUNT(o) FILTER (WHERE o.stage = :won),
+                        COUNT(o)
+                    FROM Opportunity o
+                    WHERE o.assignedTo = :user AND o.stage IN (:closed)
+                    """,
+                Object[].class)
+            .setParameter("user", user)
+            .setParameter("won", OpportunityStage.CLOSED_WON)
+            .setParameter("closed", CLOSED_STAGES)
+            .getSingleResult();
 
-    Long won = count("assignedTo = ?1 and stage = ?2", user, OpportunityStage.CLOSED_WON);
-    return (double) won / totalClosed * 100;
+    long won = ((Number) row[0]).longValue();
+    long totalClosed = ((Number) row[1]).longValue();
+    return totalClosed == 0 ? 0.0 : (double) won / totalClosed * 100;
   }
 
   /** Find top opportunities by value */
@@ -0,0 +1,122 @@
+package de.freshplan.domain.opportunity.repository;
+
+import de.freshplan.domain.opportunity.entity.OpportunityStage;
+import de.freshplan.domain.opportunity.service.dto.PipelineTrendPoint;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Access für {@code pipeline_daily_snapshots}.
+ *
+ * <p>Schreiben und Lesen laufen als native SQL: der Snapshot ist ein einziges {@code INSERT ...
+ * SELECT ... GROUP BY} über {@code opportunities}, Trends sind reine Aggregat-Reads ohne Entities.
+ */
+@ApplicationScoped
+public class PipelineSnapshotRepository {
+
+  static final String CAPTURE_SQL =
+      """
+      INSERT INTO pipeline_daily_snapshots
+          (snapshot_date, stage, assigned_to, opportunity_count, total_value, weighted_value,
+           overdue_count, overdue_value)
+      SELECT
+          CAST(:day AS date),
+          o.stage,
+          o.assigned_to,
+          COUNT(*),
+          COALESCE(SUM(o.expected_value), 0),
+          COALESCE(SUM(o.expected_value * o.probability / 100.0), 0),
+          COUNT(*) FILTER (WHERE o.stage NOT IN ('CLOSED_WON', 'CLOSED_LOST')
+                             AND o.expected_close_date < CAST(:day AS date)),
+          COALESCE(SUM(o.expected_value) FILTER (WHERE o.stage NOT IN ('CLOSED_WON', 'CLOSED_LOST')
+                             AND o.expected_close_date < CAST(:day AS date)), 0)
+      FROM opportunities o
+      GROUP BY o.stage, o.assigned_to
+      ON CONFLICT (snapshot_date,
+                   COALESCE(assigned_to, CAST('00000000-0000-0000-0000-000000000000' AS uuid)),
+                   stage) DO UPDATE SET
+          opportunity_count = EXCLUDED.opportunity_count,
+          total_value = EXCLUDED.total_value,
+          weighted_value = EXCLUDED.weighted_value,
+          overdue_count = EXCLUDED.overdue_count,
+          overdue_value = EXCLUDED.overdue_value,
+          created_at = NOW()
+      """;
+
+  @Inject EntityManager em;
+
+  /**
+   * Schreibt den Snapshot für {@code day} (idempotent). Zeilen eines früheren Laufs am selben Tag,
+   * die dieser Lauf nicht überschrieben hat ({@code created_at} vor Transaktionsbeginn), werden
+   * entfernt - z.B. Stages eines Verkäufers, die inzwischen leer sind.
+   *
+   * @return Anzahl geschriebener Zeilen
+   */
+  public int capture(LocalDate day) {
+    Date sqlDay = Date.valueOf(day);
+    int written = em.createNativeQuery(CAPTURE_SQL).setParameter("day", sqlDay).executeUpdate();
+    em.createNativeQuery(
+            """
+            DELETE FROM pipeline_daily_snapshots
+            WHERE snapshot_date = :day AND created_at < NOW()
+            """)
+        .setParameter("day", sqlDay)
+        .executeUpdate();
+    return written;
+  }
+
+  /**
+   * Tageswerte pro Stage im Zeitraum.
+   *
+   * @param assignedTo Nur dieser Verkäufer, {@code null} für das ganze Team
+   */
+  @SuppressWarnings("unchecked")
+  public List<PipelineTrendPoint> findTrend(LocalDate from, LocalDate to, UUID assignedTo) {
+    var query =
+        em.createNativeQuery(
+                """
+                SELECT snapshot_date, stage,
+                       SUM(opportunity_count), SUM(total_value), SUM(weighted_value),
+                       SUM(overdue_count), SUM(overdue_value)
+                FROM pipeline_daily_snapshots
+                WHERE snapshot_date BETWEEN :from AND :to
+                """
+                    + (assignedTo != null ? " AND assigned_to = :user" : "")
+                    + " GROUP BY snapshot_date, stage ORDER BY snapshot_date, stage")
+            .setParameter("from", Date.valueOf(from))
+            .setParameter("to", Date.valueOf(to));
+    if (assignedTo != null) {
+      query.setParameter("user", assignedTo);
+    }
+    return ((List<Object[]>) query.getResultList())
+        .stream()
+            .map(
+                row ->
+                    new PipelineTrendPoint(
+                        toLocalDate(row[0]),
+                        OpportunityStage.valueOf((String) row[1]),
+                        ((Number) row[2]).longValue(),
+                        toBigDecimal(row[3]),
+                        toBigDecimal(row[4]),
+                        ((Number) row[5]).longValue(),
+                        toBigDecimal(row[6])))
+            .toList();
+  }
+
+  private static LocalDate toLocalDate(Object value) {
+    return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    if (value == null) {
+      return BigDecimal.ZERO;
+    }
+    return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+  }
+}
@@ -0,0 +1,27 @@
+package de.freshplan.domain.opportunity.repository;
+
+import de.freshplan.domain.opportunity.entity.OpportunityStage;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Aggregated opportunities of one stage (optionally of one sales rep) from a single grouped scan.
+ *
+ * @param assignedToId Sales rep, {@code null} for the whole pipeline or unassigned opportunities
+ * @param assignedToName Display name of the sales rep, {@code null} if not grouped by rep
+ * @param stage Pipeline stage
+ * @param count Number of opportunities
+ * @param totalValue Sum of expected values
+ * @param weightedValue Sum of expected value × probability (forecast contribution)
+ * @param overdueCount Active opportunities past their expected close date
+ * @param overdueValue Expected value of the overdue opportunities
+ */
+public record PipelineStageAggregate(
+    UUID assignedToId,
+    String assignedToName,
+    OpportunityStage stage,
+    long count,
+    BigDecimal totalValue,
+    BigDecimal weightedValue,
+    long overdueCount,
+    BigDecimal overdueValue) {}
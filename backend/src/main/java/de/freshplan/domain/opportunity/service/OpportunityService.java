@@ -5,6 +5,7 @@ import de.freshplan.domain.audit.service.AuditService;
 import de.freshplan.domain.audit.service.dto.AuditContext;
 import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.repository.CustomerRepository;
+import de.freshplan.domain.customer.service.util.CustomerNumberGeneratorService;
 import de.freshplan.domain.opportunity.entity.Opportunity;
 import de.freshplan.domain.opportunity.entity.OpportunityActivity;
 import de.freshplan.domain.opportunity.entity.OpportunityStage;
@@ -22,6 +23,7 @@ import de.freshplan.domain.opportunity.service.exception.InvalidStageTransitionE
 import de.freshplan.domain.opportunity.service.exception.OpportunityNotFoundException;
 import de.freshplan.domain.opportunity.service.mapper.OpportunityMapper;
 import de.freshplan.domain.opportunity.service.query.OpportunityQueryService;
+import de.freshplan.domain.opportunity.service.query.PipelineAnalyticsService;
 import de.freshplan.domain.user.entity.User;
 import de.freshplan.domain.user.repository.UserRepository;
 import de.freshplan.modules.leads.events.LeadEventPublisher;
@@ -62,6 +64,8 @@ public class OpportunityService {
 
   @Inject CustomerRepository customerRepository;
 
+  @Inject CustomerNumberGeneratorService customerNumberGenerator;
+
   @Inject UserRepository userRepository;
 
   @Inject OpportunityMapper opportunityMapper;
@@ -75,6 +79,8 @@ public class OpportunityService {
 
   @Inject OpportunityQueryService queryService;
 
+  @Inject PipelineAnalyticsService pipelineAnalyticsService;
+
   // Sprint 2.1.7.4: Auto-Conversion Dependencies
   @Inject LeadConvertService leadConvertService;
 
@@ -478,7 +484,7 @@ public class OpportunityService {
     customer.setCompanyName(companyName);
 
     // 6. Generate customer number
-    customer.setCustomerNumber(generateCustomerNumber());
+    customer.setCustomerNumber(customerNumberGenerator.generateNext());
 
     // 7. Set initial status and lifecycle
     customer.setStatus(de.freshplan.domain.customer.entity.CustomerStatus.AKTIV);
@@ -553,28 +559,6 @@ public class OpportunityService {
     return customer;
   }
 
-  /**
-   * Generates next customer number in format KD-XXXXX.
-   *
-   * <p>Uses PostgreSQL sequence for atomic, guaranteed-unique customer numbers. This prevents race
-   * conditions when multiple concurrent requests create customers.
-   *
-   * <p>Migration V10028 creates the sequence and initializes it.
-   *
-   * @return generated customer number (e.g., "KD-00001")
-   * @since Sprint 2.1.7 Code Review Fix (Race Condition)
-   */
-  private String generateCustomerNumber() {
-    // Use PostgreSQL sequence for atomic number generation (race condition safe)
-    Long nextVal =
-        (Long)
-            customerRepository
-                .getEntityManager()
-                .createNativeQuery("SELECT nextval('customer_number_seq')")
-                .getSingleResult();
-    return String.format("KD-%05d", nextVal);
-  }
-
   /**
    * Creates an Opportunity for an existing Customer (Upsell/Cross-sell/Renewal).
    *
@@ -876,31 +860,7 @@ public class OpportunityService {
 
     logger.debug("Generating pipeline overview");
 
-    List<Object[]> stageStats = opportunityRepository.getPipelineOverview();
-    BigDecimal totalForecast = opportunityRepository.calculateForecast();
-    Double conversionRate = opportunityRepository.getConversionRate();
-
-    List<Opportunity> highPriority = opportunityRepository.findHighPriorityOpportunities(5);
-    List<Opportunity> overdue = opportunityRepository.findOverdueOpportunities();
-
-    return PipelineOverviewResponse.builder()
-        .stageStatistics(
-            stageStats.stream()
-                .map(
-                    stat ->
-                        PipelineOverviewResponse.StageStatistic.builder()
-                            .stage((OpportunityStage) stat[0])
-                            .count((Long) stat[1])
-                            .totalValue((BigDecimal) stat[2])
-                            .build())
-                .collect(Collectors.toList()))
-        .totalForecast(totalForecast)
-        .conversionRate(conversionRate)
-        .highPriorityOpportunities(
-            highPriority.stream().map(opportunityMapper::toResponse).collect(Collectors.toList()))
-        .overdueOpportunities(
-            overdue.stream().map(opportunityMapper::toResponse).collect(Collectors.toList()))
-        .build();
+    return pipelineAnalyticsService.getPipelineOverview();
   }
 
   /** Findet Opportunities eines bestimmten Verkäufers */
@@ -18,6 +18,9 @@ public class PipelineOverviewResponse {
   private List<OpportunityResponse> highPriorityOpportunities;
   private List<OpportunityResponse> overdueOpportunities;
 
+  /** Gesamtzahl überfälliger Opportunities ({@link #overdueOpportunities} ist begrenzt) */
+  private Long overdueCount;
+
   // Default constructor
   public PipelineOverviewResponse() {}
 
@@ -54,6 +57,11 @@ public class PipelineOverviewResponse {
       return this;
     }
 
+    public Builder overdueCount(Long overdueCount) {
+      response.overdueCount = overdueCount;
+      return this;
+    }
+
     public PipelineOverviewResponse build() {
       return response;
     }
@@ -164,4 +172,12 @@ public class PipelineOverviewResponse {
   public void setOverdueOpportunities(List<OpportunityResponse> overdueOpportunities) {
     this.overdueOpportunities = overdueOpportunities;
   }
+
+  public Long getOverdueCount() {
+    return overdueCount;
+  }
+
+  public void setOverdueCount(Long overdueCount) {
+    this.overdueCount = overdueCount;
+  }
 }
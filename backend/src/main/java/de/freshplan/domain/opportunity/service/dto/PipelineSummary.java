@@ -0,0 +1,95 @@
+package de.freshplan.domain.opportunity.service.dto;
+
+import de.freshplan.domain.opportunity.entity.OpportunityStage;
+import de.freshplan.domain.opportunity.repository.PipelineStageAggregate;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Kennzahlen einer Pipeline (gesamt oder eines Verkäufers), abgeleitet aus den Stage-Aggregaten
+ * eines einzigen gruppierten Scans.
+ *
+ * @param stageStatistics Aktive Stages in Pipeline-Reihenfolge
+ * @param activeValue Summe der erwarteten Werte aktiver Opportunities
+ * @param forecast Gewichteter Forecast (Wert × Wahrscheinlichkeit) aktiver Opportunities
+ * @param conversionRate Gewonnen / abgeschlossen in Prozent
+ * @param wonCount Gewonnene Opportunities
+ * @param wonValue Wert der gewonnenen Opportunities
+ * @param lostCount Verlorene Opportunities
+ * @param overdueCount Aktive Opportunities mit überschrittenem Close-Datum
+ * @param overdueValue Wert der überfälligen Opportunities
+ */
+public record PipelineSummary(
+    List<PipelineOverviewResponse.StageStatistic> stageStatistics,
+    BigDecimal activeValue,
+    BigDecimal forecast,
+    Double conversionRate,
+    long wonCount,
+    BigDecimal wonValue,
+    long lostCount,
+    long overdueCount,
+    BigDecimal overdueValue) {
+
+  /** Verdichtet die Stage-Aggregate (eine Zeile pro Stage, ggf. mehrere Verkäufer) */
+  public static PipelineSummary from(List<PipelineStageAggregate> aggregates) {
+    BigDecimal activeValue = BigDecimal.ZERO;
+    BigDecimal forecast = BigDecimal.ZERO;
+    BigDecimal wonValue = BigDecimal.ZERO;
+    BigDecimal overdueValue = BigDecimal.ZERO;
+    long won = 0;
+    long lost = 0;
+    long overdue = 0;
+    long[] counts = new long[OpportunityStage.values().length];
+    BigDecimal[] values = new BigDecimal[OpportunityStage.values().length];
+
+    for (PipelineStageAggregate aggregate : aggregates) {
+      OpportunityStage stage = aggregate.stage();
+      counts[stage.ordinal()] += aggregate.count();
+      values[stage.ordinal()] =
+          values[stage.ordinal()] == null
+              ? aggregate.totalValue()
+              : values[stage.ordinal()].add(aggregate.totalValue());
+
+      if (stage == OpportunityStage.CLOSED_WON) {
+        won += aggregate.count();
+        wonValue = wonValue.add(aggregate.totalValue());
+      } else if (stage == OpportunityStage.CLOSED_LOST) {
+        lost += aggregate.count();
+      } else {
+        activeValue = activeValue.add(aggregate.totalValue());
+        forecast = forecast.add(aggregate.weightedValue());
+        overdue += aggregate.overdueCount();
+        overdueValue = overdueValue.add(aggregate.overdueValue());
+      }
+    }
+
+    List<PipelineOverviewResponse.StageStatistic> stageStatistics =
+        aggregates.stream()
+            .map(PipelineStageAggregate::stage)
+            .filter(OpportunityStage::isActive)
+            .distinct()
+            .sorted(Comparator.naturalOrder())
+            .map(
+                stage ->
+                    PipelineOverviewResponse.StageStatistic.builder()
+                        .stage(stage)
+                        .count(counts[stage.ordinal()])
+                        .totalValue(values[stage.ordinal()])
+                        .build())
+            .toList();
+
+    long closed = won + lost;
+    return new PipelineSummary(
+        stageStatistics,
+        activeValue,
+        forecast.setScale(2, RoundingMode.HALF_UP),
+        closed > 0 ? (double) won / closed * 100 : 0.0,
+        won,
+        wonValue,
+        lost,
+        overdue,
+        overdueValue);
+  }
+}
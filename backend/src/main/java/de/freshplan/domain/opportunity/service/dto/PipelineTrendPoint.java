@@ -0,0 +1,25 @@
+package de.freshplan.domain.opportunity.service.dto;
+
+import de.freshplan.domain.opportunity.entity.OpportunityStage;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Tageswert einer Stage aus {@code pipeline_daily_snapshots} (Trend- und Forecast-Charts).
+ *
+ * @param date Snapshot-Tag
+ * @param stage Stage
+ * @param count Anzahl Opportunities
+ * @param totalValue Summe erwarteter Werte
+ * @param weightedValue Forecast-Beitrag
+ * @param overdueCount Überfällige Opportunities
+ * @param overdueValue Wert der überfälligen Opportunities
+ */
+public record PipelineTrendPoint(
+    LocalDate date,
+    OpportunityStage stage,
+    long count,
+    BigDecimal totalValue,
+    BigDecimal weightedValue,
+    long overdueCount,
+    BigDecimal overdueValue) {}
@@ -0,0 +1,12 @@
+package de.freshplan.domain.opportunity.service.dto;
+
+import java.util.UUID;
+
+/**
+ * Pipeline eines Verkäufers in der Team-Ansicht.
+ *
+ * @param userId Verkäufer, {@code null} für nicht zugewiesene Opportunities
+ * @param name Anzeigename
+ * @param pipeline Kennzahlen
+ */
+public record SalesRepPipelineResponse(UUID userId, String name, PipelineSummary pipeline) {}
@@ -42,6 +42,8 @@ public class OpportunityQueryService {
 
   @Inject OpportunityMapper opportunityMapper;
 
+  @Inject PipelineAnalyticsService pipelineAnalyticsService;
+
   // =====================================
   // BASIC QUERY OPERATIONS
   // =====================================
@@ -107,37 +109,11 @@ public class OpportunityQueryService {
   // =====================================
 
   /**
-   * Pipeline Übersicht mit Stage-Statistiken EXAKTE KOPIE von
-   * OpportunityService.getPipelineOverview() Zeile 259-287
+   * Pipeline Übersicht mit Stage-Statistiken - beide Seiten nutzen die {@link
+   * PipelineAnalyticsService} (ein gruppierter Scan)
    */
   public PipelineOverviewResponse getPipelineOverview() {
-    logger.debug("Generating pipeline overview");
-
-    List<Object[]> stageStats = opportunityRepository.getPipelineOverview();
-    BigDecimal totalForecast = opportunityRepository.calculateForecast();
-    Double conversionRate = opportunityRepository.getConversionRate();
-
-    List<Opportunity> highPriority = opportunityRepository.findHighPriorityOpportunities(5);
-    List<Opportunity> overdue = opportunityRepository.findOverdueOpportunities();
-
-    return PipelineOverviewResponse.builder()
-        .stageStatistics(
-            stageStats.stream()
-                .map(
-                    stat ->
-                        PipelineOverviewResponse.StageStatistic.builder()
-                            .stage((OpportunityStage) stat[0])
-                            .count((Long) stat[1])
-                            .totalValue((BigDecimal) stat[2])
-                            .build())
-                .collect(Collectors.toList()))
-        .totalForecast(totalForecast)
-        .conversionRate(conversionRate)
-        .highPriorityOpportunities(
-            highPriority.stream().map(opportunityMapper::toResponse).collect(Collectors.toList()))
-        .overdueOpportunities(
-            overdue.stream().map(opportunityMapper::toResponse).collect(Collectors.toList()))
-        .build();
+    return pipelineAnalyticsService.getPipelineOverview();
   }
 
   // =====================================
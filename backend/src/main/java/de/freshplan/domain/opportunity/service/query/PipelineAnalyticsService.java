@@ -0,0 +1,129 @@
+package de.freshplan.domain.opportunity.service.query;
+
+import de.freshplan.domain.opportunity.entity.Opportunity;
+import de.freshplan.domain.opportunity.repository.OpportunityRepository;
+import de.freshplan.domain.opportunity.repository.PipelineSnapshotRepository;
+import de.freshplan.domain.opportunity.repository.PipelineStageAggregate;
+import de.freshplan.domain.opportunity.service.dto.PipelineOverviewResponse;
+import de.freshplan.domain.opportunity.service.dto.PipelineSummary;
+import de.freshplan.domain.opportunity.service.dto.PipelineTrendPoint;
+import de.freshplan.domain.opportunity.service.dto.SalesRepPipelineResponse;
+import de.freshplan.domain.opportunity.service.mapper.OpportunityMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pipeline Analytics Engine
+ *
+ * <p>Stage-Statistiken, Forecast, Conversion Rate und Überfällige entstehen aus <b>einem</b>
+ * gruppierten Scan mit {@code FILTER}-Aggregaten ({@link
+ * OpportunityRepository#getPipelineStageAggregates}); die Übersicht braucht damit drei Statements
+ * (Aggregate, Top-5 High-Priority, begrenzte Überfällig-Liste) statt fünf, unabhängig von der
+ * Anzahl überfälliger Opportunities.
+ *
+ * <p>Die Team-Ansicht liest alle Verkäufer in einem Scan gruppiert nach Verkäufer und Stage. Trend-
+ * und Forecast-Charts lesen die vor-aggregierten Tageszeilen aus {@code pipeline_daily_snapshots}.
+ */
+@ApplicationScoped
+public class PipelineAnalyticsService {
+
+  private static final Logger logger = LoggerFactory.getLogger(PipelineAnalyticsService.class);
+
+  @Inject OpportunityRepository opportunityRepository;
+
+  @Inject PipelineSnapshotRepository snapshotRepository;
+
+  @Inject OpportunityMapper opportunityMapper;
+
+  @ConfigProperty(name = "freshplan.pipeline.overdue-limit", defaultValue = "20")
+  int overdueLimit;
+
+  @ConfigProperty(name = "freshplan.pipeline.trend.max-days", defaultValue = "366")
+  int maxTrendDays;
+
+  /** Pipeline Übersicht mit Stage-Statistiken */
+  public PipelineOverviewResponse getPipelineOverview() {
+    logger.debug("Generating pipeline overview (one-pass aggregates)");
+
+    PipelineSummary summary =
+        PipelineSummary.from(opportunityRepository.getPipelineStageAggregates(null));
+    List<Opportunity> highPriority = opportunityRepository.findHighPriorityOpportunities(5);
+    List<Opportunity> overdue =
+        summary.overdueCount() > 0
+            ? opportunityRepository.findOverdueOpportunities(overdueLimit)
+            : List.of();
+
+    return PipelineOverviewResponse.builder()
+        .stageStatistics(summary.stageStatistics())
+        .totalForecast(summary.forecast())
+        .conversionRate(summary.conversionRate())
+        .highPriorityOpportunities(
+            highPriority.stream().map(opportunityMapper::toResponse).toList())
+        .overdueOpportunities(overdue.stream().map(opportunityMapper::toResponse).toList())
+        .overdueCount(summary.overdueCount())
+        .build();
+  }
+
+  /**
+   * Pipeline aller Verkäufer aus einem gruppierten Scan, sortiert nach Forecast (höchster zuerst).
+   * Nicht zugewiesene Opportunities erscheinen als eigener Eintrag ohne {@code userId}.
+   */
+  public List<SalesRepPipelineResponse> getTeamPipeline() {
+    Map<UUID, List<PipelineStageAggregate>> byRep = new LinkedHashMap<>();
+    Map<UUID, String> names = new LinkedHashMap<>();
+    for (PipelineStageAggregate aggregate :
+        opportunityRepository.getTeamPipelineStageAggregates()) {
+      byRep.computeIfAbsent(aggregate.assignedToId(), id -> new ArrayList<>()).add(aggregate);
+      names.putIfAbsent(aggregate.assignedToId(), aggregate.assignedToName());
+    }
+
+    return byRep.entrySet().stream()
+        .map(
+            e ->
+                new SalesRepPipelineResponse(
+                    e.getKey(),
+                    Objects.requireNonNullElse(names.get(e.getKey()), "Nicht zugewiesen"),
+                    PipelineSummary.from(e.getValue())))
+        .sorted(
+            Comparator.comparing((SalesRepPipelineResponse rep) -> rep.pipeline().forecast())
+                .reversed())
+        .toList();
+  }
+
+  /**
+   * Tageswerte pro Stage aus den Snapshots.
+   *
+   * @param days Anzahl Tage bis einschließlich heute (begrenzt auf {@code
+   *     freshplan.pipeline.trend.max-days})
+   * @param assignedTo Nur dieser Verkäufer, {@code null} für das ganze Team
+   */
+  public List<PipelineTrendPoint> getStageTrend(int days, UUID assignedTo) {
+    int window = Math.max(1, Math.min(days, maxTrendDays));
+    LocalDate today = LocalDate.now();
+    return snapshotRepository.findTrend(today.minusDays(window - 1L), today, assignedTo);
+  }
+
+  /**
+   * Schreibt den Pipeline-Snapshot eines Tages (idempotent).
+   *
+   * @return Anzahl geschriebener Zeilen (Stage × Verkäufer)
+   */
+  @Transactional
+  public int captureDailySnapshot(LocalDate day) {
+    int rows = snapshotRepository.capture(day);
+    logger.info("Pipeline snapshot {} captured: {} rows", day, rows);
+    return rows;
+  }
+}
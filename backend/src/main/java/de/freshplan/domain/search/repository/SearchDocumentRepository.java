@@ -0,0 +1,149 @@
+package de.freshplan.domain.search.repository;
+
+import de.freshplan.domain.search.service.dto.SearchDocumentType;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Data access for the unified search index {@code search_documents} (V10062).
+ *
+ * <p>One native query matches all requested entity types at once: prefix tokens against the
+ * weighted {@code search_vector} and a substring match against {@code search_text} (both GIN
+ * indexed). Relevance is computed in SQL, results are capped per type with {@code row_number()},
+ * and {@code count(*) OVER (PARTITION BY entity_type)} yields the facet counts in the same pass.
+ *
+ * <p>Lead documents carry their ACL, copied from {@code leads.owner_user_id} and {@code
+ * leads.collaborator_user_ids}; the predicate mirrors {@code leads_select_policy} (V242) on the
+ * same columns, so the index never returns more than a direct read of {@code leads} would.
+ */
+@ApplicationScoped
+public class SearchDocumentRepository {
+
+  /** Maximum number of query tokens turned into prefix terms. */
+  static final int MAX_TOKENS = 8;
+
+  static final String ACL_PREDICATE =
+      """
+      (NOT d.acl_restricted OR (
+          current_setting('app.user_context', true) IS NOT NULL AND (
+              d.owner_user_id = current_setting('app.user_context', true) OR
+              current_setting('app.user_context', true) = ANY(d.collaborator_user_ids) OR
+              current_setting('app.role_context', true) IN ('ADMIN', 'SYSTEM', 'MANAGER'))))
+      """;
+
+  /** One matching document. */
+  public record Hit(
+      SearchDocumentType type, String entityId, int score, String payload, long typeTotal) {}
+
+  @Inject EntityManager em;
+
+  /**
+   * Searches the index.
+   *
+   * @param query Search query as entered
+   * @param digitsOnly Match only the digits of {@code query} (phone numbers)
+   * @param types Entity types to search
+   * @param includeInactive Whether inactive documents are included
+   * @param limit Maximum hits per type
+   * @return Hits ordered by type and descending score, each with the total match count of its type
+   */
+  @SuppressWarnings("unchecked")
+  public List<Hit> search(
+      String query,
+      boolean digitsOnly,
+      Collection<SearchDocumentType> types,
+      boolean includeInactive,
+      int limit) {
+    String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    String needle = digitsOnly ? normalized.replaceAll("[^0-9]", "") : normalized;
+    if (needle.isEmpty() || types.isEmpty()) {
+      return List.of();
+    }
+    String tsQuery = digitsOnly || normalized.contains("@") ? null : toPrefixQuery(normalized);
+    String rank = tsQuery != null ? "ts_rank_cd(d.search_vector, to_tsquery('simple', :ts))" : "0";
+
+    var nativeQuery =
+        em.createNativeQuery(
+                """
+                WITH matches AS (
+                    SELECT d.entity_type, d.entity_id, CAST(d.payload AS text) AS payload,
+                           CASE WHEN lower(d.title) = :q THEN 90
+                                WHEN lower(d.title) LIKE :prefix ESCAPE '\\' THEN 70
+                                WHEN lower(d.title) LIKE :contains ESCAPE '\\' THEN 50
+                                ELSE 0 END
+                           + CASE WHEN (d.entity_type = 'CUSTOMER' AND lower(d.subtitle) = :q)
+                                       OR d.email = :q THEN 100 ELSE 0 END
+                           + CAST(%s * 20 AS integer)
+                           + d.rank_boost
+                           + CASE WHEN d.activity_at > NOW() - INTERVAL '30 days' THEN 10 ELSE 0 END
+                             AS score
+                    FROM search_documents d
+                    WHERE d.entity_type IN (:types)
+                      AND (CAST(:includeInactive AS boolean) OR d.is_active)
+                      AND (d.search_text LIKE :contains ESCAPE '\\'%s)
+                      AND %s
+                ), ranked AS (
+                    SELECT m.*,
+                           COUNT(*) OVER (PARTITION BY m.entity_type) AS type_total,
+                           ROW_NUMBER() OVER (PARTITION BY m.entity_type
+                                              ORDER BY m.score DESC, m.entity_id) AS rn
+                    FROM matches m
+                )
+                SELECT entity_type, entity_id, score, payload, type_total
+                FROM ranked
+                WHERE rn <= :limit
+                ORDER BY entity_type, score DESC, entity_id
+                """
+                    .formatted(
+                        rank,
+                        tsQuery != null ? " OR d.search_vector @@ to_tsquery('simple', :ts)" : "",
+                        ACL_PREDICATE))
+            .setParameter("q", needle)
+            .setParameter("prefix", escapeLike(needle) + "%")
+            .setParameter("contains", "%" + escapeLike(needle) + "%")
+            .setParameter("types", types.stream().map(Enum::name).toList())
+            .setParameter("includeInactive", includeInactive)
+            .setParameter("limit", limit);
+    if (tsQuery != null) {
+      nativeQuery.setParameter("ts", tsQuery);
+    }
+
+    List<Hit> hits = new ArrayList<>();
+    for (Object[] row : (List<Object[]>) nativeQuery.getResultList()) {
+      hits.add(
+          new Hit(
+              SearchDocumentType.valueOf((String) row[0]),
+              (String) row[1],
+              ((Number) row[2]).intValue(),
+              (String) row[3],
+              ((Number) row[4]).longValue()));
+    }
+    return hits;
+  }
+
+  /**
+   * Converts free text into a {@code to_tsquery} expression of AND-combined prefix terms ({@code
+   * "hotel ber"} becomes {@code "hotel:* & ber:*"}). Only letters and digits survive, so the result
+   * never contains tsquery operators.
+   *
+   * @return the expression, or {@code null} if the text has no letters or digits
+   */
+  static String toPrefixQuery(String text) {
+    List<String> terms = new ArrayList<>();
+    for (String token : text.split("[^\\p{L}\\p{N}]+")) {
+      if (!token.isEmpty() && terms.size() < MAX_TOKENS) {
+        terms.add(token + ":*");
+      }
+    }
+    return terms.isEmpty() ? null : String.join(" & ", terms);
+  }
+
+  static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -45,6 +45,14 @@ public class SearchService {
   @ConfigProperty(name = "features.cqrs.enabled", defaultValue = "false")
   boolean cqrsEnabled;
 
+  // Unified search index (search_documents, V10062)
+  @ConfigProperty(name = "freshplan.search.index.enabled", defaultValue = "true")
+  boolean indexEnabled;
+
+  // In-memory autocomplete (CustomerAutocompleteIndex)
+  @ConfigProperty(name = "freshplan.search.autocomplete.enabled", defaultValue = "true")
+  boolean autocompleteEnabled;
+
   // CQRS Services
   @Inject SearchQueryService queryService;
 
@@ -61,7 +69,8 @@ public class SearchService {
   /**
    * Performs universal search across customers and contacts OR leads and lead contacts.
    *
-   * <p>Routes to CQRS SearchQueryService if enabled, otherwise uses legacy implementation.
+   * <p>Uses the unified search index if enabled (all entity types in one query, with facets).
+   * Otherwise routes to CQRS SearchQueryService if enabled, or uses the legacy implementation.
    *
    * @param query The search query
    * @param includeContacts Whether to include contacts
@@ -77,6 +86,11 @@ public class SearchService {
       int limit,
       SearchContext context) {
 
+    if (indexEnabled) {
+      LOG.debugf("Search index enabled - delegating universalSearch to indexed search");
+      return queryService.indexedSearch(query, includeContacts, includeInactive, limit, context);
+    }
+
     if (cqrsEnabled) {
       LOG.debugf("CQRS enabled - delegating universalSearch to SearchQueryService");
       // NOTE: CQRS SearchQueryService currently only supports customer search (no context routing
@@ -110,13 +124,18 @@ public class SearchService {
   /**
    * Quick search for autocomplete functionality. Returns minimal data for performance.
    *
-   * <p>Routes to CQRS SearchQueryService if enabled, otherwise uses legacy implementation.
+   * <p>Uses the in-memory autocomplete index if enabled. Otherwise routes to CQRS
+   * SearchQueryService if enabled, or uses the legacy implementation.
    *
    * @param query The search query
    * @param limit Maximum results
    * @return Lightweight search results
    */
   public SearchResults quickSearch(String query, int limit) {
+    if (autocompleteEnabled) {
+      return queryService.autocomplete(query, limit);
+    }
+
     if (cqrsEnabled) {
       LOG.debugf("CQRS enabled - delegating quickSearch to SearchQueryService");
       return queryService.quickSearch(query, limit);
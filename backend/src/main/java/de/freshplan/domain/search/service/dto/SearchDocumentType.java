@@ -0,0 +1,69 @@
+package de.freshplan.domain.search.service.dto;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Entity types in the unified search index ({@code search_documents.entity_type}).
+ *
+ * <p>Each type knows the result type used in {@link SearchResult#getType()}, the DTO its payload is
+ * mapped to and whether results are returned as entity ({@code customers} list) or contact.
+ */
+public enum SearchDocumentType {
+  CUSTOMER("customer", CustomerSearchDto.class, false, List.of("companyName", "customerNumber")),
+  CUSTOMER_CONTACT(
+      "contact",
+      ContactSearchDto.class,
+      true,
+      List.of("firstName", "lastName", "email", "phone", "position")),
+  LEAD("lead", LeadSearchDto.class, false, List.of("companyName", "contactPerson", "email")),
+  LEAD_CONTACT(
+      "lead_contact",
+      LeadContactSearchDto.class,
+      true,
+      List.of("firstName", "lastName", "email", "phone", "position"));
+
+  private final String resultType;
+  private final Class<?> dtoClass;
+  private final boolean contact;
+  private final List<String> matchedFields;
+
+  SearchDocumentType(
+      String resultType, Class<?> dtoClass, boolean contact, List<String> matchedFields) {
+    this.resultType = resultType;
+    this.dtoClass = dtoClass;
+    this.contact = contact;
+    this.matchedFields = matchedFields;
+  }
+
+  public String getResultType() {
+    return resultType;
+  }
+
+  public Class<?> getDtoClass() {
+    return dtoClass;
+  }
+
+  public boolean isContact() {
+    return contact;
+  }
+
+  public List<String> getMatchedFields() {
+    return matchedFields;
+  }
+
+  /**
+   * Types searched in the given context.
+   *
+   * @param includeContacts Whether contact types are included
+   */
+  public static Set<SearchDocumentType> forContext(SearchContext context, boolean includeContacts) {
+    Set<SearchDocumentType> types =
+        SearchContext.LEADS.equals(context) ? EnumSet.of(LEAD) : EnumSet.of(CUSTOMER);
+    if (includeContacts) {
+      types.add(SearchContext.LEADS.equals(context) ? LEAD_CONTACT : CUSTOMER_CONTACT);
+    }
+    return types;
+  }
+}
@@ -3,6 +3,7 @@ package de.freshplan.domain.search.service.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Container for universal search results. Includes both customer and contact results with metadata.
@@ -31,6 +32,13 @@ public class SearchResults {
   @JsonProperty("metadata")
   private SearchMetadata metadata;
 
+  /**
+   * Total number of matches per result type ({@code customer}, {@code contact}, {@code lead},
+   * {@code lead_contact}), independent of the limit. Only set by the indexed search.
+   */
+  @JsonProperty("facets")
+  private Map<String, Long> facets;
+
   // Constructors
   public SearchResults() {
     this.customers = new ArrayList<>();
@@ -61,6 +69,7 @@ public class SearchResults {
     private int totalCount;
     private long executionTime;
     private SearchMetadata metadata;
+    private Map<String, Long> facets;
 
     public Builder customers(List<SearchResult> customers) {
       this.customers = customers;
@@ -87,8 +96,16 @@ public class SearchResults {
       return this;
     }
 
+    public Builder facets(Map<String, Long> facets) {
+      this.facets = facets;
+      return this;
+    }
+
     public SearchResults build() {
-      return new SearchResults(customers, contacts, totalCount, executionTime, metadata);
+      SearchResults results =
+          new SearchResults(customers, contacts, totalCount, executionTime, metadata);
+      results.setFacets(facets);
+      return results;
     }
   }
 
@@ -132,4 +149,12 @@ public class SearchResults {
   public void setMetadata(SearchMetadata metadata) {
     this.metadata = metadata;
   }
+
+  public Map<String, Long> getFacets() {
+    return facets;
+  }
+
+  public void setFacets(Map<String, Long> facets) {
+    this.facets = facets;
+  }
 }
@@ -0,0 +1,485 @@
+package de.freshplan.domain.search.service.query;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.entity.CustomerStatus;
+import de.freshplan.domain.customer.repository.CustomerRepository;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * In-memory prefix index over company names and customer numbers for the autocomplete.
+ *
+ * <p>Every customer contributes sorted keys: its normalized company name, each word suffix of the
+ * name ({@code "hotel zum adler"} is also found by {@code "adler"}) and its normalized customer
+ * number. A lookup is a binary search for the prefix range; for one- and two-character prefixes,
+ * whose ranges are large, the best {@link #TOP_K} matches are computed at build time. Matches are
+ * ranked like the universal search (exact/prefix match, active status, recent contact).
+ *
+ * <p>The index is an immutable snapshot swapped atomically. Every {@code refresh-interval} the
+ * customers updated since the last poll are read and kept as patches that shadow the snapshot; past
+ * {@code max-patches} they are merged into a new snapshot in memory. A full rebuild from the
+ * database runs every {@code rebuild-interval}. Polling {@code updated_at} instead of reacting to
+ * local events keeps every node of a cluster current.
+ *
+ * <p>Customers are not row-level secured and have no owner or territory, so the index holds exactly
+ * what a direct read returns: all customers that are not soft-deleted.
+ */
+@ApplicationScoped
+public class CustomerAutocompleteIndex {
+
+  private static final Logger LOG = Logger.getLogger(CustomerAutocompleteIndex.class);
+
+  /** Maximum results of {@code /api/search/quick}. */
+  static final int TOP_K = 20;
+
+  /** Prefixes up to this length are answered from the precomputed top-K lists. */
+  static final int TOP_K_PREFIX_LENGTH = 2;
+
+  /** Re-read window of the delta poll, covers clock skew between nodes and late commits. */
+  static final Duration CHANGE_OVERLAP = Duration.ofMinutes(2);
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  /** Kind of an index key with the relevance of an exact and a prefix match. */
+  enum KeyKind {
+    NAME(90, 70, "companyName"),
+    WORD(50, 50, "companyName"),
+    NUMBER(100, 70, "customerNumber");
+
+    final int exactScore;
+    final int prefixScore;
+    final String field;
+
+    KeyKind(int exactScore, int prefixScore, String field) {
+      this.exactScore = exactScore;
+      this.prefixScore = prefixScore;
+      this.field = field;
+    }
+  }
+
+  /** One customer as held in the index, {@code rank} is the activity bonus. */
+  record Entry(
+      UUID id,
+      String companyName,
+      String customerNumber,
+      CustomerStatus status,
+      LocalDateTime lastContactDate,
+      boolean deleted,
+      int rank) {}
+
+  /** One autocomplete result. */
+  public record Match(
+      UUID id,
+      String companyName,
+      String customerNumber,
+      CustomerStatus status,
+      int score,
+      String matchedField) {}
+
+  @Inject CustomerRepository customerRepository;
+
+  @ConfigProperty(name = "freshplan.search.autocomplete.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "freshplan.search.autocomplete.rebuild-interval", defaultValue = "15m")
+  Duration rebuildInterval;
+
+  @ConfigProperty(name = "freshplan.search.autocomplete.max-patches", defaultValue = "2000")
+  int maxPatches;
+
+  private volatile Snapshot snapshot;
+
+  /** Rebuilds or patches the index, see class comment. */
+  @Scheduled(
+      every = "{freshplan.search.autocomplete.refresh-interval:10s}",
+      identity = "customer-autocomplete-refresh",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @Transactional
+  void scheduledRefresh() {
+    if (enabled) {
+      refresh();
+    }
+  }
+
+  void refresh() {
+    Snapshot current = snapshot;
+    if (current == null
+        || Duration.between(current.builtAt, Instant.now()).compareTo(rebuildInterval) >= 0) {
+      rebuild();
+      return;
+    }
+
+    LocalDateTime pollStart = LocalDateTime.now();
+    Map<UUID, Entry> patches = new HashMap<>(current.patches);
+    int changed = 0;
+    for (Object[] row :
+        customerRepository.findAutocompleteRows(current.watermark.minus(CHANGE_OVERLAP))) {
+      Entry entry = toEntry(row);
+      Entry known = current.find(entry.id());
+      if (entry.deleted() && (known == null || known.deleted())) {
+        continue;
+      }
+      if (!entry.equals(known)) {
+        patches.put(entry.id(), entry);
+        changed++;
+      }
+    }
+    if (changed == 0) {
+      snapshot = current.withWatermark(pollStart);
+    } else if (patches.size() > maxPatches) {
+      snapshot = compact(current, patches, pollStart);
+      LOG.debugf("Autocomplete index compacted: %d customers", snapshot.entries.length);
+    } else {
+      snapshot = current.withPatches(patches, pollStart);
+    }
+  }
+
+  /** Loads all customers and replaces the index. */
+  void rebuild() {
+    LocalDateTime loadStart = LocalDateTime.now();
+    long started = System.currentTimeMillis();
+    List<Entry> entries = new ArrayList<>();
+    for (Object[] row : customerRepository.findAutocompleteRows(null)) {
+      entries.add(toEntry(row));
+    }
+    snapshot = Snapshot.build(entries, Instant.now(), loadStart);
+    LOG.infof(
+        "Autocomplete index built: %d customers, %d keys in %dms",
+        entries.size(), snapshot.keys.length, System.currentTimeMillis() - started);
+  }
+
+  /**
+   * Best matches for the query.
+   *
+   * @return the matches, empty if the index is disabled or not built yet
+   */
+  public Optional<List<Match>> search(String query, int limit) {
+    Snapshot current = snapshot;
+    if (!enabled || current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.search(normalize(query), limit));
+  }
+
+  /**
+   * Ranks customers loaded from the database the same way as index matches (cache-miss fallback).
+   */
+  public List<Match> rank(List<Customer> customers, String query, int limit) {
+    String prefix = normalize(query);
+    List<Match> matches = new ArrayList<>();
+    for (Customer customer : customers) {
+      Entry entry =
+          entry(
+              customer.getId(),
+              customer.getCompanyName(),
+              customer.getCustomerNumber(),
+              customer.getStatus(),
+              customer.getLastContactDate(),
+              false);
+      Match match = Snapshot.match(entry, prefix);
+      // The database matched the raw query, the index only word prefixes: keep both
+      matches.add(match != null ? match : toMatch(entry, KeyKind.WORD, false));
+    }
+    return sortAndLimit(matches, limit);
+  }
+
+  /** Lowercase, without diacritics, every run of non-alphanumerics collapsed to one space. */
+  static String normalize(String value) {
+    if (value == null) {
+      return "";
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+    return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+  }
+
+  private static Entry toEntry(Object[] row) {
+    return entry(
+        (UUID) row[0],
+        (String) row[1],
+        (String) row[2],
+        (CustomerStatus) row[3],
+        (LocalDateTime) row[4],
+        Boolean.TRUE.equals(row[5]));
+  }
+
+  private static Entry entry(
+      UUID id,
+      String companyName,
+      String customerNumber,
+      CustomerStatus status,
+      LocalDateTime lastContactDate,
+      boolean deleted) {
+    int rank = status == CustomerStatus.AKTIV ? 20 : 0;
+    if (lastContactDate != null
+        && Duration.between(lastContactDate, LocalDateTime.now()).toDays() < 30) {
+      rank += 10;
+    }
+    return new Entry(id, companyName, customerNumber, status, lastContactDate, deleted, rank);
+  }
+
+  private static Match toMatch(Entry entry, KeyKind kind, boolean exact) {
+    return new Match(
+        entry.id(),
+        entry.companyName(),
+        entry.customerNumber(),
+        entry.status(),
+        (exact ? kind.exactScore : kind.prefixScore) + entry.rank(),
+        kind.field);
+  }
+
+  private static final Comparator<Match> BY_RELEVANCE =
+      Comparator.comparingInt(Match::score)
+          .reversed()
+          .thenComparing(Match::companyName, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(Match::id);
+
+  private static List<Match> sortAndLimit(List<Match> matches, int limit) {
+    matches.sort(BY_RELEVANCE);
+    return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+  }
+
+  /** Calls {@code sink} with every key of the entry. */
+  private static void keys(Entry entry, BiConsumer<String, KeyKind> sink) {
+    String name = normalize(entry.companyName());
+    if (!name.isEmpty()) {
+      sink.accept(name, KeyKind.NAME);
+      for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+        sink.accept(name.substring(i + 1), KeyKind.WORD);
+      }
+    }
+    String number = normalize(entry.customerNumber());
+    if (!number.isEmpty()) {
+      sink.accept(number, KeyKind.NUMBER);
+    }
+  }
+
+  private static Snapshot compact(
+      Snapshot current, Map<UUID, Entry> patches, LocalDateTime watermark) {
+    List<Entry> entries = new ArrayList<>(current.entries.length + patches.size());
+    for (Entry entry : current.entries) {
+      if (!patches.containsKey(entry.id())) {
+        entries.add(entry);
+      }
+    }
+    for (Entry entry : patches.values()) {
+      if (!entry.deleted()) {
+        entries.add(entry);
+      }
+    }
+    return Snapshot.build(entries, current.builtAt, watermark);
+  }
+
+  /** Immutable index state: sorted keys, top-K lists and patches that shadow the entries. */
+  static final class Snapshot {
+    final Entry[] entries;
+    final String[] keys;
+    final int[] keyEntries;
+    final KeyKind[] keyKinds;
+    final Map<String, Match[]> topK;
+    final Map<UUID, Integer> positions;
+    final Map<UUID, Entry> patches;
+    final Instant builtAt;
+    final LocalDateTime watermark;
+
+    private Snapshot(
+        Entry[] entries,
+        String[] keys,
+        int[] keyEntries,
+        KeyKind[] keyKinds,
+        Map<String, Match[]> topK,
+        Map<UUID, Integer> positions,
+        Map<UUID, Entry> patches,
+        Instant builtAt,
+        LocalDateTime watermark) {
+      this.entries = entries;
+      this.keys = keys;
+      this.keyEntries = keyEntries;
+      this.keyKinds = keyKinds;
+      this.topK = topK;
+      this.positions = positions;
+      this.patches = patches;
+      this.builtAt = builtAt;
+      this.watermark = watermark;
+    }
+
+    static Snapshot build(List<Entry> source, Instant builtAt, LocalDateTime watermark) {
+      Entry[] entries = source.toArray(Entry[]::new);
+      Map<UUID, Integer> positions = new HashMap<>(entries.length * 2);
+      record Key(String key, int entry, KeyKind kind) {}
+      List<Key> unsorted = new ArrayList<>(entries.length * 3);
+      for (int i = 0; i < entries.length; i++) {
+        int index = i;
+        positions.put(entries[i].id(), i);
+        keys(entries[i], (key, kind) -> unsorted.add(new Key(key, index, kind)));
+      }
+      unsorted.sort(Comparator.comparing(Key::key));
+
+      String[] keys = new String[unsorted.size()];
+      int[] keyEntries = new int[keys.length];
+      KeyKind[] keyKinds = new KeyKind[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = unsorted.get(i).key();
+        keyEntries[i] = unsorted.get(i).entry();
+        keyKinds[i] = unsorted.get(i).kind();
+      }
+
+      Snapshot snapshot =
+          new Snapshot(
+              entries,
+              keys,
+              keyEntries,
+              keyKinds,
+              new HashMap<>(),
+              positions,
+              Map.of(),
+              builtAt,
+              watermark);
+      for (int length = 1; length <= TOP_K_PREFIX_LENGTH; length++) {
+        int from = 0;
+        while (from < keys.length) {
+          if (keys[from].length() < length) {
+            from++;
+            continue;
+          }
+          String prefix = keys[from].substring(0, length);
+          int to = snapshot.end(prefix, from);
+          snapshot.topK.put(
+              prefix, snapshot.collect(prefix, from, to, TOP_K).toArray(Match[]::new));
+          from = to;
+        }
+      }
+      return snapshot;
+    }
+
+    Snapshot withPatches(Map<UUID, Entry> patches, LocalDateTime watermark) {
+      return new Snapshot(
+          entries,
+          keys,
+          keyEntries,
+          keyKinds,
+          topK,
+          positions,
+          Map.copyOf(patches),
+          builtAt,
+          watermark);
+    }
+
+    Snapshot withWatermark(LocalDateTime watermark) {
+      return withPatches(patches, watermark);
+    }
+
+    /** Current version of a customer, {@code null} if unknown. */
+    Entry find(UUID id) {
+      Entry patched = patches.get(id);
+      if (patched != null) {
+        return patched;
+      }
+      Integer position = positions.get(id);
+      return position != null ? entries[position] : null;
+    }
+
+    List<Match> search(String prefix, int limit) {
+      if (prefix.isEmpty()) {
+        return List.of();
+      }
+      List<Match> matches;
+      Match[] precomputed = topK.get(prefix);
+      if (precomputed != null) {
+        matches = new ArrayList<>(precomputed.length + patches.size());
+        for (Match match : precomputed) {
+          if (!patches.containsKey(match.id())) {
+            matches.add(match);
+          }
+        }
+      } else {
+        int from = start(prefix);
+        matches = collect(prefix, from, end(prefix, from), Integer.MAX_VALUE);
+      }
+      for (Entry patched : patches.values()) {
+        Match match = patched.deleted() ? null : match(patched, prefix);
+        if (match != null) {
+          matches.add(match);
+        }
+      }
+      return sortAndLimit(matches, limit);
+    }
+
+    /** Best match per entry within the key range {@code [from, to)}, without patched entries. */
+    private List<Match> collect(String prefix, int from, int to, int limit) {
+      Map<Integer, Match> best = new HashMap<>();
+      for (int i = from; i < to; i++) {
+        Entry entry = entries[keyEntries[i]];
+        if (patches.containsKey(entry.id())) {
+          continue;
+        }
+        Match candidate = toMatch(entry, keyKinds[i], keys[i].equals(prefix));
+        best.merge(keyEntries[i], candidate, (a, b) -> a.score() >= b.score() ? a : b);
+      }
+      return sortAndLimit(new ArrayList<>(best.values()), limit);
+    }
+
+    /** Best key match of a single entry, {@code null} if no key starts with the prefix. */
+    static Match match(Entry entry, String prefix) {
+      Match[] best = new Match[1];
+      keys(
+          entry,
+          (key, kind) -> {
+            if (key.startsWith(prefix)) {
+              Match candidate = toMatch(entry, kind, key.equals(prefix));
+              if (best[0] == null || candidate.score() > best[0].score()) {
+                best[0] = candidate;
+              }
+            }
+          });
+      return best[0];
+    }
+
+    /** First key position that is not less than the prefix. */
+    private int start(String prefix) {
+      int position = Arrays.binarySearch(keys, prefix);
+      if (position >= 0) {
+        // Duplicate keys: move to the first one
+        while (position > 0 && keys[position - 1].equals(prefix)) {
+          position--;
+        }
+        return position;
+      }
+      return -position - 1;
+    }
+
+    /** First key position after {@code from} that does not start with the prefix. */
+    private int end(String prefix, int from) {
+      int low = from;
+      int high = keys.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (keys[middle].startsWith(prefix)) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -1,13 +1,19 @@
 package de.freshplan.domain.search.service.query;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.entity.CustomerContact;
 import de.freshplan.domain.customer.entity.CustomerStatus;
 import de.freshplan.domain.customer.repository.ContactRepository;
 import de.freshplan.domain.customer.repository.CustomerRepository;
+import de.freshplan.domain.search.repository.SearchDocumentRepository;
 import de.freshplan.domain.search.service.dto.ContactSearchDto;
 import de.freshplan.domain.search.service.dto.CustomerSearchDto;
 import de.freshplan.domain.search.service.dto.QueryType;
+import de.freshplan.domain.search.service.dto.SearchContext;
+import de.freshplan.domain.search.service.dto.SearchDocumentType;
+import de.freshplan.domain.search.service.dto.SearchMetadata;
 import de.freshplan.domain.search.service.dto.SearchResult;
 import de.freshplan.domain.search.service.dto.SearchResults;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -15,7 +21,9 @@ import jakarta.inject.Inject;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.jboss.logging.Logger;
@@ -47,6 +55,12 @@ public class SearchQueryService {
 
   @Inject ContactRepository contactRepository;
 
+  @Inject SearchDocumentRepository searchDocumentRepository;
+
+  @Inject CustomerAutocompleteIndex autocompleteIndex;
+
+  @Inject ObjectMapper objectMapper;
+
   /**
    * Performs universal search across customers and contacts.
    *
@@ -95,6 +109,127 @@ public class SearchQueryService {
         .build();
   }
 
+  /**
+   * Performs universal search against the unified search index ({@code search_documents}).
+   *
+   * <p>All requested entity types are matched, ranked and limited in one query; the payload of each
+   * document already is the search DTO, so no entities are loaded. {@link
+   * SearchResults#getFacets()} contains the total number of matches per result type, {@link
+   * SearchMetadata#isTruncated()} is set if any type had more matches than {@code limit}.
+   *
+   * @param query The search query
+   * @param includeContacts Whether to include contacts in search results
+   * @param includeInactive Whether to include inactive customers/leads
+   * @param limit Maximum results per entity type
+   * @param context LEADS for leads and lead contacts, CUSTOMERS for customers and contacts
+   * @return Combined search results with relevance scoring
+   */
+  public SearchResults indexedSearch(
+      String query,
+      boolean includeContacts,
+      boolean includeInactive,
+      int limit,
+      SearchContext context) {
+
+    long startTime = System.currentTimeMillis();
+    QueryType queryType = detectQueryType(query);
+
+    List<SearchResult> entityResults = new ArrayList<>();
+    List<SearchResult> contactResults = new ArrayList<>();
+    Map<String, Long> facets = new LinkedHashMap<>();
+    boolean truncated = false;
+
+    for (SearchDocumentType type : SearchDocumentType.forContext(context, includeContacts)) {
+      facets.put(type.getResultType(), 0L);
+    }
+    for (SearchDocumentRepository.Hit hit :
+        searchDocumentRepository.search(
+            query,
+            queryType == QueryType.PHONE,
+            SearchDocumentType.forContext(context, includeContacts),
+            includeInactive,
+            limit)) {
+      SearchDocumentType type = hit.type();
+      (type.isContact() ? contactResults : entityResults).add(toResult(hit));
+      facets.put(type.getResultType(), hit.typeTotal());
+      truncated |= hit.typeTotal() > limit;
+    }
+
+    entityResults.sort(Comparator.comparingInt(SearchResult::getRelevanceScore).reversed());
+    contactResults.sort(Comparator.comparingInt(SearchResult::getRelevanceScore).reversed());
+
+    long executionTime = System.currentTimeMillis() - startTime;
+    LOG.debugf(
+        "Indexed search completed in %dms: %d entities, %d contacts, facets %s",
+        executionTime, entityResults.size(), contactResults.size(), facets);
+
+    return SearchResults.builder()
+        .customers(entityResults)
+        .contacts(contactResults)
+        .totalCount(entityResults.size() + contactResults.size())
+        .executionTime(executionTime)
+        .facets(facets)
+        .metadata(
+            SearchMetadata.builder().query(query).queryType(queryType).truncated(truncated).build())
+        .build();
+  }
+
+  /**
+   * Autocomplete on company name and customer number prefixes.
+   *
+   * <p>Answered from the {@link CustomerAutocompleteIndex} without touching the database. If the
+   * index is not built yet or has no match (e.g. a customer created on another node since the last
+   * refresh), the indexed prefix query of {@link CustomerRepository#findByNameOrNumberPrefix} is
+   * used instead.
+   *
+   * @param query The search query
+   * @param limit Maximum number of results
+   * @return Lightweight search results for autocomplete, ranked by relevance and activity
+   */
+  public SearchResults autocomplete(String query, int limit) {
+    long startTime = System.currentTimeMillis();
+
+    List<CustomerAutocompleteIndex.Match> matches =
+        autocompleteIndex
+            .search(query, limit)
+            .filter(found -> !found.isEmpty())
+            .orElseGet(
+                () -> {
+                  LOG.debugf("Autocomplete index miss for query: %s", query);
+                  return autocompleteIndex.rank(
+                      customerRepository.findByNameOrNumberPrefix(query.trim(), limit),
+                      query,
+                      limit);
+                });
+
+    List<SearchResult> customerResults =
+        matches.stream()
+            .map(
+                match -> {
+                  CustomerSearchDto dto = new CustomerSearchDto();
+                  dto.setId(match.id().toString());
+                  dto.setCompanyName(match.companyName());
+                  dto.setCustomerNumber(match.customerNumber());
+                  dto.setStatus(match.status() != null ? match.status().toString() : null);
+
+                  return SearchResult.builder()
+                      .type("customer")
+                      .id(match.id().toString())
+                      .data(dto)
+                      .relevanceScore(match.score())
+                      .matchedFields(List.of(match.matchedField()))
+                      .build();
+                })
+            .collect(Collectors.toList());
+
+    return SearchResults.builder()
+        .customers(customerResults)
+        .contacts(new ArrayList<>())
+        .totalCount(customerResults.size())
+        .executionTime(System.currentTimeMillis() - startTime)
+        .build();
+  }
+
   /**
    * Quick search for autocomplete functionality.
    *
@@ -145,6 +280,22 @@ public class SearchQueryService {
         .build();
   }
 
+  /** Maps an index hit to a search result, the payload is deserialized into the type's DTO. */
+  private SearchResult toResult(SearchDocumentRepository.Hit hit) {
+    try {
+      return SearchResult.builder()
+          .type(hit.type().getResultType())
+          .id(hit.entityId())
+          .data(objectMapper.readValue(hit.payload(), hit.type().getDtoClass()))
+          .relevanceScore(hit.score())
+          .matchedFields(hit.type().getMatchedFields())
+          .build();
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(
+          "Invalid search document " + hit.type() + "/" + hit.entityId(), e);
+    }
+  }
+
   /**
    * Searches for customers based on query and detected type.
    *
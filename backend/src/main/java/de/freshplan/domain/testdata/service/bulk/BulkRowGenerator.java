@@ -0,0 +1,659 @@
+package de.freshplan.domain.testdata.service.bulk;
+
+import de.freshplan.domain.audit.entity.AuditEventType;
+import de.freshplan.domain.customer.entity.CustomerLifecycleStage;
+import de.freshplan.domain.customer.entity.CustomerStatus;
+import de.freshplan.domain.customer.entity.EventCategory;
+import de.freshplan.domain.customer.entity.ImportanceLevel;
+import de.freshplan.domain.opportunity.entity.OpportunityStage;
+import de.freshplan.domain.opportunity.entity.OpportunityType;
+import de.freshplan.domain.shared.BusinessType;
+import de.freshplan.domain.shared.KitchenSize;
+import de.freshplan.domain.shared.LeadSource;
+import de.freshplan.modules.leads.domain.LeadStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic CSV row generator for the bulk seed.
+ *
+ * <p>Every row is a pure function of {@code (seed, table, index)}: each row gets its own {@link
+ * SplittableRandom} derived from a 64-bit mix of these values. Chunks can therefore be generated in
+ * any order on any thread and the resulting data set is always identical. Parent IDs are derived
+ * the same way ({@link #customerId(long)}), so child rows reference customers without reading them
+ * back from the database.
+ *
+ * <p>Enum values are taken from the domain enums so the rows always satisfy the CHECK constraints
+ * (V10043/V10044, chk_lead_status, opportunities_stage_check, ...).
+ */
+public final class BulkRowGenerator {
+
+  /** Marker used in created_by/performed_by and for the purge of generated rows. */
+  public static final String CREATED_BY = "bulk-seed";
+
+  /** Customer number prefix of generated customers ({@code BULK-0000000001}). */
+  public static final String CUSTOMER_NUMBER_PREFIX = "BULK-";
+
+  /** Audit entries are spread over this many days before the reference date. */
+  public static final int AUDIT_DAYS = 90;
+
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  private static final long DAY = 86_400L;
+
+  private static final String[] SURNAMES = {
+    "Müller",
+    "Schmidt",
+    "Schneider",
+    "Fischer",
+    "Weber",
+    "Meyer",
+    "Wagner",
+    "Becker",
+    "Schulz",
+    "Hoffmann",
+    "Schäfer",
+    "Koch",
+    "Bauer",
+    "Richter",
+    "Klein",
+    "Wolf",
+    "Schröder",
+    "Neumann",
+    "Schwarz",
+    "Zimmermann",
+    "Braun",
+    "Krüger",
+    "Hofmann",
+    "Hartmann",
+    "Lange",
+    "Schmitt",
+    "Werner",
+    "Krause",
+    "Meier",
+    "Lehmann"
+  };
+
+  private static final String[] FIRST_NAMES_M = {
+    "Thomas",
+    "Michael",
+    "Andreas",
+    "Stefan",
+    "Christian",
+    "Markus",
+    "Jan",
+    "Tobias",
+    "Lukas",
+    "Felix"
+  };
+
+  private static final String[] FIRST_NAMES_F = {
+    "Sabine", "Anna", "Julia", "Katharina", "Laura", "Claudia", "Sandra", "Lena", "Sarah", "Maria"
+  };
+
+  /** {city, postal code, country} - CH/AT share of ~10% mirrors the territory split. */
+  private static final String[][] CITIES = {
+    {"Berlin", "10115", "DE"},
+    {"Hamburg", "20095", "DE"},
+    {"München", "80331", "DE"},
+    {"Köln", "50667", "DE"},
+    {"Frankfurt am Main", "60311", "DE"},
+    {"Stuttgart", "70173", "DE"},
+    {"Düsseldorf", "40213", "DE"},
+    {"Leipzig", "04109", "DE"},
+    {"Dortmund", "44135", "DE"},
+    {"Dresden", "01067", "DE"},
+    {"Hannover", "30159", "DE"},
+    {"Nürnberg", "90402", "DE"},
+    {"Bremen", "28195", "DE"},
+    {"Freiburg", "79098", "DE"},
+    {"Münster", "48143", "DE"},
+    {"Zürich", "8001", "CH"},
+    {"Basel", "4051", "CH"},
+    {"Wien", "1010", "AT"}
+  };
+
+  private static final String[] STREETS = {
+    "Hauptstraße",
+    "Bahnhofstraße",
+    "Gartenstraße",
+    "Schulstraße",
+    "Marktplatz",
+    "Lindenweg",
+    "Industriestraße",
+    "Am Hafen",
+    "Kirchgasse",
+    "Ringstraße"
+  };
+
+  private static final String[] POSITIONS = {
+    "Geschäftsführer",
+    "Küchenchef",
+    "Einkaufsleiter",
+    "F&B Manager",
+    "Betriebsleiter",
+    "Inhaber",
+    "Souschef",
+    "Verwaltung"
+  };
+
+  private static final String[] DEPARTMENTS = {
+    "Geschäftsführung", "Küche", "Einkauf", "Verwaltung"
+  };
+
+  private static final String[] USERS = {
+    "anna.vertrieb",
+    "ben.vertrieb",
+    "carla.vertrieb",
+    "david.manager",
+    "eva.vertrieb",
+    "frank.manager",
+    "gina.vertrieb",
+    "hans.admin"
+  };
+
+  private static final String[] USER_ROLES = {"sales", "sales", "sales", "manager", "admin"};
+
+  private static final EventCategory[] TIMELINE_CATEGORIES = {
+    EventCategory.PHONE_CALL, EventCategory.PHONE_CALL, EventCategory.EMAIL, EventCategory.EMAIL,
+    EventCategory.EMAIL, EventCategory.MEETING, EventCategory.NOTE, EventCategory.NOTE,
+    EventCategory.ORDER, EventCategory.QUOTE, EventCategory.TASK, EventCategory.STATUS_UPDATE,
+    EventCategory.COMPLAINT, EventCategory.FOLLOW_UP
+  };
+
+  private static final AuditEventType[] AUDIT_CUSTOMER_EVENTS = {
+    AuditEventType.CUSTOMER_UPDATED,
+    AuditEventType.CUSTOMER_UPDATED,
+    AuditEventType.CUSTOMER_UPDATED,
+    AuditEventType.CUSTOMER_STATUS_CHANGED,
+    AuditEventType.CUSTOMER_CREATED,
+    AuditEventType.CUSTOMER_DATA_EXPORT
+  };
+
+  private final long seed;
+  private final long referenceEpoch;
+  private final int customers;
+  private final int contactsPerCustomer;
+  private final int timelineEventsPerCustomer;
+  private final int opportunitiesPerCustomer;
+  private final int leads;
+  private final int auditEntries;
+
+  /**
+   * @param request Resolved request (see {@link BulkSeedRequest#resolve(LocalDate)})
+   */
+  public BulkRowGenerator(BulkSeedRequest request) {
+    this.seed = request.seed();
+    this.referenceEpoch = request.referenceDate().atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+    this.customers = request.customers();
+    this.contactsPerCustomer = request.contactsPerCustomer();
+    this.timelineEventsPerCustomer = request.timelineEventsPerCustomer();
+    this.opportunitiesPerCustomer = request.opportunitiesPerCustomer();
+    this.leads = request.leads();
+    this.auditEntries = request.auditEntries();
+  }
+
+  /**
+   * @return Number of rows to generate for the table
+   */
+  public long rowCount(BulkTable table) {
+    return switch (table) {
+      case CUSTOMERS -> customers;
+      case CUSTOMER_CONTACTS -> (long) customers * contactsPerCustomer;
+      case TIMELINE_EVENTS -> (long) customers * timelineEventsPerCustomer;
+      case OPPORTUNITIES -> (long) customers * opportunitiesPerCustomer;
+      case LEADS -> leads;
+      case AUDIT_TRAIL -> auditEntries;
+    };
+  }
+
+  /** Appends the CSV line (incl. newline) for row {@code index} of {@code table}. */
+  public void appendRow(BulkTable table, long index, StringBuilder out) {
+    switch (table) {
+      case CUSTOMERS -> appendCustomer(index, out);
+      case CUSTOMER_CONTACTS -> appendContact(index, out);
+      case TIMELINE_EVENTS -> appendTimelineEvent(index, out);
+      case OPPORTUNITIES -> appendOpportunity(index, out);
+      case LEADS -> appendLead(index, out);
+      case AUDIT_TRAIL -> appendAuditEntry(index, out);
+    }
+  }
+
+  /**
+   * @return Deterministic ID of customer {@code index}
+   */
+  public UUID customerId(long index) {
+    return uuid(BulkTable.CUSTOMERS, index);
+  }
+
+  /**
+   * @return Customer number of customer {@code index}, e.g. {@code BULK-0000000042}
+   */
+  public static String customerNumber(long index) {
+    String digits = Long.toString(index + 1);
+    return CUSTOMER_NUMBER_PREFIX + "0".repeat(Math.max(0, 10 - digits.length())) + digits;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Rows
+  // ---------------------------------------------------------------------------------------------
+
+  private void appendCustomer(long i, StringBuilder out) {
+    SplittableRandom r = random(BulkTable.CUSTOMERS, i);
+    long createdAt = customerCreatedAt(i);
+
+    BusinessType businessType = pick(r, BusinessType.values());
+    String[] city = pick(r, CITIES);
+    CustomerStatus status = customerStatus(r);
+    double expectedVolume = 5_000 + Math.pow(r.nextDouble(), 2) * 495_000;
+    boolean ordering = status == CustomerStatus.AKTIV || status == CustomerStatus.RISIKO;
+    int riskScore = status == CustomerStatus.RISIKO ? 60 + r.nextInt(41) : r.nextInt(60);
+    Long lastContact = r.nextInt(10) == 0 ? null : between(r, createdAt, referenceEpoch - DAY);
+    Long nextFollowUp = r.nextInt(10) < 3 ? referenceEpoch + r.nextLong(60 * DAY) : null;
+
+    Csv csv = new Csv(out);
+    csv.value(customerId(i))
+        .value(customerNumber(i))
+        .text(companyName(businessType, pick(r, SURNAMES), city[0], i))
+        .value("UNTERNEHMEN")
+        .value(businessType.name())
+        .value(status.name())
+        .value(lifecycleStage(status).name())
+        .decimal(expectedVolume)
+        .decimal(ordering ? expectedVolume * (0.5 + r.nextDouble() * 0.7) : null)
+        .value(riskScore)
+        .timestamp(lastContact)
+        .timestamp(nextFollowUp)
+        .text(pick(r, STREETS) + " " + (1 + r.nextInt(200)))
+        .value(city[1])
+        .text(city[0])
+        .value(city[2])
+        .value(false)
+        .timestamp(createdAt)
+        .value(CREATED_BY)
+        .timestamp(lastContact != null ? lastContact : createdAt)
+        .value(true)
+        .end();
+  }
+
+  private void appendContact(long j, StringBuilder out) {
+    SplittableRandom r = random(BulkTable.CUSTOMER_CONTACTS, j);
+    long customer = j / contactsPerCustomer;
+    boolean primary = j % contactsPerCustomer == 0;
+    boolean female = r.nextBoolean();
+    String firstName = pick(r, female ? FIRST_NAMES_F : FIRST_NAMES_M);
+    String lastName = pick(r, SURNAMES);
+
+    Csv csv = new Csv(out);
+    csv.value(uuid(BulkTable.CUSTOMER_CONTACTS, j))
+        .value(customerId(customer))
+        .value(female ? "frau" : "herr")
+        .value(firstName)
+        .text(lastName)
+        .text(pick(r, POSITIONS))
+        .text(pick(r, DEPARTMENTS))
+        .value(ascii(firstName + "." + lastName) + "." + j + "@bulk-kunde.example")
+        .value(phone("+49 30 ", j))
+        .value(r.nextBoolean() ? phone("+49 170 ", j) : null)
+        .value(primary)
+        .value(primary || r.nextInt(4) == 0)
+        .value(r.nextInt(20) != 0)
+        .value(false)
+        .timestamp(between(r, customerCreatedAt(customer), referenceEpoch - DAY))
+        .value(CREATED_BY)
+        .value(true)
+        .end();
+  }
+
+  private void appendTimelineEvent(long j, StringBuilder out) {
+    SplittableRandom r = random(BulkTable.TIMELINE_EVENTS, j);
+    long customer = j / timelineEventsPerCustomer;
+    long eventDate = between(r, customerCreatedAt(customer), referenceEpoch - 60);
+    EventCategory category = pick(r, TIMELINE_CATEGORIES);
+    boolean followUp = r.nextInt(100) < 15;
+    Long followUpDate = followUp ? eventDate + (1 + r.nextInt(14)) * DAY : null;
+
+    Csv csv = new Csv(out);
+    csv.value(uuid(BulkTable.TIMELINE_EVENTS, j))
+        .value(customerId(customer))
+        .value(category.name())
+        .timestamp(eventDate)
+        .text(category.getDisplayName() + " #" + (j % timelineEventsPerCustomer + 1))
+        .text(timelineDescription(category, r))
+        .value(category.name())
+        .value(importance(r).name())
+        .value(pick(r, USERS))
+        .value(channel(category))
+        .value(followUp)
+        .timestamp(followUpDate)
+        .value(followUp && followUpDate < referenceEpoch && r.nextBoolean())
+        .value(true)
+        .value(false)
+        .value(false)
+        .timestamp(eventDate)
+        .value(true)
+        .end();
+  }
+
+  private void appendOpportunity(long j, StringBuilder out) {
+    SplittableRandom r = random(BulkTable.OPPORTUNITIES, j);
+    long customer = j / opportunitiesPerCustomer;
+    long createdAt = between(r, customerCreatedAt(customer), referenceEpoch - DAY);
+    OpportunityStage stage = opportunityStage(r);
+    OpportunityType type = pick(r, OpportunityType.values());
+    boolean closed = stage == OpportunityStage.CLOSED_WON || stage == OpportunityStage.CLOSED_LOST;
+    long stageChangedAt = between(r, createdAt, referenceEpoch - 60);
+    long closeDate =
+        closed ? stageChangedAt : referenceEpoch + (r.nextInt(180) - 30) * DAY; // some overdue
+
+    Csv csv = new Csv(out);
+    csv.value(uuid(BulkTable.OPPORTUNITIES, j))
+        .text(type.getLabel() + " " + customerNumber(customer) + "-" + j)
+        .value(stage.name())
+        .value(type.name())
+        .value(customerId(customer))
+        .decimal(1_000 + Math.pow(r.nextDouble(), 2) * 249_000)
+        .value(date(closeDate))
+        .value(stage.getDefaultProbability())
+        .timestamp(createdAt)
+        .timestamp(stageChangedAt)
+        .timestamp(stageChangedAt)
+        .value(false)
+        .value(true)
+        .end();
+  }
+
+  private void appendLead(long j, StringBuilder out) {
+    SplittableRandom r = random(BulkTable.LEADS, j);
+    long registeredAt = referenceEpoch - 60 - r.nextLong(730 * DAY);
+    String[] city = pick(r, CITIES);
+    if ("AT".equals(city[2])) {
+      city = CITIES[(int) (j % 15)]; // Territories exist only for DE and CH (V229)
+    }
+    String country = city[2];
+    BusinessType businessType = pick(r, BusinessType.values());
+    String surname = pick(r, SURNAMES);
+    LeadStatus status = leadStatus(r);
+    Long lastActivity = r.nextInt(5) == 0 ? null : between(r, registeredAt, referenceEpoch - 60);
+
+    Csv csv = new Csv(out);
+    csv.text(companyName(businessType, surname, city[0], j))
+        .text(pick(r, r.nextBoolean() ? FIRST_NAMES_F : FIRST_NAMES_M) + " " + surname)
+        .value("lead." + j + "@bulk-lead.example")
+        .value(phone("+49 40 ", j))
+        .text(pick(r, STREETS) + " " + (1 + r.nextInt(200)))
+        .value(city[1])
+        .text(city[0])
+        .value(country)
+        .value(country)
+        .value(businessType.name())
+        .value(pick(r, KitchenSize.values()).name())
+        .value(1 + r.nextInt(250))
+        .decimal(2_000 + Math.pow(r.nextDouble(), 2) * 198_000)
+        .value(status.name())
+        .value(r.nextInt(3))
+        .value(pick(r, USERS))
+        .value(pick(r, LeadSource.values()).name())
+        .value(r.nextInt(101))
+        .timestamp(registeredAt)
+        .timestamp(lastActivity)
+        .timestamp(registeredAt)
+        .timestamp(registeredAt)
+        .timestamp(lastActivity != null ? lastActivity : registeredAt)
+        .value(CREATED_BY)
+        .end();
+  }
+
+  private void appendAuditEntry(long j, StringBuilder out) {
+    SplittableRandom r = random(BulkTable.AUDIT_TRAIL, j);
+    long timestamp = referenceEpoch - 1 - r.nextLong(AUDIT_DAYS * DAY);
+    long customer = r.nextLong(customers);
+    AuditEventType eventType = pick(r, AUDIT_CUSTOMER_EVENTS);
+    int user = r.nextInt(USERS.length);
+
+    Csv csv = new Csv(out);
+    csv.value(uuid(BulkTable.AUDIT_TRAIL, j))
+        .timestampUtc(timestamp)
+        .value(eventType.name())
+        .value("CUSTOMER")
+        .value(customerId(customer))
+        .value(uuid(null, user))
+        .value(USERS[user])
+        .value(USER_ROLES[user % USER_ROLES.length])
+        .text(
+            "{\"status\":\""
+                + customerStatus(r).name()
+                + "\",\"riskScore\":"
+                + r.nextInt(101)
+                + "}")
+        .value("TEST")
+        .value(hex(mix64(seed ^ j)) + hex(mix64(j)) + hex(r.nextLong()) + hex(r.nextLong()))
+        .end();
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Distributions
+  // ---------------------------------------------------------------------------------------------
+
+  /** Customer created_at, shared with child rows so they never predate their customer. */
+  long customerCreatedAt(long i) {
+    long hash = mix64(seed ^ salt(BulkTable.CUSTOMERS) ^ ~(i * 0x9E3779B97F4A7C15L));
+    return referenceEpoch - 2 * DAY - Math.floorMod(hash, 5 * 365 * DAY);
+  }
+
+  private static CustomerStatus customerStatus(SplittableRandom r) {
+    int p = r.nextInt(100);
+    if (p < 45) return CustomerStatus.AKTIV;
+    if (p < 60) return CustomerStatus.LEAD;
+    if (p < 75) return CustomerStatus.PROSPECT;
+    if (p < 85) return CustomerStatus.RISIKO;
+    if (p < 95) return CustomerStatus.INAKTIV;
+    return CustomerStatus.ARCHIVIERT;
+  }
+
+  private static CustomerLifecycleStage lifecycleStage(CustomerStatus status) {
+    return switch (status) {
+      case LEAD, PROSPECT -> CustomerLifecycleStage.ACQUISITION;
+      case AKTIV -> CustomerLifecycleStage.GROWTH;
+      case RISIKO, INAKTIV, ARCHIVIERT -> CustomerLifecycleStage.RETENTION;
+    };
+  }
+
+  private static LeadStatus leadStatus(SplittableRandom r) {
+    int p = r.nextInt(100);
+    if (p < 30) return LeadStatus.REGISTERED;
+    if (p < 70) return LeadStatus.ACTIVE;
+    if (p < 75) return LeadStatus.REMINDER;
+    if (p < 78) return LeadStatus.GRACE_PERIOD;
+    if (p < 88) return LeadStatus.QUALIFIED;
+    if (p < 93) return LeadStatus.CONVERTED;
+    if (p < 98) return LeadStatus.LOST;
+    return LeadStatus.EXPIRED;
+  }
+
+  private static OpportunityStage opportunityStage(SplittableRandom r) {
+    int p = r.nextInt(100);
+    if (p < 20) return OpportunityStage.NEW_LEAD;
+    if (p < 35) return OpportunityStage.QUALIFICATION;
+    if (p < 47) return OpportunityStage.NEEDS_ANALYSIS;
+    if (p < 59) return OpportunityStage.PROPOSAL;
+    if (p < 67) return OpportunityStage.NEGOTIATION;
+    if (p < 85) return OpportunityStage.CLOSED_WON;
+    return OpportunityStage.CLOSED_LOST;
+  }
+
+  private static ImportanceLevel importance(SplittableRandom r) {
+    int p = r.nextInt(100);
+    if (p < 25) return ImportanceLevel.LOW;
+    if (p < 75) return ImportanceLevel.MEDIUM;
+    if (p < 93) return ImportanceLevel.HIGH;
+    if (p < 98) return ImportanceLevel.CRITICAL;
+    return ImportanceLevel.URGENT;
+  }
+
+  private static String channel(EventCategory category) {
+    return switch (category) {
+      case PHONE_CALL -> "PHONE";
+      case EMAIL, QUOTE -> "EMAIL";
+      case MEETING -> "MEETING";
+      default -> null;
+    };
+  }
+
+  private static String timelineDescription(EventCategory category, SplittableRandom r) {
+    return switch (category) {
+      case PHONE_CALL ->
+          "Telefonat zu Liefermengen und Sortiment, " + (2 + r.nextInt(30)) + " Min.";
+      case EMAIL -> "E-Mail mit Preisliste und Produktinformationen versendet";
+      case MEETING -> "Vor-Ort-Termin mit Verkostung, Feedback positiv";
+      case ORDER -> "Bestellung über " + (200 + r.nextInt(9_800)) + " EUR eingegangen";
+      case QUOTE -> "Angebot für Wochenlieferung erstellt";
+      case COMPLAINT -> "Reklamation wegen verspäteter Lieferung";
+      default -> "Automatisch generierter Lasttest-Eintrag";
+    };
+  }
+
+  private static String companyName(
+      BusinessType businessType, String surname, String city, long index) {
+    String prefix =
+        switch (businessType) {
+          case RESTAURANT -> "Restaurant";
+          case HOTEL -> "Hotel";
+          case CATERING -> "Catering";
+          case KANTINE -> "Betriebskantine";
+          case GROSSHANDEL -> "Großhandel";
+          case LEH -> "Frischemarkt";
+          case BILDUNG -> "Mensa";
+          case GESUNDHEIT -> "Klinikküche";
+          case SONSTIGES -> "Gastro";
+        };
+    return prefix + " " + surname + " " + city + " " + (index + 1);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Deterministic randomness
+  // ---------------------------------------------------------------------------------------------
+
+  private SplittableRandom random(BulkTable table, long index) {
+    return new SplittableRandom(mix64(seed ^ salt(table) ^ (index * 0x9E3779B97F4A7C15L)));
+  }
+
+  /** Version-4 style UUID derived from (seed, table, index); {@code table = null} for users. */
+  UUID uuid(BulkTable table, long index) {
+    long msb = mix64(seed + salt(table) * 31 + index);
+    long lsb = mix64(msb ^ 0xD6E8FEB86659FD93L);
+    msb = (msb & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+    lsb = (lsb & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+
+  private static long salt(BulkTable table) {
+    return table == null ? 0x5EED5EED5EEDL : mix64(table.ordinal() + 1L);
+  }
+
+  /** Stafford variant 13 of the MurmurHash3 finalizer. */
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static <T> T pick(SplittableRandom r, T[] values) {
+    return values[r.nextInt(values.length)];
+  }
+
+  private static long between(SplittableRandom r, long from, long to) {
+    return to <= from ? from : from + r.nextLong(to - from);
+  }
+
+  private static String phone(String prefix, long index) {
+    String digits = Long.toString(index);
+    return prefix + "0".repeat(Math.max(0, 8 - digits.length())) + digits;
+  }
+
+  private static String hex(long value) {
+    String hex = Long.toHexString(value);
+    return "0".repeat(16 - hex.length()) + hex;
+  }
+
+  private static String date(long epochSecond) {
+    return LocalDate.ofEpochDay(Math.floorDiv(epochSecond, DAY)).toString();
+  }
+
+  private static String ascii(String value) {
+    return value
+        .toLowerCase()
+        .replace("ä", "ae")
+        .replace("ö", "oe")
+        .replace("ü", "ue")
+        .replace("ß", "ss");
+  }
+
+  /** Minimal CSV writer for COPY (FORMAT csv): empty unquoted field = NULL. */
+  private static final class Csv {
+    private final StringBuilder out;
+    private boolean first = true;
+
+    Csv(StringBuilder out) {
+      this.out = out;
+    }
+
+    private StringBuilder next() {
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      return out;
+    }
+
+    /** Value without CSV special characters (IDs, enums, numbers, booleans). */
+    Csv value(Object value) {
+      StringBuilder sb = next();
+      if (value != null) {
+        sb.append(value);
+      }
+      return this;
+    }
+
+    /** Free text - always quoted so commas, quotes and umlauts are safe. */
+    Csv text(String value) {
+      StringBuilder sb = next();
+      if (value != null) {
+        sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+      }
+      return this;
+    }
+
+    Csv decimal(Double value) {
+      StringBuilder sb = next();
+      if (value != null) {
+        sb.append(Math.round(value * 100) / 100.0);
+      }
+      return this;
+    }
+
+    Csv timestamp(Long epochSecond) {
+      StringBuilder sb = next();
+      if (epochSecond != null) {
+        sb.append(TIMESTAMP.format(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)));
+      }
+      return this;
+    }
+
+    Csv timestampUtc(long epochSecond) {
+      next()
+          .append(TIMESTAMP.format(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)))
+          .append("+00");
+      return this;
+    }
+
+    void end() {
+      out.append('\n');
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package de.freshplan.domain.testdata.service.bulk;
+
+import java.time.LocalDate;
+
+/**
+ * Parameters for a bulk (load-test) seed run.
+ *
+ * <p>All {@code null} values fall back to {@link #defaults()}. Child rows are generated with a
+ * fixed fan-out per customer, so the total volume is {@code customers × perCustomer}.
+ *
+ * @param customers Number of customers (max. 10,000,000)
+ * @param contactsPerCustomer Contacts per customer
+ * @param timelineEventsPerCustomer Timeline events per customer
+ * @param opportunitiesPerCustomer Opportunities per customer
+ * @param leads Number of leads (independent of customers)
+ * @param auditEntries Number of audit_trail entries (referencing generated customers)
+ * @param seed Deterministic seed - same seed + reference date = identical data set
+ * @param referenceDate Anchor for all generated timestamps (default: today)
+ * @param rebuildIndexes Drop secondary indexes before loading and rebuild them afterwards
+ */
+public record BulkSeedRequest(
+    Integer customers,
+    Integer contactsPerCustomer,
+    Integer timelineEventsPerCustomer,
+    Integer opportunitiesPerCustomer,
+    Integer leads,
+    Integer auditEntries,
+    Long seed,
+    LocalDate referenceDate,
+    Boolean rebuildIndexes) {
+
+  /** Upper bound - customer numbers are generated as {@code BULK-} + 10 digits. */
+  public static final int MAX_CUSTOMERS = 10_000_000;
+
+  public static final int MAX_PER_CUSTOMER = 1_000;
+
+  public static final int MAX_ROWS = 100_000_000;
+
+  /**
+   * @return Default volumes suitable for a local benchmark run (~160k rows).
+   */
+  public static BulkSeedRequest defaults() {
+    return new BulkSeedRequest(10_000, 3, 10, 1, 10_000, 50_000, 42L, null, true);
+  }
+
+  /**
+   * Replaces {@code null} values with defaults and validates the bounds.
+   *
+   * @param today Fallback for {@link #referenceDate()}
+   * @throws IllegalArgumentException if a value is out of range
+   */
+  public BulkSeedRequest resolve(LocalDate today) {
+    BulkSeedRequest d = defaults();
+    BulkSeedRequest resolved =
+        new BulkSeedRequest(
+            customers != null ? customers : d.customers(),
+            contactsPerCustomer != null ? contactsPerCustomer : d.contactsPerCustomer(),
+            timelineEventsPerCustomer != null
+                ? timelineEventsPerCustomer
+                : d.timelineEventsPerCustomer(),
+            opportunitiesPerCustomer != null
+                ? opportunitiesPerCustomer
+                : d.opportunitiesPerCustomer(),
+            leads != null ? leads : d.leads(),
+            auditEntries != null ? auditEntries : d.auditEntries(),
+            seed != null ? seed : d.seed(),
+            referenceDate != null ? referenceDate : today,
+            rebuildIndexes != null ? rebuildIndexes : d.rebuildIndexes());
+    resolved.validate();
+    return resolved;
+  }
+
+  private void validate() {
+    requireRange("customers", customers, MAX_CUSTOMERS);
+    requireRange("contactsPerCustomer", contactsPerCustomer, MAX_PER_CUSTOMER);
+    requireRange("timelineEventsPerCustomer", timelineEventsPerCustomer, MAX_PER_CUSTOMER);
+    requireRange("opportunitiesPerCustomer", opportunitiesPerCustomer, MAX_PER_CUSTOMER);
+    requireRange("leads", leads, MAX_ROWS);
+    requireRange("auditEntries", auditEntries, MAX_ROWS);
+    if (customers == 0 && auditEntries > 0) {
+      throw new IllegalArgumentException("auditEntries require at least one customer");
+    }
+    for (long total :
+        new long[] {
+          (long) customers * contactsPerCustomer,
+          (long) customers * timelineEventsPerCustomer,
+          (long) customers * opportunitiesPerCustomer
+        }) {
+      if (total > MAX_ROWS) {
+        throw new IllegalArgumentException(
+            "Too many child rows requested: " + total + " (max " + MAX_ROWS + ")");
+      }
+    }
+  }
+
+  private static void requireRange(String name, int value, int max) {
+    if (value < 0 || value > max) {
+      throw new IllegalArgumentException(name + " must be between 0 and " + max + ": " + value);
+    }
+  }
+}
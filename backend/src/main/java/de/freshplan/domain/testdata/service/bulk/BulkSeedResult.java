@@ -0,0 +1,29 @@
+package de.freshplan.domain.testdata.service.bulk;
+
+import java.util.Map;
+
+/**
+ * Result of a bulk seed run.
+ *
+ * @param rowsPerTable Rows written per table (COPY row counts)
+ * @param loadMillis Duration of the COPY phase
+ * @param indexMillis Duration of index rebuild + ANALYZE
+ * @param seed Seed used (to reproduce the data set)
+ */
+public record BulkSeedResult(
+    Map<String, Long> rowsPerTable, long loadMillis, long indexMillis, long seed) {
+
+  /**
+   * @return Total number of rows over all tables
+   */
+  public long totalRows() {
+    return rowsPerTable.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * @return Load throughput in rows per second
+   */
+  public long rowsPerSecond() {
+    return loadMillis == 0 ? totalRows() : totalRows() * 1000 / loadMillis;
+  }
+}
@@ -0,0 +1,487 @@
+package de.freshplan.domain.testdata.service.bulk;
+
+import de.freshplan.infrastructure.pg.PartitionCatalog;
+import de.freshplan.infrastructure.pg.PartitionMaintenanceService;
+import de.freshplan.infrastructure.pg.PartitionedTable;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * High-volume seed generator for load tests and local benchmarking.
+ *
+ * <p>Unlike {@code TestDataService.seedTestData()} (a few dozen hand-crafted scenarios persisted
+ * one by one via Panache), this service writes millions of rows with PostgreSQL {@code COPY ...
+ * FROM STDIN} through the JDBC {@code CopyManager}:
+ *
+ * <ol>
+ *   <li>Purge previously generated bulk rows (set-based DELETEs)
+ *   <li>Optionally drop secondary (non-unique, non-constraint) indexes of the target tables
+ *   <li>Phase 1: customers, leads, audit_trail - split into chunks, streamed in parallel, one
+ *       connection and one COPY (= one commit) per chunk
+ *   <li>Phase 2: contacts, timeline events, opportunities (FK → customers)
+ *   <li>Rebuild the dropped indexes from their original definitions and {@code ANALYZE}
+ *   <li>Rebuild {@code search_documents} set-based ({@code search_documents_rebuild()}, V10062)
+ * </ol>
+ *
+ * <p>Purge and COPY connections switch the search index row triggers off ({@code
+ * app.search_index_sync = 'off'}), so the load does not run one PL/pgSQL upsert per row against the
+ * GIN indexes of {@code search_documents}.
+ *
+ * <p>Rows are generated by {@link BulkRowGenerator} from {@code (seed, table, index)} only, so the
+ * same request always produces the same data set regardless of chunking and thread scheduling.
+ *
+ * <p><b>Only for dev/perf databases:</b> index drop/rebuild takes the tables offline for queries.
+ */
+@ApplicationScoped
+public class BulkSeedService {
+
+  private static final Logger LOG = Logger.getLogger(BulkSeedService.class);
+
+  /** Flush the COPY buffer at ~256 KB. */
+  private static final int FLUSH_CHARS = 256 * 1024;
+
+  /** Session GUC checked by the search index triggers (V10062). */
+  private static final String SEARCH_INDEX_SYNC = "app.search_index_sync";
+
+  @ConfigProperty(name = "freshplan.testdata.bulk.parallelism", defaultValue = "4")
+  int parallelism;
+
+  @ConfigProperty(name = "freshplan.testdata.bulk.chunk-size", defaultValue = "50000")
+  int chunkSize;
+
+  @ConfigProperty(name = "freshplan.testdata.bulk.maintenance-work-mem", defaultValue = "256MB")
+  String maintenanceWorkMem;
+
+  @Inject DataSource dataSource;
+
+  @Inject PartitionCatalog partitionCatalog;
+
+  @Inject PartitionMaintenanceService partitionMaintenanceService;
+
+  @Inject Clock clock;
+
+  /** Secondary index as read from the catalog before dropping it. */
+  record IndexDefinition(String table, String name, String definition) {}
+
+  /** A range of row indexes of one table, loaded by a single COPY. */
+  record Chunk(BulkTable table, long from, long to) {}
+
+  /**
+   * Generates and loads the requested volume. Previously generated bulk data is removed first.
+   *
+   * @param request Volumes and seed, {@code null} values fall back to {@link
+   *     BulkSeedRequest#defaults()}
+   * @return Row counts and timings
+   */
+  public BulkSeedResult seed(BulkSeedRequest request) {
+    BulkSeedRequest resolved =
+        (request != null ? request : BulkSeedRequest.defaults()).resolve(LocalDate.now(clock));
+    BulkRowGenerator generator = new BulkRowGenerator(resolved);
+
+    LOG.infof(
+        "Bulk seed: %d customers (x%d contacts, x%d events, x%d opportunities), %d leads, %d audit"
+            + " entries, seed=%d, parallelism=%d",
+        resolved.customers(),
+        resolved.contactsPerCustomer(),
+        resolved.timelineEventsPerCustomer(),
+        resolved.opportunitiesPerCustomer(),
+        resolved.leads(),
+        resolved.auditEntries(),
+        resolved.seed(),
+        parallelism);
+
+    deleteBulkRows();
+    if (resolved.auditEntries() > 0) {
+      ensureAuditPartitions(resolved.referenceDate());
+    }
+
+    Map<BulkTable, AtomicLong> rows = new EnumMap<>(BulkTable.class);
+    for (BulkTable table : BulkTable.values()) {
+      rows.put(table, new AtomicLong());
+    }
+
+    ExecutorService executor = newExecutor();
+    List<IndexDefinition> dropped = new ArrayList<>();
+    long loadMillis;
+    long indexMillis;
+    try {
+      if (resolved.rebuildIndexes()) {
+        for (BulkTable table : BulkTable.values()) {
+          if (generator.rowCount(table) > 0) {
+            dropped.addAll(dropSecondaryIndexes(table));
+          }
+        }
+      }
+
+      long start = System.nanoTime();
+      try {
+        for (int phase = 1; phase <= 2; phase++) {
+          runAll(executor, copyTasks(generator, phase, rows));
+        }
+      } finally {
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        rebuildIndexesAndAnalyze(executor, dropped, generator);
+        rebuildSearchIndex();
+        indexMillis = (System.nanoTime() - start) / 1_000_000;
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Map<String, Long> rowsPerTable = new LinkedHashMap<>();
+    rows.forEach((table, count) -> rowsPerTable.put(table.tableName(), count.get()));
+    BulkSeedResult result =
+        new BulkSeedResult(rowsPerTable, loadMillis, indexMillis, resolved.seed());
+    LOG.infof(
+        "Bulk seed finished: %d rows in %d ms (%d rows/s), index rebuild + analyze %d ms",
+        result.totalRows(), loadMillis, result.rowsPerSecond(), indexMillis);
+    return result;
+  }
+
+  /**
+   * Removes all rows created by the bulk seed (customers {@code BULK-*} incl. children, leads
+   * created by {@value BulkRowGenerator#CREATED_BY}).
+   *
+   * @return Deleted rows per table
+   */
+  public Map<String, Long> purge() {
+    Map<String, Long> deleted = deleteBulkRows();
+    rebuildSearchIndex();
+    return deleted;
+  }
+
+  private Map<String, Long> deleteBulkRows() {
+    String bulkCustomers =
+        "SELECT id FROM customers WHERE customer_number LIKE '"
+            + BulkRowGenerator.CUSTOMER_NUMBER_PREFIX
+            + "%'";
+    Map<String, String> deletes = new LinkedHashMap<>();
+    deletes.put(
+        "audit_trail",
+        "DELETE FROM audit_trail WHERE source = 'TEST' AND entity_id IN (" + bulkCustomers + ")");
+    deletes.put(
+        "customer_timeline_events",
+        "DELETE FROM customer_timeline_events WHERE customer_id IN (" + bulkCustomers + ")");
+    deletes.put(
+        "customer_contacts",
+        "DELETE FROM customer_contacts WHERE customer_id IN (" + bulkCustomers + ")");
+    deletes.put(
+        "opportunities", "DELETE FROM opportunities WHERE customer_id IN (" + bulkCustomers + ")");
+    deletes.put(
+        "leads", "DELETE FROM leads WHERE created_by = '" + BulkRowGenerator.CREATED_BY + "'");
+    deletes.put(
+        "customers",
+        "DELETE FROM customers WHERE customer_number LIKE '"
+            + BulkRowGenerator.CUSTOMER_NUMBER_PREFIX
+            + "%'");
+
+    Map<String, Long> deleted = new LinkedHashMap<>();
+    try (Connection conn = dataSource.getConnection();
+        Statement st = conn.createStatement()) {
+      suspendSearchIndexSync(conn);
+      try {
+        for (Map.Entry<String, String> delete : deletes.entrySet()) {
+          deleted.put(delete.getKey(), (long) st.executeUpdate(delete.getValue()));
+        }
+      } finally {
+        resumeSearchIndexSync(conn);
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to purge bulk seed data: " + e.getMessage(), e);
+    }
+    if (deleted.values().stream().anyMatch(count -> count > 0)) {
+      LOG.infof("Purged previous bulk seed data: %s", deleted);
+    }
+    return deleted;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // COPY
+  // ---------------------------------------------------------------------------------------------
+
+  /** Splits all tables of the phase into chunks of {@code chunkSize} rows. */
+  List<Chunk> chunks(BulkRowGenerator generator, int phase) {
+    List<Chunk> chunks = new ArrayList<>();
+    for (BulkTable table : BulkTable.values()) {
+      if (table.phase() != phase) {
+        continue;
+      }
+      long total = generator.rowCount(table);
+      for (long from = 0; from < total; from += chunkSize) {
+        chunks.add(new Chunk(table, from, Math.min(total, from + chunkSize)));
+      }
+    }
+    return chunks;
+  }
+
+  private List<Callable<Void>> copyTasks(
+      BulkRowGenerator generator, int phase, Map<BulkTable, AtomicLong> rows) {
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (Chunk chunk : chunks(generator, phase)) {
+      tasks.add(
+          () -> {
+            long copied = copyChunk(generator, chunk);
+            long total = rows.get(chunk.table()).addAndGet(copied);
+            LOG.debugf(
+                "COPY %s [%d, %d): %d rows (total %d/%d)",
+                chunk.table().tableName(),
+                chunk.from(),
+                chunk.to(),
+                copied,
+                total,
+                generator.rowCount(chunk.table()));
+            return null;
+          });
+    }
+    return tasks;
+  }
+
+  private long copyChunk(BulkRowGenerator generator, Chunk chunk) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      suspendSearchIndexSync(conn);
+      try {
+        CopyIn copyIn =
+            conn.unwrap(PGConnection.class).getCopyAPI().copyIn(chunk.table().copySql());
+        try {
+          StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 4096);
+          for (long i = chunk.from(); i < chunk.to(); i++) {
+            generator.appendRow(chunk.table(), i, buffer);
+            if (buffer.length() >= FLUSH_CHARS) {
+              flush(copyIn, buffer);
+            }
+          }
+          flush(copyIn, buffer);
+          return copyIn.endCopy();
+        } finally {
+          if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+          }
+        }
+      } finally {
+        resumeSearchIndexSync(conn);
+      }
+    }
+  }
+
+  private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+    if (buffer.isEmpty()) {
+      return;
+    }
+    byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Search index
+  // ---------------------------------------------------------------------------------------------
+
+  /** Switches the search index row triggers off for this connection. */
+  private static void suspendSearchIndexSync(Connection conn) throws SQLException {
+    try (PreparedStatement ps = conn.prepareStatement("SELECT set_config(?, 'off', false)")) {
+      ps.setString(1, SEARCH_INDEX_SYNC);
+      ps.execute();
+    }
+  }
+
+  private static void resumeSearchIndexSync(Connection conn) throws SQLException {
+    try (Statement st = conn.createStatement()) {
+      // pooled connection - do not leak the session setting
+      st.execute("RESET " + SEARCH_INDEX_SYNC);
+    }
+  }
+
+  /** Rebuilds {@code search_documents} from the source tables with set-based inserts. */
+  private void rebuildSearchIndex() {
+    try (Connection conn = dataSource.getConnection();
+        Statement st = conn.createStatement()) {
+      try (ResultSet rs = st.executeQuery("SELECT search_documents_rebuild()")) {
+        rs.next();
+        LOG.infof("Rebuilt search index: %d documents", rs.getLong(1));
+      }
+      st.execute("ANALYZE search_documents");
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to rebuild search index: " + e.getMessage(), e);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Indexes & statistics
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Drops all secondary indexes of the table that neither back a constraint nor are unique (unique
+   * indexes stay so duplicate rows are still rejected).
+   */
+  private List<IndexDefinition> dropSecondaryIndexes(BulkTable table) {
+    List<IndexDefinition> indexes = new ArrayList<>();
+    try (Connection conn = dataSource.getConnection()) {
+      try (PreparedStatement ps =
+          conn.prepareStatement(
+              """
+              SELECT c.relname, pg_get_indexdef(i.indexrelid)
+              FROM pg_index i
+              JOIN pg_class c ON c.oid = i.indexrelid
+              WHERE i.indrelid = to_regclass(?)
+                AND NOT i.indisunique
+                AND NOT EXISTS (SELECT 1 FROM pg_constraint k WHERE k.conindid = i.indexrelid)
+              ORDER BY c.relname
+              """)) {
+        ps.setString(1, "public." + table.tableName());
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            indexes.add(new IndexDefinition(table.tableName(), rs.getString(1), rs.getString(2)));
+          }
+        }
+      }
+      try (Statement st = conn.createStatement()) {
+        for (IndexDefinition index : indexes) {
+          // Logged so the index can be restored manually if the run is killed
+          LOG.infof("Dropping index for bulk load: %s", index.definition());
+          st.execute("DROP INDEX IF EXISTS \"" + index.name() + "\"");
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException(
+          "Failed to drop indexes of " + table.tableName() + ": " + e.getMessage(), e);
+    }
+    return indexes;
+  }
+
+  private void rebuildIndexesAndAnalyze(
+      ExecutorService executor, List<IndexDefinition> indexes, BulkRowGenerator generator) {
+    List<Callable<Void>> rebuilds = new ArrayList<>();
+    for (IndexDefinition index : indexes) {
+      rebuilds.add(
+          () -> {
+            execute(index.definition(), true);
+            LOG.debugf("Rebuilt index %s", index.name());
+            return null;
+          });
+    }
+    runAll(executor, rebuilds);
+
+    List<Callable<Void>> analyzes = new ArrayList<>();
+    for (BulkTable table : BulkTable.values()) {
+      if (generator.rowCount(table) > 0) {
+        analyzes.add(
+            () -> {
+              execute("ANALYZE " + table.tableName(), false);
+              return null;
+            });
+      }
+    }
+    runAll(executor, analyzes);
+  }
+
+  private void execute(String sql, boolean withMaintenanceMemory) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        Statement st = conn.createStatement()) {
+      if (withMaintenanceMemory) {
+        try (PreparedStatement ps =
+            conn.prepareStatement("SELECT set_config('maintenance_work_mem', ?, false)")) {
+          ps.setString(1, maintenanceWorkMem);
+          ps.execute();
+        }
+      }
+      try {
+        st.execute(sql);
+      } finally {
+        if (withMaintenanceMemory) {
+          // pooled connection - do not leak the session setting
+          st.execute("RESET maintenance_work_mem");
+        }
+      }
+    }
+  }
+
+  private void ensureAuditPartitions(LocalDate referenceDate) {
+    PartitionedTable auditTrail =
+        partitionMaintenanceService.managedTables().stream()
+            .filter(t -> "audit_trail".equals(t.table()))
+            .findFirst()
+            .orElseThrow();
+    if (!partitionCatalog.isPartitioned(auditTrail)) {
+      return;
+    }
+    YearMonth last = YearMonth.from(referenceDate);
+    for (YearMonth month = YearMonth.from(referenceDate.minusDays(BulkRowGenerator.AUDIT_DAYS));
+        !month.isAfter(last);
+        month = month.plusMonths(1)) {
+      try {
+        partitionCatalog.createPartition(auditTrail, month);
+      } catch (Exception e) {
+        // e.g. rows of that month already in DEFAULT - COPY then lands in DEFAULT as well
+        LOG.warnf("Could not create audit partition for %s: %s", month, e.getMessage());
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Execution
+  // ---------------------------------------------------------------------------------------------
+
+  private ExecutorService newExecutor() {
+    AtomicInteger threadId = new AtomicInteger();
+    return Executors.newFixedThreadPool(
+        Math.max(1, parallelism),
+        r -> {
+          Thread t = new Thread(r, "bulk-seed-" + threadId.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        });
+  }
+
+  /** Runs all tasks and waits for them; the first failure is rethrown. */
+  private static void runAll(ExecutorService executor, List<Callable<Void>> tasks) {
+    List<Future<Void>> futures = new ArrayList<>(tasks.size());
+    for (Callable<Void> task : tasks) {
+      futures.add(executor.submit(task));
+    }
+    RuntimeException failure = null;
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failure = new IllegalStateException("Bulk seed interrupted", e);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure =
+              new IllegalStateException(
+                  "Bulk seed task failed: " + e.getCause().getMessage(), e.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package de.freshplan.domain.testdata.service.bulk;
+
+/**
+ * Target tables of the bulk seed generator with their COPY column lists.
+ *
+ * <p>Phase 1 tables have no dependencies on other generated rows; phase 2 tables reference
+ * customers via FK and are only loaded after all customer chunks are committed. audit_trail only
+ * references customer IDs logically (no FK) and can therefore be loaded in phase 1.
+ */
+public enum BulkTable {
+  CUSTOMERS(
+      "customers",
+      1,
+      "id, customer_number, company_name, customer_type, business_type, status, lifecycle_stage, "
+          + "expected_annual_volume, actual_annual_volume, risk_score, last_contact_date, "
+          + "next_follow_up_date, street, postal_code, city, country_code, is_deleted, "
+          + "created_at, created_by, updated_at, is_test_data"),
+  LEADS(
+      "leads",
+      1,
+      "company_name, contact_person, email, phone, street, postal_code, city, country_code, "
+          + "territory_id, business_type, kitchen_size, employee_count, estimated_volume, status, "
+          + "stage, owner_user_id, source, lead_score, registered_at, last_activity_at, "
+          + "protection_start_at, created_at, updated_at, created_by"),
+  CUSTOMER_CONTACTS(
+      "customer_contacts",
+      2,
+      "id, customer_id, salutation, first_name, last_name, position, department, email, phone, "
+          + "mobile, is_primary, is_decision_maker, is_active, is_deleted, created_at, created_by, "
+          + "is_test_data"),
+  TIMELINE_EVENTS(
+      "customer_timeline_events",
+      2,
+      "id, customer_id, event_type, event_date, title, description, category, importance, "
+          + "performed_by, communication_channel, requires_follow_up, follow_up_date, "
+          + "follow_up_completed, is_public, is_customer_visible, is_deleted, created_at, "
+          + "is_test_data"),
+  OPPORTUNITIES(
+      "opportunities",
+      2,
+      "id, name, stage, opportunity_type, customer_id, expected_value, expected_close_date, "
+          + "probability, created_at, stage_changed_at, updated_at, is_deleted, is_test_data"),
+  AUDIT_TRAIL(
+      "audit_trail",
+      1,
+      "id, timestamp, event_type, entity_type, entity_id, user_id, user_name, user_role, "
+          + "new_value, source, data_hash");
+
+  private final String tableName;
+  private final int phase;
+  private final String columns;
+
+  BulkTable(String tableName, int phase, String columns) {
+    this.tableName = tableName;
+    this.phase = phase;
+    this.columns = columns;
+  }
+
+  public String tableName() {
+    return tableName;
+  }
+
+  public int phase() {
+    return phase;
+  }
+
+  /**
+   * @return {@code COPY ... FROM STDIN} statement in CSV format (empty unquoted field = NULL)
+   */
+  public String copySql() {
+    return "COPY " + tableName + " (" + columns + ") FROM STDIN WITH (FORMAT csv)";
+  }
+}
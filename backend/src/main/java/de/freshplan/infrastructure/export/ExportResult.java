@@ -1,6 +1,9 @@
 package de.freshplan.infrastructure.export;
 
 import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -82,6 +85,19 @@ public class ExportResult {
     return byteData != null || stringData != null || streamData != null;
   }
 
+  /** Write the export data to a stream (e.g. the spool file of an export job) */
+  public void writeTo(OutputStream output) throws IOException {
+    if (streamData != null) {
+      streamData.write(output);
+    } else if (byteData != null) {
+      output.write(byteData);
+    } else if (stringData != null) {
+      output.write(stringData.getBytes(StandardCharsets.UTF_8));
+    } else {
+      throw new IllegalStateException("Export result has no data");
+    }
+  }
+
   /** Get the appropriate content type for HTTP response */
   public String getContentType() {
     return format.getContentType();
@@ -0,0 +1,63 @@
+package de.freshplan.infrastructure.export.job;
+
+import java.util.Optional;
+
+/**
+ * Single byte range of an HTTP {@code Range} header (RFC 9110), used to resume downloads of export
+ * files.
+ *
+ * @param start First byte (inclusive)
+ * @param end Last byte (inclusive)
+ */
+public record ByteRange(long start, long end) {
+
+  public long length() {
+    return end - start + 1;
+  }
+
+  /** Value of the {@code Content-Range} response header. */
+  public String contentRange(long fileLength) {
+    return "bytes " + start + "-" + end + "/" + fileLength;
+  }
+
+  /**
+   * Parses {@code bytes=a-b}, {@code bytes=a-} and {@code bytes=-n}.
+   *
+   * @return empty if there is no header or it cannot be served as one range (the full file is sent,
+   *     as allowed by RFC 9110)
+   * @throws IllegalArgumentException if the range lies outside the file (HTTP 416)
+   */
+  public static Optional<ByteRange> parse(String header, long fileLength) {
+    if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+      return Optional.empty();
+    }
+    String spec = header.substring("bytes=".length()).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0) {
+      return Optional.empty();
+    }
+    try {
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      long start;
+      long end;
+      if (first.isEmpty()) {
+        long suffix = Long.parseLong(last);
+        if (suffix <= 0) {
+          throw new IllegalArgumentException("Empty suffix range: " + header);
+        }
+        start = Math.max(0, fileLength - suffix);
+        end = fileLength - 1;
+      } else {
+        start = Long.parseLong(first);
+        end = last.isEmpty() ? fileLength - 1 : Math.min(Long.parseLong(last), fileLength - 1);
+      }
+      if (start >= fileLength || start > end) {
+        throw new IllegalArgumentException("Range not satisfiable: " + header);
+      }
+      return Optional.of(new ByteRange(start, end));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package de.freshplan.infrastructure.export.job;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * One asynchronous export, see {@link ExportJobService}.
+ *
+ * <p>State changes come from the export worker, reads from the status and download endpoints.
+ */
+public class ExportJob {
+
+  /** Job states. */
+  public enum State {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  /** Snapshot returned by the job endpoints. */
+  public record Status(
+      UUID jobId,
+      String name,
+      State state,
+      String filename,
+      String contentType,
+      long bytes,
+      Instant submittedAt,
+      Instant startedAt,
+      Instant finishedAt,
+      Instant expiresAt,
+      String error) {}
+
+  private final UUID id = UUID.randomUUID();
+  private final String owner;
+  private final String name;
+  private final String filename;
+  private final String contentType;
+  private final Instant submittedAt;
+  private final Path file;
+  private volatile State state = State.QUEUED;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile Instant expiresAt;
+  private volatile long bytes;
+  private volatile String error;
+  private volatile Future<?> future;
+  private int downloads;
+  private boolean discarded;
+
+  ExportJob(
+      String owner,
+      String name,
+      String filename,
+      String contentType,
+      Instant submittedAt,
+      Path spoolDir) {
+    this.owner = owner;
+    this.name = name;
+    this.filename = filename;
+    this.contentType = contentType;
+    this.submittedAt = submittedAt;
+    this.file = spoolDir.resolve(id + ".export");
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  public String getFilename() {
+    return filename;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+
+  /** Spool file, complete once the job is {@link State#COMPLETED}. */
+  public Path getFile() {
+    return file;
+  }
+
+  Path getPartFile() {
+    return file.resolveSibling(id + ".part");
+  }
+
+  Instant getSubmittedAt() {
+    return submittedAt;
+  }
+
+  Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  Future<?> getFuture() {
+    return future;
+  }
+
+  void setFuture(Future<?> future) {
+    this.future = future;
+  }
+
+  void started(Instant now) {
+    startedAt = now;
+    state = State.RUNNING;
+  }
+
+  void completed(Instant now, long size, Instant expiry) {
+    bytes = size;
+    finishedAt = now;
+    expiresAt = expiry;
+    state = State.COMPLETED;
+  }
+
+  void failed(Instant now, Throwable cause, Instant expiry) {
+    error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    finishedAt = now;
+    expiresAt = expiry;
+    state = State.FAILED;
+  }
+
+  /**
+   * Registers a download of the spool file.
+   *
+   * @return {@code false} if the result was already discarded
+   */
+  synchronized boolean retainFile() {
+    if (discarded) {
+      return false;
+    }
+    downloads++;
+    return true;
+  }
+
+  /**
+   * Ends a download registered with {@link #retainFile()}.
+   *
+   * @return {@code true} if the result was discarded meanwhile and the file can be deleted now
+   */
+  synchronized boolean releaseFile() {
+    downloads--;
+    return discarded && downloads == 0;
+  }
+
+  /**
+   * Marks the result as discarded (removed, expired or evicted); no new downloads start.
+   *
+   * @return {@code true} if no download is running and the file can be deleted now
+   */
+  synchronized boolean discardFile() {
+    discarded = true;
+    return downloads == 0;
+  }
+
+  public Status status() {
+    return new Status(
+        id,
+        name,
+        state,
+        filename,
+        contentType,
+        bytes,
+        submittedAt,
+        startedAt,
+        finishedAt,
+        expiresAt,
+        error);
+  }
+}
@@ -0,0 +1,24 @@
+package de.freshplan.infrastructure.export.job;
+
+/** Thrown by {@link ExportJobService#submit} if an export job cannot be accepted. */
+public class ExportJobRejectedException extends RuntimeException {
+
+  /** Why the job was rejected. */
+  public enum Reason {
+    /** The user already has {@code max-per-user} queued or running jobs (HTTP 429). */
+    USER_LIMIT,
+    /** The export queue is full (HTTP 503). */
+    QUEUE_FULL
+  }
+
+  private final Reason reason;
+
+  public ExportJobRejectedException(Reason reason, String message) {
+    super(message);
+    this.reason = reason;
+  }
+
+  public Reason getReason() {
+    return reason;
+  }
+}
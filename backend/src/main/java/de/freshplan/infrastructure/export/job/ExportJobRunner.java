@@ -0,0 +1,40 @@
+package de.freshplan.infrastructure.export.job;
+
+import de.freshplan.infrastructure.security.RlsRequestContext;
+import de.freshplan.infrastructure.security.RlsSessionContext;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import java.io.OutputStream;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Executes an {@link ExportJobTask} on an export worker thread.
+ *
+ * <p>The worker has no HTTP request: a request context is activated and the RLS context of the
+ * submitting user is pinned, so the export sees exactly the rows the user could export
+ * synchronously. The task runs in one transaction with {@code freshplan.export.jobs
+ * .transaction-timeout}, which keeps lazy associations and streaming cursors usable.
+ */
+@ApplicationScoped
+public class ExportJobRunner {
+
+  @Inject RlsRequestContext rlsRequestContext;
+
+  @ConfigProperty(name = "freshplan.export.jobs.transaction-timeout", defaultValue = "30m")
+  Duration transactionTimeout;
+
+  @ActivateRequestContext
+  public void run(RlsSessionContext context, ExportJobTask task, OutputStream output) {
+    rlsRequestContext.assume(context);
+    QuarkusTransaction.requiringNew()
+        .timeout((int) transactionTimeout.toSeconds())
+        .call(
+            () -> {
+              task.writeTo(output);
+              return null;
+            });
+  }
+}
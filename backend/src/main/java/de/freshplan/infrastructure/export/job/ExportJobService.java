@@ -0,0 +1,436 @@
+package de.freshplan.infrastructure.export.job;
+
+import de.freshplan.infrastructure.security.RlsRequestContext;
+import de.freshplan.infrastructure.security.RlsSessionContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Asynchronous export jobs with spooled result files.
+ *
+ * <p>Large exports used to hold an HTTP worker thread and a DB connection for their full duration
+ * and ran into the proxy timeout. A job is accepted immediately (job ID), executed on a bounded
+ * worker pool and written to {@code freshplan.export.jobs.spool-dir}; the client polls the status
+ * and downloads the file later (served zero-copy, with range requests).
+ *
+ * <ul>
+ *   <li>{@code concurrency} workers, at most {@code queue-capacity} waiting jobs (HTTP 503 beyond)
+ *   <li>at most {@code max-per-user} queued or running jobs per user (HTTP 429 beyond)
+ *   <li>results expire after {@code ttl}; if the spool exceeds {@code max-spool-size}, the oldest
+ *       results are removed first
+ * </ul>
+ *
+ * <p>Removing a result only hides the job; the file of a download in progress is deleted when the
+ * last such download ends ({@link #beginDownload}/{@link #endDownload}).
+ *
+ * <p>Jobs and spool files are local to the pod that accepted the job.
+ *
+ * <p><strong>Metrics:</strong> {@code freshplan_export_jobs_queued}, {@code
+ * freshplan_export_jobs_running}, {@code freshplan_export_spool_bytes}, {@code
+ * freshplan_export_job_wait}, {@code freshplan_export_job_duration}, {@code
+ * freshplan_export_job_bytes}, {@code freshplan_export_jobs_rejected}.
+ */
+@ApplicationScoped
+public class ExportJobService {
+
+  private static final Logger LOG = Logger.getLogger(ExportJobService.class);
+
+  /** Base path of the job status/download endpoints ({@code ExportJobResource}). */
+  public static final String JOBS_PATH = "/api/v2/export/jobs";
+
+  private static final String RETRY_AFTER_SECONDS = "30";
+
+  @ConfigProperty(name = "freshplan.export.jobs.concurrency", defaultValue = "2")
+  int concurrency;
+
+  @ConfigProperty(name = "freshplan.export.jobs.queue-capacity", defaultValue = "20")
+  int queueCapacity;
+
+  @ConfigProperty(name = "freshplan.export.jobs.max-per-user", defaultValue = "2")
+  int maxPerUser;
+
+  @ConfigProperty(
+      name = "freshplan.export.jobs.spool-dir",
+      defaultValue = "${java.io.tmpdir}/freshplan-export-spool")
+  Path spoolDir;
+
+  @ConfigProperty(name = "freshplan.export.jobs.ttl", defaultValue = "1h")
+  Duration ttl;
+
+  @ConfigProperty(name = "freshplan.export.jobs.max-spool-size", defaultValue = "2G")
+  MemorySize maxSpoolSize;
+
+  @Inject ExportJobRunner runner;
+
+  @Inject RlsRequestContext rlsRequestContext;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject Clock clock;
+
+  private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+  private final Map<String, Integer> activePerUser = new ConcurrentHashMap<>();
+
+  private ThreadPoolExecutor workers;
+  private Timer waitTimer;
+  private Timer completedTimer;
+  private Timer failedTimer;
+  private DistributionSummary bytesSummary;
+  private Counter rejectedUserLimit;
+  private Counter rejectedQueueFull;
+
+  @PostConstruct
+  void init() {
+    AtomicInteger threadIndex = new AtomicInteger();
+    int threads = Math.max(1, concurrency);
+    workers =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            r -> {
+              Thread t = new Thread(r, "export-job-worker-" + threadIndex.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            });
+
+    prepareSpoolDir();
+
+    Gauge.builder("freshplan_export_jobs_queued", workers, w -> w.getQueue().size())
+        .description("Export jobs waiting for a worker")
+        .register(meterRegistry);
+    Gauge.builder("freshplan_export_jobs_running", workers, ThreadPoolExecutor::getActiveCount)
+        .description("Export jobs currently being generated")
+        .register(meterRegistry);
+    Gauge.builder("freshplan_export_spool_bytes", this, ExportJobService::spoolBytes)
+        .description("Size of all completed export files in the spool directory")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    waitTimer =
+        Timer.builder("freshplan_export_job_wait")
+            .description("Time an export job waited in the queue")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    completedTimer = durationTimer("completed");
+    failedTimer = durationTimer("failed");
+    bytesSummary =
+        DistributionSummary.builder("freshplan_export_job_bytes")
+            .description("Size of generated export files")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    rejectedUserLimit = rejectedCounter("user_limit");
+    rejectedQueueFull = rejectedCounter("queue_full");
+  }
+
+  @PreDestroy
+  void shutdown() {
+    workers.shutdownNow();
+  }
+
+  /**
+   * Accepts an export job for the current user; the RLS context of the calling request is captured
+   * and used by the worker.
+   *
+   * @param owner Principal name, used for the per-user limit and access checks
+   * @param name Short description for the status endpoint (e.g. {@code customers/csv})
+   * @throws ExportJobRejectedException if the user limit is reached or the queue is full
+   */
+  public ExportJob submit(
+      String owner, String name, String filename, String contentType, ExportJobTask task) {
+    RlsSessionContext context = rlsRequestContext.currentOrAnonymousFallback();
+
+    if (!acquireUserSlot(owner)) {
+      rejectedUserLimit.increment();
+      throw new ExportJobRejectedException(
+          ExportJobRejectedException.Reason.USER_LIMIT,
+          "Maximal " + maxPerUser + " laufende Exporte pro Benutzer");
+    }
+
+    ExportJob job = new ExportJob(owner, name, filename, contentType, clock.instant(), spoolDir);
+    jobs.put(job.getId(), job);
+    try {
+      job.setFuture(workers.submit(() -> execute(job, context, task)));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      releaseUserSlot(owner);
+      rejectedQueueFull.increment();
+      throw new ExportJobRejectedException(
+          ExportJobRejectedException.Reason.QUEUE_FULL,
+          "Zu viele Exporte in der Warteschlange, bitte später erneut versuchen");
+    }
+
+    LOG.infof("Export job %s (%s) accepted for %s", job.getId(), name, owner);
+    return job;
+  }
+
+  /**
+   * Submits a job and creates the HTTP response: {@code 202 Accepted} with the job status and a
+   * {@code Location} header, {@code 429}/{@code 503} with {@code Retry-After} if rejected.
+   */
+  public Response submitAsResponse(
+      String owner, String name, String filename, String contentType, ExportJobTask task) {
+    try {
+      ExportJob job = submit(owner, name, filename, contentType, task);
+      return Response.accepted(job.status())
+          .location(URI.create(JOBS_PATH + "/" + job.getId()))
+          .build();
+    } catch (ExportJobRejectedException e) {
+      Response.Status status =
+          e.getReason() == ExportJobRejectedException.Reason.USER_LIMIT
+              ? Response.Status.TOO_MANY_REQUESTS
+              : Response.Status.SERVICE_UNAVAILABLE;
+      return Response.status(status)
+          .header("Retry-After", RETRY_AFTER_SECONDS)
+          .entity(Map.of("error", e.getMessage()))
+          .build();
+    }
+  }
+
+  public Optional<ExportJob> find(UUID jobId) {
+    return Optional.ofNullable(jobs.get(jobId));
+  }
+
+  /** Jobs of one user, newest first. */
+  public List<ExportJob> findByOwner(String owner) {
+    return jobs.values().stream()
+        .filter(job -> job.getOwner().equals(owner))
+        .sorted(Comparator.comparing(ExportJob::getSubmittedAt).reversed())
+        .toList();
+  }
+
+  /**
+   * Removes a job: a queued job is cancelled, a finished job's file is deleted.
+   *
+   * @return {@code false} if the job is running and cannot be removed
+   */
+  public boolean remove(ExportJob job) {
+    if (job.getState() == ExportJob.State.RUNNING) {
+      return false;
+    }
+    if (job.getState() == ExportJob.State.QUEUED) {
+      // cancel() fails if a worker picked up the job in the meantime
+      if (job.getFuture() == null || !job.getFuture().cancel(false)) {
+        return false;
+      }
+      workers.remove((Runnable) job.getFuture());
+      releaseUserSlot(job.getOwner());
+    }
+    jobs.remove(job.getId());
+    discard(job);
+    return true;
+  }
+
+  /**
+   * Registers a download of a completed job's file; the file is kept until {@link
+   * #endDownload(ExportJob)} even if the job is removed, expires or is evicted meanwhile.
+   *
+   * @return {@code false} if the result is already gone
+   */
+  public boolean beginDownload(ExportJob job) {
+    if (!job.retainFile()) {
+      return false;
+    }
+    if (!Files.exists(job.getFile())) {
+      endDownload(job);
+      return false;
+    }
+    return true;
+  }
+
+  /** Ends a download started with {@link #beginDownload(ExportJob)}, also on abort or failure. */
+  public void endDownload(ExportJob job) {
+    if (job.releaseFile()) {
+      deleteQuietly(job.getFile());
+    }
+  }
+
+  /** Removes expired results and enforces the spool size bound. */
+  @Scheduled(
+      every = "{freshplan.export.jobs.cleanup-interval:5m}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledCleanup() {
+    cleanup(clock.instant());
+  }
+
+  void cleanup(Instant now) {
+    Instant cutoff = now.minus(ttl);
+    int expired = 0;
+    for (ExportJob job : jobs.values()) {
+      if (job.getFinishedAt() != null && !job.getFinishedAt().isAfter(cutoff)) {
+        jobs.remove(job.getId());
+        discard(job);
+        expired++;
+      }
+    }
+
+    long total = spoolBytes();
+    int evicted = 0;
+    if (total > maxSpoolSize.asLongValue()) {
+      List<ExportJob> oldestFirst =
+          jobs.values().stream()
+              .filter(job -> job.getState() == ExportJob.State.COMPLETED)
+              .sorted(Comparator.comparing(ExportJob::getFinishedAt))
+              .toList();
+      for (ExportJob job : oldestFirst) {
+        if (total <= maxSpoolSize.asLongValue()) {
+          break;
+        }
+        jobs.remove(job.getId());
+        discard(job);
+        total -= job.getBytes();
+        evicted++;
+      }
+    }
+
+    if (expired > 0 || evicted > 0) {
+      LOG.infof(
+          "Export spool cleanup: %d expired, %d evicted (size bound), %d bytes remaining",
+          expired, evicted, total);
+    }
+  }
+
+  long spoolBytes() {
+    return jobs.values().stream()
+        .filter(job -> job.getState() == ExportJob.State.COMPLETED)
+        .mapToLong(ExportJob::getBytes)
+        .sum();
+  }
+
+  private void execute(ExportJob job, RlsSessionContext context, ExportJobTask task) {
+    Instant started = clock.instant();
+    job.started(started);
+    waitTimer.record(Duration.between(job.getSubmittedAt(), started));
+
+    long size = 0;
+    Exception failure = null;
+    try {
+      try (OutputStream output =
+          new BufferedOutputStream(Files.newOutputStream(job.getPartFile()))) {
+        runner.run(context, task, output);
+      }
+      Files.move(job.getPartFile(), job.getFile(), StandardCopyOption.ATOMIC_MOVE);
+      size = Files.size(job.getFile());
+    } catch (Exception e) {
+      failure = e;
+      deleteQuietly(job.getPartFile());
+    } finally {
+      // Released before the final state is visible, so the user can submit the next job at once
+      releaseUserSlot(job.getOwner());
+    }
+
+    Instant finished = clock.instant();
+    Duration duration = Duration.between(started, finished);
+    if (failure == null) {
+      job.completed(finished, size, finished.plus(ttl));
+      completedTimer.record(duration);
+      bytesSummary.record(size);
+      LOG.infof(
+          "Export job %s (%s) completed: %d bytes in %d ms",
+          job.getId(), job.status().name(), size, duration.toMillis());
+    } else {
+      job.failed(finished, failure, finished.plus(ttl));
+      failedTimer.record(duration);
+      LOG.errorf(failure, "Export job %s (%s) failed", job.getId(), job.status().name());
+    }
+  }
+
+  private boolean acquireUserSlot(String owner) {
+    boolean[] acquired = {false};
+    activePerUser.compute(
+        owner,
+        (user, active) -> {
+          int current = active != null ? active : 0;
+          if (current >= Math.max(1, maxPerUser)) {
+            return active;
+          }
+          acquired[0] = true;
+          return current + 1;
+        });
+    return acquired[0];
+  }
+
+  private void releaseUserSlot(String owner) {
+    activePerUser.computeIfPresent(owner, (user, active) -> active > 1 ? active - 1 : null);
+  }
+
+  /** Creates the spool directory and removes files of a previous process (jobs are in memory). */
+  private void prepareSpoolDir() {
+    try {
+      Files.createDirectories(spoolDir);
+      try (DirectoryStream<Path> stale = Files.newDirectoryStream(spoolDir, "*.{export,part}")) {
+        for (Path file : stale) {
+          deleteQuietly(file);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Export spool directory not usable: " + spoolDir, e);
+    }
+  }
+
+  /** Deletes a removed job's file, or leaves it to the last running download. */
+  private static void discard(ExportJob job) {
+    if (job.discardFile()) {
+      deleteQuietly(job.getFile());
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      LOG.warnf("Could not delete export spool file %s: %s", file, e.getMessage());
+    }
+  }
+
+  private Timer durationTimer(String outcome) {
+    return Timer.builder("freshplan_export_job_duration")
+        .description("Time to generate an export file")
+        .tag("outcome", outcome)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+  }
+
+  private Counter rejectedCounter(String reason) {
+    return Counter.builder("freshplan_export_jobs_rejected")
+        .description("Export jobs rejected at submission")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+}
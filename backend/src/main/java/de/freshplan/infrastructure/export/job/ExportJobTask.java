@@ -0,0 +1,15 @@
+package de.freshplan.infrastructure.export.job;
+
+import java.io.OutputStream;
+
+/**
+ * Work of an export job: writes the complete document to the spool file.
+ *
+ * <p>Runs on an export worker inside a read transaction with the RLS context of the submitting
+ * user, see {@link ExportJobRunner}.
+ */
+@FunctionalInterface
+public interface ExportJobTask {
+
+  void writeTo(OutputStream output) throws Exception;
+}
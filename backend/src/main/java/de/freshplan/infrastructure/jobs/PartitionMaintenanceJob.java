@@ -0,0 +1,69 @@
+package de.freshplan.infrastructure.jobs;
+
+import de.freshplan.infrastructure.pg.PartitionMaintenanceService;
+import de.freshplan.infrastructure.pg.PartitionMaintenanceService.MaintenanceResult;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Partition Maintenance Job
+ *
+ * <p>Dünner {@code @Scheduled} Wrapper für {@link PartitionMaintenanceService} (audit_trail,
+ * domain_events).
+ *
+ * <p><b>Schedule:</b> Täglich um 0:30 Uhr (cron: {@code freshplan.partitions.maintenance.cron}),
+ * Partition-Gauges zusätzlich alle 5 Minuten.
+ *
+ * <p><b>Multi-Pod:</b> Der Service nimmt pro Tabelle ein Advisory-Lock, parallele Läufe auf
+ * mehreren Pods sind unkritisch.
+ */
+@ApplicationScoped
+public class PartitionMaintenanceJob {
+
+  private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+  @Inject PartitionMaintenanceService maintenanceService;
+
+  @ConfigProperty(name = "freshplan.partitions.maintenance.enabled", defaultValue = "true")
+  boolean enabled;
+
+  /** Legt Partitionen an, leert DEFAULT und setzt die Retention durch. */
+  @Scheduled(
+      cron = "{freshplan.partitions.maintenance.cron:0 30 0 * * ?}",
+      identity = "partition-maintenance",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  public void runMaintenance() {
+    if (!enabled) {
+      logger.debug("Partition maintenance disabled");
+      return;
+    }
+
+    logger.info("Starting partition maintenance");
+    List<MaintenanceResult> results = maintenanceService.maintainAll();
+    for (MaintenanceResult result : results) {
+      logger.info(
+          "Partition maintenance {}: moved={} created={} removed={} skipped={}",
+          result.table(),
+          result.movedRows(),
+          result.createdPartitions(),
+          result.removedPartitions(),
+          result.skipped());
+    }
+  }
+
+  /** Aktualisiert die Partitionsgrößen-Metriken. */
+  @Scheduled(
+      every = "{freshplan.partitions.metrics.interval:5m}",
+      identity = "partition-metrics",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  public void refreshMetrics() {
+    if (enabled) {
+      maintenanceService.refreshMetrics();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package de.freshplan.infrastructure.jobs;
+
+import de.freshplan.domain.opportunity.service.query.PipelineAnalyticsService;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pipeline Snapshot Job
+ *
+ * <p>Schreibt täglich die Pipeline-Aggregate pro Stage und Verkäufer nach {@code
+ * pipeline_daily_snapshots} (Basis für Trend- und Forecast-Charts).
+ *
+ * <p><b>Schedule:</b> Täglich um 23:55 Uhr (cron: {@code freshplan.pipeline.snapshot.cron}), damit
+ * der Snapshot den Stand des Tages abbildet. Manuell: POST /api/admin/jobs/pipeline-snapshot.
+ *
+ * <p><b>Multi-Pod:</b> Der Snapshot ist ein idempotentes {@code INSERT ... ON CONFLICT DO UPDATE},
+ * parallele Läufe auf mehreren Pods sind unkritisch.
+ */
+@ApplicationScoped
+public class PipelineSnapshotJob {
+
+  private static final Logger logger = LoggerFactory.getLogger(PipelineSnapshotJob.class);
+
+  @Inject PipelineAnalyticsService analyticsService;
+
+  @ConfigProperty(name = "freshplan.pipeline.snapshot.enabled", defaultValue = "true")
+  boolean enabled;
+
+  /** Schreibt den Snapshot für heute. */
+  @Scheduled(
+      cron = "{freshplan.pipeline.snapshot.cron:0 55 23 * * ?}",
+      identity = "pipeline-snapshot",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  public void captureSnapshot() {
+    if (!enabled) {
+      logger.debug("Pipeline snapshot disabled");
+      return;
+    }
+    captureNow();
+  }
+
+  /**
+   * Schreibt den Snapshot für heute sofort (Admin-Trigger).
+   *
+   * @return Anzahl geschriebener Zeilen
+   */
+  public int captureNow() {
+    return analyticsService.captureDailySnapshot(LocalDate.now());
+  }
+}
@@ -0,0 +1,290 @@
+package de.freshplan.infrastructure.meta;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Pre-rendered responses of all {@link PreRendered} metadata endpoints.
+ *
+ * <p>At startup every parameterless {@code @GET} method of a {@code @PreRendered} resource is
+ * invoked once and serialized with the application {@link ObjectMapper}. The result is kept as
+ * immutable bytes (plus a gzipped copy for larger documents) together with a content hash that
+ * serves as strong ETag. Requests are answered from these bytes; {@code If-None-Match} yields a 304
+ * without building or serializing anything.
+ *
+ * <p>The hash over all documents is the metadata version. {@code GET /api/meta} returns all
+ * documents in one response; clients that pass the current version as {@code ?v=} get an immutable
+ * {@code Cache-Control}, every other request gets {@code freshplan.meta.cache.max-age}. A new
+ * deployment with changed enums or schemas therefore yields a new version and new ETags.
+ */
+@ApplicationScoped
+public class MetadataCache {
+
+  private static final Logger LOG = Logger.getLogger(MetadataCache.class);
+
+  /** Path of the bundled metadata document, see {@code MetaResource}. */
+  public static final String BUNDLE_PATH = "/api/meta";
+
+  static final String VERSION_PARAM = "v";
+  static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+  /** One pre-rendered response. */
+  public record Document(String path, byte[] json, byte[] gzip, String hash) {
+
+    /** Strong ETag of the identity ({@code gzipped=false}) or gzip representation. */
+    public String etag(boolean gzipped) {
+      return gzipped ? "\"" + hash + "-gz\"" : "\"" + hash + "\"";
+    }
+
+    boolean matches(String ifNoneMatch) {
+      if (ifNoneMatch == null) {
+        return false;
+      }
+      for (String tag : ifNoneMatch.split(",")) {
+        String candidate = tag.trim();
+        if (candidate.equals("*")) {
+          return true;
+        }
+        // Weak comparison (RFC 9110 13.1.2), both representations share the content hash
+        if (candidate.startsWith("W/")) {
+          candidate = candidate.substring(2);
+        }
+        if (candidate.equals(etag(false)) || candidate.equals(etag(true))) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  @Inject BeanManager beanManager;
+
+  @Inject ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "freshplan.meta.cache.max-age", defaultValue = "1h")
+  Duration maxAge;
+
+  @ConfigProperty(name = "freshplan.meta.cache.gzip-min-size", defaultValue = "1024")
+  int gzipMinSize;
+
+  private volatile Map<Method, Document> documents = Map.of();
+  private volatile Document bundle;
+
+  void onStart(@Observes StartupEvent event) {
+    List<Object> resources = new ArrayList<>();
+    for (Bean<?> bean : beanManager.getBeans(Object.class, Any.Literal.INSTANCE)) {
+      if (bean.getBeanClass().isAnnotationPresent(PreRendered.class)) {
+        resources.add(
+            beanManager.getReference(
+                bean, bean.getBeanClass(), beanManager.createCreationalContext(bean)));
+      }
+    }
+    render(resources);
+  }
+
+  /** Renders the documents of the given resource instances and replaces the current cache. */
+  void render(List<Object> resources) {
+    Map<Method, Document> rendered = new HashMap<>();
+    for (Object resource : resources) {
+      Class<?> type = resourceClass(resource.getClass());
+      String basePath = pathOf(type);
+      for (Method method : type.getDeclaredMethods()) {
+        if (!isCacheable(method)) {
+          continue;
+        }
+        String path = join(basePath, pathOf(method));
+        try {
+          rendered.put(
+              method, document(path, objectMapper.writeValueAsBytes(invoke(method, resource))));
+        } catch (Exception e) {
+          // Not cached: requests fall through to the resource method
+          LOG.errorf(e, "Pre-rendering metadata %s failed", path);
+        }
+      }
+    }
+    Document renderedBundle = bundle(rendered.values());
+    documents = Map.copyOf(rendered);
+    bundle = renderedBundle;
+    LOG.infof(
+        "Pre-rendered %d metadata documents (version %s, bundle %d bytes)",
+        rendered.size(), renderedBundle.hash(), renderedBundle.json().length);
+  }
+
+  /** Cached document of a resource method, empty if it is not pre-rendered. */
+  public Optional<Document> find(Method resourceMethod) {
+    return Optional.ofNullable(documents.get(resourceMethod));
+  }
+
+  /** All documents in one response, keyed by path; empty before startup rendering finished. */
+  public Optional<Document> bundle() {
+    return Optional.ofNullable(bundle);
+  }
+
+  /**
+   * Response for a cached document: 304 if {@code ifNoneMatch} matches, otherwise the identity or
+   * gzip bytes depending on {@code acceptEncoding}.
+   *
+   * @param version Value of the {@code v} query parameter (may be {@code null})
+   */
+  public Response respond(
+      Document document, String ifNoneMatch, String acceptEncoding, String version) {
+    boolean gzipped = document.gzip() != null && acceptsGzip(acceptEncoding);
+    String cacheControl =
+        document.hash().equals(version) || (bundle != null && bundle.hash().equals(version))
+            ? IMMUTABLE_CACHE_CONTROL
+            : "public, max-age=" + maxAge.toSeconds();
+
+    Response.ResponseBuilder builder;
+    if (document.matches(ifNoneMatch)) {
+      builder = Response.notModified();
+    } else {
+      builder =
+          Response.ok(gzipped ? document.gzip() : document.json(), MediaType.APPLICATION_JSON);
+      if (gzipped) {
+        builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+      }
+    }
+    return builder
+        .header(HttpHeaders.ETAG, document.etag(gzipped))
+        .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .build();
+  }
+
+  private Document bundle(Iterable<Document> rendered) {
+    List<Document> sorted = new ArrayList<>();
+    rendered.forEach(sorted::add);
+    sorted.sort(Comparator.comparing(Document::path));
+
+    StringBuilder hashes = new StringBuilder();
+    sorted.forEach(document -> hashes.append(document.path()).append('=').append(document.hash()));
+    String version = hash(hashes.toString().getBytes(StandardCharsets.UTF_8));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.writeStartObject();
+      generator.writeStringField("version", version);
+      generator.writeObjectFieldStart("documents");
+      for (Document document : sorted) {
+        generator.writeFieldName(document.path());
+        generator.writeRawValue(new String(document.json(), StandardCharsets.UTF_8));
+      }
+      generator.writeEndObject();
+      generator.writeEndObject();
+    } catch (IOException e) {
+      throw new IllegalStateException("Rendering metadata bundle failed", e);
+    }
+    byte[] json = out.toByteArray();
+    return new Document(BUNDLE_PATH, json, gzip(json), version);
+  }
+
+  private Document document(String path, byte[] json) {
+    return new Document(path, json, gzip(json), hash(json));
+  }
+
+  private byte[] gzip(byte[] json) {
+    if (json.length < gzipMinSize) {
+      return null;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(json);
+    } catch (IOException e) {
+      throw new IllegalStateException("Compressing metadata failed", e);
+    }
+    return out.toByteArray();
+  }
+
+  private static String hash(byte[] content) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (parts[0].trim().equalsIgnoreCase("gzip")) {
+        return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  private static boolean isCacheable(Method method) {
+    return method.isAnnotationPresent(GET.class)
+        && Modifier.isPublic(method.getModifiers())
+        && method.getParameterCount() == 0
+        && method.getReturnType() != void.class;
+  }
+
+  private static Object invoke(Method method, Object resource) throws Exception {
+    Object result = method.invoke(resource);
+    if (result instanceof Response response) {
+      if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+        throw new IllegalStateException("Unexpected status " + response.getStatus());
+      }
+      return response.getEntity();
+    }
+    return result;
+  }
+
+  /** Skips generated CDI subclasses and client proxies. */
+  private static Class<?> resourceClass(Class<?> type) {
+    Class<?> current = type;
+    while (current != null && !current.isAnnotationPresent(Path.class)) {
+      current = current.getSuperclass();
+    }
+    return current != null ? current : type;
+  }
+
+  private static String pathOf(AnnotatedElement element) {
+    Path path = element.getAnnotation(Path.class);
+    return path != null ? path.value() : "";
+  }
+
+  private static String join(String base, String path) {
+    String joined = (base + "/" + path).replaceAll("/+", "/");
+    return joined.length() > 1 && joined.endsWith("/")
+        ? joined.substring(0, joined.length() - 1)
+        : joined;
+  }
+}
@@ -0,0 +1,20 @@
+package de.freshplan.infrastructure.meta;
+
+import jakarta.ws.rs.NameBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a resource whose parameterless GET endpoints return static metadata (enum values,
+ * Server-Driven UI schemas).
+ *
+ * <p>{@link MetadataCache} invokes these endpoints once at startup and keeps the serialized JSON;
+ * {@link PreRenderedMetadataFilter} then answers requests from the cache without invoking the
+ * resource method or Jackson. Only use it for responses that do not depend on the user or on data.
+ */
+@NameBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PreRendered {}
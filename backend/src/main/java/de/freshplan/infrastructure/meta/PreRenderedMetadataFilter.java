@@ -0,0 +1,46 @@
+package de.freshplan.infrastructure.meta;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Answers requests to {@link PreRendered} resources from the {@link MetadataCache}. The resource
+ * method is only invoked if its document could not be pre-rendered.
+ */
+@Provider
+@PreRendered
+@Priority(Priorities.USER)
+public class PreRenderedMetadataFilter implements ContainerRequestFilter {
+
+  @Inject MetadataCache metadataCache;
+
+  @Context ResourceInfo resourceInfo;
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    if (!HttpMethod.GET.equals(requestContext.getMethod())) {
+      return;
+    }
+    metadataCache
+        .find(resourceInfo.getResourceMethod())
+        .ifPresent(
+            document ->
+                requestContext.abortWith(
+                    metadataCache.respond(
+                        document,
+                        requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH),
+                        requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING),
+                        requestContext
+                            .getUriInfo()
+                            .getQueryParameters()
+                            .getFirst(MetadataCache.VERSION_PARAM))));
+  }
+}
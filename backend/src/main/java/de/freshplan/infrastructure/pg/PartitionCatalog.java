@@ -0,0 +1,201 @@
+package de.freshplan.infrastructure.pg;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DDL- und Katalog-Zugriffe für den {@link PartitionMaintenanceService}.
+ *
+ * <p>Jede Operation läuft in einer eigenen Transaktion ({@code REQUIRES_NEW}) und nimmt ein
+ * tabellenbezogenes Advisory-Lock, damit mehrere Pods nicht gleichzeitig Partitionen anlegen oder
+ * verschieben. Identifier stammen ausschließlich aus {@link PartitionedTable} (validiert), nie aus
+ * Benutzereingaben.
+ */
+@ApplicationScoped
+public class PartitionCatalog {
+
+  /** Partition laut pg_inherits mit Größe und geschätzter Zeilenzahl. */
+  public record PartitionInfo(
+      String name, boolean isDefault, long totalBytes, long estimatedRows) {}
+
+  @Inject EntityManager em;
+
+  /**
+   * @return true wenn die Tabelle existiert und RANGE-partitioniert ist
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public boolean isPartitioned(PartitionedTable table) {
+    Number count =
+        (Number)
+            em.createNativeQuery(
+                    """
+                    SELECT count(*) FROM pg_partitioned_table
+                    WHERE partrelid = to_regclass(:table)
+                    """)
+                .setParameter("table", "public." + table.table())
+                .getSingleResult();
+    return count.longValue() > 0;
+  }
+
+  /**
+   * @return alle Partitionen inkl. DEFAULT mit Größe (pg_total_relation_size)
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  @SuppressWarnings("unchecked")
+  public List<PartitionInfo> listPartitions(PartitionedTable table) {
+    List<Object[]> rows =
+        em.createNativeQuery(
+                """
+                SELECT c.relname,
+                       pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT',
+                       pg_total_relation_size(c.oid),
+                       GREATEST(c.reltuples, 0)::bigint
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(:table)
+                ORDER BY c.relname
+                """)
+            .setParameter("table", "public." + table.table())
+            .getResultList();
+
+    List<PartitionInfo> partitions = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      partitions.add(
+          new PartitionInfo(
+              (String) row[0],
+              Boolean.TRUE.equals(row[1]),
+              ((Number) row[2]).longValue(),
+              ((Number) row[3]).longValue()));
+    }
+    return partitions;
+  }
+
+  /**
+   * @return Monate, für die Zeilen in der DEFAULT-Partition liegen
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  @SuppressWarnings("unchecked")
+  public List<YearMonth> monthsInDefault(PartitionedTable table) {
+    if (!exists(table.defaultPartition())) {
+      return List.of();
+    }
+    List<String> months =
+        em.createNativeQuery(
+                String.format(
+                    "SELECT DISTINCT to_char(date_trunc('month', %s), 'YYYY-MM') FROM %s",
+                    table.partitionColumn(), table.defaultPartition()))
+            .getResultList();
+    return months.stream().map(YearMonth::parse).sorted().toList();
+  }
+
+  /**
+   * Verschiebt alle Zeilen eines Monats aus der DEFAULT-Partition in eine neue Monats-Partition.
+   *
+   * <p>Ablauf in einer Transaktion: DEFAULT sperren → Tabelle {@code LIKE parent} anlegen → Zeilen
+   * kopieren und aus DEFAULT löschen → als Partition ATTACHen. Die DEFAULT-Partition bleibt dabei
+   * angehängt, Inserts in andere Monate laufen weiter.
+   *
+   * @return Anzahl verschobener Zeilen, -1 wenn ein anderer Pod die Tabelle gerade wartet
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int moveMonthOutOfDefault(PartitionedTable table, YearMonth month) {
+    if (!tryLock(table)) {
+      return -1;
+    }
+    String partition = table.partitionName(month);
+    String from = PartitionedTable.lowerBound(month).toString();
+    String to = PartitionedTable.upperBound(month).toString();
+    String range =
+        String.format(
+            "%s >= '%s' AND %s < '%s'", table.partitionColumn(), from, table.partitionColumn(), to);
+
+    execute("LOCK TABLE %s IN ACCESS EXCLUSIVE MODE", table.defaultPartition());
+    execute(
+        "CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+        partition, table.table());
+    int moved =
+        execute(
+            "INSERT INTO %s SELECT * FROM %s WHERE %s", partition, table.defaultPartition(), range);
+    execute("DELETE FROM %s WHERE %s", table.defaultPartition(), range);
+    execute(
+        "ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+        table.table(), partition, from, to);
+    return moved;
+  }
+
+  /**
+   * Legt eine leere Monats-Partition an.
+   *
+   * @return true wenn angelegt, false wenn bereits vorhanden oder gesperrt
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public boolean createPartition(PartitionedTable table, YearMonth month) {
+    String partition = table.partitionName(month);
+    if (!tryLock(table) || exists(partition)) {
+      return false;
+    }
+    execute(
+        "CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+        partition,
+        table.table(),
+        PartitionedTable.lowerBound(month),
+        PartitionedTable.upperBound(month));
+    return true;
+  }
+
+  /**
+   * Hängt eine abgelaufene Partition ab und löscht sie optional.
+   *
+   * @param drop false = nur DETACH (Tabelle bleibt für Archivierung erhalten)
+   * @return true wenn abgehängt
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public boolean detachPartition(PartitionedTable table, String partition, boolean drop) {
+    if (!tryLock(table) || !exists(partition)) {
+      return false;
+    }
+    execute("ALTER TABLE %s DETACH PARTITION %s", table.table(), partition);
+    if (drop) {
+      execute("DROP TABLE %s", partition);
+    }
+    return true;
+  }
+
+  /**
+   * Löscht Causation-Guards (domain_event_causations), deren Events per Retention entfernt wurden.
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int deleteCausationsBefore(YearMonth firstRetainedMonth) {
+    if (!exists("domain_event_causations")) {
+      return 0;
+    }
+    return em.createNativeQuery("DELETE FROM domain_event_causations WHERE created_at < :cutoff")
+        .setParameter("cutoff", PartitionedTable.lowerBound(firstRetainedMonth).atStartOfDay())
+        .executeUpdate();
+  }
+
+  private boolean tryLock(PartitionedTable table) {
+    Object locked =
+        em.createNativeQuery("SELECT pg_try_advisory_xact_lock(hashtext(:key))")
+            .setParameter("key", "partition-maintenance:" + table.table())
+            .getSingleResult();
+    return Boolean.TRUE.equals(locked);
+  }
+
+  private boolean exists(String relation) {
+    Object regclass =
+        em.createNativeQuery("SELECT to_regclass(:rel)::text")
+            .setParameter("rel", "public." + relation)
+            .getSingleResult();
+    return regclass != null;
+  }
+
+  private int execute(String sqlTemplate, Object... args) {
+    return em.createNativeQuery(String.format(sqlTemplate, args)).executeUpdate();
+  }
+}
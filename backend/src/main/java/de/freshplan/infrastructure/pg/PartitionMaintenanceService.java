@@ -0,0 +1,242 @@
+package de.freshplan.infrastructure.pg;
+
+import de.freshplan.infrastructure.pg.PartitionCatalog.PartitionInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Rollierende Partitionsverwaltung für {@code audit_trail} und {@code domain_events}.
+ *
+ * <p>Ersetzt die handgeschriebenen Partitions-Migrationen (V222, V223) und das zeilenweise {@code
+ * AuditRepository.deleteOlderThan}:
+ *
+ * <ol>
+ *   <li>Zeilen aus der DEFAULT-Partition in echte Monats-Partitionen verschieben
+ *   <li>Monats-Partitionen {@code monthsAhead} Monate im Voraus anlegen
+ *   <li>Retention: Partitionen, deren Monat komplett außerhalb der Aufbewahrungsfrist liegt, per
+ *       DETACH (+ DROP) entfernen
+ *   <li>Partitionsgrößen und -anzahl als Micrometer-Gauges exportieren
+ * </ol>
+ *
+ * <p>Zeitgefilterte Queries werden dadurch vom Planner auf wenige Partitionen gepruned, statt eine
+ * stetig wachsende DEFAULT-Partition zu scannen.
+ */
+@ApplicationScoped
+public class PartitionMaintenanceService {
+
+  private static final Logger LOG = Logger.getLogger(PartitionMaintenanceService.class);
+
+  /** Ergebnis eines Wartungslaufs für eine Tabelle. */
+  public record MaintenanceResult(
+      String table, int movedRows, int createdPartitions, int removedPartitions, boolean skipped) {
+
+    static MaintenanceResult skipped(String table) {
+      return new MaintenanceResult(table, 0, 0, 0, true);
+    }
+  }
+
+  @ConfigProperty(name = "freshplan.partitions.months-ahead", defaultValue = "3")
+  int monthsAhead;
+
+  @ConfigProperty(name = "freshplan.partitions.audit-trail.retention-months", defaultValue = "84")
+  int auditTrailRetentionMonths;
+
+  @ConfigProperty(name = "freshplan.partitions.domain-events.retention-months", defaultValue = "12")
+  int domainEventsRetentionMonths;
+
+  @ConfigProperty(name = "freshplan.partitions.retention.drop-detached", defaultValue = "true")
+  boolean dropDetached;
+
+  @Inject PartitionCatalog catalog;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject Clock clock;
+
+  private final Map<String, List<PartitionInfo>> lastSnapshot = new ConcurrentHashMap<>();
+  private MultiGauge partitionSizes;
+
+  @PostConstruct
+  void registerMetrics() {
+    partitionSizes =
+        MultiGauge.builder("freshplan_partition_size_bytes")
+            .description("Total size (incl. indexes/TOAST) per partition")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+
+    for (PartitionedTable table : managedTables()) {
+      String name = table.table();
+      Gauge.builder(
+              "freshplan_partition_count",
+              lastSnapshot,
+              s -> s.getOrDefault(name, List.of()).size())
+          .description("Number of partitions per partitioned table")
+          .tag("table", name)
+          .register(meterRegistry);
+      Gauge.builder(
+              "freshplan_partition_default_rows",
+              lastSnapshot,
+              s ->
+                  s.getOrDefault(name, List.of()).stream()
+                      .filter(PartitionInfo::isDefault)
+                      .mapToLong(PartitionInfo::estimatedRows)
+                      .sum())
+          .description("Estimated rows in the DEFAULT partition (should be ~0)")
+          .tag("table", name)
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * @return alle verwalteten Tabellen mit aktueller Konfiguration
+   */
+  public List<PartitionedTable> managedTables() {
+    return List.of(
+        new PartitionedTable("audit_trail", "timestamp", monthsAhead, auditTrailRetentionMonths),
+        new PartitionedTable(
+            "domain_events", "created_at", monthsAhead, domainEventsRetentionMonths));
+  }
+
+  /** Führt die Wartung für alle verwalteten Tabellen aus. */
+  public List<MaintenanceResult> maintainAll() {
+    List<MaintenanceResult> results = new ArrayList<>();
+    for (PartitionedTable table : managedTables()) {
+      try {
+        results.add(maintain(table));
+      } catch (Exception e) {
+        LOG.errorf(e, "Partition maintenance failed for %s", table.table());
+      }
+    }
+    refreshMetrics();
+    return results;
+  }
+
+  /** Führt die Wartung für eine Tabelle aus (DEFAULT leeren → vorausanlegen → Retention). */
+  public MaintenanceResult maintain(PartitionedTable table) {
+    if (!catalog.isPartitioned(table)) {
+      LOG.infof("%s is not partitioned, skipping partition maintenance", table.table());
+      return MaintenanceResult.skipped(table.table());
+    }
+
+    YearMonth current = YearMonth.now(clock);
+
+    int moved = 0;
+    for (YearMonth month : catalog.monthsInDefault(table)) {
+      int rows = catalog.moveMonthOutOfDefault(table, month);
+      if (rows < 0) {
+        LOG.infof("%s is being maintained by another node, skipping", table.table());
+        return MaintenanceResult.skipped(table.table());
+      }
+      moved += rows;
+      LOG.infof("Moved %d rows of %s from %s", rows, month, table.defaultPartition());
+    }
+
+    List<PartitionInfo> partitions = catalog.listPartitions(table);
+    Set<YearMonth> existing = existingMonths(table, partitions);
+
+    int created = 0;
+    for (YearMonth month : missingMonths(existing, current, table.monthsAhead())) {
+      try {
+        if (catalog.createPartition(table, month)) {
+          created++;
+          LOG.infof("Created partition %s", table.partitionName(month));
+        }
+      } catch (Exception e) {
+        // z.B. überlappende, abweichend benannte Partition aus Alt-Migrationen
+        LOG.warnf(e, "Could not create partition %s", table.partitionName(month));
+      }
+    }
+
+    int removed = 0;
+    for (YearMonth month : expiredMonths(existing, current, table.retentionMonths())) {
+      String partition = table.partitionName(month);
+      if (catalog.detachPartition(table, partition, dropDetached)) {
+        removed++;
+        LOG.infof(
+            "Retention: %s partition %s (older than %d months)",
+            dropDetached ? "dropped" : "detached", partition, table.retentionMonths());
+      }
+    }
+    if (removed > 0 && "domain_events".equals(table.table())) {
+      catalog.deleteCausationsBefore(current.minusMonths(table.retentionMonths()));
+    }
+
+    return new MaintenanceResult(table.table(), moved, created, removed, false);
+  }
+
+  /** Aktualisiert die Partitions-Gauges aus pg_inherits/pg_class. */
+  public void refreshMetrics() {
+    List<MultiGauge.Row<?>> rows = new ArrayList<>();
+    for (PartitionedTable table : managedTables()) {
+      try {
+        List<PartitionInfo> partitions = catalog.listPartitions(table);
+        lastSnapshot.put(table.table(), partitions);
+        for (PartitionInfo partition : partitions) {
+          rows.add(
+              MultiGauge.Row.of(
+                  Tags.of("table", table.table(), "partition", partition.name()),
+                  partition.totalBytes()));
+        }
+      } catch (Exception e) {
+        LOG.debugf(e, "Could not read partitions of %s", table.table());
+      }
+    }
+    partitionSizes.register(rows, true);
+  }
+
+  /**
+   * Monate von {@code current} bis {@code current + monthsAhead}, für die noch keine Partition
+   * existiert.
+   */
+  static List<YearMonth> missingMonths(
+      Collection<YearMonth> existing, YearMonth current, int monthsAhead) {
+    List<YearMonth> missing = new ArrayList<>();
+    for (int i = 0; i <= monthsAhead; i++) {
+      YearMonth month = current.plusMonths(i);
+      if (!existing.contains(month)) {
+        missing.add(month);
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * Monate, die vollständig vor {@code current - retentionMonths} liegen. {@code retentionMonths =
+   * 0} deaktiviert die Retention.
+   */
+  static List<YearMonth> expiredMonths(
+      Collection<YearMonth> existing, YearMonth current, int retentionMonths) {
+    if (retentionMonths <= 0) {
+      return List.of();
+    }
+    YearMonth firstRetained = current.minusMonths(retentionMonths);
+    return existing.stream().filter(m -> m.isBefore(firstRetained)).sorted().toList();
+  }
+
+  private static Set<YearMonth> existingMonths(
+      PartitionedTable table, List<PartitionInfo> partitions) {
+    Set<YearMonth> months = new TreeSet<>();
+    for (PartitionInfo partition : partitions) {
+      if (!partition.isDefault()) {
+        table.monthOf(partition.name()).ifPresent(months::add);
+      }
+    }
+    return months;
+  }
+}
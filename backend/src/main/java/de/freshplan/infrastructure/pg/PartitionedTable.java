@@ -0,0 +1,78 @@
+package de.freshplan.infrastructure.pg;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Beschreibung einer monatlich RANGE-partitionierten Tabelle für den {@link
+ * PartitionMaintenanceService}.
+ *
+ * <p>Namensschema wie V9/V223: {@code <table>_YYYY_MM} für Monats-Partitionen und {@code
+ * <table>_default} für die DEFAULT-Partition.
+ *
+ * @param table Name der partitionierten Parent-Tabelle
+ * @param partitionColumn Partition-Key (timestamp/timestamptz)
+ * @param monthsAhead Anzahl Monate, die im Voraus angelegt werden
+ * @param retentionMonths Partitionen, deren Monat vollständig älter ist, werden entfernt (0 = nie)
+ */
+public record PartitionedTable(
+    String table, String partitionColumn, int monthsAhead, int retentionMonths) {
+
+  private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  public PartitionedTable {
+    if (!IDENTIFIER.matcher(table).matches() || !IDENTIFIER.matcher(partitionColumn).matches()) {
+      throw new IllegalArgumentException(
+          "Invalid identifier for partitioned table: " + table + "." + partitionColumn);
+    }
+    if (monthsAhead < 0 || retentionMonths < 0) {
+      throw new IllegalArgumentException("monthsAhead/retentionMonths must not be negative");
+    }
+  }
+
+  /**
+   * @return Name der DEFAULT-Partition
+   */
+  public String defaultPartition() {
+    return table + "_default";
+  }
+
+  /**
+   * @return Partition-Name für den Monat, z.B. {@code audit_trail_2025_08}
+   */
+  public String partitionName(YearMonth month) {
+    return String.format("%s_%04d_%02d", table, month.getYear(), month.getMonthValue());
+  }
+
+  /**
+   * @return Monat einer Partition nach Namensschema, leer für fremd benannte Partitionen
+   */
+  public Optional<YearMonth> monthOf(String partitionName) {
+    Matcher m = Pattern.compile(Pattern.quote(table) + "_(\\d{4})_(\\d{2})").matcher(partitionName);
+    if (!m.matches()) {
+      return Optional.empty();
+    }
+    int month = Integer.parseInt(m.group(2));
+    if (month < 1 || month > 12) {
+      return Optional.empty();
+    }
+    return Optional.of(YearMonth.of(Integer.parseInt(m.group(1)), month));
+  }
+
+  /**
+   * @return inklusive Untergrenze der Monats-Partition
+   */
+  public static LocalDate lowerBound(YearMonth month) {
+    return month.atDay(1);
+  }
+
+  /**
+   * @return exklusive Obergrenze der Monats-Partition
+   */
+  public static LocalDate upperBound(YearMonth month) {
+    return month.plusMonths(1).atDay(1);
+  }
+}
@@ -0,0 +1,235 @@
+package de.freshplan.infrastructure.queue;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Tabelle mit Lease-Claim-Protokoll (Outbox/Inbox): fällige PENDING-Zeilen werden per {@code FOR
+ * UPDATE SKIP LOCKED} auf einen Claim-Status gesetzt, außerhalb der Transaktion verarbeitet und
+ * danach abgeschlossen, neu eingereiht oder nach FAILED verschoben.
+ *
+ * <p>Erwartete Spalten: {@code id}, {@code status}, {@code attempts}, {@code last_error}, {@code
+ * next_attempt_at}, {@code claimed_at} sowie die hier benannten Zeitstempel. Alle Statements laufen
+ * in der Transaktion des Aufrufers. Identifier werden validiert und stammen nie aus
+ * Benutzereingaben.
+ *
+ * @param table Name der Queue-Tabelle
+ * @param queuedAtColumn Einreihungszeitpunkt (Claim-Reihenfolge, Alter der Queue)
+ * @param claimedStatus Status während der Verarbeitung, z.B. {@code SENDING}
+ * @param doneStatus Status nach erfolgreicher Verarbeitung, z.B. {@code SENT}
+ * @param doneAtColumn Zeitstempel für {@code doneStatus}
+ * @param failedAtColumn Zeitstempel für FAILED
+ */
+public record LeaseQueue(
+    String table,
+    String queuedAtColumn,
+    String claimedStatus,
+    String doneStatus,
+    String doneAtColumn,
+    String failedAtColumn) {
+
+  /** Ergebnis von {@link #releaseExpired(EntityManager, LocalDateTime, int, LocalDateTime)}. */
+  public record ReleasedClaims(int requeued, int deadLettered) {
+    public static final ReleasedClaims NONE = new ReleasedClaims(0, 0);
+  }
+
+  /** Queue-Kennzahlen aus einem einzigen Scan. */
+  public record QueueStats(long pending, long deadLetter, Duration oldestPendingAge) {
+    public static final QueueStats EMPTY = new QueueStats(0, 0, Duration.ZERO);
+  }
+
+  private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+  private static final Pattern STATUS = Pattern.compile("[A-Z_]+");
+
+  public LeaseQueue {
+    requireIdentifier(table, queuedAtColumn, doneAtColumn, failedAtColumn);
+    if (!STATUS.matcher(claimedStatus).matches() || !STATUS.matcher(doneStatus).matches()) {
+      throw new IllegalArgumentException(
+          "Invalid status for lease queue " + table + ": " + claimedStatus + "/" + doneStatus);
+    }
+  }
+
+  /**
+   * Claimt bis zu {@code limit} fällige Zeilen (älteste zuerst) und setzt sie auf {@code
+   * claimedStatus}.
+   *
+   * @param columns Spalten der geclaimten Zeilen, in dieser Reihenfolge im Ergebnis
+   * @param now Aktueller Zeitpunkt (Claim-Lease-Beginn)
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object[]> claimDue(
+      EntityManager em, int limit, LocalDateTime now, String... columns) {
+    requireIdentifier(columns);
+    return em.createNativeQuery(
+            """
+            UPDATE %1$s
+            SET status = '%2$s', claimed_at = :now
+            WHERE id IN (
+              SELECT id FROM %1$s
+              WHERE status = 'PENDING'
+                AND (next_attempt_at IS NULL OR next_attempt_at <= :now)
+              ORDER BY %3$s, id
+              LIMIT :limit
+              FOR UPDATE SKIP LOCKED)
+            RETURNING %4$s
+            """
+                .formatted(table, claimedStatus, queuedAtColumn, String.join(", ", columns)))
+        .setParameter("now", now)
+        .setParameter("limit", limit)
+        .getResultList();
+  }
+
+  /** Schließt geclaimte Zeilen in einem Statement ab ({@code doneStatus}). */
+  public int complete(EntityManager em, List<Long> ids, LocalDateTime now) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return em.createNativeQuery(
+            """
+            UPDATE %s
+            SET status = '%s', %s = :now, attempts = attempts + 1,
+                claimed_at = NULL, last_error = NULL
+            WHERE id IN (:ids) AND status = '%s'
+            """
+                .formatted(table, doneStatus, doneAtColumn, claimedStatus))
+        .setParameter("now", now)
+        .setParameter("ids", ids)
+        .executeUpdate();
+  }
+
+  /** Gibt geclaimte Zeilen mit gezähltem Fehlversuch zurück in die Queue. */
+  public int requeue(EntityManager em, List<Long> ids, String error, LocalDateTime nextAttemptAt) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return em.createNativeQuery(
+            """
+            UPDATE %s
+            SET status = 'PENDING', attempts = attempts + 1, last_error = :error,
+                next_attempt_at = :nextAttemptAt, claimed_at = NULL
+            WHERE id IN (:ids) AND status = '%s'
+            """
+                .formatted(table, claimedStatus))
+        .setParameter("ids", ids)
+        .setParameter("error", error)
+        .setParameter("nextAttemptAt", nextAttemptAt)
+        .executeUpdate();
+  }
+
+  /** Verschiebt geclaimte Zeilen mit gezähltem Fehlversuch in den Dead-Letter-Status FAILED. */
+  public int deadLetter(EntityManager em, List<Long> ids, String error, LocalDateTime now) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return em.createNativeQuery(
+            """
+            UPDATE %s
+            SET status = 'FAILED', attempts = attempts + 1, last_error = :error,
+                %s = :now, claimed_at = NULL, next_attempt_at = NULL
+            WHERE id IN (:ids) AND status = '%s'
+            """
+                .formatted(table, failedAtColumn, claimedStatus))
+        .setParameter("ids", ids)
+        .setParameter("error", error)
+        .setParameter("now", now)
+        .executeUpdate();
+  }
+
+  /**
+   * Gibt Zeilen mit abgelaufener Lease ohne Zählen eines Versuchs zurück in die Queue.
+   *
+   * @param leaseCutoff Claims vor diesem Zeitpunkt gelten als verwaist
+   */
+  public int releaseExpired(EntityManager em, LocalDateTime leaseCutoff) {
+    return em.createNativeQuery(
+            """
+            UPDATE %s
+            SET status = 'PENDING', claimed_at = NULL
+            WHERE status = '%s' AND claimed_at < :cutoff
+            """
+                .formatted(table, claimedStatus))
+        .setParameter("cutoff", leaseCutoff)
+        .executeUpdate();
+  }
+
+  /**
+   * Gibt Zeilen mit abgelaufener Lease frei und zählt die Lease als Fehlversuch; ab {@code
+   * maxAttempts} gehen sie nach FAILED.
+   *
+   * @param leaseCutoff Claims vor diesem Zeitpunkt gelten als verwaist
+   * @param error {@code last_error} der freigegebenen Zeilen
+   */
+  @SuppressWarnings("unchecked")
+  public ReleasedClaims releaseExpired(
+      EntityManager em,
+      LocalDateTime leaseCutoff,
+      int maxAttempts,
+      String error,
+      LocalDateTime now) {
+    List<String> statuses =
+        em.createNativeQuery(
+                """
+                UPDATE %1$s
+                SET status = CASE WHEN attempts + 1 >= :maxAttempts THEN 'FAILED' ELSE 'PENDING' END,
+                    attempts = attempts + 1,
+                    last_error = :error,
+                    %2$s = CASE WHEN attempts + 1 >= :maxAttempts THEN :now ELSE %2$s END,
+                    next_attempt_at =
+                        CASE WHEN attempts + 1 >= :maxAttempts THEN NULL ELSE next_attempt_at END,
+                    claimed_at = NULL
+                WHERE status = '%3$s' AND claimed_at < :cutoff
+                RETURNING status
+                """
+                    .formatted(table, failedAtColumn, claimedStatus))
+            .setParameter("cutoff", leaseCutoff)
+            .setParameter("maxAttempts", maxAttempts)
+            .setParameter("error", error)
+            .setParameter("now", now)
+            .getResultList();
+
+    int deadLettered = (int) statuses.stream().filter("FAILED"::equals).count();
+    return new ReleasedClaims(statuses.size() - deadLettered, deadLettered);
+  }
+
+  /** Offene Zeilen, Dead-Letter-Anzahl und Alter der ältesten offenen Zeile in einem Scan. */
+  public QueueStats stats(EntityManager em, LocalDateTime now) {
+    Object[] row =
+        (Object[])
+            em.createNativeQuery(
+                    """
+                    SELECT count(*) FILTER (WHERE status IN ('PENDING', '%2$s')),
+                           count(*) FILTER (WHERE status = 'FAILED'),
+                           min(%3$s) FILTER (WHERE status IN ('PENDING', '%2$s'))
+                    FROM %1$s
+                    WHERE status <> '%4$s'
+                    """
+                        .formatted(table, claimedStatus, queuedAtColumn, doneStatus))
+                .getSingleResult();
+
+    long pending = ((Number) row[0]).longValue();
+    long deadLetter = ((Number) row[1]).longValue();
+    Duration oldestAge = Duration.ZERO;
+    if (row[2] != null) {
+      LocalDateTime oldest =
+          row[2] instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) row[2];
+      oldestAge = Duration.between(oldest, now);
+      if (oldestAge.isNegative()) {
+        oldestAge = Duration.ZERO;
+      }
+    }
+    return new QueueStats(pending, deadLetter, oldestAge);
+  }
+
+  private static void requireIdentifier(String... identifiers) {
+    if (identifiers.length == 0
+        || !Arrays.stream(identifiers).allMatch(id -> IDENTIFIER.matcher(id).matches())) {
+      throw new IllegalArgumentException(
+          "Invalid identifier for lease queue: " + Arrays.toString(identifiers));
+    }
+  }
+}
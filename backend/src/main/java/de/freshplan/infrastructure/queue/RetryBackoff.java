@@ -0,0 +1,24 @@
+package de.freshplan.infrastructure.queue;
+
+import java.time.Duration;
+
+/** Exponentieller Backoff für Retries aus einer {@link LeaseQueue}. */
+public final class RetryBackoff {
+
+  private RetryBackoff() {}
+
+  /**
+   * Berechnet die Wartezeit vor dem nächsten Versuch: {@code initial * 2^(attempts-1)}, gedeckelt
+   * auf {@code max}.
+   *
+   * @param attempts Anzahl bisher fehlgeschlagener Versuche (≥ 1)
+   */
+  public static Duration exponential(int attempts, Duration initial, Duration max) {
+    int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+    long seconds = initial.toSeconds() << exponent;
+    if (seconds <= 0 || seconds > max.toSeconds()) {
+      return max;
+    }
+    return Duration.ofSeconds(seconds);
+  }
+}
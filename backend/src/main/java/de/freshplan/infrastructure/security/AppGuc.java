@@ -6,12 +6,20 @@ package de.freshplan.infrastructure.security;
  *
  * <p>These keys are set on the database connection to provide context for RLS policies to filter
  * data based on user, role, tenant, and territory.
+ *
+ * <p>All keys are applied together in one statement by {@link RlsContextPropagator}.
  */
 public enum AppGuc {
   CURRENT_USER("app.user_context"),
   CURRENT_ROLE("app.role_context"),
   TENANT_ID("app.tenant_id"),
-  CURRENT_TERRITORY("app.territory_context");
+  CURRENT_TERRITORY("app.territory_context"),
+
+  // Security context core (V227: set_app_context / current_app_context / has_role)
+  USER_ID("app.user_id"),
+  ORG_ID("app.org_id"),
+  TERRITORY("app.territory"),
+  ROLES("app.roles");
 
   private final String key;
 
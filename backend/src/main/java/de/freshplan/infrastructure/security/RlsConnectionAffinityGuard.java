@@ -1,6 +1,5 @@
 package de.freshplan.infrastructure.security;
 
-import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
@@ -22,6 +21,10 @@ import org.jboss.logging.Logger;
  *
  * <p>IMPORTANT: Methods annotated with @RlsContext MUST also be annotated with @Transactional to
  * ensure connection affinity.
+ *
+ * <p>The GUCs themselves are written by {@link RlsContextPropagator} in a single statement on the
+ * transaction connection; nested {@code @RlsContext} calls within the same transaction cost no
+ * additional round trip.
  */
 @RlsContext
 @Interceptor
@@ -33,7 +36,9 @@ public class RlsConnectionAffinityGuard {
 
   @Inject EntityManager em;
 
-  @Inject SecurityIdentity securityIdentity;
+  @Inject RlsRequestContext requestContext;
+
+  @Inject RlsContextPropagator propagator;
 
   @Inject TransactionSynchronizationRegistry tsr;
 
@@ -51,7 +56,8 @@ public class RlsConnectionAffinityGuard {
     }
 
     // Verify we have an active transaction (critical for RLS safety)
-    if (tsr.getTransactionKey() == null) {
+    boolean inTransaction = tsr.getTransactionKey() != null;
+    if (!inTransaction) {
       String error = "No active transaction for RLS context (fail-closed).";
       LOG.error(error);
       if (failClosed) {
@@ -71,22 +77,13 @@ public class RlsConnectionAffinityGuard {
       }
     }
 
-    // Extract user context
-    String currentUser = extractCurrentUser();
-    String currentRole = extractCurrentRole();
-    String tenantId = extractTenantId();
-    String territory = extractTerritory();
-
-    // Set GUC variables on the current connection
-    setGucVariables(currentUser, currentRole, tenantId, territory);
-
-    try {
-      // Execute the actual method
-      return context.proceed();
-    } finally {
-      // GUC variables are automatically cleared at transaction end due to SET LOCAL
-      LOG.debugf("RLS context cleared automatically at transaction end");
+    // Captured once per request; skipped if the transaction connection already carries it
+    if (inTransaction) {
+      propagator.apply(requestContext.currentOrAnonymousFallback(), em);
     }
+
+    // GUC variables are transaction-local and cleared automatically at transaction end
+    return context.proceed();
   }
 
   private boolean isTransactional(InvocationContext context) {
@@ -97,87 +94,4 @@ public class RlsConnectionAffinityGuard {
     // Check class level
     return context.getTarget().getClass().isAnnotationPresent(Transactional.class);
   }
-
-  private String extractCurrentUser() {
-    if (!securityIdentity.isAnonymous()) {
-      return securityIdentity.getPrincipal().getName();
-    }
-    // DEV-Mode fallback: Use 'admin' for anonymous users (when auth is disabled)
-    // This allows RLS policies to work in development without authentication
-    return "admin";
-  }
-
-  private String extractCurrentRole() {
-    if (!securityIdentity.isAnonymous() && !securityIdentity.getRoles().isEmpty()) {
-      // Return the first role in uppercase for consistency with DB policies
-      String role = securityIdentity.getRoles().iterator().next();
-      return role != null ? role.toUpperCase() : null;
-    }
-    // DEV-Mode fallback: Use 'ADMIN' role for anonymous users
-    return "ADMIN";
-  }
-
-  private String extractTenantId() {
-    // Extract from JWT claim or request context
-    // TODO: FP-263 - Implement multi-tenancy JWT claim extraction (Sprint 2.x)
-    // For now, returns null which triggers fail-closed behavior
-    return securityIdentity.getAttribute("tenant_id");
-  }
-
-  private String extractTerritory() {
-    // Extract from JWT claim or user settings
-    // TODO: FP-264 - Implement territory extraction from UserSettings or JWT (Sprint 2.x)
-    // For now, returns null which triggers fail-closed behavior
-    return securityIdentity.getAttribute("territory");
-  }
-
-  private void setGucVariables(String user, String role, String tenant, String territory) {
-    LOG.debugf(
-        "Setting RLS context: user=%s, role=%s, tenant=%s, territory=%s",
-        user, role, tenant, territory);
-
-    // Use set_config with parameters for safety (transaction-scoped)
-    if (user != null) {
-      em.createNativeQuery(AppGuc.CURRENT_USER.setLocalConfigSql())
-          .setParameter(1, AppGuc.CURRENT_USER.getKey())
-          .setParameter(2, user)
-          .getSingleResult();
-    }
-    if (role != null) {
-      // Always uppercase roles for consistency with RLS policies
-      em.createNativeQuery(AppGuc.CURRENT_ROLE.setLocalConfigSql())
-          .setParameter(1, AppGuc.CURRENT_ROLE.getKey())
-          .setParameter(2, role.toUpperCase())
-          .getSingleResult();
-    }
-    if (tenant != null) {
-      em.createNativeQuery(AppGuc.TENANT_ID.setLocalConfigSql())
-          .setParameter(1, AppGuc.TENANT_ID.getKey())
-          .setParameter(2, tenant)
-          .getSingleResult();
-    }
-    if (territory != null) {
-      em.createNativeQuery(AppGuc.CURRENT_TERRITORY.setLocalConfigSql())
-          .setParameter(1, AppGuc.CURRENT_TERRITORY.getKey())
-          .setParameter(2, territory)
-          .getSingleResult();
-    }
-
-    // Verify GUCs are set (only in debug mode)
-    if (LOG.isDebugEnabled()) {
-      verifyGucVariables();
-    }
-  }
-
-  private void verifyGucVariables() {
-    try {
-      String verifyUser =
-          (String) em.createNativeQuery(AppGuc.CURRENT_USER.getConfigSql()).getSingleResult();
-      String verifyTerritory =
-          (String) em.createNativeQuery(AppGuc.CURRENT_TERRITORY.getConfigSql()).getSingleResult();
-      LOG.debugf("GUC verification: user=%s, territory=%s", verifyUser, verifyTerritory);
-    } catch (Exception e) {
-      LOG.warn("Failed to verify GUC variables", e);
-    }
-  }
 }
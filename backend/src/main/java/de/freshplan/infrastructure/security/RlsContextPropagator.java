@@ -0,0 +1,184 @@
+package de.freshplan.infrastructure.security;
+
+import io.agroal.api.AgroalPoolInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+/**
+ * Applies the RLS context to the connection the business transaction actually uses.
+ *
+ * <p>Registered as Agroal pool interceptor: when a connection is acquired inside a JTA transaction,
+ * Agroal has already enlisted it, so all {@link AppGuc} keys are set transaction-local in
+ * <b>one</b> statement on exactly that connection. Later acquisitions in the same transaction reuse
+ * the enlisted connection and do not fire again.
+ *
+ * <p>{@link RlsConnectionAffinityGuard} ({@code @RlsContext}) goes through {@link
+ * #apply(RlsSessionContext, EntityManager)}: if the transaction connection already carries the same
+ * context the statement is skipped, if no connection has been acquired yet the context is only
+ * registered and applied on acquisition. A typical {@code @RlsContext} request therefore costs a
+ * single round trip instead of the former 1 ({@code SessionSettingsFilter}) + 2 ({@code
+ * RlsGucFilter}) + up to 4 per intercepted method.
+ *
+ * <p>Connections acquired outside a transaction get no context: {@code set_config(..., true)} would
+ * not outlive the statement, and session-scoped GUCs would leak across pooled connections.
+ */
+@ApplicationScoped
+public class RlsContextPropagator implements AgroalPoolInterceptor {
+
+  private static final Logger LOG = Logger.getLogger(RlsContextPropagator.class);
+
+  /** Transaction resource: context applied to the enlisted connection. */
+  static final String APPLIED_KEY = RlsContextPropagator.class.getName() + ".applied";
+
+  /** Marker for {@link #APPLIED_KEY}: connection acquired, but without context (anonymous). */
+  static final Object NO_CONTEXT = "none";
+
+  /** Transaction resource: context requested before a connection was acquired. */
+  static final String PENDING_KEY = RlsContextPropagator.class.getName() + ".pending";
+
+  /** One statement for all keys, parameter order = {@link AppGuc#values()}. */
+  static final String APPLY_SQL =
+      Arrays.stream(AppGuc.values())
+          .map(guc -> "set_config('" + guc.getKey() + "', ?, true)")
+          .collect(Collectors.joining(", ", "SELECT ", ""));
+
+  @Inject TransactionSynchronizationRegistry tsr;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "security.rls.interceptor.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "security.rls.fail-closed", defaultValue = "true")
+  boolean failClosed;
+
+  private Counter appliedOnAcquire;
+  private Counter appliedOnSwitch;
+  private Counter skippedUnchanged;
+  private Counter deferred;
+  private Counter skippedNoTransaction;
+  private Counter failures;
+
+  @PostConstruct
+  void init() {
+    appliedOnAcquire = counter("freshplan_rls_context_applied", "source", "acquire");
+    appliedOnSwitch = counter("freshplan_rls_context_applied", "source", "switch");
+    skippedUnchanged = counter("freshplan_rls_context_skipped", "reason", "unchanged");
+    deferred = counter("freshplan_rls_context_skipped", "reason", "deferred");
+    skippedNoTransaction = counter("freshplan_rls_context_skipped", "reason", "no_transaction");
+    failures = counter("freshplan_rls_context_failures", "source", "apply");
+  }
+
+  @Override
+  public void onConnectionAcquire(Connection connection) {
+    if (!enabled) {
+      return;
+    }
+    if (tsr.getTransactionKey() == null) {
+      skippedNoTransaction.increment();
+      return;
+    }
+    RlsSessionContext context = (RlsSessionContext) tsr.getResource(PENDING_KEY);
+    if (context == null) {
+      context = requestContext();
+    }
+    if (context == null) {
+      // anonymous / no request: nothing to propagate (policies fail closed)
+      tsr.putResource(APPLIED_KEY, NO_CONTEXT);
+      return;
+    }
+    try {
+      execute(connection, context);
+      tsr.putResource(APPLIED_KEY, context);
+      appliedOnAcquire.increment();
+    } catch (SQLException e) {
+      handleFailure(e);
+    }
+  }
+
+  /**
+   * Ensures the current transaction runs with {@code context}.
+   *
+   * @param context Context to apply
+   * @param em Entity manager of the transaction (used only if the context switches on an already
+   *     acquired connection)
+   */
+  public void apply(RlsSessionContext context, EntityManager em) {
+    Object applied = tsr.getResource(APPLIED_KEY);
+    if (context.equals(applied)) {
+      skippedUnchanged.increment();
+      return;
+    }
+    if (applied == null) {
+      // No connection yet - the acquisition hook applies it together with the first statement
+      tsr.putResource(PENDING_KEY, context);
+      deferred.increment();
+      return;
+    }
+    em.unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try {
+                execute(connection, context);
+                tsr.putResource(APPLIED_KEY, context);
+                appliedOnSwitch.increment();
+              } catch (SQLException e) {
+                handleFailure(e);
+              }
+            });
+  }
+
+  void execute(Connection connection, RlsSessionContext context) throws SQLException {
+    try (PreparedStatement ps = connection.prepareStatement(APPLY_SQL)) {
+      AppGuc[] keys = AppGuc.values();
+      for (int i = 0; i < keys.length; i++) {
+        ps.setString(i + 1, context.value(keys[i]));
+      }
+      ps.execute();
+    }
+    LOG.debugf("RLS context applied: user=%s, role=%s", context.user(), context.role());
+  }
+
+  RlsSessionContext requestContext() {
+    ArcContainer container = Arc.container();
+    if (container == null || !container.requestContext().isActive()) {
+      return null;
+    }
+    try {
+      return container.instance(RlsRequestContext.class).get().current();
+    } catch (RuntimeException e) {
+      LOG.debug("No security identity available for RLS context", e);
+      return null;
+    }
+  }
+
+  private void handleFailure(SQLException e) {
+    failures.increment();
+    if (failClosed) {
+      throw new IllegalStateException("Failed to apply RLS context (fail-closed)", e);
+    }
+    LOG.warn("Failed to apply RLS context, continuing without it", e);
+  }
+
+  private Counter counter(String name, String tag, String value) {
+    return Counter.builder(name)
+        .description("RLS context propagation on transaction connections")
+        .tag(tag, value)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,140 @@
+package de.freshplan.infrastructure.security;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.logging.Logger;
+
+/**
+ * Captures the RLS context once per request from the security identity / JWT.
+ *
+ * <p>Used by {@link RlsContextPropagator} (connection acquisition) and {@link
+ * RlsConnectionAffinityGuard} ({@code @RlsContext}), so identity and claims are evaluated only once
+ * per request.
+ */
+@RequestScoped
+public class RlsRequestContext {
+
+  private static final Logger LOG = Logger.getLogger(RlsRequestContext.class);
+
+  /** Role precedence for {@code app.role_context} (highest privilege first). */
+  static final List<String> ROLE_PRECEDENCE =
+      List.of("ADMIN", "MANAGER", "SALES", "USER", "AUDITOR", "VIEWER");
+
+  @Inject SecurityIdentity identity;
+
+  @Inject Instance<JsonWebToken> jwt;
+
+  @ConfigProperty(name = "app.default.org-id", defaultValue = "freshfoodz")
+  String defaultOrgId;
+
+  @ConfigProperty(name = "app.default.territory", defaultValue = "DE")
+  String defaultTerritory;
+
+  private RlsSessionContext resolved;
+
+  /**
+   * @return Context of the authenticated user, {@code null} for anonymous requests
+   */
+  public RlsSessionContext current() {
+    if (resolved != null) {
+      return resolved;
+    }
+    if (identity.isAnonymous()) {
+      return null;
+    }
+    resolved = resolve();
+    LOG.debugf("RLS context captured: %s", resolved);
+    return resolved;
+  }
+
+  /**
+   * Pins the context captured in another request. Used by work that runs on behalf of a user
+   * outside the HTTP request (export jobs), so it does not get the anonymous ADMIN fallback.
+   */
+  public void assume(RlsSessionContext context) {
+    resolved = context;
+    LOG.debugf("RLS context assumed: %s", context);
+  }
+
+  /**
+   * Like {@link #current()}, but anonymous invocations (scheduler, dev mode without auth) get the
+   * {@code admin}/{@code ADMIN} fallback used by {@code @RlsContext} methods.
+   */
+  public RlsSessionContext currentOrAnonymousFallback() {
+    RlsSessionContext context = current();
+    if (context != null) {
+      return context;
+    }
+    return new RlsSessionContext(
+        "admin", "ADMIN", null, null, null, defaultOrgId, defaultTerritory, "ADMIN");
+  }
+
+  private RlsSessionContext resolve() {
+    String user = identity.getPrincipal().getName();
+    String territory = extractClaim("territory");
+    String orgId = extractClaim("org_id");
+    return new RlsSessionContext(
+        user,
+        primaryRole(identity.getRoles()),
+        extractClaim("tenant_id"),
+        territory,
+        extractUserId(user),
+        orgId != null ? orgId : defaultOrgId,
+        territory != null ? territory : defaultTerritory,
+        identity.getRoles().stream().sorted().collect(Collectors.joining(",")));
+  }
+
+  /**
+   * Deterministic primary role: highest privilege from {@link #ROLE_PRECEDENCE}, otherwise the
+   * alphabetically first role. Always uppercase for consistency with the DB policies.
+   */
+  static String primaryRole(Set<String> roles) {
+    List<String> upper = roles.stream().map(r -> r.toUpperCase(Locale.ROOT)).sorted().toList();
+    for (String candidate : ROLE_PRECEDENCE) {
+      if (upper.contains(candidate)) {
+        return candidate;
+      }
+    }
+    return upper.isEmpty() ? null : upper.get(0);
+  }
+
+  private String extractUserId(String principalName) {
+    String subject = principalName;
+    try {
+      if (jwt.isResolvable() && jwt.get() != null && jwt.get().getSubject() != null) {
+        subject = jwt.get().getSubject();
+      }
+      return UUID.fromString(subject).toString();
+    } catch (IllegalArgumentException e) {
+      LOG.tracef("Subject %s is not a UUID, app.user_id stays empty", subject);
+    } catch (Exception e) {
+      LOG.debug("Could not extract user ID", e);
+    }
+    return null;
+  }
+
+  private String extractClaim(String claimName) {
+    try {
+      if (jwt.isResolvable() && jwt.get() != null) {
+        Object claim = jwt.get().getClaim(claimName);
+        if (claim != null) {
+          return claim.toString();
+        }
+      }
+      Object attribute = identity.getAttribute(claimName);
+      return attribute != null ? attribute.toString() : null;
+    } catch (Exception e) {
+      LOG.debugf("Could not extract claim %s", claimName);
+      return null;
+    }
+  }
+}
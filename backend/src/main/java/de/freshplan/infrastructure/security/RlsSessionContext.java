@@ -0,0 +1,46 @@
+package de.freshplan.infrastructure.security;
+
+/**
+ * Immutable RLS context of one request/invocation - the values of all {@link AppGuc} keys.
+ *
+ * <p>Value-based equality is used by {@link RlsContextPropagator} to skip the {@code set_config}
+ * statement when the transaction connection already carries the same context.
+ *
+ * @param user Principal name ({@code app.user_context})
+ * @param role Primary role, uppercase ({@code app.role_context})
+ * @param tenantId Tenant claim ({@code app.tenant_id}), may be null
+ * @param territory Territory claim ({@code app.territory_context}), may be null
+ * @param userId JWT subject if it is a UUID ({@code app.user_id}), may be null
+ * @param orgId Organisation ({@code app.org_id})
+ * @param appTerritory Territory incl. default ({@code app.territory})
+ * @param roles All roles, comma-separated ({@code app.roles})
+ */
+public record RlsSessionContext(
+    String user,
+    String role,
+    String tenantId,
+    String territory,
+    String userId,
+    String orgId,
+    String appTerritory,
+    String roles) {
+
+  /**
+   * Value for a GUC key. {@code null} is mapped to an empty string - same as {@code
+   * set_app_context} does with COALESCE, RLS policies treat both as "no access".
+   */
+  public String value(AppGuc guc) {
+    String value =
+        switch (guc) {
+          case CURRENT_USER -> user;
+          case CURRENT_ROLE -> role;
+          case TENANT_ID -> tenantId;
+          case CURRENT_TERRITORY -> territory;
+          case USER_ID -> userId;
+          case ORG_ID -> orgId;
+          case TERRITORY -> appTerritory;
+          case ROLES -> roles;
+        };
+    return value != null ? value : "";
+  }
+}
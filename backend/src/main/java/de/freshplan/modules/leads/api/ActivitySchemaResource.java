@@ -1,6 +1,7 @@
 package de.freshplan.modules.leads.api;
 
 import de.freshplan.domain.customer.dto.*;
+import de.freshplan.infrastructure.meta.PreRendered;
 import jakarta.annotation.security.PermitAll;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -48,6 +49,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
  * @author FreshPlan Team
  * @since 2.0.0
  */
+@PreRendered
 @Path("/api/activities/schema")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(
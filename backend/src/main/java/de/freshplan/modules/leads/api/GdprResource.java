@@ -2,9 +2,11 @@ package de.freshplan.modules.leads.api;
 
 import de.freshplan.modules.leads.domain.GdprDataRequest;
 import de.freshplan.modules.leads.domain.GdprDeletionLog;
+import de.freshplan.modules.leads.service.GdprExportBulkhead;
 import de.freshplan.modules.leads.service.GdprService;
 import de.freshplan.modules.leads.service.GdprService.GdprDeletionBlockedException;
 import io.quarkus.security.Authenticated;
+import io.vertx.ext.web.RoutingContext;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotBlank;
@@ -14,8 +16,10 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -58,8 +62,12 @@ public class GdprResource {
 
   private static final Logger LOG = Logger.getLogger(GdprResource.class);
 
+  private static final int EXPORT_RETRY_AFTER_SECONDS = 30;
+
   @Inject GdprService gdprService;
 
+  @Inject GdprExportBulkhead exportBulkhead;
+
   // ============================================================================
   // Art. 15 - Auskunftsrecht (Datenexport)
   // ============================================================================
@@ -69,6 +77,9 @@ public class GdprResource {
    *
    * <p>Antwortfrist: 1 Monat ab Anfrage (Art. 12 Abs. 3 DSGVO)
    *
+   * <p>Das PDF wird direkt in die Response gestreamt; gleichzeitige Exporte begrenzt {@link
+   * GdprExportBulkhead} (HTTP 503 mit {@code Retry-After}, wenn alle Slots belegt sind).
+   *
    * @param leadId ID des Leads
    * @param securityContext Security Context für User-ID
    * @return PDF-Datei mit allen personenbezogenen Daten
@@ -88,30 +99,58 @@ public class GdprResource {
         description = "PDF erfolgreich generiert",
         content = @Content(mediaType = "application/pdf")),
     @APIResponse(responseCode = "404", description = "Lead nicht gefunden"),
-    @APIResponse(responseCode = "403", description = "Keine Berechtigung")
+    @APIResponse(responseCode = "403", description = "Keine Berechtigung"),
+    @APIResponse(responseCode = "503", description = "Zu viele gleichzeitige Datenexporte")
   })
   public Response generateDataExport(
       @Parameter(description = "Lead ID") @PathParam("id") Long leadId,
-      @Context SecurityContext securityContext) {
+      @Context SecurityContext securityContext,
+      @Context RoutingContext routingContext) {
 
     String userId = securityContext.getUserPrincipal().getName();
     LOG.infof("Art. 15 Data Export requested for Lead %d by %s", leadId, userId);
 
-    try {
-      byte[] pdf = gdprService.generateDataExport(leadId, userId);
-
-      String filename = "dsgvo-auskunft-lead-" + leadId + "-" + System.currentTimeMillis() + ".pdf";
-
-      return Response.ok(pdf)
-          .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
-          .header("Content-Type", "application/pdf")
+    Optional<GdprExportBulkhead.Permit> permit = exportBulkhead.tryAcquire();
+    if (permit.isEmpty()) {
+      return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+          .header("Retry-After", EXPORT_RETRY_AFTER_SECONDS)
+          .entity(
+              new ErrorResponse("Zu viele laufende Datenexporte, bitte später erneut versuchen"))
           .build();
+    }
+    // Gibt den Slot auch frei, wenn write() nie aufgerufen wird (Client-Abbruch, Fehler vor dem
+    // Body); Permit.close() ist idempotent
+    routingContext.addEndHandler(ignored -> permit.get().close());
 
+    Long requestId;
+    try {
+      requestId = gdprService.openDataExport(leadId, userId);
     } catch (IllegalArgumentException e) {
+      permit.get().close();
       return Response.status(Response.Status.NOT_FOUND)
           .entity(new ErrorResponse("Lead nicht gefunden: " + leadId))
           .build();
+    } catch (RuntimeException e) {
+      permit.get().close();
+      throw e;
     }
+
+    // PDF wird direkt in die Response geschrieben; der Slot wird danach freigegeben
+    StreamingOutput body =
+        output -> {
+          try {
+            gdprService.streamDataExport(requestId, output);
+          } finally {
+            permit.get().close();
+          }
+        };
+
+    String filename = "dsgvo-auskunft-lead-" + leadId + "-" + System.currentTimeMillis() + ".pdf";
+
+    return Response.ok(body)
+        .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+        .header("Content-Type", "application/pdf")
+        .build();
   }
 
   /**
@@ -71,6 +71,8 @@ public class LeadResource {
 
   @Inject de.freshplan.modules.leads.service.LeadScoringService leadScoringService;
 
+  @Inject de.freshplan.modules.leads.service.LeadRescoringService leadRescoringService;
+
   @Inject de.freshplan.infrastructure.security.XssSanitizer xssSanitizer;
 
   @Inject de.freshplan.infrastructure.security.SecurityAuditLogger securityAuditLogger;
@@ -868,6 +870,31 @@ public class LeadResource {
     }
   }
 
+  /**
+   * Convert several Leads to Customers in one call.
+   *
+   * <p>Endpoint: POST /api/leads/convert-batch
+   *
+   * <p>Admin/Manager only. Leads are converted in chunks, one transaction per chunk; the response
+   * reports the outcome per lead (CONVERTED, SKIPPED if already converted, FAILED).
+   */
+  @POST
+  @Path("/convert-batch")
+  @RolesAllowed({"ADMIN", "MANAGER"})
+  public Response convertBatchToCustomers(
+      @jakarta.validation.Valid
+          de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertRequest request) {
+
+    String currentUserId = getCurrentUserId();
+    LOG.infof(
+        "Bulk convert request for %d leads by user %s", request.leadIds.size(), currentUserId);
+
+    de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertResponse response =
+        leadConvertService.convertBatch(request.leadIds, currentUserId);
+
+    return Response.ok(response).build();
+  }
+
   /**
    * Add first contact to a Pre-Claim lead (Sprint 2.1.6 Phase 5).
    *
@@ -1257,6 +1284,50 @@ public class LeadResource {
         .build();
   }
 
+  /**
+   * Rescore all leads (e.g. after scoring weight changes).
+   *
+   * <p>Endpoint: POST /api/leads/rescore
+   *
+   * <p>Admin only. Runs in the background (keyset chunks, parallel scoring, only changed scores are
+   * written); progress via GET /api/leads/rescore.
+   *
+   * @return 202 with job progress, 409 if a rescoring job is already running
+   */
+  @POST
+  @Path("/rescore")
+  @RolesAllowed({"ADMIN"})
+  public Response startRescoring() {
+    String currentUserId = getCurrentUserId();
+    return leadRescoringService
+        .start()
+        .map(
+            progress -> {
+              LOG.infof("Lead rescoring started by user %s", currentUserId);
+              return Response.accepted(progress).build();
+            })
+        .orElseGet(
+            () ->
+                Response.status(Response.Status.CONFLICT)
+                    .entity(leadRescoringService.progress().orElse(null))
+                    .build());
+  }
+
+  /**
+   * Progress of the running or last rescoring job.
+   *
+   * <p>Endpoint: GET /api/leads/rescore
+   */
+  @GET
+  @Path("/rescore")
+  @RolesAllowed({"ADMIN", "MANAGER"})
+  public Response getRescoringProgress() {
+    return leadRescoringService
+        .progress()
+        .map(progress -> Response.ok(progress).build())
+        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+  }
+
   /**
    * Get all opportunities for a specific lead Sprint 2.1.7.1 - Lead → Opportunity Traceability
    *
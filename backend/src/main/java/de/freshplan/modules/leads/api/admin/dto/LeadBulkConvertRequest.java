@@ -0,0 +1,19 @@
+package de.freshplan.modules.leads.api.admin.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Request for converting several Leads → Customers in one call (e.g. after a trade fair).
+ *
+ * <p>Customer numbers are always auto-generated; use {@link LeadConvertRequest} for a custom
+ * number.
+ */
+public class LeadBulkConvertRequest {
+
+  /** Leads to convert (duplicates are ignored). */
+  @NotEmpty(message = "leadIds is required")
+  @Size(max = 1000, message = "At most 1000 leads per request")
+  public List<Long> leadIds;
+}
@@ -0,0 +1,71 @@
+package de.freshplan.modules.leads.api.admin.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-lead report of a bulk Lead → Customer conversion.
+ *
+ * <p>Leads are converted in chunks with one transaction each; a failing lead does not roll back the
+ * other leads of its chunk.
+ */
+public class LeadBulkConvertResponse {
+
+  public enum Outcome {
+    CONVERTED,
+    SKIPPED,
+    FAILED
+  }
+
+  public int requested;
+  public int converted;
+  public int skipped;
+  public int failed;
+  public List<Result> results = new ArrayList<>();
+
+  public void add(Result result) {
+    results.add(result);
+    requested++;
+    switch (result.outcome) {
+      case CONVERTED -> converted++;
+      case SKIPPED -> skipped++;
+      case FAILED -> failed++;
+    }
+  }
+
+  /** Result for a single lead. */
+  public static class Result {
+
+    public Long leadId;
+    public Outcome outcome;
+    public UUID customerId;
+    public String customerNumber;
+    public String message;
+
+    public static Result converted(Long leadId, UUID customerId, String customerNumber) {
+      Result result = new Result();
+      result.leadId = leadId;
+      result.outcome = Outcome.CONVERTED;
+      result.customerId = customerId;
+      result.customerNumber = customerNumber;
+      return result;
+    }
+
+    public static Result skipped(Long leadId, String message) {
+      Result result = new Result();
+      result.leadId = leadId;
+      result.outcome = Outcome.SKIPPED;
+      result.message = message;
+      return result;
+    }
+
+    public static Result failed(Long leadId, String message) {
+      Result result = new Result();
+      result.leadId = leadId;
+      result.outcome = Outcome.FAILED;
+      result.message = message;
+      return result;
+    }
+  }
+}
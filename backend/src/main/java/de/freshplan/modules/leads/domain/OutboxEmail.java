@@ -20,16 +20,14 @@ import java.time.LocalDateTime;
  *   <li>Processor reads PENDING emails and sends them (Modul 05)
  * </ul>
  *
- * <p><strong>Future (Modul 05 - Kommunikation):</strong>
+ * <p><strong>Dispatcher (Modul 05 - Kommunikation):</strong> {@code EmailOutboxProcessor} claims
+ * due rows with {@code FOR UPDATE SKIP LOCKED}, sends them with bounded concurrency and retries
+ * with exponential backoff ({@link #nextAttemptAt}) until the row lands in {@link
+ * EmailStatus#FAILED} (Dead-Letter).
  *
- * <ul>
- *   <li>EmailOutboxProcessor with @Scheduled poller
- *   <li>Template Engine for email rendering
- *   <li>Exponential-Backoff Retry-Logic
- *   <li>SMTP Integration (SendGrid/AWS SES)
- * </ul>
+ * <p><strong>Future:</strong> Template Engine, SMTP Integration (SendGrid/AWS SES)
  *
- * <p><strong>Migration:</strong> V268 (Sprint 2.1.6 Phase 3)
+ * <p><strong>Migration:</strong> V268 (Sprint 2.1.6 Phase 3), V10055 (Dispatcher)
  *
  * @see ADR-001 Email-Integration über Outbox-Pattern
  */
@@ -70,7 +68,7 @@ public class OutboxEmail extends PanacheEntityBase {
   @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.JSON)
   public String templateData;
 
-  /** Email status (PENDING, SENT, FAILED). */
+  /** Email status (PENDING, SENDING, SENT, FAILED). */
   @NotNull @Enumerated(EnumType.STRING)
   @Column(nullable = false, length = 50)
   public EmailStatus status = EmailStatus.PENDING;
@@ -95,6 +93,14 @@ public class OutboxEmail extends PanacheEntityBase {
   @Column(name = "failed_at")
   public LocalDateTime failedAt;
 
+  /** Earliest time for the next send attempt (exponential backoff, NULL = due immediately). */
+  @Column(name = "next_attempt_at")
+  public LocalDateTime nextAttemptAt;
+
+  /** Claim lease start (set when status → SENDING). */
+  @Column(name = "claimed_at")
+  public LocalDateTime claimedAt;
+
   /** User/System who created this email. */
   @NotNull @Size(max = 50)
   @Column(name = "created_by", nullable = false)
@@ -105,9 +111,10 @@ public class OutboxEmail extends PanacheEntityBase {
   @Column(name = "correlation_id")
   public String correlationId;
 
-  /** Email status enum. */
+  /** Email status enum. FAILED is the terminal Dead-Letter state. */
   public enum EmailStatus {
     PENDING,
+    SENDING,
     SENT,
     FAILED
   }
@@ -1,5 +1,9 @@
 package de.freshplan.modules.leads.events;
 
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -27,4 +31,50 @@ public record LeadConvertedEvent(Long leadId, UUID customerId, UUID opportunityI
   public static LeadConvertedEvent of(Long leadId, UUID customerId, UUID opportunityId) {
     return new LeadConvertedEvent(leadId, customerId, opportunityId);
   }
+
+  /**
+   * Aggregiertes Event für einen committeten Chunk einer Bulk-Konvertierung (statt N
+   * Einzel-Events).
+   *
+   * @param conversions Konvertierte Leads (ohne Opportunity)
+   * @param convertedBy User der Bulk-Konvertierung
+   */
+  public record Batch(List<LeadConvertedEvent> conversions, String convertedBy) {
+
+    /**
+     * Obergrenze pro Event: ca. 60 Byte pro Lead (Long-ID + UUID) halten den Payload inkl.
+     * Cross-Module-Envelope deutlich unter dem 8000-Byte-Limit von NOTIFY - unabhängig von {@code
+     * freshplan.leads.convert.chunk-size}.
+     */
+    public static final int MAX_CONVERSIONS_PER_EVENT = 100;
+
+    /**
+     * Teilt die Konvertierungen eines Chunks auf Events mit höchstens {@link
+     * #MAX_CONVERSIONS_PER_EVENT} Leads auf.
+     */
+    public static List<Batch> partition(List<LeadConvertedEvent> conversions, String convertedBy) {
+      List<Batch> batches = new ArrayList<>();
+      for (int from = 0; from < conversions.size(); from += MAX_CONVERSIONS_PER_EVENT) {
+        int to = Math.min(conversions.size(), from + MAX_CONVERSIONS_PER_EVENT);
+        batches.add(new Batch(List.copyOf(conversions.subList(from, to)), convertedBy));
+      }
+      return batches;
+    }
+
+    /** Kompakter JSON-Payload für pg_notify (parallele Arrays, 8000-Byte-Limit von NOTIFY). */
+    public String toPayload() {
+      JsonArray leadIds = new JsonArray();
+      JsonArray customerIds = new JsonArray();
+      for (LeadConvertedEvent conversion : conversions) {
+        leadIds.add(conversion.leadId());
+        customerIds.add(conversion.customerId().toString());
+      }
+      return new JsonObject()
+          .put("count", conversions.size())
+          .put("convertedBy", convertedBy)
+          .put("leadIds", leadIds)
+          .put("customerIds", customerIds)
+          .encode();
+    }
+  }
 }
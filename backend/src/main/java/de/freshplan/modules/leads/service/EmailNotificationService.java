@@ -2,9 +2,12 @@ package de.freshplan.modules.leads.service;
 
 import de.freshplan.modules.leads.domain.CampaignTemplate;
 import de.freshplan.modules.leads.domain.Lead;
+import de.freshplan.modules.leads.domain.OutboxEmail;
 import de.freshplan.modules.leads.domain.Territory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Map;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
@@ -14,12 +17,18 @@ import org.jboss.logging.Logger;
  *
  * <p>Integriert mit externen Email-Providern (SendGrid/AWS SES) und respektiert DSGVO-Compliance
  * und Territory-spezifische Footer
+ *
+ * <p>Bei aktivierter Outbox ({@code freshplan.email.outbox.enabled}) werden Emails nur in {@code
+ * outbox_emails} eingereiht (gleiche Transaktion wie die Business-Logik) und vom {@link
+ * EmailOutboxProcessor} asynchron versendet - kein Mail-I/O innerhalb der Transaktion.
  */
 @ApplicationScoped
 public class EmailNotificationService {
 
   private static final Logger LOG = Logger.getLogger(EmailNotificationService.class);
 
+  private static final String SYSTEM_USER_ID = "SYSTEM";
+
   @ConfigProperty(name = "freshplan.email.enabled", defaultValue = "true")
   boolean emailEnabled;
 
@@ -29,17 +38,22 @@ public class EmailNotificationService {
   @ConfigProperty(name = "freshplan.email.from-name", defaultValue = "FreshFoodz Cook&Fresh®")
   String fromName;
 
+  @ConfigProperty(name = "freshplan.email.outbox.enabled", defaultValue = "true")
+  boolean outboxEnabled;
+
   @Inject EmailProviderService emailProvider; // Abstraction für SendGrid/SES
 
   @Inject UnsubscribeSecretGuard secretGuard;
 
+  @Inject Clock clock;
+
   /**
    * Sendet Campaign-Email mit Template und personalisierten Daten
    *
    * @param lead Lead-Empfänger
    * @param template Campaign-Template
    * @param templateData Personalisierungs-Daten
-   * @return true wenn erfolgreich gesendet
+   * @return true wenn erfolgreich gesendet bzw. in die Outbox eingereiht
    */
   public boolean sendCampaignEmail(
       Lead lead, CampaignTemplate template, Map<String, String> templateData) {
@@ -70,6 +84,10 @@ public class EmailNotificationService {
       String personalizedSubject = template.getPersonalizedSubject(templateData);
       String personalizedContent = template.getPersonalizedContent(templateData);
 
+      if (outboxEnabled) {
+        return enqueue(lead, template, personalizedSubject, personalizedContent);
+      }
+
       // Sende Email über Provider
       EmailMessage message =
           EmailMessage.builder()
@@ -98,6 +116,28 @@ public class EmailNotificationService {
     }
   }
 
+  /**
+   * Reiht die Email in die Transactional Outbox ein. Der Versand erfolgt nach COMMIT durch den
+   * {@link EmailOutboxProcessor}; bei Rollback der Business-Transaktion wird nichts versendet.
+   */
+  private boolean enqueue(
+      Lead lead, CampaignTemplate template, String subject, String htmlContent) {
+    OutboxEmail email = new OutboxEmail();
+    email.recipientEmail = lead.email;
+    email.subject = subject;
+    email.body = htmlContent;
+    email.templateName = template.name;
+    email.createdBy = SYSTEM_USER_ID;
+    email.createdAt = LocalDateTime.now(clock);
+    email.correlationId = "lead:" + lead.id;
+    email.persist();
+
+    LOG.infof(
+        "Campaign email for lead %s queued in outbox (template %s, outbox id %d)",
+        lead.id, template.name, email.id);
+    return true;
+  }
+
   /**
    * Prüft DSGVO-Consent für Email-Kommunikation
    *
@@ -201,7 +241,7 @@ public class EmailNotificationService {
   }
 
   /** Extrahiert Text-Content aus HTML für Multipart-Emails */
-  private String extractTextContent(String htmlContent) {
+  static String extractTextContent(String htmlContent) {
     if (htmlContent == null) {
       return "";
     }
@@ -0,0 +1,130 @@
+package de.freshplan.modules.leads.service;
+
+import de.freshplan.infrastructure.queue.LeaseQueue;
+import de.freshplan.infrastructure.queue.LeaseQueue.QueueStats;
+import de.freshplan.infrastructure.queue.LeaseQueue.ReleasedClaims;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datenbank-Seite des {@link EmailOutboxProcessor} (Modul 05 - Kommunikation).
+ *
+ * <p>Jede Methode läuft in einer eigenen, kurzen Transaktion ({@code REQUIRES_NEW}). Der
+ * eigentliche Mailversand passiert <strong>zwischen</strong> diesen Transaktionen, d.h. es wird nie
+ * eine DB-Connection oder Row-Lock über Mail-I/O gehalten.
+ *
+ * <p><strong>Claim-Protokoll</strong> (SQL in {@link LeaseQueue}):
+ *
+ * <ol>
+ *   <li>{@link #claimDueBatch}: fällige PENDING-Zeilen per {@code FOR UPDATE SKIP LOCKED} sperren
+ *       und auf SENDING setzen (mehrere Pods blockieren sich nicht gegenseitig)
+ *   <li>Versand außerhalb der Transaktion
+ *   <li>{@link #markSent} / {@link #scheduleRetry} / {@link #deadLetter}
+ * </ol>
+ *
+ * <p>Stirbt ein Pod zwischen 1. und 3., gibt {@link #releaseExpiredClaims} die Zeilen nach Ablauf
+ * der Lease wieder frei (at-least-once Zustellung) und zählt dabei einen Versuch.
+ */
+@ApplicationScoped
+public class EmailOutboxClaimService {
+
+  static final LeaseQueue OUTBOX =
+      new LeaseQueue("outbox_emails", "created_at", "SENDING", "SENT", "sent_at", "failed_at");
+
+  /** Geclaimte Outbox-Zeile (Projektion, keine managed Entity). */
+  public record ClaimedEmail(
+      Long id,
+      String recipientEmail,
+      String subject,
+      String body,
+      String templateName,
+      String correlationId,
+      int attempts) {}
+
+  @Inject EntityManager em;
+
+  /**
+   * Claimt bis zu {@code batchSize} fällige Emails (älteste zuerst) und setzt sie auf SENDING.
+   *
+   * @param batchSize Maximale Anzahl Zeilen
+   * @param now Aktueller Zeitpunkt (Claim-Lease-Beginn)
+   * @return Geclaimte Emails, leer wenn nichts fällig ist
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public List<ClaimedEmail> claimDueBatch(int batchSize, LocalDateTime now) {
+    List<Object[]> rows =
+        OUTBOX.claimDue(
+            em,
+            batchSize,
+            now,
+            "id",
+            "recipient_email",
+            "subject",
+            "body",
+            "template_name",
+            "correlation_id",
+            "attempts");
+
+    List<ClaimedEmail> claimed = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      claimed.add(
+          new ClaimedEmail(
+              ((Number) row[0]).longValue(),
+              (String) row[1],
+              (String) row[2],
+              (String) row[3],
+              (String) row[4],
+              (String) row[5],
+              ((Number) row[6]).intValue()));
+    }
+    return claimed;
+  }
+
+  /** Markiert erfolgreich versendete Emails in einem Statement als SENT. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int markSent(List<Long> ids, LocalDateTime now) {
+    return OUTBOX.complete(em, ids, now);
+  }
+
+  /** Gibt eine fehlgeschlagene Email mit Backoff zurück in die Queue (zählt einen Versuch). */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void scheduleRetry(Long id, String error, LocalDateTime nextAttemptAt) {
+    OUTBOX.requeue(em, List.of(id), error, nextAttemptAt);
+  }
+
+  /** Verschiebt eine Email nach Erreichen der max. Versuche in den Dead-Letter-Status FAILED. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void deadLetter(Long id, String error, LocalDateTime now) {
+    OUTBOX.deadLetter(em, List.of(id), error, now);
+  }
+
+  /**
+   * Gibt SENDING-Zeilen mit abgelaufener Lease (Pod-Crash oder hängender Versand) wieder frei.
+   *
+   * <p>Eine abgelaufene Lease zählt als fehlgeschlagener Versuch: Emails, die den Pod bei jedem
+   * Versuch abstürzen lassen oder hängen, landen nach {@code maxAttempts} im Dead-Letter-Status
+   * statt endlos neu geclaimt zu werden.
+   *
+   * @param leaseCutoff Claims vor diesem Zeitpunkt gelten als verwaist
+   * @param maxAttempts Versuche, ab denen die Email nach FAILED geht
+   * @param now Aktueller Zeitpunkt ({@code failed_at})
+   * @return Anzahl wieder eingereihter und nach FAILED verschobener Zeilen
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public ReleasedClaims releaseExpiredClaims(
+      LocalDateTime leaseCutoff, int maxAttempts, LocalDateTime now) {
+    return OUTBOX.releaseExpired(
+        em, leaseCutoff, maxAttempts, "Claim lease expired before send completed", now);
+  }
+
+  /** Queue-Tiefe, Dead-Letter-Anzahl und Alter der ältesten PENDING-Email in einem Scan. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public QueueStats queueStats(LocalDateTime now) {
+    return OUTBOX.stats(em, now);
+  }
+}
@@ -0,0 +1,463 @@
+package de.freshplan.modules.leads.service;
+
+import de.freshplan.infrastructure.cqrs.EventSubscriber.EventNotification;
+import de.freshplan.infrastructure.queue.LeaseQueue.QueueStats;
+import de.freshplan.infrastructure.queue.LeaseQueue.ReleasedClaims;
+import de.freshplan.infrastructure.queue.RetryBackoff;
+import de.freshplan.modules.leads.service.EmailOutboxClaimService.ClaimedEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Email Outbox Processor (Modul 05 - Kommunikation)
+ *
+ * <p>Versendet Emails aus der {@code outbox_emails} Tabelle asynchron zur Business-Transaktion
+ * (ADR-001: Email-Integration über Outbox-Pattern).
+ *
+ * <p><strong>Ablauf pro Durchlauf:</strong>
+ *
+ * <ol>
+ *   <li>Verwaiste SENDING-Claims freigeben (Lease abgelaufen, zählt als Versuch)
+ *   <li>Batch fälliger Emails per {@code FOR UPDATE SKIP LOCKED} claimen
+ *   <li>Versand mit begrenzter Parallelität ({@code freshplan.email.outbox.concurrency})
+ *   <li>Ergebnis schreiben: SENT, Retry mit Exponential Backoff, oder Dead-Letter (FAILED)
+ * </ol>
+ *
+ * <p><strong>Timeout:</strong> Ein Versand, der länger als {@code send-timeout-seconds} läuft, wird
+ * unterbrochen. Die Zeile bleibt SENDING, bis der Provider-Call tatsächlich zurückkehrt; erst dann
+ * wird das Ergebnis geschrieben. Ein Retry kann also nicht parallel zu einem noch laufenden Versand
+ * starten (keine doppelte Zustellung durch den Timeout).
+ *
+ * <p><strong>Trigger:</strong> NOTIFY auf Kanal {@value #NOTIFY_CHANNEL} (Trigger aus V10055,
+ * zugestellt über {@link de.freshplan.infrastructure.cqrs.EventSubscriber}) sowie ein
+ * {@code @Scheduled} Fallback-Poller für Retries und verpasste Notifications.
+ *
+ * <p><strong>Metriken:</strong> Queue-Tiefe, Alter der ältesten PENDING-Email, Dead-Letter-Anzahl,
+ * Versand-Ergebnisse und Versanddauer unter {@code freshplan_email_outbox_*}.
+ */
+@ApplicationScoped
+public class EmailOutboxProcessor {
+
+  private static final Logger LOG = Logger.getLogger(EmailOutboxProcessor.class);
+
+  /** NOTIFY-Kanal des Insert-Triggers auf outbox_emails. */
+  public static final String NOTIFY_CHANNEL = "outbox_emails";
+
+  private static final String LEAD_CORRELATION_PREFIX = "lead:";
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  @ConfigProperty(name = "freshplan.email.outbox.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "freshplan.email.outbox.batch-size", defaultValue = "50")
+  int batchSize;
+
+  @ConfigProperty(name = "freshplan.email.outbox.concurrency", defaultValue = "4")
+  int concurrency;
+
+  @ConfigProperty(name = "freshplan.email.outbox.max-attempts", defaultValue = "5")
+  int maxAttempts;
+
+  @ConfigProperty(name = "freshplan.email.outbox.backoff.initial-seconds", defaultValue = "30")
+  long backoffInitialSeconds;
+
+  @ConfigProperty(name = "freshplan.email.outbox.backoff.max-seconds", defaultValue = "3600")
+  long backoffMaxSeconds;
+
+  @ConfigProperty(name = "freshplan.email.outbox.lease-seconds", defaultValue = "300")
+  long leaseSeconds;
+
+  @ConfigProperty(name = "freshplan.email.outbox.send-timeout-seconds", defaultValue = "30")
+  long sendTimeoutSeconds;
+
+  @ConfigProperty(name = "freshplan.email.from", defaultValue = "noreply@freshfoodz.de")
+  String fromEmail;
+
+  @ConfigProperty(name = "freshplan.email.from-name", defaultValue = "FreshFoodz Cook&Fresh®")
+  String fromName;
+
+  @Inject EmailOutboxClaimService claimService;
+
+  @Inject EmailProviderService emailProvider;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject Clock clock;
+
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private final AtomicBoolean wakeRequested = new AtomicBoolean(false);
+  private final AtomicReference<QueueStats> lastStats = new AtomicReference<>(QueueStats.EMPTY);
+
+  private ExecutorService sendExecutor;
+  private ExecutorService coordinator;
+  private Counter sentCounter;
+  private Counter retryCounter;
+  private Counter deadLetterCounter;
+  private Timer sendTimer;
+
+  @PostConstruct
+  void init() {
+    AtomicInteger threadIndex = new AtomicInteger();
+    sendExecutor =
+        Executors.newFixedThreadPool(
+            Math.max(1, concurrency),
+            r -> {
+              Thread t = new Thread(r, "email-outbox-send-" + threadIndex.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            });
+    coordinator =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "email-outbox-dispatcher");
+              t.setDaemon(true);
+              return t;
+            });
+
+    Gauge.builder("freshplan_email_outbox_pending", lastStats, s -> s.get().pending())
+        .description("Emails waiting in outbox (PENDING + SENDING)")
+        .register(meterRegistry);
+    Gauge.builder(
+            "freshplan_email_outbox_oldest_pending_age_seconds",
+            lastStats,
+            s -> s.get().oldestPendingAge().toSeconds())
+        .description("Age of the oldest unsent outbox email in seconds")
+        .register(meterRegistry);
+    Gauge.builder("freshplan_email_outbox_dead_letter", lastStats, s -> s.get().deadLetter())
+        .description("Outbox emails in Dead-Letter state (FAILED)")
+        .register(meterRegistry);
+
+    sentCounter = dispatchCounter("sent");
+    retryCounter = dispatchCounter("retry");
+    deadLetterCounter = dispatchCounter("dead_letter");
+    sendTimer =
+        Timer.builder("freshplan_email_outbox_send_duration")
+            .description("Duration of a single provider send call")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    coordinator.shutdownNow();
+    sendExecutor.shutdown();
+    try {
+      if (!sendExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+        sendExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      sendExecutor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Fallback-Poller: fällige Retries und verpasste Notifications. */
+  @Scheduled(
+      every = "{freshplan.email.outbox.poll-interval:30s}",
+      identity = "email-outbox-dispatch",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledDispatch() {
+    dispatch();
+  }
+
+  /** Weckt den Processor sofort, wenn neue Zeilen committed wurden (NOTIFY outbox_emails). */
+  void onOutboxNotification(@Observes EventNotification notification) {
+    if (NOTIFY_CHANNEL.equals(notification.getChannel())) {
+      wakeUp();
+    }
+  }
+
+  /** Stößt einen Durchlauf auf dem Dispatcher-Thread an, ohne den Aufrufer zu blockieren. */
+  public void wakeUp() {
+    if (!enabled) {
+      return;
+    }
+    wakeRequested.set(true);
+    if (!draining.get()) {
+      coordinator.execute(this::dispatch);
+    }
+  }
+
+  /**
+   * Arbeitet die Outbox ab, bis keine fälligen Emails mehr vorhanden sind.
+   *
+   * <p>Läuft bereits ein Durchlauf, wird nur ein Folge-Durchlauf angefordert (kein paralleles
+   * Claimen im selben Pod).
+   *
+   * @return Anzahl in diesem Durchlauf verarbeiteter Emails
+   */
+  public int dispatch() {
+    if (!enabled) {
+      return 0;
+    }
+    if (!draining.compareAndSet(false, true)) {
+      wakeRequested.set(true);
+      return 0;
+    }
+
+    int processed = 0;
+    try {
+      LocalDateTime now = LocalDateTime.now(clock);
+      ReleasedClaims released =
+          claimService.releaseExpiredClaims(now.minusSeconds(leaseSeconds), maxAttempts, now);
+      if (released.requeued() > 0) {
+        LOG.warnf("Released %d outbox emails with expired claim lease", released.requeued());
+      }
+      if (released.deadLettered() > 0) {
+        deadLetterCounter.increment(released.deadLettered());
+        LOG.errorf(
+            "Moved %d outbox emails to Dead-Letter: claim lease expired on the last attempt",
+            released.deadLettered());
+      }
+
+      do {
+        wakeRequested.set(false);
+        List<ClaimedEmail> batch;
+        do {
+          batch = claimService.claimDueBatch(batchSize, LocalDateTime.now(clock));
+          processed += processBatch(batch);
+        } while (batch.size() == batchSize);
+      } while (wakeRequested.get());
+
+      if (processed > 0) {
+        LOG.infof("Email outbox dispatch completed: %d emails processed", processed);
+      }
+    } catch (Exception e) {
+      LOG.error("Email outbox dispatch failed", e);
+    } finally {
+      draining.set(false);
+      refreshQueueStats();
+    }
+    return processed;
+  }
+
+  /** Versendet einen geclaimten Batch parallel und schreibt die Ergebnisse zurück. */
+  int processBatch(List<ClaimedEmail> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    List<InFlightSend> sends = new ArrayList<>(batch.size());
+    for (ClaimedEmail email : batch) {
+      InFlightSend send = new InFlightSend(email);
+      sendExecutor.execute(send::run);
+      sends.add(send);
+    }
+
+    List<Long> sentIds = new ArrayList<>();
+    for (InFlightSend send : sends) {
+      if (!awaitCompletion(send)) {
+        abandon(send);
+        continue;
+      }
+      String error = send.result.join();
+      if (error == null) {
+        sentIds.add(send.email.id());
+      } else {
+        handleFailure(send.email, error);
+      }
+    }
+
+    claimService.markSent(sentIds, LocalDateTime.now(clock));
+    sentCounter.increment(sentIds.size());
+    return batch.size();
+  }
+
+  /**
+   * Wartet auf das Ergebnis eines Versands. Der Timeout zählt ab Start des Provider-Calls, nicht ab
+   * Einreihen in den Executor.
+   *
+   * @return false, wenn der Versand den Timeout überschritten hat
+   */
+  private boolean awaitCompletion(InFlightSend send) {
+    long timeoutNanos = TimeUnit.SECONDS.toNanos(sendTimeoutSeconds);
+    while (true) {
+      long elapsed = send.elapsedNanos();
+      long wait = elapsed < 0 ? timeoutNanos : timeoutNanos - elapsed;
+      try {
+        send.result.get(Math.max(wait, 1), TimeUnit.NANOSECONDS);
+        return true;
+      } catch (TimeoutException e) {
+        if (send.elapsedNanos() >= timeoutNanos) {
+          return false;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } catch (ExecutionException e) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Unterbricht einen Versand nach Timeout. Die Zeile bleibt geclaimt (SENDING); das Ergebnis wird
+   * geschrieben, sobald der Provider-Call zurückkehrt - auch ein verspäteter Erfolg gilt als SENT.
+   */
+  private void abandon(InFlightSend send) {
+    send.interrupt();
+    LOG.warnf(
+        "Outbox email %d: send exceeded %ds and was interrupted, result is recorded on return",
+        send.email.id(), sendTimeoutSeconds);
+    send.result.thenAccept(error -> recordLateResult(send.email, error));
+  }
+
+  private void recordLateResult(ClaimedEmail email, String error) {
+    try {
+      if (error == null) {
+        claimService.markSent(List.of(email.id()), LocalDateTime.now(clock));
+        sentCounter.increment();
+      } else {
+        handleFailure(email, "Send timed out after " + sendTimeoutSeconds + "s: " + error);
+      }
+    } catch (Exception e) {
+      // Zeile bleibt SENDING und wird nach Ablauf der Lease freigegeben
+      LOG.errorf(e, "Could not record result of timed-out outbox email %d", email.id());
+    }
+  }
+
+  /**
+   * @return null bei Erfolg, sonst Fehlerbeschreibung
+   */
+  private String send(ClaimedEmail email) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      boolean sent = emailProvider.send(toMessage(email));
+      return sent ? null : "Provider rejected message";
+    } catch (Exception e) {
+      return describeError(e);
+    } finally {
+      sample.stop(sendTimer);
+    }
+  }
+
+  private void handleFailure(ClaimedEmail email, String error) {
+    int attempts = email.attempts() + 1;
+    LocalDateTime now = LocalDateTime.now(clock);
+
+    if (attempts >= maxAttempts) {
+      claimService.deadLetter(email.id(), error, now);
+      deadLetterCounter.increment();
+      LOG.errorf(
+          "Outbox email %d moved to Dead-Letter after %d attempts: %s",
+          email.id(), attempts, error);
+      return;
+    }
+
+    Duration backoff =
+        RetryBackoff.exponential(
+            attempts,
+            Duration.ofSeconds(backoffInitialSeconds),
+            Duration.ofSeconds(backoffMaxSeconds));
+    claimService.scheduleRetry(email.id(), error, now.plus(backoff));
+    retryCounter.increment();
+    LOG.warnf(
+        "Outbox email %d failed (attempt %d/%d), retry in %ds: %s",
+        email.id(), attempts, maxAttempts, backoff.toSeconds(), error);
+  }
+
+  private EmailNotificationService.EmailMessage toMessage(ClaimedEmail email) {
+    String leadId =
+        email.correlationId() != null && email.correlationId().startsWith(LEAD_CORRELATION_PREFIX)
+            ? email.correlationId().substring(LEAD_CORRELATION_PREFIX.length())
+            : null;
+
+    return EmailNotificationService.EmailMessage.builder()
+        .from(fromEmail, fromName)
+        .to(email.recipientEmail(), null)
+        .subject(email.subject())
+        .htmlContent(email.body())
+        .textContent(EmailNotificationService.extractTextContent(email.body()))
+        .leadId(leadId)
+        .templateId(email.templateName())
+        .build();
+  }
+
+  private void refreshQueueStats() {
+    try {
+      lastStats.set(claimService.queueStats(LocalDateTime.now(clock)));
+    } catch (Exception e) {
+      LOG.debug("Could not refresh outbox queue stats", e);
+    }
+  }
+
+  private Counter dispatchCounter(String result) {
+    return Counter.builder("freshplan_email_outbox_dispatched")
+        .description("Outbox emails processed by result")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Ein Versand auf dem Send-Executor. {@code runner} ist nur gesetzt, solange der Provider-Call
+   * läuft, damit ein Timeout nie den nächsten Versand auf demselben Thread unterbricht.
+   */
+  private final class InFlightSend {
+    final ClaimedEmail email;
+    final CompletableFuture<String> result = new CompletableFuture<>();
+    private Thread runner;
+    private long startedNanos = -1;
+
+    InFlightSend(ClaimedEmail email) {
+      this.email = email;
+    }
+
+    void run() {
+      synchronized (this) {
+        runner = Thread.currentThread();
+        startedNanos = System.nanoTime();
+      }
+      String error;
+      try {
+        error = send(email);
+      } finally {
+        synchronized (this) {
+          runner = null;
+          Thread.interrupted(); // Interrupt eines Timeouts nicht an den nächsten Versand vererben
+        }
+      }
+      result.complete(error);
+    }
+
+    /** Laufzeit des Provider-Calls, -1 solange er noch nicht gestartet ist. */
+    synchronized long elapsedNanos() {
+      return startedNanos < 0 ? -1 : System.nanoTime() - startedNanos;
+    }
+
+    synchronized void interrupt() {
+      if (runner != null) {
+        runner.interrupt();
+      }
+    }
+  }
+
+  private static String describeError(Throwable t) {
+    Throwable cause = t.getCause() != null ? t.getCause() : t;
+    String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+  }
+}
@@ -0,0 +1,96 @@
+package de.freshplan.modules.leads.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Bulkhead für DSGVO-Datenexporte (Art. 15).
+ *
+ * <p>Ein gestreamter PDF-Export hält einen Worker-Thread und eine DB-Verbindung, bis der Client das
+ * Dokument vollständig gelesen hat. Die Anzahl gleichzeitiger Exporte ist daher begrenzt ({@code
+ * freshplan.gdpr.export.max-concurrent}); weitere Anfragen warten höchstens {@code
+ * freshplan.gdpr.export.acquire-timeout} und werden dann abgewiesen (HTTP 503).
+ *
+ * <p>Das {@link Permit} wird vom Resource-Thread belegt und nach dem Schreiben des Streams
+ * freigegeben, spätestens aber am Ende der Response (auch bei Abbruch, bevor der Body geschrieben
+ * wird).
+ *
+ * <p><strong>Metriken:</strong> {@code freshplan_gdpr_export_active}, {@code
+ * freshplan_gdpr_export_rejected}.
+ */
+@ApplicationScoped
+public class GdprExportBulkhead {
+
+  private static final Logger LOG = Logger.getLogger(GdprExportBulkhead.class);
+
+  @ConfigProperty(name = "freshplan.gdpr.export.max-concurrent", defaultValue = "2")
+  int maxConcurrent;
+
+  @ConfigProperty(name = "freshplan.gdpr.export.acquire-timeout", defaultValue = "2s")
+  Duration acquireTimeout;
+
+  @Inject MeterRegistry meterRegistry;
+
+  private Semaphore permits;
+  private Counter rejectedCounter;
+
+  @PostConstruct
+  void init() {
+    permits = new Semaphore(Math.max(1, maxConcurrent), true);
+    Gauge.builder("freshplan_gdpr_export_active", this, GdprExportBulkhead::activeExports)
+        .description("GDPR data exports currently being generated")
+        .register(meterRegistry);
+    rejectedCounter =
+        Counter.builder("freshplan_gdpr_export_rejected")
+            .description("GDPR data exports rejected because the bulkhead was full")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Belegt einen Export-Slot.
+   *
+   * @return Permit, oder leer wenn innerhalb des Timeouts kein Slot frei wurde
+   */
+  public Optional<Permit> tryAcquire() {
+    try {
+      if (permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        return Optional.of(new Permit());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    rejectedCounter.increment();
+    LOG.warnf("GDPR export rejected: %d concurrent exports running", activeExports());
+    return Optional.empty();
+  }
+
+  public int activeExports() {
+    return Math.max(1, maxConcurrent) - permits.availablePermits();
+  }
+
+  /** Export-Slot; {@link #close()} ist idempotent. */
+  public final class Permit implements AutoCloseable {
+
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    private Permit() {}
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    }
+  }
+}
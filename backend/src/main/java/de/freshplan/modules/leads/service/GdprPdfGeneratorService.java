@@ -4,13 +4,18 @@ import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import de.freshplan.modules.leads.domain.ActivityType;
 import de.freshplan.modules.leads.domain.Lead;
-import de.freshplan.modules.leads.domain.LeadActivity;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 /**
@@ -32,6 +37,11 @@ import org.jboss.logging.Logger;
  *   <li>Footer mit Datum und Verantwortlichem
  * </ol>
  *
+ * <p><strong>Streaming:</strong> {@link #writeLeadDataExport(Lead, OutputStream)} schreibt fertige
+ * Seiten direkt in den Ausgabestrom. Die Aktivitäten werden per Keyset-Cursor ({@code
+ * activity_date, id}) seitenweise als Projektion gelesen und als {@link LargeElement}-Tabelle
+ * fortlaufend ausgegeben - der Heap-Bedarf ist unabhängig von der Länge der Kontakthistorie.
+ *
  * @since Sprint 2.1.8
  */
 @ApplicationScoped
@@ -57,18 +67,42 @@ public class GdprPdfGeneratorService {
   private static final DateTimeFormatter DATE_ONLY_FORMATTER =
       DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
+  @Inject EntityManager em;
+
+  @ConfigProperty(name = "freshplan.gdpr.export.activity-page-size", defaultValue = "200")
+  int activityPageSize;
+
   /**
    * Generiert einen DSGVO-konformen Datenexport für einen Lead.
    *
+   * <p>Puffert das komplette Dokument im Speicher - für HTTP-Downloads {@link
+   * #writeLeadDataExport(Lead, OutputStream)} verwenden.
+   *
    * @param lead Der Lead für den der Export erstellt werden soll
    * @return PDF als Byte-Array
    */
   public byte[] generateLeadDataExport(Lead lead) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    writeLeadDataExport(lead, baos);
+    return baos.toByteArray();
+  }
+
+  /**
+   * Schreibt einen DSGVO-konformen Datenexport für einen Lead in den Ausgabestrom.
+   *
+   * <p>Benötigt eine aktive Transaktion (Aktivitäten werden während des Schreibens nachgeladen).
+   * Der Ausgabestrom wird nicht geschlossen.
+   *
+   * @param lead Der Lead für den der Export erstellt werden soll
+   * @param out Ziel des PDF-Dokuments (z.B. HTTP-Response)
+   */
+  public void writeLeadDataExport(Lead lead, OutputStream out) {
     LOG.infof("Generating GDPR Data Export PDF for Lead %d", lead.id);
 
-    try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    try {
       Document document = new Document(PageSize.A4, 50, 50, 50, 50);
-      PdfWriter.getInstance(document, baos);
+      PdfWriter writer = PdfWriter.getInstance(document, out);
+      writer.setCloseStream(false);
       document.open();
 
       // Header
@@ -98,7 +132,6 @@ public class GdprPdfGeneratorService {
       document.close();
 
       LOG.infof("GDPR Data Export PDF generated successfully for Lead %d", lead.id);
-      return baos.toByteArray();
 
     } catch (Exception e) {
       LOG.errorf(e, "Failed to generate GDPR Data Export PDF for Lead %d", lead.id);
@@ -196,16 +229,20 @@ public class GdprPdfGeneratorService {
   private void addAktivitaetenSection(Document document, Lead lead) throws DocumentException {
     addSectionHeader(document, "3. Aktivitäten / Kontakthistorie");
 
-    if (lead.activities == null || lead.activities.isEmpty()) {
+    List<ActivityRow> page = loadActivityPage(lead.id, null, activityPageSize);
+    if (page.isEmpty()) {
       document.add(new Paragraph("Keine Aktivitäten vorhanden.", VALUE_FONT));
       document.add(new Paragraph(" "));
       return;
     }
 
+    // LargeElement: bereits hinzugefügte Zeilen werden bei jedem document.add() ausgegeben
     PdfPTable table = new PdfPTable(4);
     table.setWidthPercentage(100);
     table.setWidths(new float[] {20, 20, 30, 30});
     table.setSpacingAfter(15);
+    table.setHeaderRows(1);
+    table.setComplete(false);
 
     // Header
     addTableHeaderCell(table, "Datum");
@@ -213,28 +250,65 @@ public class GdprPdfGeneratorService {
     addTableHeaderCell(table, "Beschreibung");
     addTableHeaderCell(table, "Erstellt von");
 
-    // Aktivitäten (max. 50)
-    int count = 0;
-    for (LeadActivity activity : lead.activities) {
-      if (count >= 50) {
+    // Alle Aktivitäten, seitenweise per Keyset (activity_date, id)
+    while (!page.isEmpty()) {
+      for (ActivityRow activity : page) {
+        addTableCell(
+            table,
+            activity.activityDate() != null
+                ? activity.activityDate().format(DATE_ONLY_FORMATTER)
+                : "-");
+        addTableCell(table, activity.activityType() != null ? activity.activityType().name() : "-");
+        addTableCell(table, truncate(activity.description(), 100));
+        addTableCell(table, nullSafe(activity.userId()));
+      }
+      document.add(table);
+
+      if (page.size() < activityPageSize) {
         break;
       }
-      addTableCell(
-          table,
-          activity.activityDate != null ? activity.activityDate.format(DATE_ONLY_FORMATTER) : "-");
-      addTableCell(table, activity.activityType != null ? activity.activityType.name() : "-");
-      addTableCell(table, truncate(activity.description, 100));
-      addTableCell(table, nullSafe(activity.userId));
-      count++;
+      page = loadActivityPage(lead.id, page.get(page.size() - 1), activityPageSize);
     }
 
+    table.setComplete(true);
     document.add(table);
+  }
 
-    if (lead.activities.size() > 50) {
-      document.add(
-          new Paragraph(
-              "... und " + (lead.activities.size() - 50) + " weitere Aktivitäten", FOOTER_FONT));
+  /**
+   * Lädt die nächste Seite Aktivitäten nach {@code after} (exklusiv), sortiert nach {@code
+   * activity_date, id}. Projektion statt Entities, damit der Persistence Context nicht wächst.
+   */
+  List<ActivityRow> loadActivityPage(Long leadId, ActivityRow after, int limit) {
+    if (leadId == null) {
+      return List.of();
     }
+    String keyset =
+        after == null
+            ? ""
+            : " AND (a.activityDate > :afterDate"
+                + " OR (a.activityDate = :afterDate AND a.id > :afterId))";
+    var query =
+        em.createQuery(
+                "SELECT a.id, a.activityDate, a.activityType, a.description, a.userId"
+                    + " FROM LeadActivity a WHERE a.lead.id = :leadId"
+                    + keyset
+                    + " ORDER BY a.activityDate, a.id",
+                Object[].class)
+            .setParameter("leadId", leadId)
+            .setMaxResults(limit);
+    if (after != null) {
+      query.setParameter("afterDate", after.activityDate()).setParameter("afterId", after.id());
+    }
+    return query.getResultList().stream()
+        .map(
+            row ->
+                new ActivityRow(
+                    (Long) row[0],
+                    (LocalDateTime) row[1],
+                    (ActivityType) row[2],
+                    (String) row[3],
+                    (String) row[4]))
+        .toList();
   }
 
   private void addConsentSection(Document document, Lead lead) throws DocumentException {
@@ -389,4 +463,12 @@ public class GdprPdfGeneratorService {
     }
     return text.substring(0, maxLength - 3) + "...";
   }
+
+  /** Aktivitätszeile im PDF (Projektion auf lead_activities). */
+  record ActivityRow(
+      Long id,
+      LocalDateTime activityDate,
+      ActivityType activityType,
+      String description,
+      String userId) {}
 }
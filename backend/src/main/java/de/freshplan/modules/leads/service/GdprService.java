@@ -9,6 +9,8 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -59,40 +61,55 @@ public class GdprService {
    *
    * <p>Antwortfrist: 1 Monat ab Anfrage (Art. 12 Abs. 3 DSGVO)
    *
+   * <p>Puffert das PDF im Speicher - der HTTP-Endpoint streamt über {@link #openDataExport(Long,
+   * String)} + {@link #streamDataExport(Long, OutputStream)}.
+   *
    * @param leadId ID des Leads
    * @param requestedBy User-ID des Anfragenden
    * @return PDF als Byte-Array
    */
   @Transactional
   public byte[] generateDataExport(Long leadId, String requestedBy) {
-    LOG.infof("GDPR Data Export requested for Lead %d by %s", leadId, requestedBy);
-
-    Lead lead = em.find(Lead.class, leadId);
-    if (lead == null) {
-      throw new IllegalArgumentException("Lead not found: " + leadId);
-    }
-
-    // 1. Request protokollieren
-    GdprDataRequest request = new GdprDataRequest();
-    request.entityType = ENTITY_TYPE_LEAD;
-    request.entityId = leadId;
-    request.requestedBy = requestedBy;
-    request.requestedAt = LocalDateTime.now();
-    request.persist();
-
-    // 2. PDF generieren
-    byte[] pdf = pdfService.generateLeadDataExport(lead);
+    GdprDataRequest request = createDataRequest(leadId, requestedBy);
 
-    // 3. Request als erfolgreich markieren
-    request.markPdfGenerated();
-
-    // 4. Audit-Log
-    createAuditEntry(
-        AuditEventType.GDPR_REQUEST, leadId, requestedBy, "Art. 15 Datenexport für Lead " + leadId);
+    ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+    writeDataExport(request, em.find(Lead.class, leadId), pdf);
+    return pdf.toByteArray();
+  }
 
-    LOG.infof("GDPR Data Export generated for Lead %d (Request ID: %d)", leadId, request.id);
+  /**
+   * Protokolliert eine Datenexport-Anfrage (Art. 15), bevor das PDF gestreamt wird.
+   *
+   * @param leadId ID des Leads
+   * @param requestedBy User-ID des Anfragenden
+   * @return ID der {@link GdprDataRequest}
+   * @throws IllegalArgumentException wenn der Lead nicht existiert
+   */
+  @Transactional
+  public Long openDataExport(Long leadId, String requestedBy) {
+    return createDataRequest(leadId, requestedBy).id;
+  }
 
-    return pdf;
+  /**
+   * Schreibt das PDF einer zuvor geöffneten Datenexport-Anfrage in den Ausgabestrom.
+   *
+   * <p>Die Transaktion bleibt geöffnet, bis das Dokument vollständig geschrieben ist (Aktivitäten
+   * werden seitenweise nachgeladen) - Parallelität begrenzt {@link GdprExportBulkhead}.
+   *
+   * @param requestId ID aus {@link #openDataExport(Long, String)}
+   * @param out Ziel des PDF-Dokuments
+   */
+  @Transactional
+  public void streamDataExport(Long requestId, OutputStream out) {
+    GdprDataRequest request = GdprDataRequest.findById(requestId);
+    if (request == null) {
+      throw new IllegalArgumentException("GDPR data request not found: " + requestId);
+    }
+    Lead lead = em.find(Lead.class, request.entityId);
+    if (lead == null) {
+      throw new IllegalArgumentException("Lead not found: " + request.entityId);
+    }
+    writeDataExport(request, lead, out);
   }
 
   /**
@@ -331,6 +348,40 @@ public class GdprService {
   // Helper Methods
   // ============================================================================
 
+  private GdprDataRequest createDataRequest(Long leadId, String requestedBy) {
+    LOG.infof("GDPR Data Export requested for Lead %d by %s", leadId, requestedBy);
+
+    Lead lead = em.find(Lead.class, leadId);
+    if (lead == null) {
+      throw new IllegalArgumentException("Lead not found: " + leadId);
+    }
+
+    GdprDataRequest request = new GdprDataRequest();
+    request.entityType = ENTITY_TYPE_LEAD;
+    request.entityId = leadId;
+    request.requestedBy = requestedBy;
+    request.requestedAt = LocalDateTime.now();
+    request.persist();
+    return request;
+  }
+
+  private void writeDataExport(GdprDataRequest request, Lead lead, OutputStream out) {
+    // 1. PDF generieren
+    pdfService.writeLeadDataExport(lead, out);
+
+    // 2. Request als erfolgreich markieren
+    request.markPdfGenerated();
+
+    // 3. Audit-Log
+    createAuditEntry(
+        AuditEventType.GDPR_REQUEST,
+        lead.id,
+        request.requestedBy,
+        "Art. 15 Datenexport für Lead " + lead.id);
+
+    LOG.infof("GDPR Data Export generated for Lead %d (Request ID: %d)", lead.id, request.id);
+  }
+
   /**
    * Erstellt einen SHA-256 Hash der Lead-Daten für Audit-Nachweise.
    *
@@ -0,0 +1,197 @@
+package de.freshplan.modules.leads.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Database side of {@link IdempotencyService#execute} (table {@code idempotency_keys}).
+ *
+ * <p>Every method runs in its own short transaction ({@code REQUIRES_NEW}) so that a claim is
+ * visible to other requests and pods before the operation starts, and the stored response is
+ * visible before the caller returns.
+ */
+@ApplicationScoped
+public class IdempotencyKeyStore {
+
+  /** Key states, see V10060. */
+  public enum State {
+    IN_PROGRESS,
+    COMPLETED
+  }
+
+  /** Projection of one idempotency key row. */
+  public record KeyRecord(
+      State state,
+      String requestHash,
+      Integer responseStatus,
+      String responseBody,
+      Instant leaseUntil,
+      Instant expiresAt) {}
+
+  @Inject EntityManager entityManager;
+
+  /**
+   * Claims a key before the operation runs.
+   *
+   * <p>Inserts an IN_PROGRESS row. An existing row is only taken over if it has expired or if it is
+   * an IN_PROGRESS claim whose lease ran out (owner crashed); otherwise nothing is changed.
+   *
+   * @return {@code true} if the caller now owns the key and must execute the operation
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public boolean claim(
+      String tenantId,
+      String idempotencyKey,
+      String requestHash,
+      Instant now,
+      Instant leaseUntil,
+      Instant expiresAt) {
+    return entityManager
+            .createNativeQuery(
+                """
+                INSERT INTO idempotency_keys
+                  (tenant_id, idempotency_key, request_hash, state, lease_until, created_at,
+                   expires_at)
+                VALUES (:tenantId, :key, :requestHash, 'IN_PROGRESS', :leaseUntil, :now,
+                        :expiresAt)
+                ON CONFLICT (tenant_id, idempotency_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, state = 'IN_PROGRESS',
+                    lease_until = EXCLUDED.lease_until, response_status = NULL,
+                    response_body = NULL, created_at = EXCLUDED.created_at,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at <= :now
+                   OR (idempotency_keys.state = 'IN_PROGRESS'
+                       AND idempotency_keys.lease_until < :now)
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("key", idempotencyKey)
+            .setParameter("requestHash", requestHash)
+            .setParameter("leaseUntil", leaseUntil)
+            .setParameter("now", now)
+            .setParameter("expiresAt", expiresAt)
+            .executeUpdate()
+        > 0;
+  }
+
+  /** Reads a key that has not expired yet. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  @SuppressWarnings("unchecked")
+  public Optional<KeyRecord> find(String tenantId, String idempotencyKey, Instant now) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT state, request_hash, response_status, response_body, lease_until,
+                       expires_at
+                FROM idempotency_keys
+                WHERE tenant_id = :tenantId AND idempotency_key = :key AND expires_at > :now
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("key", idempotencyKey)
+            .setParameter("now", now)
+            .getResultList();
+    if (rows.isEmpty()) {
+      return Optional.empty();
+    }
+    Object[] row = rows.get(0);
+    return Optional.of(
+        new KeyRecord(
+            State.valueOf((String) row[0]),
+            (String) row[1],
+            row[2] == null ? null : ((Number) row[2]).intValue(),
+            (String) row[3],
+            toInstant(row[4]),
+            toInstant(row[5])));
+  }
+
+  /**
+   * Stores the response of an owned claim; triggers the NOTIFY for waiting duplicates.
+   *
+   * @return {@code false} if the claim was lost in the meantime (lease ran out and another request
+   *     took the key over and completed it, or the key was released); the response is not stored
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public boolean complete(
+      String tenantId,
+      String idempotencyKey,
+      String requestHash,
+      int responseStatus,
+      String responseBody) {
+    return entityManager
+            .createNativeQuery(
+                """
+            UPDATE idempotency_keys
+            SET state = 'COMPLETED', response_status = :status, response_body = :body,
+                lease_until = NULL
+            WHERE tenant_id = :tenantId AND idempotency_key = :key
+              AND request_hash = :requestHash AND state = 'IN_PROGRESS'
+            """)
+            .setParameter("status", responseStatus)
+            .setParameter("body", responseBody)
+            .setParameter("tenantId", tenantId)
+            .setParameter("key", idempotencyKey)
+            .setParameter("requestHash", requestHash)
+            .executeUpdate()
+        > 0;
+  }
+
+  /** Releases an owned claim after the operation failed, so that a retry can execute it. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void release(String tenantId, String idempotencyKey, String requestHash) {
+    entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM idempotency_keys
+            WHERE tenant_id = :tenantId AND idempotency_key = :key
+              AND request_hash = :requestHash AND state = 'IN_PROGRESS'
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("key", idempotencyKey)
+        .setParameter("requestHash", requestHash)
+        .executeUpdate();
+  }
+
+  /**
+   * Deletes up to {@code batchSize} expired keys. Short batches keep row locks and WAL bursts
+   * small; {@code SKIP LOCKED} lets concurrent cleanups on other pods work on different rows.
+   *
+   * @return Number of deleted keys
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int deleteExpiredBatch(Instant now, int batchSize) {
+    return entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM idempotency_keys
+            WHERE id IN (
+              SELECT id FROM idempotency_keys
+              WHERE expires_at <= :now
+              ORDER BY expires_at
+              LIMIT :limit
+              FOR UPDATE SKIP LOCKED)
+            """)
+        .setParameter("now", now)
+        .setParameter("limit", batchSize)
+        .executeUpdate();
+  }
+
+  private static Instant toInstant(Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Instant instant) {
+      return instant;
+    }
+    if (value instanceof OffsetDateTime offsetDateTime) {
+      return offsetDateTime.toInstant();
+    }
+    return ((Timestamp) value).toInstant();
+  }
+}
@@ -1,7 +1,15 @@
 package de.freshplan.modules.leads.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.freshplan.infrastructure.cqrs.EventSubscriber.EventNotification;
+import de.freshplan.modules.leads.service.IdempotencyKeyStore.KeyRecord;
 import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
@@ -12,12 +20,33 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Service to handle idempotent API operations. Sprint 2.1.4: Lead Deduplication & Data Quality
  *
  * <p>Prevents duplicate processing of API requests by storing and checking idempotency keys with a
  * TTL (Time To Live).
+ *
+ * <p>{@link #execute} claims the key <strong>before</strong> the operation runs, so concurrent
+ * retries with the same key execute it only once:
+ *
+ * <ul>
+ *   <li>Duplicates within this pod park on the in-flight future of the first request (no DB round
+ *       trip).
+ *   <li>Duplicates on other pods find the IN_PROGRESS claim and wait for the NOTIFY on channel
+ *       {@code idempotency_keys} (fallback: polling), then replay the stored response.
+ *   <li>Completed responses are kept in a bounded local cache; replays of recent keys skip the
+ *       database.
+ *   <li>Expired keys are deleted in small batches by a scheduled cleanup.
+ * </ul>
  */
 @ApplicationScoped
 public class IdempotencyService {
@@ -25,10 +54,262 @@ public class IdempotencyService {
   /** Represents a stored idempotent response with status and body. */
   public record StoredResponse(int status, String body) {}
 
+  /** Result of {@link #execute}. {@code response} is {@code null} for CONFLICT and IN_PROGRESS. */
+  public record Outcome(Kind kind, StoredResponse response) {
+
+    public enum Kind {
+      /** The operation was executed by this call. */
+      EXECUTED,
+      /** The stored response of an earlier or concurrent call with the same key. */
+      REPLAYED,
+      /** The key was used with a different request body (409). */
+      CONFLICT,
+      /** Another request with the same key is still running after the wait timeout (409). */
+      IN_PROGRESS
+    }
+
+    static Outcome executed(StoredResponse response) {
+      return new Outcome(Kind.EXECUTED, response);
+    }
+
+    static Outcome replayed(StoredResponse response) {
+      return new Outcome(Kind.REPLAYED, response);
+    }
+  }
+
   private static final Duration DEFAULT_TTL = Duration.ofHours(24);
 
+  static final String NOTIFY_CHANNEL = "idempotency_keys";
+
+  private static final Outcome CONFLICT = new Outcome(Outcome.Kind.CONFLICT, null);
+  private static final Outcome IN_PROGRESS = new Outcome(Outcome.Kind.IN_PROGRESS, null);
+
   @Inject EntityManager entityManager;
 
+  @Inject IdempotencyKeyStore keyStore;
+
+  @ConfigProperty(name = "freshplan.idempotency.cache.max-entries", defaultValue = "10000")
+  long cacheMaxEntries;
+
+  @ConfigProperty(name = "freshplan.idempotency.cache.expire-after-write", defaultValue = "10m")
+  Duration cacheExpireAfterWrite;
+
+  @ConfigProperty(name = "freshplan.idempotency.lease", defaultValue = "5m")
+  Duration lease;
+
+  @ConfigProperty(name = "freshplan.idempotency.wait-timeout", defaultValue = "30s")
+  Duration waitTimeout;
+
+  @ConfigProperty(name = "freshplan.idempotency.remote-poll-interval", defaultValue = "1s")
+  Duration remotePollInterval;
+
+  @ConfigProperty(name = "freshplan.idempotency.cleanup.batch-size", defaultValue = "5000")
+  int cleanupBatchSize;
+
+  /** Completed responses of recent keys (bounded, write-expiring). */
+  private Cache<KeyRef, CompletedKey> completed;
+
+  /** Requests currently executing in this pod, duplicates park on their future. */
+  private final ConcurrentMap<KeyRef, InFlight> inFlight = new ConcurrentHashMap<>();
+
+  /** Wake-up signals for keys claimed by another pod (completed by the NOTIFY observer). */
+  private final ConcurrentMap<KeyRef, CompletableFuture<Void>> remoteSignals =
+      new ConcurrentHashMap<>();
+
+  private record KeyRef(String tenantId, String idempotencyKey) {}
+
+  private record CompletedKey(String requestHash, StoredResponse response, Instant expiresAt) {}
+
+  private record InFlight(String requestHash, CompletableFuture<StoredResponse> result) {}
+
+  @PostConstruct
+  void init() {
+    completed =
+        Caffeine.newBuilder()
+            .maximumSize(cacheMaxEntries)
+            .expireAfterWrite(cacheExpireAfterWrite)
+            .build();
+  }
+
+  /**
+   * Executes an operation at most once per idempotency key.
+   *
+   * <p>Must be called outside of a transaction (e.g. from the resource); the operation itself
+   * should commit its work (e.g. a {@code @Transactional} service call). The claim and the stored
+   * response are committed in separate short transactions by {@link IdempotencyKeyStore}. If the
+   * operation throws, the claim is released and the exception is rethrown; a retry with the same
+   * key executes the operation again.
+   *
+   * @param tenantId The tenant identifier
+   * @param idempotencyKey The unique request key; blank executes the operation without dedup
+   * @param requestBody The request body (a different body with the same key is a conflict)
+   * @param operation The operation producing the response
+   * @return Executed or replayed response, or CONFLICT / IN_PROGRESS
+   */
+  public Outcome execute(
+      String tenantId,
+      String idempotencyKey,
+      String requestBody,
+      Supplier<StoredResponse> operation) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      return Outcome.executed(operation.get());
+    }
+
+    KeyRef ref = new KeyRef(tenantId, idempotencyKey);
+    String requestHash = hashRequest(requestBody);
+    long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+    while (true) {
+      CompletedKey cached = completed.getIfPresent(ref);
+      if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+        return replayOrConflict(cached.requestHash(), requestHash, cached.response());
+      }
+
+      InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+      InFlight running = inFlight.putIfAbsent(ref, mine);
+      if (running == null) {
+        try {
+          return executeOwned(ref, mine, operation, deadline);
+        } finally {
+          inFlight.remove(ref, mine);
+        }
+      }
+
+      if (!running.requestHash().equals(requestHash)) {
+        return CONFLICT;
+      }
+      Optional<StoredResponse> response = awaitLocal(running, deadline);
+      if (response.isPresent()) {
+        return Outcome.replayed(response.get());
+      }
+      if (System.nanoTime() - deadline >= 0) {
+        return IN_PROGRESS;
+      }
+      // First request failed and released its claim: try again ourselves
+    }
+  }
+
+  /** This thread holds the local slot for the key: claim it in the DB or wait for another pod. */
+  private Outcome executeOwned(
+      KeyRef ref, InFlight mine, Supplier<StoredResponse> operation, long deadline) {
+    try {
+      Outcome outcome = claimAndExecute(ref, mine.requestHash(), operation, deadline);
+      // Parked duplicates replay our response; on CONFLICT / IN_PROGRESS they re-evaluate
+      mine.result().complete(outcome.response());
+      return outcome;
+    } catch (RuntimeException | Error e) {
+      mine.result().completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private Outcome claimAndExecute(
+      KeyRef ref, String requestHash, Supplier<StoredResponse> operation, long deadline) {
+    while (true) {
+      Instant now = Instant.now();
+      Instant expiresAt = now.plus(DEFAULT_TTL);
+      if (keyStore.claim(
+          ref.tenantId(), ref.idempotencyKey(), requestHash, now, now.plus(lease), expiresAt)) {
+        return Outcome.executed(executeClaimed(ref, requestHash, expiresAt, operation));
+      }
+
+      // Claim the wake-up signal before reading the row, so a NOTIFY in between is not lost
+      CompletableFuture<Void> signal =
+          remoteSignals.computeIfAbsent(ref, key -> new CompletableFuture<>());
+      try {
+        Optional<KeyRecord> existing = keyStore.find(ref.tenantId(), ref.idempotencyKey(), now);
+        if (existing.isPresent() && !existing.get().requestHash().equals(requestHash)) {
+          return CONFLICT;
+        }
+        if (existing.isPresent() && existing.get().state() == IdempotencyKeyStore.State.COMPLETED) {
+          KeyRecord record = existing.get();
+          StoredResponse response =
+              new StoredResponse(record.responseStatus(), record.responseBody());
+          completed.put(ref, new CompletedKey(requestHash, response, record.expiresAt()));
+          return Outcome.replayed(response);
+        }
+        if (existing.isEmpty()) {
+          // Expired or released in between: claim again
+          continue;
+        }
+
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return IN_PROGRESS;
+        }
+        awaitSignal(signal, Math.min(remaining, remotePollInterval.toNanos()));
+      } finally {
+        remoteSignals.remove(ref, signal);
+      }
+    }
+  }
+
+  private StoredResponse executeClaimed(
+      KeyRef ref, String requestHash, Instant expiresAt, Supplier<StoredResponse> operation) {
+    StoredResponse response;
+    try {
+      response = operation.get();
+    } catch (RuntimeException | Error e) {
+      keyStore.release(ref.tenantId(), ref.idempotencyKey(), requestHash);
+      throw e;
+    }
+    if (!keyStore.complete(
+        ref.tenantId(), ref.idempotencyKey(), requestHash, response.status(), response.body())) {
+      // Lease ran out during the operation: the stored row belongs to another request
+      Log.warnf(
+          "Idempotency claim lost before the response was stored (operation exceeded the lease of"
+              + " %s). Tenant: %s, Key: %s",
+          lease, ref.tenantId(), ref.idempotencyKey());
+      return response;
+    }
+    completed.put(ref, new CompletedKey(requestHash, response, expiresAt));
+    Log.debugf(
+        "Executed idempotent request. Tenant: %s, Key: %s", ref.tenantId(), ref.idempotencyKey());
+    return response;
+  }
+
+  /** Waits for the local owner; empty if it failed, gave up or the deadline passed. */
+  private static Optional<StoredResponse> awaitLocal(InFlight running, long deadline) {
+    try {
+      long remaining = Math.max(0, deadline - System.nanoTime());
+      return Optional.ofNullable(running.result().get(remaining, TimeUnit.NANOSECONDS));
+    } catch (ExecutionException | TimeoutException e) {
+      return Optional.empty();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+    }
+  }
+
+  private static void awaitSignal(CompletableFuture<Void> signal, long nanos) {
+    try {
+      signal.get(nanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException | ExecutionException e) {
+      // Poll again
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+    }
+  }
+
+  private static Outcome replayOrConflict(
+      String storedHash, String requestHash, StoredResponse response) {
+    return storedHash.equals(requestHash) ? Outcome.replayed(response) : CONFLICT;
+  }
+
+  /** Wakes up requests waiting for a key claimed by another pod (NOTIFY idempotency_keys). */
+  void onKeySettled(@Observes EventNotification notification) {
+    if (!NOTIFY_CHANNEL.equals(notification.getChannel())) {
+      return;
+    }
+    JsonObject payload = notification.getPayload();
+    KeyRef ref = new KeyRef(payload.getString("tenant_id"), payload.getString("idempotency_key"));
+    CompletableFuture<Void> signal = remoteSignals.get(ref);
+    if (signal != null) {
+      signal.complete(null);
+    }
+  }
+
   /**
    * Checks if an idempotency key already exists for a tenant.
    *
@@ -41,6 +322,11 @@ public class IdempotencyService {
       return Optional.empty();
     }
 
+    CompletedKey cached = completed.getIfPresent(new KeyRef(tenantId, idempotencyKey));
+    if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+      return Optional.of(cached.response().body());
+    }
+
     try {
       var result =
           entityManager
@@ -48,6 +334,7 @@ public class IdempotencyService {
                   "SELECT response_body FROM idempotency_keys "
                       + "WHERE tenant_id = :tenantId "
                       + "AND idempotency_key = :key "
+                      + "AND state = 'COMPLETED' "
                       + "AND expires_at > :now",
                   String.class)
               .setParameter("tenantId", tenantId)
@@ -130,7 +417,7 @@ public class IdempotencyService {
                 .createNativeQuery(
                     "SELECT request_hash, response_status, response_body FROM idempotency_keys "
                         + "WHERE tenant_id = :tenantId AND idempotency_key = :key "
-                        + "AND expires_at > :now")
+                        + "AND state = 'COMPLETED' AND expires_at > :now")
                 .setParameter("tenantId", tenantId)
                 .setParameter("key", idempotencyKey)
                 .setParameter("now", now)
@@ -153,7 +440,7 @@ public class IdempotencyService {
             tenantId, idempotencyKey);
         return Optional.of(new StoredResponse(storedStatus, storedBody));
       } catch (NoResultException e) {
-        // Key expired between insert attempt and check
+        // Key expired between insert attempt and check, or claimed by execute() and still running
         return Optional.empty();
       }
     }
@@ -163,14 +450,34 @@ public class IdempotencyService {
     return Optional.of(new StoredResponse(responseStatus, responseBody));
   }
 
-  /** Removes expired idempotency keys. Should be called periodically by a scheduled job. */
-  @Transactional
+  /** Scheduled cleanup of expired keys. */
+  @Scheduled(
+      every = "{freshplan.idempotency.cleanup.interval:15m}",
+      identity = "idempotency-key-cleanup",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledCleanup() {
+    try {
+      cleanupExpiredKeys();
+    } catch (Exception e) {
+      Log.error("Error during idempotency key cleanup", e);
+    }
+  }
+
+  /**
+   * Removes expired idempotency keys in batches of {@code
+   * freshplan.idempotency.cleanup.batch-size}, each in its own short transaction (no long-running
+   * DELETE over the whole table).
+   *
+   * @return Total number of deleted keys
+   */
   public int cleanupExpiredKeys() {
-    int deleted =
-        entityManager
-            .createNativeQuery("DELETE FROM idempotency_keys WHERE expires_at <= :now")
-            .setParameter("now", Instant.now())
-            .executeUpdate();
+    Instant now = Instant.now();
+    int deleted = 0;
+    int batch;
+    do {
+      batch = keyStore.deleteExpiredBatch(now, cleanupBatchSize);
+      deleted += batch;
+    } while (batch >= cleanupBatchSize);
 
     if (deleted > 0) {
       Log.infof("Cleaned up %d expired idempotency keys", deleted);
@@ -179,7 +486,7 @@ public class IdempotencyService {
   }
 
   /** Creates a SHA-256 hash of the request body for comparison. */
-  private String hashRequest(String requestBody) {
+  static String hashRequest(String requestBody) {
     if (requestBody == null) {
       return "NULL";
     }
@@ -3,18 +3,35 @@ package de.freshplan.modules.leads.service;
 import de.freshplan.domain.customer.entity.*;
 import de.freshplan.domain.customer.repository.CustomerRepository;
 import de.freshplan.domain.customer.service.util.CustomerNumberGeneratorService;
+import de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertResponse;
+import de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertResponse.Outcome;
+import de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertResponse.Result;
 import de.freshplan.modules.leads.api.admin.dto.LeadConvertRequest;
 import de.freshplan.modules.leads.api.admin.dto.LeadConvertResponse;
 import de.freshplan.modules.leads.domain.Lead;
 import de.freshplan.modules.leads.domain.LeadStatus;
+import de.freshplan.modules.leads.events.LeadConvertedEvent;
+import de.freshplan.modules.leads.events.LeadEventPublisher;
 import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Service for converting Leads to Customers.
@@ -23,14 +40,32 @@ import java.util.Locale;
  * audit purposes.
  *
  * <p>Sprint 2.1.6 - User Story 2 (Bestandsleads-Migration Phase 2)
+ *
+ * <p><strong>Bulk conversion:</strong> {@link #convertBatch(List, String)} converts leads in chunks
+ * of {@code freshplan.leads.convert.chunk-size}, one transaction per chunk. A chunk is loaded with
+ * one query (contacts fetched), gets its customer numbers from one block allocation and is flushed
+ * once, so the customer/location/address/contact inserts go out as ordered JDBC batches ({@code
+ * quarkus.hibernate-orm.jdbc.statement-batch-size}, {@code hibernate.order_inserts}). Entity IDs
+ * are client-side UUIDs - no sequence round trips. If a chunk fails, its leads are retried one by
+ * one so that a single bad lead does not fail its neighbours.
  */
 @ApplicationScoped
 public class LeadConvertService {
 
+  /** Cross-module event type of the aggregated per-chunk event. */
+  public static final String BATCH_EVENT_TYPE = "LEADS_CONVERTED_TO_CUSTOMER_BATCH";
+
   @Inject CustomerRepository customerRepository;
 
   @Inject CustomerNumberGeneratorService numberGenerator;
 
+  @Inject LeadEventPublisher leadEventPublisher;
+
+  @Inject EntityManager em;
+
+  @ConfigProperty(name = "freshplan.leads.convert.chunk-size", defaultValue = "50")
+  int chunkSize;
+
   // Sprint 2.1.7 Issue #127: Clock Injection Standard
   // Clock für testbare Zeit-Logik (injected via ClockProvider)
   @Inject Clock clock;
@@ -73,7 +108,173 @@ public class LeadConvertService {
     if (customerRepository.findByCustomerNumber(customerNumber).isPresent()) {
       throw new IllegalArgumentException("Customer number already exists: " + customerNumber);
     }
+    if (customerNumber.equals(request.customerNumber)) {
+      // Manually set number: later generated numbers must skip it
+      numberGenerator.registerManual(customerNumber);
+    }
+
+    // 5.-10. Create Customer + location/address/contacts, archive Lead
+    Customer customer = createCustomerFromLead(lead, customerNumber, currentUserId);
+
+    if (request.keepLeadRecord) {
+      Log.infof("Lead %d marked as CONVERTED (record retained for audit)", leadId);
+    } else {
+      Log.infof(
+          "Lead %d marked as CONVERTED (keepLeadRecord=false ignored - audit trail preserved)",
+          leadId);
+    }
+
+    // 11. Audit log
+    Log.infof(
+        "AUDIT: lead_converted_to_customer - leadId=%d, customerId=%s, customerNumber=%s, user=%s",
+        leadId, customer.getId(), customerNumber, currentUserId);
+
+    // 12. Return response
+    return LeadConvertResponse.success(
+        leadId, customer.getId(), customerNumber, LocalDateTime.now(clock));
+  }
+
+  /**
+   * Convert several Leads to Customers (bulk API).
+   *
+   * <p>Not transactional itself: every chunk commits on its own, so a large batch neither holds
+   * locks for its whole duration nor rolls back completely on a single failure. Missing leads are
+   * reported as {@link Outcome#FAILED}, already converted leads as {@link Outcome#SKIPPED}. After
+   * each committed chunk one aggregated {@link LeadConvertedEvent.Batch} is published (several for
+   * chunks above {@link LeadConvertedEvent.Batch#MAX_CONVERSIONS_PER_EVENT} leads).
+   *
+   * @param leadIds Leads to convert (duplicates and {@code null} are ignored)
+   * @param currentUserId User performing the conversion
+   * @return Per-lead report in request order
+   */
+  public LeadBulkConvertResponse convertBatch(List<Long> leadIds, String currentUserId) {
+    List<Long> distinctIds = leadIds.stream().filter(Objects::nonNull).distinct().toList();
+    int size = Math.max(1, chunkSize);
+    Log.infof(
+        "Bulk converting %d leads to customers by user %s (chunk size %d)",
+        distinctIds.size(), currentUserId, size);
+
+    LeadBulkConvertResponse response = new LeadBulkConvertResponse();
+    for (int from = 0; from < distinctIds.size(); from += size) {
+      List<Long> chunk = distinctIds.subList(from, Math.min(distinctIds.size(), from + size));
+      List<Result> results = convertChunkIsolated(chunk, currentUserId);
+      results.forEach(response::add);
+      publishBatchEvent(results, currentUserId);
+    }
+
+    Log.infof(
+        "AUDIT: leads_bulk_converted_to_customers - requested=%d, converted=%d, skipped=%d,"
+            + " failed=%d, user=%s",
+        response.requested, response.converted, response.skipped, response.failed, currentUserId);
+    return response;
+  }
+
+  /** Chunk in one transaction; on failure each lead again in its own transaction. */
+  private List<Result> convertChunkIsolated(List<Long> chunk, String currentUserId) {
+    try {
+      return inNewTransaction(() -> convertChunk(chunk, currentUserId));
+    } catch (RuntimeException e) {
+      if (chunk.size() == 1) {
+        Log.warnf(e, "Bulk conversion failed for lead %d", chunk.get(0));
+        return List.of(Result.failed(chunk.get(0), rootMessage(e)));
+      }
+      Log.warnf(e, "Bulk conversion chunk of %d leads failed, retrying lead by lead", chunk.size());
+      List<Result> results = new ArrayList<>(chunk.size());
+      for (Long leadId : chunk) {
+        results.addAll(convertChunkIsolated(List.of(leadId), currentUserId));
+      }
+      return results;
+    }
+  }
+
+  /**
+   * Converts one chunk inside the caller's transaction and flushes it once.
+   *
+   * @return Results in the order of {@code leadIds}
+   */
+  List<Result> convertChunk(List<Long> leadIds, String currentUserId) {
+    Map<Long, Lead> leads = loadLeadsWithContacts(leadIds);
+
+    Map<Long, Result> results = new LinkedHashMap<>();
+    List<Lead> convertible = new ArrayList<>();
+    for (Long leadId : leadIds) {
+      Lead lead = leads.get(leadId);
+      if (lead == null) {
+        results.put(leadId, Result.failed(leadId, "Lead not found: " + leadId));
+      } else if (lead.status == LeadStatus.CONVERTED) {
+        results.put(leadId, Result.skipped(leadId, "Lead " + leadId + " already converted"));
+      } else {
+        results.put(leadId, null);
+        convertible.add(lead);
+      }
+    }
+
+    Iterator<String> customerNumbers =
+        numberGenerator.generateNextBlock(convertible.size()).iterator();
+    for (Lead lead : convertible) {
+      String customerNumber = customerNumbers.next();
+      Customer customer = createCustomerFromLead(lead, customerNumber, currentUserId);
+      results.put(lead.id, Result.converted(lead.id, customer.getId(), customerNumber));
+    }
+
+    flushAndClear();
+    return new ArrayList<>(results.values());
+  }
+
+  /** One query for the whole chunk; contacts are fetched to avoid a lazy load per lead. */
+  Map<Long, Lead> loadLeadsWithContacts(List<Long> leadIds) {
+    List<Lead> leads =
+        Lead.<Lead>find(
+                "SELECT DISTINCT l FROM Lead l LEFT JOIN FETCH l.contacts WHERE l.id IN ?1",
+                leadIds)
+            .list();
+    return leads.stream().collect(Collectors.toMap(l -> l.id, Function.identity()));
+  }
+
+  /** Sends the chunk's inserts as JDBC batches and keeps the persistence context small. */
+  void flushAndClear() {
+    em.flush();
+    em.clear();
+  }
+
+  <T> T inNewTransaction(Supplier<T> work) {
+    return QuarkusTransaction.requiringNew().call(work::get);
+  }
+
+  private void publishBatchEvent(List<Result> results, String currentUserId) {
+    List<LeadConvertedEvent> conversions =
+        results.stream()
+            .filter(r -> r.outcome == Outcome.CONVERTED)
+            .map(r -> LeadConvertedEvent.of(r.leadId, r.customerId, null))
+            .toList();
+    if (conversions.isEmpty()) {
+      return;
+    }
+    // Chunk is committed at this point - one NOTIFY per chunk instead of one per lead, split so
+    // that large chunk sizes stay below the NOTIFY payload limit
+    for (LeadConvertedEvent.Batch batch :
+        LeadConvertedEvent.Batch.partition(conversions, currentUserId)) {
+      leadEventPublisher.publishCrossModuleEvent(BATCH_EVENT_TYPE, batch.toPayload());
+    }
+  }
+
+  private static String rootMessage(Throwable e) {
+    Throwable root = e;
+    while (root.getCause() != null && root.getCause() != root) {
+      root = root.getCause();
+    }
+    return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+  }
+
+  // ============================================================================
+  // HELPER METHODS - PMD Complexity Refactoring (Issue #146)
+  // ============================================================================
 
+  /**
+   * Creates the Customer graph (customer, main location, address, contacts) from a Lead and marks
+   * the Lead as CONVERTED. Does not flush.
+   */
+  Customer createCustomerFromLead(Lead lead, String customerNumber, String currentUserId) {
     // 5. Create Customer from Lead data
     Customer customer = new Customer();
     customer.setCustomerNumber(customerNumber);
@@ -82,7 +283,7 @@ public class LeadConvertService {
     // Sprint 2.1.7.4: Set PROSPECT (not AKTIV!) - waiting for first order
     customer.setStatus(CustomerStatus.PROSPECT);
 
-    customer.setOriginalLeadId(leadId); // Track Lead → Customer conversion (V261)
+    customer.setOriginalLeadId(lead.id); // Track Lead → Customer conversion (V261)
 
     // Copy business fields using helper methods (PMD Complexity Refactoring - Issue #146)
     copyClassificationFields(lead, customer);
@@ -115,28 +316,9 @@ public class LeadConvertService {
     lead.updatedBy = currentUserId;
     lead.persist();
 
-    if (request.keepLeadRecord) {
-      Log.infof("Lead %d marked as CONVERTED (record retained for audit)", leadId);
-    } else {
-      Log.infof(
-          "Lead %d marked as CONVERTED (keepLeadRecord=false ignored - audit trail preserved)",
-          leadId);
-    }
-
-    // 11. Audit log
-    Log.infof(
-        "AUDIT: lead_converted_to_customer - leadId=%d, customerId=%s, customerNumber=%s, user=%s",
-        leadId, customer.getId(), customerNumber, currentUserId);
-
-    // 12. Return response
-    return LeadConvertResponse.success(
-        leadId, customer.getId(), customerNumber, LocalDateTime.now(clock));
+    return customer;
   }
 
-  // ============================================================================
-  // HELPER METHODS - PMD Complexity Refactoring (Issue #146)
-  // ============================================================================
-
   /** Copy classification fields from Lead to Customer. */
   private void copyClassificationFields(Lead lead, Customer customer) {
     if (lead.businessType != null) {
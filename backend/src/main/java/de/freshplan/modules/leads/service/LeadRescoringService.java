@@ -0,0 +1,464 @@
+package de.freshplan.modules.leads.service;
+
+import de.freshplan.domain.shared.BusinessType;
+import de.freshplan.domain.shared.DealSize;
+import de.freshplan.domain.shared.LeadSource;
+import de.freshplan.modules.leads.domain.DecisionMakerAccess;
+import de.freshplan.modules.leads.domain.RelationshipStatus;
+import de.freshplan.modules.leads.domain.UrgencyLevel;
+import de.freshplan.modules.leads.service.LeadScoringService.Scores;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.logging.Logger;
+
+/**
+ * Bulk-Rescoring aller Leads, z.B. nach Änderung der Scoring-Gewichte.
+ *
+ * <p>Ablauf pro Chunk ({@code freshplan.leads.rescore.chunk-size}):
+ *
+ * <ol>
+ *   <li>Keyset-Read der Scoring-Eingaben als Projektion ({@code WHERE id > ? ORDER BY id}) - keine
+ *       Entities, kein Persistence Context
+ *   <li>Scoring parallel auf einem eigenen ForkJoinPool ({@code
+ *       freshplan.leads.rescore.parallelism}) mit den reinen Funktionen aus {@link
+ *       LeadScoringService#score(LeadScoreInput, LocalDate)}
+ *   <li>Ein {@code UPDATE ... FROM (VALUES ...)} nur für Leads mit geänderten Scores
+ * </ol>
+ *
+ * <p>Das Update greift nur, wenn {@code version} unverändert ist. Wurde ein Lead zwischen Lesen und
+ * Schreiben bearbeitet, wird er nicht überschrieben, sondern nach dem Keyset-Durchlauf erneut
+ * gelesen und bewertet (bis zu {@value #MAX_STALE_PASSES} Runden): nur wenige Schreibpfade rufen
+ * {@link LeadScoringService#updateLeadScore} auf, ein bearbeiteter Lead hat also nicht zwingend
+ * schon Scores mit den neuen Gewichten. Was danach noch kollidiert, wird als {@code stale} gezählt.
+ * Scores sind abgeleitete Cache-Spalten, das Rescoring erhöht daher weder {@code version} noch
+ * {@code updated_at}.
+ *
+ * <p>Es läuft höchstens ein Job gleichzeitig; Fortschritt und Durchsatz über {@link #progress()}.
+ *
+ * <p><strong>Metriken:</strong> {@code freshplan_leads_rescored{result=changed|unchanged|stale}}.
+ */
+@ApplicationScoped
+public class LeadRescoringService {
+
+  private static final Logger LOG = Logger.getLogger(LeadRescoringService.class);
+
+  /** Runden für zwischenzeitlich bearbeitete Leads nach dem Keyset-Durchlauf. */
+  static final int MAX_STALE_PASSES = 3;
+
+  private static final String SELECT_COLUMNS =
+      """
+      SELECT id, version,
+             (CASE WHEN pain_staff_shortage THEN 1 ELSE 0 END
+              + CASE WHEN pain_high_costs THEN 1 ELSE 0 END
+              + CASE WHEN pain_food_waste THEN 1 ELSE 0 END
+              + CASE WHEN pain_quality_inconsistency THEN 1 ELSE 0 END
+              + CASE WHEN pain_unreliable_delivery THEN 1 ELSE 0 END
+              + CASE WHEN pain_poor_service THEN 1 ELSE 0 END
+              + CASE WHEN pain_supplier_quality THEN 1 ELSE 0 END
+              + CASE WHEN pain_time_pressure THEN 1 ELSE 0 END) AS pain_count,
+             urgency_level, estimated_volume, budget_confirmed, deal_size, business_type, city,
+             source, relationship_status, decision_maker_access, internal_champion_name,
+             last_activity_at, pain_score, revenue_score, fit_score, engagement_score, lead_score
+      FROM leads
+      """;
+
+  private static final String SELECT_CHUNK_SQL =
+      SELECT_COLUMNS
+          + """
+          WHERE id > ?
+          ORDER BY id
+          LIMIT ?
+          """;
+
+  private static final String SELECT_BY_IDS_SQL =
+      SELECT_COLUMNS + """
+          WHERE id = ANY(?)
+          ORDER BY id
+          """;
+
+  private static final String UPDATE_HEAD =
+      """
+      UPDATE leads l
+      SET pain_score = v.pain_score,
+          revenue_score = v.revenue_score,
+          fit_score = v.fit_score,
+          engagement_score = v.engagement_score,
+          lead_score = v.lead_score,
+          deal_size = COALESCE(l.deal_size, v.deal_size)
+      FROM (VALUES\s""";
+
+  private static final String UPDATE_ROW =
+      "(?::bigint, ?::bigint, ?::int, ?::int, ?::int, ?::int, ?::int, ?::varchar)";
+
+  private static final String UPDATE_TAIL =
+      """
+      ) AS v(id, version, pain_score, revenue_score, fit_score, engagement_score, lead_score,
+             deal_size)
+      WHERE l.id = v.id AND l.version = v.version
+      RETURNING l.id
+      """;
+
+  @Inject DataSource dataSource;
+
+  @Inject LeadScoringService scoringService;
+
+  @Inject ManagedExecutor executor;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @ConfigProperty(name = "freshplan.leads.rescore.chunk-size", defaultValue = "1000")
+  int chunkSize;
+
+  /** 0 = Anzahl verfügbarer Prozessoren. */
+  @ConfigProperty(name = "freshplan.leads.rescore.parallelism", defaultValue = "0")
+  int parallelism;
+
+  private final AtomicReference<Job> currentJob = new AtomicReference<>();
+  private Counter changedCounter;
+  private Counter unchangedCounter;
+  private Counter staleCounter;
+
+  /** Status eines Rescoring-Jobs. */
+  public enum Status {
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  /**
+   * Fortschritt eines Rescoring-Jobs.
+   *
+   * @param scanned gelesene Leads
+   * @param changed Leads mit geänderten Scores (geschrieben)
+   * @param requeued zwischenzeitlich bearbeitete Leads, die erneut gelesen wurden (pro Runde)
+   * @param stale Leads, die auch nach allen Runden kollidierten (nicht geschrieben)
+   * @param leadsPerSecond Durchsatz (gelesene Leads)
+   */
+  public record Progress(
+      Status status,
+      long scanned,
+      long changed,
+      long requeued,
+      long stale,
+      long chunks,
+      Instant startedAt,
+      Instant finishedAt,
+      double leadsPerSecond,
+      String error) {}
+
+  /** Geänderte Scores eines Leads für das Batch-Update. */
+  record ScoreUpdate(Long leadId, long version, Scores scores, DealSize dealSize) {}
+
+  @PostConstruct
+  void init() {
+    changedCounter = rescoredCounter("changed");
+    unchangedCounter = rescoredCounter("unchanged");
+    staleCounter = rescoredCounter("stale");
+  }
+
+  private Counter rescoredCounter(String result) {
+    return Counter.builder("freshplan_leads_rescored")
+        .description("Leads processed by the bulk rescoring job")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Startet einen Rescoring-Job im Hintergrund.
+   *
+   * @return Fortschritt des neuen Jobs, oder leer wenn bereits ein Job läuft
+   */
+  public Optional<Progress> start() {
+    Job job = new Job();
+    Job previous = currentJob.get();
+    if ((previous != null && previous.status == Status.RUNNING)
+        || !currentJob.compareAndSet(previous, job)) {
+      return Optional.empty();
+    }
+    executor.runAsync(() -> run(job));
+    return Optional.of(job.snapshot());
+  }
+
+  /**
+   * @return Fortschritt des laufenden bzw. letzten Jobs
+   */
+  public Optional<Progress> progress() {
+    return Optional.ofNullable(currentJob.get()).map(Job::snapshot);
+  }
+
+  /** Synchroner Lauf über alle Leads (für Jobs und Tests). */
+  Progress rescoreAll() {
+    Job job = new Job();
+    run(job);
+    return job.snapshot();
+  }
+
+  private void run(Job job) {
+    ForkJoinPool pool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    LocalDate today = LocalDate.now();
+    try {
+      long afterId = Long.MIN_VALUE;
+      List<Long> requeue = new ArrayList<>();
+      List<LeadScoreInput> chunk;
+      while (!(chunk = loadChunk(afterId, chunkSize)).isEmpty()) {
+        List<ScoreUpdate> changed = scoreChunk(pool, chunk, today);
+        job.scanned(chunk.size());
+        unchangedCounter.increment(chunk.size() - changed.size());
+        write(changed, job, requeue);
+        afterId = chunk.get(chunk.size() - 1).leadId();
+
+        if (chunk.size() < chunkSize) {
+          break;
+        }
+      }
+
+      for (int pass = 1; pass <= MAX_STALE_PASSES && !requeue.isEmpty(); pass++) {
+        requeue = rescoreStale(pool, requeue, today, job);
+      }
+      job.stale.addAndGet(requeue.size());
+      staleCounter.increment(requeue.size());
+      if (!requeue.isEmpty()) {
+        LOG.warnf(
+            "Lead rescoring: %d leads still modified concurrently after %d passes, not rescored",
+            requeue.size(), MAX_STALE_PASSES);
+      }
+      job.finish(Status.COMPLETED, null);
+      Progress progress = job.snapshot();
+      LOG.infof(
+          "Lead rescoring completed: %d scanned, %d changed, %d stale (%.0f leads/s)",
+          progress.scanned(), progress.changed(), progress.stale(), progress.leadsPerSecond());
+    } catch (Exception e) {
+      job.finish(Status.FAILED, e.getMessage());
+      LOG.errorf(e, "Lead rescoring failed after %d leads", job.scanned.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Liest zwischenzeitlich bearbeitete Leads erneut (aktuelle {@code version}) und bewertet sie
+   * neu. Gelöschte Leads fallen dabei heraus.
+   *
+   * @return Leads, die erneut kollidierten
+   */
+  private List<Long> rescoreStale(ForkJoinPool pool, List<Long> leadIds, LocalDate today, Job job)
+      throws SQLException {
+    job.requeued.addAndGet(leadIds.size());
+    List<Long> stillStale = new ArrayList<>();
+    for (int from = 0; from < leadIds.size(); from += chunkSize) {
+      List<LeadScoreInput> inputs =
+          loadByIds(leadIds.subList(from, Math.min(from + chunkSize, leadIds.size())));
+      write(scoreChunk(pool, inputs, today), job, stillStale);
+    }
+    return stillStale;
+  }
+
+  /** Schreibt geänderte Scores und merkt sich die nicht geschriebenen (bearbeiteten) Leads vor. */
+  private void write(List<ScoreUpdate> changed, Job job, List<Long> stale) throws SQLException {
+    if (changed.isEmpty()) {
+      return;
+    }
+    Set<Long> written = writeChanged(changed);
+    job.changed.addAndGet(written.size());
+    changedCounter.increment(written.size());
+    for (ScoreUpdate update : changed) {
+      if (!written.contains(update.leadId())) {
+        stale.add(update.leadId());
+      }
+    }
+  }
+
+  /** Bewertet einen Chunk parallel; liefert nur Leads mit geänderten Scores. */
+  List<ScoreUpdate> scoreChunk(ForkJoinPool pool, List<LeadScoreInput> chunk, LocalDate today) {
+    return pool.submit(
+            () ->
+                chunk.parallelStream()
+                    .map(input -> toUpdate(input, scoringService.score(input, today)))
+                    .filter(Objects::nonNull)
+                    .toList())
+        .join();
+  }
+
+  private static ScoreUpdate toUpdate(LeadScoreInput input, Scores scores) {
+    boolean dealSizeDerived = input.dealSize() == null && input.effectiveDealSize() != null;
+    if (!scores.differsFrom(input.currentScores()) && !dealSizeDerived) {
+      return null;
+    }
+    return new ScoreUpdate(input.leadId(), input.version(), scores, input.effectiveDealSize());
+  }
+
+  /** Keyset-Read der Scoring-Eingaben. */
+  List<LeadScoreInput> loadChunk(long afterId, int limit) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(SELECT_CHUNK_SQL)) {
+      ps.setLong(1, afterId);
+      ps.setInt(2, limit);
+      List<LeadScoreInput> inputs = new ArrayList<>(limit);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          inputs.add(toInput(rs));
+        }
+      }
+      return inputs;
+    }
+  }
+
+  /** Liest die Scoring-Eingaben bestimmter Leads. */
+  List<LeadScoreInput> loadByIds(List<Long> leadIds) throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(SELECT_BY_IDS_SQL)) {
+      ps.setArray(1, conn.createArrayOf("bigint", leadIds.toArray()));
+      List<LeadScoreInput> inputs = new ArrayList<>(leadIds.size());
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          inputs.add(toInput(rs));
+        }
+      }
+      return inputs;
+    }
+  }
+
+  /**
+   * Schreibt geänderte Scores in einem Statement.
+   *
+   * @return IDs der aktualisierten Leads (ohne zwischenzeitlich bearbeitete)
+   */
+  Set<Long> writeChanged(List<ScoreUpdate> updates) throws SQLException {
+    StringBuilder sql = new StringBuilder(UPDATE_HEAD);
+    for (int i = 0; i < updates.size(); i++) {
+      sql.append(i == 0 ? "" : ", ").append(UPDATE_ROW);
+    }
+    sql.append(UPDATE_TAIL);
+
+    try (Connection conn = dataSource.getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+      int p = 1;
+      for (ScoreUpdate update : updates) {
+        Scores scores = update.scores();
+        ps.setLong(p++, update.leadId());
+        ps.setLong(p++, update.version());
+        ps.setInt(p++, scores.painScore());
+        ps.setInt(p++, scores.revenueScore());
+        ps.setInt(p++, scores.fitScore());
+        ps.setInt(p++, scores.engagementScore());
+        ps.setInt(p++, scores.totalScore());
+        if (update.dealSize() != null) {
+          ps.setString(p++, update.dealSize().name());
+        } else {
+          ps.setNull(p++, Types.VARCHAR);
+        }
+      }
+      Set<Long> written = new HashSet<>();
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          written.add(rs.getLong(1));
+        }
+      }
+      return written;
+    }
+  }
+
+  private static LeadScoreInput toInput(ResultSet rs) throws SQLException {
+    Timestamp lastActivity = rs.getTimestamp("last_activity_at");
+    return new LeadScoreInput(
+        rs.getLong("id"),
+        rs.getLong("version"),
+        rs.getInt("pain_count"),
+        enumOrNull(UrgencyLevel.class, rs.getString("urgency_level")),
+        rs.getBigDecimal("estimated_volume"),
+        (Boolean) rs.getObject("budget_confirmed"),
+        enumOrNull(DealSize.class, rs.getString("deal_size")),
+        enumOrNull(BusinessType.class, rs.getString("business_type")),
+        rs.getString("city"),
+        enumOrNull(LeadSource.class, rs.getString("source")),
+        enumOrNull(RelationshipStatus.class, rs.getString("relationship_status")),
+        enumOrNull(DecisionMakerAccess.class, rs.getString("decision_maker_access")),
+        rs.getString("internal_champion_name"),
+        lastActivity != null ? lastActivity.toLocalDateTime() : null,
+        new LeadScoreInput.StoredScores(
+            (Integer) rs.getObject("pain_score"),
+            (Integer) rs.getObject("revenue_score"),
+            (Integer) rs.getObject("fit_score"),
+            (Integer) rs.getObject("engagement_score"),
+            (Integer) rs.getObject("lead_score")));
+  }
+
+  /** Unbekannte Altwerte werden wie "nicht gesetzt" bewertet (wie bei leerem Feld). */
+  private static <E extends Enum<E>> E enumOrNull(Class<E> type, String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Enum.valueOf(type, value);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /** Laufender Job (Zähler thread-safe, Snapshot für die API). */
+  private static final class Job {
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong requeued = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    void scanned(int scannedInChunk) {
+      scanned.addAndGet(scannedInChunk);
+      chunks.incrementAndGet();
+    }
+
+    void finish(Status finalStatus, String message) {
+      finishedAt = Instant.now();
+      error = message;
+      status = finalStatus;
+    }
+
+    Progress snapshot() {
+      Instant end = finishedAt != null ? finishedAt : Instant.now();
+      double seconds = Math.max(0.001, Duration.between(startedAt, end).toMillis() / 1000.0);
+      long scannedNow = scanned.get();
+      return new Progress(
+          status,
+          scannedNow,
+          changed.get(),
+          requeued.get(),
+          stale.get(),
+          chunks.get(),
+          startedAt,
+          finishedAt,
+          Math.round(scannedNow / seconds * 10) / 10.0,
+          error);
+    }
+  }
+}
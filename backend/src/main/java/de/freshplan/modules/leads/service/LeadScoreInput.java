@@ -0,0 +1,89 @@
+package de.freshplan.modules.leads.service;
+
+import de.freshplan.domain.shared.BusinessType;
+import de.freshplan.domain.shared.DealSize;
+import de.freshplan.domain.shared.LeadSource;
+import de.freshplan.modules.leads.domain.DecisionMakerAccess;
+import de.freshplan.modules.leads.domain.Lead;
+import de.freshplan.modules.leads.domain.RelationshipStatus;
+import de.freshplan.modules.leads.domain.UrgencyLevel;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Scoring-Eingaben eines Leads - alles, was {@link LeadScoringService} liest, ohne Entity.
+ *
+ * <p>Wird beim Bulk-Rescoring per Projektion geladen ({@link LeadRescoringService}) und beim
+ * Einzel-Scoring aus dem {@link Lead} erzeugt; beide Pfade rechnen damit identisch.
+ *
+ * @param painCount Anzahl gesetzter Pain-Flags (0-8)
+ * @param currentScores bisher gespeicherte Scores (für die Änderungserkennung), Felder ggf. null
+ */
+public record LeadScoreInput(
+    Long leadId,
+    long version,
+    int painCount,
+    UrgencyLevel urgencyLevel,
+    BigDecimal estimatedVolume,
+    Boolean budgetConfirmed,
+    DealSize dealSize,
+    BusinessType businessType,
+    String city,
+    LeadSource source,
+    RelationshipStatus relationshipStatus,
+    DecisionMakerAccess decisionMakerAccess,
+    String internalChampionName,
+    LocalDateTime lastActivityAt,
+    StoredScores currentScores) {
+
+  /** Gespeicherte Score-Spalten eines Leads. */
+  public record StoredScores(
+      Integer painScore,
+      Integer revenueScore,
+      Integer fitScore,
+      Integer engagementScore,
+      Integer leadScore) {}
+
+  @SuppressWarnings("PMD.NPathComplexity") // Counting 8 independent boolean pain fields
+  public static LeadScoreInput from(Lead lead) {
+    int painCount = 0;
+    if (Boolean.TRUE.equals(lead.painStaffShortage)) painCount++;
+    if (Boolean.TRUE.equals(lead.painHighCosts)) painCount++;
+    if (Boolean.TRUE.equals(lead.painFoodWaste)) painCount++;
+    if (Boolean.TRUE.equals(lead.painQualityInconsistency)) painCount++;
+    if (Boolean.TRUE.equals(lead.painUnreliableDelivery)) painCount++;
+    if (Boolean.TRUE.equals(lead.painPoorService)) painCount++;
+    if (Boolean.TRUE.equals(lead.painSupplierQuality)) painCount++;
+    if (Boolean.TRUE.equals(lead.painTimePressure)) painCount++;
+
+    return new LeadScoreInput(
+        lead.id,
+        lead.version,
+        painCount,
+        lead.urgencyLevel,
+        lead.estimatedVolume,
+        lead.budgetConfirmed,
+        lead.dealSize,
+        lead.businessType,
+        lead.city,
+        lead.source,
+        lead.relationshipStatus,
+        lead.decisionMakerAccess,
+        lead.internalChampionName,
+        lead.lastActivityAt,
+        new StoredScores(
+            lead.painScore,
+            lead.revenueScore,
+            lead.fitScore,
+            lead.engagementScore,
+            lead.leadScore));
+  }
+
+  /** Gesetzte Deal-Size oder die aus dem Jahresvolumen abgeleitete (kann null sein). */
+  public DealSize effectiveDealSize() {
+    if (dealSize != null) {
+      return dealSize;
+    }
+    return estimatedVolume != null ? DealSize.fromAnnualVolume(estimatedVolume) : null;
+  }
+}
@@ -8,7 +8,7 @@ import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.Set;
 
@@ -26,7 +26,10 @@ import java.util.Set;
  *   <li>Engagement: 25% - Relationship strength (contact + activities)
  * </ul>
  *
- * <p>Usage: Call {@link #updateLeadScore(Lead)} after lead creation/update.
+ * <p>Usage: Call {@link #updateLeadScore(Lead)} after lead creation/update. All dimensions are
+ * computed from a {@link LeadScoreInput} by pure functions ({@link #score(LeadScoreInput,
+ * LocalDate)}), so the bulk path ({@link LeadRescoringService}) can score projections in parallel
+ * without loading entities.
  */
 @ApplicationScoped
 public class LeadScoringService {
@@ -93,13 +96,64 @@ public class LeadScoringService {
       return;
     }
 
-    // Calculate all 4 dimensions
-    int painScore = calculatePainScore(lead);
-    int revenueScore = calculateRevenueScore(lead);
-    int fitScore = calculateFitScore(lead);
-    int engagementScore = calculateEngagementScore(lead);
+    LeadScoreInput input = LeadScoreInput.from(lead);
+    applyDerivedDealSize(lead, input);
+
+    // Calculate all 4 dimensions + weighted total (25% each)
+    Scores scores = score(input, LocalDate.now());
+
+    // OPTIMIZATION: Only persist if scores changed (avoid unnecessary DB writes)
+    if (scores.differsFrom(input.currentScores())) {
+      // Update cached scores
+      lead.painScore = scores.painScore();
+      lead.revenueScore = scores.revenueScore();
+      lead.fitScore = scores.fitScore();
+      lead.engagementScore = scores.engagementScore();
+      lead.leadScore = scores.totalScore();
+
+      Log.infof(
+          "Lead %s score updated: Total=%d (Pain=%d, Revenue=%d, Fit=%d, Engagement=%d)",
+          lead.id,
+          scores.totalScore(),
+          scores.painScore(),
+          scores.revenueScore(),
+          scores.fitScore(),
+          scores.engagementScore());
+    } else {
+      Log.debugf("Lead %s scores unchanged, skipping DB write", lead.id);
+    }
+  }
+
+  /** Result of {@link #score(LeadScoreInput, LocalDate)}. */
+  public record Scores(
+      int painScore, int revenueScore, int fitScore, int engagementScore, int totalScore) {
+
+    /**
+     * @return true if any stored score differs (null counts as different)
+     */
+    public boolean differsFrom(LeadScoreInput.StoredScores stored) {
+      return stored == null
+          || !Integer.valueOf(painScore).equals(stored.painScore())
+          || !Integer.valueOf(revenueScore).equals(stored.revenueScore())
+          || !Integer.valueOf(fitScore).equals(stored.fitScore())
+          || !Integer.valueOf(engagementScore).equals(stored.engagementScore())
+          || !Integer.valueOf(totalScore).equals(stored.leadScore());
+    }
+  }
+
+  /**
+   * Pure scoring function: all 4 dimensions plus the weighted total (25% each). Side-effect free
+   * and thread-safe.
+   *
+   * @param input Scoring inputs
+   * @param today Reference date for the recent-activity bonus
+   */
+  public Scores score(LeadScoreInput input, LocalDate today) {
+    int painScore = painScore(input);
+    int revenueScore = revenueScore(input);
+    int fitScore = fitScore(input);
+    int engagementScore = engagementScore(input, today);
 
-    // Weighted average (25% each dimension)
     int totalScore =
         (int)
             Math.round(
@@ -108,27 +162,16 @@ public class LeadScoringService {
                     + (fitScore * 0.25)
                     + (engagementScore * 0.25));
 
-    // OPTIMIZATION: Only persist if scores changed (avoid unnecessary DB writes)
-    boolean scoresChanged =
-        !Integer.valueOf(painScore).equals(lead.painScore)
-            || !Integer.valueOf(revenueScore).equals(lead.revenueScore)
-            || !Integer.valueOf(fitScore).equals(lead.fitScore)
-            || !Integer.valueOf(engagementScore).equals(lead.engagementScore)
-            || !Integer.valueOf(totalScore).equals(lead.leadScore);
-
-    if (scoresChanged) {
-      // Update cached scores
-      lead.painScore = painScore;
-      lead.revenueScore = revenueScore;
-      lead.fitScore = fitScore;
-      lead.engagementScore = engagementScore;
-      lead.leadScore = totalScore;
+    return new Scores(painScore, revenueScore, fitScore, engagementScore, totalScore);
+  }
 
-      Log.infof(
-          "Lead %s score updated: Total=%d (Pain=%d, Revenue=%d, Fit=%d, Engagement=%d)",
-          lead.id, totalScore, painScore, revenueScore, fitScore, engagementScore);
-    } else {
-      Log.debugf("Lead %s scores unchanged, skipping DB write", lead.id);
+  /** Auto-calculated deal size is stored on the lead for next time (not exposed in UI). */
+  private void applyDerivedDealSize(Lead lead, LeadScoreInput input) {
+    if (lead.dealSize == null) {
+      DealSize autoSize = input.effectiveDealSize();
+      if (autoSize != null) {
+        lead.dealSize = autoSize;
+      }
     }
   }
 
@@ -151,10 +194,14 @@ public class LeadScoringService {
    * @return Pain score (0-100)
    */
   public int calculatePainScore(Lead lead) {
+    return painScore(LeadScoreInput.from(lead));
+  }
+
+  int painScore(LeadScoreInput input) {
     int score = 0;
 
-    // PMD Complexity Refactoring (Issue #146) - Extracted pain counting
-    int painCount = countIdentifiedPains(lead);
+    // PMD Complexity Refactoring (Issue #146) - Pain counting lives in LeadScoreInput.from
+    int painCount = input.painCount();
 
     score += Math.min(painCount * 5, 40); // Max 40 points (8 pains × 5)
 
@@ -165,7 +212,7 @@ public class LeadScoringService {
     }
 
     // 3. Urgency level (30 points max)
-    score += getUrgencyPoints(lead);
+    score += getUrgencyPoints(input);
 
     return Math.min(score, 100);
   }
@@ -174,25 +221,11 @@ public class LeadScoringService {
   // PMD Complexity Refactoring (Issue #146) - Helper methods for calculatePainScore()
   // ============================================================================
 
-  @SuppressWarnings("PMD.NPathComplexity") // Counting 8 independent boolean pain fields
-  private int countIdentifiedPains(Lead lead) {
-    int painCount = 0;
-    if (Boolean.TRUE.equals(lead.painStaffShortage)) painCount++;
-    if (Boolean.TRUE.equals(lead.painHighCosts)) painCount++;
-    if (Boolean.TRUE.equals(lead.painFoodWaste)) painCount++;
-    if (Boolean.TRUE.equals(lead.painQualityInconsistency)) painCount++;
-    if (Boolean.TRUE.equals(lead.painUnreliableDelivery)) painCount++;
-    if (Boolean.TRUE.equals(lead.painPoorService)) painCount++;
-    if (Boolean.TRUE.equals(lead.painSupplierQuality)) painCount++;
-    if (Boolean.TRUE.equals(lead.painTimePressure)) painCount++;
-    return painCount;
-  }
-
-  private int getUrgencyPoints(Lead lead) {
-    if (lead.urgencyLevel == null) {
+  private int getUrgencyPoints(LeadScoreInput input) {
+    if (input.urgencyLevel() == null) {
       return 0;
     }
-    return switch (lead.urgencyLevel) {
+    return switch (input.urgencyLevel()) {
       case EMERGENCY -> 30;
       case HIGH -> 22;
       case MEDIUM -> 15;
@@ -223,12 +256,18 @@ public class LeadScoringService {
    * @return Revenue score (0-100)
    */
   public int calculateRevenueScore(Lead lead) {
+    LeadScoreInput input = LeadScoreInput.from(lead);
+    applyDerivedDealSize(lead, input);
+    return revenueScore(input);
+  }
+
+  int revenueScore(LeadScoreInput input) {
     int score = 0;
 
     // PMD Complexity Refactoring (Issue #146) - Extracted to helper methods
-    score += getVolumePoints(lead);
-    score += getBudgetPoints(lead);
-    score += getDealSizePoints(lead);
+    score += getVolumePoints(input);
+    score += getBudgetPoints(input);
+    score += getDealSizePoints(input);
 
     return Math.min(score, 100);
   }
@@ -237,12 +276,12 @@ public class LeadScoringService {
   // PMD Complexity Refactoring (Issue #146) - Helper methods for calculateRevenueScore()
   // ============================================================================
 
-  private int getVolumePoints(Lead lead) {
+  private int getVolumePoints(LeadScoreInput input) {
     // NOTE: estimatedVolume is ANNUAL revenue (changed from monthly in Sprint 2.1.7.2)
-    if (lead.estimatedVolume == null) {
+    if (input.estimatedVolume() == null) {
       return 0;
     }
-    BigDecimal annualVolume = lead.estimatedVolume; // Already annual!
+    BigDecimal annualVolume = input.estimatedVolume(); // Already annual!
 
     if (annualVolume.compareTo(new BigDecimal("2000000")) >= 0) {
       return 40; // Enterprise: 2M+ €/year
@@ -255,24 +294,14 @@ public class LeadScoringService {
     }
   }
 
-  private int getBudgetPoints(Lead lead) {
-    return Boolean.TRUE.equals(lead.budgetConfirmed) ? 30 : 0;
+  private int getBudgetPoints(LeadScoreInput input) {
+    return Boolean.TRUE.equals(input.budgetConfirmed()) ? 30 : 0;
   }
 
-  private int getDealSizePoints(Lead lead) {
-    // Deal Size Category (30 points max) - Auto-calculated from estimatedVolume
-    if (lead.dealSize != null) {
-      return getDealSizePointsForSize(lead.dealSize);
-    } else if (lead.estimatedVolume != null) {
-      // Auto-calculate deal size if not set (internal helper, not exposed in UI)
-      BigDecimal annualVolume = lead.estimatedVolume; // Already annual!
-      DealSize autoSize = DealSize.fromAnnualVolume(annualVolume);
-      if (autoSize != null) {
-        lead.dealSize = autoSize; // Set it for next time
-        return getDealSizePointsForSize(autoSize);
-      }
-    }
-    return 0;
+  private int getDealSizePoints(LeadScoreInput input) {
+    // Deal Size Category (30 points max) - Auto-calculated from estimatedVolume if not set
+    DealSize size = input.effectiveDealSize();
+    return size != null ? getDealSizePointsForSize(size) : 0;
   }
 
   private int getDealSizePointsForSize(DealSize size) {
@@ -303,11 +332,15 @@ public class LeadScoringService {
    * @return Fit score (0-100)
    */
   public int calculateFitScore(Lead lead) {
+    return fitScore(LeadScoreInput.from(lead));
+  }
+
+  int fitScore(LeadScoreInput input) {
     int score = 0;
 
     // 1. Segment Match (40 points max)
-    if (lead.businessType != null) {
-      if (IDEAL_SEGMENTS.contains(lead.businessType)) {
+    if (input.businessType() != null) {
+      if (IDEAL_SEGMENTS.contains(input.businessType())) {
         score += 40; // Perfect fit: Restaurant, Catering, Hotel, Kantine
       } else {
         score += 15; // Other B2B gastro = acceptable but not ideal
@@ -315,8 +348,8 @@ public class LeadScoringService {
     }
 
     // 2. Location Match (25 points max)
-    if (lead.city != null) {
-      if (IDEAL_CITIES.contains(lead.city)) {
+    if (input.city() != null) {
+      if (IDEAL_CITIES.contains(input.city())) {
         score += 25; // Top 15 cities in Germany
       } else {
         score += 10; // Other cities
@@ -324,12 +357,12 @@ public class LeadScoringService {
     }
 
     // 3. Source Quality (35 points max)
-    if (lead.source != null) {
-      if (HIGH_QUALITY_SOURCES.contains(lead.source)) {
+    if (input.source() != null) {
+      if (HIGH_QUALITY_SOURCES.contains(input.source())) {
         score += 35; // Referral/Partner = high quality
-      } else if (lead.source == LeadSource.MESSE) {
+      } else if (input.source() == LeadSource.MESSE) {
         score += 25; // Messe = medium quality
-      } else if (lead.source == LeadSource.WEB_FORMULAR) {
+      } else if (input.source() == LeadSource.WEB_FORMULAR) {
         score += 15; // Web = lower quality
       } else {
         score += 5; // Other sources (TELEFON, SONSTIGES)
@@ -361,28 +394,30 @@ public class LeadScoringService {
    * @return Engagement score (0-100, capped)
    */
   public int calculateEngagementScore(Lead lead) {
+    return engagementScore(LeadScoreInput.from(lead), LocalDate.now());
+  }
+
+  int engagementScore(LeadScoreInput input, LocalDate today) {
     int score = 0;
 
     // 1. Relationship Quality (use enum's built-in points: 0-25)
-    if (lead.relationshipStatus != null) {
-      score += lead.relationshipStatus.getPoints();
+    if (input.relationshipStatus() != null) {
+      score += input.relationshipStatus().getPoints();
     }
 
     // 2. Decision Maker Access (use enum's built-in points: -3 to +25)
-    if (lead.decisionMakerAccess != null) {
-      score += lead.decisionMakerAccess.getPoints();
+    if (input.decisionMakerAccess() != null) {
+      score += input.decisionMakerAccess().getPoints();
     }
 
     // 3. Internal Champion (30 points)
-    if (lead.internalChampionName != null && !lead.internalChampionName.isBlank()) {
+    if (input.internalChampionName() != null && !input.internalChampionName().isBlank()) {
       score += 30;
     }
 
     // 4. Recent Activity Bonus (+10 if active in last 7 days)
-    if (lead.lastActivityAt != null) {
-      long daysSinceActivity =
-          ChronoUnit.DAYS.between(
-              lead.lastActivityAt.toLocalDate(), LocalDateTime.now().toLocalDate());
+    if (input.lastActivityAt() != null) {
+      long daysSinceActivity = ChronoUnit.DAYS.between(input.lastActivityAt().toLocalDate(), today);
       if (daysSinceActivity <= 7) {
         score += 10;
       }
@@ -1,6 +1,9 @@
 package de.freshplan.modules.xentral.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.freshplan.modules.xentral.dto.XentralOrderWebhookRequest;
+import de.freshplan.modules.xentral.service.XentralInboxClaimService;
+import de.freshplan.modules.xentral.service.XentralInboxProcessor;
 import de.freshplan.modules.xentral.service.XentralOrderEventHandler;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -10,6 +13,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +30,11 @@ import org.slf4j.LoggerFactory;
  *   <li>POST /api/webhooks/xentral/order-delivered - Handle "Order Delivered" event
  * </ul>
  *
+ * <p>Inbox mode ({@code freshplan.xentral.inbox.enabled}, default): the webhook is stored in the
+ * durable {@code xentral_webhook_inbox} and acknowledged immediately; {@link XentralInboxProcessor}
+ * applies it asynchronously. Retries of the same order are deduplicated by (xentralCustomerId,
+ * orderNumber). With the inbox disabled, the webhook is processed synchronously as before.
+ *
  * <p>Security: PUBLIC endpoint (called by Xentral ERP) - No @RolesAllowed annotation
  *
  * <p>Future Enhancement: Add webhook signature verification for security
@@ -42,6 +51,15 @@ public class XentralWebhookResource {
 
   @Inject XentralOrderEventHandler orderEventHandler;
 
+  @Inject XentralInboxClaimService inboxClaimService;
+
+  @Inject XentralInboxProcessor inboxProcessor;
+
+  @Inject ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.enabled", defaultValue = "true")
+  boolean inboxEnabled;
+
   /**
    * Handle "Order Delivered" webhook from Xentral
    *
@@ -59,7 +77,8 @@ public class XentralWebhookResource {
    * </pre>
    *
    * @param request Webhook request containing order details
-   * @return 200 OK if processed successfully, 400 if validation fails, 500 if processing fails
+   * @return 202 Accepted if stored in the inbox (200 OK if already received or, without inbox,
+   *     processed successfully), 400 if validation fails, 500 if storing/processing fails
    */
   @POST
   @Path("/order-delivered")
@@ -74,6 +93,10 @@ public class XentralWebhookResource {
       // Additional DTO validation (beyond Jakarta validation)
       request.validate();
 
+      if (inboxEnabled) {
+        return enqueue(request);
+      }
+
       // Delegate to business logic handler
       orderEventHandler.handleOrderDelivered(
           request.xentralCustomerId(), request.orderNumber(), request.deliveryDate());
@@ -109,4 +132,31 @@ public class XentralWebhookResource {
           .build();
     }
   }
+
+  /** Stores the webhook in the inbox and acks without processing it. */
+  private Response enqueue(XentralOrderWebhookRequest request) throws Exception {
+    boolean accepted =
+        inboxClaimService.enqueue(
+            request.xentralCustomerId(),
+            request.orderNumber(),
+            request.deliveryDate(),
+            objectMapper.writeValueAsString(request));
+
+    if (!accepted) {
+      logger.info(
+          "Duplicate Xentral Webhook ignored: order-delivered [customer={}, order={}]",
+          request.xentralCustomerId(),
+          request.orderNumber());
+      return Response.ok()
+          .entity(
+              "{\"success\": true, \"duplicate\": true, \"message\": \"Order delivered event already received\"}")
+          .build();
+    }
+
+    inboxProcessor.wakeUp();
+    return Response.accepted()
+        .entity(
+            "{\"success\": true, \"duplicate\": false, \"message\": \"Order delivered event accepted\"}")
+        .build();
+  }
 }
@@ -0,0 +1,178 @@
+package de.freshplan.modules.xentral.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+/**
+ * Pre-normalized branch addresses of one headquarter, searchable by Levenshtein similarity.
+ *
+ * <p>Built once per headquarter and cached by {@link XentralAddressMatcher}. A lookup no longer
+ * compares the delivery address against every branch with a full Levenshtein matrix:
+ *
+ * <ol>
+ *   <li>Trigram blocking: an inverted index (trigram → branches) counts the trigrams each branch
+ *       shares with the input.
+ *   <li>Filters: a branch can only reach the threshold with at most {@code k = ⌊(1 - threshold) ·
+ *       maxLength⌋} edits. Its length must differ by at most {@code k}, and it must share at least
+ *       {@code maxLength - 2 - 3k} trigrams (q-gram lemma). Both filters are lossless.
+ *   <li>Bounded Levenshtein ({@code threshold = k}) for the remaining candidates. It aborts as soon
+ *       as the distance exceeds the bound.
+ * </ol>
+ *
+ * <p>The result is identical to the full comparison: same similarity formula, same tie-break (first
+ * branch in list order wins).
+ */
+public final class BranchAddressIndex {
+
+  private static final int GRAM = 3;
+
+  private final UUID[] branchIds;
+  private final String[] addresses;
+  private final Map<String, int[]> postings;
+
+  private BranchAddressIndex(UUID[] branchIds, String[] addresses, Map<String, int[]> postings) {
+    this.branchIds = branchIds;
+    this.addresses = addresses;
+    this.postings = postings;
+  }
+
+  /** A branch and its raw address, in the order of the headquarter's branch list. */
+  public record BranchAddress(UUID branchId, String address) {}
+
+  /** Best branch and its similarity (0.0 - 1.0). */
+  public record Match(UUID branchId, double similarity) {}
+
+  /** Builds the index; addresses are normalized with {@link #normalize(String)}. */
+  public static BranchAddressIndex build(List<BranchAddress> branches) {
+    UUID[] ids = new UUID[branches.size()];
+    String[] addresses = new String[branches.size()];
+    Map<String, List<int[]>> grams = new HashMap<>();
+    for (int i = 0; i < branches.size(); i++) {
+      ids[i] = branches.get(i).branchId();
+      addresses[i] = normalize(branches.get(i).address());
+      int branch = i;
+      trigramCounts(addresses[i])
+          .forEach(
+              (gram, count) ->
+                  grams
+                      .computeIfAbsent(gram, g -> new ArrayList<>())
+                      .add(new int[] {branch, count}));
+    }
+
+    // Postings as flat int pairs [branch, count, branch, count, ...]
+    Map<String, int[]> postings = new HashMap<>(grams.size() * 2);
+    grams.forEach(
+        (gram, entries) -> {
+          int[] flat = new int[entries.size() * 2];
+          for (int i = 0; i < entries.size(); i++) {
+            flat[2 * i] = entries.get(i)[0];
+            flat[2 * i + 1] = entries.get(i)[1];
+          }
+          postings.put(gram, flat);
+        });
+    return new BranchAddressIndex(ids, addresses, postings);
+  }
+
+  public int size() {
+    return branchIds.length;
+  }
+
+  /**
+   * Best match for a delivery address.
+   *
+   * @param address Raw delivery address (normalized here)
+   * @param threshold Minimum similarity, e.g. 0.80
+   * @return Best branch with similarity ≥ threshold, or {@code null}
+   */
+  public Match bestMatch(String address, double threshold) {
+    String input = normalize(address);
+    int inputLength = input.length();
+
+    int[] shared = new int[branchIds.length];
+    trigramCounts(input)
+        .forEach(
+            (gram, count) -> {
+              int[] posting = postings.get(gram);
+              if (posting != null) {
+                for (int i = 0; i < posting.length; i += 2) {
+                  shared[posting[i]] += Math.min(count, posting[i + 1]);
+                }
+              }
+            });
+
+    int bestIndex = -1;
+    double bestSimilarity = 0.0;
+    for (int i = 0; i < branchIds.length; i++) {
+      String candidate = addresses[i];
+      int maxLength = Math.max(inputLength, candidate.length());
+      if (maxLength == 0) {
+        if (bestSimilarity < 1.0) {
+          bestIndex = i;
+          bestSimilarity = 1.0;
+        }
+        continue;
+      }
+      int maxEdits = maxEdits(maxLength, threshold);
+      if (Math.abs(inputLength - candidate.length()) > maxEdits
+          || shared[i] < maxLength - (GRAM - 1) - GRAM * maxEdits) {
+        continue;
+      }
+      int distance = new LevenshteinDistance(maxEdits).apply(input, candidate);
+      if (distance < 0) {
+        continue;
+      }
+      double similarity = 1.0 - ((double) distance / maxLength);
+      if (similarity > bestSimilarity) {
+        bestSimilarity = similarity;
+        bestIndex = i;
+      }
+    }
+
+    return bestIndex >= 0 && bestSimilarity >= threshold
+        ? new Match(branchIds[bestIndex], bestSimilarity)
+        : null;
+  }
+
+  /** Largest distance that still gives {@code 1 - distance / maxLength ≥ threshold}. */
+  static int maxEdits(int maxLength, double threshold) {
+    int edits = (int) Math.floor((1.0 - threshold) * maxLength + 1e-9);
+    while (edits > 0 && 1.0 - ((double) edits / maxLength) < threshold) {
+      edits--;
+    }
+    return edits;
+  }
+
+  /**
+   * Normalizes an address for fuzzy matching: lowercase, umlauts transliterated, only letters,
+   * digits and single spaces.
+   *
+   * <p>Example: "Maximilianstraße 17, 80539 München" → "maximilianstrasse 17 80539 muenchen"
+   */
+  public static String normalize(String address) {
+    if (address == null) {
+      return "";
+    }
+
+    return address
+        .toLowerCase()
+        .trim()
+        .replace("ä", "ae")
+        .replace("ö", "oe")
+        .replace("ü", "ue")
+        .replace("ß", "ss")
+        .replaceAll("[^a-z0-9\\s]", "") // Remove special chars (keep letters, numbers, spaces)
+        .replaceAll("\\s+", " "); // Normalize whitespace
+  }
+
+  private static Map<String, Integer> trigramCounts(String value) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i + GRAM <= value.length(); i++) {
+      counts.merge(value.substring(i, i + GRAM), 1, Integer::sum);
+    }
+    return counts;
+  }
+}
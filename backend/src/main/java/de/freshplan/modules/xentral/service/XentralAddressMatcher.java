@@ -1,11 +1,25 @@
 package de.freshplan.modules.xentral.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import de.freshplan.domain.customer.entity.Customer;
 import de.freshplan.domain.customer.entity.CustomerAddress;
 import de.freshplan.domain.customer.entity.CustomerLocation;
+import de.freshplan.modules.xentral.service.BranchAddressIndex.BranchAddress;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import org.apache.commons.text.similarity.LevenshteinDistance;
+import java.util.Objects;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +43,12 @@ import org.slf4j.LoggerFactory;
  *   <li>Fallback: Return parent if no match found
  * </ol>
  *
+ * <p>**Performance:** The normalized branch addresses of a headquarter are kept in a {@link
+ * BranchAddressIndex} (trigram blocking + bounded Levenshtein), cached per headquarter. Each lookup
+ * checks a version stamp of the branch addresses with one aggregate query; when a branch, location
+ * or address of the chain changed, the index is rebuilt. Without the cache every delivery loaded
+ * all branches, locations and addresses and compared each one with a full Levenshtein matrix.
+ *
  * <p>**Example:**
  *
  * <pre>{@code
@@ -48,7 +68,49 @@ public class XentralAddressMatcher {
   // Similarity threshold: 80% match required (Salesforce/HubSpot best practice)
   private static final double SIMILARITY_THRESHOLD = 0.80;
 
-  private final LevenshteinDistance levenshteinDistance = new LevenshteinDistance();
+  /**
+   * Version stamp of all branch addresses of a headquarter. Changes whenever a branch is added,
+   * removed or re-parented, or one of its locations/addresses is inserted, deleted or updated.
+   * Customer updates alone (e.g. revenue sync) do not invalidate the index.
+   */
+  private static final String ADDRESS_STAMP_SQL =
+      """
+      SELECT count(DISTINCT c.id) AS branches,
+             COALESCE(bit_xor(DISTINCT hashtext(c.id::text)), 0) AS branch_hash,
+             count(DISTINCT l.id) AS locations,
+             count(a.id) AS addresses,
+             max(GREATEST(l.updated_at, a.updated_at)) AS last_change
+      FROM customers c
+      LEFT JOIN customer_locations l ON l.customer_id = c.id
+      LEFT JOIN customer_addresses a ON a.location_id = l.id
+      WHERE c.parent_customer_id = ?
+      """;
+
+  @Inject DataSource dataSource;
+
+  @ConfigProperty(name = "freshplan.xentral.address-index.max-headquarters", defaultValue = "1000")
+  long maxHeadquarters;
+
+  @ConfigProperty(name = "freshplan.xentral.address-index.expire-after-access", defaultValue = "6h")
+  Duration expireAfterAccess;
+
+  private Cache<UUID, CachedIndex> indexCache;
+
+  @PostConstruct
+  void initCache() {
+    indexCache =
+        Caffeine.newBuilder()
+            .maximumSize(maxHeadquarters)
+            .expireAfterAccess(expireAfterAccess)
+            .build();
+  }
+
+  /** Cached index together with the address stamp it was built for. */
+  private record CachedIndex(AddressStamp stamp, BranchAddressIndex index) {}
+
+  /** Result of {@link #ADDRESS_STAMP_SQL}. */
+  record AddressStamp(
+      long branches, int branchHash, long locations, long addresses, Object lastChange) {}
 
   /**
    * Matches a Xentral delivery address to the correct branch customer.
@@ -75,56 +137,113 @@ public class XentralAddressMatcher {
       return parent;
     }
 
-    List<Customer> branches = parent.getChildCustomers();
-    if (branches == null || branches.isEmpty()) {
-      log.debug("No branches found for parent {}, returning parent", parent.getCompanyName());
+    BranchAddressIndex index = indexFor(parent);
+    if (index.size() == 0) {
+      log.debug(
+          "No branch addresses found for parent {}, returning parent", parent.getCompanyName());
       return parent;
     }
 
-    // Normalize Xentral address for comparison
-    String normalizedInput = normalizeAddress(xentralDeliveryAddress);
-    log.trace("Normalized Xentral address: '{}'", normalizedInput);
-
-    // Find best matching branch
-    Customer bestMatch = null;
-    double bestSimilarity = 0.0;
-
-    for (Customer branch : branches) {
-      // Build address from branch's primary shipping address
-      String branchAddress = buildBranchAddress(branch);
-      if (branchAddress == null || branchAddress.isBlank()) {
-        log.trace("Branch {} has no address, skipping", branch.getCompanyName());
-        continue;
-      }
-
-      String normalizedBranch = normalizeAddress(branchAddress);
-      log.trace("Comparing with branch {}: '{}'", branch.getCompanyName(), normalizedBranch);
-
-      // Calculate similarity
-      double similarity = calculateSimilarity(normalizedInput, normalizedBranch);
-      log.trace("Similarity: {}% for branch {}", (int) (similarity * 100), branch.getCompanyName());
-
-      if (similarity > bestSimilarity) {
-        bestSimilarity = similarity;
-        bestMatch = branch;
-      }
-    }
+    BranchAddressIndex.Match match = index.bestMatch(xentralDeliveryAddress, SIMILARITY_THRESHOLD);
+    Customer bestMatch = match != null ? findBranch(parent, match.branchId()) : null;
 
     // Check threshold
-    if (bestSimilarity >= SIMILARITY_THRESHOLD && bestMatch != null) {
+    if (bestMatch != null) {
       log.info(
           "✓ Address matched: '{}' → {} ({}% similarity)",
-          xentralDeliveryAddress, bestMatch.getCompanyName(), (int) (bestSimilarity * 100));
+          xentralDeliveryAddress, bestMatch.getCompanyName(), (int) (match.similarity() * 100));
       return bestMatch;
     }
 
     // Fallback: Parent (no match found)
     log.warn(
-        "⚠ No address match found for '{}' (best: {}%), using parent {}",
-        xentralDeliveryAddress, (int) (bestSimilarity * 100), parent.getCompanyName());
+        "⚠ No address match found for '{}', using parent {}",
+        xentralDeliveryAddress,
+        parent.getCompanyName());
     return parent;
   }
 
+  /**
+   * Drops the cached index of a headquarter. Not required for correctness (the address stamp
+   * detects changes), but frees memory right away, e.g. after a chain was dissolved.
+   */
+  public void invalidate(UUID headquarterId) {
+    if (headquarterId != null) {
+      indexCache.invalidate(headquarterId);
+    }
+  }
+
+  /** Cached index if the branch addresses are unchanged, otherwise a freshly built one. */
+  BranchAddressIndex indexFor(Customer parent) {
+    UUID parentId = parent.getId();
+    AddressStamp stamp = parentId != null ? loadAddressStamp(parentId) : null;
+    if (stamp == null) {
+      return buildIndex(parent);
+    }
+
+    CachedIndex cached = indexCache.getIfPresent(parentId);
+    if (cached != null && cached.stamp().equals(stamp)) {
+      return cached.index();
+    }
+
+    BranchAddressIndex index = buildIndex(parent);
+    indexCache.put(parentId, new CachedIndex(stamp, index));
+    log.debug(
+        "Address index for {} built: {} branches with address",
+        parent.getCompanyName(),
+        index.size());
+    return index;
+  }
+
+  /** Normalizes all branch addresses once; branches without address are left out. */
+  BranchAddressIndex buildIndex(Customer parent) {
+    List<Customer> branches = parent.getChildCustomers();
+    List<BranchAddress> entries = new ArrayList<>();
+    if (branches != null) {
+      for (Customer branch : branches) {
+        // Build address from branch's primary shipping address
+        String branchAddress = buildBranchAddress(branch);
+        if (branchAddress == null || branchAddress.isBlank()) {
+          log.trace("Branch {} has no address, skipping", branch.getCompanyName());
+          continue;
+        }
+        entries.add(new BranchAddress(branch.getId(), branchAddress));
+      }
+    }
+    return BranchAddressIndex.build(entries);
+  }
+
+  /** Address stamp of the headquarter's branches, {@code null} if it cannot be read. */
+  AddressStamp loadAddressStamp(UUID headquarterId) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(ADDRESS_STAMP_SQL)) {
+      statement.setObject(1, headquarterId);
+      try (ResultSet rs = statement.executeQuery()) {
+        rs.next();
+        return new AddressStamp(
+            rs.getLong("branches"),
+            rs.getInt("branch_hash"),
+            rs.getLong("locations"),
+            rs.getLong("addresses"),
+            rs.getObject("last_change"));
+      }
+    } catch (SQLException e) {
+      log.warn("Could not read address stamp for {}, matching without cache", headquarterId, e);
+      return null;
+    }
+  }
+
+  private Customer findBranch(Customer parent, UUID branchId) {
+    List<Customer> branches = parent.getChildCustomers();
+    if (branches == null) {
+      return null;
+    }
+    return branches.stream()
+        .filter(branch -> Objects.equals(branch.getId(), branchId))
+        .findFirst()
+        .orElse(null);
+  }
+
   /**
    * Builds a normalized full address from a branch customer's primary shipping address.
    *
@@ -185,64 +304,4 @@ public class XentralAddressMatcher {
 
     return sb.toString();
   }
-
-  /**
-   * Normalizes address for fuzzy matching.
-   *
-   * <p>Operations:
-   *
-   * <ol>
-   *   <li>Lowercase
-   *   <li>Trim whitespace
-   *   <li>Remove special characters (keep only alphanumeric + spaces)
-   *   <li>Normalize multiple spaces to single space
-   * </ol>
-   *
-   * <p>Example: "Maximilianstraße 17, 80539 München" → "maximilianstrasse 17 80539 muenchen"
-   *
-   * @param address Raw address string
-   * @return Normalized address for matching
-   */
-  private String normalizeAddress(String address) {
-    if (address == null) {
-      return "";
-    }
-
-    return address
-        .toLowerCase()
-        .trim()
-        .replaceAll("ä", "ae")
-        .replaceAll("ö", "oe")
-        .replaceAll("ü", "ue")
-        .replaceAll("ß", "ss")
-        .replaceAll("[^a-z0-9\\s]", "") // Remove special chars (keep letters, numbers, spaces)
-        .replaceAll("\\s+", " "); // Normalize whitespace
-  }
-
-  /**
-   * Calculates similarity between two addresses using Levenshtein distance.
-   *
-   * <p>Algorithm: Levenshtein Distance (edit distance) = minimum number of single-character edits
-   * (insertions, deletions, substitutions) required to change one word into the other.
-   *
-   * <p>Similarity Score = 1 - (distance / maxLength)
-   *
-   * <p>Example: - "maximilianstrasse 17 80539 muenchen" vs "maximilianstr 17 80539 muenchen" -
-   * Distance: 6 edits (missing "asse") - maxLength: 36 - Similarity: 1 - (6/36) = 0.833 = 83%
-   *
-   * @param address1 First normalized address
-   * @param address2 Second normalized address
-   * @return Similarity score (0.0 = no match, 1.0 = perfect match)
-   */
-  private double calculateSimilarity(String address1, String address2) {
-    int maxLength = Math.max(address1.length(), address2.length());
-    if (maxLength == 0) {
-      return 1.0; // Both empty = perfect match
-    }
-
-    int distance = levenshteinDistance.apply(address1, address2);
-    double similarity = 1.0 - ((double) distance / maxLength);
-
-    return Math.max(0.0, Math.min(1.0, similarity)); // Clamp to [0.0, 1.0]
-  }
 }
@@ -0,0 +1,145 @@
+package de.freshplan.modules.xentral.service;
+
+import de.freshplan.infrastructure.queue.LeaseQueue;
+import de.freshplan.infrastructure.queue.LeaseQueue.QueueStats;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datenbank-Seite des {@link XentralInboxProcessor} (Tabelle {@code xentral_webhook_inbox}).
+ *
+ * <p>Jede Methode läuft in einer eigenen, kurzen Transaktion ({@code REQUIRES_NEW}). Die fachliche
+ * Verarbeitung passiert <strong>zwischen</strong> diesen Transaktionen, d.h. es wird nie ein
+ * Row-Lock über die Kundenaktualisierung gehalten.
+ *
+ * <p>Claim, Abschluss und Lease-Freigabe laufen über {@link LeaseQueue} ({@code PENDING →
+ * PROCESSING → DONE}). Eigen ist der Inbox das idempotente {@link #enqueue} (ein Eintrag pro
+ * Xentral-Bestellung) und die Lease-Freigabe ohne Versuchszählung: ein nach Pod-Crash erneut
+ * verarbeiteter Webhook gilt nicht als Fehlschlag.
+ */
+@ApplicationScoped
+public class XentralInboxClaimService {
+
+  static final LeaseQueue INBOX =
+      new LeaseQueue(
+          "xentral_webhook_inbox",
+          "received_at",
+          "PROCESSING",
+          "DONE",
+          "processed_at",
+          "processed_at");
+
+  /** Geclaimte Inbox-Zeile (Projektion, keine managed Entity). */
+  public record ClaimedDelivery(
+      Long id,
+      String xentralCustomerId,
+      String orderNumber,
+      LocalDate deliveryDate,
+      int attempts,
+      LocalDateTime receivedAt) {}
+
+  @Inject EntityManager em;
+
+  /**
+   * Legt einen Webhook in der Inbox ab.
+   *
+   * @param payload Request als JSON (für Nachvollziehbarkeit / manuelles Replay)
+   * @return {@code false}, wenn die Bestellung bereits in der Inbox ist (Retry von Xentral)
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public boolean enqueue(
+      String xentralCustomerId, String orderNumber, LocalDate deliveryDate, String payload) {
+    int inserted =
+        em.createNativeQuery(
+                """
+                INSERT INTO xentral_webhook_inbox
+                  (xentral_customer_id, order_number, delivery_date, payload)
+                VALUES (:customerId, :orderNumber, :deliveryDate, CAST(:payload AS jsonb))
+                ON CONFLICT (xentral_customer_id, order_number) DO NOTHING
+                """)
+            .setParameter("customerId", xentralCustomerId)
+            .setParameter("orderNumber", orderNumber)
+            .setParameter("deliveryDate", deliveryDate)
+            .setParameter("payload", payload)
+            .executeUpdate();
+    return inserted > 0;
+  }
+
+  /**
+   * Claimt bis zu {@code batchSize} fällige Webhooks (älteste zuerst) und setzt sie auf PROCESSING.
+   *
+   * @param batchSize Maximale Anzahl Zeilen
+   * @param now Aktueller Zeitpunkt (Claim-Lease-Beginn)
+   * @return Geclaimte Webhooks, leer wenn nichts fällig ist
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public List<ClaimedDelivery> claimDueBatch(int batchSize, LocalDateTime now) {
+    List<Object[]> rows =
+        INBOX.claimDue(
+            em,
+            batchSize,
+            now,
+            "id",
+            "xentral_customer_id",
+            "order_number",
+            "delivery_date",
+            "attempts",
+            "received_at");
+
+    List<ClaimedDelivery> claimed = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      claimed.add(
+          new ClaimedDelivery(
+              ((Number) row[0]).longValue(),
+              (String) row[1],
+              (String) row[2],
+              row[3] instanceof Date date ? date.toLocalDate() : (LocalDate) row[3],
+              ((Number) row[4]).intValue(),
+              row[5] instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) row[5]));
+    }
+    return claimed;
+  }
+
+  /** Markiert verarbeitete Webhooks in einem Statement als DONE. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int markDone(List<Long> ids, LocalDateTime now) {
+    return INBOX.complete(em, ids, now);
+  }
+
+  /** Gibt fehlgeschlagene Webhooks mit Backoff zurück in die Inbox. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void scheduleRetry(List<Long> ids, String error, LocalDateTime nextAttemptAt) {
+    INBOX.requeue(em, ids, error, nextAttemptAt);
+  }
+
+  /** Verschiebt Webhooks nach Erreichen der max. Versuche in den Dead-Letter-Status FAILED. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public void deadLetter(List<Long> ids, String error, LocalDateTime now) {
+    INBOX.deadLetter(em, ids, error, now);
+  }
+
+  /**
+   * Gibt PROCESSING-Zeilen mit abgelaufener Lease (Pod-Crash während Verarbeitung) wieder frei.
+   *
+   * @param leaseCutoff Claims vor diesem Zeitpunkt gelten als verwaist
+   * @return Anzahl freigegebener Zeilen
+   */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public int releaseExpiredClaims(LocalDateTime leaseCutoff) {
+    return INBOX.releaseExpired(em, leaseCutoff);
+  }
+
+  /** Inbox-Tiefe, Dead-Letter-Anzahl und Alter des ältesten offenen Webhooks in einem Scan. */
+  @Transactional(Transactional.TxType.REQUIRES_NEW)
+  public QueueStats inboxStats(LocalDateTime now) {
+    return INBOX.stats(em, now);
+  }
+}
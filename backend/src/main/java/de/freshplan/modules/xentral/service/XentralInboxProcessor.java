@@ -0,0 +1,375 @@
+package de.freshplan.modules.xentral.service;
+
+import de.freshplan.infrastructure.cqrs.EventSubscriber.EventNotification;
+import de.freshplan.infrastructure.queue.LeaseQueue.QueueStats;
+import de.freshplan.infrastructure.queue.RetryBackoff;
+import de.freshplan.modules.xentral.service.XentralInboxClaimService.ClaimedDelivery;
+import de.freshplan.modules.xentral.service.XentralOrderEventHandler.OrderDelivery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Xentral Webhook Inbox Processor
+ *
+ * <p>Verarbeitet "Order Delivered" Webhooks aus {@code xentral_webhook_inbox} asynchron zum
+ * HTTP-Request. Der Webhook-Endpoint speichert nur und quittiert sofort; Bursts von Xentral
+ * (Tagesabschluss) führen so nicht mehr zu langsamen Acks und Retries.
+ *
+ * <p><strong>Ablauf pro Durchlauf:</strong>
+ *
+ * <ol>
+ *   <li>Verwaiste PROCESSING-Claims freigeben (Lease abgelaufen)
+ *   <li>Batch fälliger Webhooks per {@code FOR UPDATE SKIP LOCKED} claimen
+ *   <li>Coalescing: alle Lieferungen eines Kunden im Batch werden zu einem Aufruf von {@link
+ *       XentralOrderEventHandler#handleOrdersDelivered} zusammengefasst (ein Kunden-Load, eine
+ *       Aktivierung bzw. ein lastOrderDate-Update)
+ *   <li>Kunden parallel auf dem Worker-Pool ({@code freshplan.xentral.inbox.concurrency}), je Kunde
+ *       eine Transaktion
+ *   <li>Ergebnis schreiben: DONE, Retry mit Exponential Backoff, oder Dead-Letter (FAILED)
+ * </ol>
+ *
+ * <p><strong>Trigger:</strong> NOTIFY auf Kanal {@value #NOTIFY_CHANNEL} (Trigger aus V10059) sowie
+ * ein {@code @Scheduled} Fallback-Poller für Retries und verpasste Notifications.
+ *
+ * <p><strong>Metriken:</strong> Inbox-Tiefe, Alter des ältesten offenen Webhooks, Dead-Letter-
+ * Anzahl, Ergebnisse und Inbox-Lag (Eingang bis Verarbeitung) unter {@code
+ * freshplan_xentral_inbox_*}.
+ */
+@ApplicationScoped
+public class XentralInboxProcessor {
+
+  private static final Logger LOG = Logger.getLogger(XentralInboxProcessor.class);
+
+  /** NOTIFY-Kanal des Insert-Triggers auf xentral_webhook_inbox. */
+  public static final String NOTIFY_CHANNEL = "xentral_webhook_inbox";
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.batch-size", defaultValue = "200")
+  int batchSize;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.concurrency", defaultValue = "4")
+  int concurrency;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.max-attempts", defaultValue = "8")
+  int maxAttempts;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.backoff.initial-seconds", defaultValue = "30")
+  long backoffInitialSeconds;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.backoff.max-seconds", defaultValue = "3600")
+  long backoffMaxSeconds;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.lease-seconds", defaultValue = "300")
+  long leaseSeconds;
+
+  @ConfigProperty(name = "freshplan.xentral.inbox.process-timeout-seconds", defaultValue = "60")
+  long processTimeoutSeconds;
+
+  @Inject XentralInboxClaimService claimService;
+
+  @Inject XentralOrderEventHandler orderEventHandler;
+
+  @Inject MeterRegistry meterRegistry;
+
+  @Inject Clock clock;
+
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private final AtomicBoolean wakeRequested = new AtomicBoolean(false);
+  private final AtomicReference<QueueStats> lastStats = new AtomicReference<>(QueueStats.EMPTY);
+
+  private ExecutorService workers;
+  private ExecutorService coordinator;
+  private Counter doneCounter;
+  private Counter retryCounter;
+  private Counter deadLetterCounter;
+  private Counter coalescedCounter;
+  private Timer lagTimer;
+
+  @PostConstruct
+  void init() {
+    AtomicInteger threadIndex = new AtomicInteger();
+    workers =
+        Executors.newFixedThreadPool(
+            Math.max(1, concurrency),
+            r -> {
+              Thread t = new Thread(r, "xentral-inbox-worker-" + threadIndex.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            });
+    coordinator =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "xentral-inbox-dispatcher");
+              t.setDaemon(true);
+              return t;
+            });
+
+    Gauge.builder("freshplan_xentral_inbox_pending", lastStats, s -> s.get().pending())
+        .description("Xentral webhooks waiting in inbox (PENDING + PROCESSING)")
+        .register(meterRegistry);
+    Gauge.builder(
+            "freshplan_xentral_inbox_oldest_pending_age_seconds",
+            lastStats,
+            s -> s.get().oldestPendingAge().toSeconds())
+        .description("Age of the oldest unprocessed Xentral webhook in seconds (inbox lag)")
+        .register(meterRegistry);
+    Gauge.builder("freshplan_xentral_inbox_dead_letter", lastStats, s -> s.get().deadLetter())
+        .description("Xentral webhooks in Dead-Letter state (FAILED)")
+        .register(meterRegistry);
+
+    doneCounter = processedCounter("done");
+    retryCounter = processedCounter("retry");
+    deadLetterCounter = processedCounter("dead_letter");
+    coalescedCounter =
+        Counter.builder("freshplan_xentral_inbox_coalesced")
+            .description("Deliveries merged into another delivery's customer update")
+            .register(meterRegistry);
+    lagTimer =
+        Timer.builder("freshplan_xentral_inbox_lag")
+            .description("Time from webhook receipt to successful processing")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Fallback-Poller: fällige Retries und verpasste Notifications. */
+  @Scheduled(
+      every = "{freshplan.xentral.inbox.poll-interval:30s}",
+      identity = "xentral-inbox-dispatch",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledDispatch() {
+    dispatch();
+  }
+
+  /** Weckt den Processor sofort, wenn neue Webhooks committed wurden (NOTIFY). */
+  void onInboxNotification(@Observes EventNotification notification) {
+    if (NOTIFY_CHANNEL.equals(notification.getChannel())) {
+      wakeUp();
+    }
+  }
+
+  /** Stößt einen Durchlauf auf dem Dispatcher-Thread an, ohne den Aufrufer zu blockieren. */
+  public void wakeUp() {
+    if (!enabled) {
+      return;
+    }
+    wakeRequested.set(true);
+    if (!draining.get()) {
+      coordinator.execute(this::dispatch);
+    }
+  }
+
+  /**
+   * Arbeitet die Inbox ab, bis keine fälligen Webhooks mehr vorhanden sind.
+   *
+   * <p>Läuft bereits ein Durchlauf, wird nur ein Folge-Durchlauf angefordert (kein paralleles
+   * Claimen im selben Pod).
+   *
+   * @return Anzahl in diesem Durchlauf verarbeiteter Webhooks
+   */
+  public int dispatch() {
+    if (!enabled) {
+      return 0;
+    }
+    if (!draining.compareAndSet(false, true)) {
+      wakeRequested.set(true);
+      return 0;
+    }
+
+    int processed = 0;
+    try {
+      int released =
+          claimService.releaseExpiredClaims(LocalDateTime.now(clock).minusSeconds(leaseSeconds));
+      if (released > 0) {
+        LOG.warnf("Released %d Xentral inbox webhooks with expired claim lease", released);
+      }
+
+      do {
+        wakeRequested.set(false);
+        List<ClaimedDelivery> batch;
+        do {
+          batch = claimService.claimDueBatch(batchSize, LocalDateTime.now(clock));
+          processed += processBatch(batch);
+        } while (batch.size() == batchSize);
+      } while (wakeRequested.get());
+
+      if (processed > 0) {
+        LOG.infof("Xentral inbox dispatch completed: %d webhooks processed", processed);
+      }
+    } catch (Exception e) {
+      LOG.error("Xentral inbox dispatch failed", e);
+    } finally {
+      draining.set(false);
+      refreshInboxStats();
+    }
+    return processed;
+  }
+
+  /** Fasst den Batch pro Kunde zusammen, verarbeitet die Kunden parallel, schreibt Ergebnisse. */
+  int processBatch(List<ClaimedDelivery> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    Map<String, List<ClaimedDelivery>> byCustomer = groupByCustomer(batch);
+    List<List<ClaimedDelivery>> groups = new ArrayList<>(byCustomer.values());
+    List<CompletableFuture<String>> results = new ArrayList<>(groups.size());
+    for (List<ClaimedDelivery> group : groups) {
+      results.add(
+          CompletableFuture.supplyAsync(() -> apply(group), workers)
+              .orTimeout(processTimeoutSeconds, TimeUnit.SECONDS)
+              .exceptionally(XentralInboxProcessor::describeError));
+    }
+
+    List<Long> doneIds = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now(clock);
+    for (int i = 0; i < groups.size(); i++) {
+      List<ClaimedDelivery> group = groups.get(i);
+      String error = results.get(i).join();
+      if (error == null) {
+        for (ClaimedDelivery delivery : group) {
+          doneIds.add(delivery.id());
+          if (delivery.receivedAt() != null) {
+            lagTimer.record(Duration.between(delivery.receivedAt(), now));
+          }
+        }
+        coalescedCounter.increment(group.size() - 1);
+      } else {
+        handleFailure(group, error);
+      }
+    }
+
+    claimService.markDone(doneIds, now);
+    doneCounter.increment(doneIds.size());
+    return batch.size();
+  }
+
+  /** Lieferungen pro Xentral-Kunde, in Eingangsreihenfolge. */
+  static Map<String, List<ClaimedDelivery>> groupByCustomer(List<ClaimedDelivery> batch) {
+    Map<String, List<ClaimedDelivery>> byCustomer = new LinkedHashMap<>();
+    for (ClaimedDelivery delivery : batch) {
+      byCustomer
+          .computeIfAbsent(delivery.xentralCustomerId(), id -> new ArrayList<>())
+          .add(delivery);
+    }
+    return byCustomer;
+  }
+
+  /**
+   * @return null bei Erfolg, sonst Fehlerbeschreibung
+   */
+  private String apply(List<ClaimedDelivery> group) {
+    try {
+      List<OrderDelivery> deliveries =
+          group.stream().map(d -> new OrderDelivery(d.orderNumber(), d.deliveryDate())).toList();
+      orderEventHandler.handleOrdersDelivered(group.get(0).xentralCustomerId(), deliveries);
+      return null;
+    } catch (Exception e) {
+      return describeError(e);
+    }
+  }
+
+  /** Retry bzw. Dead-Letter pro Zeile: Zeilen eines Kunden können unterschiedlich alt sein. */
+  private void handleFailure(List<ClaimedDelivery> group, String error) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    List<Long> retryIds = new ArrayList<>();
+    List<Long> deadIds = new ArrayList<>();
+    int retryAttempts = 0;
+    for (ClaimedDelivery delivery : group) {
+      int attempts = delivery.attempts() + 1;
+      if (attempts >= maxAttempts) {
+        deadIds.add(delivery.id());
+      } else {
+        retryIds.add(delivery.id());
+        retryAttempts = Math.max(retryAttempts, attempts);
+      }
+    }
+
+    if (!deadIds.isEmpty()) {
+      claimService.deadLetter(deadIds, error, now);
+      deadLetterCounter.increment(deadIds.size());
+      LOG.errorf(
+          "Xentral inbox webhooks %s (customer %s) moved to Dead-Letter after %d attempts: %s",
+          deadIds, group.get(0).xentralCustomerId(), maxAttempts, error);
+    }
+    if (!retryIds.isEmpty()) {
+      Duration backoff =
+          RetryBackoff.exponential(
+              retryAttempts,
+              Duration.ofSeconds(backoffInitialSeconds),
+              Duration.ofSeconds(backoffMaxSeconds));
+      claimService.scheduleRetry(retryIds, error, now.plus(backoff));
+      retryCounter.increment(retryIds.size());
+      LOG.warnf(
+          "Xentral inbox webhooks %s (customer %s) failed (attempt %d/%d), retry in %ds: %s",
+          retryIds,
+          group.get(0).xentralCustomerId(),
+          retryAttempts,
+          maxAttempts,
+          backoff.toSeconds(),
+          error);
+    }
+  }
+
+  private void refreshInboxStats() {
+    try {
+      lastStats.set(claimService.inboxStats(LocalDateTime.now(clock)));
+    } catch (Exception e) {
+      LOG.debug("Could not refresh Xentral inbox stats", e);
+    }
+  }
+
+  private Counter processedCounter(String result) {
+    return Counter.builder("freshplan_xentral_inbox_processed")
+        .description("Xentral inbox webhooks processed by result")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  private static String describeError(Throwable t) {
+    Throwable cause = t.getCause() != null ? t.getCause() : t;
+    String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+  }
+}
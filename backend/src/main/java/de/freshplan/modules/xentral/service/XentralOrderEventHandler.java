@@ -1,6 +1,7 @@
 package de.freshplan.modules.xentral.service;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Handles Xentral Order Events
@@ -33,4 +34,27 @@ public interface XentralOrderEventHandler {
    * @param deliveryDate Delivery date of the order
    */
   void handleOrderDelivered(String xentralCustomerId, String orderNumber, LocalDate deliveryDate);
+
+  /**
+   * Handle several "Order Delivered" events of the same customer at once (webhook inbox)
+   *
+   * <p>Implementations should coalesce the deliveries into a single customer update. The default
+   * applies them one by one.
+   *
+   * @param xentralCustomerId Customer ID in Xentral ERP system
+   * @param deliveries Delivered orders of this customer (at least one)
+   */
+  default void handleOrdersDelivered(String xentralCustomerId, List<OrderDelivery> deliveries) {
+    for (OrderDelivery delivery : deliveries) {
+      handleOrderDelivered(xentralCustomerId, delivery.orderNumber(), delivery.deliveryDate());
+    }
+  }
+
+  /**
+   * One delivered order
+   *
+   * @param orderNumber Order number from Xentral
+   * @param deliveryDate Delivery date of the order
+   */
+  record OrderDelivery(String orderNumber, LocalDate deliveryDate) {}
 }
@@ -7,9 +7,12 @@ import de.freshplan.domain.customer.service.CustomerActivation;
 import de.freshplan.infrastructure.security.RlsContext;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +87,45 @@ public class XentralOrderEventHandlerImpl implements XentralOrderEventHandler {
         orderNumber,
         deliveryDate);
 
+    applyDeliveries(xentralCustomerId, List.of(new OrderDelivery(orderNumber, deliveryDate)));
+  }
+
+  /**
+   * Handle all inbox deliveries of one customer in a single transaction
+   *
+   * <p>Coalescing: the customer is loaded once. A PROSPECT is activated by the earliest delivery,
+   * and {@code lastOrderDate} is written once with the latest date of the remaining deliveries.
+   * Processed sequentially, the same deliveries would give the same end state (activation plus
+   * lastOrderDate updates).
+   *
+   * <p>{@code @ActivateRequestContext}: called from inbox worker threads without HTTP request (RLS
+   * context falls back to anonymous, as for the webhook request itself).
+   *
+   * @param xentralCustomerId Customer ID in Xentral ERP system
+   * @param deliveries Delivered orders of this customer (at least one)
+   * @throws IllegalArgumentException if the customer is unknown or no deliveries are given
+   */
+  @Override
+  @ActivateRequestContext
+  @Transactional
+  @RlsContext
+  public void handleOrdersDelivered(String xentralCustomerId, List<OrderDelivery> deliveries) {
+    if (xentralCustomerId == null || xentralCustomerId.isBlank()) {
+      throw new IllegalArgumentException("xentralCustomerId cannot be null or empty");
+    }
+    if (deliveries == null || deliveries.isEmpty()) {
+      throw new IllegalArgumentException("deliveries cannot be empty");
+    }
+
+    logger.info(
+        "Processing {} coalesced Xentral Order Delivered Events: customer={}",
+        deliveries.size(),
+        xentralCustomerId);
+
+    applyDeliveries(xentralCustomerId, deliveries);
+  }
+
+  private void applyDeliveries(String xentralCustomerId, List<OrderDelivery> deliveries) {
     // Find customer by xentralCustomerId
     Customer customer =
         customerRepository
@@ -94,8 +136,17 @@ public class XentralOrderEventHandlerImpl implements XentralOrderEventHandler {
                   return new IllegalArgumentException("Customer not found: " + xentralCustomerId);
                 });
 
+    List<OrderDelivery> ordered =
+        deliveries.stream()
+            .sorted(
+                Comparator.comparing(OrderDelivery::deliveryDate)
+                    .thenComparing(OrderDelivery::orderNumber))
+            .toList();
+    List<OrderDelivery> remaining = ordered;
+
     // Business Logic: Auto-Activation for PROSPECT customers
     if (customer.getStatus() == CustomerStatus.PROSPECT) {
+      String orderNumber = ordered.get(0).orderNumber();
       logger.info(
           "Auto-activating PROSPECT customer: {} (xentralId: {})",
           customer.getCompanyName(),
@@ -110,22 +161,30 @@ public class XentralOrderEventHandlerImpl implements XentralOrderEventHandler {
           customer.getCompanyName(),
           orderNumber);
 
-    } else if (customer.getStatus() == CustomerStatus.AKTIV) {
-      // Update lastOrderDate for active customers
-      customer.setLastOrderDate(deliveryDate);
+      remaining = ordered.subList(1, ordered.size());
+      if (remaining.isEmpty()) {
+        return;
+      }
+    }
+
+    if (customer.getStatus() == CustomerStatus.AKTIV) {
+      // Update lastOrderDate for active customers (once, latest delivery)
+      OrderDelivery latest = remaining.get(remaining.size() - 1);
+      customer.setLastOrderDate(latest.deliveryDate());
       customerRepository.persist(customer);
 
       logger.info(
-          "Updated lastOrderDate for AKTIV customer: {} (order: {})",
+          "Updated lastOrderDate for AKTIV customer: {} (order: {}, {} deliveries)",
           customer.getCompanyName(),
-          orderNumber);
+          latest.orderNumber(),
+          remaining.size());
 
     } else {
       logger.warn(
-          "Unexpected customer status: {} for customer: {} (order: {})",
+          "Unexpected customer status: {} for customer: {} (orders: {})",
           customer.getStatus(),
           customer.getCompanyName(),
-          orderNumber);
+          remaining.stream().map(OrderDelivery::orderNumber).toList());
     }
   }
 }
@@ -0,0 +1,56 @@
+-- ============================================================================
+-- V10055: Outbox-Email Dispatcher (Modul 05 - Kommunikation)
+-- ============================================================================
+--
+-- Ergänzt die Minimal-Outbox aus V268/V270 um alles, was der
+-- EmailOutboxProcessor braucht:
+--
+-- - status SENDING: Zeile wurde per FOR UPDATE SKIP LOCKED geclaimt
+-- - next_attempt_at: Zeitpunkt des nächsten Versuchs (Exponential Backoff)
+-- - claimed_at: Lease-Beginn, um hängengebliebene Claims wieder freizugeben
+-- - NOTIFY-Trigger auf Kanal 'outbox_emails' weckt den Processor sofort
+--
+-- FAILED bleibt der terminale Dead-Letter-Status (max. Versuche erreicht).
+-- ============================================================================
+
+-- 1. Neue Spalten (idempotent)
+ALTER TABLE outbox_emails ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+ALTER TABLE outbox_emails ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP;
+
+-- 2. Status-Constraint um SENDING erweitern
+ALTER TABLE outbox_emails DROP CONSTRAINT IF EXISTS outbox_emails_status_check;
+ALTER TABLE outbox_emails ADD CONSTRAINT outbox_emails_status_check
+  CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'));
+
+-- 3. Claim-Index: nur fällige PENDING-Zeilen, in Einfügereihenfolge
+CREATE INDEX IF NOT EXISTS idx_outbox_emails_due
+  ON outbox_emails(next_attempt_at, created_at)
+  WHERE status = 'PENDING';
+
+-- 4. Lease-Recovery-Index für hängengebliebene Claims
+CREATE INDEX IF NOT EXISTS idx_outbox_emails_claimed
+  ON outbox_emails(claimed_at)
+  WHERE status = 'SENDING';
+
+-- 5. NOTIFY nach Insert (Statement-Level: ein Signal pro Batch, Zustellung erst nach COMMIT)
+CREATE OR REPLACE FUNCTION notify_outbox_emails() RETURNS trigger AS $$
+BEGIN
+  PERFORM pg_notify('outbox_emails', '{"event_type":"outbox.email.queued"}');
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_outbox_emails_notify ON outbox_emails;
+CREATE TRIGGER trg_outbox_emails_notify
+  AFTER INSERT ON outbox_emails
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION notify_outbox_emails();
+
+COMMENT ON COLUMN outbox_emails.status IS
+  'PENDING: Waiting to be sent, SENDING: Claimed by processor, SENT: Successfully sent, FAILED: Dead-Letter (max retries exceeded)';
+
+COMMENT ON COLUMN outbox_emails.next_attempt_at IS
+  'Earliest time for the next send attempt (exponential backoff). NULL = immediately due';
+
+COMMENT ON COLUMN outbox_emails.claimed_at IS
+  'Claim lease start. SENDING rows with an expired lease are released back to PENDING';
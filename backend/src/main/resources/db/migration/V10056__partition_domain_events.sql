@@ -0,0 +1,145 @@
+-- ============================================================================
+-- V10056: domain_events als monatlich partitionierte Tabelle
+-- ============================================================================
+--
+-- domain_events wächst unbegrenzt und wurde nie bereinigt. Die Tabelle wird in
+-- eine RANGE-partitionierte Tabelle (created_at) umgebaut, damit der
+-- PartitionMaintenanceService sie wie audit_trail verwalten kann:
+--
+-- - Monats-Partitionen domain_events_YYYY_MM + domain_events_default
+-- - Retention per DETACH/DROP ganzer Partitionen statt DELETE
+-- - Zeitgefilterte Queries (created_at) werden auf wenige Partitionen gepruned
+--
+-- Idempotenz über causation_id: Ein Unique-Index auf einer partitionierten
+-- Tabelle muss den Partition-Key enthalten. Die globale Eindeutigkeit wird daher
+-- über die Side-Table domain_event_causations (Trigger) abgesichert.
+-- ============================================================================
+
+DO $$
+DECLARE
+  month_start date;
+  last_month date;
+BEGIN
+  IF to_regclass('public.domain_events') IS NULL THEN
+    RAISE NOTICE 'domain_events does not exist -> skip partitioning';
+    RETURN;
+  END IF;
+
+  IF EXISTS (SELECT 1 FROM pg_partitioned_table
+             WHERE partrelid = 'public.domain_events'::regclass) THEN
+    RAISE NOTICE 'domain_events is already partitioned -> skip';
+    RETURN;
+  END IF;
+
+  -- 1. Alte Tabelle und ihre Indizes aus dem Weg räumen
+  DROP TRIGGER IF EXISTS trigger_notify_domain_event ON public.domain_events;
+  ALTER TABLE public.domain_events RENAME TO domain_events_unpartitioned;
+  ALTER INDEX IF EXISTS domain_events_pkey RENAME TO domain_events_unpartitioned_pkey;
+  ALTER INDEX IF EXISTS idx_domain_events_aggregate RENAME TO idx_domain_events_unpartitioned_aggregate;
+  ALTER INDEX IF EXISTS idx_domain_events_created RENAME TO idx_domain_events_unpartitioned_created;
+  ALTER INDEX IF EXISTS idx_domain_events_correlation RENAME TO idx_domain_events_unpartitioned_correlation;
+  ALTER INDEX IF EXISTS idx_domain_events_causation_unique RENAME TO idx_domain_events_unpartitioned_causation;
+
+  -- 2. Partitionierte Tabelle mit identischen Spalten, Defaults und CHECKs
+  CREATE TABLE public.domain_events (
+    LIKE public.domain_events_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+  ) PARTITION BY RANGE (created_at);
+
+  ALTER TABLE public.domain_events ALTER COLUMN created_at SET NOT NULL;
+  ALTER TABLE public.domain_events ADD CONSTRAINT domain_events_pkey PRIMARY KEY (id, created_at);
+
+  CREATE INDEX idx_domain_events_aggregate ON public.domain_events(aggregate_type, aggregate_id);
+  CREATE INDEX idx_domain_events_created ON public.domain_events(created_at DESC);
+  CREATE INDEX idx_domain_events_correlation ON public.domain_events(correlation_id)
+    WHERE correlation_id IS NOT NULL;
+  CREATE INDEX idx_domain_events_causation ON public.domain_events(causation_id)
+    WHERE causation_id IS NOT NULL;
+
+  EXECUTE 'CREATE TABLE public.domain_events_default PARTITION OF public.domain_events DEFAULT';
+
+  -- 3. Monats-Partitionen für vorhandene Daten + 3 Monate im Voraus
+  SELECT COALESCE(date_trunc('month', min(created_at))::date, date_trunc('month', now())::date)
+    INTO month_start
+    FROM public.domain_events_unpartitioned;
+  last_month := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+
+  WHILE month_start <= last_month LOOP
+    EXECUTE format(
+      'CREATE TABLE %I PARTITION OF public.domain_events FOR VALUES FROM (%L) TO (%L)',
+      'domain_events_' || to_char(month_start, 'YYYY_MM'),
+      month_start,
+      (month_start + INTERVAL '1 month')::date);
+    month_start := (month_start + INTERVAL '1 month')::date;
+  END LOOP;
+
+  -- 4. Daten übernehmen (ohne NOTIFY - Trigger wird erst danach angelegt)
+  UPDATE public.domain_events_unpartitioned SET created_at = now() WHERE created_at IS NULL;
+  INSERT INTO public.domain_events SELECT * FROM public.domain_events_unpartitioned;
+
+  -- 5. Globale causation_id-Eindeutigkeit über Side-Table
+  CREATE TABLE IF NOT EXISTS public.domain_event_causations (
+    causation_id UUID PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+  );
+  CREATE INDEX IF NOT EXISTS idx_domain_event_causations_created
+    ON public.domain_event_causations(created_at);
+
+  INSERT INTO public.domain_event_causations (causation_id, created_at)
+  SELECT causation_id, created_at FROM public.domain_events_unpartitioned
+  WHERE causation_id IS NOT NULL
+  ON CONFLICT (causation_id) DO NOTHING;
+
+  DROP TABLE public.domain_events_unpartitioned;
+
+  RAISE NOTICE 'domain_events converted to monthly RANGE partitions';
+END $$;
+
+-- Trigger-Funktion für causation_id (INSERT schlägt bei Duplikat mit unique_violation fehl)
+CREATE OR REPLACE FUNCTION register_domain_event_causation()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF NEW.causation_id IS NOT NULL THEN
+    INSERT INTO domain_event_causations (causation_id, created_at)
+    VALUES (NEW.causation_id, NEW.created_at);
+  END IF;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Trigger, Grants und Kommentare nur mit derselben Bedingung wie oben: ohne
+-- domain_events (z.B. frische Test-DB ohne CQRS-Schema) wird nichts angelegt.
+DO $$
+BEGIN
+  IF to_regclass('public.domain_events') IS NULL THEN
+    RAISE NOTICE 'domain_events does not exist -> skip triggers';
+    RETURN;
+  END IF;
+
+  CREATE TABLE IF NOT EXISTS public.domain_event_causations (
+    causation_id UUID PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+  );
+
+  DROP TRIGGER IF EXISTS trigger_register_domain_event_causation ON public.domain_events;
+  CREATE TRIGGER trigger_register_domain_event_causation
+    BEFORE INSERT ON public.domain_events
+    FOR EACH ROW
+    EXECUTE FUNCTION register_domain_event_causation();
+
+  -- LISTEN/NOTIFY Trigger (V225) auf der neuen Tabelle wiederherstellen
+  DROP TRIGGER IF EXISTS trigger_notify_domain_event ON public.domain_events;
+  CREATE TRIGGER trigger_notify_domain_event
+    AFTER INSERT ON public.domain_events
+    FOR EACH ROW
+    EXECUTE FUNCTION notify_domain_event();
+
+  IF EXISTS (SELECT 1 FROM pg_roles WHERE rolname = 'freshplan_app') THEN
+    GRANT SELECT, INSERT, UPDATE ON public.domain_events TO freshplan_app;
+    GRANT SELECT, INSERT ON public.domain_event_causations TO freshplan_app;
+  END IF;
+
+  COMMENT ON TABLE public.domain_events IS
+    'CQRS event store, RANGE-partitioned by created_at (monthly). Partitions are managed by PartitionMaintenanceService.';
+  COMMENT ON TABLE public.domain_event_causations IS
+    'Global uniqueness guard for domain_events.causation_id (partitioned tables cannot enforce it directly).';
+END $$;
@@ -0,0 +1,44 @@
+-- ============================================================================
+-- V10057: Tägliche Pipeline-Snapshots pro Stage und Verkäufer
+-- ============================================================================
+--
+-- Trend- und Forecast-Charts lesen vor-aggregierte Tageszeilen statt die
+-- opportunities-Tabelle für jeden Tag neu zu scannen. Befüllt vom
+-- PipelineSnapshotJob mit einem einzigen INSERT ... SELECT ... GROUP BY
+-- (idempotent per ON CONFLICT, mehrfache Läufe pro Tag überschreiben).
+--
+-- assigned_to = NULL steht für nicht zugewiesene Opportunities; die Team-Summe
+-- ergibt sich aus SUM über alle Verkäufer. Kein FK auf app_user: Snapshots sind
+-- Historie und bleiben auch nach dem Löschen eines Benutzers erhalten.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS pipeline_daily_snapshots (
+  id                UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  snapshot_date     DATE NOT NULL,
+  stage             VARCHAR(50) NOT NULL,
+  assigned_to       UUID,
+  opportunity_count INTEGER NOT NULL,
+  total_value       NUMERIC(19, 2) NOT NULL DEFAULT 0,
+  weighted_value    NUMERIC(19, 2) NOT NULL DEFAULT 0,
+  overdue_count     INTEGER NOT NULL DEFAULT 0,
+  overdue_value     NUMERIC(19, 2) NOT NULL DEFAULT 0,
+  created_at        TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Eindeutig pro Tag, Verkäufer und Stage. NULL (nicht zugewiesen) per COALESCE
+-- auf die Null-UUID abgebildet, da UNIQUE NULLS NOT DISTINCT erst ab
+-- PostgreSQL 15 verfügbar ist (CI läuft auf postgres:14).
+CREATE UNIQUE INDEX IF NOT EXISTS uq_pipeline_daily_snapshots
+  ON pipeline_daily_snapshots (
+    snapshot_date,
+    COALESCE(assigned_to, CAST('00000000-0000-0000-0000-000000000000' AS uuid)),
+    stage
+  );
+
+-- Team-Trend: WHERE snapshot_date BETWEEN ... (Unique-Index führt mit snapshot_date)
+-- Verkäufer-Trend:
+CREATE INDEX IF NOT EXISTS idx_pipeline_daily_snapshots_user_date
+  ON pipeline_daily_snapshots (assigned_to, snapshot_date);
+
+COMMENT ON TABLE pipeline_daily_snapshots IS
+  'Tägliche Pipeline-Aggregate pro Stage und Verkäufer (PipelineSnapshotJob)';
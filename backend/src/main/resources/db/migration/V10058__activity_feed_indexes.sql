@@ -0,0 +1,46 @@
+-- ============================================================================
+-- V10058: Indizes für den Activity-Feed (Timeline + Lead-Aktivitäten + Kontakt-Interaktionen)
+-- ============================================================================
+--
+-- Der ActivityFeedService liest jede Quelle per Keyset (Zeitpunkt DESC, id DESC)
+-- mit LIMIT und merged die Quellen k-way. Damit eine Seite unabhängig von der
+-- Historienlänge konstant bleibt, braucht jede Quelle einen Index, der Filter
+-- UND Sortierung abdeckt (Index-Range-Scan statt Sort über alle Events).
+--
+-- Textsuche: LIKE '%term%' auf lower(...) wird über pg_trgm GIN-Indizes
+-- bedient (Extension seit V10052). Gilt auch für die bestehende Suche in
+-- GET /api/customers/{id}/timeline (lower(title)/lower(description)).
+-- ============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 1. Keyset-Indizes pro Quelle
+CREATE INDEX IF NOT EXISTS idx_timeline_customer_feed
+ON customer_timeline_events (customer_id, event_date DESC, id DESC)
+WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_lead_activities_feed
+ON lead_activities (lead_id, activity_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_interaction_contact_feed
+ON contact_interactions (contact_id, timestamp DESC, id DESC);
+
+-- 2. Trigram-Indizes für die Contains-Suche
+CREATE INDEX IF NOT EXISTS idx_timeline_title_trgm
+ON customer_timeline_events USING gin (lower(title) gin_trgm_ops)
+WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_timeline_description_trgm
+ON customer_timeline_events USING gin (lower(description) gin_trgm_ops)
+WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_lead_activities_description_trgm
+ON lead_activities USING gin (lower(COALESCE(summary, '') || ' ' || COALESCE(description, '')) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_interaction_text_trgm
+ON contact_interactions USING gin (lower(COALESCE(subject, '') || ' ' || COALESCE(summary, '')) gin_trgm_ops);
+
+COMMENT ON INDEX idx_timeline_customer_feed IS
+  'Activity-Feed: Keyset (event_date, id) pro Kunde';
+COMMENT ON INDEX idx_timeline_title_trgm IS
+  'Activity-Feed/Timeline: Contains-Suche im Titel (pg_trgm)';
@@ -0,0 +1,66 @@
+-- ============================================================================
+-- V10059: Xentral Webhook Inbox (Order Delivered)
+-- ============================================================================
+--
+-- Webhooks von Xentral werden nicht mehr synchron im HTTP-Request verarbeitet,
+-- sondern roh gespeichert und sofort quittiert. Der XentralInboxProcessor
+-- arbeitet die Inbox in Batches ab:
+--
+-- - UNIQUE (xentral_customer_id, order_number): Retries von Xentral landen
+--   per ON CONFLICT DO NOTHING nicht ein zweites Mal in der Inbox
+-- - status PROCESSING: Zeile wurde per FOR UPDATE SKIP LOCKED geclaimt
+-- - next_attempt_at / attempts: Retry mit Exponential Backoff
+-- - claimed_at: Lease-Beginn, um hängengebliebene Claims wieder freizugeben
+-- - NOTIFY-Trigger auf Kanal 'xentral_webhook_inbox' weckt den Processor sofort
+--
+-- FAILED ist der terminale Dead-Letter-Status (max. Versuche erreicht).
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS xentral_webhook_inbox (
+  id                  BIGSERIAL PRIMARY KEY,
+  event_type          VARCHAR(50)  NOT NULL DEFAULT 'ORDER_DELIVERED',
+  xentral_customer_id VARCHAR(50)  NOT NULL,
+  order_number        VARCHAR(100) NOT NULL,
+  delivery_date       DATE         NOT NULL,
+  payload             JSONB        NOT NULL,
+  status              VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+  attempts            INTEGER      NOT NULL DEFAULT 0,
+  last_error          TEXT,
+  received_at         TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  next_attempt_at     TIMESTAMP,
+  claimed_at          TIMESTAMP,
+  processed_at        TIMESTAMP,
+  CONSTRAINT uq_xentral_webhook_inbox_order UNIQUE (xentral_customer_id, order_number),
+  CONSTRAINT xentral_webhook_inbox_status_check
+    CHECK (status IN ('PENDING', 'PROCESSING', 'DONE', 'FAILED'))
+);
+
+-- Claim-Index: nur fällige PENDING-Zeilen, in Eingangsreihenfolge
+CREATE INDEX IF NOT EXISTS idx_xentral_webhook_inbox_due
+  ON xentral_webhook_inbox(next_attempt_at, received_at)
+  WHERE status = 'PENDING';
+
+-- Lease-Recovery-Index für hängengebliebene Claims
+CREATE INDEX IF NOT EXISTS idx_xentral_webhook_inbox_claimed
+  ON xentral_webhook_inbox(claimed_at)
+  WHERE status = 'PROCESSING';
+
+-- NOTIFY nach Insert (Statement-Level, Zustellung erst nach COMMIT)
+CREATE OR REPLACE FUNCTION notify_xentral_webhook_inbox() RETURNS trigger AS $$
+BEGIN
+  PERFORM pg_notify('xentral_webhook_inbox', '{"event_type":"xentral.webhook.received"}');
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_xentral_webhook_inbox_notify ON xentral_webhook_inbox;
+CREATE TRIGGER trg_xentral_webhook_inbox_notify
+  AFTER INSERT ON xentral_webhook_inbox
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION notify_xentral_webhook_inbox();
+
+COMMENT ON TABLE xentral_webhook_inbox IS
+  'Durable inbox for Xentral webhooks: acked on receipt, processed asynchronously by XentralInboxProcessor';
+
+COMMENT ON COLUMN xentral_webhook_inbox.status IS
+  'PENDING: Waiting, PROCESSING: Claimed by processor, DONE: Applied, FAILED: Dead-Letter (max retries exceeded)';
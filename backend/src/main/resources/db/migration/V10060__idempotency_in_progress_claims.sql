@@ -0,0 +1,69 @@
+-- ============================================================================
+-- V10060: Idempotency Keys - Claim vor Ausführung
+-- ============================================================================
+--
+-- Bisher wurde ein Idempotency-Key erst NACH der Verarbeitung gespeichert:
+-- zwei gleichzeitige Retries mit demselben Key führten beide die komplette
+-- Operation aus, erst das zweite INSERT lief ins ON CONFLICT.
+--
+-- Neu claimt IdempotencyService.execute() den Key VOR der Ausführung:
+--
+-- - state IN_PROGRESS: Key ist geclaimt, Antwort steht noch aus
+--   (response_status/response_body sind dann NULL)
+-- - state COMPLETED: Antwort gespeichert, Retries bekommen sie zurück
+-- - lease_until: Claims abgestürzter Pods dürfen danach übernommen werden
+-- - NOTIFY-Trigger auf Kanal 'idempotency_keys' weckt wartende Duplikate
+--   auf anderen Pods, sobald ein Claim abgeschlossen oder freigegeben wurde
+--
+-- Bestehende Zeilen sind abgeschlossene Antworten (DEFAULT 'COMPLETED').
+-- ============================================================================
+
+ALTER TABLE idempotency_keys
+  ADD COLUMN IF NOT EXISTS state VARCHAR(20) NOT NULL DEFAULT 'COMPLETED';
+
+ALTER TABLE idempotency_keys
+  ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP WITH TIME ZONE;
+
+ALTER TABLE idempotency_keys
+  ALTER COLUMN response_status DROP NOT NULL;
+
+DO $$
+BEGIN
+  IF NOT EXISTS (
+    SELECT 1 FROM pg_constraint WHERE conname = 'chk_idempotency_keys_state'
+  ) THEN
+    ALTER TABLE idempotency_keys
+      ADD CONSTRAINT chk_idempotency_keys_state
+      CHECK (state IN ('IN_PROGRESS', 'COMPLETED'));
+  END IF;
+END$$;
+
+-- NOTIFY, wenn ein Claim abgeschlossen (UPDATE) oder freigegeben (DELETE) wurde.
+-- Row-Level, da Wartende den konkreten Key brauchen; Zustellung erst nach COMMIT.
+CREATE OR REPLACE FUNCTION notify_idempotency_key_settled() RETURNS trigger AS $$
+BEGIN
+  IF OLD.state = 'IN_PROGRESS' THEN
+    PERFORM pg_notify(
+      'idempotency_keys',
+      json_build_object(
+        'event_type', 'idempotency.key.settled',
+        'tenant_id', OLD.tenant_id,
+        'idempotency_key', OLD.idempotency_key
+      )::text
+    );
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_idempotency_keys_settled ON idempotency_keys;
+CREATE TRIGGER trg_idempotency_keys_settled
+  AFTER UPDATE OF state OR DELETE ON idempotency_keys
+  FOR EACH ROW
+  EXECUTE FUNCTION notify_idempotency_key_settled();
+
+COMMENT ON COLUMN idempotency_keys.state IS
+  'IN_PROGRESS: Claimed, operation running; COMPLETED: Response stored and replayed for retries';
+
+COMMENT ON COLUMN idempotency_keys.lease_until IS
+  'IN_PROGRESS claims older than this may be taken over (owner crashed)';
@@ -0,0 +1,37 @@
+-- ============================================================================
+-- V10061: Cost Budget Counters (Cluster-Summen für den BudgetLedger)
+-- ============================================================================
+--
+-- CostTrackingService.checkBudget() summierte bisher bei jedem Aufruf bis zu
+-- dreimal cost_transactions für den laufenden Tag. Der BudgetLedger hält die
+-- Summen jetzt im Speicher; diese Tabelle gleicht sie zwischen den Pods ab:
+--
+-- - Jeder Pod schreibt seine lokal committeten Kosten per Batch-Upsert
+--   (amount_units = amount_units + delta) und liest die Cluster-Summen zurück
+-- - Die Reconciliation setzt amount_units periodisch auf die exakte Summe
+--   aus cost_transactions
+-- - Beträge in Einheiten von 1/10.000 EUR (Skala von cost_transactions)
+--
+-- scope_value ist '' für den globalen Scope (Teil des Primary Keys).
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS cost_budget_counters (
+  scope        VARCHAR(50)  NOT NULL,
+  scope_value  VARCHAR(100) NOT NULL DEFAULT '',
+  period       VARCHAR(20)  NOT NULL,
+  period_start TIMESTAMP    NOT NULL,
+  period_end   TIMESTAMP    NOT NULL,
+  amount_units BIGINT       NOT NULL DEFAULT 0,
+  updated_at   TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (scope, scope_value, period, period_start)
+);
+
+-- Sync-Query liest nur laufende Perioden
+CREATE INDEX IF NOT EXISTS idx_cost_budget_counters_period_end
+  ON cost_budget_counters(period_end);
+
+COMMENT ON TABLE cost_budget_counters IS
+  'Cluster-wide running budget totals per (scope, period) for BudgetLedger, reconciled against cost_transactions';
+
+COMMENT ON COLUMN cost_budget_counters.amount_units IS
+  'Committed cost in 1/10000 EUR';
@@ -0,0 +1,515 @@
+-- ============================================================================
+-- V10062: Search Documents (einheitlicher Suchindex)
+-- ============================================================================
+--
+-- SearchService.universalSearch() lief je nach Kontext über vier getrennte
+-- LIKE-Queries (Kunden, Kundenkontakte, Leads, Lead-Kontakte), jeweils mit
+-- Entity-Hydration und Relevanz-Berechnung in Java.
+--
+-- search_documents hält pro durchsuchbarer Entity eine Zeile:
+--
+-- - entity_type als Diskriminator (CUSTOMER, CUSTOMER_CONTACT, LEAD, LEAD_CONTACT)
+-- - search_vector (tsvector, Gewichte A/B/C) und search_text (lowercase,
+--   Telefonnummern zusätzlich nur als Ziffern) mit GIN/pg_trgm-Indizes
+-- - rank_boost: Status-/Stage-/Primärkontakt-Bonus, beim Indexieren berechnet
+-- - ACL-Felder: acl_restricted, owner_user_id, collaborator_user_ids
+--   (Leads und Lead-Kontakte, aus leads.owner_user_id/collaborator_user_ids,
+--   denselben Spalten wie leads_select_policy V242)
+-- - payload: fertiges Such-DTO, keine Hydration beim Lesen
+--
+-- Gepflegt wird der Index inkrementell per Row-Trigger auf customers,
+-- customer_contacts, leads und lead_contacts. UPDATE-Trigger feuern per WHEN nur,
+-- wenn sich suchrelevante Spalten tatsächlich ändern (Hibernate schreibt immer
+-- alle Spalten). Gelöschte Kunden/Kontakte und inaktive Kontakte werden nicht
+-- indexiert.
+--
+-- Bulk-Loads (BulkSeedService) schalten die Trigger per Session-GUC
+-- app.search_index_sync = 'off' ab und bauen den Index danach mit
+-- search_documents_rebuild() set-basiert neu auf; die Migration befüllt ihn
+-- ebenso.
+-- ============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE IF NOT EXISTS search_documents (
+  entity_type           VARCHAR(20)  NOT NULL,
+  entity_id             VARCHAR(64)  NOT NULL,
+  parent_id             VARCHAR(64),
+  title                 VARCHAR(255) NOT NULL,
+  subtitle              VARCHAR(255),
+  email                 VARCHAR(320),
+  status                VARCHAR(30),
+  is_active             BOOLEAN      NOT NULL DEFAULT TRUE,
+  rank_boost            INTEGER      NOT NULL DEFAULT 0,
+  acl_restricted        BOOLEAN      NOT NULL DEFAULT FALSE,
+  owner_user_id         VARCHAR(100),
+  collaborator_user_ids TEXT[]       NOT NULL DEFAULT '{}',
+  activity_at           TIMESTAMP,
+  search_text           TEXT         NOT NULL,
+  search_vector         TSVECTOR     NOT NULL,
+  payload               JSONB        NOT NULL,
+  updated_at            TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (entity_type, entity_id),
+  CONSTRAINT chk_search_documents_type
+    CHECK (entity_type IN ('CUSTOMER', 'CUSTOMER_CONTACT', 'LEAD', 'LEAD_CONTACT'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_documents_vector
+  ON search_documents USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_search_documents_text_trgm
+  ON search_documents USING gin (search_text gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_search_documents_parent
+  ON search_documents(entity_type, parent_id)
+  WHERE parent_id IS NOT NULL;
+
+-- ----------------------------------------------------------------------------
+-- Dokument aus Einzelwerten bauen (search_text/search_vector werden hier
+-- berechnet). Reine SQL-Funktion, damit Trigger und Rebuild dieselbe
+-- Berechnung verwenden.
+-- ----------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION search_document_build(
+  p_type TEXT, p_id TEXT, p_parent_id TEXT, p_title TEXT, p_subtitle TEXT,
+  p_parent_title TEXT, p_email TEXT, p_phones TEXT[], p_extra TEXT, p_status TEXT,
+  p_active BOOLEAN, p_rank_boost INTEGER, p_restricted BOOLEAN, p_owner TEXT,
+  p_collaborators TEXT[], p_activity_at TIMESTAMP, p_payload JSONB)
+RETURNS search_documents AS $$
+  SELECT
+    CAST(p_type AS VARCHAR(20)), CAST(p_id AS VARCHAR(64)), CAST(p_parent_id AS VARCHAR(64)),
+    CAST(COALESCE(p_title, '') AS VARCHAR(255)), CAST(p_subtitle AS VARCHAR(255)),
+    CAST(lower(p_email) AS VARCHAR(320)), CAST(p_status AS VARCHAR(30)),
+    p_active, p_rank_boost, p_restricted, CAST(p_owner AS VARCHAR(100)),
+    COALESCE(p_collaborators, '{}'), p_activity_at,
+    lower(concat_ws(' ', p_title, p_subtitle, p_email, array_to_string(p_phones, ' '),
+                    (SELECT string_agg(regexp_replace(phone, '[^0-9]', '', 'g'), ' ')
+                     FROM unnest(p_phones) AS phone),
+                    p_extra)),
+    setweight(to_tsvector('simple', concat_ws(' ', p_title, p_subtitle)), 'A')
+      || setweight(to_tsvector('simple', concat_ws(' ', p_email, p_extra)), 'B')
+      || setweight(to_tsvector('simple', COALESCE(p_parent_title, '')), 'C'),
+    p_payload, CAST(NOW() AS TIMESTAMP);
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION search_document_upsert(d search_documents) RETURNS VOID AS $$
+  INSERT INTO search_documents
+  SELECT (d).*
+  ON CONFLICT (entity_type, entity_id) DO UPDATE
+  SET parent_id = EXCLUDED.parent_id, title = EXCLUDED.title, subtitle = EXCLUDED.subtitle,
+      email = EXCLUDED.email, status = EXCLUDED.status, is_active = EXCLUDED.is_active,
+      rank_boost = EXCLUDED.rank_boost, acl_restricted = EXCLUDED.acl_restricted,
+      owner_user_id = EXCLUDED.owner_user_id,
+      collaborator_user_ids = EXCLUDED.collaborator_user_ids,
+      activity_at = EXCLUDED.activity_at, search_text = EXCLUDED.search_text,
+      search_vector = EXCLUDED.search_vector, payload = EXCLUDED.payload,
+      updated_at = EXCLUDED.updated_at;
+$$ LANGUAGE sql;
+
+-- ----------------------------------------------------------------------------
+-- Dokument je Entity-Typ aus der Quellzeile (Trigger und Rebuild)
+-- ----------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION search_document_customer(c customers) RETURNS search_documents AS $$
+  SELECT search_document_build(
+    'CUSTOMER', c.id::text, NULL, c.company_name, c.customer_number, NULL, NULL, NULL::TEXT[],
+    c.trading_name, c.status, c.status <> 'INAKTIV',
+    CASE WHEN c.status = 'AKTIV' THEN 20 ELSE 0 END,
+    FALSE, NULL, NULL, c.last_contact_date::timestamp,
+    jsonb_build_object(
+      'id', c.id::text,
+      'companyName', c.company_name,
+      'customerNumber', c.customer_number,
+      'status', c.status));
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION search_document_customer_contact(cc customer_contacts, p_customer_name TEXT)
+RETURNS search_documents AS $$
+  SELECT search_document_build(
+    'CUSTOMER_CONTACT', cc.id::text, cc.customer_id::text,
+    concat_ws(' ', cc.first_name, cc.last_name), cc.position, p_customer_name, cc.email,
+    ARRAY[cc.phone, cc.mobile], cc.department, NULL, TRUE,
+    CASE WHEN cc.is_primary THEN 30 ELSE 0 END,
+    FALSE, NULL, NULL, cc.last_contact_date::timestamp,
+    jsonb_build_object(
+      'id', cc.id::text,
+      'firstName', cc.first_name,
+      'lastName', cc.last_name,
+      'email', cc.email,
+      'phone', cc.phone,
+      'position', cc.position,
+      'customerId', cc.customer_id::text,
+      'customerName', p_customer_name,
+      'isPrimary', cc.is_primary));
+$$ LANGUAGE sql STABLE;
+
+-- ACL: owner_user_id und leads.collaborator_user_ids, dieselben Spalten wie
+-- leads_select_policy (V242)
+CREATE OR REPLACE FUNCTION search_document_lead(l leads, p_contact_count BIGINT)
+RETURNS search_documents AS $$
+  SELECT search_document_build(
+    'LEAD', l.id::text, NULL, l.company_name, l.city, NULL, l.email, ARRAY[l.phone, l.phone_e164],
+    l.contact_person, l.status, l.status NOT IN ('EXPIRED', 'DELETED', 'LOST'),
+    (CASE l.status WHEN 'QUALIFIED' THEN 25 WHEN 'ACTIVE' THEN 20 ELSE 0 END)
+      + (CASE l.stage WHEN 2 THEN 15 WHEN 1 THEN 10 ELSE 0 END),
+    TRUE, l.owner_user_id, l.collaborator_user_ids, l.last_activity_at::timestamp,
+    jsonb_build_object(
+      'id', l.id::text,
+      'companyName', l.company_name,
+      'status', l.status,
+      'stage', CASE l.stage WHEN 0 THEN 'VORMERKUNG' WHEN 1 THEN 'REGISTRIERUNG'
+                            WHEN 2 THEN 'QUALIFIZIERT' END,
+      'email', l.email,
+      'phone', l.phone,
+      'contactCount', p_contact_count));
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION search_document_lead_contact(lc lead_contacts, l leads)
+RETURNS search_documents AS $$
+  SELECT search_document_build(
+    'LEAD_CONTACT', lc.id::text, lc.lead_id::text,
+    concat_ws(' ', lc.first_name, lc.last_name), lc.position, l.company_name, lc.email,
+    ARRAY[lc.phone, lc.mobile], NULL, NULL, TRUE,
+    CASE WHEN lc.is_primary THEN 30 ELSE 0 END,
+    TRUE, l.owner_user_id, l.collaborator_user_ids, lc.last_interaction_date::timestamp,
+    jsonb_build_object(
+      'id', lc.id::text,
+      'firstName', lc.first_name,
+      'lastName', lc.last_name,
+      'email', lc.email,
+      'phone', lc.phone,
+      'position', lc.position,
+      'leadId', lc.lead_id::text,
+      'customerId', lc.lead_id::text,
+      'leadName', l.company_name,
+      'isPrimary', lc.is_primary));
+$$ LANGUAGE sql STABLE;
+
+-- ----------------------------------------------------------------------------
+-- Indexieren einer Entity (liest die Quelltabelle, löscht das Dokument falls
+-- die Entity nicht mehr suchbar ist)
+-- ----------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION search_index_customer(p_id UUID) RETURNS VOID AS $$
+DECLARE
+  c customers;
+BEGIN
+  SELECT * INTO c FROM customers WHERE id = p_id;
+  IF NOT FOUND OR c.is_deleted THEN
+    DELETE FROM search_documents WHERE entity_type = 'CUSTOMER' AND entity_id = p_id::text;
+    RETURN;
+  END IF;
+  PERFORM search_document_upsert(search_document_customer(c));
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION search_index_customer_contact(p_id UUID) RETURNS VOID AS $$
+DECLARE
+  cc customer_contacts;
+  v_customer_name TEXT;
+BEGIN
+  SELECT k.* INTO cc
+  FROM customer_contacts k
+  JOIN customers c ON c.id = k.customer_id
+  WHERE k.id = p_id AND k.is_active AND NOT k.is_deleted AND NOT c.is_deleted;
+  IF NOT FOUND THEN
+    DELETE FROM search_documents
+    WHERE entity_type = 'CUSTOMER_CONTACT' AND entity_id = p_id::text;
+    RETURN;
+  END IF;
+  SELECT company_name INTO v_customer_name FROM customers WHERE id = cc.customer_id;
+  PERFORM search_document_upsert(search_document_customer_contact(cc, v_customer_name));
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION search_index_lead(p_id BIGINT) RETURNS VOID AS $$
+DECLARE
+  l leads;
+  v_contact_count BIGINT;
+BEGIN
+  SELECT * INTO l FROM leads WHERE id = p_id;
+  IF NOT FOUND THEN
+    DELETE FROM search_documents WHERE entity_type = 'LEAD' AND entity_id = p_id::text;
+    RETURN;
+  END IF;
+  SELECT count(*) INTO v_contact_count
+  FROM lead_contacts WHERE lead_id = p_id AND is_active AND NOT is_deleted;
+  PERFORM search_document_upsert(search_document_lead(l, v_contact_count));
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION search_index_lead_contact(p_id UUID) RETURNS VOID AS $$
+DECLARE
+  lc lead_contacts;
+  l leads;
+BEGIN
+  SELECT * INTO lc FROM lead_contacts WHERE id = p_id AND is_active AND NOT is_deleted;
+  IF FOUND THEN
+    SELECT * INTO l FROM leads WHERE id = lc.lead_id;
+  END IF;
+  IF NOT FOUND THEN
+    DELETE FROM search_documents WHERE entity_type = 'LEAD_CONTACT' AND entity_id = p_id::text;
+    RETURN;
+  END IF;
+  PERFORM search_document_upsert(search_document_lead_contact(lc, l));
+END;
+$$ LANGUAGE plpgsql;
+
+-- ----------------------------------------------------------------------------
+-- Kompletter Neuaufbau, set-basiert (Migration, Bulk-Seed)
+-- ----------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION search_documents_rebuild() RETURNS BIGINT AS $$
+  TRUNCATE search_documents;
+
+  INSERT INTO search_documents
+  SELECT d.*
+  FROM customers c
+  CROSS JOIN LATERAL search_document_customer(c) d
+  WHERE NOT c.is_deleted;
+
+  INSERT INTO search_documents
+  SELECT d.*
+  FROM customer_contacts k
+  JOIN customers c ON c.id = k.customer_id
+  CROSS JOIN LATERAL search_document_customer_contact(k, c.company_name) d
+  WHERE k.is_active AND NOT k.is_deleted AND NOT c.is_deleted;
+
+  INSERT INTO search_documents
+  SELECT d.*
+  FROM leads l
+  LEFT JOIN (SELECT lead_id, count(*) AS contact_count
+             FROM lead_contacts
+             WHERE is_active AND NOT is_deleted
+             GROUP BY lead_id) n ON n.lead_id = l.id
+  CROSS JOIN LATERAL search_document_lead(l, COALESCE(n.contact_count, 0)) d;
+
+  INSERT INTO search_documents
+  SELECT d.*
+  FROM lead_contacts k
+  JOIN leads l ON l.id = k.lead_id
+  CROSS JOIN LATERAL search_document_lead_contact(k, l) d
+  WHERE k.is_active AND NOT k.is_deleted;
+
+  SELECT count(*) FROM search_documents;
+$$ LANGUAGE sql;
+
+-- ----------------------------------------------------------------------------
+-- Trigger. Mit app.search_index_sync = 'off' (Session) überspringen die
+-- Row-Trigger die Pflege; Bulk-Loads rufen danach search_documents_rebuild().
+-- ----------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION search_documents_sync_enabled() RETURNS BOOLEAN AS $$
+  SELECT COALESCE(current_setting('app.search_index_sync', true), '') <> 'off';
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION search_documents_customers_trigger() RETURNS trigger AS $$
+BEGIN
+  IF NOT search_documents_sync_enabled() THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'DELETE' THEN
+    DELETE FROM search_documents WHERE entity_type = 'CUSTOMER' AND entity_id = OLD.id::text;
+    RETURN NULL;
+  END IF;
+  PERFORM search_index_customer(NEW.id);
+  -- Kontakte tragen den Firmennamen und verschwinden mit dem Kunden
+  IF TG_OP = 'UPDATE' AND (NEW.company_name IS DISTINCT FROM OLD.company_name
+                           OR NEW.is_deleted IS DISTINCT FROM OLD.is_deleted) THEN
+    PERFORM search_index_customer_contact(k.id) FROM customer_contacts k WHERE k.customer_id = NEW.id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_search_documents_customers ON customers;
+CREATE TRIGGER trg_search_documents_customers
+  AFTER INSERT OR DELETE ON customers
+  FOR EACH ROW
+  EXECUTE FUNCTION search_documents_customers_trigger();
+
+DROP TRIGGER IF EXISTS trg_search_documents_customers_update ON customers;
+CREATE TRIGGER trg_search_documents_customers_update
+  AFTER UPDATE ON customers
+  FOR EACH ROW
+  WHEN (OLD.company_name IS DISTINCT FROM NEW.company_name
+     OR OLD.trading_name IS DISTINCT FROM NEW.trading_name
+     OR OLD.customer_number IS DISTINCT FROM NEW.customer_number
+     OR OLD.status IS DISTINCT FROM NEW.status
+     OR OLD.is_deleted IS DISTINCT FROM NEW.is_deleted
+     OR OLD.last_contact_date IS DISTINCT FROM NEW.last_contact_date)
+  EXECUTE FUNCTION search_documents_customers_trigger();
+
+CREATE OR REPLACE FUNCTION search_documents_customer_contacts_trigger() RETURNS trigger AS $$
+BEGIN
+  IF NOT search_documents_sync_enabled() THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'DELETE' THEN
+    DELETE FROM search_documents
+    WHERE entity_type = 'CUSTOMER_CONTACT' AND entity_id = OLD.id::text;
+    RETURN NULL;
+  END IF;
+  PERFORM search_index_customer_contact(NEW.id);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_search_documents_customer_contacts ON customer_contacts;
+CREATE TRIGGER trg_search_documents_customer_contacts
+  AFTER INSERT OR DELETE ON customer_contacts
+  FOR EACH ROW
+  EXECUTE FUNCTION search_documents_customer_contacts_trigger();
+
+DROP TRIGGER IF EXISTS trg_search_documents_customer_contacts_update ON customer_contacts;
+CREATE TRIGGER trg_search_documents_customer_contacts_update
+  AFTER UPDATE ON customer_contacts
+  FOR EACH ROW
+  WHEN (OLD.customer_id IS DISTINCT FROM NEW.customer_id
+     OR OLD.first_name IS DISTINCT FROM NEW.first_name
+     OR OLD.last_name IS DISTINCT FROM NEW.last_name
+     OR OLD.email IS DISTINCT FROM NEW.email
+     OR OLD.phone IS DISTINCT FROM NEW.phone
+     OR OLD.mobile IS DISTINCT FROM NEW.mobile
+     OR OLD.position IS DISTINCT FROM NEW.position
+     OR OLD.department IS DISTINCT FROM NEW.department
+     OR OLD.is_primary IS DISTINCT FROM NEW.is_primary
+     OR OLD.is_active IS DISTINCT FROM NEW.is_active
+     OR OLD.is_deleted IS DISTINCT FROM NEW.is_deleted
+     OR OLD.last_contact_date IS DISTINCT FROM NEW.last_contact_date)
+  EXECUTE FUNCTION search_documents_customer_contacts_trigger();
+
+CREATE OR REPLACE FUNCTION search_documents_leads_trigger() RETURNS trigger AS $$
+BEGIN
+  IF NOT search_documents_sync_enabled() THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'DELETE' THEN
+    DELETE FROM search_documents
+    WHERE (entity_type = 'LEAD' AND entity_id = OLD.id::text)
+       OR (entity_type = 'LEAD_CONTACT' AND parent_id = OLD.id::text);
+    RETURN NULL;
+  END IF;
+  PERFORM search_index_lead(NEW.id);
+  -- Lead-Kontakte erben Firmenname und ACL (Owner, Collaborators)
+  IF TG_OP = 'UPDATE' AND (NEW.company_name IS DISTINCT FROM OLD.company_name
+                           OR NEW.owner_user_id IS DISTINCT FROM OLD.owner_user_id
+                           OR NEW.collaborator_user_ids IS DISTINCT FROM OLD.collaborator_user_ids) THEN
+    PERFORM search_index_lead_contact(k.id) FROM lead_contacts k WHERE k.lead_id = NEW.id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_search_documents_leads ON leads;
+CREATE TRIGGER trg_search_documents_leads
+  AFTER INSERT OR DELETE ON leads
+  FOR EACH ROW
+  EXECUTE FUNCTION search_documents_leads_trigger();
+
+DROP TRIGGER IF EXISTS trg_search_documents_leads_update ON leads;
+CREATE TRIGGER trg_search_documents_leads_update
+  AFTER UPDATE ON leads
+  FOR EACH ROW
+  WHEN (OLD.company_name IS DISTINCT FROM NEW.company_name
+     OR OLD.contact_person IS DISTINCT FROM NEW.contact_person
+     OR OLD.email IS DISTINCT FROM NEW.email
+     OR OLD.phone IS DISTINCT FROM NEW.phone
+     OR OLD.phone_e164 IS DISTINCT FROM NEW.phone_e164
+     OR OLD.city IS DISTINCT FROM NEW.city
+     OR OLD.status IS DISTINCT FROM NEW.status
+     OR OLD.stage IS DISTINCT FROM NEW.stage
+     OR OLD.owner_user_id IS DISTINCT FROM NEW.owner_user_id
+     OR OLD.collaborator_user_ids IS DISTINCT FROM NEW.collaborator_user_ids
+     OR OLD.last_activity_at IS DISTINCT FROM NEW.last_activity_at)
+  EXECUTE FUNCTION search_documents_leads_trigger();
+
+CREATE OR REPLACE FUNCTION search_documents_lead_contacts_trigger() RETURNS trigger AS $$
+BEGIN
+  IF NOT search_documents_sync_enabled() THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'DELETE' THEN
+    DELETE FROM search_documents
+    WHERE entity_type = 'LEAD_CONTACT' AND entity_id = OLD.id::text;
+    PERFORM search_index_lead(OLD.lead_id);
+    RETURN NULL;
+  END IF;
+  PERFORM search_index_lead_contact(NEW.id);
+  -- contactCount im Lead-Dokument
+  IF TG_OP = 'INSERT'
+     OR NEW.lead_id IS DISTINCT FROM OLD.lead_id
+     OR NEW.is_active IS DISTINCT FROM OLD.is_active
+     OR NEW.is_deleted IS DISTINCT FROM OLD.is_deleted THEN
+    PERFORM search_index_lead(NEW.lead_id);
+    IF TG_OP = 'UPDATE' AND NEW.lead_id IS DISTINCT FROM OLD.lead_id THEN
+      PERFORM search_index_lead(OLD.lead_id);
+    END IF;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_search_documents_lead_contacts ON lead_contacts;
+CREATE TRIGGER trg_search_documents_lead_contacts
+  AFTER INSERT OR DELETE ON lead_contacts
+  FOR EACH ROW
+  EXECUTE FUNCTION search_documents_lead_contacts_trigger();
+
+DROP TRIGGER IF EXISTS trg_search_documents_lead_contacts_update ON lead_contacts;
+CREATE TRIGGER trg_search_documents_lead_contacts_update
+  AFTER UPDATE ON lead_contacts
+  FOR EACH ROW
+  WHEN (OLD.lead_id IS DISTINCT FROM NEW.lead_id
+     OR OLD.first_name IS DISTINCT FROM NEW.first_name
+     OR OLD.last_name IS DISTINCT FROM NEW.last_name
+     OR OLD.email IS DISTINCT FROM NEW.email
+     OR OLD.phone IS DISTINCT FROM NEW.phone
+     OR OLD.mobile IS DISTINCT FROM NEW.mobile
+     OR OLD.position IS DISTINCT FROM NEW.position
+     OR OLD.is_primary IS DISTINCT FROM NEW.is_primary
+     OR OLD.is_active IS DISTINCT FROM NEW.is_active
+     OR OLD.is_deleted IS DISTINCT FROM NEW.is_deleted
+     OR OLD.last_interaction_date IS DISTINCT FROM NEW.last_interaction_date)
+  EXECUTE FUNCTION search_documents_lead_contacts_trigger();
+
+-- TRUNCATE feuert keine Row-Trigger
+CREATE OR REPLACE FUNCTION search_documents_truncate_trigger() RETURNS trigger AS $$
+BEGIN
+  DELETE FROM search_documents WHERE entity_type = ANY(TG_ARGV);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_search_documents_customers_truncate ON customers;
+CREATE TRIGGER trg_search_documents_customers_truncate
+  AFTER TRUNCATE ON customers
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION search_documents_truncate_trigger('CUSTOMER', 'CUSTOMER_CONTACT');
+
+DROP TRIGGER IF EXISTS trg_search_documents_customer_contacts_truncate ON customer_contacts;
+CREATE TRIGGER trg_search_documents_customer_contacts_truncate
+  AFTER TRUNCATE ON customer_contacts
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION search_documents_truncate_trigger('CUSTOMER_CONTACT');
+
+DROP TRIGGER IF EXISTS trg_search_documents_leads_truncate ON leads;
+CREATE TRIGGER trg_search_documents_leads_truncate
+  AFTER TRUNCATE ON leads
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION search_documents_truncate_trigger('LEAD', 'LEAD_CONTACT');
+
+DROP TRIGGER IF EXISTS trg_search_documents_lead_contacts_truncate ON lead_contacts;
+CREATE TRIGGER trg_search_documents_lead_contacts_truncate
+  AFTER TRUNCATE ON lead_contacts
+  FOR EACH STATEMENT
+  EXECUTE FUNCTION search_documents_truncate_trigger('LEAD_CONTACT');
+
+-- ----------------------------------------------------------------------------
+-- Initiale Befüllung
+-- ----------------------------------------------------------------------------
+SELECT search_documents_rebuild();
+
+COMMENT ON TABLE search_documents IS
+  'Unified search index over customers, customer_contacts, leads and lead_contacts, maintained by row triggers';
+
+COMMENT ON COLUMN search_documents.acl_restricted IS
+  'TRUE: only visible to owner_user_id, collaborator_user_ids or roles ADMIN/SYSTEM/MANAGER (same rule and source columns as leads_select_policy)';
+
+COMMENT ON COLUMN search_documents.payload IS
+  'Search result DTO (CustomerSearchDto, ContactSearchDto, LeadSearchDto, LeadContactSearchDto)';
@@ -0,0 +1,32 @@
+-- ============================================================================
+-- V10063: Indizes für Kunden-Autocomplete
+-- ============================================================================
+--
+-- Die Autocomplete (/api/search/quick) antwortet aus einem In-Memory-Präfixindex
+-- (CustomerAutocompleteIndex). Zwei Zugriffe gehen weiterhin an die DB:
+--
+-- - Fallback bei Cache-Miss: lower(company_name) LIKE 'x%' OR customer_number
+--   LIKE 'X%'. Die vorhandenen B-Tree-Indizes (V215) nutzen die Datenbank-
+--   Collation und taugen daher nicht für LIKE-Präfixe; text_pattern_ops schon.
+-- - Delta-Refresh alle paar Sekunden: updated_at > :since, inklusive
+--   soft-gelöschter Kunden (idx_customers_updated_at aus V221 ist partiell auf
+--   is_deleted = false und deckt das nicht ab).
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_customers_company_name_prefix
+  ON customers (lower(company_name) text_pattern_ops)
+  WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_customers_customer_number_prefix
+  ON customers (customer_number text_pattern_ops)
+  WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_customers_updated_at_all
+  ON customers (updated_at);
+
+COMMENT ON INDEX idx_customers_company_name_prefix IS
+  'Autocomplete-Fallback: Präfixsuche auf lower(company_name)';
+COMMENT ON INDEX idx_customers_customer_number_prefix IS
+  'Autocomplete-Fallback: Präfixsuche auf customer_number';
+COMMENT ON INDEX idx_customers_updated_at_all IS
+  'Delta-Refresh des Autocomplete-Index (inkl. soft-gelöschter Kunden)';
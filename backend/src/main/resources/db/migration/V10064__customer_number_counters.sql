@@ -0,0 +1,50 @@
+-- ============================================================================
+-- V10064: Customer Number Counters (Kundennummern-Blöcke pro Jahr)
+-- ============================================================================
+--
+-- CustomerNumberGeneratorService serialisierte bisher jede Kundenanlage über
+-- einen JVM-lokalen Lock und ermittelte die nächste Nummer per
+-- MAX(CAST(SUBSTRING(customer_number, 9) AS INTEGER)) mit LIKE-Scan - pro
+-- Kunde, und über mehrere Pods hinweg trotzdem nicht race-frei.
+-- OpportunityService vergab parallel dazu Nummern im Format KD-XXXXX aus
+-- customer_number_seq (V10028).
+--
+-- Jetzt gibt es genau einen Zähler pro Jahr:
+--
+-- - next_value ist die nächste noch nicht reservierte laufende Nummer
+-- - Jeder Pod reserviert per atomarem Upsert einen Block (hi/lo) und vergibt
+--   die Nummern daraus im Speicher; Imports/Konvertierungen reservieren ihre
+--   Nummern in einem Schritt
+-- - Nicht vergebene Reste eines Blocks (Neustart, Rollback) bleiben als Lücken
+--   stehen, Nummern werden nie doppelt vergeben
+-- - Reservieren liest nur die Zählerzeile, nie customers
+-- - Der erste Block eines Jahres legt die Zeile an (Jahreswechsel)
+-- - Manuell gesetzte Nummern ziehen den Zähler einmalig per GREATEST nach
+--   (hier im Backfill, danach beim Setzen der Nummer)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS customer_number_counters (
+  year        INTEGER   NOT NULL PRIMARY KEY,
+  next_value  INTEGER   NOT NULL,
+  updated_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT chk_customer_number_counters_next CHECK (next_value >= 1)
+);
+
+-- Zähler für alle Jahre mit vorhandenen Nummern im Format KD-YYYY-XXXXX
+INSERT INTO customer_number_counters (year, next_value)
+SELECT CAST(SUBSTRING(customer_number FROM 4 FOR 4) AS INTEGER),
+       MAX(CAST(SUBSTRING(customer_number FROM 9) AS INTEGER)) + 1
+FROM customers
+WHERE customer_number ~ '^KD-[0-9]{4}-[0-9]{5}$'
+GROUP BY 1
+ON CONFLICT (year) DO UPDATE
+SET next_value = GREATEST(customer_number_counters.next_value, EXCLUDED.next_value);
+
+-- Nummern werden nur noch über customer_number_counters vergeben
+DROP SEQUENCE IF EXISTS customer_number_seq;
+
+COMMENT ON TABLE customer_number_counters IS
+  'Next unreserved customer number per year (KD-YYYY-XXXXX), reserved in blocks by CustomerNumberGeneratorService';
+
+COMMENT ON COLUMN customer_number_counters.next_value IS
+  'First sequence number not yet reserved by any node; unused block remainders become gaps';
@@ -0,0 +1,41 @@
+-- ============================================================================
+-- V10065: Dashboard Event Journal (Replay für den SSE-Stream)
+-- ============================================================================
+--
+-- DashboardEventJournal schrieb die Dashboard-/Metrics-Envelopes bisher in
+-- domain_events. Dort feuert trigger_notify_domain_event (V225/V10056): jedes
+-- Dashboard-Event wurde zusätzlich auf cqrs_<aggregate_type> und
+-- cqrs_all_events gesendet, die jeder Pod abonniert, und der CQRS-Event-Store
+-- füllte sich mit UI-Replay-Envelopes.
+--
+-- Eigene Tabelle ohne NOTIFY-Trigger:
+--
+-- - id = Event-ID der NOTIFY-Envelope (Last-Event-ID)
+-- - envelope unverändert als Text, wird beim Replay 1:1 gesendet
+-- - Reihenfolge beim Replay: created_at (clock_timestamp()), dann id
+-- - Retention: DashboardEventJournal löscht periodisch alles außerhalb von
+--   freshplan.dashboard.stream.replay-window
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS dashboard_event_journal (
+  id          UUID         NOT NULL PRIMARY KEY,
+  channel     VARCHAR(64)  NOT NULL,
+  event_type  VARCHAR(100) NOT NULL,
+  user_id     VARCHAR(100),
+  envelope    TEXT         NOT NULL,
+  created_at  TIMESTAMPTZ  NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_dashboard_event_journal_created
+  ON dashboard_event_journal(created_at, id);
+
+-- Bisher in domain_events journalisierte Envelopes entfernen
+DO $$
+BEGIN
+  IF to_regclass('public.domain_events') IS NOT NULL THEN
+    DELETE FROM public.domain_events WHERE aggregate_type IN ('dashboard', 'metrics');
+  END IF;
+END $$;
+
+COMMENT ON TABLE dashboard_event_journal IS
+  'Replay journal of dashboard/metrics SSE envelopes (Last-Event-ID), kept for the replay window only';
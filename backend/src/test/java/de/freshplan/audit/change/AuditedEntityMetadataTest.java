@@ -0,0 +1,176 @@
+package de.freshplan.audit.change;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.freshplan.audit.change.EntityChangeSet.PropertyChange;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Unit-Tests für den Audit-Diff auf Hibernate State-Arrays und das Zusammenführen von Diffs. */
+@Tag("unit")
+class AuditedEntityMetadataTest {
+
+  private record Ref(UUID id) {}
+
+  private static final Function<Object, Object> ID_OF = value -> ((Ref) value).id();
+
+  // name, status, owner (Assoziation), contacts (Collection)
+  private final AuditedEntityMetadata metadata =
+      new AuditedEntityMetadata(
+          new String[] {"name", "status", "owner", "contacts"},
+          new boolean[] {true, true, true, false},
+          new boolean[] {false, false, true, false},
+          null);
+
+  private final UUID ownerA = UUID.randomUUID();
+  private final UUID ownerB = UUID.randomUUID();
+
+  @Test
+  @DisplayName("Nur geänderte Properties landen im Diff, in Mapping-Reihenfolge")
+  void diff_reportsOnlyChangedProperties() {
+    Object[] previous = {"Alt GmbH", "ACTIVE", new Ref(ownerA), List.of()};
+    Object[] current = {"Neu GmbH", "ACTIVE", new Ref(ownerA), List.of()};
+
+    Map<String, PropertyChange> changes = metadata.diff(previous, current, null, ID_OF);
+
+    assertThat(changes).containsOnlyKeys("name");
+    assertThat(changes.get("name")).isEqualTo(new PropertyChange("Alt GmbH", "Neu GmbH"));
+  }
+
+  @Test
+  @DisplayName("Unveränderte States liefern einen leeren Diff")
+  void diff_unchangedStateIsEmpty() {
+    Object[] previous = {"A", "ACTIVE", new Ref(ownerA), List.of("x")};
+    Object[] current = {"A", "ACTIVE", new Ref(ownerA), List.of("x")};
+
+    assertThat(metadata.diff(previous, current, null, ID_OF)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("null → Wert und Wert → null werden erfasst, auch bei Assoziationen")
+  void diff_recordsNullTransitions() {
+    Object[] previous = {null, "ACTIVE", null, null};
+    Object[] current = {"Neu GmbH", null, new Ref(ownerA), null};
+
+    assertThat(metadata.diff(previous, current, null, ID_OF))
+        .containsExactly(
+            entry("name", new PropertyChange(null, "Neu GmbH")),
+            entry("status", new PropertyChange("ACTIVE", null)),
+            entry("owner", new PropertyChange(null, ownerA)));
+    assertThat(metadata.diff(current, previous, new int[] {2}, ID_OF))
+        .containsExactly(entry("owner", new PropertyChange(ownerA, null)));
+  }
+
+  @Test
+  @DisplayName("Aus dem Persister: Collections nicht auditiert, Entity-Typen als Assoziation")
+  void of_derivesAuditedFlagsFromPersister() {
+    Type basic = mock(Type.class);
+    Type entityType = mock(Type.class);
+    when(entityType.isEntityType()).thenReturn(true);
+    Type collection = mock(Type.class);
+    when(collection.isCollectionType()).thenReturn(true);
+    when(basic.isEqual(any(), any()))
+        .thenAnswer(i -> Objects.equals(i.getArgument(0), i.getArgument(1)));
+    EntityPersister persister = mock(EntityPersister.class);
+    when(persister.getPropertyNames()).thenReturn(new String[] {"name", "owner", "contacts"});
+    when(persister.getPropertyTypes()).thenReturn(new Type[] {basic, entityType, collection});
+
+    AuditedEntityMetadata derived = AuditedEntityMetadata.of(persister);
+    Object[] previous = {"A", new Ref(ownerA), List.of()};
+    Object[] current = {"B", new Ref(ownerB), List.of("x")};
+
+    assertThat(derived.propertyCount()).isEqualTo(3);
+    assertThat(derived.diff(previous, current, new int[] {0, 1, 2}, ID_OF))
+        .containsExactly(
+            entry("name", new PropertyChange("A", "B")),
+            entry("owner", new PropertyChange(ownerA, ownerB)));
+  }
+
+  @Test
+  @DisplayName("Assoziationen werden über ihre ID verglichen und als ID gespeichert")
+  void diff_comparesAssociationsById() {
+    Object[] previous = {"A", "ACTIVE", new Ref(ownerA), null};
+    Object[] sameOwnerOtherInstance = {"A", "ACTIVE", new Ref(ownerA), null};
+    Object[] otherOwner = {"A", "ACTIVE", new Ref(ownerB), null};
+
+    assertThat(metadata.diff(previous, sameOwnerOtherInstance, new int[] {2}, ID_OF)).isEmpty();
+    assertThat(metadata.diff(previous, otherOwner, null, ID_OF))
+        .containsEntry("owner", new PropertyChange(ownerA, ownerB));
+  }
+
+  @Test
+  @DisplayName("Collections werden nicht auditiert, auch wenn das Dirty-Checking sie meldet")
+  void diff_skipsCollections() {
+    Object[] previous = {"A", "ACTIVE", null, List.of("x")};
+    Object[] current = {"A", "ACTIVE", null, List.of("x", "y")};
+
+    assertThat(metadata.diff(previous, current, new int[] {3}, ID_OF)).isEmpty();
+    assertThat(metadata.diff(previous, current, null, ID_OF)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Dirty-Indizes begrenzen den Vergleich auf die gemeldeten Properties")
+  void diff_usesDirtyIndexes() {
+    Object[] previous = {"A", "ACTIVE", null, null};
+    Object[] current = {"B", "LOCKED", null, null};
+
+    assertThat(metadata.diff(previous, current, new int[] {1}, ID_OF)).containsOnlyKeys("status");
+  }
+
+  @Test
+  @DisplayName("Zusammenführen: ältester alter Wert, neuester neuer Wert")
+  void followedBy_keepsOldestOldAndNewestNew() {
+    UUID id = UUID.randomUUID();
+    EntityChangeSet flushed =
+        new EntityChangeSet(Object.class, id, Map.of("name", new PropertyChange("A", "B")));
+    EntityChangeSet pending =
+        new EntityChangeSet(
+            Object.class,
+            id,
+            Map.of(
+                "name", new PropertyChange("B", "C"),
+                "status", new PropertyChange("ACTIVE", "LOCKED")));
+
+    EntityChangeSet merged = flushed.followedBy(pending);
+
+    assertThat(merged.changes())
+        .containsEntry("name", new PropertyChange("A", "C"))
+        .containsEntry("status", new PropertyChange("ACTIVE", "LOCKED"));
+  }
+
+  @Test
+  @DisplayName("Zusammenführen: auf den Ausgangswert zurückgesetzte Properties fallen heraus")
+  void followedBy_dropsRevertedProperties() {
+    UUID id = UUID.randomUUID();
+    EntityChangeSet flushed =
+        new EntityChangeSet(Object.class, id, Map.of("name", new PropertyChange("A", "B")));
+    EntityChangeSet pending =
+        new EntityChangeSet(Object.class, id, Map.of("name", new PropertyChange("B", "A")));
+
+    assertThat(flushed.followedBy(pending).isEmpty()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Alte und neue Werte enthalten nur die geänderten Properties")
+  void changeSet_exposesOnlyChangedValues() {
+    EntityChangeSet changeSet =
+        new EntityChangeSet(
+            Object.class, UUID.randomUUID(), Map.of("name", new PropertyChange("A", "B")));
+
+    assertThat(changeSet.oldValues()).containsExactlyEntriesOf(Map.of("name", "A"));
+    assertThat(changeSet.newValues()).containsExactlyEntriesOf(Map.of("name", "B"));
+    assertThat(changeSet.changedProperties()).containsExactly("name");
+  }
+}
@@ -0,0 +1,141 @@
+package de.freshplan.audit.change;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.freshplan.audit.change.EntityChangeSet.PropertyChange;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit-Tests für die Change-Capture über {@link EntityChangeTracker#recordFlush}, wie sie der
+ * {@link AuditFlushInterceptor} aus {@code onFlushDirty} aufruft. Kein Persistence Context: die
+ * Entity hat keine ausstehenden Änderungen, alles kommt aus den Flush-Meldungen.
+ */
+@Tag("unit")
+class EntityChangeTrackerTest {
+
+  /** Entity mit name, phone und contacts (Collection, nicht auditiert). */
+  private static final class Sample {}
+
+  private final Sample entity = new Sample();
+  private final UUID id = UUID.randomUUID();
+
+  private EntityChangeTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new EntityChangeTracker();
+    tracker.entityManager = mock(EntityManager.class);
+    tracker.sessionFactory = mock(SessionFactory.class, RETURNS_DEEP_STUBS);
+    SessionImplementor session = mock(SessionImplementor.class, RETURNS_DEEP_STUBS);
+    when(tracker.entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+    when(session.getPersistenceContextInternal().getEntry(entity)).thenReturn(null);
+    when(tracker.entityManager.contains(entity)).thenReturn(true);
+    when(tracker.sessionFactory.getPersistenceUnitUtil().getIdentifier(entity)).thenReturn(id);
+    tracker.register(
+        Sample.class,
+        new AuditedEntityMetadata(
+            new String[] {"name", "phone", "contacts"},
+            new boolean[] {true, true, false},
+            new boolean[] {false, false, false},
+            null));
+  }
+
+  @Test
+  @DisplayName("Flush ohne geänderte Werte liefert keinen Diff")
+  void unchangedFlush_yieldsNoChanges() {
+    try (EntityChangeTracker.Capture capture = tracker.begin()) {
+      flush(new Object[] {"A", "123", List.of()}, new Object[] {"A", "123", List.of()});
+
+      assertThat(tracker.changesOf(capture, entity)).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("null → Wert und Wert → null werden als Änderung erfasst")
+  void nullTransitions_areRecorded() {
+    try (EntityChangeTracker.Capture capture = tracker.begin()) {
+      flush(new Object[] {null, "123", null}, new Object[] {"Neu", null, null});
+
+      assertThat(tracker.changesOf(capture, entity))
+          .hasValueSatisfying(
+              changes ->
+                  assertThat(changes.changes())
+                      .containsExactly(
+                          entry("name", new PropertyChange(null, "Neu")),
+                          entry("phone", new PropertyChange("123", null))));
+    }
+  }
+
+  @Test
+  @DisplayName("Geänderte Collections landen nicht im Diff")
+  void collectionChanges_areFiltered() {
+    try (EntityChangeTracker.Capture capture = tracker.begin()) {
+      flush(new Object[] {"A", null, List.of("x")}, new Object[] {"A", null, List.of("x", "y")});
+
+      assertThat(tracker.changesOf(capture, entity)).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("Mehrere Flushes werden zusammengeführt, zurückgesetzte Properties fallen heraus")
+  void multipleFlushes_areMerged() {
+    try (EntityChangeTracker.Capture capture = tracker.begin()) {
+      flush(new Object[] {"A", "1", null}, new Object[] {"B", "2", null});
+      flush(new Object[] {"B", "2", null}, new Object[] {"C", "1", null});
+
+      assertThat(tracker.changesOf(capture, entity))
+          .hasValueSatisfying(
+              changes ->
+                  assertThat(changes.changes())
+                      .containsOnlyKeys("name")
+                      .containsEntry("name", new PropertyChange("A", "C")));
+    }
+  }
+
+  @Test
+  @DisplayName("Flushes außerhalb einer Capture oder ohne Snapshot werden ignoriert")
+  void flushesOutsideCapture_areIgnored() {
+    flush(new Object[] {"A", null, null}, new Object[] {"B", null, null});
+
+    EntityChangeTracker.Capture capture = tracker.begin();
+    tracker.recordFlush(entity, id, new Object[] {"C", null, null}, null);
+    capture.close();
+    flush(new Object[] {"C", null, null}, new Object[] {"D", null, null});
+
+    assertThat(tracker.changesOf(capture, entity)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Verschachtelte Captures erhalten beide die Flushes ihrer Laufzeit")
+  void nestedCaptures_bothReceiveFlushes() {
+    try (EntityChangeTracker.Capture outer = tracker.begin()) {
+      try (EntityChangeTracker.Capture inner = tracker.begin()) {
+        flush(new Object[] {"A", null, null}, new Object[] {"B", null, null});
+        assertThat(tracker.changesOf(inner, entity)).isPresent();
+      }
+      flush(new Object[] {"B", null, null}, new Object[] {"C", null, null});
+
+      assertThat(tracker.changesOf(outer, entity))
+          .hasValueSatisfying(
+              changes ->
+                  assertThat(changes.changes())
+                      .containsEntry("name", new PropertyChange("A", "C")));
+    }
+  }
+
+  private void flush(Object[] previous, Object[] current) {
+    tracker.recordFlush(entity, id, current, previous);
+  }
+}
@@ -0,0 +1,142 @@
+package de.freshplan.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.freshplan.modules.xentral.service.BranchAddressIndex;
+import de.freshplan.modules.xentral.service.BranchAddressIndex.BranchAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Microbenchmark of Xentral delivery address matching on a synthetic chain: the former per-webhook
+ * path (normalize every branch address, full Levenshtein against each) versus a lookup in the
+ * cached {@link BranchAddressIndex}.
+ *
+ * <p>Plain JUnit instead of JMH (no JMH dependency in this build). Entity loading is not part of
+ * the measurement; the former path additionally lazy-loaded all branches, locations and addresses.
+ *
+ * <pre>
+ * ./mvnw test -Pperformance -Dtest=AddressMatcherBenchmarkTest -Dbenchmark.address.branches=1000
+ * </pre>
+ */
+@Tag("performance")
+@DisplayName("Address Matcher Microbenchmark")
+class AddressMatcherBenchmarkTest {
+
+  private static final Logger LOG = Logger.getLogger(AddressMatcherBenchmarkTest.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int MEASURE_ITERATIONS = 5;
+  private static final double THRESHOLD = 0.80;
+
+  private static final String[] STREETS = {
+    "Maximilianstraße",
+    "Reeperbahn",
+    "Alexanderplatz",
+    "Königsallee",
+    "Zeil",
+    "Hauptstraße",
+    "Bahnhofstraße",
+    "Schillerstraße",
+    "Goethestraße",
+    "Marienplatz"
+  };
+  private static final String[] CITIES = {
+    "München", "Hamburg", "Berlin", "Düsseldorf", "Frankfurt", "Köln", "Stuttgart", "Leipzig"
+  };
+
+  @Test
+  void matchDeliveryAddress_fullScanVersusIndex() {
+    int branchCount = Integer.getInteger("benchmark.address.branches", 1_000);
+    int deliveries = Integer.getInteger("benchmark.address.deliveries", 200);
+    SplittableRandom random = new SplittableRandom(42L);
+    List<BranchAddress> branches = new ArrayList<>(branchCount);
+    for (int i = 0; i < branchCount; i++) {
+      branches.add(
+          new BranchAddress(
+              UUID.randomUUID(),
+              STREETS[random.nextInt(STREETS.length)]
+                  + " "
+                  + (1 + random.nextInt(150))
+                  + ", "
+                  + String.format("%05d", 10000 + random.nextInt(89999))
+                  + " "
+                  + CITIES[random.nextInt(CITIES.length)]));
+    }
+    String[] queries = new String[deliveries];
+    for (int i = 0; i < deliveries; i++) {
+      String address = branches.get(random.nextInt(branchCount)).address();
+      queries[i] = random.nextBoolean() ? address.replace("straße", "str.") : address;
+    }
+
+    double fullScanNsPerOp = measure(() -> fullScan(branches, queries), deliveries);
+
+    long buildStart = System.nanoTime();
+    BranchAddressIndex index = BranchAddressIndex.build(branches);
+    double buildMs = (System.nanoTime() - buildStart) / 1e6;
+    double indexNsPerOp = measure(() -> indexed(index, queries), deliveries);
+
+    LOG.infof(
+        "Address matching, %d branches: full scan %.1f µs/delivery, index %.1f µs/delivery"
+            + " (%.0fx), index build %.1f ms",
+        branchCount,
+        fullScanNsPerOp / 1e3,
+        indexNsPerOp / 1e3,
+        fullScanNsPerOp / indexNsPerOp,
+        buildMs);
+    assertTrue(fullScanNsPerOp > 0 && indexNsPerOp > 0);
+  }
+
+  /** Former path: normalize all branches and compute the full distance for each delivery. */
+  private static long fullScan(List<BranchAddress> branches, String[] queries) {
+    LevenshteinDistance levenshtein = LevenshteinDistance.getDefaultInstance();
+    long checksum = 0;
+    for (String query : queries) {
+      String input = BranchAddressIndex.normalize(query);
+      double best = 0.0;
+      for (BranchAddress branch : branches) {
+        String candidate = BranchAddressIndex.normalize(branch.address());
+        int maxLength = Math.max(input.length(), candidate.length());
+        double similarity = 1.0 - (double) levenshtein.apply(input, candidate) / maxLength;
+        best = Math.max(best, similarity);
+      }
+      checksum += best >= THRESHOLD ? 1 : 0;
+    }
+    return checksum;
+  }
+
+  private static long indexed(BranchAddressIndex index, String[] queries) {
+    long checksum = 0;
+    for (String query : queries) {
+      checksum += index.bestMatch(query, THRESHOLD) != null ? 1 : 0;
+    }
+    return checksum;
+  }
+
+  /** Average ns per delivery over the measurement iterations (after warm-up). */
+  private static double measure(ChecksumRun run, int opsPerIteration) {
+    long checksum = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      checksum += run.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+      checksum += run.run();
+    }
+    long elapsed = System.nanoTime() - start;
+    assertTrue(checksum != Long.MIN_VALUE);
+    return (double) elapsed / ((long) MEASURE_ITERATIONS * opsPerIteration);
+  }
+
+  @FunctionalInterface
+  private interface ChecksumRun {
+    long run();
+  }
+}
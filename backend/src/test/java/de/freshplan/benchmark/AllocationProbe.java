@@ -0,0 +1,83 @@
+package de.freshplan.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures heap allocation and GC activity of the whole JVM between {@link #start()} and {@link
+ * #stop(double)}.
+ *
+ * <p>Client and Quarkus server share the JVM in a {@code @QuarkusTest}, so the rate includes the
+ * HTTP client - it stays constant between commits and therefore does not distort comparisons.
+ * Allocation of threads that terminate during the run is not counted (Quarkus worker threads are
+ * pooled, so this is negligible).
+ */
+public class AllocationProbe {
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private long startBytes;
+  private long startGcCount;
+  private long startGcMillis;
+
+  public void start() {
+    startBytes = allocatedBytes();
+    startGcCount = gcCount();
+    startGcMillis = gcMillis();
+  }
+
+  /**
+   * @return Allocation/GC figures since {@link #start()}
+   */
+  public AllocationStats stop(double seconds) {
+    long bytes = Math.max(0, allocatedBytes() - startBytes);
+    double mb = bytes / (1024.0 * 1024.0);
+    return new AllocationStats(
+        round(mb),
+        round(seconds > 0 ? mb / seconds : 0),
+        gcCount() - startGcCount,
+        gcMillis() - startGcMillis);
+  }
+
+  /**
+   * @param allocatedMb Allocated heap in MB (0 if the JVM does not support allocation tracking)
+   * @param allocationRateMbPerSecond Allocation rate
+   * @param gcCount Number of collections
+   * @param gcMillis Accumulated collection time
+   */
+  public record AllocationStats(
+      double allocatedMb, double allocationRateMbPerSecond, long gcCount, long gcMillis) {}
+
+  private long allocatedBytes() {
+    if (!(threads instanceof com.sun.management.ThreadMXBean sunThreads)
+        || !sunThreads.isThreadAllocatedMemorySupported()) {
+      return 0;
+    }
+    sunThreads.setThreadAllocatedMemoryEnabled(true);
+    long total = 0;
+    for (long bytes : sunThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+      if (bytes > 0) {
+        total += bytes;
+      }
+    }
+    return total;
+  }
+
+  private static long gcCount() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+        .filter(c -> c > 0)
+        .sum();
+  }
+
+  private static long gcMillis() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+        .filter(c -> c > 0)
+        .sum();
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 100) / 100.0;
+  }
+}
@@ -0,0 +1,188 @@
+package de.freshplan.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.freshplan.audit.change.AuditedEntityMetadata;
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.test.builders.CustomerTestDataFactory;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Transient;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Microbenchmark of the audit UPDATE path: the former Jackson deep clone plus JsonNode diff versus
+ * the diff on Hibernate state arrays ({@link AuditedEntityMetadata}) used by the change tracker.
+ *
+ * <p>Plain JUnit instead of JMH (no JMH dependency in this build). Without a session factory, the
+ * state arrays are read by reflection over the persistent fields of {@link Customer}; in production
+ * Hibernate already holds both arrays, so the reflection read is an upper bound for the new path.
+ *
+ * <pre>
+ * ./mvnw test -Pperformance -Dtest=AuditDiffBenchmarkTest -Dbenchmark.audit.updates=50000
+ * </pre>
+ */
+@Tag("performance")
+@DisplayName("Audit Diff Microbenchmark")
+class AuditDiffBenchmarkTest {
+
+  private static final Logger LOG = Logger.getLogger(AuditDiffBenchmarkTest.class);
+
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int MEASURE_ITERATIONS = 5;
+
+  // Same relaxed settings as the Quarkus default ObjectMapper
+  private final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .findAndRegisterModules()
+          .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+          .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  @Test
+  void updateDiff_jacksonCloneVersusStateArrays() throws Exception {
+    int updates = Integer.getInteger("benchmark.audit.updates", 20_000);
+    Customer customer = CustomerTestDataFactory.builder(42L).build();
+    List<Field> fields = persistentFields(Customer.class);
+    AuditedEntityMetadata metadata = metadataOf(fields);
+
+    // Sanity check: both paths see exactly the one changed property
+    Object[] before = stateOf(customer, fields);
+    String original = customer.getCompanyName();
+    customer.setCompanyName(original + " (neu)");
+    assertEquals(
+        Set.of("companyName"),
+        metadata.diff(before, stateOf(customer, fields), null, v -> v).keySet());
+    customer.setCompanyName(original);
+
+    double jacksonNsPerOp = measure(() -> jacksonUpdates(customer, updates), updates);
+    double stateNsPerOp =
+        measure(() -> stateArrayUpdates(customer, fields, metadata, updates), updates);
+
+    LOG.infof(
+        "Audit update diff (%d properties): Jackson clone + tree diff %.0f ns/op,"
+            + " state-array diff %.0f ns/op (%.1fx)",
+        metadata.propertyCount(), jacksonNsPerOp, stateNsPerOp, jacksonNsPerOp / stateNsPerOp);
+    assertTrue(jacksonNsPerOp > 0 && stateNsPerOp > 0);
+  }
+
+  /** Former path: clone before the change, serialize both, compare JSON trees. */
+  private long jacksonUpdates(Customer customer, int updates) throws Exception {
+    long checksum = 0;
+    for (int i = 0; i < updates; i++) {
+      Customer old =
+          objectMapper.readValue(objectMapper.writeValueAsString(customer), Customer.class);
+      customer.setExpectedAnnualVolume(BigDecimal.valueOf(i));
+      checksum += objectMapper.writeValueAsString(old).length();
+      checksum += objectMapper.writeValueAsString(customer).length();
+      checksum += changedFields(objectMapper.valueToTree(old), objectMapper.valueToTree(customer));
+    }
+    return checksum;
+  }
+
+  /** New path: loaded state vs. current state, only the changed properties are serialized. */
+  private long stateArrayUpdates(
+      Customer customer, List<Field> fields, AuditedEntityMetadata metadata, int updates)
+      throws Exception {
+    long checksum = 0;
+    Object[] loaded = stateOf(customer, fields);
+    for (int i = 0; i < updates; i++) {
+      customer.setExpectedAnnualVolume(BigDecimal.valueOf(i));
+      Object[] current = stateOf(customer, fields);
+      Map<String, ?> changes = metadata.diff(loaded, current, null, value -> value);
+      checksum += objectMapper.writeValueAsString(changes.keySet()).length() + changes.size();
+      loaded = current;
+    }
+    return checksum;
+  }
+
+  private static int changedFields(JsonNode oldNode, JsonNode newNode) {
+    Set<String> changed = new HashSet<>();
+    Iterator<String> names = oldNode.fieldNames();
+    while (names.hasNext()) {
+      String name = names.next();
+      if (!oldNode.get(name).equals(newNode.get(name))) {
+        changed.add(name);
+      }
+    }
+    return changed.size();
+  }
+
+  private static List<Field> persistentFields(Class<?> type) {
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers)
+            || Modifier.isTransient(modifiers)
+            || field.isAnnotationPresent(Transient.class)) {
+          continue;
+        }
+        field.setAccessible(true);
+        fields.add(field);
+      }
+    }
+    return fields;
+  }
+
+  private static AuditedEntityMetadata metadataOf(List<Field> fields) {
+    String[] names = new String[fields.size()];
+    boolean[] audited = new boolean[fields.size()];
+    boolean[] association = new boolean[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      names[i] = field.getName();
+      audited[i] =
+          !Collection.class.isAssignableFrom(field.getType())
+              && !Map.class.isAssignableFrom(field.getType());
+      association[i] =
+          field.isAnnotationPresent(ManyToOne.class) || field.isAnnotationPresent(OneToOne.class);
+    }
+    return new AuditedEntityMetadata(names, audited, association, null);
+  }
+
+  private static Object[] stateOf(Object entity, List<Field> fields) throws IllegalAccessException {
+    Object[] state = new Object[fields.size()];
+    for (int i = 0; i < state.length; i++) {
+      state[i] = fields.get(i).get(entity);
+    }
+    return state;
+  }
+
+  /** Average ns per update over the measurement iterations (after warm-up). */
+  private static double measure(ChecksumRun run, int opsPerIteration) throws Exception {
+    long checksum = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      checksum += run.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+      checksum += run.run();
+    }
+    long elapsed = System.nanoTime() - start;
+    assertTrue(checksum != Long.MIN_VALUE);
+    return (double) elapsed / ((long) MEASURE_ITERATIONS * opsPerIteration);
+  }
+
+  @FunctionalInterface
+  private interface ChecksumRun {
+    long run() throws Exception;
+  }
+}
@@ -0,0 +1,101 @@
+package de.freshplan.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.freshplan.benchmark.AllocationProbe.AllocationStats;
+import de.freshplan.benchmark.LatencyRecorder.WorkloadStats;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of a benchmark run.
+ *
+ * <p>Written as JSON so CI can archive it per commit and feed the previous report back in as {@code
+ * -Dbenchmark.baseline=...} - {@link #regressionsAgainst(BenchmarkReport, double)} then lists every
+ * workload whose p95 got worse than the allowed threshold.
+ *
+ * @param commit Git commit ({@code -Dbenchmark.commit} or {@code GIT_COMMIT}/{@code GITHUB_SHA})
+ * @param timestamp ISO-8601 start of the measurement
+ * @param model Concurrency model ({@code closed}/{@code open})
+ * @param concurrency Virtual users resp. max. in-flight requests
+ * @param ratePerSecond Arrival rate (open model only)
+ * @param durationSeconds Measured duration
+ * @param dataset Seeded rows per table
+ * @param workloads Latency statistics per workload
+ * @param allocation Heap allocation and GC during the measurement
+ */
+public record BenchmarkReport(
+    String commit,
+    String timestamp,
+    String model,
+    int concurrency,
+    int ratePerSecond,
+    double durationSeconds,
+    Map<String, Long> dataset,
+    Map<String, WorkloadStats> workloads,
+    AllocationStats allocation) {
+
+  private static final ObjectMapper MAPPER =
+      new ObjectMapper()
+          .enable(SerializationFeature.INDENT_OUTPUT)
+          .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  /** Minimum samples per workload before a regression is reported (avoids noise on rare calls). */
+  static final long MIN_SAMPLES = 20;
+
+  public static String currentCommit() {
+    String commit = System.getProperty("benchmark.commit");
+    if (commit == null) {
+      commit = System.getenv("GIT_COMMIT");
+    }
+    if (commit == null) {
+      commit = System.getenv("GITHUB_SHA");
+    }
+    return commit != null ? commit : "unknown";
+  }
+
+  /**
+   * Compares the p95 latency of every workload with the baseline.
+   *
+   * @param baseline Report of a previous commit
+   * @param maxRegression Allowed relative increase (0.20 = +20%)
+   * @return Human-readable regression messages, empty if none
+   */
+  public List<String> regressionsAgainst(BenchmarkReport baseline, double maxRegression) {
+    List<String> regressions = new ArrayList<>();
+    workloads.forEach(
+        (name, current) -> {
+          WorkloadStats before = baseline.workloads().get(name);
+          if (before == null || before.count() < MIN_SAMPLES || current.count() < MIN_SAMPLES) {
+            return;
+          }
+          if (before.p95Ms() > 0 && current.p95Ms() > before.p95Ms() * (1 + maxRegression)) {
+            regressions.add(
+                String.format(
+                    "%s: p95 %.2f ms -> %.2f ms (+%.0f%%, baseline %s)",
+                    name,
+                    before.p95Ms(),
+                    current.p95Ms(),
+                    (current.p95Ms() / before.p95Ms() - 1) * 100,
+                    baseline.commit()));
+          }
+        });
+    return regressions;
+  }
+
+  public void write(Path file) throws IOException {
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    MAPPER.writeValue(file.toFile(), this);
+  }
+
+  public static BenchmarkReport read(Path file) throws IOException {
+    return MAPPER.readValue(file.toFile(), BenchmarkReport.class);
+  }
+}
@@ -0,0 +1,147 @@
+package de.freshplan.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.freshplan.benchmark.AllocationProbe.AllocationStats;
+import de.freshplan.benchmark.LatencyRecorder.WorkloadStats;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for the benchmark harness (percentiles, mix, regression detection). */
+@Tag("unit")
+class BenchmarkReportTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void percentile_usesNearestRank() {
+    long[] sorted = new long[100];
+    for (int i = 0; i < 100; i++) {
+      sorted[i] = i + 1;
+    }
+
+    assertThat(LatencyRecorder.percentile(sorted, 50)).isEqualTo(50);
+    assertThat(LatencyRecorder.percentile(sorted, 95)).isEqualTo(95);
+    assertThat(LatencyRecorder.percentile(sorted, 99)).isEqualTo(99);
+    assertThat(LatencyRecorder.percentile(sorted, 100)).isEqualTo(100);
+    assertThat(LatencyRecorder.percentile(new long[] {7}, 99)).isEqualTo(7);
+    assertThat(LatencyRecorder.percentile(new long[0], 99)).isZero();
+  }
+
+  @Test
+  void recorder_aggregatesPerWorkload() {
+    LatencyRecorder recorder = new LatencyRecorder();
+    for (int i = 1; i <= 2000; i++) {
+      recorder.record("search", TimeUnit.MILLISECONDS.toNanos(i), i % 100 != 0);
+    }
+    recorder.record("export", TimeUnit.MILLISECONDS.toNanos(5), true);
+
+    Map<String, WorkloadStats> stats = recorder.snapshot(10);
+
+    assertThat(stats).containsOnlyKeys("export", "search");
+    WorkloadStats search = stats.get("search");
+    assertThat(search.count()).isEqualTo(2000);
+    assertThat(search.errors()).isEqualTo(20);
+    assertThat(search.throughputPerSecond()).isEqualTo(200.0);
+    assertThat(search.p50Ms()).isEqualTo(1000.0);
+    assertThat(search.p95Ms()).isEqualTo(1900.0);
+    assertThat(search.p99Ms()).isEqualTo(1980.0);
+    assertThat(search.maxMs()).isEqualTo(2000.0);
+    assertThat(stats.get("export").p99Ms()).isEqualTo(5.0);
+  }
+
+  @Test
+  void parseMix_skipsZeroWeightsAndRejectsInvalidEntries() {
+    assertThat(BenchmarkSettings.parseMix("lead-list=3, export=0 ,timeline=1"))
+        .containsExactly(Map.entry("lead-list", 3), Map.entry("timeline", 1));
+
+    assertThatThrownBy(() -> BenchmarkSettings.parseMix("lead-list"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> BenchmarkSettings.parseMix("lead-list=-1"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> BenchmarkSettings.parseMix("export=0"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void driver_picksWorkloadsAccordingToWeights() {
+    WorkloadDriver driver =
+        new WorkloadDriver(
+            BenchmarkSettings.parseMix("a=3,b=1"), Map.of("a", r -> true, "b", r -> true), 1L);
+    SplittableRandom random = new SplittableRandom(42);
+
+    int a = 0;
+    for (int i = 0; i < 40_000; i++) {
+      if (driver.pick(random).equals("a")) {
+        a++;
+      }
+    }
+
+    assertThat(a / 40_000.0).isBetween(0.73, 0.77);
+  }
+
+  @Test
+  void driver_rejectsUnknownWorkload() {
+    assertThatThrownBy(() -> new WorkloadDriver(Map.of("missing", 1), Map.of("a", r -> true), 1L))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("missing");
+  }
+
+  @Test
+  void regressionsAgainst_reportsOnlyP95IncreasesAboveThreshold() {
+    BenchmarkReport baseline =
+        report(
+            "abc123",
+            Map.of(
+                "search", stats(1000, 100.0),
+                "timeline", stats(1000, 50.0),
+                "import", stats(5, 10.0)));
+    BenchmarkReport current =
+        report(
+            "def456",
+            Map.of(
+                "search", stats(1000, 130.0), // +30% -> regression
+                "timeline", stats(1000, 55.0), // +10% -> within threshold
+                "import", stats(5, 100.0), // too few samples
+                "cockpit", stats(1000, 999.0))); // new workload, no baseline
+
+    List<String> regressions = current.regressionsAgainst(baseline, 0.20);
+
+    assertThat(regressions).hasSize(1);
+    assertThat(regressions.get(0)).startsWith("search:").contains("abc123");
+  }
+
+  @Test
+  void writeAndRead_roundTripsJson() throws Exception {
+    BenchmarkReport report = report("abc123", Map.of("search", stats(1000, 42.5)));
+    Path file = tempDir.resolve("nested/report.json");
+
+    report.write(file);
+
+    assertThat(BenchmarkReport.read(file)).isEqualTo(report);
+  }
+
+  private static BenchmarkReport report(String commit, Map<String, WorkloadStats> workloads) {
+    return new BenchmarkReport(
+        commit,
+        "2026-01-01T00:00:00Z",
+        "closed",
+        8,
+        0,
+        30.0,
+        Map.of("customers", 5000L),
+        workloads,
+        new AllocationStats(1024.0, 34.13, 12, 80));
+  }
+
+  private static WorkloadStats stats(long count, double p95) {
+    return new WorkloadStats(count, 0, count / 30.0, p95 / 2, p95 / 2, p95, p95 * 1.5, p95 * 2);
+  }
+}
@@ -0,0 +1,91 @@
+package de.freshplan.benchmark;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Benchmark configuration, read from system properties ({@code -Dbenchmark.*} on the Maven command
+ * line is forwarded to the test JVM by Surefire).
+ *
+ * <pre>
+ * ./mvnw test -Pperformance -Dtest=MixedWorkloadBenchmarkTest \
+ *   -Dbenchmark.customers=100000 -Dbenchmark.concurrency=16 -Dbenchmark.duration=PT2M \
+ *   -Dbenchmark.baseline=target/benchmark/baseline.json
+ * </pre>
+ *
+ * @param customers Generated customers (contacts/events/opportunities follow the bulk seed fan-out)
+ * @param leads Generated leads
+ * @param seed Data set seed (same seed = same data set)
+ * @param model {@code closed} = fixed number of virtual users without think time, {@code open} =
+ *     fixed arrival rate (latency measured from the intended start, no coordinated omission)
+ * @param concurrency Virtual users (closed) resp. max. in-flight requests (open)
+ * @param ratePerSecond Arrival rate for the open model
+ * @param warmup Warm-up duration (not recorded)
+ * @param duration Measurement duration
+ * @param mix Workload weights, e.g. {@code lead-list=30,customer-search=25,...}
+ * @param reportFile JSON report output
+ * @param baselineFile Optional previous report to compare against
+ * @param maxRegression Allowed p95 regression vs. baseline (0.20 = +20%)
+ */
+public record BenchmarkSettings(
+    int customers,
+    int leads,
+    long seed,
+    String model,
+    int concurrency,
+    int ratePerSecond,
+    Duration warmup,
+    Duration duration,
+    Map<String, Integer> mix,
+    Path reportFile,
+    Optional<Path> baselineFile,
+    double maxRegression) {
+
+  public static final String DEFAULT_MIX =
+      "lead-list=30,customer-search=25,timeline=20,cockpit=10,import=10,export=5";
+
+  public static BenchmarkSettings fromSystemProperties() {
+    return new BenchmarkSettings(
+        Integer.getInteger("benchmark.customers", 5_000),
+        Integer.getInteger("benchmark.leads", 5_000),
+        Long.getLong("benchmark.seed", 42L),
+        System.getProperty("benchmark.model", "closed"),
+        Integer.getInteger("benchmark.concurrency", 8),
+        Integer.getInteger("benchmark.rate", 50),
+        Duration.parse(System.getProperty("benchmark.warmup", "PT10S")),
+        Duration.parse(System.getProperty("benchmark.duration", "PT30S")),
+        parseMix(System.getProperty("benchmark.mix", DEFAULT_MIX)),
+        Path.of(System.getProperty("benchmark.report", "target/benchmark/benchmark-report.json")),
+        Optional.ofNullable(System.getProperty("benchmark.baseline")).map(Path::of),
+        Double.parseDouble(System.getProperty("benchmark.max-regression", "0.20")));
+  }
+
+  /** Parses {@code name=weight,name=weight}; weight 0 disables a workload. */
+  static Map<String, Integer> parseMix(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid benchmark.mix entry: " + entry);
+      }
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("Negative weight in benchmark.mix: " + entry);
+      }
+      if (weight > 0) {
+        weights.put(parts[0].trim(), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("benchmark.mix contains no workload");
+    }
+    return weights;
+  }
+
+  public boolean openModel() {
+    return "open".equalsIgnoreCase(model);
+  }
+}
@@ -0,0 +1,95 @@
+package de.freshplan.benchmark;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe latency recorder per workload.
+ *
+ * <p>Stores raw samples (no histogram buckets) - a benchmark run produces at most a few hundred
+ * thousand samples, sorting them once at the end is cheap and yields exact percentiles.
+ */
+public class LatencyRecorder {
+
+  private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+  /**
+   * @param workload Workload name
+   * @param latencyNanos Latency (open model: measured from the intended start)
+   * @param success false for non-2xx responses or exceptions
+   */
+  public void record(String workload, long latencyNanos, boolean success) {
+    samples.computeIfAbsent(workload, k -> new Samples()).add(latencyNanos, success);
+  }
+
+  /**
+   * @return Statistics per workload, sorted by name
+   */
+  public Map<String, WorkloadStats> snapshot(double seconds) {
+    Map<String, WorkloadStats> stats = new TreeMap<>();
+    samples.forEach((name, s) -> stats.put(name, s.stats(seconds)));
+    return stats;
+  }
+
+  /** Latency statistics of one workload (milliseconds). */
+  public record WorkloadStats(
+      long count,
+      long errors,
+      double throughputPerSecond,
+      double meanMs,
+      double p50Ms,
+      double p95Ms,
+      double p99Ms,
+      double maxMs) {}
+
+  /**
+   * Nearest-rank percentile of sorted values.
+   *
+   * @param sorted Ascending values
+   * @param percentile 0-100
+   */
+  static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+    return sorted[Math.min(sorted.length, Math.max(1, rank)) - 1];
+  }
+
+  private static final class Samples {
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+
+    synchronized void add(long nanos, boolean success) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = nanos;
+      if (!success) {
+        errors++;
+      }
+    }
+
+    synchronized WorkloadStats stats(double seconds) {
+      long[] sorted = Arrays.copyOf(values, size);
+      Arrays.sort(sorted);
+      double mean = size == 0 ? 0 : Arrays.stream(sorted).average().orElse(0);
+      return new WorkloadStats(
+          size,
+          errors,
+          seconds > 0 ? size / seconds : 0,
+          toMs(mean),
+          toMs(percentile(sorted, 50)),
+          toMs(percentile(sorted, 95)),
+          toMs(percentile(sorted, 99)),
+          toMs(size == 0 ? 0 : sorted[size - 1]));
+    }
+
+    private static double toMs(double nanos) {
+      return Math.round(nanos / 10_000.0) / 100.0;
+    }
+  }
+}
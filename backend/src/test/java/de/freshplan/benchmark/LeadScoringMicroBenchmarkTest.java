@@ -0,0 +1,138 @@
+package de.freshplan.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.freshplan.domain.shared.BusinessType;
+import de.freshplan.domain.shared.LeadSource;
+import de.freshplan.modules.leads.domain.DecisionMakerAccess;
+import de.freshplan.modules.leads.domain.RelationshipStatus;
+import de.freshplan.modules.leads.domain.UrgencyLevel;
+import de.freshplan.modules.leads.service.LeadScoreInput;
+import de.freshplan.modules.leads.service.LeadScoringService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Microbenchmark of the pure lead scoring functions ({@link LeadScoringService#score}), single
+ * thread and on a ForkJoinPool as used by the bulk rescoring job.
+ *
+ * <p>Plain JUnit instead of JMH (no JMH dependency in this build): fixed warm-up and measurement
+ * iterations, results are consumed by a checksum so the JIT cannot drop the work. Numbers are only
+ * comparable on the same machine.
+ *
+ * <pre>
+ * ./mvnw test -Pperformance -Dtest=LeadScoringMicroBenchmarkTest -Dbenchmark.scoring.leads=200000
+ * </pre>
+ */
+@Tag("performance")
+@DisplayName("Lead Scoring Microbenchmark")
+class LeadScoringMicroBenchmarkTest {
+
+  private static final Logger LOG = Logger.getLogger(LeadScoringMicroBenchmarkTest.class);
+
+  private static final int WARMUP_ITERATIONS = 5;
+  private static final int MEASURE_ITERATIONS = 10;
+
+  private final LeadScoringService scoring = new LeadScoringService();
+
+  @Test
+  void scoreFunctions_singleThreadAndParallel() {
+    int leads = Integer.getInteger("benchmark.scoring.leads", 100_000);
+    int parallelism =
+        Integer.getInteger(
+            "benchmark.scoring.parallelism", Runtime.getRuntime().availableProcessors());
+    LeadScoreInput[] inputs = generate(leads, 42L);
+    LocalDate today = LocalDate.now();
+
+    double singleNsPerOp = measure(() -> sequential(inputs, today), leads);
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    double parallelNsPerOp;
+    try {
+      parallelNsPerOp = measure(() -> parallel(pool, inputs, today), leads);
+    } finally {
+      pool.shutdown();
+    }
+
+    LOG.infof(
+        "Lead scoring: %.1f ns/op single thread (%.0f leads/s), %.1f ns/op on %d threads"
+            + " (%.0f leads/s)",
+        singleNsPerOp, 1e9 / singleNsPerOp, parallelNsPerOp, parallelism, 1e9 / parallelNsPerOp);
+    assertTrue(singleNsPerOp > 0 && parallelNsPerOp > 0);
+  }
+
+  /** Average ns per lead over the measurement iterations (after warm-up). */
+  private static double measure(ChecksumRun run, int opsPerIteration) {
+    long checksum = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      checksum += run.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+      checksum += run.run();
+    }
+    long elapsed = System.nanoTime() - start;
+    assertTrue(checksum != Long.MIN_VALUE);
+    return (double) elapsed / ((long) MEASURE_ITERATIONS * opsPerIteration);
+  }
+
+  private long sequential(LeadScoreInput[] inputs, LocalDate today) {
+    long sum = 0;
+    for (LeadScoreInput input : inputs) {
+      sum += scoring.score(input, today).totalScore();
+    }
+    return sum;
+  }
+
+  private long parallel(ForkJoinPool pool, LeadScoreInput[] inputs, LocalDate today) {
+    return pool.submit(
+            () ->
+                java.util.Arrays.stream(inputs)
+                    .parallel()
+                    .mapToLong(input -> scoring.score(input, today).totalScore())
+                    .sum())
+        .join();
+  }
+
+  @FunctionalInterface
+  private interface ChecksumRun {
+    long run();
+  }
+
+  private static LeadScoreInput[] generate(int count, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    LeadScoreInput[] inputs = new LeadScoreInput[count];
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < count; i++) {
+      inputs[i] =
+          new LeadScoreInput(
+              (long) i + 1,
+              0,
+              random.nextInt(9),
+              pick(random, UrgencyLevel.values()),
+              BigDecimal.valueOf(random.nextInt(3_000_000)),
+              random.nextBoolean(),
+              null,
+              pick(random, BusinessType.values()),
+              random.nextBoolean() ? "Hamburg" : "Lübeck",
+              pick(random, LeadSource.values()),
+              pick(random, RelationshipStatus.values()),
+              pick(random, DecisionMakerAccess.values()),
+              random.nextBoolean() ? "Herr Wagner" : null,
+              now.minusDays(random.nextInt(60)),
+              null);
+    }
+    return inputs;
+  }
+
+  private static <T> T pick(SplittableRandom random, T[] values) {
+    return values[random.nextInt(values.length)];
+  }
+}
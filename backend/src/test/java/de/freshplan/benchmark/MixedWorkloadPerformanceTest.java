@@ -0,0 +1,264 @@
+package de.freshplan.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.freshplan.domain.testdata.service.bulk.BulkRowGenerator;
+import de.freshplan.domain.testdata.service.bulk.BulkSeedRequest;
+import de.freshplan.domain.testdata.service.bulk.BulkSeedResult;
+import de.freshplan.domain.testdata.service.bulk.BulkSeedService;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.*;
+
+/**
+ * End-to-end latency benchmark: runs the real Quarkus application against a PostgreSQL container
+ * (Dev Services) loaded by the bulk seed generator and drives a weighted mix of the hot API paths.
+ *
+ * <p>Workloads: lead list, customer search, sales cockpit, customer timeline, CSV export, lead
+ * import. Configuration via {@link BenchmarkSettings} ({@code -Dbenchmark.*}). The run writes a
+ * JSON report ({@link BenchmarkReport}); with {@code -Dbenchmark.baseline} the test fails if a
+ * workload's p95 regressed beyond {@code benchmark.max-regression}.
+ *
+ * <pre>
+ * ./mvnw test -Pperformance -Dtest=MixedWorkloadPerformanceTest -Dbenchmark.model=open -Dbenchmark.rate=80
+ * </pre>
+ */
+@QuarkusTest
+@Tag("performance")
+@DisplayName("Mixed Workload Benchmark")
+class MixedWorkloadPerformanceTest {
+
+  private static final Logger LOG = Logger.getLogger(MixedWorkloadPerformanceTest.class);
+
+  /** Sales cockpit test user - skips the user lookup (see SalesCockpitService). */
+  private static final String COCKPIT_USER = "00000000-0000-0000-0000-000000000000";
+
+  private static final String IMPORT_PREFIX = "Benchmark Import ";
+
+  private static final String[] SEARCH_TERMS = {
+    "Müller", "Schmidt", "Weber", "Hotel", "Restaurant", "Berlin", "München", "Catering"
+  };
+
+  private static final String[] LEAD_STATUS = {null, "REGISTERED", "ACTIVE", "QUALIFIED"};
+
+  @Inject BulkSeedService bulkSeedService;
+
+  @Inject DataSource dataSource;
+
+  @TestHTTPResource URL baseUrl;
+
+  private final HttpClient http =
+      HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+  private final AtomicLong importCounter = new AtomicLong();
+
+  private BenchmarkSettings settings;
+  private BulkRowGenerator generator;
+  private BulkSeedResult seedResult;
+
+  @BeforeAll
+  void seedDataset() {
+    settings = BenchmarkSettings.fromSystemProperties();
+    BulkSeedRequest request =
+        new BulkSeedRequest(
+                settings.customers(), 3, 10, 1, settings.leads(), 0, settings.seed(), null, true)
+            .resolve(LocalDate.now());
+    generator = new BulkRowGenerator(request);
+    seedResult = bulkSeedService.seed(request);
+    LOG.infof(
+        "Benchmark dataset: %d rows in %d ms (%d rows/s)",
+        seedResult.totalRows(), seedResult.loadMillis(), seedResult.rowsPerSecond());
+  }
+
+  @AfterAll
+  void cleanup() throws Exception {
+    bulkSeedService.purge();
+    try (Connection conn = dataSource.getConnection();
+        Statement st = conn.createStatement()) {
+      st.executeUpdate(
+          "DELETE FROM lead_activities WHERE lead_id IN "
+              + "(SELECT id FROM leads WHERE company_name LIKE '"
+              + IMPORT_PREFIX
+              + "%')");
+      st.executeUpdate("DELETE FROM leads WHERE company_name LIKE '" + IMPORT_PREFIX + "%'");
+    }
+  }
+
+  @Test
+  @Timeout(value = 60, unit = TimeUnit.MINUTES)
+  @TestSecurity(
+      user = "benchmark",
+      roles = {"admin", "manager", "sales", "ADMIN", "MANAGER", "USER", "ROLE_ADMIN"})
+  void mixedWorkload_configuredLoad_reportsPercentilesAndAllocation() throws Exception {
+    WorkloadDriver driver = new WorkloadDriver(settings.mix(), workloads(), settings.seed());
+
+    // Warm-up: JIT, connection pool, Hibernate caches - results are discarded
+    run(driver, settings.warmup(), new LatencyRecorder());
+
+    LatencyRecorder recorder = new LatencyRecorder();
+    AllocationProbe allocation = new AllocationProbe();
+    Instant started = Instant.now();
+    allocation.start();
+    long begin = System.nanoTime();
+    run(driver, settings.duration(), recorder);
+    double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+    BenchmarkReport report =
+        new BenchmarkReport(
+            BenchmarkReport.currentCommit(),
+            started.toString(),
+            settings.openModel() ? "open" : "closed",
+            settings.concurrency(),
+            settings.openModel() ? settings.ratePerSecond() : 0,
+            Math.round(seconds * 100) / 100.0,
+            seedResult.rowsPerTable(),
+            recorder.snapshot(seconds),
+            allocation.stop(seconds));
+    report.write(settings.reportFile());
+
+    report
+        .workloads()
+        .forEach(
+            (name, s) ->
+                LOG.infof(
+                    "%-16s n=%6d err=%4d %7.1f/s p50=%8.2f p95=%8.2f p99=%8.2f ms",
+                    name,
+                    s.count(),
+                    s.errors(),
+                    s.throughputPerSecond(),
+                    s.p50Ms(),
+                    s.p95Ms(),
+                    s.p99Ms()));
+    LOG.infof(
+        "Allocation: %.1f MB/s, GC: %d collections / %d ms - report: %s",
+        report.allocation().allocationRateMbPerSecond(),
+        report.allocation().gcCount(),
+        report.allocation().gcMillis(),
+        settings.reportFile().toAbsolutePath());
+
+    assertFalse(report.workloads().isEmpty(), "No requests were executed");
+    if (settings.baselineFile().isPresent()) {
+      BenchmarkReport baseline = BenchmarkReport.read(settings.baselineFile().get());
+      List<String> regressions = report.regressionsAgainst(baseline, settings.maxRegression());
+      assertTrue(regressions.isEmpty(), "p95 regressions: " + String.join("; ", regressions));
+    }
+  }
+
+  private void run(WorkloadDriver driver, Duration duration, LatencyRecorder recorder)
+      throws InterruptedException {
+    if (settings.openModel()) {
+      driver.runOpen(settings.ratePerSecond(), settings.concurrency(), duration, recorder);
+    } else {
+      driver.runClosed(settings.concurrency(), duration, recorder);
+    }
+  }
+
+  private Map<String, WorkloadDriver.Workload> workloads() {
+    Map<String, WorkloadDriver.Workload> workloads = new LinkedHashMap<>();
+    workloads.put(
+        "lead-list",
+        r -> {
+          String status = LEAD_STATUS[r.nextInt(LEAD_STATUS.length)];
+          return get(
+              "/api/leads?page="
+                  + r.nextInt(5)
+                  + "&size=20"
+                  + (status != null ? "&status=" + status : ""));
+        });
+    workloads.put(
+        "customer-search",
+        r ->
+            get(
+                "/api/customers/search?query="
+                    + encode(SEARCH_TERMS[r.nextInt(SEARCH_TERMS.length)])
+                    + "&page="
+                    + r.nextInt(3)
+                    + "&size=20"));
+    workloads.put("cockpit", r -> get("/api/sales-cockpit/dashboard/" + COCKPIT_USER));
+    workloads.put(
+        "timeline",
+        r ->
+            get(
+                "/api/customers/"
+                    + randomCustomer(r)
+                    + "/timeline?page="
+                    + r.nextInt(2)
+                    + "&size=20"));
+    workloads.put("export", r -> get("/api/v2/export/customers/csv?status=RISIKO"));
+    workloads.put("import", this::importLeads);
+    return workloads;
+  }
+
+  private String randomCustomer(SplittableRandom r) {
+    return generator.customerId(r.nextLong(Math.max(1, settings.customers()))).toString();
+  }
+
+  /** Imports a small batch (5 leads) with unique company names - exercises the write path. */
+  private boolean importLeads(SplittableRandom r) throws Exception {
+    String registeredAt = LocalDateTime.now().minusDays(30).withNano(0).toString();
+    StringBuilder body = new StringBuilder("{\"dryRun\":false,\"leads\":[");
+    for (int i = 0; i < 5; i++) {
+      long n = importCounter.incrementAndGet();
+      if (i > 0) {
+        body.append(',');
+      }
+      body.append("{\"companyName\":\"")
+          .append(IMPORT_PREFIX)
+          .append(n)
+          .append("\",\"city\":\"Berlin\",\"countryCode\":\"DE\",\"email\":\"bench")
+          .append(n)
+          .append('-')
+          .append(r.nextInt(1_000_000))
+          .append("@benchmark.example\",\"registeredAt\":\"")
+          .append(registeredAt)
+          .append("\",\"importReason\":\"Benchmark\"}");
+    }
+    body.append("]}");
+    HttpRequest request =
+        HttpRequest.newBuilder(uri("/api/admin/migration/leads/import"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+            .build();
+    return isSuccess(http.send(request, HttpResponse.BodyHandlers.discarding()));
+  }
+
+  private boolean get(String path) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(uri(path)).GET().build();
+    return isSuccess(http.send(request, HttpResponse.BodyHandlers.discarding()));
+  }
+
+  private URI uri(String path) {
+    return URI.create(baseUrl.toString().replaceAll("/$", "") + path);
+  }
+
+  private static boolean isSuccess(HttpResponse<?> response) {
+    return response.statusCode() >= 200 && response.statusCode() < 300;
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
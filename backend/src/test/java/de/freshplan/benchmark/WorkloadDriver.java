@@ -0,0 +1,159 @@
+package de.freshplan.benchmark;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted workload mix with one of two concurrency models.
+ *
+ * <ul>
+ *   <li><b>closed</b>: {@code concurrency} virtual users issue requests back-to-back. Measures
+ *       service time under a fixed level of parallelism; throughput adapts to latency.
+ *   <li><b>open</b>: requests arrive at a fixed rate regardless of how fast the server answers.
+ *       Latency is measured from the <em>intended</em> start, so queueing behind slow requests is
+ *       part of the result (avoids coordinated omission).
+ * </ul>
+ */
+public class WorkloadDriver {
+
+  /** A single benchmark operation. */
+  @FunctionalInterface
+  public interface Workload {
+
+    /**
+     * @param random Per-thread random source for parameter selection
+     * @return true if the call succeeded (2xx)
+     */
+    boolean execute(SplittableRandom random) throws Exception;
+  }
+
+  private final Map<String, Workload> workloads;
+  private final String[] names;
+  private final int[] cumulativeWeights;
+  private final int totalWeight;
+  private final long seed;
+
+  public WorkloadDriver(Map<String, Integer> mix, Map<String, Workload> workloads, long seed) {
+    this.workloads = workloads;
+    this.seed = seed;
+    this.names = new String[mix.size()];
+    this.cumulativeWeights = new int[mix.size()];
+    int sum = 0;
+    int i = 0;
+    for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+      if (!workloads.containsKey(entry.getKey())) {
+        throw new IllegalArgumentException(
+            "Unknown workload '" + entry.getKey() + "', available: " + workloads.keySet());
+      }
+      sum += entry.getValue();
+      names[i] = entry.getKey();
+      cumulativeWeights[i++] = sum;
+    }
+    this.totalWeight = sum;
+  }
+
+  /** Picks a workload name according to the configured weights. */
+  String pick(SplittableRandom random) {
+    int r = random.nextInt(totalWeight);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (r < cumulativeWeights[i]) {
+        return names[i];
+      }
+    }
+    return names[names.length - 1];
+  }
+
+  /** Runs the closed model for {@code duration} and records into {@code recorder}. */
+  public void runClosed(int users, Duration duration, LatencyRecorder recorder)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + duration.toNanos();
+    ExecutorService pool = Executors.newFixedThreadPool(users, daemonThreads("bench-user"));
+    SplittableRandom root = new SplittableRandom(seed);
+    try {
+      for (int u = 0; u < users; u++) {
+        SplittableRandom random = root.split();
+        pool.execute(
+            () -> {
+              while (System.nanoTime() < deadline) {
+                String name = pick(random);
+                long start = System.nanoTime();
+                boolean ok = call(name, random);
+                recorder.record(name, System.nanoTime() - start, ok);
+              }
+            });
+      }
+    } finally {
+      shutdown(pool, duration);
+    }
+  }
+
+  /**
+   * Runs the open model: {@code ratePerSecond} arrivals, at most {@code maxInFlight} executing
+   * concurrently (further arrivals queue and their wait time counts as latency).
+   */
+  public void runOpen(
+      int ratePerSecond, int maxInFlight, Duration duration, LatencyRecorder recorder)
+      throws InterruptedException {
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, ratePerSecond);
+    long begin = System.nanoTime();
+    long deadline = begin + duration.toNanos();
+    ExecutorService pool = Executors.newFixedThreadPool(maxInFlight, daemonThreads("bench-open"));
+    SplittableRandom random = new SplittableRandom(seed);
+    try {
+      for (long n = 0; ; n++) {
+        long intended = begin + n * intervalNanos;
+        if (intended >= deadline) {
+          break;
+        }
+        long wait = intended - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        String name = pick(random);
+        SplittableRandom callRandom = random.split();
+        pool.execute(
+            () -> {
+              boolean ok = call(name, callRandom);
+              recorder.record(name, System.nanoTime() - intended, ok);
+            });
+      }
+    } finally {
+      shutdown(pool, duration);
+    }
+  }
+
+  private boolean call(String name, SplittableRandom random) {
+    try {
+      return workloads.get(name).execute(random);
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private static void shutdown(ExecutorService pool, Duration duration)
+      throws InterruptedException {
+    pool.shutdown();
+    // Outstanding requests (open model backlog) may take a while - bound the wait generously
+    if (!pool.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+      int dropped = pool.shutdownNow().size();
+      throw new IllegalStateException(
+          "Benchmark did not drain, " + dropped + " requests still queued");
+    }
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+}
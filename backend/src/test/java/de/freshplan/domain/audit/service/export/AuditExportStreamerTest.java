@@ -0,0 +1,245 @@
+package de.freshplan.domain.audit.service.export;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.freshplan.domain.audit.entity.AuditEventType;
+import de.freshplan.domain.audit.entity.AuditSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import javax.sql.DataSource;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the streaming audit export (cursor setup, writers, job progress).
+ *
+ * <p>Strategy: Pure Mockito, NO @QuarkusTest, NO DB.
+ */
+@DisplayName("AuditExportStreamer Unit Tests")
+@Tag("unit")
+class AuditExportStreamerTest {
+
+  private static final Instant TS = Instant.parse("2026-03-02T13:30:00Z");
+
+  private Connection connection;
+  private PreparedStatement statement;
+  private ResultSet resultSet;
+  private AuditExportStreamer streamer;
+  private AuditExportJobRegistry registry;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    connection = mock(Connection.class);
+    statement = mock(PreparedStatement.class);
+    resultSet = mock(ResultSet.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.getAutoCommit()).thenReturn(true);
+    when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    streamer = new AuditExportStreamer();
+    streamer.dataSource = dataSource;
+    streamer.fetchSize = 500;
+    streamer.xlsxWindow = 10;
+
+    registry = new AuditExportJobRegistry();
+    registry.retention = Duration.ofHours(1);
+  }
+
+  @Test
+  @DisplayName("Filter: native SQL with positional parameters in binding order")
+  void filter_buildsNativeSql() {
+    AuditExportFilter filter =
+        new AuditExportFilter(
+            "CUSTOMER",
+            null,
+            null,
+            List.of(AuditEventType.CUSTOMER_CREATED, AuditEventType.CUSTOMER_UPDATED),
+            List.of(AuditSource.API),
+            TS,
+            null,
+            "foo");
+
+    AuditExportFilter.Sql sql = filter.toSql();
+
+    assertThat(sql.statement())
+        .contains("FROM audit_trail WHERE 1=1 AND entity_type = ?")
+        .contains("AND event_type IN (?, ?) AND source IN (?)")
+        .contains("AND timestamp >= ?")
+        .contains("(user_comment LIKE ? OR change_reason LIKE ?)")
+        .endsWith("ORDER BY timestamp DESC")
+        .doesNotContain("timestamp <=");
+    assertThat(sql.params())
+        .containsExactly(
+            "CUSTOMER",
+            "CUSTOMER_CREATED",
+            "CUSTOMER_UPDATED",
+            "API",
+            TS.atOffset(ZoneOffset.UTC),
+            "%foo%",
+            "%foo%");
+  }
+
+  @Test
+  @DisplayName("Cursor: forward-only, fetch size set, own read-only transaction")
+  void forEachRow_usesForwardOnlyCursor() throws Exception {
+    givenRows(3);
+
+    long rows = streamer.forEachRow(filter(), row -> {});
+
+    assertThat(rows).isEqualTo(3);
+    verify(connection)
+        .prepareStatement(
+            anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY));
+    verify(statement).setFetchSize(500);
+    verify(connection).setAutoCommit(false);
+    verify(connection).rollback();
+    verify(connection).setAutoCommit(true);
+  }
+
+  @Test
+  @DisplayName("Cursor: connection already in a transaction is left untouched")
+  void forEachRow_insideTransaction_keepsConnectionState() throws Exception {
+    when(connection.getAutoCommit()).thenReturn(false);
+    givenRows(1);
+
+    streamer.forEachRow(filter(), row -> {});
+
+    verify(connection, never()).setAutoCommit(anyBoolean());
+    verify(connection, never()).rollback();
+  }
+
+  @Test
+  @DisplayName("CSV: BOM, German header, RFC 4180 escaping, progress tracked")
+  void export_csv() throws Exception {
+    givenRows(2);
+    AuditExportJob job = registry.start(AuditStreamFormat.CSV, false);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    streamer.export(filter(), AuditStreamFormat.CSV, false, output, job);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(3);
+    assertThat(lines[0]).startsWith("\ufeffZeitstempel,Ereignistyp,");
+    assertThat(lines[1]).startsWith("2026-03-02T13:30:00Z,CUSTOMER_UPDATED,CUSTOMER,");
+    assertThat(lines[1]).contains(",\"said \"\"hi\"\", twice\",");
+    assertThat(job.status().state()).isEqualTo(AuditExportJob.State.COMPLETED);
+    assertThat(job.status().rowsWritten()).isEqualTo(2);
+    assertThat(registry.find(job.getId())).containsSame(job);
+  }
+
+  @Test
+  @DisplayName("NDJSON + gzip: one JSON object per line inside a gzip stream")
+  void export_ndjsonGzip() throws Exception {
+    givenRows(2);
+    AuditExportJob job = registry.start(AuditStreamFormat.NDJSON, true);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    streamer.export(filter(), AuditStreamFormat.NDJSON, true, output, job);
+
+    String text;
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+      text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    String[] lines = text.split("\n");
+    assertThat(lines).hasSize(2);
+    JsonNode first = new ObjectMapper().readTree(lines[0]);
+    assertThat(first.get("eventType").asText()).isEqualTo("CUSTOMER_UPDATED");
+    assertThat(first.get("timestamp").asText()).isEqualTo("2026-03-02T13:30:00Z");
+    assertThat(first.has("ipAddress")).isFalse();
+  }
+
+  @Test
+  @DisplayName("XLSX: SXSSF workbook with header and one row per audit entry")
+  void export_xlsx() throws Exception {
+    givenRows(25);
+    AuditExportJob job = registry.start(AuditStreamFormat.XLSX, false);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    streamer.export(filter(), AuditStreamFormat.XLSX, false, output, job);
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+      Sheet sheet = workbook.getSheet("Audit Trail");
+      assertThat(sheet.getLastRowNum()).isEqualTo(25);
+      assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Zeitstempel");
+      assertThat(sheet.getRow(25).getCell(1).getStringCellValue()).isEqualTo("CUSTOMER_UPDATED");
+      assertThat(sheet.getRow(25).getCell(0).getDateCellValue().toInstant()).isEqualTo(TS);
+    }
+    assertThat(job.getRowsWritten()).isEqualTo(25);
+  }
+
+  @Test
+  @DisplayName("Client disconnect: job FAILED, cursor transaction still closed")
+  void export_outputFails_marksJobFailed() throws Exception {
+    givenRows(5000);
+    AuditExportJob job = registry.start(AuditStreamFormat.CSV, false);
+    OutputStream broken =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+          }
+        };
+
+    assertThatThrownBy(() -> streamer.export(filter(), AuditStreamFormat.CSV, false, broken, job))
+        .isInstanceOf(IOException.class);
+
+    assertThat(job.status().state()).isEqualTo(AuditExportJob.State.FAILED);
+    assertThat(job.status().error()).isEqualTo("Broken pipe");
+    verify(connection).rollback();
+  }
+
+  @Test
+  @DisplayName("Registry: finished jobs are pruned after the retention, running jobs are kept")
+  void registry_prunesFinishedJobs() {
+    AuditExportJob finished = registry.start(AuditStreamFormat.CSV, false);
+    finished.complete();
+    AuditExportJob running = registry.start(AuditStreamFormat.CSV, false);
+
+    registry.prune(Instant.now().plus(Duration.ofHours(2)));
+
+    assertThat(registry.find(finished.getId())).isEmpty();
+    assertThat(registry.find(running.getId())).containsSame(running);
+  }
+
+  private static AuditExportFilter filter() {
+    return new AuditExportFilter(null, null, null, null, null, null, null, null);
+  }
+
+  private void givenRows(int count) throws Exception {
+    int[] remaining = {count};
+    when(resultSet.next()).thenAnswer(invocation -> remaining[0]-- > 0);
+    when(resultSet.getObject(1, UUID.class)).thenReturn(UUID.randomUUID());
+    when(resultSet.getObject(2, OffsetDateTime.class)).thenReturn(TS.atOffset(ZoneOffset.UTC));
+    when(resultSet.getString(3)).thenReturn("CUSTOMER_UPDATED");
+    when(resultSet.getString(4)).thenReturn("CUSTOMER");
+    when(resultSet.getObject(5, UUID.class)).thenReturn(UUID.randomUUID());
+    when(resultSet.getObject(6, UUID.class)).thenReturn(UUID.randomUUID());
+    when(resultSet.getString(7)).thenReturn("Anna Admin");
+    when(resultSet.getString(8)).thenReturn("admin");
+    when(resultSet.getString(9)).thenReturn("API");
+    when(resultSet.getString(12)).thenReturn("said \"hi\", twice");
+  }
+}
@@ -0,0 +1,201 @@
+package de.freshplan.domain.cockpit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import de.freshplan.domain.cockpit.service.DashboardEventJournal.JournalEntry;
+import de.freshplan.domain.cockpit.service.DashboardStreamHub.StreamEvent;
+import de.freshplan.domain.cockpit.service.DashboardStreamHub.Subscription;
+import de.freshplan.infrastructure.cqrs.EventSubscriber.EventNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.vertx.core.json.JsonObject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests für den SSE-Dashboard-Stream: Filter, drop-oldest Puffer, Last-Event-ID Replay und
+ * Metriken.
+ */
+@Tag("unit")
+class DashboardStreamHubTest {
+
+  private static final DashboardStreamFilter ALL = DashboardStreamFilter.of(null, null, null);
+
+  private DashboardEventJournal journal;
+  private SimpleMeterRegistry registry;
+  private DashboardStreamHub hub;
+
+  @BeforeEach
+  void setUp() {
+    journal = mock(DashboardEventJournal.class);
+    registry = new SimpleMeterRegistry();
+    hub = new DashboardStreamHub();
+    hub.journal = journal;
+    hub.meterRegistry = registry;
+    hub.bufferSize = 3;
+    hub.heartbeat = Duration.ofHours(1);
+    hub.replayLimit = 100;
+    hub.maxStreams = 2;
+    hub.init();
+  }
+
+  @Test
+  @DisplayName("Filter: Territorium, eigener User und Typ-Präfix")
+  void filter_matchesTerritoryUserAndType() {
+    JsonObject de = envelope("dashboard.lead_status_changed", "DE", "anna");
+    JsonObject ch = envelope("dashboard.lead_status_changed", "CH", "ben");
+    JsonObject metrics = envelope("metrics.followup_tracked", "DE", "anna");
+    JsonObject withoutTerritory = envelope("dashboard.followup_completed", null, "batch");
+
+    DashboardStreamFilter territoryDe = DashboardStreamFilter.of("de", null, null);
+    assertThat(territoryDe.matches(de)).isTrue();
+    assertThat(territoryDe.matches(ch)).isFalse();
+    assertThat(territoryDe.matches(withoutTerritory)).isTrue();
+
+    DashboardStreamFilter mine = DashboardStreamFilter.of(null, "anna", "");
+    assertThat(mine.matches(de)).isTrue();
+    assertThat(mine.matches(ch)).isFalse();
+
+    DashboardStreamFilter dashboardOnly = DashboardStreamFilter.of(null, null, "dashboard., x.");
+    assertThat(dashboardOnly.matches(de)).isTrue();
+    assertThat(dashboardOnly.matches(metrics)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Live: nur Dashboard-/Metrics-Channels werden an passende Streams verteilt")
+  void notification_dispatchesOnlyStreamChannels() {
+    Subscription de = hub.register(DashboardStreamFilter.of("DE", null, null)).orElseThrow();
+    Subscription ch = hub.register(DashboardStreamFilter.of("CH", null, null)).orElseThrow();
+    JsonObject event = envelope("dashboard.lead_status_changed", "DE", "anna");
+
+    hub.onNotification(new EventNotification("cqrs_lead", null, event));
+    hub.onNotification(new EventNotification("dashboard_updates", null, event));
+
+    assertThat(next(de).id()).isEqualTo(event.getString("id"));
+    assertThat(de.next().toCompletableFuture()).isNotDone();
+    assertThat(ch.next().toCompletableFuture()).isNotDone();
+  }
+
+  @Test
+  @DisplayName("Puffer: langsamer Client verliert die ältesten Events, Zähler steigt")
+  void slowConsumer_dropsOldest() {
+    Subscription subscription = hub.register(ALL).orElseThrow();
+    List<JsonObject> events =
+        List.of(event("e1"), event("e2"), event("e3"), event("e4"), event("e5"));
+
+    events.forEach(hub::dispatch);
+
+    assertThat(List.of(next(subscription).id(), next(subscription).id(), next(subscription).id()))
+        .containsExactly(
+            events.get(2).getString("id"),
+            events.get(3).getString("id"),
+            events.get(4).getString("id"));
+    assertThat(subscription.dropped()).isEqualTo(2);
+    assertThat(registry.get("freshplan_dashboard_stream_dropped").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Wartender Client erhält das nächste Event direkt, ohne Puffer")
+  void waitingConsumer_isCompletedDirectly() {
+    Subscription subscription = hub.register(ALL).orElseThrow();
+    CompletableFuture<StreamEvent> pending = subscription.next().toCompletableFuture();
+    JsonObject event = event("direct");
+
+    hub.dispatch(event);
+
+    assertThat(pending).isCompletedWithValueMatching(e -> e.id().equals(event.getString("id")));
+  }
+
+  @Test
+  @DisplayName("Replay: verpasste Events zuerst, Duplikate aus dem Live-Strom werden übersprungen")
+  void replay_thenLive_withoutDuplicates() {
+    UUID lastId = UUID.randomUUID();
+    JsonObject missed1 = event("missed-1");
+    JsonObject missed2 = event("missed-2");
+    JsonObject live = event("live");
+    when(journal.replayAfter(lastId, 100))
+        .thenReturn(
+            Optional.of(
+                List.of(
+                    new JournalEntry("dashboard_updates", missed1),
+                    new JournalEntry("metrics_events", missed2))));
+
+    Multi<StreamEvent> stream = hub.open(ALL, lastId.toString()).orElseThrow();
+    AssertSubscriber<StreamEvent> subscriber =
+        stream.subscribe().withSubscriber(assertSubscriber());
+    hub.dispatch(missed2);
+    hub.dispatch(live);
+
+    subscriber.awaitItems(3);
+    assertThat(subscriber.getItems())
+        .extracting(StreamEvent::id)
+        .containsExactly(missed1.getString("id"), missed2.getString("id"), live.getString("id"));
+    assertThat(registry.get("freshplan_dashboard_stream_open").gauge().value()).isEqualTo(1);
+
+    subscriber.cancel();
+    assertThat(hub.openStreams()).isZero();
+  }
+
+  @Test
+  @DisplayName("Replay: unbekannte, ungültige oder zu alte Last-Event-ID führt zu resync")
+  void replay_unknownId_sendsResync() {
+    when(journal.replayAfter(any(), anyInt())).thenReturn(Optional.empty());
+    Subscription subscription = hub.register(ALL).orElseThrow();
+
+    assertThat(hub.replay(subscription, UUID.randomUUID().toString()))
+        .extracting(StreamEvent::kind)
+        .containsExactly(StreamEvent.Kind.RESYNC);
+    assertThat(hub.replay(subscription, "not-a-uuid"))
+        .extracting(StreamEvent::kind)
+        .containsExactly(StreamEvent.Kind.RESYNC);
+    assertThat(hub.replay(subscription, null)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Limit: weitere Streams werden abgewiesen, Schließen gibt den Slot frei")
+  void maxStreams_rejectsAndReleases() {
+    Subscription first = hub.register(ALL).orElseThrow();
+    hub.register(ALL).orElseThrow();
+
+    assertThat(hub.open(ALL, null)).isEmpty();
+    assertThat(registry.get("freshplan_dashboard_stream_rejected").counter().count()).isEqualTo(1);
+
+    hub.unregister(first);
+    assertThat(hub.register(ALL)).isPresent();
+    assertThat(first.next().toCompletableFuture().join().kind()).isEqualTo(StreamEvent.Kind.CLOSED);
+  }
+
+  private static StreamEvent next(Subscription subscription) {
+    return subscription.next().toCompletableFuture().join();
+  }
+
+  private static AssertSubscriber<StreamEvent> assertSubscriber() {
+    return AssertSubscriber.create(Long.MAX_VALUE);
+  }
+
+  private static JsonObject event(String reason) {
+    JsonObject envelope = envelope("dashboard.lead_status_changed", "DE", "anna");
+    envelope.getJsonObject("data").put("reason", reason);
+    return envelope;
+  }
+
+  private static JsonObject envelope(String type, String territory, String userId) {
+    return new JsonObject()
+        .put("id", UUID.randomUUID().toString())
+        .put("source", "lead-management")
+        .put("type", type)
+        .put("data", new JsonObject().put("territory", territory).put("userId", userId));
+  }
+}
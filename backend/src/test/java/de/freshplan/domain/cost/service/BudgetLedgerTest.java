@@ -0,0 +1,256 @@
+package de.freshplan.domain.cost.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.domain.cost.entity.BudgetLimit;
+import de.freshplan.domain.cost.entity.BudgetPeriod;
+import de.freshplan.domain.cost.repository.BudgetLimitRepository;
+import de.freshplan.domain.cost.repository.CostTransactionRepository;
+import de.freshplan.domain.cost.service.BudgetLedger.LedgerKey;
+import de.freshplan.domain.cost.service.dto.BudgetCheckResult;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit Tests für den BudgetLedger (Reservierung, Commit/Release, Flush, Reconciliation).
+ *
+ * <p>Strategy: Pure Mockito, NO @QuarkusTest, NO DB.
+ */
+@DisplayName("BudgetLedger Unit Tests")
+@Tag("unit")
+class BudgetLedgerTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 14, 30);
+  private static final LedgerKey GLOBAL_TODAY =
+      new LedgerKey("global", "", BudgetPeriod.DAILY, NOW.toLocalDate().atStartOfDay());
+  private static final LedgerKey OPENAI_TODAY =
+      new LedgerKey("service", "openai", BudgetPeriod.DAILY, NOW.toLocalDate().atStartOfDay());
+
+  private BudgetCounterStore counterStore;
+  private BudgetLimitRepository budgetRepository;
+  private CostTransactionRepository transactionRepository;
+  private BudgetLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    counterStore = mock(BudgetCounterStore.class);
+    budgetRepository = mock(BudgetLimitRepository.class);
+    transactionRepository = mock(CostTransactionRepository.class);
+    ledger = new BudgetLedger();
+    ledger.counterStore = counterStore;
+    ledger.budgetRepository = budgetRepository;
+    ledger.transactionRepository = transactionRepository;
+    ledger.reservationTimeout = Duration.ofHours(1);
+
+    // Global: 100 EUR, Hard-Stop 95 EUR, Alert 80 EUR; Service openai: 10 EUR, Hard-Stop 9.50 EUR
+    when(budgetRepository.findByPeriod(BudgetPeriod.DAILY))
+        .thenReturn(
+            List.of(
+                BudgetLimit.createGlobalDailyLimit(new BigDecimal("100.00")),
+                BudgetLimit.createServiceLimit(
+                    "openai", BudgetPeriod.DAILY, new BigDecimal("10.00"))));
+    when(transactionRepository.getTotalCost(any(), any())).thenReturn(new BigDecimal("50.00"));
+    when(transactionRepository.getTotalCostByService(eq("openai"), any(), any()))
+        .thenReturn(new BigDecimal("2.00"));
+    when(counterStore.seed(any(), anyLong(), any()))
+        .thenAnswer(invocation -> invocation.getArgument(1));
+  }
+
+  @Test
+  @DisplayName("check() seeds counters once from the DB and applies hard stop and alert")
+  void checkUsesSeededCounters() {
+    BudgetCheckResult ok = ledger.check("openai", "smart-suggestions", new BigDecimal("1.00"), NOW);
+    BudgetCheckResult serviceStop =
+        ledger.check("openai", "smart-suggestions", new BigDecimal("7.50"), NOW);
+    BudgetCheckResult alert = ledger.check("local", "analysis", new BigDecimal("30.00"), NOW);
+
+    assertThat(ok.canAfford()).isTrue();
+    assertThat(ok.hasWarnings()).isFalse();
+    assertThat(serviceStop.canAfford()).isFalse();
+    assertThat(serviceStop.getReason()).isEqualTo("Service-Budget für openai erreicht");
+    assertThat(alert.canAfford()).isTrue();
+    assertThat(alert.getWarnings()).containsExactly("Globales Tagesbudget bei 80%");
+    verify(transactionRepository, times(1)).getTotalCost(any(), any());
+    verify(transactionRepository, times(1)).getTotalCostByService(eq("openai"), any(), any());
+  }
+
+  @Test
+  @DisplayName("reserve() lets parallel transactions never exceed the hard stop together")
+  void parallelReservationsRespectHardStop() throws Exception {
+    // openai: 2 EUR used, hard stop 9.50 EUR -> at most 7 reservations of 1 EUR
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    ledger.check("openai", "f", BigDecimal.ZERO, NOW); // Zähler vorab anlegen
+    for (int i = 0; i < 20; i++) {
+      results.add(
+          executor.submit(
+              () -> {
+                start.await();
+                try {
+                  ledger.reserve("openai", "f", BigDecimal.ONE, NOW);
+                  return true;
+                } catch (BudgetExceededException e) {
+                  return false;
+                }
+              }));
+    }
+    start.countDown();
+
+    int granted = 0;
+    for (Future<Boolean> result : results) {
+      granted += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+    }
+    executor.shutdownNow();
+
+    assertThat(granted).isEqualTo(7);
+    // Abgelehnte Reservierungen wurden im globalen Zähler zurückgerollt: 50 + 7 EUR reserviert
+    assertThat(ledger.check("local", "f", new BigDecimal("37.99"), NOW).canAfford()).isTrue();
+    assertThat(ledger.check("local", "f", new BigDecimal("38.00"), NOW).canAfford()).isFalse();
+  }
+
+  @Test
+  @DisplayName("commit() replaces the reservation by the actual cost, release() frees it")
+  void commitAndRelease() {
+    UUID committed = UUID.randomUUID();
+    UUID failed = UUID.randomUUID();
+    ledger.bind(committed, ledger.reserve("openai", "f", new BigDecimal("3.00"), NOW));
+    ledger.bind(failed, ledger.reserve("openai", "f", new BigDecimal("4.00"), NOW));
+    // 2 + 3 + 4 = 9 EUR -> 0.50 EUR würde den Hard-Stop erreichen
+    assertThat(ledger.check("openai", "f", new BigDecimal("0.50"), NOW).canAfford()).isFalse();
+
+    ledger.commit(committed, "openai", "f", NOW, new BigDecimal("1.00"));
+    ledger.release(failed);
+    ledger.release(failed); // idempotent
+
+    // 2 + 1 = 3 EUR -> bis 6.49 EUR frei
+    assertThat(ledger.check("openai", "f", new BigDecimal("6.49"), NOW).canAfford()).isTrue();
+    assertThat(ledger.check("openai", "f", new BigDecimal("6.50"), NOW).canAfford()).isFalse();
+  }
+
+  @Test
+  @DisplayName("flush() writes pending deltas in one batch and adopts the cluster totals")
+  @SuppressWarnings("unchecked")
+  void flushWritesDeltasAndAdoptsClusterTotals() {
+    ledger.bind(UUID.randomUUID(), ledger.reserve("openai", "f", BigDecimal.ONE, NOW));
+    UUID id = UUID.randomUUID();
+    ledger.bind(id, ledger.reserve("openai", "f", BigDecimal.ONE, NOW));
+    ledger.commit(id, "openai", "f", NOW, new BigDecimal("0.1234"));
+    // Anderer Pod hat für openai bereits 5 EUR gebucht
+    when(counterStore.addAndLoad(anyMap(), eq(NOW)))
+        .thenReturn(Map.of(OPENAI_TODAY, 70_000L + 1_234L, GLOBAL_TODAY, 501_234L));
+
+    ledger.flush(NOW);
+
+    ArgumentCaptor<Map<LedgerKey, Long>> deltas = ArgumentCaptor.forClass(Map.class);
+    verify(counterStore).addAndLoad(deltas.capture(), eq(NOW));
+    assertThat(deltas.getValue()).containsEntry(OPENAI_TODAY, 1_234L);
+    assertThat(deltas.getValue()).containsEntry(GLOBAL_TODAY, 1_234L);
+    // 7.1234 cluster + 1 EUR reserviert -> ab 1.3766 EUR Hard-Stop
+    assertThat(ledger.check("openai", "f", new BigDecimal("1.3765"), NOW).canAfford()).isTrue();
+    assertThat(ledger.check("openai", "f", new BigDecimal("1.3766"), NOW).canAfford()).isFalse();
+  }
+
+  @Test
+  @DisplayName("flush() keeps the deltas for the next run when the upsert fails")
+  @SuppressWarnings("unchecked")
+  void failedFlushKeepsDeltas() {
+    UUID id = UUID.randomUUID();
+    ledger.bind(id, ledger.reserve("openai", "f", BigDecimal.ONE, NOW));
+    ledger.commit(id, "openai", "f", NOW, BigDecimal.ONE);
+    when(counterStore.addAndLoad(anyMap(), eq(NOW)))
+        .thenThrow(new IllegalStateException("db down"))
+        .thenReturn(Map.of());
+
+    assertThatThrownBy(() -> ledger.flush(NOW)).isInstanceOf(IllegalStateException.class);
+    ledger.flush(NOW);
+
+    ArgumentCaptor<Map<LedgerKey, Long>> deltas = ArgumentCaptor.forClass(Map.class);
+    verify(counterStore, times(2)).addAndLoad(deltas.capture(), eq(NOW));
+    assertThat(deltas.getAllValues().get(1)).containsEntry(OPENAI_TODAY, 10_000L);
+  }
+
+  @Test
+  @DisplayName("flush() and reconcile() never drain the same delta concurrently")
+  @SuppressWarnings("unchecked")
+  void concurrentFlushAndReconcileUpsertDeltaOnce() throws Exception {
+    UUID id = UUID.randomUUID();
+    ledger.bind(id, ledger.reserve("openai", "f", BigDecimal.ONE, NOW));
+    ledger.commit(id, "openai", "f", NOW, BigDecimal.ONE);
+    CountDownLatch firstUpsert = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    when(counterStore.addAndLoad(anyMap(), any()))
+        .thenAnswer(
+            inv -> {
+              firstUpsert.countDown();
+              proceed.await(5, TimeUnit.SECONDS);
+              return Map.of();
+            })
+        .thenReturn(Map.of());
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<?> flush = executor.submit(() -> ledger.flush(NOW));
+      assertThat(firstUpsert.await(5, TimeUnit.SECONDS)).isTrue();
+      Future<?> reconcile = executor.submit(() -> ledger.reconcile(NOW));
+      Thread.sleep(200);
+      // Reconcile waits for the running flush instead of upserting the same delta
+      verify(counterStore, times(1)).addAndLoad(anyMap(), any());
+
+      proceed.countDown();
+      flush.get(5, TimeUnit.SECONDS);
+      reconcile.get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    ArgumentCaptor<Map<LedgerKey, Long>> deltas = ArgumentCaptor.forClass(Map.class);
+    verify(counterStore, times(2)).addAndLoad(deltas.capture(), any());
+    assertThat(deltas.getAllValues().get(0)).containsEntry(OPENAI_TODAY, 10_000L);
+    assertThat(deltas.getAllValues().get(1)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("reconcile() sets counters to the exact DB sums and drops stale reservations")
+  @SuppressWarnings("unchecked")
+  void reconcileUsesExactSums() {
+    ledger.bind(UUID.randomUUID(), ledger.reserve("openai", "f", new BigDecimal("5.00"), NOW));
+    when(counterStore.addAndLoad(anyMap(), any())).thenReturn(Map.of());
+    when(transactionRepository.getTotalCostByService(eq("openai"), any(), any()))
+        .thenReturn(new BigDecimal("4.00"));
+
+    ledger.reconcile(NOW.plusHours(2));
+
+    ArgumentCaptor<Map<LedgerKey, Long>> exact = ArgumentCaptor.forClass(Map.class);
+    verify(counterStore).replaceTotals(exact.capture(), eq(NOW.plusHours(2)));
+    assertThat(exact.getValue()).containsEntry(OPENAI_TODAY, 40_000L);
+    verify(counterStore).deleteExpired(NOW.plusHours(2));
+    // Reservierung ist älter als 1h und wurde freigegeben: 4 EUR gebucht -> bis 5.49 EUR frei
+    assertThat(ledger.check("openai", "f", new BigDecimal("5.49"), NOW).canAfford()).isTrue();
+  }
+
+  @Test
+  @DisplayName("toUnits() converts to 1/10000 EUR with HALF_UP rounding")
+  void toUnits() {
+    assertThat(BudgetLedger.toUnits(new BigDecimal("1.2345"))).isEqualTo(12_345L);
+    assertThat(BudgetLedger.toUnits(new BigDecimal("0.00005"))).isEqualTo(1L);
+    assertThat(BudgetLedger.toUnits(null)).isZero();
+  }
+}
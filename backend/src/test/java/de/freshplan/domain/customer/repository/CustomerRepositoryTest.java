@@ -689,36 +689,6 @@ class CustomerRepositoryTest {
     assertThat(result).anyMatch(c -> c.getCompanyName().equals("Updated Test Company"));
   }
 
-  // ========== UTILITY METHODS ==========
-
-  @Test
-  @TestTransaction
-  void getMaxCustomerNumberForYear_shouldReturnMaxNumber() {
-    // Create customer with higher number
-    Customer highNumberCustomer =
-        createTestCustomerWithNumber("High Number Company", "KD-2025-00099");
-    repository.persist(highNumberCustomer);
-    em.flush();
-
-    Integer maxNumber = repository.getMaxCustomerNumberForYear(2025);
-
-    assertThat(maxNumber).isEqualTo(99);
-  }
-
-  @Test
-  @TestTransaction
-  void getMaxCustomerNumberForYear_shouldReturnNullForNoCustomers() {
-    // Delete all customers for year 2026
-    em.createQuery("DELETE FROM Opportunity").executeUpdate();
-
-    em.createQuery("DELETE FROM Customer WHERE customerNumber LIKE 'KD-2026-%'").executeUpdate();
-    em.flush();
-
-    Integer maxNumber = repository.getMaxCustomerNumberForYear(2026);
-
-    assertThat(maxNumber).isNull();
-  }
-
   // ========== HELPER METHODS ==========
 
   private Customer createTestCustomer(String companyName) {
@@ -739,21 +709,4 @@ class CustomerRepositoryTest {
 
     return customer;
   }
-
-  // For special cases where customer number matters
-  private Customer createTestCustomerWithNumber(String companyName, String customerNumber) {
-    // Use CustomerTestDataFactory and then override the customer number
-    Customer customer =
-        CustomerTestDataFactory.builder()
-            .withCompanyName(companyName)
-            .withStatus(CustomerStatus.PROSPECT)
-            .build(); // build() not persist() - tests handle persistence
-
-    // Override with specific customer number and name
-    customer.setCustomerNumber(customerNumber);
-    // Override company name to remove the [TEST-xxx] prefix that builder adds
-    customer.setCompanyName(companyName);
-
-    return customer;
-  }
 }
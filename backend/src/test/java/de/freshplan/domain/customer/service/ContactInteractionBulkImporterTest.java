@@ -0,0 +1,181 @@
+package de.freshplan.domain.customer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.freshplan.domain.customer.entity.ContactInteraction.InteractionType;
+import de.freshplan.domain.customer.service.ContactInteractionBulkImporter.ContactMetrics;
+import de.freshplan.domain.customer.service.ContactInteractionBulkImporter.ContactStats;
+import de.freshplan.domain.customer.service.ContactInteractionBulkImporter.ImportResult;
+import de.freshplan.domain.customer.service.dto.ContactInteractionDTO;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the bulk interaction import: set-based contact validation, batching and the warmth
+ * recomputation for touched contacts only.
+ */
+@Tag("unit")
+class ContactInteractionBulkImporterTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.now();
+
+  private final UUID contactA = UUID.randomUUID();
+  private final UUID contactB = UUID.randomUUID();
+  private final UUID unknownContact = UUID.randomUUID();
+
+  private List<Set<UUID>> validationQueries;
+  private List<List<ContactInteractionDTO>> insertedBatches;
+  private List<Set<UUID>> statsRequests;
+  private List<ContactMetrics> writtenMetrics;
+  private ContactInteractionBulkImporter importer;
+
+  @BeforeEach
+  void setUp() {
+    validationQueries = new ArrayList<>();
+    insertedBatches = new ArrayList<>();
+    statsRequests = new ArrayList<>();
+    writtenMetrics = new ArrayList<>();
+    importer =
+        new ContactInteractionBulkImporter() {
+          @Override
+          Set<UUID> findExistingContacts(Set<UUID> contactIds) {
+            validationQueries.add(Set.copyOf(contactIds));
+            return Set.of(contactA, contactB);
+          }
+
+          @Override
+          void insertBatch(List<ContactInteractionDTO> batch) {
+            insertedBatches.add(List.copyOf(batch));
+          }
+
+          @Override
+          List<ContactStats> loadContactStats(Set<UUID> contactIds, LocalDateTime recentSince) {
+            statsRequests.add(Set.copyOf(contactIds));
+            return contactIds.stream()
+                .map(
+                    id -> new ContactStats(id, 3, NOW, 3, NOW.minusDays(13), NOW, null, null, 0, 0))
+                .toList();
+          }
+
+          @Override
+          void writeContactMetrics(List<ContactMetrics> metrics) {
+            writtenMetrics.addAll(metrics);
+          }
+        };
+    importer.batchSize = 2;
+  }
+
+  @Test
+  @DisplayName("Contacts are validated with one query, unknown contacts are reported per row")
+  void importInteractions_validatesContactsSetWise() {
+    List<ContactInteractionDTO> dtos =
+        List.of(
+            interaction(contactA),
+            interaction(contactA),
+            interaction(unknownContact),
+            interaction(contactB),
+            interaction(contactB));
+
+    ImportResult result = importer.importInteractions(dtos);
+
+    assertThat(validationQueries).containsExactly(Set.of(contactA, contactB, unknownContact));
+    assertThat(result.imported()).isEqualTo(4);
+    assertThat(result.failed()).isEqualTo(1);
+    assertThat(result.errors()).containsExactly("Contact not found: " + unknownContact);
+  }
+
+  @Test
+  @DisplayName("Valid rows are inserted in batches of the configured size")
+  void importInteractions_insertsInBatches() {
+    List<ContactInteractionDTO> dtos = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      dtos.add(interaction(i % 2 == 0 ? contactA : contactB));
+    }
+
+    importer.importInteractions(dtos);
+
+    assertThat(insertedBatches).extracting(List::size).containsExactly(2, 2, 1);
+  }
+
+  @Test
+  @DisplayName("Metrics are recomputed once, for the touched contacts only")
+  void importInteractions_recomputesTouchedContactsOnly() {
+    ImportResult result =
+        importer.importInteractions(List.of(interaction(contactA), interaction(unknownContact)));
+
+    assertThat(statsRequests).containsExactly(Set.of(contactA));
+    assertThat(result.touchedContacts()).containsExactly(contactA);
+    assertThat(writtenMetrics).extracting(ContactMetrics::contactId).containsExactly(contactA);
+  }
+
+  @Test
+  @DisplayName("Rows without type or timestamp are rejected instead of failing the batch")
+  void importInteractions_rejectsIncompleteRows() {
+    ContactInteractionDTO incomplete = interaction(contactA);
+    incomplete.setTimestamp(null);
+
+    ImportResult result = importer.importInteractions(List.of(incomplete, interaction(contactB)));
+
+    assertThat(result.imported()).isEqualTo(1);
+    assertThat(result.failed()).isEqualTo(1);
+    assertThat(result.errors().get(0)).contains("type and timestamp are required");
+  }
+
+  @Test
+  @DisplayName("Nothing valid: no inserts and no metric updates")
+  void importInteractions_nothingValid_writesNothing() {
+    ImportResult result = importer.importInteractions(List.of(interaction(unknownContact)));
+
+    assertThat(result.imported()).isZero();
+    assertThat(insertedBatches).isEmpty();
+    assertThat(statsRequests).isEmpty();
+    assertThat(writtenMetrics).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Warmth from aggregates uses the weights of the single-contact calculation")
+  void toMetrics_matchesWarmthFormula() {
+    // 14 interactions in 14 days -> 7/week -> frequency 100; sentiment 0.5 -> 75;
+    // engagement 80; 2 of 4 customer inquiries answered -> response 50
+    ContactStats stats =
+        new ContactStats(contactA, 20, NOW, 14, NOW.minusDays(13), NOW, 0.5, 80.0, 4, 2);
+
+    ContactMetrics metrics = ContactInteractionBulkImporter.toMetrics(stats);
+
+    double expected = 100 * 0.3 + 75 * 0.3 + 80 * 0.2 + 50 * 0.2;
+    assertThat(metrics.warmthScore()).isEqualTo((int) Math.round(expected));
+    assertThat(metrics.warmthConfidence()).isEqualTo(100);
+    assertThat(metrics.interactionCount()).isEqualTo(20);
+    assertThat(metrics.lastInteraction()).isEqualTo(NOW);
+  }
+
+  @Test
+  @DisplayName("No recent interactions: stored warmth is kept, counters are still updated")
+  void toMetrics_noRecentInteractions_keepsWarmth() {
+    ContactStats stats =
+        new ContactStats(contactA, 7, NOW.minusYears(1), 0, null, null, null, null, 0, 0);
+
+    ContactMetrics metrics = ContactInteractionBulkImporter.toMetrics(stats);
+
+    assertThat(metrics.warmthScore()).isNull();
+    assertThat(metrics.warmthConfidence()).isNull();
+    assertThat(metrics.interactionCount()).isEqualTo(7);
+  }
+
+  private static ContactInteractionDTO interaction(UUID contactId) {
+    return ContactInteractionDTO.builder()
+        .contactId(contactId)
+        .type(InteractionType.EMAIL)
+        .timestamp(NOW.minusDays(1))
+        .summary("Angebot nachgefasst")
+        .initiatedBy("SALES")
+        .build();
+  }
+}
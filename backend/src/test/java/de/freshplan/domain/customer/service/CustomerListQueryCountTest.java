@@ -0,0 +1,127 @@
+package de.freshplan.domain.customer.service;
+
+import static de.freshplan.test.support.QueryCountAssertion.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.entity.CustomerContact;
+import de.freshplan.domain.customer.entity.CustomerStatus;
+import de.freshplan.domain.customer.repository.CustomerRepository;
+import de.freshplan.domain.customer.service.dto.CustomerListResponse;
+import de.freshplan.domain.customer.service.dto.CustomerResponse;
+import de.freshplan.domain.customer.service.dto.CustomerSearchRequest;
+import de.freshplan.test.builders.ContactTestDataFactory;
+import de.freshplan.test.builders.CustomerTestDataFactory;
+import de.freshplan.test.support.TestTx;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Statement budget for customer list endpoints: count + page + one aggregate query, independent of
+ * page size and of how many children/contacts the customers have (no N+1).
+ */
+@QuarkusTest
+@Tag("integration")
+@DisplayName("Customer list read path - query count")
+class CustomerListQueryCountTest {
+
+  /** count + page + child IDs/contact counts */
+  private static final long MAX_LIST_STATEMENTS = 3;
+
+  private static final String PREFIX = "[TEST-QC] ";
+
+  @Inject CustomerService customerService;
+  @Inject CustomerSearchService searchService;
+  @Inject CustomerRepository customerRepository;
+  @Inject EntityManager em;
+
+  @BeforeEach
+  void setUp() {
+    cleanup();
+    TestTx.committed(
+        () -> {
+          for (int i = 0; i < 12; i++) {
+            Customer parent =
+                CustomerTestDataFactory.builder()
+                    .withCompanyName(PREFIX + "Parent " + i)
+                    .withStatus(CustomerStatus.AKTIV)
+                    .build();
+            customerRepository.persist(parent);
+            for (int c = 0; c < 2; c++) {
+              Customer child =
+                  CustomerTestDataFactory.builder()
+                      .withCompanyName(PREFIX + "Parent " + i + " Filiale " + c)
+                      .withStatus(CustomerStatus.AKTIV)
+                      .build();
+              child.setParentCustomer(parent);
+              customerRepository.persist(child);
+
+              CustomerContact contact =
+                  ContactTestDataFactory.builder().forCustomer(parent).build();
+              em.persist(contact);
+            }
+          }
+        });
+  }
+
+  @AfterEach
+  void cleanup() {
+    TestTx.committed(
+        () -> {
+          em.createNativeQuery(
+                  "DELETE FROM customer_contacts WHERE customer_id IN "
+                      + "(SELECT id FROM customers WHERE company_name LIKE '[TEST-QC]%')")
+              .executeUpdate();
+          em.createNativeQuery(
+                  "DELETE FROM customers WHERE parent_customer_id IN "
+                      + "(SELECT id FROM customers WHERE company_name LIKE '[TEST-QC]%')")
+              .executeUpdate();
+          em.createNativeQuery("DELETE FROM customers WHERE company_name LIKE '[TEST-QC]%'")
+              .executeUpdate();
+        });
+  }
+
+  @Test
+  void getAllCustomers_pageOf20_staysWithinStatementBudget() {
+    CustomerListResponse page =
+        assertMaxStatements(MAX_LIST_STATEMENTS, () -> customerService.getAllCustomers(0, 20));
+
+    assertThat(page.content()).isNotEmpty();
+  }
+
+  @Test
+  void getCustomersByStatus_staysWithinStatementBudget() {
+    CustomerListResponse page =
+        assertMaxStatements(
+            MAX_LIST_STATEMENTS,
+            () -> customerService.getCustomersByStatus(CustomerStatus.AKTIV, 0, 50));
+
+    assertThat(page.content()).isNotEmpty();
+  }
+
+  @Test
+  void search_mapsChildIdsAndContactsWithoutLazyLoads() {
+    CustomerSearchRequest request = new CustomerSearchRequest();
+    request.setGlobalSearch(PREFIX + "Parent");
+
+    List<CustomerResponse> content =
+        assertMaxStatements(MAX_LIST_STATEMENTS, () -> searchService.search(request, 0, 50))
+            .getContent();
+
+    CustomerResponse parent =
+        content.stream()
+            .filter(c -> c.companyName().equals(PREFIX + "Parent 3"))
+            .findFirst()
+            .orElseThrow();
+    assertThat(parent.childCustomerIds()).hasSize(2);
+    assertThat(parent.hasChildren()).isTrue();
+    assertThat(parent.contactsCount()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,107 @@
+package de.freshplan.domain.customer.service.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.entity.CustomerStatus;
+import de.freshplan.domain.customer.repository.CustomerListAggregate;
+import de.freshplan.domain.customer.repository.CustomerRepository;
+import de.freshplan.domain.customer.service.dto.CustomerResponse;
+import de.freshplan.test.builders.CustomerTestDataFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the batched list mapping of {@link CustomerMapper}. */
+@Tag("unit")
+class CustomerMapperListTest {
+
+  private CustomerRepository repository;
+  private CustomerMapper mapper;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(CustomerRepository.class);
+    mapper = new CustomerMapper(repository);
+  }
+
+  @Test
+  void toResponseList_usesOneAggregateLookupForTheWholePage() {
+    Customer a = customer("Alpha");
+    Customer b = customer("Beta");
+    String childId = UUID.randomUUID().toString();
+    when(repository.findListAggregates(List.of(a.getId(), b.getId())))
+        .thenReturn(
+            Map.of(
+                a.getId(),
+                new CustomerListAggregate(List.of(childId), 4),
+                b.getId(),
+                CustomerListAggregate.EMPTY));
+
+    List<CustomerResponse> responses = mapper.toResponseList(List.of(a, b));
+
+    verify(repository, times(1)).findListAggregates(anyCollection());
+    assertThat(responses).hasSize(2);
+    assertThat(responses.get(0).childCustomerIds()).containsExactly(childId);
+    assertThat(responses.get(0).hasChildren()).isTrue();
+    assertThat(responses.get(0).contactsCount()).isEqualTo(4);
+    assertThat(responses.get(1).childCustomerIds()).isEmpty();
+    assertThat(responses.get(1).hasChildren()).isFalse();
+  }
+
+  @Test
+  void toMinimalResponseList_takesContactCountFromAggregate() {
+    Customer a = customer("Alpha");
+    when(repository.findListAggregates(anyCollection()))
+        .thenReturn(Map.of(a.getId(), new CustomerListAggregate(List.of(), 7)));
+
+    List<CustomerResponse> responses = mapper.toMinimalResponseList(List.of(a));
+
+    assertThat(responses.get(0).contactsCount()).isEqualTo(7);
+  }
+
+  @Test
+  void toResponseList_fallsBackToEntityForUnknownCustomers() {
+    Customer parent = customer("Parent");
+    Customer child = customer("Child");
+    parent.getChildCustomers().add(child);
+    when(repository.findListAggregates(anyCollection())).thenReturn(Map.of());
+
+    List<CustomerResponse> responses = mapper.toResponseList(List.of(parent));
+
+    assertThat(responses.get(0).childCustomerIds()).containsExactly(child.getId().toString());
+    assertThat(responses.get(0).contactsCount()).isZero();
+  }
+
+  @Test
+  void toResponseList_emptyPage_skipsAggregateQuery() {
+    when(repository.findListAggregates(anyCollection())).thenCallRealMethod();
+
+    assertThat(mapper.toResponseList(List.of())).isEmpty();
+    assertThat(mapper.toResponseList(null)).isEmpty();
+  }
+
+  @Test
+  void toResponse_singleEntity_matchesListMapping() {
+    Customer a = customer("Alpha");
+    when(repository.findListAggregates(anyCollection()))
+        .thenReturn(Map.of(a.getId(), CustomerListAggregate.EMPTY));
+
+    assertThat(mapper.toResponseList(List.of(a)).get(0)).isEqualTo(mapper.toResponse(a));
+  }
+
+  private static Customer customer(String name) {
+    Customer customer =
+        CustomerTestDataFactory.builder()
+            .withCompanyName(name)
+            .withStatus(CustomerStatus.AKTIV)
+            .build();
+    customer.setId(UUID.randomUUID());
+    return customer;
+  }
+}
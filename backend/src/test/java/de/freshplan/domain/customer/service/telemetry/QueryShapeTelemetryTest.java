@@ -0,0 +1,354 @@
+package de.freshplan.domain.customer.service.telemetry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.domain.customer.service.CustomerQueryBuilder;
+import de.freshplan.domain.customer.service.CustomerQueryBuilder.QuerySpec;
+import de.freshplan.domain.customer.service.dto.CustomerSearchRequest;
+import de.freshplan.domain.customer.service.dto.FilterCriteria;
+import de.freshplan.domain.customer.service.dto.FilterOperator;
+import de.freshplan.domain.customer.service.dto.LogicalOperator;
+import de.freshplan.domain.customer.service.dto.SortCriteria;
+import de.freshplan.domain.customer.service.telemetry.CustomerQuerySqlRenderer.RenderedSql;
+import de.freshplan.domain.customer.service.telemetry.IndexAdvisor.IndexSuggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.panache.common.Sort;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for query-shape fingerprinting, SQL rendering, plan parsing and index advice. */
+@Tag("unit")
+class QueryShapeTelemetryTest {
+
+  private static final Map<String, String> COLUMNS =
+      Map.of(
+          "companyName", "company_name",
+          "customerNumber", "customer_number",
+          "tradingName", "trading_name",
+          "status", "status",
+          "industry", "industry",
+          "riskScore", "risk_score",
+          "expectedAnnualVolume", "expected_annual_volume",
+          "lastContactDate", "last_contact_date",
+          "createdAt", "created_at");
+
+  private static final Set<String> LOW_CARDINALITY = Set.of("status", "industry");
+
+  private final CustomerQueryBuilder builder = new CustomerQueryBuilder();
+
+  private SimpleMeterRegistry registry;
+  private QueryPlanSampler sampler;
+  private QueryShapeTelemetry telemetry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    sampler = mock(QueryPlanSampler.class);
+    CustomerColumnCatalog catalog = mock(CustomerColumnCatalog.class);
+    when(catalog.isLowCardinality(anyString()))
+        .thenAnswer(inv -> LOW_CARDINALITY.contains(inv.<String>getArgument(0)));
+
+    telemetry = new QueryShapeTelemetry();
+    telemetry.meterRegistry = registry;
+    telemetry.planSampler = sampler;
+    telemetry.catalog = catalog;
+    telemetry.enabled = true;
+    telemetry.maxShapes = 3;
+    telemetry.slowThreshold = Duration.ofMillis(500);
+    telemetry.explainEnabled = true;
+    telemetry.explainInterval = Duration.ofMinutes(10);
+    telemetry.adviceMinExecutions = 1;
+  }
+
+  // --- Fingerprint ---
+
+  @Test
+  void shape_ignoresValuesAndAndOrder() {
+    CustomerSearchRequest a =
+        request(
+            FilterCriteria.equals("status", "AKTIV"),
+            new FilterCriteria("riskScore", FilterOperator.GREATER_THAN, 50));
+    CustomerSearchRequest b =
+        request(
+            new FilterCriteria("riskScore", FilterOperator.GREATER_THAN, 80),
+            FilterCriteria.equals("status", "LEAD"));
+
+    QueryShape shapeA = shape(a);
+    QueryShape shapeB = shape(b);
+
+    assertThat(shapeA.id()).isEqualTo(shapeB.id()).hasSize(12);
+    assertThat(shapeA.fingerprint()).isEqualTo("riskScore GREATER_THAN AND status EQUALS");
+  }
+
+  @Test
+  void shape_distinguishesSortAndKeepsOrderWithOr() {
+    CustomerSearchRequest sorted = request(FilterCriteria.equals("status", "AKTIV"));
+    sorted.setMultiSort(List.of(SortCriteria.desc("riskScore"), SortCriteria.asc("companyName")));
+    CustomerSearchRequest unsorted = request(FilterCriteria.equals("status", "AKTIV"));
+
+    assertThat(shape(sorted).id()).isNotEqualTo(shape(unsorted).id());
+    assertThat(shape(sorted).fingerprint())
+        .isEqualTo("status EQUALS | riskScore DESC, companyName ASC");
+
+    CustomerSearchRequest or =
+        request(
+            FilterCriteria.equals("status", "AKTIV"),
+            new FilterCriteria("industry", FilterOperator.EQUALS, "HOTEL", LogicalOperator.OR));
+    assertThat(shape(or).orCombined()).isTrue();
+    assertThat(shape(or).fingerprint()).isEqualTo("status EQUALS OR industry EQUALS");
+  }
+
+  @Test
+  void shape_smartSortUsesMappedSortColumns() {
+    CustomerSearchRequest request = request();
+    request.setGlobalSearch("müller");
+    request.setMultiSort(List.of(SortCriteria.desc("unknownField")));
+
+    assertThat(shape(request).fingerprint()).isEqualTo("global | companyName DESC");
+  }
+
+  // --- SQL rendering ---
+
+  @Test
+  void renderer_mapsColumnsAndExpandsParameters() {
+    CustomerSearchRequest request =
+        request(
+            new FilterCriteria("status", FilterOperator.IN, List.of("AKTIV", "LEAD")),
+            new FilterCriteria("riskScore", FilterOperator.BETWEEN, List.of(10, 90)),
+            new FilterCriteria("companyName", FilterOperator.STARTS_WITH, "Hotel"));
+    request.setMultiSort(List.of(SortCriteria.desc("riskScore")));
+
+    RenderedSql sql =
+        CustomerQuerySqlRenderer.render(
+            builder.buildSpec(request), "customers", this::column, 20, 40);
+
+    assertThat(sql.sql())
+        .isEqualTo(
+            "SELECT * FROM customers WHERE status IN (?, ?) AND risk_score BETWEEN ? AND ? "
+                + "AND LOWER(company_name) LIKE ? ORDER BY risk_score DESC LIMIT 20 OFFSET 40");
+    assertThat(sql.bindings()).containsExactly("AKTIV", "LEAD", 10, 90, "hotel%");
+  }
+
+  @Test
+  void renderer_withoutFilters_rendersTautology() {
+    RenderedSql sql =
+        CustomerQuerySqlRenderer.render(
+            builder.buildSpec(request()), "customers", this::column, 10, 0);
+
+    assertThat(sql.sql()).isEqualTo("SELECT * FROM customers WHERE 1=1 LIMIT 10 OFFSET 0");
+    assertThat(sql.bindings()).isEmpty();
+  }
+
+  @Test
+  void renderer_unmappedAttributesAndForeignCharacters_areRejected() {
+    CustomerSearchRequest unknownField =
+        request(new FilterCriteria("pg_sleep", FilterOperator.IS_NULL, null));
+    assertThatThrownBy(
+            () ->
+                CustomerQuerySqlRenderer.render(
+                    builder.buildSpec(unknownField), "customers", this::column, 10, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("pg_sleep");
+
+    QuerySpec injected = new QuerySpec("companyName = 'x'; DELETE FROM customers", Map.of(), null);
+    assertThatThrownBy(
+            () -> CustomerQuerySqlRenderer.render(injected, "customers", this::column, 10, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    QuerySpec unmappedSort = new QuerySpec("1=1", Map.of(), Sort.by("secret"));
+    assertThatThrownBy(
+            () -> CustomerQuerySqlRenderer.render(unmappedSort, "customers", this::column, 10, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("secret");
+  }
+
+  // --- Plan parsing ---
+
+  @Test
+  void plan_extractsTimingsBuffersAndScans() {
+    String json =
+        """
+        [{"Plan": {"Node Type": "Limit", "Shared Hit Blocks": 120, "Shared Read Blocks": 7,
+          "Plans": [{"Node Type": "Sort", "Plans": [
+            {"Node Type": "Seq Scan", "Relation Name": "customers"},
+            {"Node Type": "Index Scan", "Relation Name": "customers",
+             "Index Name": "idx_customers_status"}]}]},
+          "Planning Time": 0.8, "Execution Time": 612.5}]
+        """;
+
+    QueryPlanSample plan = QueryPlanSample.parse("SELECT 1", json, Instant.EPOCH);
+
+    assertThat(plan.executionMs()).isEqualTo(612.5);
+    assertThat(plan.planningMs()).isEqualTo(0.8);
+    assertThat(plan.sharedHitBlocks()).isEqualTo(120);
+    assertThat(plan.sharedReadBlocks()).isEqualTo(7);
+    assertThat(plan.seqScanOn("customers")).isTrue();
+    assertThat(plan.indexes()).containsExactly("idx_customers_status");
+  }
+
+  // --- Index advice ---
+
+  @Test
+  void advisor_ordersEqualitySortRange() {
+    CustomerSearchRequest request =
+        request(
+            new FilterCriteria("lastContactDate", FilterOperator.LESS_THAN, "2025-01-01"),
+            FilterCriteria.equals("industry", "HOTEL"));
+    request.setMultiSort(List.of(SortCriteria.desc("expectedAnnualVolume")));
+
+    List<IndexSuggestion> suggestions = advisor(List.of()).suggest(stats(request));
+
+    assertThat(suggestions).hasSize(1);
+    assertThat(suggestions.get(0).kind()).isEqualTo("composite");
+    assertThat(suggestions.get(0).ddl())
+        .isEqualTo(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS "
+                + "idx_customers_industry_expected_annual_volume_last_contact_date ON customers "
+                + "(industry, expected_annual_volume, last_contact_date);");
+  }
+
+  @Test
+  void advisor_dominantLowCardinalityValue_becomesPartialPredicate() {
+    CustomerSearchRequest request = request(FilterCriteria.equals("status", "AKTIV"));
+    request.setMultiSort(List.of(SortCriteria.desc("riskScore"), SortCriteria.asc("companyName")));
+    QueryShapeStats stats = stats(request);
+    for (int i = 0; i < 10; i++) {
+      stats.recordEqualityValue("status", "AKTIV");
+    }
+
+    List<IndexSuggestion> suggestions = advisor(List.of()).suggest(stats);
+
+    assertThat(suggestions.get(0).kind()).isEqualTo("partial");
+    assertThat(suggestions.get(0).ddl())
+        .contains("(risk_score DESC, company_name)")
+        .endsWith(" WHERE status = 'AKTIV';");
+  }
+
+  @Test
+  void advisor_skipsIndexesThatAlreadyExist() {
+    CustomerSearchRequest request = request(FilterCriteria.equals("industry", "HOTEL"));
+    request.setMultiSort(List.of(SortCriteria.asc("companyName")));
+
+    List<IndexSuggestion> suggestions =
+        advisor(
+                List.of(
+                    "CREATE INDEX idx_x ON public.customers USING btree "
+                        + "(industry, company_name, created_at)"))
+            .suggest(stats(request));
+
+    assertThat(suggestions).isEmpty();
+  }
+
+  @Test
+  void advisor_globalSearchAndOr_suggestTrigramAndPerColumnIndexes() {
+    CustomerSearchRequest request =
+        request(
+            FilterCriteria.equals("status", "AKTIV"),
+            new FilterCriteria("industry", FilterOperator.EQUALS, "HOTEL", LogicalOperator.OR));
+    request.setGlobalSearch("frisch");
+
+    List<IndexSuggestion> suggestions =
+        advisor(
+                List.of(
+                    "CREATE INDEX idx_t ON public.customers USING gin "
+                        + "(lower((company_name)::text) gin_trgm_ops)"))
+            .suggest(stats(request));
+
+    assertThat(suggestions)
+        .extracting(IndexSuggestion::kind)
+        .containsExactly("trigram", "trigram", "single", "single");
+    assertThat(suggestions.get(0).ddl())
+        .contains("USING gin (lower(customer_number) gin_trgm_ops)");
+  }
+
+  // --- Telemetry ---
+
+  @Test
+  void record_tracksMetricsPerShapeAndSamplesSlowShapesOnce() {
+    CustomerSearchRequest request = request(FilterCriteria.equals("status", "AKTIV"));
+    QuerySpec spec = builder.buildSpec(request);
+    String id = shape(request).id();
+
+    telemetry.record(request, spec, Duration.ofMillis(20).toNanos(), 5, 0, 20);
+    telemetry.record(request, spec, Duration.ofMillis(800).toNanos(), 7, 0, 20);
+    telemetry.record(request, spec, Duration.ofMillis(900).toNanos(), 9, 1, 20);
+
+    assertThat(registry.get("freshplan_customer_query_duration").tag("shape", id).timer().count())
+        .isEqualTo(3);
+    assertThat(
+            registry.get("freshplan_customer_query_rows").tag("shape", id).summary().totalAmount())
+        .isEqualTo(21);
+    verify(sampler, times(1)).sampleAsync(any(), eq(spec), eq(0), eq(20));
+
+    QueryShapeTelemetry.ShapeReport report = telemetry.find(id).orElseThrow();
+    assertThat(report.count()).isEqualTo(3);
+    assertThat(report.slowCount()).isEqualTo(2);
+    assertThat(report.meanRows()).isEqualTo(7);
+    assertThat(report.maxMs()).isEqualTo(900);
+  }
+
+  @Test
+  void record_beyondCap_countsAsOther() {
+    for (String field : List.of("status", "industry", "riskScore", "companyName", "createdAt")) {
+      CustomerSearchRequest request =
+          request(new FilterCriteria(field, FilterOperator.IS_NULL, null));
+      telemetry.record(request, builder.buildSpec(request), 1_000_000, 1, 0, 20);
+    }
+
+    assertThat(telemetry.ranking(10))
+        .extracting(QueryShapeTelemetry.ShapeReport::id)
+        .hasSize(4)
+        .contains(QueryShapeTelemetry.OTHER);
+    assertThat(telemetry.find(QueryShapeTelemetry.OTHER).orElseThrow().count()).isEqualTo(2);
+  }
+
+  @Test
+  void record_disabledOrBroken_neverThrows() {
+    CustomerSearchRequest request = request(FilterCriteria.equals("status", "AKTIV"));
+    telemetry.record(request, new QuerySpec("1=1", Map.of(), null), 1, 1, 0, 20);
+    telemetry.meterRegistry = null;
+    CustomerSearchRequest other = request(FilterCriteria.equals("industry", "HOTEL"));
+
+    telemetry.record(other, builder.buildSpec(other), 1, 1, 0, 20);
+
+    assertThat(telemetry.ranking(10)).hasSize(1);
+    verify(sampler, never()).sampleAsync(any(), any(), anyInt(), anyInt());
+  }
+
+  // --- helpers ---
+
+  private static CustomerSearchRequest request(FilterCriteria... filters) {
+    CustomerSearchRequest request = new CustomerSearchRequest();
+    request.setFilters(List.of(filters));
+    return request;
+  }
+
+  private QueryShape shape(CustomerSearchRequest request) {
+    return QueryShape.of(request, builder.buildSpec(request).sort());
+  }
+
+  private QueryShapeStats stats(CustomerSearchRequest request) {
+    return new QueryShapeStats(shape(request));
+  }
+
+  private IndexAdvisor advisor(List<String> existing) {
+    return new IndexAdvisor("customers", this::column, LOW_CARDINALITY::contains, existing);
+  }
+
+  private Optional<String> column(String attribute) {
+    return Optional.ofNullable(COLUMNS.get(attribute));
+  }
+}
@@ -0,0 +1,233 @@
+package de.freshplan.domain.customer.service.timeline.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedCursor.Relation;
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedItem.Source;
+import de.freshplan.domain.customer.service.timeline.feed.ActivityFeedRepository.FeedScope;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the activity feed: k-way merge order, cursor semantics per source, has-more and
+ * the capped total. The sources are emulated in memory with the same keyset predicates as the SQL
+ * in {@link ActivityFeedRepository}.
+ */
+@Tag("unit")
+class ActivityFeedServiceTest {
+
+  private static final UUID CUSTOMER_ID = UUID.randomUUID();
+  private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+  /** Database order within one source: timestamp DESC, id DESC. */
+  private static final Comparator<ActivityFeedItem> SOURCE_ORDER =
+      Comparator.comparing(ActivityFeedItem::occurredAt)
+          .thenComparing(ActivityFeedItem::id)
+          .reversed();
+
+  private Map<Source, List<ActivityFeedItem>> tables;
+  private Long originalLeadId;
+  private List<Integer> requestedLimits;
+  private int countCalls;
+  private ActivityFeedService service;
+
+  @BeforeEach
+  void setUp() {
+    tables = new EnumMap<>(Source.class);
+    for (Source source : Source.values()) {
+      tables.put(source, new ArrayList<>());
+    }
+    originalLeadId = 42L;
+    requestedLimits = new ArrayList<>();
+    countCalls = 0;
+    service =
+        new ActivityFeedService() {
+          @Override
+          FeedScope resolveScope(UUID customerId) {
+            return new FeedScope(customerId, originalLeadId);
+          }
+
+          @Override
+          List<ActivityFeedItem> loadSource(
+              Source source, FeedScope scope, ActivityFeedCursor after, String pattern, int limit) {
+            requestedLimits.add(limit);
+            return tables.get(source).stream()
+                .filter(item -> after == null || isAfter(item, after))
+                .sorted(SOURCE_ORDER)
+                .limit(limit)
+                .toList();
+          }
+
+          @Override
+          long countSource(Source source, FeedScope scope, String pattern, int cap) {
+            countCalls++;
+            return Math.min(tables.get(source).size(), cap);
+          }
+        };
+    service.maxPageSize = 100;
+    service.countCap = 1000;
+  }
+
+  @Test
+  @DisplayName("Paging through a 10k-event history returns every entry once in feed order")
+  void paging_largeHistory_noGapsNoDuplicates() {
+    SplittableRandom random = new SplittableRandom(11);
+    // Few distinct timestamps -> many ties within and across sources
+    for (int i = 0; i < 10_000; i++) {
+      Source source = Source.values()[random.nextInt(3)];
+      tables
+          .get(source)
+          .add(item(source, String.format("%06d", i), BASE.minusMinutes(random.nextInt(500))));
+    }
+
+    List<ActivityFeedItem> all = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    ActivityFeedResponse page;
+    do {
+      page = service.getFeed(CUSTOMER_ID, cursor, 100, null);
+      all.addAll(page.items());
+      cursor = page.nextCursor();
+      pages++;
+    } while (page.hasMore());
+
+    assertThat(pages).isEqualTo(100);
+    assertThat(all).hasSize(10_000);
+    Set<String> keys = new HashSet<>();
+    all.forEach(item -> keys.add(item.source() + ":" + item.id()));
+    assertThat(keys).hasSize(10_000);
+    for (int i = 1; i < all.size(); i++) {
+      ActivityFeedItem prev = all.get(i - 1);
+      ActivityFeedItem cur = all.get(i);
+      assertThat(ActivityFeedService.FEED_ORDER.compare(prev, cur)).isLessThanOrEqualTo(0);
+      if (prev.source() == cur.source() && prev.occurredAt().equals(cur.occurredAt())) {
+        assertThat(prev.id()).isGreaterThan(cur.id());
+      }
+    }
+    // Each source read is bounded by the page size, independent of the history length
+    assertThat(requestedLimits).containsOnly(101);
+  }
+
+  @Test
+  @DisplayName("k-way merge interleaves sources by timestamp, source order breaks ties")
+  void merge_interleavesSources() {
+    Map<Source, List<ActivityFeedItem>> pages = new EnumMap<>(Source.class);
+    pages.put(
+        Source.TIMELINE,
+        List.of(
+            item(Source.TIMELINE, "t1", BASE), item(Source.TIMELINE, "t2", BASE.minusHours(2))));
+    pages.put(
+        Source.LEAD_ACTIVITY,
+        List.of(
+            item(Source.LEAD_ACTIVITY, "9", BASE.plusHours(1)),
+            item(Source.LEAD_ACTIVITY, "8", BASE)));
+    pages.put(Source.INTERACTION, List.of(item(Source.INTERACTION, "i1", BASE.minusHours(1))));
+
+    List<ActivityFeedItem> merged = ActivityFeedService.merge(pages, 10);
+
+    assertThat(merged).extracting(ActivityFeedItem::id).containsExactly("9", "t1", "8", "i1", "t2");
+  }
+
+  @Test
+  @DisplayName("Last page: hasMore false and no cursor")
+  void lastPage_hasNoCursor() {
+    tables.get(Source.TIMELINE).add(item(Source.TIMELINE, "a", BASE));
+    tables.get(Source.INTERACTION).add(item(Source.INTERACTION, "b", BASE.minusDays(1)));
+
+    ActivityFeedResponse page = service.getFeed(CUSTOMER_ID, null, 2, null);
+
+    assertThat(page.items()).hasSize(2);
+    assertThat(page.hasMore()).isFalse();
+    assertThat(page.nextCursor()).isNull();
+  }
+
+  @Test
+  @DisplayName("Total only on the first page, capped per source")
+  void estimatedTotal_firstPageOnlyAndCapped() {
+    service.countCap = 50;
+    for (int i = 0; i < 80; i++) {
+      tables.get(Source.TIMELINE).add(item(Source.TIMELINE, "t" + i, BASE.minusMinutes(i)));
+    }
+    for (int i = 0; i < 10; i++) {
+      tables.get(Source.INTERACTION).add(item(Source.INTERACTION, "i" + i, BASE.minusMinutes(i)));
+    }
+
+    ActivityFeedResponse first = service.getFeed(CUSTOMER_ID, null, 20, null);
+    assertThat(first.estimatedTotal()).isEqualTo(60L);
+    assertThat(first.estimateCapped()).isTrue();
+
+    int callsAfterFirstPage = countCalls;
+    ActivityFeedResponse second = service.getFeed(CUSTOMER_ID, first.nextCursor(), 20, null);
+    assertThat(second.estimatedTotal()).isNull();
+    assertThat(countCalls).isEqualTo(callsAfterFirstPage);
+  }
+
+  @Test
+  @DisplayName("Customer without original lead: lead activities are not read")
+  void noOriginalLead_skipsLeadActivities() {
+    originalLeadId = null;
+    tables.get(Source.LEAD_ACTIVITY).add(item(Source.LEAD_ACTIVITY, "1", BASE));
+    tables.get(Source.TIMELINE).add(item(Source.TIMELINE, "t", BASE));
+
+    ActivityFeedResponse page = service.getFeed(CUSTOMER_ID, null, 10, null);
+
+    assertThat(page.items()).extracting(ActivityFeedItem::source).containsOnly(Source.TIMELINE);
+    assertThat(requestedLimits).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Cursor: encode/decode round trip and relation per source")
+  void cursor_roundTripAndRelations() {
+    ActivityFeedCursor cursor =
+        new ActivityFeedCursor(BASE.withNano(123_456_000), Source.LEAD_ACTIVITY, "4711");
+
+    ActivityFeedCursor decoded = ActivityFeedCursor.decode(cursor.encode());
+
+    assertThat(decoded).isEqualTo(cursor);
+    assertThat(cursor.relationTo(Source.TIMELINE)).isEqualTo(Relation.BEFORE_TIMESTAMP);
+    assertThat(cursor.relationTo(Source.LEAD_ACTIVITY)).isEqualTo(Relation.BEFORE_ROW);
+    assertThat(cursor.relationTo(Source.INTERACTION)).isEqualTo(Relation.AT_OR_BEFORE_TIMESTAMP);
+  }
+
+  @Test
+  @DisplayName("Malformed cursor is rejected with IllegalArgumentException (400)")
+  void cursor_malformed_rejected() {
+    assertThatThrownBy(() -> service.getFeed(CUSTOMER_ID, "not-a-cursor!", 10, null))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ActivityFeedCursor.decode("Zm9vfGJhcnxiYXo"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Search input is matched literally (LIKE wildcards escaped)")
+  void likePattern_escapesWildcards() {
+    assertThat(ActivityFeedService.likePattern(" 50%_Rabatt ")).isEqualTo("%50\\%\\_rabatt%");
+  }
+
+  /** Same predicates as {@link ActivityFeedRepository} builds in SQL. */
+  private static boolean isAfter(ActivityFeedItem item, ActivityFeedCursor cursor) {
+    int ts = item.occurredAt().compareTo(cursor.occurredAt());
+    return switch (cursor.relationTo(item.source())) {
+      case BEFORE_TIMESTAMP -> ts < 0;
+      case AT_OR_BEFORE_TIMESTAMP -> ts <= 0;
+      case BEFORE_ROW -> ts < 0 || (ts == 0 && item.id().compareTo(cursor.id()) < 0);
+    };
+  }
+
+  private static ActivityFeedItem item(Source source, String id, LocalDateTime at) {
+    return new ActivityFeedItem(source, id, at, "NOTE", "Titel " + id, null, "tester");
+  }
+}
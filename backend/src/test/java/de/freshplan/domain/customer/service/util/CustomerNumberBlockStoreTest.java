@@ -0,0 +1,244 @@
+package de.freshplan.domain.customer.service.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for {@link CustomerNumberBlockStore} against {@code customer_number_counters}
+ * (V10064): the upserts of {@code RESERVE_SQL} and {@code ADVANCE_SQL} under concurrency, manual
+ * numbers and the year rollover.
+ *
+ * <p>Reservations commit in their own transaction ({@code REQUIRES_NEW}), so no
+ * {@code @TestTransaction}: each test uses counter rows of a random far-future year and deletes
+ * them afterwards.
+ */
+@QuarkusTest
+@Tag("integration")
+@DisplayName("CustomerNumberBlockStore Integration Tests")
+class CustomerNumberBlockStoreTest {
+
+  @Inject CustomerNumberBlockStore blockStore;
+  @Inject DataSource dataSource;
+
+  private int year;
+
+  @BeforeEach
+  void setUp() {
+    year = ThreadLocalRandom.current().nextInt(2500, 2900);
+    deleteCounters();
+  }
+
+  @AfterEach
+  void tearDown() {
+    deleteCounters();
+  }
+
+  @Test
+  @DisplayName("First reservation of a year creates the counter and starts at 1")
+  void reserve_createsCounterForNewYear() {
+    assertThat(blockStore.reserve(year, 5)).isEqualTo(1);
+    assertThat(blockStore.reserve(year, 3)).isEqualTo(6);
+    assertThat(nextValue(year)).isEqualTo(9);
+  }
+
+  @Test
+  @DisplayName("Concurrent reservations of one year never overlap")
+  void reserve_concurrentBlocksAreDisjoint() throws Exception {
+    int threads = 8;
+    int reservationsPerThread = 25;
+    int blockSize = 3;
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    Set<Integer> issued = ConcurrentHashMap.newKeySet();
+    AtomicInteger duplicates = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < reservationsPerThread; i++) {
+                    int first = blockStore.reserve(year, blockSize);
+                    for (int n = first; n < first + blockSize; n++) {
+                      if (!issued.add(n)) {
+                        duplicates.incrementAndGet();
+                      }
+                    }
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int total = threads * reservationsPerThread * blockSize;
+    assertThat(duplicates).hasValue(0);
+    // Without rollbacks the blocks tile 1..total without gaps
+    assertThat(issued).hasSize(total);
+    assertThat(issued).allMatch(n -> n >= 1 && n <= total);
+    assertThat(nextValue(year)).isEqualTo(total + 1);
+  }
+
+  @Test
+  @DisplayName("Two generator nodes hand out unique customer numbers concurrently")
+  void generator_twoNodesNeverDuplicate() throws Exception {
+    Clock clock = clockAt(LocalDateTime.of(year, 6, 1, 12, 0));
+    List<CustomerNumberGeneratorService> nodes =
+        List.of(
+            new CustomerNumberGeneratorService(blockStore, 7, clock),
+            new CustomerNumberGeneratorService(blockStore, 13, clock));
+    int threadsPerNode = 4;
+    int numbersPerThread = 100;
+
+    ExecutorService executor = Executors.newFixedThreadPool(nodes.size() * threadsPerNode);
+    CountDownLatch start = new CountDownLatch(1);
+    Set<String> issued = ConcurrentHashMap.newKeySet();
+    AtomicInteger duplicates = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (CustomerNumberGeneratorService node : nodes) {
+        for (int t = 0; t < threadsPerNode; t++) {
+          futures.add(
+              executor.submit(
+                  () -> {
+                    start.await();
+                    for (int i = 0; i < numbersPerThread; i++) {
+                      if (!issued.add(node.generateNext())) {
+                        duplicates.incrementAndGet();
+                      }
+                    }
+                    return null;
+                  }));
+        }
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int total = nodes.size() * threadsPerNode * numbersPerThread;
+    assertThat(duplicates).hasValue(0);
+    assertThat(issued).hasSize(total);
+    assertThat(issued).allMatch(number -> number.startsWith("KD-" + year + "-"));
+    // Gaps are limited to the unused remainder of each node's last block
+    assertThat(nextValue(year) - 1).isLessThanOrEqualTo(total + 7 + 13);
+  }
+
+  @Test
+  @DisplayName("registerManual moves the counter past a manual number, never backwards")
+  void registerManual_advancesCounter() {
+    CustomerNumberGeneratorService generator =
+        new CustomerNumberGeneratorService(
+            blockStore, 1, clockAt(LocalDateTime.of(year, 3, 1, 9, 0)));
+    assertThat(generator.generateNext()).isEqualTo(number(year, 1));
+
+    generator.registerManual(number(year, 500));
+    assertThat(nextValue(year)).isEqualTo(501);
+    assertThat(generator.generateNext()).isEqualTo(number(year, 501));
+
+    generator.registerManual(number(year, 42));
+    assertThat(nextValue(year)).isEqualTo(502);
+    assertThat(generator.generateNext()).isEqualTo(number(year, 502));
+  }
+
+  @Test
+  @DisplayName("registerManual for a year without counter creates it behind the manual number")
+  void advancePast_createsCounter() {
+    blockStore.advancePast(year, 77);
+
+    assertThat(nextValue(year)).isEqualTo(78);
+    assertThat(blockStore.reserve(year, 2)).isEqualTo(78);
+  }
+
+  @Test
+  @DisplayName("Year rollover: the first number of the new year starts at 00001")
+  void generator_yearRollover() {
+    CustomerNumberGeneratorService lastDay =
+        new CustomerNumberGeneratorService(
+            blockStore, 10, clockAt(LocalDateTime.of(year, 12, 31, 23, 59)));
+    assertThat(lastDay.generateNext()).isEqualTo(number(year, 1));
+    assertThat(lastDay.generateNext()).isEqualTo(number(year, 2));
+
+    CustomerNumberGeneratorService newYear =
+        new CustomerNumberGeneratorService(
+            blockStore, 10, clockAt(LocalDateTime.of(year + 1, 1, 1, 0, 1)));
+    assertThat(newYear.generateNext()).isEqualTo(number(year + 1, 1));
+    assertThat(newYear.generateNextBlock(3))
+        .containsExactly(number(year + 1, 11), number(year + 1, 12), number(year + 1, 13));
+
+    // The old year's counter is untouched by the new year
+    assertThat(nextValue(year)).isEqualTo(11);
+    assertThat(nextValue(year + 1)).isEqualTo(14);
+  }
+
+  private static String number(int year, int sequence) {
+    return String.format("KD-%04d-%05d", year, sequence);
+  }
+
+  private static Clock clockAt(LocalDateTime time) {
+    return Clock.fixed(time.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+  }
+
+  private int nextValue(int counterYear) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement(
+                "SELECT next_value FROM customer_number_counters WHERE year = ?")) {
+      statement.setInt(1, counterYear);
+      try (ResultSet rs = statement.executeQuery()) {
+        assertThat(rs.next()).as("counter row for %d", counterYear).isTrue();
+        return rs.getInt(1);
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void deleteCounters() {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement(
+                "DELETE FROM customer_number_counters WHERE year IN (?, ?)")) {
+      statement.setInt(1, year);
+      statement.setInt(2, year + 1);
+      statement.executeUpdate();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package de.freshplan.domain.customer.service.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for block-allocated customer numbers.
+ *
+ * <p>Strategy: Several generator instances ("nodes") share one in-memory counter store that behaves
+ * like the atomic upsert on {@code customer_number_counters}, NO @QuarkusTest, NO DB.
+ */
+@DisplayName("CustomerNumberGeneratorService Unit Tests")
+@Tag("unit")
+class CustomerNumberGeneratorServiceTest {
+
+  private CounterStore store;
+  private AtomicReference<Instant> now;
+  private Clock clock;
+
+  @BeforeEach
+  void setUp() {
+    store = new CounterStore();
+    now = new AtomicReference<>(LocalDateTime.of(2025, 6, 1, 12, 0).toInstant(ZoneOffset.UTC));
+    clock =
+        new Clock() {
+          @Override
+          public ZoneId getZone() {
+            return ZoneOffset.UTC;
+          }
+
+          @Override
+          public Clock withZone(ZoneId zone) {
+            return this;
+          }
+
+          @Override
+          public Instant instant() {
+            return now.get();
+          }
+        };
+  }
+
+  @Test
+  @DisplayName("Numbers come from memory, the counter is touched once per block")
+  void generateNext_dispensesFromBlock() {
+    CustomerNumberGeneratorService node = node(5);
+
+    List<String> numbers = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      numbers.add(node.generateNext());
+    }
+
+    assertThat(numbers.get(0)).isEqualTo("KD-2025-00001");
+    assertThat(numbers.get(11)).isEqualTo("KD-2025-00012");
+    assertThat(numbers).allMatch(node::isValidFormat);
+    assertThat(store.reservations.get()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Stress: 4 nodes x 8 threads never hand out a number twice")
+  void generateNext_uniqueAcrossNodes() throws Exception {
+    store.latencyMillis = 1; // widen the race window of concurrent refills
+    List<CustomerNumberGeneratorService> nodes =
+        List.of(node(7), node(7), node(13), node(1)); // block size 1 = no local batching
+    int threadsPerNode = 8;
+    int numbersPerThread = 250;
+
+    ExecutorService executor = Executors.newFixedThreadPool(nodes.size() * threadsPerNode);
+    CountDownLatch start = new CountDownLatch(1);
+    Set<String> issued = ConcurrentHashMap.newKeySet();
+    AtomicInteger duplicates = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (CustomerNumberGeneratorService node : nodes) {
+        for (int t = 0; t < threadsPerNode; t++) {
+          futures.add(
+              executor.submit(
+                  () -> {
+                    start.await();
+                    for (int i = 0; i < numbersPerThread; i++) {
+                      if (!issued.add(node.generateNext())) {
+                        duplicates.incrementAndGet();
+                      }
+                    }
+                    return null;
+                  }));
+        }
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(20, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int total = nodes.size() * threadsPerNode * numbersPerThread;
+    assertThat(duplicates).hasValue(0);
+    assertThat(issued).hasSize(total);
+    // Gaps are limited to the unused remainder of each node's last block
+    assertThat(store.next(2025) - 1).isLessThanOrEqualTo(total + 7 + 7 + 13 + 1);
+  }
+
+  @Test
+  @DisplayName("Gaps: a restarted node continues after the counter, never below")
+  void restart_leavesGap() {
+    CustomerNumberGeneratorService node = node(10);
+    assertThat(node.generateNext()).isEqualTo("KD-2025-00001");
+    assertThat(node.generateNext()).isEqualTo("KD-2025-00002");
+
+    CustomerNumberGeneratorService restarted = node(10);
+    assertThat(restarted.generateNext()).isEqualTo("KD-2025-00011");
+    // The old node still owns 3..10
+    assertThat(node.generateNext()).isEqualTo("KD-2025-00003");
+  }
+
+  @Test
+  @DisplayName("Year rollover: the first number of a new year starts at 00001")
+  void generateNext_yearRollover() {
+    CustomerNumberGeneratorService node = node(10);
+    assertThat(node.generateNext()).isEqualTo("KD-2025-00001");
+
+    now.set(LocalDateTime.of(2026, 1, 1, 0, 0, 1).toInstant(ZoneOffset.UTC));
+    assertThat(node.generateNext()).isEqualTo("KD-2026-00001");
+    assertThat(node.generateNext()).isEqualTo("KD-2026-00002");
+
+    // Explicit years keep their own counters
+    assertThat(node.generateForYear(2025)).isEqualTo("KD-2025-00011");
+  }
+
+  @Test
+  @DisplayName("Bulk: consecutive numbers with one reservation, next to the node's block")
+  void generateNextBlock_reservesConsecutiveNumbers() {
+    CustomerNumberGeneratorService node = node(10);
+    assertThat(node.generateNext()).isEqualTo("KD-2025-00001");
+
+    List<String> bulk = node.generateNextBlock(4);
+
+    assertThat(bulk)
+        .containsExactly("KD-2025-00011", "KD-2025-00012", "KD-2025-00013", "KD-2025-00014");
+    assertThat(node.generateNext()).isEqualTo("KD-2025-00002");
+    assertThat(node.generateNextBlock(0)).isEmpty();
+    assertThat(store.reservations.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Manual numbers move the counter once, reservations never scan customers")
+  void registerManual_advancesCounter() {
+    CustomerNumberGeneratorService node = node(10);
+    node.registerManual("KD-2025-00500");
+    node.registerManual("KD-2025-00042"); // never backwards
+    node.registerManual("EXISTING-123"); // other formats are ignored
+
+    assertThat(node.generateNext()).isEqualTo("KD-2025-00501");
+    assertThat(node.generateNextBlock(2)).containsExactly("KD-2025-00511", "KD-2025-00512");
+    assertThat(store.advances.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Capacity: the last block is cut at 99999, then generation fails")
+  void generateNext_exhausted() {
+    store.counters.put(2025, new AtomicInteger(99_998));
+    CustomerNumberGeneratorService node = node(10);
+
+    assertThat(node.generateNext()).isEqualTo("KD-2025-99998");
+    assertThat(node.generateNext()).isEqualTo("KD-2025-99999");
+    assertThatThrownBy(node::generateNext)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("exhausted");
+    assertThatThrownBy(() -> node.generateNextBlock(1)).isInstanceOf(IllegalStateException.class);
+  }
+
+  private CustomerNumberGeneratorService node(int blockSize) {
+    return new CustomerNumberGeneratorService(store, blockSize, clock);
+  }
+
+  /** Stand-in for the atomic upserts: one counter per year, shared by all nodes. */
+  private static class CounterStore extends CustomerNumberBlockStore {
+    final Map<Integer, AtomicInteger> counters = new ConcurrentHashMap<>();
+    final AtomicInteger reservations = new AtomicInteger();
+    final AtomicInteger advances = new AtomicInteger();
+    volatile int latencyMillis;
+
+    @Override
+    public int reserve(int year, int count) {
+      reservations.incrementAndGet();
+      if (latencyMillis > 0) {
+        try {
+          Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return counters.computeIfAbsent(year, y -> new AtomicInteger(1)).getAndAdd(count);
+    }
+
+    @Override
+    public void advancePast(int year, int sequenceNumber) {
+      advances.incrementAndGet();
+      counters
+          .computeIfAbsent(year, y -> new AtomicInteger(1))
+          .accumulateAndGet(sequenceNumber + 1, Math::max);
+    }
+
+    int next(int year) {
+      return counters.get(year).get();
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package de.freshplan.domain.opportunity.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.domain.opportunity.entity.Opportunity;
+import de.freshplan.domain.opportunity.entity.OpportunityStage;
+import de.freshplan.domain.opportunity.repository.OpportunityRepository;
+import de.freshplan.domain.opportunity.repository.PipelineSnapshotRepository;
+import de.freshplan.domain.opportunity.repository.PipelineStageAggregate;
+import de.freshplan.domain.opportunity.service.dto.OpportunityResponse;
+import de.freshplan.domain.opportunity.service.dto.PipelineOverviewResponse;
+import de.freshplan.domain.opportunity.service.dto.PipelineSummary;
+import de.freshplan.domain.opportunity.service.dto.SalesRepPipelineResponse;
+import de.freshplan.domain.opportunity.service.mapper.OpportunityMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the one-pass pipeline analytics. */
+@Tag("unit")
+class PipelineAnalyticsServiceTest {
+
+  private static final UUID ALICE = UUID.randomUUID();
+  private static final UUID BOB = UUID.randomUUID();
+
+  private OpportunityRepository opportunityRepository;
+  private PipelineSnapshotRepository snapshotRepository;
+  private PipelineAnalyticsService service;
+
+  @BeforeEach
+  void setUp() {
+    opportunityRepository = mock(OpportunityRepository.class);
+    snapshotRepository = mock(PipelineSnapshotRepository.class);
+    OpportunityMapper mapper = mock(OpportunityMapper.class);
+    when(mapper.toResponse(any())).thenReturn(new OpportunityResponse());
+
+    service = new PipelineAnalyticsService();
+    service.opportunityRepository = opportunityRepository;
+    service.snapshotRepository = snapshotRepository;
+    service.opportunityMapper = mapper;
+    service.overdueLimit = 20;
+    service.maxTrendDays = 366;
+  }
+
+  @Test
+  void overview_derivesAllFiguresFromOneAggregateScan() {
+    when(opportunityRepository.getPipelineStageAggregates(null))
+        .thenReturn(
+            List.of(
+                agg(null, OpportunityStage.PROPOSAL, 2, "20000", "12000", 1, "5000"),
+                agg(null, OpportunityStage.NEW_LEAD, 3, "9000", "900", 2, "3000"),
+                agg(null, OpportunityStage.CLOSED_WON, 3, "30000", "30000", 0, "0"),
+                agg(null, OpportunityStage.CLOSED_LOST, 1, "1000", "0", 0, "0")));
+    when(opportunityRepository.findHighPriorityOpportunities(5))
+        .thenReturn(List.of(new Opportunity()));
+    when(opportunityRepository.findOverdueOpportunities(20))
+        .thenReturn(List.of(new Opportunity(), new Opportunity()));
+
+    PipelineOverviewResponse overview = service.getPipelineOverview();
+
+    assertThat(overview.getStageStatistics())
+        .extracting(PipelineOverviewResponse.StageStatistic::getStage)
+        .containsExactly(OpportunityStage.NEW_LEAD, OpportunityStage.PROPOSAL);
+    assertThat(overview.getStageStatistics().get(0).getCount()).isEqualTo(3);
+    assertThat(overview.getTotalForecast()).isEqualByComparingTo("12900");
+    assertThat(overview.getConversionRate()).isEqualTo(75.0);
+    assertThat(overview.getOverdueCount()).isEqualTo(3);
+    assertThat(overview.getOverdueOpportunities()).hasSize(2);
+    assertThat(overview.getHighPriorityOpportunities()).hasSize(1);
+    verify(opportunityRepository, times(1)).getPipelineStageAggregates(null);
+  }
+
+  @Test
+  void overview_withoutOverdue_skipsOverdueQuery() {
+    when(opportunityRepository.getPipelineStageAggregates(null))
+        .thenReturn(List.of(agg(null, OpportunityStage.NEGOTIATION, 1, "100", "80", 0, "0")));
+
+    PipelineOverviewResponse overview = service.getPipelineOverview();
+
+    assertThat(overview.getOverdueCount()).isZero();
+    assertThat(overview.getOverdueOpportunities()).isEmpty();
+    assertThat(overview.getConversionRate()).isZero();
+    verify(opportunityRepository, never()).findOverdueOpportunities(anyInt());
+  }
+
+  @Test
+  void teamPipeline_groupsOneScanByRepAndSortsByForecast() {
+    when(opportunityRepository.getTeamPipelineStageAggregates())
+        .thenReturn(
+            List.of(
+                agg(ALICE, OpportunityStage.PROPOSAL, 1, "10000", "6000", 0, "0"),
+                agg(BOB, OpportunityStage.NEGOTIATION, 2, "50000", "40000", 1, "25000"),
+                agg(ALICE, OpportunityStage.CLOSED_WON, 4, "8000", "8000", 0, "0"),
+                agg(null, OpportunityStage.NEW_LEAD, 1, "500", "50", 0, "0")));
+
+    List<SalesRepPipelineResponse> team = service.getTeamPipeline();
+
+    assertThat(team).extracting(SalesRepPipelineResponse::userId).containsExactly(BOB, ALICE, null);
+    assertThat(team.get(1).name()).isEqualTo("name-" + ALICE);
+    assertThat(team.get(1).pipeline().wonCount()).isEqualTo(4);
+    assertThat(team.get(1).pipeline().conversionRate()).isEqualTo(100.0);
+    assertThat(team.get(0).pipeline().overdueValue()).isEqualByComparingTo("25000");
+    assertThat(team.get(2).name()).isEqualTo("Nicht zugewiesen");
+    verify(opportunityRepository, times(1)).getTeamPipelineStageAggregates();
+  }
+
+  @Test
+  void summary_mergesRowsOfTheSameStage() {
+    PipelineSummary summary =
+        PipelineSummary.from(
+            List.of(
+                agg(ALICE, OpportunityStage.QUALIFICATION, 1, "100", "25", 0, "0"),
+                agg(BOB, OpportunityStage.QUALIFICATION, 2, "200", "50", 1, "200")));
+
+    assertThat(summary.stageStatistics()).hasSize(1);
+    assertThat(summary.stageStatistics().get(0).getCount()).isEqualTo(3);
+    assertThat(summary.stageStatistics().get(0).getTotalValue()).isEqualByComparingTo("300");
+    assertThat(summary.activeValue()).isEqualByComparingTo("300");
+    assertThat(summary.forecast()).isEqualByComparingTo("75");
+    assertThat(summary.overdueCount()).isEqualTo(1);
+  }
+
+  @Test
+  void trend_clampsWindowToConfiguredMaximum() {
+    service.getStageTrend(10_000, ALICE);
+
+    LocalDate today = LocalDate.now();
+    verify(snapshotRepository).findTrend(today.minusDays(365), today, ALICE);
+
+    service.getStageTrend(0, null);
+    verify(snapshotRepository).findTrend(eq(today), eq(today), eq(null));
+  }
+
+  private static PipelineStageAggregate agg(
+      UUID user,
+      OpportunityStage stage,
+      long count,
+      String total,
+      String weighted,
+      long overdue,
+      String overdueValue) {
+    return new PipelineStageAggregate(
+        user,
+        user != null ? "name-" + user : null,
+        stage,
+        count,
+        new BigDecimal(total),
+        new BigDecimal(weighted),
+        overdue,
+        new BigDecimal(overdueValue));
+  }
+}
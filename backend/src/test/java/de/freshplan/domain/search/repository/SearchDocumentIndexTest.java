@@ -0,0 +1,267 @@
+package de.freshplan.domain.search.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.entity.CustomerContact;
+import de.freshplan.domain.customer.repository.CustomerRepository;
+import de.freshplan.domain.search.service.dto.SearchDocumentType;
+import de.freshplan.modules.leads.domain.Lead;
+import de.freshplan.modules.leads.domain.LeadContact;
+import de.freshplan.test.builders.ContactTestDataFactory;
+import de.freshplan.test.builders.CustomerTestDataFactory;
+import de.freshplan.test.builders.LeadTestDataFactory;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for the search index {@code search_documents} (V10062): row triggers on
+ * customers, contacts and leads, TRUNCATE, the sync switch for bulk loads, the set-based rebuild
+ * and the lead ACL predicate of {@link SearchDocumentRepository}.
+ *
+ * <p>All tests run in {@code @TestTransaction} and are rolled back.
+ */
+@QuarkusTest
+@Tag("integration")
+@DisplayName("Search Document Index Integration Test")
+class SearchDocumentIndexTest {
+
+  @Inject EntityManager em;
+  @Inject CustomerRepository customerRepository;
+  @Inject SearchDocumentRepository searchDocumentRepository;
+
+  private String run;
+
+  @BeforeEach
+  void setUp() {
+    run = UUID.randomUUID().toString().substring(0, 8);
+  }
+
+  @Test
+  @TestTransaction
+  @DisplayName("Customer: insert, update and delete maintain the document")
+  void customer_insertUpdateDelete() {
+    Customer customer =
+        CustomerTestDataFactory.builder()
+            .withCompanyName("Suchindex Hotel " + run)
+            .buildAndPersist(customerRepository);
+
+    assertThat(title(SearchDocumentType.CUSTOMER, customer.getId()))
+        .contains(customer.getCompanyName());
+
+    customer.setCompanyName("Suchindex Gasthof " + run);
+    em.flush();
+    assertThat(title(SearchDocumentType.CUSTOMER, customer.getId()))
+        .contains("Suchindex Gasthof " + run);
+
+    customerRepository.delete(customer);
+    em.flush();
+    assertThat(title(SearchDocumentType.CUSTOMER, customer.getId())).isEmpty();
+  }
+
+  @Test
+  @TestTransaction
+  @DisplayName("Customer contact: follows its customer's name, disappears when deactivated")
+  void customerContact_followsCustomer() {
+    Customer customer =
+        CustomerTestDataFactory.builder()
+            .withCompanyName("Suchindex Kantine " + run)
+            .buildAndPersist(customerRepository);
+    CustomerContact contact =
+        ContactTestDataFactory.builder()
+            .forCustomer(customer)
+            .withFirstName("Erika")
+            .withLastName("Suchindex" + run)
+            .build();
+    em.persist(contact);
+    em.flush();
+
+    assertThat(payload(SearchDocumentType.CUSTOMER_CONTACT, contact.getId()))
+        .hasValueSatisfying(p -> assertThat(p).contains("Suchindex Kantine " + run));
+
+    customer.setCompanyName("Suchindex Mensa " + run);
+    em.flush();
+    assertThat(payload(SearchDocumentType.CUSTOMER_CONTACT, contact.getId()))
+        .hasValueSatisfying(p -> assertThat(p).contains("Suchindex Mensa " + run));
+
+    contact.setIsActive(false);
+    em.flush();
+    assertThat(payload(SearchDocumentType.CUSTOMER_CONTACT, contact.getId())).isEmpty();
+  }
+
+  @Test
+  @TestTransaction
+  @DisplayName("Lead: insert, update and delete maintain the document")
+  void lead_insertUpdateDelete() {
+    Lead lead = persistLead("Suchindex Catering " + run, "owner-" + run);
+
+    assertThat(title(SearchDocumentType.LEAD, lead.id)).contains(lead.companyName);
+
+    lead.companyName = "Suchindex Bistro " + run;
+    em.flush();
+    assertThat(title(SearchDocumentType.LEAD, lead.id)).contains("Suchindex Bistro " + run);
+
+    em.remove(lead);
+    em.flush();
+    assertThat(title(SearchDocumentType.LEAD, lead.id)).isEmpty();
+  }
+
+  @Test
+  @TestTransaction
+  @DisplayName("Lead contacts: added, deactivated and deleted contacts update the lead document")
+  void leadContact_updatesParentDocument() {
+    Lead lead = persistLead("Suchindex Restaurant " + run, "owner-" + run);
+    LeadContact first = persistLeadContact(lead, "Anna");
+    LeadContact second = persistLeadContact(lead, "Bernd");
+
+    assertThat(payload(SearchDocumentType.LEAD_CONTACT, first.getId()))
+        .hasValueSatisfying(p -> assertThat(p).contains("Suchindex Restaurant " + run));
+    assertThat(payload(SearchDocumentType.LEAD, lead.id))
+        .hasValueSatisfying(p -> assertThat(p).contains("\"contactCount\": 2"));
+
+    second.setActive(false);
+    em.flush();
+    assertThat(payload(SearchDocumentType.LEAD_CONTACT, second.getId())).isEmpty();
+    assertThat(payload(SearchDocumentType.LEAD, lead.id))
+        .hasValueSatisfying(p -> assertThat(p).contains("\"contactCount\": 1"));
+
+    em.remove(first);
+    em.flush();
+    assertThat(payload(SearchDocumentType.LEAD_CONTACT, first.getId())).isEmpty();
+    assertThat(payload(SearchDocumentType.LEAD, lead.id))
+        .hasValueSatisfying(p -> assertThat(p).contains("\"contactCount\": 0"));
+  }
+
+  @Test
+  @TestTransaction
+  @DisplayName("TRUNCATE: statement trigger removes the documents of the truncated table")
+  void truncate_removesDocuments() {
+    Lead lead = persistLead("Suchindex Hotelkette " + run, "owner-" + run);
+    persistLeadContact(lead, "Clara");
+    assertThat(countDocuments(SearchDocumentType.LEAD_CONTACT)).isPositive();
+
+    em.createNativeQuery("TRUNCATE lead_contacts CASCADE").executeUpdate();
+
+    assertThat(countDocuments(SearchDocumentType.LEAD_CONTACT)).isZero();
+    assertThat(title(SearchDocumentType.LEAD, lead.id)).isPresent();
+  }
+
+  @Test
+  @TestTransaction
+  @DisplayName("Bulk loads: triggers skip with app.search_index_sync=off, rebuild catches up")
+  void syncOff_thenRebuild() {
+    em.createNativeQuery("SELECT set_config('app.search_index_sync', 'off', true)")
+        .getSingleResult();
+    Customer customer =
+        CustomerTestDataFactory.builder()
+            .withCompanyName("Suchindex Bulk " + run)
+            .buildAndPersist(customerRepository);
+    assertThat(title(SearchDocumentType.CUSTOMER, customer.getId())).isEmpty();
+
+    em.createNativeQuery("SELECT set_config('app.search_index_sync', '', true)").getSingleResult();
+    em.createNativeQuery("SELECT search_documents_rebuild()").getSingleResult();
+
+    assertThat(title(SearchDocumentType.CUSTOMER, customer.getId()))
+        .contains(customer.getCompanyName());
+  }
+
+  @Test
+  @TestTransaction
+  @DisplayName(
+      "ACL: owner and collaborators (leads.collaborator_user_ids) see the lead, others not")
+  void lead_visibility() {
+    String owner = "owner-" + run;
+    String collaborator = "collab-" + run;
+    Lead lead = persistLead("Suchindex Sichtbar " + run, owner);
+    persistLeadContact(lead, "Dora");
+    em.createNativeQuery("UPDATE leads SET collaborator_user_ids = ARRAY[:user] WHERE id = :id")
+        .setParameter("user", collaborator)
+        .setParameter("id", lead.id)
+        .executeUpdate();
+
+    assertThat(visibleTypes(owner, "SALES"))
+        .containsExactlyInAnyOrder(SearchDocumentType.LEAD, SearchDocumentType.LEAD_CONTACT);
+    assertThat(visibleTypes(collaborator, "SALES"))
+        .containsExactlyInAnyOrder(SearchDocumentType.LEAD, SearchDocumentType.LEAD_CONTACT);
+    assertThat(visibleTypes("stranger-" + run, "SALES")).isEmpty();
+    assertThat(visibleTypes("stranger-" + run, "MANAGER"))
+        .containsExactlyInAnyOrder(SearchDocumentType.LEAD, SearchDocumentType.LEAD_CONTACT);
+  }
+
+  private List<SearchDocumentType> visibleTypes(String user, String role) {
+    em.createNativeQuery(
+            "SELECT set_config('app.user_context', :user, true),"
+                + " set_config('app.role_context', :role, true)")
+        .setParameter("user", user)
+        .setParameter("role", role)
+        .getSingleResult();
+    return searchDocumentRepository
+        .search(
+            "Suchindex Sichtbar " + run,
+            false,
+            EnumSet.of(SearchDocumentType.LEAD, SearchDocumentType.LEAD_CONTACT),
+            true,
+            10)
+        .stream()
+        .map(SearchDocumentRepository.Hit::type)
+        .toList();
+  }
+
+  private Lead persistLead(String companyName, String owner) {
+    Lead lead =
+        LeadTestDataFactory.builder().withCompanyName(companyName).withOwnerUserId(owner).build();
+    lead.persist();
+    em.flush();
+    return lead;
+  }
+
+  private LeadContact persistLeadContact(Lead lead, String firstName) {
+    LeadContact contact = new LeadContact();
+    contact.setLead(lead);
+    contact.setFirstName(firstName);
+    contact.setLastName("Suchindex" + run);
+    contact.setCreatedBy("test");
+    contact.persist();
+    em.flush();
+    return contact;
+  }
+
+  private Optional<String> title(SearchDocumentType type, Object entityId) {
+    return column("title", type, entityId);
+  }
+
+  private Optional<String> payload(SearchDocumentType type, Object entityId) {
+    return column("CAST(payload AS text)", type, entityId);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Optional<String> column(String column, SearchDocumentType type, Object entityId) {
+    List<String> values =
+        em.createNativeQuery(
+                "SELECT "
+                    + column
+                    + " FROM search_documents WHERE entity_type = :type AND entity_id = :id")
+            .setParameter("type", type.name())
+            .setParameter("id", String.valueOf(entityId))
+            .getResultList();
+    return values.stream().findFirst();
+  }
+
+  private long countDocuments(SearchDocumentType type) {
+    return ((Number)
+            em.createNativeQuery("SELECT count(*) FROM search_documents WHERE entity_type = :type")
+                .setParameter("type", type.name())
+                .getSingleResult())
+        .longValue();
+  }
+}
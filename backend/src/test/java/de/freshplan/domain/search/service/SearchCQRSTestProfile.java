@@ -15,6 +15,13 @@ import java.util.Map;
 public class SearchCQRSTestProfile implements QuarkusTestProfile {
   @Override
   public Map<String, String> getConfigOverrides() {
-    return Map.of("features.cqrs.enabled", "true");
+    // Search index and autocomplete off, otherwise both would bypass the CQRS path
+    return Map.of(
+        "features.cqrs.enabled",
+        "true",
+        "freshplan.search.index.enabled",
+        "false",
+        "freshplan.search.autocomplete.enabled",
+        "false");
   }
 }
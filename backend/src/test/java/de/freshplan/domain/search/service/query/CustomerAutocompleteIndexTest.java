@@ -0,0 +1,203 @@
+package de.freshplan.domain.search.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.entity.CustomerStatus;
+import de.freshplan.domain.customer.repository.CustomerRepository;
+import de.freshplan.domain.search.service.dto.CustomerSearchDto;
+import de.freshplan.domain.search.service.dto.SearchResults;
+import de.freshplan.domain.search.service.query.CustomerAutocompleteIndex.Match;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for the in-memory autocomplete index (prefix ranges, top-K lists, delta patches).
+ *
+ * <p>Strategy: Mocked CustomerRepository rows, NO @QuarkusTest, NO DB.
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+@DisplayName("CustomerAutocompleteIndex Unit Tests")
+class CustomerAutocompleteIndexTest {
+
+  private static final UUID BAECKEREI = UUID.randomUUID();
+  private static final UUID HOTEL_ADLER = UUID.randomUUID();
+  private static final UUID HOTEL_POST = UUID.randomUUID();
+  private static final UUID KANTINE = UUID.randomUUID();
+
+  @Mock private CustomerRepository customerRepository;
+
+  private CustomerAutocompleteIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new CustomerAutocompleteIndex();
+    index.customerRepository = customerRepository;
+    index.enabled = true;
+    index.rebuildInterval = Duration.ofMinutes(15);
+    index.maxPatches = 2000;
+
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(row(BAECKEREI, "Bäckerei Schmidt GmbH", "KD-2025-00001", CustomerStatus.AKTIV, 60));
+    rows.add(row(HOTEL_ADLER, "Hotel Zum Adler", "KD-2025-00002", CustomerStatus.PROSPECT, 60));
+    rows.add(row(HOTEL_POST, "Hotel Post", "KD-2025-00003", CustomerStatus.AKTIV, 5));
+    rows.add(row(KANTINE, "Kantine Nord", "KD-2025-00004", CustomerStatus.LEAD, null));
+    lenient().when(customerRepository.findAutocompleteRows(null)).thenReturn(rows);
+  }
+
+  @Test
+  @DisplayName("Not built yet: no answer, callers fall back to the database")
+  void search_beforeBuild_isEmpty() {
+    assertThat(index.search("hotel", 5)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Prefixes match names, name words and customer numbers, ranked by activity")
+  void search_matchesPrefixes() {
+    index.refresh();
+
+    // Active customer with recent contact first
+    assertThat(ids(index.search("hotel", 5).get())).containsExactly(HOTEL_POST, HOTEL_ADLER);
+    // Word suffix and diacritics
+    assertThat(ids(index.search("adler", 5).get())).containsExactly(HOTEL_ADLER);
+    assertThat(ids(index.search("Bäck", 5).get())).containsExactly(BAECKEREI);
+    assertThat(ids(index.search("backerei schm", 5).get())).containsExactly(BAECKEREI);
+
+    Match number = index.search("kd-2025-00004", 5).get().get(0);
+    assertThat(number.id()).isEqualTo(KANTINE);
+    assertThat(number.matchedField()).isEqualTo("customerNumber");
+    assertThat(number.score()).isEqualTo(100); // exact number, no activity bonus
+
+    assertThat(index.search("xyz", 5).get()).isEmpty();
+    assertThat(index.search("kd-2025", 2).get()).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Top-K lists of short prefixes return the same ranking as a range scan")
+  void search_shortPrefixesUseTopK() {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      rows.add(
+          row(
+              UUID.randomUUID(),
+              "Hof " + i,
+              "KD-" + i,
+              i % 7 == 0 ? CustomerStatus.AKTIV : CustomerStatus.LEAD,
+              i % 5 == 0 ? 1 : null));
+    }
+    when(customerRepository.findAutocompleteRows(null)).thenReturn(rows);
+    index.refresh();
+
+    List<Match> topK = index.search("h", 10).get();
+    List<Match> scanned = index.search("hof", 10).get();
+    assertThat(topK).hasSize(10);
+    assertThat(topK)
+        .extracting(Match::score)
+        .containsExactlyElementsOf(scanned.stream().map(Match::score).toList());
+    assertThat(topK.get(0).score()).isEqualTo(70 + 20 + 10);
+  }
+
+  @Test
+  @DisplayName("Delta refresh: changed, new and deleted customers shadow the snapshot")
+  void refresh_appliesPatches() {
+    index.refresh();
+    UUID created = UUID.randomUUID();
+    when(customerRepository.findAutocompleteRows(any(LocalDateTime.class)))
+        .thenReturn(
+            List.of(
+                row(HOTEL_ADLER, "Gasthof Adler", "KD-2025-00002", CustomerStatus.AKTIV, 60),
+                deleted(KANTINE),
+                deleted(UUID.randomUUID()), // never indexed: ignored
+                row(created, "Hotel Neu", "KD-2025-00005", CustomerStatus.LEAD, null)));
+
+    index.refresh();
+
+    assertThat(ids(index.search("hotel", 5).get())).containsExactly(HOTEL_POST, created);
+    assertThat(ids(index.search("gasthof", 5).get())).containsExactly(HOTEL_ADLER);
+    assertThat(ids(index.search("adler", 5).get())).containsExactly(HOTEL_ADLER);
+    assertThat(index.search("kantine", 5).get()).isEmpty();
+    // Short prefixes (top-K lists) see the patches as well
+    assertThat(ids(index.search("k", 5).get())).doesNotContain(KANTINE);
+    assertThat(ids(index.search("ga", 5).get())).containsExactly(HOTEL_ADLER);
+    verify(customerRepository, times(1)).findAutocompleteRows(null);
+  }
+
+  @Test
+  @DisplayName("Too many patches are merged into a new snapshot without a database rebuild")
+  void refresh_compactsPatches() {
+    index.maxPatches = 1;
+    index.refresh();
+    when(customerRepository.findAutocompleteRows(any(LocalDateTime.class)))
+        .thenReturn(
+            List.of(
+                row(HOTEL_ADLER, "Gasthof Adler", "KD-2025-00002", CustomerStatus.AKTIV, 60),
+                deleted(KANTINE)));
+
+    index.refresh();
+
+    assertThat(ids(index.search("ga", 5).get())).containsExactly(HOTEL_ADLER);
+    assertThat(index.search("kantine", 5).get()).isEmpty();
+    assertThat(ids(index.search("hotel", 5).get())).containsExactly(HOTEL_POST);
+    verify(customerRepository, times(1)).findAutocompleteRows(null);
+  }
+
+  @Test
+  @DisplayName("Query service: index hits are served without a query, misses use the DB prefix")
+  void autocomplete_fallsBackToDatabase() {
+    SearchQueryService queryService = new SearchQueryService();
+    queryService.autocompleteIndex = index;
+    queryService.customerRepository = customerRepository;
+    index.refresh();
+
+    SearchResults hit = queryService.autocomplete("hotel p", 5);
+    assertThat(hit.getCustomers()).hasSize(1);
+    assertThat(((CustomerSearchDto) hit.getCustomers().get(0).getData()).getCompanyName())
+        .isEqualTo("Hotel Post");
+    verify(customerRepository, never()).findByNameOrNumberPrefix(anyString(), anyInt());
+
+    Customer created = new Customer();
+    created.setId(UUID.randomUUID());
+    created.setCompanyName("Mensa Süd");
+    created.setCustomerNumber("KD-2025-00009");
+    created.setStatus(CustomerStatus.AKTIV);
+    when(customerRepository.findByNameOrNumberPrefix("mensa", 5)).thenReturn(List.of(created));
+
+    SearchResults miss = queryService.autocomplete(" mensa", 5);
+    assertThat(miss.getCustomers()).hasSize(1);
+    assertThat(miss.getCustomers().get(0).getId()).isEqualTo(created.getId().toString());
+    assertThat(miss.getCustomers().get(0).getRelevanceScore()).isEqualTo(70 + 20);
+  }
+
+  private static List<UUID> ids(List<Match> matches) {
+    return matches.stream().map(Match::id).toList();
+  }
+
+  private static Object[] row(
+      UUID id, String name, String number, CustomerStatus status, Integer contactDaysAgo) {
+    return new Object[] {
+      id,
+      name,
+      number,
+      status,
+      contactDaysAgo != null ? LocalDateTime.now().minusDays(contactDaysAgo) : null,
+      false
+    };
+  }
+
+  private static Object[] deleted(UUID id) {
+    return new Object[] {id, "Gelöscht", "KD-DEL", CustomerStatus.INAKTIV, null, true};
+  }
+}
@@ -0,0 +1,183 @@
+package de.freshplan.domain.search.service.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.freshplan.domain.search.repository.SearchDocumentRepository;
+import de.freshplan.domain.search.repository.SearchDocumentRepository.Hit;
+import de.freshplan.domain.search.service.dto.ContactSearchDto;
+import de.freshplan.domain.search.service.dto.CustomerSearchDto;
+import de.freshplan.domain.search.service.dto.LeadContactSearchDto;
+import de.freshplan.domain.search.service.dto.LeadSearchDto;
+import de.freshplan.domain.search.service.dto.QueryType;
+import de.freshplan.domain.search.service.dto.SearchContext;
+import de.freshplan.domain.search.service.dto.SearchDocumentType;
+import de.freshplan.domain.search.service.dto.SearchResult;
+import de.freshplan.domain.search.service.dto.SearchResults;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Mock-based tests for the indexed universal search (search_documents).
+ *
+ * <p>Strategy: Mocked SearchDocumentRepository + real ObjectMapper, NO @QuarkusTest, NO DB.
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+@DisplayName("SearchQueryService Indexed Search Tests")
+class SearchQueryServiceIndexedTest {
+
+  @Mock private SearchDocumentRepository searchDocumentRepository;
+
+  private SearchQueryService queryService;
+
+  @BeforeEach
+  void setUp() {
+    queryService = new SearchQueryService();
+    queryService.searchDocumentRepository = searchDocumentRepository;
+    queryService.objectMapper = new ObjectMapper();
+  }
+
+  @Test
+  @DisplayName("Customer context: payloads are mapped to customer and contact DTOs")
+  void customerContext_mapsPayloads() {
+    when(searchDocumentRepository.search(
+            eq("Hotel"),
+            eq(false),
+            eq(Set.of(SearchDocumentType.CUSTOMER, SearchDocumentType.CUSTOMER_CONTACT)),
+            eq(false),
+            eq(10)))
+        .thenReturn(
+            List.of(
+                new Hit(
+                    SearchDocumentType.CUSTOMER,
+                    "c-2",
+                    70,
+                    "{\"id\":\"c-2\",\"companyName\":\"Hotel Adler\",\"customerNumber\":\"KD-2\","
+                        + "\"status\":\"LEAD\"}",
+                    2),
+                new Hit(
+                    SearchDocumentType.CUSTOMER,
+                    "c-1",
+                    110,
+                    "{\"id\":\"c-1\",\"companyName\":\"Hotel\",\"customerNumber\":\"KD-1\","
+                        + "\"status\":\"AKTIV\"}",
+                    2),
+                new Hit(
+                    SearchDocumentType.CUSTOMER_CONTACT,
+                    "cc-1",
+                    80,
+                    "{\"id\":\"cc-1\",\"firstName\":\"Anna\",\"lastName\":\"Hotel\","
+                        + "\"customerId\":\"c-1\",\"customerName\":\"Hotel\",\"isPrimary\":true}",
+                    1)));
+
+    SearchResults results =
+        queryService.indexedSearch("Hotel", true, false, 10, SearchContext.CUSTOMERS);
+
+    assertThat(results.getCustomers())
+        .extracting(SearchResult::getId)
+        .containsExactly("c-1", "c-2"); // sorted by relevance
+    SearchResult customer = results.getCustomers().get(0);
+    assertThat(customer.getType()).isEqualTo("customer");
+    assertThat(customer.getRelevanceScore()).isEqualTo(110);
+    assertThat(customer.getData()).isInstanceOf(CustomerSearchDto.class);
+    assertThat(((CustomerSearchDto) customer.getData()).getCustomerNumber()).isEqualTo("KD-1");
+
+    assertThat(results.getContacts()).hasSize(1);
+    SearchResult contact = results.getContacts().get(0);
+    assertThat(contact.getType()).isEqualTo("contact");
+    ContactSearchDto contactDto = (ContactSearchDto) contact.getData();
+    assertThat(contactDto.getCustomerName()).isEqualTo("Hotel");
+    assertThat(contactDto.getIsPrimary()).isTrue();
+
+    assertThat(results.getTotalCount()).isEqualTo(3);
+    assertThat(results.getMetadata().getQueryType()).isEqualTo(QueryType.TEXT);
+    assertThat(results.getMetadata().isTruncated()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Lead context: leads are entity results, lead contacts are contacts")
+  void leadContext_routesTypes() {
+    when(searchDocumentRepository.search(
+            anyString(),
+            anyBoolean(),
+            eq(Set.of(SearchDocumentType.LEAD, SearchDocumentType.LEAD_CONTACT)),
+            anyBoolean(),
+            anyInt()))
+        .thenReturn(
+            List.of(
+                new Hit(
+                    SearchDocumentType.LEAD,
+                    "42",
+                    90,
+                    "{\"id\":\"42\",\"companyName\":\"Kantine Nord\",\"stage\":\"REGISTRIERUNG\","
+                        + "\"contactCount\":1}",
+                    1),
+                new Hit(
+                    SearchDocumentType.LEAD_CONTACT,
+                    "lc-1",
+                    50,
+                    "{\"id\":\"lc-1\",\"lastName\":\"Nord\",\"leadId\":\"42\","
+                        + "\"customerId\":\"42\",\"leadName\":\"Kantine Nord\"}",
+                    1)));
+
+    SearchResults results = queryService.indexedSearch("Nord", true, true, 10, SearchContext.LEADS);
+
+    LeadSearchDto lead = (LeadSearchDto) results.getCustomers().get(0).getData();
+    assertThat(results.getCustomers().get(0).getType()).isEqualTo("lead");
+    assertThat(lead.getStage()).isEqualTo("REGISTRIERUNG");
+    assertThat(lead.getContactCount()).isEqualTo(1);
+
+    LeadContactSearchDto leadContact =
+        (LeadContactSearchDto) results.getContacts().get(0).getData();
+    assertThat(results.getContacts().get(0).getType()).isEqualTo("lead_contact");
+    assertThat(leadContact.getLeadName()).isEqualTo("Kantine Nord");
+  }
+
+  @Test
+  @DisplayName("Facets: total matches per type, truncated if a type exceeds the limit")
+  void facets_andTruncation() {
+    when(searchDocumentRepository.search(any(), anyBoolean(), any(), anyBoolean(), eq(1)))
+        .thenReturn(
+            List.of(
+                new Hit(
+                    SearchDocumentType.CUSTOMER,
+                    "c-1",
+                    50,
+                    "{\"id\":\"c-1\",\"companyName\":\"Bäckerei\"}",
+                    37)));
+
+    SearchResults results =
+        queryService.indexedSearch("bäck", true, false, 1, SearchContext.CUSTOMERS);
+
+    // Types without matches are reported with 0
+    assertThat(results.getFacets()).containsEntry("customer", 37L).containsEntry("contact", 0L);
+    assertThat(results.getMetadata().isTruncated()).isTrue();
+    assertThat(results.getTotalCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Phone queries match digits only, contacts are skipped unless requested")
+  void phoneQuery_digitsOnly() {
+    when(searchDocumentRepository.search(any(), anyBoolean(), any(), anyBoolean(), anyInt()))
+        .thenReturn(List.of());
+
+    SearchResults results =
+        queryService.indexedSearch("+49 30 1234-56", false, false, 20, SearchContext.CUSTOMERS);
+
+    verify(searchDocumentRepository)
+        .search("+49 30 1234-56", true, Set.of(SearchDocumentType.CUSTOMER), false, 20);
+    assertThat(results.getFacets()).containsOnlyKeys("customer");
+    assertThat(results.getMetadata().getQueryType()).isEqualTo(QueryType.PHONE);
+    assertThat(results.getCustomers()).isEmpty();
+  }
+}
@@ -0,0 +1,172 @@
+package de.freshplan.domain.testdata.service.bulk;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Unit Tests for BulkRowGenerator and BulkSeedRequest.
+ *
+ * <p>Strategy: Pure unit tests, NO @QuarkusTest, NO DB. Verifies determinism and that every CSV
+ * line matches the COPY column list of its table.
+ */
+@DisplayName("BulkRowGenerator Unit Tests")
+@Tag("unit")
+class BulkRowGeneratorTest {
+
+  private static final LocalDate REFERENCE = LocalDate.of(2026, 3, 15);
+
+  private static BulkSeedRequest request(long seed) {
+    return new BulkSeedRequest(100, 3, 5, 2, 50, 200, seed, REFERENCE, false).resolve(REFERENCE);
+  }
+
+  private static String rows(BulkRowGenerator generator, BulkTable table, long from, long to) {
+    StringBuilder sb = new StringBuilder();
+    for (long i = from; i < to; i++) {
+      generator.appendRow(table, i, sb);
+    }
+    return sb.toString();
+  }
+
+  @ParameterizedTest
+  @EnumSource(BulkTable.class)
+  @DisplayName("every row has exactly as many fields as the COPY column list")
+  void rowsMatchColumnList(BulkTable table) {
+    BulkRowGenerator generator = new BulkRowGenerator(request(42));
+    String sql = table.copySql();
+    int columns = sql.substring(sql.indexOf('(') + 1, sql.indexOf(')')).split(",").length;
+
+    for (String line : rows(generator, table, 0, generator.rowCount(table)).split("\n")) {
+      assertThat(parseCsv(line)).as(line).hasSize(columns);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(BulkTable.class)
+  @DisplayName("same seed produces identical rows, independent of chunking")
+  void deterministicPerSeed(BulkTable table) {
+    BulkRowGenerator a = new BulkRowGenerator(request(42));
+    BulkRowGenerator b = new BulkRowGenerator(request(42));
+    long total = a.rowCount(table);
+
+    String whole = rows(a, table, 0, total);
+    String chunked = rows(b, table, total / 2, total) + rows(b, table, 0, total / 2);
+    List<String> wholeLines = List.of(whole.split("\n"));
+    List<String> chunkedLines = List.of(chunked.split("\n"));
+
+    assertThat(chunkedLines).containsExactlyInAnyOrderElementsOf(wholeLines);
+    assertThat(rows(new BulkRowGenerator(request(43)), table, 0, total)).isNotEqualTo(whole);
+  }
+
+  @Test
+  @DisplayName("child rows reference generated customers with the configured fan-out")
+  void childRowsReferenceCustomers() {
+    BulkRowGenerator generator = new BulkRowGenerator(request(7));
+
+    assertThat(generator.rowCount(BulkTable.CUSTOMER_CONTACTS)).isEqualTo(300);
+    assertThat(generator.rowCount(BulkTable.TIMELINE_EVENTS)).isEqualTo(500);
+    assertThat(generator.rowCount(BulkTable.OPPORTUNITIES)).isEqualTo(200);
+
+    UUID customer33 = generator.customerId(33);
+    // contacts 99..101 -> customer 33 (3 per customer), second field = customer_id
+    for (long contact = 99; contact < 102; contact++) {
+      List<String> fields =
+          parseCsv(rows(generator, BulkTable.CUSTOMER_CONTACTS, contact, contact + 1));
+      assertThat(fields.get(1)).isEqualTo(customer33.toString());
+    }
+    // first contact of a customer is the primary contact
+    assertThat(parseCsv(rows(generator, BulkTable.CUSTOMER_CONTACTS, 99, 100)).get(10))
+        .isEqualTo("true");
+  }
+
+  @Test
+  @DisplayName("customer rows carry unique BULK customer numbers and deterministic IDs")
+  void customerNumbersAndIds() {
+    BulkRowGenerator generator = new BulkRowGenerator(request(1));
+
+    assertThat(BulkRowGenerator.customerNumber(0)).isEqualTo("BULK-0000000001");
+    assertThat(BulkRowGenerator.customerNumber(9_999_999)).isEqualTo("BULK-0010000000");
+    assertThat(generator.customerId(5)).isEqualTo(new BulkRowGenerator(request(1)).customerId(5));
+    assertThat(generator.customerId(5)).isNotEqualTo(generator.customerId(6));
+    assertThat(generator.customerId(5).version()).isEqualTo(4);
+
+    List<String> fields = parseCsv(rows(generator, BulkTable.CUSTOMERS, 5, 6));
+    assertThat(fields.get(0)).isEqualTo(generator.customerId(5).toString());
+    assertThat(fields.get(1)).isEqualTo("BULK-0000000006");
+  }
+
+  @Test
+  @DisplayName("generated timestamps never lie after the reference date")
+  void timestampsBeforeReferenceDate() {
+    BulkRowGenerator generator = new BulkRowGenerator(request(3));
+    String referenceStart = REFERENCE + " 00:00:00";
+
+    for (String line : rows(generator, BulkTable.LEADS, 0, 50).split("\n")) {
+      String registeredAt = parseCsv(line).get(18);
+      assertThat(registeredAt).isLessThan(referenceStart);
+    }
+  }
+
+  @Test
+  @DisplayName("resolve() fills defaults and rejects invalid volumes")
+  void resolveValidates() {
+    BulkSeedRequest resolved =
+        new BulkSeedRequest(null, null, null, null, null, null, null, null, null)
+            .resolve(REFERENCE);
+    assertThat(resolved.customers()).isEqualTo(BulkSeedRequest.defaults().customers());
+    assertThat(resolved.referenceDate()).isEqualTo(REFERENCE);
+
+    assertThatThrownBy(
+            () ->
+                new BulkSeedRequest(-1, null, null, null, null, null, null, null, null)
+                    .resolve(REFERENCE))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () ->
+                new BulkSeedRequest(10_000_000, 20, null, null, null, null, null, null, null)
+                    .resolve(REFERENCE))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("child rows");
+    assertThatThrownBy(
+            () -> new BulkSeedRequest(0, 0, 0, 0, 0, 10, 1L, null, false).resolve(REFERENCE))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /** Parses one CSV line the way COPY (FORMAT csv) does: quoted fields may contain commas. */
+  private static List<String> parseCsv(String line) {
+    String trimmed = line.endsWith("\n") ? line.substring(0, line.length() - 1) : line;
+    List<String> fields = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < trimmed.length(); i++) {
+      char c = trimmed.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '"') {
+          current.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(current.toString());
+        current.setLength(0);
+      } else {
+        current.append(c);
+      }
+    }
+    fields.add(current.toString());
+    return fields;
+  }
+}
@@ -0,0 +1,258 @@
+package de.freshplan.infrastructure.export.job;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.infrastructure.security.RlsRequestContext;
+import de.freshplan.infrastructure.security.RlsSessionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.runtime.configuration.MemorySize;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for asynchronous export jobs (execution, limits, spool cleanup, range parsing).
+ *
+ * <p>Strategy: Pure Mockito, NO @QuarkusTest, NO DB.
+ */
+@DisplayName("ExportJobService Unit Tests")
+@Tag("unit")
+class ExportJobServiceTest {
+
+  private static final RlsSessionContext SALES_CONTEXT =
+      new RlsSessionContext("anna", "SALES", null, null, null, "freshfoodz", "DE", "SALES");
+
+  @TempDir Path spoolDir;
+
+  private ExportJobRunner runner;
+  private SimpleMeterRegistry meterRegistry;
+  private ExportJobService service;
+  private CountDownLatch release;
+  private boolean started;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    release = new CountDownLatch(1);
+    started = false;
+    runner = mock(ExportJobRunner.class);
+    doAnswer(
+            invocation -> {
+              ExportJobTask task = invocation.getArgument(1);
+              task.writeTo(invocation.getArgument(2));
+              return null;
+            })
+        .when(runner)
+        .run(any(), any(), any());
+    RlsRequestContext rlsRequestContext = mock(RlsRequestContext.class);
+    when(rlsRequestContext.currentOrAnonymousFallback()).thenReturn(SALES_CONTEXT);
+    meterRegistry = new SimpleMeterRegistry();
+
+    service = new ExportJobService();
+    service.runner = runner;
+    service.rlsRequestContext = rlsRequestContext;
+    service.meterRegistry = meterRegistry;
+    service.clock = Clock.systemUTC();
+    service.concurrency = 1;
+    service.queueCapacity = 1;
+    service.maxPerUser = 2;
+    service.spoolDir = spoolDir;
+    service.ttl = Duration.ofHours(1);
+    service.maxSpoolSize = new MemorySize(BigInteger.valueOf(1024));
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    if (started) {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Submit: job runs with the caller's RLS context and is spooled to a file")
+  void submit_writesSpoolFile() throws Exception {
+    start();
+
+    ExportJob job = service.submit("anna", "customers/csv", "kunden.csv", "text/csv", text("a;b"));
+
+    awaitState(job, ExportJob.State.COMPLETED);
+    assertThat(Files.readString(job.getFile())).isEqualTo("a;b");
+    assertThat(job.status().bytes()).isEqualTo(3);
+    assertThat(job.status().expiresAt()).isNotNull();
+    assertThat(Files.exists(spoolDir.resolve(job.getId() + ".part"))).isFalse();
+    verify(runner).run(eq(SALES_CONTEXT), any(), any());
+    assertThat(meterRegistry.get("freshplan_export_job_bytes").summary().totalAmount())
+        .isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Failure: job FAILED with message, partial file removed, user slot released")
+  void submit_taskFails_marksFailed() {
+    service.queueCapacity = 5;
+    start();
+
+    ExportJob job =
+        service.submit(
+            "anna",
+            "customers/pdf",
+            "kunden.pdf",
+            "application/pdf",
+            output -> {
+              output.write(1);
+              throw new IllegalStateException("Boom");
+            });
+
+    awaitState(job, ExportJob.State.FAILED);
+    assertThat(job.status().error()).isEqualTo("Boom");
+    assertThat(spoolDir.toFile().list()).isEmpty();
+    assertThatCode(
+            () -> {
+              service.submit("anna", "a", "a.csv", "text/csv", text("x"));
+              service.submit("anna", "b", "b.csv", "text/csv", text("y"));
+            })
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Per-user limit: third concurrent job of the same user is rejected")
+  void submit_userLimit() {
+    service.queueCapacity = 5;
+    start();
+
+    service.submit("anna", "a", "a.csv", "text/csv", blocking());
+    service.submit("anna", "b", "b.csv", "text/csv", blocking());
+
+    assertThatThrownBy(() -> service.submit("anna", "c", "c.csv", "text/csv", blocking()))
+        .isInstanceOfSatisfying(
+            ExportJobRejectedException.class,
+            e -> assertThat(e.getReason()).isEqualTo(ExportJobRejectedException.Reason.USER_LIMIT));
+    assertThatCode(() -> service.submit("ben", "d", "d.csv", "text/csv", blocking()))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Bounded queue: submission beyond workers + queue capacity is rejected")
+  void submit_queueFull() {
+    service.maxPerUser = 10;
+    start();
+
+    ExportJob running = service.submit("anna", "a", "a.csv", "text/csv", blocking());
+    awaitState(running, ExportJob.State.RUNNING);
+    ExportJob queued = service.submit("ben", "b", "b.csv", "text/csv", blocking());
+
+    assertThatThrownBy(() -> service.submit("carl", "c", "c.csv", "text/csv", blocking()))
+        .isInstanceOfSatisfying(
+            ExportJobRejectedException.class,
+            e -> assertThat(e.getReason()).isEqualTo(ExportJobRejectedException.Reason.QUEUE_FULL));
+    assertThat(service.find(queued.getId())).isPresent();
+    assertThat(meterRegistry.get("freshplan_export_jobs_queued").gauge().value()).isEqualTo(1);
+
+    // Queued jobs can be cancelled, running ones not
+    assertThat(service.remove(queued)).isTrue();
+    assertThat(service.remove(running)).isFalse();
+    assertThat(service.find(queued.getId())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Cleanup: expired results removed, oldest results evicted above the size bound")
+  void cleanup_ttlAndSizeBound() throws Exception {
+    service.maxPerUser = 10;
+    start();
+    ExportJob first = service.submit("anna", "a", "a.csv", "text/csv", bytes(600));
+    awaitState(first, ExportJob.State.COMPLETED);
+    ExportJob second = service.submit("anna", "b", "b.csv", "text/csv", bytes(600));
+    awaitState(second, ExportJob.State.COMPLETED);
+
+    // 1200 bytes > 1 KiB: the older result goes
+    service.cleanup(Instant.now());
+    assertThat(service.find(first.getId())).isEmpty();
+    assertThat(Files.exists(first.getFile())).isFalse();
+    assertThat(service.find(second.getId())).isPresent();
+
+    // After the TTL the remaining result expires as well
+    service.cleanup(Instant.now().plus(Duration.ofHours(2)));
+    assertThat(service.find(second.getId())).isEmpty();
+    assertThat(spoolDir.toFile().list()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Download in progress: eviction defers deleting the file until the download ends")
+  void cleanup_keepsFileOfRunningDownload() throws Exception {
+    start();
+    ExportJob job = service.submit("anna", "a", "a.csv", "text/csv", bytes(100));
+    awaitState(job, ExportJob.State.COMPLETED);
+    assertThat(service.beginDownload(job)).isTrue();
+
+    service.cleanup(Instant.now().plus(Duration.ofHours(2)));
+
+    assertThat(service.find(job.getId())).isEmpty();
+    assertThat(Files.size(job.getFile())).isEqualTo(100);
+    assertThat(service.beginDownload(job)).isFalse();
+
+    service.endDownload(job);
+    assertThat(spoolDir.toFile().list()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Startup: stale spool files of a previous process are removed")
+  void init_removesStaleFiles() throws Exception {
+    Files.writeString(spoolDir.resolve("old.export"), "x");
+    Files.writeString(spoolDir.resolve("old.part"), "x");
+
+    start();
+
+    assertThat(spoolDir.toFile().list()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Range: single ranges, suffix ranges, unsatisfiable and ignored headers")
+  void byteRange_parse() {
+    assertThat(ByteRange.parse("bytes=0-99", 1000)).contains(new ByteRange(0, 99));
+    assertThat(ByteRange.parse("bytes=900-", 1000)).contains(new ByteRange(900, 999));
+    assertThat(ByteRange.parse("bytes=-100", 1000)).contains(new ByteRange(900, 999));
+    assertThat(ByteRange.parse("bytes=500-5000", 1000)).contains(new ByteRange(500, 999));
+    assertThat(new ByteRange(500, 999).contentRange(1000)).isEqualTo("bytes 500-999/1000");
+    assertThat(ByteRange.parse(null, 1000)).isEmpty();
+    assertThat(ByteRange.parse("bytes=0-1,5-6", 1000)).isEmpty();
+    assertThat(ByteRange.parse("items=0-1", 1000)).isEmpty();
+    assertThatThrownBy(() -> ByteRange.parse("bytes=1000-", 1000))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void start() {
+    service.init();
+    started = true;
+  }
+
+  private static ExportJobTask text(String content) {
+    return output -> output.write(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static ExportJobTask bytes(int size) {
+    return output -> output.write(new byte[size]);
+  }
+
+  private ExportJobTask blocking() {
+    return (OutputStream output) -> release.await(10, TimeUnit.SECONDS);
+  }
+
+  private static void awaitState(ExportJob job, ExportJob.State state) {
+    await().atMost(Duration.ofSeconds(10)).until(() -> job.getState() == state);
+  }
+}
@@ -0,0 +1,173 @@
+package de.freshplan.infrastructure.meta;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.freshplan.api.resources.EnumResource;
+import de.freshplan.modules.leads.api.ActivitySchemaResource;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for pre-rendered metadata (ETag, 304, gzip, bundle, versioned Cache-Control).
+ *
+ * <p>Strategy: Real resources + plain ObjectMapper, NO @QuarkusTest, NO DB.
+ */
+@DisplayName("MetadataCache Unit Tests")
+@Tag("unit")
+class MetadataCacheTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final EnumResource enumResource = new EnumResource();
+  private MetadataCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new MetadataCache();
+    cache.objectMapper = objectMapper;
+    cache.maxAge = Duration.ofHours(1);
+    cache.gzipMinSize = 1024;
+    cache.render(List.of(enumResource, new ActivitySchemaResource(), new BrokenResource()));
+  }
+
+  @Test
+  @DisplayName("Render: every parameterless GET is serialized once, keyed by resource method")
+  void render_serializesEndpoints() throws Exception {
+    MetadataCache.Document document =
+        cache.find(method(EnumResource.class, "getLeadSources")).get();
+
+    assertThat(document.path()).isEqualTo("/api/enums/lead-sources");
+    assertThat(document.json())
+        .isEqualTo(objectMapper.writeValueAsBytes(enumResource.getLeadSources()));
+
+    // Response entities are unwrapped, the class-level @Path is used as is
+    MetadataCache.Document schema =
+        cache.find(method(ActivitySchemaResource.class, "getActivitySchema")).get();
+    assertThat(schema.path()).isEqualTo("/api/activities/schema");
+    assertThat(objectMapper.readTree(schema.json()).get(0).get("cardId").asText())
+        .isEqualTo("activity");
+  }
+
+  @Test
+  @DisplayName("Render: failing and parameterized endpoints fall through to the resource")
+  void render_skipsFailingAndParameterized() throws Exception {
+    assertThat(cache.find(method(BrokenResource.class, "fails"))).isEmpty();
+    assertThat(cache.find(BrokenResource.class.getMethod("withParam", String.class))).isEmpty();
+    assertThat(cache.find(method(BrokenResource.class, "works"))).isPresent();
+  }
+
+  @Test
+  @DisplayName("Conditional GET: matching If-None-Match answers 304 with the same ETag")
+  void respond_ifNoneMatch() throws Exception {
+    MetadataCache.Document document =
+        cache.find(method(EnumResource.class, "getLeadSources")).get();
+
+    Response full = cache.respond(document, null, null, null);
+    String etag = full.getHeaderString(HttpHeaders.ETAG);
+    assertThat(full.getStatus()).isEqualTo(200);
+    assertThat(full.getEntity()).isSameAs(document.json());
+    assertThat(etag).startsWith("\"").endsWith("\"");
+    assertThat(full.getHeaderString(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=3600");
+
+    assertThat(cache.respond(document, etag, null, null).getStatus()).isEqualTo(304);
+    assertThat(cache.respond(document, "\"other\", W/" + etag, null, null).getStatus())
+        .isEqualTo(304);
+    assertThat(cache.respond(document, "\"other\"", null, null).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  @DisplayName("Compression: large documents are served pre-gzipped if the client accepts it")
+  void respond_gzip() throws Exception {
+    MetadataCache.Document schema =
+        cache.find(method(ActivitySchemaResource.class, "getActivitySchema")).get();
+    assertThat(schema.gzip()).isNotNull();
+
+    Response gzipped = cache.respond(schema, null, "br, gzip;q=0.8", null);
+    assertThat(gzipped.getHeaderString(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    assertThat(gzipped.getHeaderString(HttpHeaders.ETAG)).isEqualTo(schema.etag(true));
+    assertThat(gunzip((byte[]) gzipped.getEntity())).isEqualTo(schema.json());
+
+    Response identity = cache.respond(schema, null, "gzip;q=0", null);
+    assertThat(identity.getHeaderString(HttpHeaders.CONTENT_ENCODING)).isNull();
+    assertThat(identity.getEntity()).isSameAs(schema.json());
+
+    // Small documents are never compressed
+    MetadataCache.Document small = cache.find(method(BrokenResource.class, "works")).get();
+    assertThat(small.gzip()).isNull();
+  }
+
+  @Test
+  @DisplayName("Bundle: all documents keyed by path, current version allows immutable caching")
+  void bundle_containsAllDocuments() throws Exception {
+    MetadataCache.Document bundle = cache.bundle().get();
+    JsonNode json = objectMapper.readTree(bundle.json());
+
+    assertThat(json.get("version").asText()).isEqualTo(bundle.hash());
+    assertThat(json.get("documents").get("/api/enums/lead-sources"))
+        .isEqualTo(objectMapper.valueToTree(enumResource.getLeadSources()));
+    assertThat(json.get("documents").has("/api/activities/schema")).isTrue();
+    assertThat(json.get("documents").has("/test/broken/fails")).isFalse();
+
+    assertThat(
+            cache
+                .respond(bundle, null, null, bundle.hash())
+                .getHeaderString(HttpHeaders.CACHE_CONTROL))
+        .isEqualTo(MetadataCache.IMMUTABLE_CACHE_CONTROL);
+    assertThat(
+            cache.respond(bundle, null, null, "stale").getHeaderString(HttpHeaders.CACHE_CONTROL))
+        .isEqualTo("public, max-age=3600");
+
+    // Same content, same version
+    MetadataCache other = new MetadataCache();
+    other.objectMapper = objectMapper;
+    other.maxAge = cache.maxAge;
+    other.gzipMinSize = cache.gzipMinSize;
+    other.render(List.of(new BrokenResource(), new ActivitySchemaResource(), enumResource));
+    assertThat(other.bundle().get().hash()).isEqualTo(bundle.hash());
+  }
+
+  private static Method method(Class<?> type, String name) throws NoSuchMethodException {
+    return type.getMethod(name);
+  }
+
+  private static byte[] gunzip(byte[] content) throws Exception {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+      return in.readAllBytes();
+    }
+  }
+
+  @Path("/test/broken")
+  public static class BrokenResource {
+
+    @GET
+    @Path("/fails")
+    public List<String> fails() {
+      throw new IllegalStateException("Boom");
+    }
+
+    @GET
+    @Path("/with-param")
+    public List<String> withParam(@QueryParam("q") String query) {
+      return List.of(query);
+    }
+
+    @GET
+    @Path("/works")
+    public List<String> works() {
+      return List.of("ok");
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package de.freshplan.infrastructure.pg;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.infrastructure.pg.PartitionCatalog.PartitionInfo;
+import de.freshplan.infrastructure.pg.PartitionMaintenanceService.MaintenanceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests for PartitionMaintenanceService and PartitionedTable.
+ *
+ * <p>Strategy: Pure Mockito, NO @QuarkusTest, NO DB. DDL lives in PartitionCatalog and is mocked.
+ */
+@DisplayName("PartitionMaintenanceService Unit Tests")
+@Tag("unit")
+class PartitionMaintenanceServiceTest {
+
+  private static final YearMonth NOW = YearMonth.of(2026, 3);
+
+  private final PartitionedTable events = new PartitionedTable("domain_events", "created_at", 2, 6);
+
+  private PartitionCatalog catalog;
+  private PartitionMaintenanceService service;
+
+  @BeforeEach
+  void setUp() {
+    catalog = mock(PartitionCatalog.class);
+    service = new PartitionMaintenanceService();
+    service.catalog = catalog;
+    service.meterRegistry = new SimpleMeterRegistry();
+    service.clock = Clock.fixed(Instant.parse("2026-03-15T12:00:00Z"), ZoneOffset.UTC);
+    service.monthsAhead = 2;
+    service.auditTrailRetentionMonths = 84;
+    service.domainEventsRetentionMonths = 6;
+    service.dropDetached = true;
+    service.registerMetrics();
+  }
+
+  @Test
+  @DisplayName("PartitionedTable uses the V9/V223 naming scheme")
+  void namingScheme() {
+    assertThat(events.partitionName(YearMonth.of(2025, 8))).isEqualTo("domain_events_2025_08");
+    assertThat(events.defaultPartition()).isEqualTo("domain_events_default");
+    assertThat(events.monthOf("domain_events_2025_08")).contains(YearMonth.of(2025, 8));
+    assertThat(events.monthOf("domain_events_default")).isEmpty();
+    assertThat(events.monthOf("audit_trail_2025_08")).isEmpty();
+    assertThat(PartitionedTable.upperBound(YearMonth.of(2025, 12))).hasToString("2026-01-01");
+  }
+
+  @Test
+  @DisplayName("PartitionedTable rejects non-identifier table names")
+  void rejectsInvalidIdentifiers() {
+    assertThatThrownBy(() -> new PartitionedTable("events; DROP TABLE x", "created_at", 1, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("missingMonths() covers current month plus monthsAhead")
+  void missingMonths() {
+    List<YearMonth> missing =
+        PartitionMaintenanceService.missingMonths(Set.of(NOW, NOW.plusMonths(2)), NOW, 3);
+
+    assertThat(missing).containsExactly(NOW.plusMonths(1), NOW.plusMonths(3));
+  }
+
+  @Test
+  @DisplayName("expiredMonths() only returns months completely outside retention")
+  void expiredMonths() {
+    Set<YearMonth> existing =
+        Set.of(YearMonth.of(2025, 8), YearMonth.of(2025, 9), YearMonth.of(2025, 10), NOW);
+
+    assertThat(PartitionMaintenanceService.expiredMonths(existing, NOW, 6))
+        .containsExactly(YearMonth.of(2025, 8));
+    assertThat(PartitionMaintenanceService.expiredMonths(existing, NOW, 0)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("maintain() drains DEFAULT, creates ahead and drops expired partitions")
+  void maintainRunsAllSteps() {
+    when(catalog.isPartitioned(events)).thenReturn(true);
+    when(catalog.monthsInDefault(events)).thenReturn(List.of(YearMonth.of(2026, 2)));
+    when(catalog.moveMonthOutOfDefault(events, YearMonth.of(2026, 2))).thenReturn(42);
+    when(catalog.listPartitions(events))
+        .thenReturn(
+            List.of(
+                new PartitionInfo("domain_events_default", true, 8192, 0),
+                new PartitionInfo("domain_events_2025_08", false, 8192, 10),
+                new PartitionInfo("domain_events_2026_02", false, 8192, 42),
+                new PartitionInfo("domain_events_2026_03", false, 8192, 5)));
+    when(catalog.createPartition(eq(events), any())).thenReturn(true);
+    when(catalog.detachPartition(events, "domain_events_2025_08", true)).thenReturn(true);
+
+    MaintenanceResult result = service.maintain(events);
+
+    assertThat(result.movedRows()).isEqualTo(42);
+    assertThat(result.createdPartitions()).isEqualTo(2);
+    assertThat(result.removedPartitions()).isEqualTo(1);
+    verify(catalog).createPartition(events, YearMonth.of(2026, 4));
+    verify(catalog).createPartition(events, YearMonth.of(2026, 5));
+    verify(catalog).deleteCausationsBefore(YearMonth.of(2025, 9));
+  }
+
+  @Test
+  @DisplayName("maintain() skips tables that are not partitioned")
+  void skipsUnpartitionedTables() {
+    when(catalog.isPartitioned(events)).thenReturn(false);
+
+    assertThat(service.maintain(events).skipped()).isTrue();
+    verify(catalog, never()).createPartition(any(), any());
+  }
+}
@@ -0,0 +1,33 @@
+package de.freshplan.infrastructure.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RetryBackoff Unit Tests")
+@Tag("unit")
+class RetryBackoffTest {
+
+  private static final Duration INITIAL = Duration.ofSeconds(30);
+  private static final Duration MAX = Duration.ofMinutes(10);
+
+  @Test
+  @DisplayName("exponential() doubles per attempt and is capped at max")
+  void doublesAndCaps() {
+    assertThat(RetryBackoff.exponential(1, INITIAL, MAX)).isEqualTo(Duration.ofSeconds(30));
+    assertThat(RetryBackoff.exponential(2, INITIAL, MAX)).isEqualTo(Duration.ofSeconds(60));
+    assertThat(RetryBackoff.exponential(3, INITIAL, MAX)).isEqualTo(Duration.ofSeconds(120));
+    assertThat(RetryBackoff.exponential(6, INITIAL, MAX)).isEqualTo(MAX);
+    assertThat(RetryBackoff.exponential(500, INITIAL, MAX)).isEqualTo(MAX);
+  }
+
+  @Test
+  @DisplayName("exponential() treats attempts below 1 as the first attempt")
+  void nonPositiveAttemptsUseInitial() {
+    assertThat(RetryBackoff.exponential(0, INITIAL, MAX)).isEqualTo(INITIAL);
+    assertThat(RetryBackoff.exponential(-3, INITIAL, MAX)).isEqualTo(INITIAL);
+  }
+}
@@ -0,0 +1,308 @@
+package de.freshplan.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RlsContextPropagator} - including the per-request round-trip count that
+ * motivated it (formerly 1 + 2 + 4 per {@code @RlsContext} method).
+ */
+@Tag("unit")
+class RlsContextPropagatorTest {
+
+  private static final RlsSessionContext ALICE =
+      new RlsSessionContext("alice", "SALES", null, "DE", null, "freshfoodz", "DE", "sales,user");
+  private static final RlsSessionContext SYSTEM =
+      new RlsSessionContext("admin", "ADMIN", null, null, null, "freshfoodz", "DE", "ADMIN");
+
+  private FakeTransactionRegistry tsr;
+  private SimpleMeterRegistry registry;
+  private Connection connection;
+  private PreparedStatement statement;
+  private EntityManager em;
+  private RlsContextPropagator propagator;
+  private RlsSessionContext requestContext;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    requestContext = null;
+    tsr = new FakeTransactionRegistry();
+    registry = new SimpleMeterRegistry();
+    connection = mock(Connection.class);
+    statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+    Session session = mock(Session.class);
+    doAnswer(
+            inv -> {
+              inv.<Work>getArgument(0).execute(connection);
+              return null;
+            })
+        .when(session)
+        .doWork(any());
+    em = mock(EntityManager.class);
+    when(em.unwrap(Session.class)).thenReturn(session);
+
+    propagator =
+        new RlsContextPropagator() {
+          @Override
+          RlsSessionContext requestContext() {
+            return requestContext;
+          }
+        };
+    propagator.tsr = tsr;
+    propagator.meterRegistry = registry;
+    propagator.enabled = true;
+    propagator.failClosed = true;
+    propagator.init();
+  }
+
+  @Test
+  void applySql_setsAllKeysTransactionLocalInOneStatement() {
+    assertThat(RlsContextPropagator.APPLY_SQL).startsWith("SELECT set_config(");
+    for (AppGuc guc : AppGuc.values()) {
+      assertThat(RlsContextPropagator.APPLY_SQL)
+          .contains("set_config('" + guc.getKey() + "', ?, true)");
+    }
+  }
+
+  @Test
+  void acquire_inTransaction_appliesRequestContextOnce() throws Exception {
+    requestContext = ALICE;
+    tsr.begin();
+
+    propagator.onConnectionAcquire(connection);
+
+    verify(connection).prepareStatement(RlsContextPropagator.APPLY_SQL);
+    verify(statement).setString(AppGuc.CURRENT_USER.ordinal() + 1, "alice");
+    verify(statement).setString(AppGuc.CURRENT_ROLE.ordinal() + 1, "SALES");
+    verify(statement).setString(AppGuc.TENANT_ID.ordinal() + 1, "");
+    verify(statement).setString(AppGuc.ROLES.ordinal() + 1, "sales,user");
+    verify(statement).execute();
+    assertThat(counter("freshplan_rls_context_applied", "source", "acquire")).isEqualTo(1);
+  }
+
+  @Test
+  void acquire_withoutTransaction_setsNothing() throws Exception {
+    requestContext = ALICE;
+
+    propagator.onConnectionAcquire(connection);
+
+    verify(connection, never()).prepareStatement(anyString());
+    assertThat(counter("freshplan_rls_context_skipped", "reason", "no_transaction")).isEqualTo(1);
+  }
+
+  @Test
+  void acquire_anonymous_setsNothing() throws Exception {
+    tsr.begin();
+
+    propagator.onConnectionAcquire(connection);
+
+    verify(connection, never()).prepareStatement(anyString());
+  }
+
+  @Test
+  void guard_beforeAcquire_isDeferredToAcquisition() throws Exception {
+    tsr.begin();
+
+    propagator.apply(SYSTEM, em);
+    verify(connection, never()).prepareStatement(anyString());
+
+    propagator.onConnectionAcquire(connection);
+    verify(statement).setString(AppGuc.CURRENT_USER.ordinal() + 1, "admin");
+    verify(statement, times(1)).execute();
+  }
+
+  @Test
+  void guard_sameContextOnConnection_isSkipped() throws Exception {
+    requestContext = ALICE;
+    tsr.begin();
+    propagator.onConnectionAcquire(connection);
+
+    propagator.apply(ALICE, em);
+
+    verify(statement, times(1)).execute();
+    verifyNoInteractions(em);
+    assertThat(counter("freshplan_rls_context_skipped", "reason", "unchanged")).isEqualTo(1);
+  }
+
+  @Test
+  void guard_differentContext_switchesOnTransactionConnection() throws Exception {
+    requestContext = ALICE;
+    tsr.begin();
+    propagator.onConnectionAcquire(connection);
+
+    propagator.apply(SYSTEM, em);
+    propagator.apply(SYSTEM, em);
+
+    verify(statement, times(2)).execute();
+    verify(statement).setString(AppGuc.CURRENT_ROLE.ordinal() + 1, "ADMIN");
+    assertThat(counter("freshplan_rls_context_applied", "source", "switch")).isEqualTo(1);
+  }
+
+  @Test
+  void guard_afterAnonymousAcquire_appliesImmediately() throws Exception {
+    tsr.begin();
+    propagator.onConnectionAcquire(connection);
+
+    propagator.apply(SYSTEM, em);
+
+    verify(statement, times(1)).execute();
+    verify(em).unwrap(Session.class);
+  }
+
+  @Test
+  void newTransaction_appliesAgain() throws Exception {
+    requestContext = ALICE;
+    tsr.begin();
+    propagator.onConnectionAcquire(connection);
+    tsr.begin();
+    propagator.onConnectionAcquire(connection);
+
+    verify(statement, times(2)).execute();
+  }
+
+  @Test
+  void failure_failClosed_throws() throws Exception {
+    requestContext = ALICE;
+    tsr.begin();
+    when(statement.execute()).thenThrow(new SQLException("boom"));
+
+    assertThatThrownBy(() -> propagator.onConnectionAcquire(connection))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("fail-closed");
+    assertThat(counter("freshplan_rls_context_failures", "source", "apply")).isEqualTo(1);
+  }
+
+  @Test
+  void failure_failOpen_continues() throws Exception {
+    propagator.failClosed = false;
+    requestContext = ALICE;
+    tsr.begin();
+    when(statement.execute()).thenThrow(new SQLException("boom"));
+
+    propagator.onConnectionAcquire(connection);
+
+    assertThat(counter("freshplan_rls_context_failures", "source", "apply")).isEqualTo(1);
+  }
+
+  @Test
+  void disabled_doesNothing() throws Exception {
+    propagator.enabled = false;
+    requestContext = ALICE;
+    tsr.begin();
+
+    propagator.onConnectionAcquire(connection);
+
+    verify(connection, never()).prepareStatement(anyString());
+  }
+
+  /**
+   * Round-trip benchmark of a typical lead request: class-level {@code @RlsContext} on the resource
+   * plus method-level {@code @RlsContext} on the service, then the first query. The former filters
+   * + guard needed 1 (SessionSettingsFilter) + 2 (RlsGucFilter) + 2 x 4 (guard) = 11 statements,
+   * two of them on foreign connections.
+   */
+  @Test
+  void typicalRlsRequest_needsSingleRoundTrip() throws Exception {
+    requestContext = ALICE;
+    tsr.begin();
+
+    propagator.apply(ALICE, em); // LeadResource (class-level @RlsContext)
+    propagator.apply(ALICE, em); // LeadService (method-level @RlsContext)
+    propagator.onConnectionAcquire(connection); // first Hibernate statement
+    propagator.apply(ALICE, em); // further @RlsContext call in the same transaction
+
+    verify(connection, times(1)).prepareStatement(anyString());
+    verify(statement, times(1)).execute();
+    verify(statement, times(AppGuc.values().length)).setString(anyInt(), anyString());
+  }
+
+  @Test
+  void primaryRole_isDeterministicAndUppercase() {
+    assertThat(RlsRequestContext.primaryRole(Set.of("sales", "admin", "viewer")))
+        .isEqualTo("ADMIN");
+    assertThat(RlsRequestContext.primaryRole(Set.of("viewer", "manager"))).isEqualTo("MANAGER");
+    assertThat(RlsRequestContext.primaryRole(Set.of("zeta", "beta"))).isEqualTo("BETA");
+    assertThat(RlsRequestContext.primaryRole(Set.of())).isNull();
+  }
+
+  @Test
+  void sessionContext_mapsNullToEmptyString() {
+    assertThat(ALICE.value(AppGuc.TENANT_ID)).isEmpty();
+    assertThat(ALICE.value(AppGuc.CURRENT_TERRITORY)).isEqualTo("DE");
+    assertThat(ALICE.value(AppGuc.ORG_ID)).isEqualTo("freshfoodz");
+  }
+
+  private double counter(String name, String tag, String value) {
+    return registry.get(name).tag(tag, value).counter().count();
+  }
+
+  /** Minimal registry: one resource map per "transaction". */
+  private static final class FakeTransactionRegistry implements TransactionSynchronizationRegistry {
+    private Object key;
+    private Map<Object, Object> resources = new HashMap<>();
+
+    void begin() {
+      key = new Object();
+      resources = new HashMap<>();
+    }
+
+    @Override
+    public Object getTransactionKey() {
+      return key;
+    }
+
+    @Override
+    public void putResource(Object k, Object value) {
+      if (key == null) {
+        throw new IllegalStateException("No transaction");
+      }
+      resources.put(k, value);
+    }
+
+    @Override
+    public Object getResource(Object k) {
+      if (key == null) {
+        throw new IllegalStateException("No transaction");
+      }
+      return resources.get(k);
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization sync) {}
+
+    @Override
+    public int getTransactionStatus() {
+      return 0;
+    }
+
+    @Override
+    public void setRollbackOnly() {}
+
+    @Override
+    public boolean getRollbackOnly() {
+      return false;
+    }
+  }
+}
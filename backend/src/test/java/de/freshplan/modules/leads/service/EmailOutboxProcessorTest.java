@@ -0,0 +1,186 @@
+package de.freshplan.modules.leads.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.infrastructure.queue.LeaseQueue.QueueStats;
+import de.freshplan.infrastructure.queue.LeaseQueue.ReleasedClaims;
+import de.freshplan.modules.leads.service.EmailOutboxClaimService.ClaimedEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests for EmailOutboxProcessor (Modul 05 - Outbox Dispatcher).
+ *
+ * <p>Strategy: Pure Mockito, NO @QuarkusTest, NO DB. Claim/Update SQL lives in
+ * EmailOutboxClaimService and is mocked here.
+ */
+@DisplayName("EmailOutboxProcessor Unit Tests")
+@Tag("unit")
+class EmailOutboxProcessorTest {
+
+  private static final Instant NOW = Instant.parse("2026-03-02T10:00:00Z");
+  private static final LocalDateTime NOW_LOCAL = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+  private EmailOutboxClaimService claimService;
+  private EmailProviderService emailProvider;
+  private SimpleMeterRegistry meterRegistry;
+  private EmailOutboxProcessor processor;
+
+  @BeforeEach
+  void setUp() {
+    claimService = mock(EmailOutboxClaimService.class);
+    emailProvider = mock(EmailProviderService.class);
+    meterRegistry = new SimpleMeterRegistry();
+    when(claimService.queueStats(any())).thenReturn(QueueStats.EMPTY);
+    when(claimService.releaseExpiredClaims(any(), anyInt(), any())).thenReturn(ReleasedClaims.NONE);
+
+    processor = new EmailOutboxProcessor();
+    processor.claimService = claimService;
+    processor.emailProvider = emailProvider;
+    processor.meterRegistry = meterRegistry;
+    processor.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    processor.enabled = true;
+    processor.batchSize = 2;
+    processor.concurrency = 2;
+    processor.maxAttempts = 3;
+    processor.backoffInitialSeconds = 30;
+    processor.backoffMaxSeconds = 3600;
+    processor.leaseSeconds = 300;
+    processor.sendTimeoutSeconds = 5;
+    processor.fromEmail = "noreply@freshfoodz.de";
+    processor.fromName = "FreshFoodz";
+    processor.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    processor.shutdown();
+  }
+
+  @Test
+  @DisplayName("processBatch() marks all successful sends as SENT in one update")
+  void successfulSendsAreMarkedSentTogether() {
+    when(emailProvider.send(any())).thenReturn(true);
+
+    int processed = processor.processBatch(List.of(email(1L, 0), email(2L, 0)));
+
+    assertThat(processed).isEqualTo(2);
+    verify(claimService).markSent(argThat(ids -> ids.containsAll(List.of(1L, 2L))), any());
+    verify(claimService, never()).scheduleRetry(anyLong(), any(), any());
+    assertThat(meterRegistry.counter("freshplan_email_outbox_dispatched", "result", "sent").count())
+        .isEqualTo(2.0);
+  }
+
+  @Test
+  @DisplayName("processBatch() schedules retry with exponential backoff on provider failure")
+  void failedSendIsRetriedWithBackoff() {
+    when(emailProvider.send(any())).thenReturn(false);
+
+    processor.processBatch(List.of(email(7L, 1)));
+
+    // attempts 1 → 2: backoff = 30s * 2^(2-1) = 60s
+    verify(claimService).scheduleRetry(eq(7L), contains("rejected"), eq(NOW_LOCAL.plusSeconds(60)));
+    verify(claimService, never()).deadLetter(anyLong(), any(), any());
+  }
+
+  @Test
+  @DisplayName("processBatch() moves email to Dead-Letter when max attempts reached")
+  void exhaustedEmailGoesToDeadLetter() {
+    when(emailProvider.send(any())).thenThrow(new IllegalStateException("SMTP down"));
+
+    processor.processBatch(List.of(email(9L, 2)));
+
+    verify(claimService).deadLetter(eq(9L), contains("SMTP down"), eq(NOW_LOCAL));
+    verify(claimService, never()).scheduleRetry(anyLong(), any(), any());
+  }
+
+  @Test
+  @DisplayName("dispatch() keeps claiming while batches are full")
+  void dispatchDrainsFullBatches() {
+    when(emailProvider.send(any())).thenReturn(true);
+    when(claimService.claimDueBatch(eq(2), any()))
+        .thenReturn(List.of(email(1L, 0), email(2L, 0)))
+        .thenReturn(List.of(email(3L, 0)));
+
+    int processed = processor.dispatch();
+
+    assertThat(processed).isEqualTo(3);
+    verify(claimService, times(2)).claimDueBatch(eq(2), any());
+    verify(claimService).releaseExpiredClaims(NOW_LOCAL.minusSeconds(300), 3, NOW_LOCAL);
+    verify(claimService).queueStats(any());
+  }
+
+  @Test
+  @DisplayName("processBatch() interrupts a hung send and records its result only when it returns")
+  void timedOutSendStaysClaimedUntilItReturns() throws Exception {
+    processor.sendTimeoutSeconds = 1;
+    CountDownLatch interrupted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(emailProvider.send(any()))
+        .thenAnswer(
+            inv -> {
+              try {
+                Thread.sleep(60_000);
+              } catch (InterruptedException e) {
+                interrupted.countDown();
+              }
+              // Provider finishes the SMTP transaction despite the interrupt
+              release.await();
+              return true;
+            });
+
+    processor.processBatch(List.of(email(4L, 0)));
+
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    // No retry while the send may still deliver the message
+    verify(claimService, never()).scheduleRetry(anyLong(), any(), any());
+    verify(claimService, never()).markSent(eq(List.of(4L)), any());
+
+    release.countDown();
+    verify(claimService, timeout(5000)).markSent(eq(List.of(4L)), any());
+    verify(claimService, never()).scheduleRetry(anyLong(), any(), any());
+  }
+
+  @Test
+  @DisplayName("dispatch() counts claims dead-lettered on lease expiry")
+  void expiredClaimsOnLastAttemptAreDeadLettered() {
+    when(claimService.releaseExpiredClaims(any(), anyInt(), any()))
+        .thenReturn(new ReleasedClaims(1, 2));
+    when(claimService.claimDueBatch(anyInt(), any())).thenReturn(List.of());
+
+    processor.dispatch();
+
+    assertThat(
+            meterRegistry
+                .counter("freshplan_email_outbox_dispatched", "result", "dead_letter")
+                .count())
+        .isEqualTo(2.0);
+  }
+
+  @Test
+  @DisplayName("dispatch() is a no-op when the outbox is disabled")
+  void dispatchDisabled() {
+    processor.enabled = false;
+
+    assertThat(processor.dispatch()).isZero();
+    verifyNoInteractions(claimService);
+  }
+
+  private static ClaimedEmail email(Long id, int attempts) {
+    return new ClaimedEmail(
+        id, "lead" + id + "@example.com", "Subject", "<p>Body</p>", "T3", "lead:" + id, attempts);
+  }
+}
@@ -0,0 +1,202 @@
+package de.freshplan.modules.leads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.freshplan.modules.leads.domain.ActivityType;
+import de.freshplan.modules.leads.domain.Lead;
+import de.freshplan.modules.leads.domain.LeadStatus;
+import de.freshplan.modules.leads.service.GdprPdfGeneratorService.ActivityRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests für den gestreamten DSGVO-Datenexport: Keyset-Paging der Aktivitäten, fortlaufendes
+ * Schreiben in den Ausgabestrom und {@link GdprExportBulkhead}.
+ */
+@Tag("unit")
+class GdprPdfStreamingTest {
+
+  private static final int PAGE_SIZE = 50;
+  private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+  private List<ActivityRow> history;
+  private List<ActivityRow> requestedAfter;
+  private GdprPdfGeneratorService pdfService;
+
+  @BeforeEach
+  void setUp() {
+    history = new ArrayList<>();
+    requestedAfter = new ArrayList<>();
+    pdfService =
+        new GdprPdfGeneratorService() {
+          @Override
+          List<ActivityRow> loadActivityPage(Long leadId, ActivityRow after, int limit) {
+            requestedAfter.add(after);
+            int from = after == null ? 0 : history.indexOf(after) + 1;
+            return List.copyOf(history.subList(from, Math.min(history.size(), from + limit)));
+          }
+        };
+    pdfService.activityPageSize = PAGE_SIZE;
+  }
+
+  @Test
+  @DisplayName("Keyset: Aktivitäten werden seitenweise ab der letzten Zeile nachgeladen")
+  void write_pagesThroughActivitiesByKeyset() {
+    addActivities(120);
+
+    pdfService.writeLeadDataExport(lead(), new ByteArrayOutputStream());
+
+    assertThat(requestedAfter).hasSize(3);
+    assertThat(requestedAfter.get(0)).isNull();
+    assertThat(requestedAfter.get(1)).isEqualTo(history.get(PAGE_SIZE - 1));
+    assertThat(requestedAfter.get(2)).isEqualTo(history.get(2 * PAGE_SIZE - 1));
+  }
+
+  @Test
+  @DisplayName("Keyset: volle letzte Seite führt zu genau einer leeren Folgeabfrage")
+  void write_exactMultipleOfPageSize_stopsAfterEmptyPage() {
+    addActivities(2 * PAGE_SIZE);
+
+    pdfService.writeLeadDataExport(lead(), new ByteArrayOutputStream());
+
+    assertThat(requestedAfter).hasSize(3);
+  }
+
+  @Test
+  @DisplayName("Vollständigkeit: alle Aktivitäten landen im PDF (keine 50er-Grenze mehr)")
+  void write_largeHistory_producesCompletePdf() {
+    addActivities(1_000);
+    ByteArrayOutputStream small = new ByteArrayOutputStream();
+    ByteArrayOutputStream large = new ByteArrayOutputStream();
+
+    pdfService.writeLeadDataExport(lead(), large);
+    history.subList(60, history.size()).clear();
+    pdfService.writeLeadDataExport(lead(), small);
+
+    assertThat(new String(large.toByteArray(), 0, 5, StandardCharsets.ISO_8859_1))
+        .isEqualTo("%PDF-");
+    assertThat(tail(large.toByteArray())).contains("%%EOF");
+    assertThat(large.size()).isGreaterThan(small.size() * 2);
+  }
+
+  @Test
+  @DisplayName("Streaming: Seiten werden geschrieben, bevor die Historie vollständig gelesen ist")
+  void write_flushesPagesBeforeLastActivityPage() {
+    addActivities(600);
+    CountingStream out = new CountingStream();
+    List<Long> bytesAtPageLoad = new ArrayList<>();
+    GdprPdfGeneratorService streaming =
+        new GdprPdfGeneratorService() {
+          @Override
+          List<ActivityRow> loadActivityPage(Long leadId, ActivityRow after, int limit) {
+            bytesAtPageLoad.add(out.count);
+            int from = after == null ? 0 : history.indexOf(after) + 1;
+            return List.copyOf(history.subList(from, Math.min(history.size(), from + limit)));
+          }
+        };
+    streaming.activityPageSize = PAGE_SIZE;
+
+    streaming.writeLeadDataExport(lead(), out);
+
+    assertThat(bytesAtPageLoad.get(bytesAtPageLoad.size() - 1))
+        .isGreaterThan(bytesAtPageLoad.get(0));
+    assertThat(out.closed.get()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Leerer Lead: Hinweis statt Tabelle, genau eine Abfrage")
+  void write_withoutActivities_queriesOnce() {
+    byte[] pdf = pdfService.generateLeadDataExport(lead());
+
+    assertThat(pdf).isNotEmpty();
+    assertThat(requestedAfter).containsExactly((ActivityRow) null);
+  }
+
+  @Test
+  @DisplayName("Bulkhead: weist ab, wenn alle Slots belegt sind, und gibt Slots idempotent frei")
+  void bulkhead_limitsConcurrentExports() {
+    GdprExportBulkhead bulkhead = new GdprExportBulkhead();
+    bulkhead.maxConcurrent = 2;
+    bulkhead.acquireTimeout = Duration.ZERO;
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    bulkhead.meterRegistry = registry;
+    bulkhead.init();
+
+    Optional<GdprExportBulkhead.Permit> first = bulkhead.tryAcquire();
+    Optional<GdprExportBulkhead.Permit> second = bulkhead.tryAcquire();
+    Optional<GdprExportBulkhead.Permit> third = bulkhead.tryAcquire();
+
+    assertThat(first).isPresent();
+    assertThat(second).isPresent();
+    assertThat(third).isEmpty();
+    assertThat(registry.get("freshplan_gdpr_export_active").gauge().value()).isEqualTo(2);
+    assertThat(registry.get("freshplan_gdpr_export_rejected").counter().count()).isEqualTo(1);
+
+    first.get().close();
+    first.get().close();
+
+    assertThat(bulkhead.activeExports()).isEqualTo(1);
+    assertThat(bulkhead.tryAcquire()).isPresent();
+    assertThat(bulkhead.tryAcquire()).isEmpty();
+  }
+
+  private void addActivities(int count) {
+    for (int i = 0; i < count; i++) {
+      history.add(
+          new ActivityRow(
+              (long) i + 1,
+              BASE.plusHours(i / 3),
+              i % 2 == 0 ? ActivityType.CALL : ActivityType.NOTE,
+              "Kontakt #" + (i + 1) + " - Rückfrage zu Lieferzeiten und Sortiment",
+              "sales-" + (i % 4)));
+    }
+  }
+
+  private static Lead lead() {
+    Lead lead = new Lead();
+    lead.id = 4711L;
+    lead.companyName = "Streaming Catering GmbH";
+    lead.status = LeadStatus.REGISTERED;
+    lead.createdAt = BASE;
+    return lead;
+  }
+
+  private static String tail(byte[] pdf) {
+    int start = Math.max(0, pdf.length - 100);
+    return new String(pdf, start, pdf.length - start, StandardCharsets.ISO_8859_1);
+  }
+
+  /** Zählt geschriebene Bytes, ohne sie zu puffern. */
+  private static final class CountingStream extends OutputStream {
+    private long count;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed.set(true);
+    }
+  }
+}
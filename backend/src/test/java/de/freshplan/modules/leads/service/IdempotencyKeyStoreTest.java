@@ -0,0 +1,141 @@
+package de.freshplan.modules.leads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.freshplan.modules.leads.service.IdempotencyKeyStore.KeyRecord;
+import de.freshplan.modules.leads.service.IdempotencyKeyStore.State;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for the claim SQL of {@link IdempotencyKeyStore} against {@code
+ * idempotency_keys} (V10060).
+ *
+ * <p>Every store method commits in its own transaction ({@code REQUIRES_NEW}), so no
+ * {@code @TestTransaction}: each test uses a random tenant and deletes its keys afterwards.
+ */
+@QuarkusTest
+@Tag("integration")
+@DisplayName("IdempotencyKeyStore Integration Tests")
+class IdempotencyKeyStoreTest {
+
+  private static final String KEY = "key-1";
+  private static final String HASH = "hash-a";
+  private static final Duration LEASE = Duration.ofMinutes(5);
+  private static final Duration TTL = Duration.ofHours(24);
+
+  @Inject IdempotencyKeyStore keyStore;
+  @Inject DataSource dataSource;
+
+  private String tenant;
+  private Instant now;
+
+  @BeforeEach
+  void setUp() {
+    tenant = "test-" + UUID.randomUUID().toString().substring(0, 8);
+    now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement("DELETE FROM idempotency_keys WHERE tenant_id = ?")) {
+      statement.setString(1, tenant);
+      statement.executeUpdate();
+    }
+  }
+
+  @Test
+  @DisplayName("Fresh key: claim succeeds and the row is IN_PROGRESS")
+  void claim_freshKey() {
+    assertThat(claim(HASH, now)).isTrue();
+
+    KeyRecord record = keyStore.find(tenant, KEY, now).orElseThrow();
+    assertThat(record.state()).isEqualTo(State.IN_PROGRESS);
+    assertThat(record.requestHash()).isEqualTo(HASH);
+    assertThat(record.responseStatus()).isNull();
+    assertThat(record.leaseUntil()).isEqualTo(now.plus(LEASE));
+  }
+
+  @Test
+  @DisplayName("Duplicate while in progress: second claim fails, the owner is unchanged")
+  void claim_duplicateInProgress() {
+    assertThat(claim(HASH, now)).isTrue();
+
+    assertThat(claim(HASH, now.plusSeconds(1))).isFalse();
+    assertThat(claim("hash-b", now.plusSeconds(2))).isFalse();
+
+    KeyRecord record = keyStore.find(tenant, KEY, now).orElseThrow();
+    assertThat(record.requestHash()).isEqualTo(HASH);
+    assertThat(record.leaseUntil()).isEqualTo(now.plus(LEASE));
+  }
+
+  @Test
+  @DisplayName("Expired lease: another request takes the claim over, the old owner cannot complete")
+  void claim_takesOverExpiredLease() {
+    assertThat(claim(HASH, now)).isTrue();
+    Instant afterLease = now.plus(LEASE).plusSeconds(1);
+
+    assertThat(claim("hash-b", afterLease)).isTrue();
+
+    KeyRecord record = keyStore.find(tenant, KEY, afterLease).orElseThrow();
+    assertThat(record.state()).isEqualTo(State.IN_PROGRESS);
+    assertThat(record.requestHash()).isEqualTo("hash-b");
+    assertThat(record.leaseUntil()).isEqualTo(afterLease.plus(LEASE));
+    // The crashed owner's late completion is rejected
+    assertThat(keyStore.complete(tenant, KEY, HASH, 201, "{\"id\":1}")).isFalse();
+    assertThat(keyStore.complete(tenant, KEY, "hash-b", 201, "{\"id\":2}")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Completed key: claims fail and find() replays the stored response")
+  void claim_completedKeyIsReplayed() {
+    assertThat(claim(HASH, now)).isTrue();
+    assertThat(keyStore.complete(tenant, KEY, HASH, 201, "{\"id\":1}")).isTrue();
+
+    // Even long after the lease: a completed key is only reusable once it expired
+    assertThat(claim(HASH, now.plus(LEASE).plusSeconds(1))).isFalse();
+
+    KeyRecord record = keyStore.find(tenant, KEY, now).orElseThrow();
+    assertThat(record.state()).isEqualTo(State.COMPLETED);
+    assertThat(record.responseStatus()).isEqualTo(201);
+    assertThat(record.responseBody()).isEqualTo("{\"id\":1}");
+    assertThat(record.leaseUntil()).isNull();
+    // Completing twice is reported as a lost claim
+    assertThat(keyStore.complete(tenant, KEY, HASH, 201, "{\"id\":1}")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Expired key: claim starts over, released claim can be claimed again")
+  void claim_afterExpiryAndRelease() {
+    assertThat(claim(HASH, now)).isTrue();
+    assertThat(keyStore.complete(tenant, KEY, HASH, 201, "{\"id\":1}")).isTrue();
+    Instant afterExpiry = now.plus(TTL).plusSeconds(1);
+
+    assertThat(keyStore.find(tenant, KEY, afterExpiry)).isEmpty();
+    assertThat(claim(HASH, afterExpiry)).isTrue();
+    assertThat(keyStore.find(tenant, KEY, afterExpiry).orElseThrow().state())
+        .isEqualTo(State.IN_PROGRESS);
+
+    keyStore.release(tenant, KEY, HASH);
+    assertThat(keyStore.find(tenant, KEY, afterExpiry)).isEmpty();
+    assertThat(claim(HASH, afterExpiry)).isTrue();
+  }
+
+  private boolean claim(String requestHash, Instant at) {
+    return keyStore.claim(tenant, KEY, requestHash, at, at.plus(LEASE), at.plus(TTL));
+  }
+}
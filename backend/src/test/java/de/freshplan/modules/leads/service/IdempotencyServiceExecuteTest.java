@@ -0,0 +1,261 @@
+package de.freshplan.modules.leads.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.infrastructure.cqrs.EventSubscriber.EventNotification;
+import de.freshplan.modules.leads.service.IdempotencyKeyStore.KeyRecord;
+import de.freshplan.modules.leads.service.IdempotencyService.Outcome;
+import de.freshplan.modules.leads.service.IdempotencyService.StoredResponse;
+import io.vertx.core.json.JsonObject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests for IdempotencyService.execute() (claim before execute, in-flight coalescing, cache).
+ *
+ * <p>Strategy: Pure Mockito, NO @QuarkusTest, NO DB. The claim SQL lives in IdempotencyKeyStore and
+ * is mocked here; IdempotencyServiceTest covers the DB path.
+ */
+@DisplayName("IdempotencyService.execute() Unit Tests")
+@Tag("unit")
+class IdempotencyServiceExecuteTest {
+
+  private static final String TENANT = "tenant-1";
+  private static final String KEY = "key-1";
+  private static final String REQUEST = "{\"name\":\"John\"}";
+  private static final StoredResponse CREATED = new StoredResponse(201, "{\"id\":1}");
+
+  private IdempotencyKeyStore keyStore;
+  private IdempotencyService service;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    keyStore = mock(IdempotencyKeyStore.class);
+    when(keyStore.complete(any(), any(), any(), anyInt(), any())).thenReturn(true);
+    service = new IdempotencyService();
+    service.keyStore = keyStore;
+    service.cacheMaxEntries = 100;
+    service.cacheExpireAfterWrite = Duration.ofMinutes(10);
+    service.lease = Duration.ofMinutes(5);
+    service.waitTimeout = Duration.ofSeconds(5);
+    service.remotePollInterval = Duration.ofSeconds(5);
+    service.cleanupBatchSize = 2;
+    service.init();
+    executor = Executors.newFixedThreadPool(8);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("execute() claims the key, runs the operation and stores the response")
+  void executesAndStoresResponse() {
+    when(keyStore.claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any())).thenReturn(true);
+
+    Outcome outcome = service.execute(TENANT, KEY, REQUEST, () -> CREATED);
+
+    assertThat(outcome.kind()).isEqualTo(Outcome.Kind.EXECUTED);
+    assertThat(outcome.response()).isEqualTo(CREATED);
+    verify(keyStore).complete(eq(TENANT), eq(KEY), anyString(), eq(201), eq("{\"id\":1}"));
+  }
+
+  @Test
+  @DisplayName("execute() runs concurrent duplicates in this pod only once")
+  void concurrentDuplicatesAreCoalesced() throws Exception {
+    when(keyStore.claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any())).thenReturn(true);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+
+    Future<Outcome> first =
+        executor.submit(
+            () ->
+                service.execute(
+                    TENANT,
+                    KEY,
+                    REQUEST,
+                    () -> {
+                      executions.incrementAndGet();
+                      started.countDown();
+                      await(release);
+                      return CREATED;
+                    }));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+    List<Future<Outcome>> duplicates = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      duplicates.add(
+          executor.submit(
+              () ->
+                  service.execute(
+                      TENANT,
+                      KEY,
+                      REQUEST,
+                      () -> {
+                        executions.incrementAndGet();
+                        return CREATED;
+                      })));
+    }
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS).kind()).isEqualTo(Outcome.Kind.EXECUTED);
+    for (Future<Outcome> duplicate : duplicates) {
+      Outcome outcome = duplicate.get(5, TimeUnit.SECONDS);
+      assertThat(outcome.kind()).isEqualTo(Outcome.Kind.REPLAYED);
+      assertThat(outcome.response()).isEqualTo(CREATED);
+    }
+    assertThat(executions).hasValue(1);
+    verify(keyStore, times(1)).claim(any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("execute() replays recent responses from the local cache without DB access")
+  void replaysFromCache() {
+    when(keyStore.claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any())).thenReturn(true);
+    service.execute(TENANT, KEY, REQUEST, () -> CREATED);
+    clearInvocations(keyStore);
+
+    Outcome replay = service.execute(TENANT, KEY, REQUEST, () -> fail("must not execute"));
+    Outcome conflict = service.execute(TENANT, KEY, "{\"name\":\"Jane\"}", () -> CREATED);
+
+    assertThat(replay.kind()).isEqualTo(Outcome.Kind.REPLAYED);
+    assertThat(replay.response()).isEqualTo(CREATED);
+    assertThat(conflict.kind()).isEqualTo(Outcome.Kind.CONFLICT);
+    assertThat(service.checkIdempotencyKey(TENANT, KEY)).contains("{\"id\":1}");
+    verifyNoInteractions(keyStore);
+  }
+
+  @Test
+  @DisplayName("execute() returns the response of a lost claim but does not cache it")
+  void lostClaimIsNotCached() {
+    when(keyStore.claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any())).thenReturn(true);
+    when(keyStore.complete(any(), any(), any(), anyInt(), any())).thenReturn(false);
+
+    Outcome outcome = service.execute(TENANT, KEY, REQUEST, () -> CREATED);
+
+    assertThat(outcome.kind()).isEqualTo(Outcome.Kind.EXECUTED);
+    assertThat(outcome.response()).isEqualTo(CREATED);
+
+    // Not replayed from the local cache: the retry goes to the DB again
+    service.execute(TENANT, KEY, REQUEST, () -> CREATED);
+    verify(keyStore, times(2)).claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("execute() releases the claim when the operation fails, a retry executes again")
+  void failedOperationReleasesClaim() {
+    when(keyStore.claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any())).thenReturn(true);
+
+    assertThatThrownBy(
+            () ->
+                service.execute(
+                    TENANT,
+                    KEY,
+                    REQUEST,
+                    () -> {
+                      throw new IllegalStateException("boom");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+    verify(keyStore).release(eq(TENANT), eq(KEY), anyString());
+
+    Outcome retry = service.execute(TENANT, KEY, REQUEST, () -> CREATED);
+    assertThat(retry.kind()).isEqualTo(Outcome.Kind.EXECUTED);
+  }
+
+  @Test
+  @DisplayName("execute() waits for a claim of another pod and replays after the NOTIFY")
+  void waitsForRemoteClaim() throws Exception {
+    when(keyStore.claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any())).thenReturn(false);
+    String hash = IdempotencyService.hashRequest(REQUEST);
+    CountDownLatch inProgressSeen = new CountDownLatch(1);
+    when(keyStore.find(eq(TENANT), eq(KEY), any()))
+        .thenAnswer(
+            invocation -> {
+              if (inProgressSeen.getCount() > 0) {
+                inProgressSeen.countDown();
+                return Optional.of(record(IdempotencyKeyStore.State.IN_PROGRESS, hash, null));
+              }
+              return Optional.of(record(IdempotencyKeyStore.State.COMPLETED, hash, CREATED));
+            });
+
+    Future<Outcome> waiting =
+        executor.submit(
+            () -> service.execute(TENANT, KEY, REQUEST, () -> fail("must not execute")));
+    assertThat(inProgressSeen.await(5, TimeUnit.SECONDS)).isTrue();
+    service.onKeySettled(
+        new EventNotification(
+            IdempotencyService.NOTIFY_CHANNEL,
+            "idempotency.key.settled",
+            new JsonObject().put("tenant_id", TENANT).put("idempotency_key", KEY)));
+
+    Outcome outcome = waiting.get(2, TimeUnit.SECONDS);
+    assertThat(outcome.kind()).isEqualTo(Outcome.Kind.REPLAYED);
+    assertThat(outcome.response()).isEqualTo(CREATED);
+  }
+
+  @Test
+  @DisplayName("execute() returns IN_PROGRESS when another pod does not finish in time")
+  void remoteClaimTimesOut() {
+    service.waitTimeout = Duration.ofMillis(100);
+    service.remotePollInterval = Duration.ofMillis(20);
+    when(keyStore.claim(eq(TENANT), eq(KEY), anyString(), any(), any(), any())).thenReturn(false);
+    when(keyStore.find(eq(TENANT), eq(KEY), any()))
+        .thenReturn(
+            Optional.of(
+                record(
+                    IdempotencyKeyStore.State.IN_PROGRESS,
+                    IdempotencyService.hashRequest(REQUEST),
+                    null)));
+
+    Outcome outcome = service.execute(TENANT, KEY, REQUEST, () -> fail("must not execute"));
+
+    assertThat(outcome.kind()).isEqualTo(Outcome.Kind.IN_PROGRESS);
+  }
+
+  @Test
+  @DisplayName("cleanupExpiredKeys() deletes in batches until a partial batch")
+  void cleanupDeletesInBatches() {
+    when(keyStore.deleteExpiredBatch(any(), eq(2))).thenReturn(2, 2, 1);
+
+    assertThat(service.cleanupExpiredKeys()).isEqualTo(5);
+    verify(keyStore, times(3)).deleteExpiredBatch(any(), eq(2));
+  }
+
+  private static KeyRecord record(
+      IdempotencyKeyStore.State state, String requestHash, StoredResponse response) {
+    return new KeyRecord(
+        state,
+        requestHash,
+        response == null ? null : response.status(),
+        response == null ? null : response.body(),
+        null,
+        Instant.now().plus(Duration.ofHours(1)));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package de.freshplan.modules.leads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.domain.customer.service.util.CustomerNumberGeneratorService;
+import de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertResponse;
+import de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertResponse.Outcome;
+import de.freshplan.modules.leads.api.admin.dto.LeadBulkConvertResponse.Result;
+import de.freshplan.modules.leads.domain.Lead;
+import de.freshplan.modules.leads.domain.LeadStatus;
+import de.freshplan.modules.leads.events.LeadEventPublisher;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for {@link LeadConvertService#convertBatch}: chunking, per-lead report, failure
+ * isolation and one aggregated event per committed chunk.
+ */
+@Tag("unit")
+class LeadBulkConvertServiceTest {
+
+  private static final String USER = "manager-1";
+
+  private Map<Long, Lead> database;
+  private Set<Long> poisonedLeads;
+  private List<List<Long>> loadedChunks;
+  private int transactions;
+  private int flushes;
+  private CustomerNumberGeneratorService numberGenerator;
+  private LeadEventPublisher eventPublisher;
+  private LeadConvertService service;
+
+  @BeforeEach
+  void setUp() {
+    database = new HashMap<>();
+    poisonedLeads = new HashSet<>();
+    loadedChunks = new ArrayList<>();
+    transactions = 0;
+    flushes = 0;
+
+    numberGenerator = mock(CustomerNumberGeneratorService.class);
+    int[] next = {1};
+    when(numberGenerator.generateNextBlock(anyInt()))
+        .thenAnswer(
+            inv -> {
+              int count = inv.getArgument(0);
+              List<String> numbers =
+                  IntStream.range(0, count)
+                      .mapToObj(i -> String.format("KD-2026-%05d", next[0] + i))
+                      .toList();
+              next[0] += count;
+              return numbers;
+            });
+    eventPublisher = mock(LeadEventPublisher.class);
+
+    service =
+        new LeadConvertService() {
+          @Override
+          Map<Long, Lead> loadLeadsWithContacts(List<Long> leadIds) {
+            loadedChunks.add(List.copyOf(leadIds));
+            Map<Long, Lead> found = new HashMap<>();
+            leadIds.stream()
+                .filter(database::containsKey)
+                .forEach(id -> found.put(id, database.get(id)));
+            return found;
+          }
+
+          @Override
+          Customer createCustomerFromLead(Lead lead, String customerNumber, String userId) {
+            if (poisonedLeads.contains(lead.id)) {
+              throw new IllegalStateException("duplicate key value violates unique constraint");
+            }
+            Customer customer = new Customer();
+            customer.setId(UUID.randomUUID());
+            customer.setCustomerNumber(customerNumber);
+            lead.status = LeadStatus.CONVERTED;
+            return customer;
+          }
+
+          @Override
+          void flushAndClear() {
+            flushes++;
+          }
+
+          @Override
+          <T> T inNewTransaction(Supplier<T> work) {
+            transactions++;
+            // Rollback semantics: leads converted in a failed transaction stay unconverted
+            Map<Long, LeadStatus> before = new HashMap<>();
+            database.forEach((id, lead) -> before.put(id, lead.status));
+            try {
+              return work.get();
+            } catch (RuntimeException e) {
+              before.forEach((id, status) -> database.get(id).status = status);
+              throw e;
+            }
+          }
+        };
+    service.numberGenerator = numberGenerator;
+    service.leadEventPublisher = eventPublisher;
+    service.chunkSize = 3;
+  }
+
+  @Test
+  void convertBatch_chunksLeadsIntoOneTransactionAndFlushEach() {
+    addLeads(1, 7);
+
+    LeadBulkConvertResponse response = service.convertBatch(ids(1, 7), USER);
+
+    assertThat(loadedChunks).containsExactly(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L), List.of(7L));
+    assertThat(transactions).isEqualTo(3);
+    assertThat(flushes).isEqualTo(3);
+    verify(numberGenerator, times(2)).generateNextBlock(3);
+    verify(numberGenerator).generateNextBlock(1);
+    assertThat(response.requested).isEqualTo(7);
+    assertThat(response.converted).isEqualTo(7);
+    assertThat(response.results)
+        .extracting(r -> r.customerNumber)
+        .doesNotHaveDuplicates()
+        .allMatch(n -> n.startsWith("KD-2026-"));
+  }
+
+  @Test
+  void convertBatch_reportsMissingAndAlreadyConvertedLeadsInRequestOrder() {
+    addLeads(1, 2);
+    database.get(2L).status = LeadStatus.CONVERTED;
+
+    LeadBulkConvertResponse response = service.convertBatch(List.of(99L, 2L, 1L, 1L), USER);
+
+    assertThat(response.results).extracting(r -> r.leadId).containsExactly(99L, 2L, 1L);
+    assertThat(response.results)
+        .extracting(r -> r.outcome)
+        .containsExactly(Outcome.FAILED, Outcome.SKIPPED, Outcome.CONVERTED);
+    assertThat(response.failed).isEqualTo(1);
+    assertThat(response.skipped).isEqualTo(1);
+    assertThat(response.converted).isEqualTo(1);
+    verify(numberGenerator).generateNextBlock(1);
+  }
+
+  @Test
+  void convertBatch_failingLead_isIsolatedFromItsChunk() {
+    addLeads(1, 3);
+    poisonedLeads.add(2L);
+
+    LeadBulkConvertResponse response = service.convertBatch(ids(1, 3), USER);
+
+    // 1 chunk attempt + 3 single-lead retries
+    assertThat(transactions).isEqualTo(4);
+    assertThat(response.results)
+        .extracting(r -> r.outcome)
+        .containsExactly(Outcome.CONVERTED, Outcome.FAILED, Outcome.CONVERTED);
+    Result failed = response.results.get(1);
+    assertThat(failed.message).contains("unique constraint");
+    assertThat(database.get(2L).status).isNotEqualTo(LeadStatus.CONVERTED);
+  }
+
+  @Test
+  void convertBatch_publishesOneAggregatedEventPerCommittedChunk() {
+    addLeads(1, 5);
+    database.get(5L).status = LeadStatus.CONVERTED;
+
+    LeadBulkConvertResponse response = service.convertBatch(ids(1, 5), USER);
+
+    ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+    verify(eventPublisher, times(2))
+        .publishCrossModuleEvent(eq(LeadConvertService.BATCH_EVENT_TYPE), payload.capture());
+    JsonObject first = new JsonObject(payload.getAllValues().get(0));
+    JsonObject second = new JsonObject(payload.getAllValues().get(1));
+    assertThat(first.getInteger("count")).isEqualTo(3);
+    assertThat(first.getString("convertedBy")).isEqualTo(USER);
+    assertThat(first.getJsonArray("leadIds").getList()).containsExactly(1, 2, 3);
+    assertThat(first.getJsonArray("customerIds").getString(0))
+        .isEqualTo(response.results.get(0).customerId.toString());
+    assertThat(second.getInteger("count")).isEqualTo(1);
+  }
+
+  @Test
+  void convertBatch_largeChunk_splitsEventsBelowNotifyLimit() {
+    service.chunkSize = 500;
+    addLeads(1, 250);
+
+    service.convertBatch(ids(1, 250), USER);
+
+    ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+    verify(eventPublisher, times(3))
+        .publishCrossModuleEvent(eq(LeadConvertService.BATCH_EVENT_TYPE), payload.capture());
+    assertThat(payload.getAllValues())
+        .extracting(p -> new JsonObject(p).getInteger("count"))
+        .containsExactly(100, 100, 50);
+    // Envelope of LeadEventPublisher adds < 100 bytes
+    assertThat(payload.getAllValues()).allSatisfy(p -> assertThat(p.length()).isLessThan(7000));
+    assertThat(new JsonObject(payload.getAllValues().get(2)).getJsonArray("leadIds").getList())
+        .startsWith(201, 202);
+  }
+
+  @Test
+  void convertBatch_chunkWithoutConversions_publishesNothing() {
+    service.convertBatch(List.of(41L, 42L), USER);
+
+    verify(eventPublisher, never()).publishCrossModuleEvent(anyString(), anyString());
+  }
+
+  private void addLeads(long from, long to) {
+    for (long id = from; id <= to; id++) {
+      Lead lead = new Lead();
+      lead.id = id;
+      lead.companyName = "Messe-Lead " + id;
+      lead.status = LeadStatus.QUALIFIED;
+      database.put(id, lead);
+    }
+  }
+
+  private static List<Long> ids(long from, long to) {
+    return LongStream.rangeClosed(from, to).boxed().toList();
+  }
+}
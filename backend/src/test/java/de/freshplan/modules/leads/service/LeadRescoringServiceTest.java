@@ -0,0 +1,304 @@
+package de.freshplan.modules.leads.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.freshplan.domain.shared.BusinessType;
+import de.freshplan.domain.shared.DealSize;
+import de.freshplan.domain.shared.LeadSource;
+import de.freshplan.modules.leads.domain.DecisionMakerAccess;
+import de.freshplan.modules.leads.domain.Lead;
+import de.freshplan.modules.leads.domain.RelationshipStatus;
+import de.freshplan.modules.leads.domain.UrgencyLevel;
+import de.freshplan.modules.leads.service.LeadRescoringService.Progress;
+import de.freshplan.modules.leads.service.LeadRescoringService.ScoreUpdate;
+import de.freshplan.modules.leads.service.LeadRescoringService.Status;
+import de.freshplan.modules.leads.service.LeadScoringService.Scores;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests für das Bulk-Rescoring: Parität der reinen Scoring-Funktionen mit dem Entity-Pfad,
+ * Keyset-Chunks, Schreiben nur geänderter Scores und Fortschritt.
+ */
+@Tag("unit")
+class LeadRescoringServiceTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  private final LeadScoringService scoring = new LeadScoringService();
+
+  private List<LeadScoreInput> table;
+  private List<Long> requestedAfter;
+  private List<List<ScoreUpdate>> writes;
+  private List<List<Long>> reloaded;
+
+  /** Anzahl zwischenzeitlich bearbeiteter Leads pro Schreibvorgang (der Reihe nach, sonst 0). */
+  private Deque<Integer> staleInWrites;
+
+  private LeadRescoringService service;
+
+  @BeforeEach
+  void setUp() {
+    table = new ArrayList<>();
+    requestedAfter = new ArrayList<>();
+    writes = new ArrayList<>();
+    reloaded = new ArrayList<>();
+    staleInWrites = new ArrayDeque<>();
+    service =
+        new LeadRescoringService() {
+          @Override
+          List<LeadScoreInput> loadChunk(long afterId, int limit) {
+            requestedAfter.add(afterId);
+            return table.stream().filter(i -> i.leadId() > afterId).limit(limit).toList();
+          }
+
+          @Override
+          List<LeadScoreInput> loadByIds(List<Long> leadIds) {
+            reloaded.add(List.copyOf(leadIds));
+            return table.stream().filter(i -> leadIds.contains(i.leadId())).toList();
+          }
+
+          @Override
+          Set<Long> writeChanged(List<ScoreUpdate> updates) {
+            writes.add(updates);
+            int stale = staleInWrites.isEmpty() ? 0 : staleInWrites.poll();
+            return updates.stream()
+                .skip(stale)
+                .map(ScoreUpdate::leadId)
+                .collect(Collectors.toSet());
+          }
+        };
+    service.scoringService = scoring;
+    service.meterRegistry = new SimpleMeterRegistry();
+    service.chunkSize = 100;
+    service.parallelism = 4;
+    service.init();
+  }
+
+  @Test
+  @DisplayName("Parität: score(Input) entspricht den Entity-Methoden")
+  void score_matchesEntityBasedCalculation() {
+    SplittableRandom random = new SplittableRandom(7);
+    for (int i = 0; i < 500; i++) {
+      Lead lead = randomLead(random, i);
+      Scores scores = scoring.score(LeadScoreInput.from(lead), TODAY);
+
+      assertThat(scores.painScore()).isEqualTo(scoring.calculatePainScore(lead));
+      assertThat(scores.fitScore()).isEqualTo(scoring.calculateFitScore(lead));
+      assertThat(scores.engagementScore()).isEqualTo(scoring.calculateEngagementScore(lead));
+      assertThat(scores.revenueScore()).isEqualTo(scoring.calculateRevenueScore(lead));
+
+      scoring.updateLeadScore(lead);
+      assertThat(lead.leadScore).isEqualTo(scores.totalScore());
+    }
+  }
+
+  @Test
+  @DisplayName("Deal-Size wird aus dem Jahresvolumen abgeleitet und am Lead gesetzt")
+  void revenueScore_derivesDealSize() {
+    Lead lead = new Lead();
+    lead.estimatedVolume = new BigDecimal("2500000");
+
+    int revenue = scoring.calculateRevenueScore(lead);
+
+    assertThat(lead.dealSize).isEqualTo(DealSize.ENTERPRISE);
+    assertThat(revenue).isEqualTo(40 + 30);
+  }
+
+  @Test
+  @DisplayName("Keyset: alle Leads werden in Chunks ab der letzten ID gelesen")
+  void rescoreAll_pagesByKeyset() {
+    addInputs(250, false);
+
+    Progress progress = service.rescoreAll();
+
+    assertThat(requestedAfter).containsExactly(Long.MIN_VALUE, 100L, 200L);
+    assertThat(progress.scanned()).isEqualTo(250);
+    assertThat(progress.chunks()).isEqualTo(3);
+    assertThat(progress.status()).isEqualTo(Status.COMPLETED);
+  }
+
+  @Test
+  @DisplayName("Nur geänderte Scores werden geschrieben, ein Statement pro Chunk")
+  void rescoreAll_writesOnlyChangedScores() {
+    addInputs(100, true);
+    // Jeder dritte Lead hat veraltete Scores
+    for (int i = 0; i < table.size(); i += 3) {
+      LeadScoreInput in = table.get(i);
+      table.set(i, withStored(in, new LeadScoreInput.StoredScores(0, 0, 0, 0, 0)));
+    }
+
+    Progress progress = service.rescoreAll();
+
+    assertThat(writes).hasSize(1);
+    assertThat(writes.get(0)).hasSize(34);
+    assertThat(writes.get(0))
+        .allSatisfy(
+            update -> {
+              LeadScoreInput in = table.get((int) (update.leadId() - 1));
+              assertThat(update.scores()).isEqualTo(scoring.score(in, TODAY));
+              assertThat(update.version()).isEqualTo(in.version());
+            });
+    assertThat(progress.changed()).isEqualTo(34);
+  }
+
+  @Test
+  @DisplayName("Zwischenzeitlich bearbeitete Leads werden erneut gelesen und bewertet")
+  void rescoreAll_requeuesStaleRows() {
+    addInputs(10, false);
+    staleInWrites.add(2);
+
+    Progress progress = service.rescoreAll();
+
+    assertThat(reloaded).containsExactly(List.of(1L, 2L));
+    assertThat(writes).hasSize(2);
+    assertThat(writes.get(1)).extracting(ScoreUpdate::leadId).containsExactly(1L, 2L);
+    assertThat(progress.changed()).isEqualTo(10);
+    assertThat(progress.requeued()).isEqualTo(2);
+    assertThat(progress.stale()).isZero();
+  }
+
+  @Test
+  @DisplayName("Leads, die in jeder Runde kollidieren, werden als stale gezählt")
+  void rescoreAll_countsStaleRowsAfterAllPasses() {
+    addInputs(10, false);
+    staleInWrites.add(2);
+    for (int pass = 0; pass < LeadRescoringService.MAX_STALE_PASSES; pass++) {
+      staleInWrites.add(1);
+    }
+
+    Progress progress = service.rescoreAll();
+
+    assertThat(reloaded).hasSize(LeadRescoringService.MAX_STALE_PASSES);
+    assertThat(progress.changed()).isEqualTo(9);
+    assertThat(progress.requeued()).isEqualTo(2 + 1 + 1);
+    assertThat(progress.stale()).isEqualTo(1);
+    assertThat(
+            service
+                .meterRegistry
+                .get("freshplan_leads_rescored")
+                .tag("result", "stale")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Parallel: gleiche Ergebnisse wie sequentielles Scoring")
+  void scoreChunk_parallelMatchesSequential() {
+    addInputs(5_000, false);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      List<ScoreUpdate> parallel = service.scoreChunk(pool, table, TODAY);
+
+      assertThat(parallel).hasSize(table.size());
+      for (int i = 0; i < table.size(); i++) {
+        assertThat(parallel.get(i).leadId()).isEqualTo(table.get(i).leadId());
+        assertThat(parallel.get(i).scores()).isEqualTo(scoring.score(table.get(i), TODAY));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Fehler: Job endet mit FAILED und Fehlermeldung")
+  void rescoreAll_failure_reportsFailed() {
+    LeadRescoringService failing =
+        new LeadRescoringService() {
+          @Override
+          List<LeadScoreInput> loadChunk(long afterId, int limit) throws java.sql.SQLException {
+            throw new java.sql.SQLException("connection lost");
+          }
+        };
+    failing.scoringService = scoring;
+    failing.meterRegistry = new SimpleMeterRegistry();
+    failing.chunkSize = 10;
+    failing.init();
+
+    Progress progress = failing.rescoreAll();
+
+    assertThat(progress.status()).isEqualTo(Status.FAILED);
+    assertThat(progress.error()).isEqualTo("connection lost");
+  }
+
+  /**
+   * @param scored true = gespeicherte Scores sind aktuell
+   */
+  private void addInputs(int count, boolean scored) {
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < count; i++) {
+      Lead lead = randomLead(random, i + 1);
+      lead.dealSize = LeadScoreInput.from(lead).effectiveDealSize();
+      if (scored) {
+        scoring.updateLeadScore(lead);
+      }
+      table.add(LeadScoreInput.from(lead));
+    }
+  }
+
+  private static LeadScoreInput withStored(LeadScoreInput in, LeadScoreInput.StoredScores stored) {
+    return new LeadScoreInput(
+        in.leadId(),
+        in.version(),
+        in.painCount(),
+        in.urgencyLevel(),
+        in.estimatedVolume(),
+        in.budgetConfirmed(),
+        in.dealSize(),
+        in.businessType(),
+        in.city(),
+        in.source(),
+        in.relationshipStatus(),
+        in.decisionMakerAccess(),
+        in.internalChampionName(),
+        in.lastActivityAt(),
+        stored);
+  }
+
+  static Lead randomLead(SplittableRandom random, long id) {
+    Lead lead = new Lead();
+    lead.id = id;
+    lead.version = random.nextInt(5);
+    lead.painStaffShortage = random.nextBoolean();
+    lead.painHighCosts = random.nextBoolean();
+    lead.painFoodWaste = random.nextBoolean();
+    lead.painQualityInconsistency = random.nextBoolean();
+    lead.painUnreliableDelivery = random.nextBoolean();
+    lead.painPoorService = random.nextBoolean();
+    lead.painSupplierQuality = random.nextBoolean();
+    lead.painTimePressure = random.nextBoolean();
+    lead.urgencyLevel = pick(random, UrgencyLevel.values());
+    lead.estimatedVolume =
+        random.nextInt(4) == 0 ? null : BigDecimal.valueOf(random.nextInt(3_000_000));
+    lead.budgetConfirmed = random.nextBoolean();
+    lead.businessType = pick(random, BusinessType.values());
+    lead.city = random.nextBoolean() ? "Berlin" : "Bad Tölz";
+    lead.source = pick(random, LeadSource.values());
+    lead.relationshipStatus = pick(random, RelationshipStatus.values());
+    lead.decisionMakerAccess = pick(random, DecisionMakerAccess.values());
+    lead.internalChampionName = random.nextBoolean() ? "Frau Koch" : null;
+    lead.lastActivityAt =
+        random.nextBoolean() ? LocalDateTime.now().minusDays(random.nextInt(30)) : null;
+    return lead;
+  }
+
+  private static <T> T pick(SplittableRandom random, T[] values) {
+    int index = random.nextInt(values.length + 1);
+    return index == values.length ? null : values[index];
+  }
+}
@@ -0,0 +1,196 @@
+package de.freshplan.modules.xentral.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.freshplan.domain.customer.entity.Customer;
+import de.freshplan.modules.xentral.service.BranchAddressIndex.BranchAddress;
+import de.freshplan.modules.xentral.service.BranchAddressIndex.Match;
+import de.freshplan.modules.xentral.service.XentralAddressMatcher.AddressStamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the pre-indexed branch address matching: same result as the full Levenshtein scan,
+ * and index caching per headquarter.
+ */
+@Tag("unit")
+class BranchAddressIndexTest {
+
+  private static final double THRESHOLD = 0.80;
+
+  private static final String[] STREETS = {
+    "Maximilianstraße",
+    "Reeperbahn",
+    "Alexanderplatz",
+    "Königsallee",
+    "Zeil",
+    "Hauptstraße",
+    "Bahnhofstraße",
+    "Schillerstraße",
+    "Goethestraße",
+    "Marienplatz"
+  };
+  private static final String[] CITIES = {
+    "München", "Hamburg", "Berlin", "Düsseldorf", "Frankfurt", "Köln", "Stuttgart", "Leipzig"
+  };
+
+  @Test
+  @DisplayName("Abbreviated delivery address matches the branch")
+  void bestMatch_abbreviation() {
+    UUID munich = UUID.randomUUID();
+    BranchAddressIndex index =
+        BranchAddressIndex.build(
+            List.of(
+                new BranchAddress(munich, "Maximilianstraße 17, 80539 München"),
+                new BranchAddress(UUID.randomUUID(), "Reeperbahn 1, 20359 Hamburg")));
+
+    Match match = index.bestMatch("Maximilianstr. 17, 80539 München", THRESHOLD);
+
+    assertThat(match).isNotNull();
+    assertThat(match.branchId()).isEqualTo(munich);
+    assertThat(match.similarity()).isGreaterThanOrEqualTo(THRESHOLD);
+  }
+
+  @Test
+  @DisplayName("No branch above the threshold: no match")
+  void bestMatch_belowThreshold() {
+    BranchAddressIndex index =
+        BranchAddressIndex.build(
+            List.of(new BranchAddress(UUID.randomUUID(), "Reeperbahn 1, 20359 Hamburg")));
+
+    assertThat(index.bestMatch("Hauptstraße 999, 12345 UnknownCity", THRESHOLD)).isNull();
+  }
+
+  @Test
+  @DisplayName("Equal similarity: the first branch in list order wins")
+  void bestMatch_tieBreakByListOrder() {
+    UUID first = UUID.randomUUID();
+    BranchAddressIndex index =
+        BranchAddressIndex.build(
+            List.of(
+                new BranchAddress(first, "Zeil 10, 60313 Frankfurt"),
+                new BranchAddress(UUID.randomUUID(), "Zeil 10, 60313 Frankfurt")));
+
+    assertThat(index.bestMatch("Zeil 10, 60313 Frankfurt", THRESHOLD).branchId()).isEqualTo(first);
+  }
+
+  @Test
+  @DisplayName("Blocking and bounded distance give the same result as the full scan")
+  void bestMatch_equalsFullScan() {
+    SplittableRandom random = new SplittableRandom(7L);
+    List<BranchAddress> branches = syntheticChain(random, 300);
+    BranchAddressIndex index = BranchAddressIndex.build(branches);
+
+    for (int i = 0; i < 500; i++) {
+      String query = mutate(random, branches.get(random.nextInt(branches.size())).address());
+
+      Match expected = fullScan(branches, query);
+      Match actual = index.bestMatch(query, THRESHOLD);
+
+      assertThat(actual).as("query '%s'", query).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  @DisplayName("Max edits is the largest distance that still reaches the threshold")
+  void maxEdits_matchesSimilarityFormula() {
+    for (int length = 1; length < 200; length++) {
+      int edits = BranchAddressIndex.maxEdits(length, THRESHOLD);
+      assertThat(1.0 - (double) edits / length).isGreaterThanOrEqualTo(THRESHOLD);
+      assertThat(1.0 - (double) (edits + 1) / length).isLessThan(THRESHOLD);
+    }
+  }
+
+  @Test
+  @DisplayName("Index is built once per headquarter and rebuilt when the address stamp changes")
+  void matcher_cachesIndexUntilStampChanges() {
+    AtomicInteger builds = new AtomicInteger();
+    AddressStamp[] stamp = {new AddressStamp(1, 42, 1, 1, "t1")};
+    XentralAddressMatcher matcher =
+        new XentralAddressMatcher() {
+          @Override
+          AddressStamp loadAddressStamp(UUID headquarterId) {
+            return stamp[0];
+          }
+
+          @Override
+          BranchAddressIndex buildIndex(Customer parent) {
+            builds.incrementAndGet();
+            return BranchAddressIndex.build(List.of());
+          }
+        };
+    matcher.maxHeadquarters = 10;
+    matcher.expireAfterAccess = Duration.ofHours(1);
+    matcher.initCache();
+    Customer headquarter = new Customer();
+    headquarter.setId(UUID.randomUUID());
+
+    matcher.indexFor(headquarter);
+    matcher.indexFor(headquarter);
+    assertThat(builds).hasValue(1);
+
+    stamp[0] = new AddressStamp(1, 42, 1, 1, "t2");
+    matcher.indexFor(headquarter);
+    assertThat(builds).hasValue(2);
+
+    matcher.invalidate(headquarter.getId());
+    matcher.indexFor(headquarter);
+    assertThat(builds).hasValue(3);
+  }
+
+  private static Match fullScan(List<BranchAddress> branches, String query) {
+    LevenshteinDistance levenshtein = LevenshteinDistance.getDefaultInstance();
+    String input = BranchAddressIndex.normalize(query);
+    Match best = null;
+    double bestSimilarity = 0.0;
+    for (BranchAddress branch : branches) {
+      String candidate = BranchAddressIndex.normalize(branch.address());
+      int maxLength = Math.max(input.length(), candidate.length());
+      double similarity =
+          maxLength == 0 ? 1.0 : 1.0 - (double) levenshtein.apply(input, candidate) / maxLength;
+      if (similarity > bestSimilarity) {
+        bestSimilarity = similarity;
+        best = new Match(branch.branchId(), similarity);
+      }
+    }
+    return bestSimilarity >= THRESHOLD ? best : null;
+  }
+
+  static List<BranchAddress> syntheticChain(SplittableRandom random, int size) {
+    List<BranchAddress> branches = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      String address =
+          STREETS[random.nextInt(STREETS.length)]
+              + " "
+              + (1 + random.nextInt(150))
+              + ", "
+              + String.format("%05d", 10000 + random.nextInt(89999))
+              + " "
+              + CITIES[random.nextInt(CITIES.length)];
+      branches.add(new BranchAddress(UUID.randomUUID(), address));
+    }
+    return branches;
+  }
+
+  /** Typical Xentral variations: abbreviations, typos, missing postal code. */
+  static String mutate(SplittableRandom random, String address) {
+    return switch (random.nextInt(5)) {
+      case 0 -> address.replace("straße", "str.");
+      case 1 -> address.replaceAll("\\d{5} ", "");
+      case 2 -> {
+        int position = random.nextInt(address.length());
+        yield address.substring(0, position) + address.substring(position + 1);
+      }
+      case 3 -> address.toUpperCase() + "!!";
+      default -> "Lieferung " + address;
+    };
+  }
+}
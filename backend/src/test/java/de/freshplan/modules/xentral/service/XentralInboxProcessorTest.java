@@ -0,0 +1,161 @@
+package de.freshplan.modules.xentral.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import de.freshplan.infrastructure.queue.LeaseQueue.QueueStats;
+import de.freshplan.modules.xentral.service.XentralInboxClaimService.ClaimedDelivery;
+import de.freshplan.modules.xentral.service.XentralOrderEventHandler.OrderDelivery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests for XentralInboxProcessor (Xentral Webhook Inbox).
+ *
+ * <p>Strategy: Pure Mockito, NO @QuarkusTest, NO DB. Claim/Update SQL lives in
+ * XentralInboxClaimService and is mocked here.
+ */
+@DisplayName("XentralInboxProcessor Unit Tests")
+@Tag("unit")
+class XentralInboxProcessorTest {
+
+  private static final Instant NOW = Instant.parse("2026-03-02T18:00:00Z");
+  private static final LocalDateTime NOW_LOCAL = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+  private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+  private XentralInboxClaimService claimService;
+  private XentralOrderEventHandler orderEventHandler;
+  private SimpleMeterRegistry meterRegistry;
+  private XentralInboxProcessor processor;
+
+  @BeforeEach
+  void setUp() {
+    claimService = mock(XentralInboxClaimService.class);
+    orderEventHandler = mock(XentralOrderEventHandler.class);
+    meterRegistry = new SimpleMeterRegistry();
+    when(claimService.inboxStats(any())).thenReturn(QueueStats.EMPTY);
+
+    processor = new XentralInboxProcessor();
+    processor.claimService = claimService;
+    processor.orderEventHandler = orderEventHandler;
+    processor.meterRegistry = meterRegistry;
+    processor.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    processor.enabled = true;
+    processor.batchSize = 3;
+    processor.concurrency = 2;
+    processor.maxAttempts = 3;
+    processor.backoffInitialSeconds = 30;
+    processor.backoffMaxSeconds = 3600;
+    processor.leaseSeconds = 300;
+    processor.processTimeoutSeconds = 5;
+    processor.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    processor.shutdown();
+  }
+
+  @Test
+  @DisplayName("processBatch() coalesces deliveries of one customer into one handler call")
+  void deliveriesOfOneCustomerAreCoalesced() {
+    int processed =
+        processor.processBatch(
+            List.of(
+                delivery(1L, "XENT-1", "ORD-1", DAY.minusDays(1), 0),
+                delivery(2L, "XENT-2", "ORD-2", DAY, 0),
+                delivery(3L, "XENT-1", "ORD-3", DAY, 0)));
+
+    assertThat(processed).isEqualTo(3);
+    verify(orderEventHandler)
+        .handleOrdersDelivered(
+            "XENT-1",
+            List.of(new OrderDelivery("ORD-1", DAY.minusDays(1)), new OrderDelivery("ORD-3", DAY)));
+    verify(orderEventHandler)
+        .handleOrdersDelivered("XENT-2", List.of(new OrderDelivery("ORD-2", DAY)));
+    verify(claimService).markDone(argThat(ids -> ids.containsAll(List.of(1L, 2L, 3L))), any());
+    assertThat(meterRegistry.counter("freshplan_xentral_inbox_coalesced").count()).isEqualTo(1.0);
+    assertThat(meterRegistry.timer("freshplan_xentral_inbox_lag").count()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("processBatch() retries a failed customer with backoff, others are DONE")
+  void failedCustomerIsRetriedWithBackoff() {
+    doThrow(new IllegalArgumentException("Customer not found: XENT-1"))
+        .when(orderEventHandler)
+        .handleOrdersDelivered(eq("XENT-1"), anyList());
+
+    processor.processBatch(
+        List.of(delivery(1L, "XENT-1", "ORD-1", DAY, 0), delivery(2L, "XENT-2", "ORD-2", DAY, 0)));
+
+    verify(claimService)
+        .scheduleRetry(
+            eq(List.of(1L)), contains("Customer not found"), eq(NOW_LOCAL.plusSeconds(30)));
+    verify(claimService).markDone(eq(List.of(2L)), eq(NOW_LOCAL));
+    verify(claimService, never()).deadLetter(anyList(), anyString(), any());
+  }
+
+  @Test
+  @DisplayName("processBatch() moves rows at max attempts to Dead-Letter, younger rows retry")
+  void exhaustedRowsAreDeadLettered() {
+    doThrow(new IllegalStateException("boom"))
+        .when(orderEventHandler)
+        .handleOrdersDelivered(eq("XENT-1"), anyList());
+
+    processor.processBatch(
+        List.of(delivery(1L, "XENT-1", "ORD-1", DAY, 2), delivery(2L, "XENT-1", "ORD-2", DAY, 0)));
+
+    verify(claimService).deadLetter(eq(List.of(1L)), contains("boom"), eq(NOW_LOCAL));
+    verify(claimService).scheduleRetry(eq(List.of(2L)), contains("boom"), any());
+    assertThat(
+            meterRegistry
+                .counter("freshplan_xentral_inbox_processed", "result", "dead_letter")
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("dispatch() releases expired claims and drains until a partial batch")
+  void dispatchDrainsInbox() {
+    when(claimService.claimDueBatch(eq(3), any()))
+        .thenReturn(
+            List.of(
+                delivery(1L, "XENT-1", "ORD-1", DAY, 0),
+                delivery(2L, "XENT-2", "ORD-2", DAY, 0),
+                delivery(3L, "XENT-3", "ORD-3", DAY, 0)))
+        .thenReturn(List.of(delivery(4L, "XENT-4", "ORD-4", DAY, 0)));
+
+    int processed = processor.dispatch();
+
+    assertThat(processed).isEqualTo(4);
+    verify(claimService).releaseExpiredClaims(NOW_LOCAL.minusSeconds(300));
+    verify(claimService, times(2)).claimDueBatch(eq(3), any());
+    verify(claimService).inboxStats(any());
+  }
+
+  @Test
+  @DisplayName("dispatch() does nothing when the inbox is disabled")
+  void disabledInboxDoesNothing() {
+    processor.enabled = false;
+
+    assertThat(processor.dispatch()).isZero();
+    verifyNoInteractions(claimService, orderEventHandler);
+  }
+
+  private static ClaimedDelivery delivery(
+      Long id, String customerId, String orderNumber, LocalDate date, int attempts) {
+    return new ClaimedDelivery(
+        id, customerId, orderNumber, date, attempts, NOW_LOCAL.minusSeconds(5));
+  }
+}
@@ -0,0 +1,72 @@
+package de.freshplan.test.support;
+
+import jakarta.enterprise.inject.spi.CDI;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Test harness that fails if a block of code issues more JDBC statements than allowed - guards list
+ * endpoints against N+1 regressions.
+ *
+ * <p>Counts prepared statements via Hibernate statistics (entity queries, lazy loads and native
+ * queries). Statistics are switched on only for the measured block.
+ *
+ * <pre>
+ * CustomerListResponse page =
+ *     QueryCountAssertion.assertMaxStatements(3, () -> customerService.getAllCustomers(0, 20));
+ * </pre>
+ */
+public final class QueryCountAssertion {
+
+  private QueryCountAssertion() {}
+
+  /**
+   * Runs {@code work} and asserts it needed at most {@code maxStatements} JDBC statements.
+   *
+   * @return Result of {@code work}
+   * @throws AssertionError if the statement budget is exceeded
+   */
+  public static <T> T assertMaxStatements(long maxStatements, Supplier<T> work) {
+    Statistics statistics = statistics();
+    boolean wasEnabled = statistics.isStatisticsEnabled();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+    try {
+      T result = work.get();
+      long statements = statistics.getPrepareStatementCount();
+      if (statements > maxStatements) {
+        throw new AssertionError(
+            String.format(
+                "Expected at most %d SQL statements but %d were executed "
+                    + "(entity loads: %d, collection fetches: %d, queries: %d)",
+                maxStatements,
+                statements,
+                statistics.getEntityLoadCount(),
+                statistics.getCollectionFetchCount(),
+                statistics.getQueryExecutionCount()));
+      }
+      return result;
+    } finally {
+      statistics.setStatisticsEnabled(wasEnabled);
+    }
+  }
+
+  /** Number of statements {@code work} needs - for reporting/benchmarks. */
+  public static long countStatements(Runnable work) {
+    Statistics statistics = statistics();
+    boolean wasEnabled = statistics.isStatisticsEnabled();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+    try {
+      work.run();
+      return statistics.getPrepareStatementCount();
+    } finally {
+      statistics.setStatisticsEnabled(wasEnabled);
+    }
+  }
+
+  private static Statistics statistics() {
+    return CDI.current().select(SessionFactory.class).get().getStatistics();
+  }
+}